@@ -5,6 +5,9 @@ import com.testehan.finana.model.llm.responses.FerolNegativesAnalysisLlmResponse
 import com.testehan.finana.model.llm.responses.TAMScoreExplanationResponse;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.reporting.ReportType;
+import com.testehan.finana.service.reporting.ReportContext;
+import com.testehan.finana.service.reporting.ReportData;
+import com.testehan.finana.service.reporting.calc.CalculatorResource;
 import com.testehan.finana.service.reporting.calc.ReportItemCalculator;
 import com.testehan.finana.service.reporting.calc.negatives.CurrencyRiskCalculator;
 import com.testehan.finana.service.reporting.calc.negatives.DilutionRiskCalculator;
@@ -16,7 +19,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Configuration
 public class ChecklistsConfig {
@@ -50,54 +55,80 @@ public class ChecklistsConfig {
             CurrencyRiskCalculator currencyRiskCalculator
     ) {
         return List.of(
-                (ticker, reportType, sseEmitter) -> List.of(financialResilienceCalculator.calculate(ticker, sseEmitter)),
-                (ticker, reportType, sseEmitter) -> List.of(grossMarginCalculator.calculate(ticker, sseEmitter)),
-                (ticker, reportType, sseEmitter) -> List.of(roicCalculator.calculate(ticker, sseEmitter)),
-                (ticker, reportType, sseEmitter) -> List.of(fcfCalculator.calculate(ticker, sseEmitter)),
-                (ticker, reportType, sseEmitter) -> List.of(epsCalculator.calculate(ticker, sseEmitter)),
-                (ticker, reportType, sseEmitter) -> {
-                    FerolMoatAnalysisLlmResponse analysis = moatCalculator.calculate(ticker, sseEmitter);
-                    return List.of(
-                            new ReportItem("networkEffect", analysis.getNetworkEffectScore(), analysis.getNetworkEffectExplanation()),
-                            new ReportItem("switchingCosts", analysis.getSwitchingCostsScore(), analysis.getSwitchingCostsExplanation()),
-                            new ReportItem("durableCostAdvantage", analysis.getDurableCostAdvantageScore(), analysis.getDurableCostAdvantageExplanation()),
-                            new ReportItem("intangibles", analysis.getIntangiblesScore(), analysis.getIntangiblesExplanation()),
-                            new ReportItem("counterPositioning", analysis.getCounterPositioningScore(), analysis.getCounterPositioningExplanation()),
-                            new ReportItem("moatDirection", analysis.getMoatDirectionScore(), analysis.getMoatDirectionExplanation())
-                    );
-                },
-                sequential((ticker, reportType, sseEmitter) -> List.of(optionalityCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(organicGrowthRunawayCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(topDogCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(operatingLeverageCalculator.calculate(ticker, sseEmitter))),
-                (ticker, reportType, sseEmitter) -> List.of(acquisitionsCalculator.calculate(ticker, sseEmitter)),
-                sequential((ticker, reportType, sseEmitter) -> List.of(cyclicalityCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(recurringRevenueCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(pricingPowerCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(cultureCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(soulInTheGameCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(insiderOwnershipCalculator.calculate(ticker, sseEmitter, reportType))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(missionStatementCalculator.calculate(ticker, sseEmitter))),
-                (ticker, reportType, sseEmitter) -> List.of(performanceVsSP500Calculator.calculateUpsidePerformance(ticker, sseEmitter)),
-                (ticker, reportType, sseEmitter) -> List.of(shareholderFriendlyActivityCalculator.calculate(ticker, sseEmitter)),
-                (ticker, reportType, sseEmitter) -> List.of(beatingEarningsExpectationsCalculator.calculateUpsidePerformance(ticker, sseEmitter)),
-                sequential((ticker, reportType, sseEmitter) -> {
-                    FerolNegativesAnalysisLlmResponse analysis = multipleRisksCalculator.calculate(ticker, sseEmitter);
-                    return List.of(
-                            new ReportItem("accountingIrregularities", analysis.getAccountingIrregularitiesScore(), analysis.getAccountingIrregularitiesExplanation()),
-                            new ReportItem("customerConcentration", analysis.getCustomerConcentrationScore(), analysis.getCustomerConcentrationExplanation()),
-                            new ReportItem("industryDisruption", analysis.getIndustryDisruptionScore(), analysis.getIndustryDisruptionExplanation()),
-                            new ReportItem("outsideForces", analysis.getOutsideForcesScore(), analysis.getOutsideForcesExplanation()),
-                            new ReportItem("binaryEvent", analysis.getBinaryEventScore(), analysis.getBinaryEventExplanation()),
-                            new ReportItem("growthByAcquisition", analysis.getGrowthByAcquisitionScore(), analysis.getGrowthByAcquisitionExplanation()),
-                            new ReportItem("complicatedFinancials", analysis.getComplicatedFinancialsScore(), analysis.getComplicatedFinancialsExplanation()),
-                            new ReportItem("antitrustConcerns", analysis.getAntitrustConcernsScore(), analysis.getAntitrustConcernsExplanation())
-                    );
-                }),
-                (ticker, reportType, sseEmitter) -> List.of(performanceVsSP500Calculator.calculateDownsidePerformance(ticker, sseEmitter)),
-                (ticker, reportType, sseEmitter) -> List.of(dilutionRiskCalculator.calculate(ticker, sseEmitter)),
-                (ticker, reportType, sseEmitter) -> List.of(headquarterRiskCalculator.calculate(ticker, sseEmitter)),
-                (ticker, reportType, sseEmitter) -> List.of(currencyRiskCalculator.calculate(ticker, sseEmitter))
+                calculator("financialResilience", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.INCOME_STATEMENT, ReportData.BALANCE_SHEET),
+                        (context, reportType, sseEmitter) -> List.of(financialResilienceCalculator.calculate(context, sseEmitter))),
+                calculator("grossMargin", CalculatorResource.COMPUTE, EnumSet.of(ReportData.FINANCIAL_RATIOS),
+                        (context, reportType, sseEmitter) -> List.of(grossMarginCalculator.calculate(context, sseEmitter))),
+                calculator("roic", CalculatorResource.COMPUTE, EnumSet.of(ReportData.FINANCIAL_RATIOS),
+                        (context, reportType, sseEmitter) -> List.of(roicCalculator.calculate(context, sseEmitter))),
+                calculator("fcf", CalculatorResource.COMPUTE, EnumSet.of(ReportData.FINANCIAL_RATIOS, ReportData.INCOME_STATEMENT),
+                        (context, reportType, sseEmitter) -> List.of(fcfCalculator.calculate(context, sseEmitter))),
+                calculator("eps", CalculatorResource.COMPUTE, EnumSet.of(ReportData.EARNINGS_HISTORY),
+                        (context, reportType, sseEmitter) -> List.of(epsCalculator.calculate(context, sseEmitter))),
+                calculator("moat", CalculatorResource.LLM_GEMINI, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING),
+                        (context, reportType, sseEmitter) -> {
+                            FerolMoatAnalysisLlmResponse analysis = moatCalculator.calculate(context, sseEmitter);
+                            return List.of(
+                                    new ReportItem("networkEffect", analysis.getNetworkEffectScore(), analysis.getNetworkEffectExplanation()),
+                                    new ReportItem("switchingCosts", analysis.getSwitchingCostsScore(), analysis.getSwitchingCostsExplanation()),
+                                    new ReportItem("durableCostAdvantage", analysis.getDurableCostAdvantageScore(), analysis.getDurableCostAdvantageExplanation()),
+                                    new ReportItem("intangibles", analysis.getIntangiblesScore(), analysis.getIntangiblesExplanation()),
+                                    new ReportItem("counterPositioning", analysis.getCounterPositioningScore(), analysis.getCounterPositioningExplanation()),
+                                    new ReportItem("moatDirection", analysis.getMoatDirectionScore(), analysis.getMoatDirectionExplanation())
+                            );
+                        }),
+                calculator("optionality", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING, ReportData.INCOME_STATEMENT, ReportData.FINANCIAL_RATIOS),
+                        (context, reportType, sseEmitter) -> List.of(optionalityCalculator.calculate(context, sseEmitter))),
+                calculator("organicGrowthRunaway", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.LATEST_TEN_K_FILING, ReportData.INCOME_STATEMENT, ReportData.FINANCIAL_RATIOS),
+                        (context, reportType, sseEmitter) -> List.of(organicGrowthRunawayCalculator.calculate(context, sseEmitter))),
+                calculator("topDog", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING),
+                        (context, reportType, sseEmitter) -> List.of(topDogCalculator.calculate(context, sseEmitter))),
+                calculator("operatingLeverage", CalculatorResource.LLM_GEMINI, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING, ReportData.INCOME_STATEMENT, ReportData.EARNINGS_ESTIMATE),
+                        (context, reportType, sseEmitter) -> List.of(operatingLeverageCalculator.calculate(context, sseEmitter))),
+                calculator("acquisitions", CalculatorResource.COMPUTE, EnumSet.of(ReportData.INCOME_STATEMENT),
+                        (context, reportType, sseEmitter) -> List.of(acquisitionsCalculator.calculate(context, sseEmitter))),
+                calculator("cyclicality", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING, ReportData.INCOME_STATEMENT, ReportData.FINANCIAL_RATIOS),
+                        (context, reportType, sseEmitter) -> List.of(cyclicalityCalculator.calculate(context, sseEmitter))),
+                calculator("recurringRevenue", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING, ReportData.BALANCE_SHEET, ReportData.REVENUE_SEGMENTATION),
+                        (context, reportType, sseEmitter) -> List.of(recurringRevenueCalculator.calculate(context, sseEmitter))),
+                calculator("pricingPower", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING, ReportData.INCOME_STATEMENT, ReportData.FINANCIAL_RATIOS),
+                        (context, reportType, sseEmitter) -> List.of(pricingPowerCalculator.calculate(context, sseEmitter))),
+                calculator("culture", CalculatorResource.LLM_GEMINI, EnumSet.of(ReportData.COMPANY_OVERVIEW),
+                        (context, reportType, sseEmitter) -> List.of(cultureCalculator.calculate(context, sseEmitter))),
+                calculator("soulInTheGame", CalculatorResource.LLM_GEMINI, EnumSet.of(ReportData.COMPANY_OVERVIEW),
+                        (context, reportType, sseEmitter) -> List.of(soulInTheGameCalculator.calculate(context, sseEmitter))),
+                calculator("insiderOwnership", CalculatorResource.LLM_GEMINI, EnumSet.of(ReportData.COMPANY_OVERVIEW),
+                        (context, reportType, sseEmitter) -> List.of(insiderOwnershipCalculator.calculate(context, sseEmitter, reportType))),
+                calculator("missionStatement", CalculatorResource.LLM_GEMINI, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING),
+                        (context, reportType, sseEmitter) -> List.of(missionStatementCalculator.calculate(context, sseEmitter))),
+                calculator("upsidePerformance", CalculatorResource.COMPUTE, Set.of(),
+                        (context, reportType, sseEmitter) -> List.of(performanceVsSP500Calculator.calculateUpsidePerformance(context.getTicker(), sseEmitter))),
+                calculator("shareholderFriendlyActivity", CalculatorResource.COMPUTE, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.CASH_FLOW),
+                        (context, reportType, sseEmitter) -> List.of(shareholderFriendlyActivityCalculator.calculate(context, sseEmitter))),
+                calculator("beatingEarningsExpectations", CalculatorResource.COMPUTE, EnumSet.of(ReportData.EARNINGS_HISTORY),
+                        (context, reportType, sseEmitter) -> List.of(beatingEarningsExpectationsCalculator.calculateUpsidePerformance(context, sseEmitter))),
+                calculator("multipleRisks", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING),
+                        (context, reportType, sseEmitter) -> {
+                            FerolNegativesAnalysisLlmResponse analysis = multipleRisksCalculator.calculate(context, sseEmitter);
+                            return List.of(
+                                    new ReportItem("accountingIrregularities", analysis.getAccountingIrregularitiesScore(), analysis.getAccountingIrregularitiesExplanation()),
+                                    new ReportItem("customerConcentration", analysis.getCustomerConcentrationScore(), analysis.getCustomerConcentrationExplanation()),
+                                    new ReportItem("industryDisruption", analysis.getIndustryDisruptionScore(), analysis.getIndustryDisruptionExplanation()),
+                                    new ReportItem("outsideForces", analysis.getOutsideForcesScore(), analysis.getOutsideForcesExplanation()),
+                                    new ReportItem("binaryEvent", analysis.getBinaryEventScore(), analysis.getBinaryEventExplanation()),
+                                    new ReportItem("growthByAcquisition", analysis.getGrowthByAcquisitionScore(), analysis.getGrowthByAcquisitionExplanation()),
+                                    new ReportItem("complicatedFinancials", analysis.getComplicatedFinancialsScore(), analysis.getComplicatedFinancialsExplanation()),
+                                    new ReportItem("antitrustConcerns", analysis.getAntitrustConcernsScore(), analysis.getAntitrustConcernsExplanation())
+                            );
+                        }),
+                calculator("downsidePerformance", CalculatorResource.COMPUTE, Set.of(),
+                        (context, reportType, sseEmitter) -> List.of(performanceVsSP500Calculator.calculateDownsidePerformance(context.getTicker(), sseEmitter))),
+                calculator("dilutionRisk", CalculatorResource.COMPUTE, EnumSet.of(ReportData.INCOME_STATEMENT),
+                        (context, reportType, sseEmitter) -> List.of(dilutionRiskCalculator.calculate(context, sseEmitter))),
+                calculator("headquarterRisk", CalculatorResource.COMPUTE, EnumSet.of(ReportData.COMPANY_OVERVIEW),
+                        (context, reportType, sseEmitter) -> List.of(headquarterRiskCalculator.calculate(context, sseEmitter))),
+                calculator("currencyRisk", CalculatorResource.COMPUTE, EnumSet.of(ReportData.REVENUE_GEOGRAPHIC_SEGMENTATION),
+                        (context, reportType, sseEmitter) -> List.of(currencyRiskCalculator.calculate(context, sseEmitter)))
         );
     }
 
@@ -115,36 +146,58 @@ public class ChecklistsConfig {
             MoatCalculator moatCalculator
     ) {
         return List.of(
-                sequential((ticker, reportType, sseEmitter) -> List.of(reinvestmentCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(reinvestmentCalculator.calculateSustainedReturnsOnCapital(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(reinvestmentRunwayCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(insiderOwnershipCalculator.calculate(ticker, sseEmitter, reportType))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(capitalAllocationCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> {
-                    TAMScoreExplanationResponse analysis = tamCalculator.calculate(ticker, sseEmitter);
-                    return List.of(
-                            new ReportItem("totalAddressableMarket", analysis.getTotalAddressableMarketScore(), analysis.getTotalAddressableMarketExplanation()),
-                            new ReportItem("tamPenetrationRunway", analysis.getTamPenetrationRunwayScore(), analysis.getTamPenetrationRunwayExplanation())
-                    );
-                }),
-                sequential((ticker, reportType, sseEmitter) -> List.of(scalabilityOfModelCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(growthCurveCalculator.calculate(ticker, sseEmitter))),
-                (ticker, reportType, sseEmitter) -> List.of(marketCapCalculator.calculate(ticker)),
-                sequential((ticker, reportType, sseEmitter) -> List.of(valuationCalculator.calculate(ticker, sseEmitter))),
-                sequential((ticker, reportType, sseEmitter) -> List.of(moatCalculator.calculate100BaggerMoat(ticker, sseEmitter)))
+                calculator("reinvestment", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING, ReportData.INCOME_STATEMENT, ReportData.BALANCE_SHEET, ReportData.CASH_FLOW, ReportData.FINANCIAL_RATIOS),
+                        (context, reportType, sseEmitter) -> List.of(reinvestmentCalculator.calculate(context, sseEmitter))),
+                calculator("sustainedReturnsOnCapital", CalculatorResource.COMPUTE, EnumSet.of(ReportData.FINANCIAL_RATIOS),
+                        (context, reportType, sseEmitter) -> List.of(reinvestmentCalculator.calculateSustainedReturnsOnCapital(context, sseEmitter))),
+                calculator("reinvestmentRunway", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING, ReportData.INCOME_STATEMENT, ReportData.CASH_FLOW, ReportData.REVENUE_SEGMENTATION, ReportData.REVENUE_GEOGRAPHIC_SEGMENTATION),
+                        (context, reportType, sseEmitter) -> List.of(reinvestmentRunwayCalculator.calculate(context, sseEmitter))),
+                calculator("insiderOwnership", CalculatorResource.LLM_GEMINI, EnumSet.of(ReportData.COMPANY_OVERVIEW),
+                        (context, reportType, sseEmitter) -> List.of(insiderOwnershipCalculator.calculate(context, sseEmitter, reportType))),
+                calculator("capitalAllocation", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING, ReportData.INCOME_STATEMENT, ReportData.FINANCIAL_RATIOS),
+                        (context, reportType, sseEmitter) -> List.of(capitalAllocationCalculator.calculate(context, sseEmitter))),
+                calculator("tam", CalculatorResource.LLM_GEMINI, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING, ReportData.INCOME_STATEMENT),
+                        (context, reportType, sseEmitter) -> {
+                            TAMScoreExplanationResponse analysis = tamCalculator.calculate(context, sseEmitter);
+                            return List.of(
+                                    new ReportItem("totalAddressableMarket", analysis.getTotalAddressableMarketScore(), analysis.getTotalAddressableMarketExplanation()),
+                                    new ReportItem("tamPenetrationRunway", analysis.getTamPenetrationRunwayScore(), analysis.getTamPenetrationRunwayExplanation())
+                            );
+                        }),
+                calculator("scalabilityOfModel", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING, ReportData.INCOME_STATEMENT, ReportData.BALANCE_SHEET, ReportData.CASH_FLOW, ReportData.FINANCIAL_RATIOS),
+                        (context, reportType, sseEmitter) -> List.of(scalabilityOfModelCalculator.calculate(context, sseEmitter))),
+                calculator("growthCurve", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING, ReportData.INCOME_STATEMENT),
+                        (context, reportType, sseEmitter) -> List.of(growthCurveCalculator.calculate(context, sseEmitter))),
+                calculator("marketCap", CalculatorResource.COMPUTE, EnumSet.of(ReportData.COMPANY_OVERVIEW),
+                        (context, reportType, sseEmitter) -> List.of(marketCapCalculator.calculate(context))),
+                calculator("valuation", CalculatorResource.LLM_OLLAMA, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING, ReportData.FINANCIAL_RATIOS, ReportData.EARNINGS_HISTORY, ReportData.EARNINGS_ESTIMATE),
+                        (context, reportType, sseEmitter) -> List.of(valuationCalculator.calculate(context, sseEmitter))),
+                calculator("moat100Bagger", CalculatorResource.LLM_GEMINI, EnumSet.of(ReportData.COMPANY_OVERVIEW, ReportData.LATEST_TEN_K_FILING),
+                        (context, reportType, sseEmitter) -> List.of(moatCalculator.calculate100BaggerMoat(context, sseEmitter)))
         );
     }
 
-    private static ReportItemCalculator sequential(ReportItemCalculator calc) {
+    private static ReportItemCalculator calculator(String name, CalculatorResource resource, Set<ReportData> requires,
+                                                   ReportItemCalculator calc) {
         return new ReportItemCalculator() {
             @Override
-            public Collection<ReportItem> calculate(String ticker, ReportType reportType, SseEmitter sseEmitter) {
-                return calc.calculate(ticker, reportType, sseEmitter);
+            public Collection<ReportItem> calculate(ReportContext context, ReportType reportType, SseEmitter sseEmitter) {
+                return calc.calculate(context, reportType, sseEmitter);
             }
 
             @Override
-            public boolean canRunInParallel() {
-                return false;
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public CalculatorResource resource() {
+                return resource;
+            }
+
+            @Override
+            public Set<ReportData> requires() {
+                return requires;
             }
         };
     }
@@ -0,0 +1,95 @@
+package com.testehan.finana.config;
+
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores long text properties as deflate compressed UTF-8 in a BSON binary of a user defined subtype. Text shorter
+ * than the threshold stays a plain string, and plain strings are read as they are, so documents written before
+ * compression was enabled remain readable.
+ */
+public class CompressedTextConverter implements MongoValueConverter<String, Object> {
+
+    // user defined binary subtypes start at 0x80
+    static final byte DEFLATE_UTF8_SUBTYPE = (byte) 0x80;
+
+    private final int minChars;
+    private final int level;
+
+    public CompressedTextConverter(int minChars, int level) {
+        this.minChars = minChars;
+        this.level = level;
+    }
+
+    public int getMinChars() {
+        return minChars;
+    }
+
+    @Override
+    public Object write(String value, MongoConversionContext context) {
+        return value.length() < minChars ? value : new Binary(DEFLATE_UTF8_SUBTYPE, compress(value));
+    }
+
+    @Override
+    public String read(Object value, MongoConversionContext context) {
+        if (value instanceof Binary binary) {
+            if (binary.getType() != DEFLATE_UTF8_SUBTYPE) {
+                throw new IllegalArgumentException("Unexpected binary subtype " + binary.getType() + " for compressed text");
+            }
+            return decompress(binary.getData());
+        }
+        return value.toString();
+    }
+
+    byte[] compress(String value) {
+        return deflate(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decompress(byte[] data) {
+        return new String(inflate(data), StandardCharsets.UTF_8);
+    }
+
+    byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Compressed text is truncated");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Compressed text is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
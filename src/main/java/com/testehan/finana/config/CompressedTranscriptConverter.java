@@ -0,0 +1,95 @@
+package com.testehan.finana.config;
+
+import com.testehan.finana.model.filing.Transcript;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the speaker turns of a quarter's transcript as one deflate compressed BSON array. Most turns are shorter than
+ * the text threshold, so compressing them one by one left the bulk of a transcript uncompressed; compressed together
+ * the repeated speakers and titles cost next to nothing. Transcripts whose content is shorter than the threshold stay
+ * plain arrays, and turns written before, plain or with their content compressed on its own, are read as they are.
+ */
+public class CompressedTranscriptConverter implements MongoValueConverter<List<Transcript>, Object> {
+
+    static final byte DEFLATE_BSON_SUBTYPE = (byte) 0x81;
+
+    private static final String TURNS = "turns";
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    private final CompressedTextConverter compressedText;
+
+    public CompressedTranscriptConverter(CompressedTextConverter compressedText) {
+        this.compressedText = compressedText;
+    }
+
+    @Override
+    public Object write(List<Transcript> value, MongoConversionContext context) {
+        List<Document> turns = new ArrayList<>(value.size());
+        long chars = 0;
+        for (Transcript transcript : value) {
+            turns.add(toDocument(transcript));
+            chars += transcript.getContent() == null ? 0 : transcript.getContent().length();
+        }
+        if (chars < compressedText.getMinChars()) {
+            return turns;
+        }
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        CODEC.encode(new BsonBinaryWriter(buffer), new Document(TURNS, turns), EncoderContext.builder().build());
+        return new Binary(DEFLATE_BSON_SUBTYPE, compressedText.deflate(buffer.toByteArray()));
+    }
+
+    @Override
+    public List<Transcript> read(Object value, MongoConversionContext context) {
+        Object turns = value;
+        if (value instanceof Binary binary) {
+            if (binary.getType() != DEFLATE_BSON_SUBTYPE) {
+                throw new IllegalArgumentException("Unexpected binary subtype " + binary.getType() + " for a compressed transcript");
+            }
+            byte[] bson = CompressedTextConverter.inflate(binary.getData());
+            turns = CODEC.decode(new BsonBinaryReader(ByteBuffer.wrap(bson)), DecoderContext.builder().build()).get(TURNS);
+        }
+        List<Transcript> transcripts = new ArrayList<>();
+        for (Object turn : (List<?>) turns) {
+            transcripts.add(fromDocument((Document) turn));
+        }
+        return transcripts;
+    }
+
+    private static Document toDocument(Transcript transcript) {
+        Document turn = new Document();
+        putIfPresent(turn, "speaker", transcript.getSpeaker());
+        putIfPresent(turn, "title", transcript.getTitle());
+        putIfPresent(turn, "content", transcript.getContent());
+        putIfPresent(turn, "sentiment", transcript.getSentiment());
+        return turn;
+    }
+
+    private Transcript fromDocument(Document turn) {
+        Transcript transcript = new Transcript();
+        transcript.setSpeaker(turn.getString("speaker"));
+        transcript.setTitle(turn.getString("title"));
+        Object content = turn.get("content");
+        transcript.setContent(content == null ? null : compressedText.read(content, null));
+        transcript.setSentiment(turn.getString("sentiment"));
+        return transcript;
+    }
+
+    private static void putIfPresent(Document document, String key, String value) {
+        if (value != null) {
+            document.put(key, value);
+        }
+    }
+}
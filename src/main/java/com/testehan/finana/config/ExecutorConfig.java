@@ -1,8 +1,11 @@
 package com.testehan.finana.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
@@ -10,18 +13,64 @@ import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecu
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Report generation, report calculators and {@code @Async} methods spend nearly all their time waiting for model
+ * calls and Mongo. With {@code app.executors.virtual-threads} each of their tasks gets its own virtual thread, so the
+ * number of reports generated at once is bounded by the LLM and rate limiters rather than by pool sizes; otherwise
+ * they run on platform thread pools.
+ */
 @Configuration
 public class ExecutorConfig implements AsyncConfigurer {
 
-    @Bean(name = "checklistExecutor")
+    private final boolean virtualThreads;
+
+    public ExecutorConfig(@Value("${app.executors.virtual-threads:true}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Bean(name = "checklistExecutor", destroyMethod = "shutdownNow")
     public ExecutorService checklistExecutor() {
+        if (virtualThreads) {
+            return new DelegatingSecurityContextExecutorService(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("checklist-", 0).factory()));
+        }
         int coreCount = Runtime.getRuntime().availableProcessors();
         return new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(coreCount * 2));
     }
 
+    // report calculators, the ReportCalculatorScheduler bounds how many compute calculators run and LlmCallScheduler how
+    // many model calls do; the platform pool has a thread for each of those, LLM calculators beyond them queue for one
+    @Bean(name = "reportCalculatorExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService reportCalculatorExecutor(@Value("${app.reporting.concurrency.compute:8}") int computeConcurrency,
+                                                    @Value("${app.llm.scheduler.gemini.max-concurrency:8}") int geminiConcurrency,
+                                                    @Value("${app.llm.scheduler.ollama.max-concurrency:1}") int ollamaConcurrency) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("report-calculator-", 0).factory());
+        }
+        int threads = Math.max(1, computeConcurrency) + Math.max(1, geminiConcurrency) + Math.max(1, ollamaConcurrency);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("report-calculator-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // SEC filing downloads block on the network for most of their time, the SEC rate limiter bounds them
+    @Bean(name = "secFilingExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService secFilingExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sec-filing-", 0).factory());
+    }
+
     @Override
     public Executor getAsyncExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+            executor.setVirtualThreads(true);
+            return new DelegatingSecurityContextAsyncTaskExecutor(executor);
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(Runtime.getRuntime().availableProcessors());
         executor.setMaxPoolSize(Runtime.getRuntime().availableProcessors() * 2);
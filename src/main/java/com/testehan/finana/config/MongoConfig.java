@@ -1,5 +1,12 @@
 package com.testehan.finana.config;
 
+import com.testehan.finana.model.filing.QuarterlyEarningsTranscript;
+import com.testehan.finana.model.filing.TenKFilings;
+import com.testehan.finana.model.filing.TenQFilings;
+import com.testehan.finana.model.finstatement.BalanceSheetReport;
+import com.testehan.finana.model.finstatement.CashFlowReport;
+import com.testehan.finana.model.finstatement.IncomeReport;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.MongoDatabaseFactory;
@@ -8,17 +15,59 @@ import org.springframework.data.mongodb.core.convert.DbRefResolver;
 import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
 import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.util.ReflectionUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
 
 @Configuration
 @EnableMongoAuditing
 public class MongoConfig {
 
+    @Bean
+    public CompressedTextConverter compressedTextConverter(@Value("${app.mongo.text-compression.enabled:true}") boolean enabled,
+                                                           @Value("${app.mongo.text-compression.min-chars:1024}") int minChars,
+                                                           @Value("${app.mongo.text-compression.level:6}") int level) {
+        // when disabled nothing new is compressed, already compressed text is still read
+        return new CompressedTextConverter(enabled ? minChars : Integer.MAX_VALUE, level);
+    }
+
+    @Bean
+    public CompressedTranscriptConverter compressedTranscriptConverter(CompressedTextConverter compressedText) {
+        return new CompressedTranscriptConverter(compressedText);
+    }
+
+    // the long narrative texts of filings and transcripts, nothing queries inside them, and the statement values
+    @Bean
+    public MongoCustomConversions mongoCustomConversions(CompressedTextConverter compressedText,
+                                                         CompressedTranscriptConverter compressedTranscript) {
+        StatementDecimalConverter statementDecimal = new StatementDecimalConverter();
+        return MongoCustomConversions.create(config -> config
+                .configurePropertyConversions(registrar -> {
+                    registrar
+                            .registerConverter(TenKFilings.class, "businessDescription", compressedText)
+                            .registerConverter(TenKFilings.class, "riskFactors", compressedText)
+                            .registerConverter(TenKFilings.class, "managementDiscussion", compressedText)
+                            .registerConverter(TenQFilings.class, "riskFactors", compressedText)
+                            .registerConverter(TenQFilings.class, "managementDiscussion", compressedText)
+                            .registerConverter(QuarterlyEarningsTranscript.class, "transcript", compressedTranscript);
+                    for (Class<?> report : List.of(IncomeReport.class, BalanceSheetReport.class, CashFlowReport.class)) {
+                        ReflectionUtils.doWithFields(report,
+                                field -> registrar.registerConverter(report, field.getName(), statementDecimal),
+                                field -> field.getType() == BigDecimal.class);
+                    }
+                }));
+    }
+
     @Bean
     public MappingMongoConverter mappingMongoConverter(MongoDatabaseFactory mongoDatabaseFactory,
-                                                       MongoMappingContext mongoMappingContext) {
+                                                       MongoMappingContext mongoMappingContext,
+                                                       MongoCustomConversions mongoCustomConversions) {
         DbRefResolver dbRefResolver = new DefaultDbRefResolver(mongoDatabaseFactory);
         MappingMongoConverter converter = new MappingMongoConverter(dbRefResolver, mongoMappingContext);
+        converter.setCustomConversions(mongoCustomConversions);
         
         // This is the fix for the reported error:
         // Replace dots in Map keys with a double underscore so MongoDB can store them.
@@ -0,0 +1,40 @@
+package com.testehan.finana.config;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The version of the connected MongoDB server, read on first use. Time series collections only delete by their
+ * metaField before 7.0, so deleting quote bars by batch, date or id needs 7.0 or newer.
+ */
+@Component
+public class MongoServerVersion {
+
+    private static final int ARBITRARY_TIME_SERIES_DELETES_SINCE = 7;
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile Integer majorVersion;
+
+    public MongoServerVersion(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public boolean supportsArbitraryTimeSeriesDeletes() {
+        return majorVersion() >= ARBITRARY_TIME_SERIES_DELETES_SINCE;
+    }
+
+    private int majorVersion() {
+        Integer major = majorVersion;
+        if (major == null) {
+            Document buildInfo = mongoTemplate.executeCommand(new Document("buildInfo", 1));
+            List<Integer> version = buildInfo.getList("versionArray", Integer.class);
+            major = version == null || version.isEmpty() ? 0 : version.getFirst();
+            majorVersion = major;
+        }
+        return major;
+    }
+}
@@ -0,0 +1,26 @@
+package com.testehan.finana.config;
+
+import com.testehan.finana.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimiterConfig {
+
+    @Bean(name = "fmpRateLimiter")
+    public TokenBucketRateLimiter fmpRateLimiter(@Value("${fmp.rate-limit.requests-per-minute:300}") int requestsPerMinute,
+                                                 @Value("${fmp.rate-limit.burst:10}") int burst,
+                                                 MeterRegistry meterRegistry) {
+        return new TokenBucketRateLimiter("fmp", burst, requestsPerMinute / 60d, meterRegistry);
+    }
+
+    // SEC allows 10 requests per second per client for all of EDGAR
+    @Bean(name = "secRateLimiter")
+    public TokenBucketRateLimiter secRateLimiter(@Value("${sec.rate-limit.requests-per-second:10}") double requestsPerSecond,
+                                                 @Value("${sec.rate-limit.burst:10}") int burst,
+                                                 MeterRegistry meterRegistry) {
+        return new TokenBucketRateLimiter("sec", burst, requestsPerSecond, meterRegistry);
+    }
+}
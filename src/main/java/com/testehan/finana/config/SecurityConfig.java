@@ -3,9 +3,12 @@ package com.testehan.finana.config;
 import com.testehan.finana.filter.QueryParamTokenAuthFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
@@ -18,6 +21,8 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String ADMIN_CLAIM = "admin";
+
     private final QueryParamTokenAuthFilter queryParamTokenAuthFilter;
 
     public SecurityConfig(QueryParamTokenAuthFilter queryParamTokenAuthFilter) {
@@ -35,14 +40,27 @@ public class SecurityConfig {
                 .requestMatchers("/stocks/reporting/checklist-stream/*").permitAll()
                 .requestMatchers("/stocks/valuation/alerts-stream/*").permitAll()
                 .requestMatchers("/stocks/questions/answer-stream").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/ingestion/runs", "/api/ingestion/runs/*/cancel").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
-            .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> {}))
+            .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())))
             .addFilterBefore(queryParamTokenAuthFilter, BearerTokenAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Users get ROLE_USER, and ROLE_ADMIN as well when their Firebase token carries the {@code admin} custom claim.
+     */
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> Boolean.TRUE.equals(jwt.getClaimAsBoolean(ADMIN_CLAIM))
+                ? List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))
+                : List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        return converter;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
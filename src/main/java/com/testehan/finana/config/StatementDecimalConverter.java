@@ -0,0 +1,35 @@
+package com.testehan.finana.config;
+
+import com.testehan.finana.util.SafeParser;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+import java.math.BigDecimal;
+
+/**
+ * Stores the values of financial statement reports as Decimal128. Reports written before the values were typed still
+ * hold strings until they are migrated; those are parsed, with placeholders like "None" or "" read as missing. Only
+ * registered for the report properties, so corrupt values elsewhere still fail to read.
+ */
+public class StatementDecimalConverter implements MongoValueConverter<BigDecimal, Object> {
+
+    @Override
+    public Object write(BigDecimal value, MongoConversionContext context) {
+        return new Decimal128(value);
+    }
+
+    @Override
+    public BigDecimal read(Object value, MongoConversionContext context) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        if (value instanceof String text) {
+            return SafeParser.tryParseDecimal(text);
+        }
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString());
+        }
+        throw new IllegalArgumentException("Unexpected " + value.getClass().getSimpleName() + " for a statement value");
+    }
+}
@@ -0,0 +1,60 @@
+package com.testehan.finana.controller;
+
+import com.testehan.finana.model.ingestion.IngestionRun;
+import com.testehan.finana.model.ingestion.IngestionUniverse;
+import com.testehan.finana.service.ingestion.UniverseIngestionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ingestion")
+public class IngestionController {
+
+    private final UniverseIngestionService universeIngestionService;
+
+    public IngestionController(UniverseIngestionService universeIngestionService) {
+        this.universeIngestionService = universeIngestionService;
+    }
+
+    public record IngestionRequest(IngestionUniverse universe, List<String> tickers, String location) {}
+
+    @PostMapping("/runs")
+    public ResponseEntity<?> startRun(@RequestBody IngestionRequest request) {
+        if (request.universe() == null) {
+            return ResponseEntity.badRequest().body("universe is required");
+        }
+        try {
+            return ResponseEntity.ok(universeIngestionService.start(request.universe(), request.tickers(), request.location()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/runs/latest")
+    public ResponseEntity<IngestionRun> getLatestRun() {
+        return universeIngestionService.getLatestRun()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<IngestionRun> getRun(@PathVariable String id) {
+        return universeIngestionService.getRun(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/runs/{id}/cancel")
+    public ResponseEntity<Void> cancelRun(@PathVariable String id) {
+        return universeIngestionService.cancel(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
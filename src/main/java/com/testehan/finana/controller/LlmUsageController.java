@@ -2,6 +2,7 @@ package com.testehan.finana.controller;
 
 import com.testehan.finana.model.llm.LlmUsage;
 import com.testehan.finana.repository.LlmUsageRepository;
+import com.testehan.finana.service.LlmUsageSummaryService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -15,10 +16,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -26,9 +24,11 @@ import java.util.Map;
 public class LlmUsageController {
 
     private final LlmUsageRepository llmUsageRepository;
+    private final LlmUsageSummaryService llmUsageSummaryService;
 
-    public LlmUsageController(LlmUsageRepository llmUsageRepository) {
+    public LlmUsageController(LlmUsageRepository llmUsageRepository, LlmUsageSummaryService llmUsageSummaryService) {
         this.llmUsageRepository = llmUsageRepository;
+        this.llmUsageSummaryService = llmUsageSummaryService;
     }
 
     @GetMapping
@@ -67,20 +67,8 @@ public class LlmUsageController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate) {
 
-        String userEmail = extractUserEmail();
         LocalDateTime from = fromDate != null ? fromDate : LocalDateTime.of(2000, 1, 1, 0, 0);
-        LocalDateTime to = toDate != null ? toDate : LocalDateTime.now();
-
-        List<LlmUsage> usages;
-        if (symbol != null) {
-            usages = llmUsageRepository.findByUserEmailAndSymbolAndTimestampBetween(userEmail, symbol, from, to);
-        } else if (operationType != null) {
-            usages = llmUsageRepository.findByUserEmailAndOperationType(userEmail, operationType);
-        } else {
-            usages = llmUsageRepository.findByUserEmailAndTimestampBetween(userEmail, from, to);
-        }
-
-        return calculateSummary(usages);
+        return llmUsageSummaryService.summarize(extractUserEmail(), symbol, operationType, from, toDate);
     }
 
     private String extractUserEmail() {
@@ -93,43 +81,4 @@ public class LlmUsageController {
         }
         throw new AuthenticationCredentialsNotFoundException("No authenticated user or email claim missing from JWT.");
     }
-
-    private Map<String, Object> calculateSummary(List<LlmUsage> usages) {
-        Map<String, Object> summary = new HashMap<>();
-
-        long totalCalls = usages.size();
-        long successfulCalls = usages.stream().filter(LlmUsage::isSuccess).count();
-        long failedCalls = totalCalls - successfulCalls;
-
-        int totalPromptTokens = usages.stream().mapToInt(LlmUsage::getPromptTokens).sum();
-        int totalCompletionTokens = usages.stream().mapToInt(LlmUsage::getCompletionTokens).sum();
-        int totalCachedTokens = usages.stream().mapToInt(LlmUsage::getCachedTokens).sum();
-        BigDecimal totalCost = usages.stream()
-                .map(LlmUsage::getTotalCostUsd)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        Map<String, Integer> callsByOperation = new HashMap<>();
-        Map<String, Integer> tokensByOperation = new HashMap<>();
-        Map<String, BigDecimal> costByOperation = new HashMap<>();
-
-        for (LlmUsage usage : usages) {
-            String op = usage.getOperationType();
-            callsByOperation.merge(op, 1, Integer::sum);
-            tokensByOperation.merge(op, usage.getPromptTokens() + usage.getCompletionTokens(), Integer::sum);
-            costByOperation.merge(op, usage.getTotalCostUsd(), BigDecimal::add);
-        }
-
-        summary.put("totalCalls", totalCalls);
-        summary.put("successfulCalls", successfulCalls);
-        summary.put("failedCalls", failedCalls);
-        summary.put("totalPromptTokens", totalPromptTokens);
-        summary.put("totalCompletionTokens", totalCompletionTokens);
-        summary.put("totalCachedTokens", totalCachedTokens);
-        summary.put("totalCostUsd", totalCost);
-        summary.put("callsByOperation", callsByOperation);
-        summary.put("tokensByOperation", tokensByOperation);
-        summary.put("costByOperation", costByOperation);
-
-        return summary;
-    }
 }
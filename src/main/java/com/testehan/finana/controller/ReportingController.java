@@ -46,10 +46,11 @@ public class ReportingController {
     public SseEmitter getChecklistReport(
             @PathVariable String ticker,
             @RequestParam(defaultValue = "false") boolean recreateReport,
+            @RequestParam(defaultValue = "false") boolean regenerate,
             @RequestParam ReportType reportType) {
 
         String userEmail = extractUserEmail();
-        return checklistReportOrchestrator.getChecklistReport(ticker.toUpperCase(), recreateReport, reportType, userEmail);
+        return checklistReportOrchestrator.getChecklistReport(ticker.toUpperCase(), recreateReport, regenerate, reportType, userEmail);
     }
 
     private String extractUserEmail() {
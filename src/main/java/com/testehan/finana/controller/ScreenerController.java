@@ -0,0 +1,50 @@
+package com.testehan.finana.controller;
+
+import com.testehan.finana.service.screener.ScreenerService;
+import com.testehan.finana.service.screener.ScreenerUniverse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/screener")
+public class ScreenerController {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ScreenerService screenerService;
+
+    public ScreenerController(ScreenerService screenerService) {
+        this.screenerService = screenerService;
+    }
+
+    /**
+     * Screens all symbols, e.g. {@code filter=roic > 15% and net_debt_to_ebitda < 1&rank=roic desc, pe_ratio}.
+     */
+    @GetMapping
+    public ResponseEntity<?> screen(
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String rank,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("page must be at least 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        try {
+            return ResponseEntity.ok(screenerService.screen(filter, sort, rank, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/fields")
+    public Map<String, List<String>> getFields() {
+        return Map.of("metrics", ScreenerUniverse.METRICS, "textFields", ScreenerUniverse.TEXT_FIELDS);
+    }
+}
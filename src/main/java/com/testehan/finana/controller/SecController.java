@@ -1,6 +1,5 @@
 package com.testehan.finana.controller;
 
-import com.testehan.finana.model.filing.SecFiling;
 import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.filing.TenQFilings;
 import com.testehan.finana.repository.SecFilingRepository;
@@ -10,9 +9,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
-import java.util.Comparator;
-import java.util.Optional;
-
 @RestController
 @RequestMapping("/stocks/sec")
 public class SecController {
@@ -25,71 +21,36 @@ public class SecController {
 
     @GetMapping("/10-k/{ticker}/risk-factors")
     public Mono<String> getRiskFactorsFrom10K(@PathVariable String ticker) {
-        return Mono.fromCallable(() -> {
-            Optional<SecFiling> secFiling = secFilingRepository.findById(ticker);
-            if (secFiling.isPresent() && secFiling.get().getTenKFilings() != null) {
-                return secFiling.get().getTenKFilings().stream()
-                        .max(Comparator.comparing(TenKFilings::getFiledAt))
-                        .map(TenKFilings::getRiskFactors)
-                        .orElse(null);
-            }
-            return null;
-        });
+        return Mono.fromCallable(() -> secFilingRepository.findLatestTenKRiskFactors(ticker)
+                .map(TenKFilings::getRiskFactors)
+                .orElse(null));
     }
 
     @GetMapping("/10-k/{ticker}/management-discussion")
     public Mono<String> getManagementDiscussionFrom10K(@PathVariable String ticker) {
-        return Mono.fromCallable(() -> {
-            Optional<SecFiling> secFiling = secFilingRepository.findById(ticker);
-            if (secFiling.isPresent() && secFiling.get().getTenKFilings() != null) {
-                return secFiling.get().getTenKFilings().stream()
-                        .max(Comparator.comparing(TenKFilings::getFiledAt))
-                        .map(TenKFilings::getManagementDiscussion)
-                        .orElse(null);
-            }
-            return null;
-        });
+        return Mono.fromCallable(() -> secFilingRepository.findLatestTenKManagementDiscussion(ticker)
+                .map(TenKFilings::getManagementDiscussion)
+                .orElse(null));
     }
 
     @GetMapping("/10-k/{ticker}/business-description")
     public Mono<String> getBusinessDescriptionFrom10K(@PathVariable String ticker) {
-        return Mono.fromCallable(() -> {
-            Optional<SecFiling> secFiling = secFilingRepository.findById(ticker);
-            if (secFiling.isPresent() && secFiling.get().getTenKFilings() != null) {
-                return secFiling.get().getTenKFilings().stream()
-                        .max(Comparator.comparing(TenKFilings::getFiledAt))
-                        .map(TenKFilings::getBusinessDescription)
-                        .orElse(null);
-            }
-            return null;
-        });
+        return Mono.fromCallable(() -> secFilingRepository.findLatestTenKBusinessDescription(ticker)
+                .map(TenKFilings::getBusinessDescription)
+                .orElse(null));
     }
 
     @GetMapping("/10-q/{ticker}/management-discussion")
     public Mono<String> getManagementDiscussionFrom10Q(@PathVariable String ticker) {
-        return Mono.fromCallable(() -> {
-            Optional<SecFiling> secFiling = secFilingRepository.findById(ticker);
-            if (secFiling.isPresent() && secFiling.get().getTenQFilings() != null) {
-                return secFiling.get().getTenQFilings().stream()
-                        .max(Comparator.comparing(TenQFilings::getFiledAt))
-                        .map(TenQFilings::getManagementDiscussion)
-                        .orElse(null);
-            }
-            return null;
-        });
+        return Mono.fromCallable(() -> secFilingRepository.findLatestTenQManagementDiscussion(ticker)
+                .map(TenQFilings::getManagementDiscussion)
+                .orElse(null));
     }
 
     @GetMapping("/10-q/{ticker}/risk-factors")
     public Mono<String> getRiskFactorsFrom10Q(@PathVariable String ticker) {
-        return Mono.fromCallable(() -> {
-            Optional<SecFiling> secFiling = secFilingRepository.findById(ticker);
-            if (secFiling.isPresent() && secFiling.get().getTenQFilings() != null) {
-                return secFiling.get().getTenQFilings().stream()
-                        .max(Comparator.comparing(TenQFilings::getFiledAt))
-                        .map(TenQFilings::getRiskFactors)
-                        .orElse(null);
-            }
-            return null;
-        });
+        return Mono.fromCallable(() -> secFilingRepository.findLatestTenQRiskFactors(ticker)
+                .map(TenQFilings::getRiskFactors)
+                .orElse(null));
     }
 }
@@ -27,8 +27,9 @@ public class StockController {
     private final QuoteService quoteService;
     private final FinancialDataService financialDataService; // For remaining methods (ratios)
     private final AdjustmentService adjustmentService;
+    private final TtmService ttmService;
 
-    public StockController(AlphaVantageService alphaVantageService, FMPService fmpService, FinancialDataOrchestrator financialDataOrchestrator, CompanyDataService companyDataService, FinancialStatementService financialStatementService, EarningsService earningsService, QuoteService quoteService, FinancialDataService financialDataService, AdjustmentService adjustmentService) {
+    public StockController(AlphaVantageService alphaVantageService, FMPService fmpService, FinancialDataOrchestrator financialDataOrchestrator, CompanyDataService companyDataService, FinancialStatementService financialStatementService, EarningsService earningsService, QuoteService quoteService, FinancialDataService financialDataService, AdjustmentService adjustmentService, TtmService ttmService) {
         this.alphaVantageService = alphaVantageService;
         this.fmpService = fmpService;
         this.financialDataOrchestrator = financialDataOrchestrator;
@@ -38,6 +39,7 @@ public class StockController {
         this.quoteService = quoteService;
         this.financialDataService = financialDataService; // For remaining methods (ratios)
         this.adjustmentService = adjustmentService;
+        this.ttmService = ttmService;
     }
 
     @GetMapping("/adjustments/{symbol}")
@@ -95,6 +97,11 @@ public class StockController {
         return financialStatementService.getCashFlow(symbol);
     }
 
+    @GetMapping("/ttm/{symbol}")
+    public Mono<TtmData> getTtm(@PathVariable String symbol) {
+        return ttmService.getTtm(symbol);
+    }
+
     @GetMapping("/revenue-segmentation/{symbol}")
     public Mono<RevenueSegmentationData> getRevenueSegmentation(@PathVariable String symbol) {
         return financialStatementService.getRevenueSegmentation(symbol);
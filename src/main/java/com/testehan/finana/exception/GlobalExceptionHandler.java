@@ -2,6 +2,7 @@ package com.testehan.finana.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -17,4 +18,14 @@ public class GlobalExceptionHandler {
         logger.warn("Insufficient credit: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.PAYMENT_REQUIRED).body(ex.getMessage());
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(RateLimitExhaustedException.class)
+    public ResponseEntity<String> handleRateLimitExhausted(RateLimitExhaustedException ex) {
+        logger.warn("Rate limit exhausted: {}", ex.getMessage());
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        if (ex.getRetryAfter() != null) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())));
+        }
+        return response.body("The market data provider is rate limiting requests, try again later");
+    }
+}
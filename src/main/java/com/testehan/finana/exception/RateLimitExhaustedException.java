@@ -0,0 +1,14 @@
+package com.testehan.finana.exception;
+
+import java.time.Duration;
+
+/**
+ * A request that was still rate limited after all its retries. Unlike other API failures it is never turned into an
+ * empty result, so callers do not mistake a throttled provider for missing data.
+ */
+public class RateLimitExhaustedException extends RateLimitedException {
+
+    public RateLimitExhaustedException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
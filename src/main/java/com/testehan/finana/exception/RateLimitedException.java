@@ -0,0 +1,18 @@
+package com.testehan.finana.exception;
+
+import java.time.Duration;
+
+public class RateLimitedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    // null when the server did not send a usable Retry-After header
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
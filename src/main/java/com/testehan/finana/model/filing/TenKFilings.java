@@ -6,6 +6,9 @@ import lombok.Data;
 public class TenKFilings {
     private String filedAt;
     private String filingUrl;
+    // validators of the downloaded document, sent back when the filing is fetched again
+    private String etag;
+    private String lastModified;
     private String riskFactors;
     private String managementDiscussion;
     private String businessDescription;
@@ -3,6 +3,8 @@ package com.testehan.finana.model.finstatement;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class BalanceSheetReport {
     @JsonProperty("date")
@@ -22,108 +24,160 @@ public class BalanceSheetReport {
     @JsonProperty("period")
     private String period;
     @JsonProperty("cashAndCashEquivalents")
-    private String cashAndCashEquivalents;
+    @StatementValue
+    private BigDecimal cashAndCashEquivalents;
     @JsonProperty("shortTermInvestments")
-    private String shortTermInvestments;
+    @StatementValue
+    private BigDecimal shortTermInvestments;
     @JsonProperty("cashAndShortTermInvestments")
-    private String cashAndShortTermInvestments;
+    @StatementValue
+    private BigDecimal cashAndShortTermInvestments;
     @JsonProperty("netReceivables")
-    private String netReceivables;
+    @StatementValue
+    private BigDecimal netReceivables;
     @JsonProperty("accountsReceivables")
-    private String accountsReceivables;
+    @StatementValue
+    private BigDecimal accountsReceivables;
     @JsonProperty("otherReceivables")
-    private String otherReceivables;
+    @StatementValue
+    private BigDecimal otherReceivables;
     @JsonProperty("inventory")
-    private String inventory;
+    @StatementValue
+    private BigDecimal inventory;
     @JsonProperty("prepaids")
-    private String prepaids;
+    @StatementValue
+    private BigDecimal prepaids;
     @JsonProperty("otherCurrentAssets")
-    private String otherCurrentAssets;
+    @StatementValue
+    private BigDecimal otherCurrentAssets;
     @JsonProperty("totalCurrentAssets")
-    private String totalCurrentAssets;
+    @StatementValue
+    private BigDecimal totalCurrentAssets;
     @JsonProperty("propertyPlantEquipmentNet")
-    private String propertyPlantEquipmentNet;
+    @StatementValue
+    private BigDecimal propertyPlantEquipmentNet;
     @JsonProperty("goodwill")
-    private String goodwill;
+    @StatementValue
+    private BigDecimal goodwill;
     @JsonProperty("intangibleAssets")
-    private String intangibleAssets;
+    @StatementValue
+    private BigDecimal intangibleAssets;
     @JsonProperty("goodwillAndIntangibleAssets")
-    private String goodwillAndIntangibleAssets;
+    @StatementValue
+    private BigDecimal goodwillAndIntangibleAssets;
     @JsonProperty("longTermInvestments")
-    private String longTermInvestments;
+    @StatementValue
+    private BigDecimal longTermInvestments;
     @JsonProperty("taxAssets")
-    private String taxAssets;
+    @StatementValue
+    private BigDecimal taxAssets;
     @JsonProperty("otherNonCurrentAssets")
-    private String otherNonCurrentAssets;
+    @StatementValue
+    private BigDecimal otherNonCurrentAssets;
     @JsonProperty("totalNonCurrentAssets")
-    private String totalNonCurrentAssets;
+    @StatementValue
+    private BigDecimal totalNonCurrentAssets;
     @JsonProperty("otherAssets")
-    private String otherAssets;
+    @StatementValue
+    private BigDecimal otherAssets;
     @JsonProperty("totalAssets")
-    private String totalAssets;
+    @StatementValue
+    private BigDecimal totalAssets;
     @JsonProperty("totalPayables")
-    private String totalPayables;
+    @StatementValue
+    private BigDecimal totalPayables;
     @JsonProperty("accountPayables")
-    private String accountPayables;
+    @StatementValue
+    private BigDecimal accountPayables;
     @JsonProperty("otherPayables")
-    private String otherPayables;
+    @StatementValue
+    private BigDecimal otherPayables;
     @JsonProperty("accruedExpenses")
-    private String accruedExpenses;
+    @StatementValue
+    private BigDecimal accruedExpenses;
     @JsonProperty("shortTermDebt")
-    private String shortTermDebt;
+    @StatementValue
+    private BigDecimal shortTermDebt;
     @JsonProperty("capitalLeaseObligationsCurrent")
-    private String capitalLeaseObligationsCurrent;
+    @StatementValue
+    private BigDecimal capitalLeaseObligationsCurrent;
     @JsonProperty("taxPayables")
-    private String taxPayables;
+    @StatementValue
+    private BigDecimal taxPayables;
     @JsonProperty("deferredRevenue")
-    private String deferredRevenue;
+    @StatementValue
+    private BigDecimal deferredRevenue;
     @JsonProperty("otherCurrentLiabilities")
-    private String otherCurrentLiabilities;
+    @StatementValue
+    private BigDecimal otherCurrentLiabilities;
     @JsonProperty("totalCurrentLiabilities")
-    private String totalCurrentLiabilities;
+    @StatementValue
+    private BigDecimal totalCurrentLiabilities;
     @JsonProperty("longTermDebt")
-    private String longTermDebt;
+    @StatementValue
+    private BigDecimal longTermDebt;
     @JsonProperty("deferredRevenueNonCurrent")
-    private String deferredRevenueNonCurrent;
+    @StatementValue
+    private BigDecimal deferredRevenueNonCurrent;
     @JsonProperty("deferredTaxLiabilitiesNonCurrent")
-    private String deferredTaxLiabilitiesNonCurrent;
+    @StatementValue
+    private BigDecimal deferredTaxLiabilitiesNonCurrent;
     @JsonProperty("otherNonCurrentLiabilities")
-    private String otherNonCurrentLiabilities;
+    @StatementValue
+    private BigDecimal otherNonCurrentLiabilities;
     @JsonProperty("totalNonCurrentLiabilities")
-    private String totalNonCurrentLiabilities;
+    @StatementValue
+    private BigDecimal totalNonCurrentLiabilities;
     @JsonProperty("otherLiabilities")
-    private String otherLiabilities;
+    @StatementValue
+    private BigDecimal otherLiabilities;
     @JsonProperty("capitalLeaseObligations")
-    private String capitalLeaseObligations;
+    @StatementValue
+    private BigDecimal capitalLeaseObligations;
     @JsonProperty("totalLiabilities")
-    private String totalLiabilities;
+    @StatementValue
+    private BigDecimal totalLiabilities;
     @JsonProperty("treasuryStock")
-    private String treasuryStock;
+    @StatementValue
+    private BigDecimal treasuryStock;
     @JsonProperty("preferredStock")
-    private String preferredStock;
+    @StatementValue
+    private BigDecimal preferredStock;
     @JsonProperty("commonStock")
-    private String commonStock;
+    @StatementValue
+    private BigDecimal commonStock;
     @JsonProperty("retainedEarnings")
-    private String retainedEarnings;
+    @StatementValue
+    private BigDecimal retainedEarnings;
     @JsonProperty("additionalPaidInCapital")
-    private String additionalPaidInCapital;
+    @StatementValue
+    private BigDecimal additionalPaidInCapital;
     @JsonProperty("accumulatedOtherComprehensiveIncomeLoss")
-    private String accumulatedOtherComprehensiveIncomeLoss;
+    @StatementValue
+    private BigDecimal accumulatedOtherComprehensiveIncomeLoss;
     @JsonProperty("otherTotalStockholdersEquity")
-    private String otherTotalStockholdersEquity;
+    @StatementValue
+    private BigDecimal otherTotalStockholdersEquity;
     @JsonProperty("totalStockholdersEquity")
-    private String totalStockholdersEquity;
+    @StatementValue
+    private BigDecimal totalStockholdersEquity;
     @JsonProperty("totalEquity")
-    private String totalEquity;
+    @StatementValue
+    private BigDecimal totalEquity;
     @JsonProperty("minorityInterest")
-    private String minorityInterest;
+    @StatementValue
+    private BigDecimal minorityInterest;
     @JsonProperty("totalLiabilitiesAndTotalEquity")
-    private String totalLiabilitiesAndTotalEquity;
+    @StatementValue
+    private BigDecimal totalLiabilitiesAndTotalEquity;
     @JsonProperty("totalInvestments")
-    private String totalInvestments;
+    @StatementValue
+    private BigDecimal totalInvestments;
     @JsonProperty("totalDebt")
-    private String totalDebt;
+    @StatementValue
+    private BigDecimal totalDebt;
     @JsonProperty("netDebt")
-    private String netDebt;
+    @StatementValue
+    private BigDecimal netDebt;
 }
 
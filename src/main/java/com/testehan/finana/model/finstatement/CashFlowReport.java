@@ -3,6 +3,8 @@ package com.testehan.finana.model.finstatement;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class CashFlowReport {
     @JsonProperty("date")
@@ -22,81 +24,120 @@ public class CashFlowReport {
     @JsonProperty("period")
     private String period;
     @JsonProperty("netIncome")
-    private String netIncome;
+    @StatementValue
+    private BigDecimal netIncome;
     @JsonProperty("depreciationAndAmortization")
-    private String depreciationAndAmortization;
+    @StatementValue
+    private BigDecimal depreciationAndAmortization;
     @JsonProperty("deferredIncomeTax")
-    private String deferredIncomeTax;
+    @StatementValue
+    private BigDecimal deferredIncomeTax;
     @JsonProperty("stockBasedCompensation")
-    private String stockBasedCompensation;
+    @StatementValue
+    private BigDecimal stockBasedCompensation;
     @JsonProperty("changeInWorkingCapital")
-    private String changeInWorkingCapital;
+    @StatementValue
+    private BigDecimal changeInWorkingCapital;
     @JsonProperty("accountsReceivables")
-    private String accountsReceivables;
+    @StatementValue
+    private BigDecimal accountsReceivables;
     @JsonProperty("inventory")
-    private String inventory;
+    @StatementValue
+    private BigDecimal inventory;
     @JsonProperty("accountsPayables")
-    private String accountsPayables;
+    @StatementValue
+    private BigDecimal accountsPayables;
     @JsonProperty("otherWorkingCapital")
-    private String otherWorkingCapital;
+    @StatementValue
+    private BigDecimal otherWorkingCapital;
     @JsonProperty("otherNonCashItems")
-    private String otherNonCashItems;
+    @StatementValue
+    private BigDecimal otherNonCashItems;
     @JsonProperty("netCashProvidedByOperatingActivities")
-    private String netCashProvidedByOperatingActivities;
+    @StatementValue
+    private BigDecimal netCashProvidedByOperatingActivities;
     @JsonProperty("investmentsInPropertyPlantAndEquipment")
-    private String investmentsInPropertyPlantAndEquipment;
+    @StatementValue
+    private BigDecimal investmentsInPropertyPlantAndEquipment;
     @JsonProperty("acquisitionsNet")
-    private String acquisitionsNet;
+    @StatementValue
+    private BigDecimal acquisitionsNet;
     @JsonProperty("purchasesOfInvestments")
-    private String purchasesOfInvestments;
+    @StatementValue
+    private BigDecimal purchasesOfInvestments;
     @JsonProperty("salesMaturitiesOfInvestments")
-    private String salesMaturitiesOfInvestments;
+    @StatementValue
+    private BigDecimal salesMaturitiesOfInvestments;
     @JsonProperty("otherInvestingActivities")
-    private String otherInvestingActivities;
+    @StatementValue
+    private BigDecimal otherInvestingActivities;
     @JsonProperty("netCashProvidedByInvestingActivities")
-    private String netCashProvidedByInvestingActivities;
+    @StatementValue
+    private BigDecimal netCashProvidedByInvestingActivities;
     @JsonProperty("netDebtIssuance")
-    private String netDebtIssuance;
+    @StatementValue
+    private BigDecimal netDebtIssuance;
     @JsonProperty("longTermNetDebtIssuance")
-    private String longTermNetDebtIssuance;
+    @StatementValue
+    private BigDecimal longTermNetDebtIssuance;
     @JsonProperty("shortTermNetDebtIssuance")
-    private String shortTermNetDebtIssuance;
+    @StatementValue
+    private BigDecimal shortTermNetDebtIssuance;
     @JsonProperty("netStockIssuance")
-    private String netStockIssuance;
+    @StatementValue
+    private BigDecimal netStockIssuance;
     @JsonProperty("netCommonStockIssuance")
-    private String netCommonStockIssuance;
+    @StatementValue
+    private BigDecimal netCommonStockIssuance;
     @JsonProperty("commonStockIssuance")
-    private String commonStockIssuance;
+    @StatementValue
+    private BigDecimal commonStockIssuance;
     @JsonProperty("commonStockRepurchased")
-    private String commonStockRepurchased;
+    @StatementValue
+    private BigDecimal commonStockRepurchased;
     @JsonProperty("netPreferredStockIssuance")
-    private String netPreferredStockIssuance;
+    @StatementValue
+    private BigDecimal netPreferredStockIssuance;
     @JsonProperty("netDividendsPaid")
-    private String netDividendsPaid;
+    @StatementValue
+    private BigDecimal netDividendsPaid;
     @JsonProperty("commonDividendsPaid")
-    private String commonDividendsPaid;
+    @StatementValue
+    private BigDecimal commonDividendsPaid;
     @JsonProperty("preferredDividendsPaid")
-    private String preferredDividendsPaid;
+    @StatementValue
+    private BigDecimal preferredDividendsPaid;
     @JsonProperty("otherFinancingActivities")
-    private String otherFinancingActivities;
+    @StatementValue
+    private BigDecimal otherFinancingActivities;
     @JsonProperty("netCashProvidedByFinancingActivities")
-    private String netCashProvidedByFinancingActivities;
+    @StatementValue
+    private BigDecimal netCashProvidedByFinancingActivities;
     @JsonProperty("effectOfForexChangesOnCash")
-    private String effectOfForexChangesOnCash;
+    @StatementValue
+    private BigDecimal effectOfForexChangesOnCash;
     @JsonProperty("netChangeInCash")
-    private String netChangeInCash;
+    @StatementValue
+    private BigDecimal netChangeInCash;
     @JsonProperty("cashAtEndOfPeriod")
-    private String cashAtEndOfPeriod;
+    @StatementValue
+    private BigDecimal cashAtEndOfPeriod;
     @JsonProperty("cashAtBeginningOfPeriod")
-    private String cashAtBeginningOfPeriod;
+    @StatementValue
+    private BigDecimal cashAtBeginningOfPeriod;
     @JsonProperty("operatingCashFlow")
-    private String operatingCashFlow;
+    @StatementValue
+    private BigDecimal operatingCashFlow;
     @JsonProperty("capitalExpenditure")
-    private String capitalExpenditure;
+    @StatementValue
+    private BigDecimal capitalExpenditure;
     @JsonProperty("freeCashFlow")
-    private String freeCashFlow;
+    @StatementValue
+    private BigDecimal freeCashFlow;
     @JsonProperty("incomeTaxesPaid")
-    private String incomeTaxesPaid;
+    @StatementValue
+    private BigDecimal incomeTaxesPaid;
     @JsonProperty("interestPaid")
-    private String interestPaid;
+    @StatementValue
+    private BigDecimal interestPaid;
 }
@@ -3,6 +3,8 @@ package com.testehan.finana.model.finstatement;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class IncomeReport {
     @JsonProperty("date")
@@ -22,65 +24,96 @@ public class IncomeReport {
     @JsonProperty("period")
     private String period;
     @JsonProperty("revenue")
-    private String revenue;
+    @StatementValue
+    private BigDecimal revenue;
     @JsonProperty("costOfRevenue")
-    private String costOfRevenue;
+    @StatementValue
+    private BigDecimal costOfRevenue;
     @JsonProperty("grossProfit")
-    private String grossProfit;
+    @StatementValue
+    private BigDecimal grossProfit;
     @JsonProperty("researchAndDevelopmentExpenses")
-    private String researchAndDevelopmentExpenses;
+    @StatementValue
+    private BigDecimal researchAndDevelopmentExpenses;
     @JsonProperty("generalAndAdministrativeExpenses")
-    private String generalAndAdministrativeExpenses;
+    @StatementValue
+    private BigDecimal generalAndAdministrativeExpenses;
     @JsonProperty("sellingAndMarketingExpenses")
-    private String sellingAndMarketingExpenses;
+    @StatementValue
+    private BigDecimal sellingAndMarketingExpenses;
     @JsonProperty("sellingGeneralAndAdministrativeExpenses")
-    private String sellingGeneralAndAdministrativeExpenses;
+    @StatementValue
+    private BigDecimal sellingGeneralAndAdministrativeExpenses;
     @JsonProperty("otherExpenses")
-    private String otherExpenses;
+    @StatementValue
+    private BigDecimal otherExpenses;
     @JsonProperty("operatingExpenses")
-    private String operatingExpenses;
+    @StatementValue
+    private BigDecimal operatingExpenses;
     @JsonProperty("costAndExpenses")
-    private String costAndExpenses;
+    @StatementValue
+    private BigDecimal costAndExpenses;
     @JsonProperty("netInterestIncome")
-    private String netInterestIncome;
+    @StatementValue
+    private BigDecimal netInterestIncome;
     @JsonProperty("interestIncome")
-    private String interestIncome;
+    @StatementValue
+    private BigDecimal interestIncome;
     @JsonProperty("interestExpense")
-    private String interestExpense;
+    @StatementValue
+    private BigDecimal interestExpense;
     @JsonProperty("depreciationAndAmortization")
-    private String depreciationAndAmortization;
+    @StatementValue
+    private BigDecimal depreciationAndAmortization;
     @JsonProperty("ebitda")
-    private String ebitda;
+    @StatementValue
+    private BigDecimal ebitda;
     @JsonProperty("ebit")
-    private String ebit;
+    @StatementValue
+    private BigDecimal ebit;
     @JsonProperty("nonOperatingIncomeExcludingInterest")
-    private String nonOperatingIncomeExcludingInterest;
+    @StatementValue
+    private BigDecimal nonOperatingIncomeExcludingInterest;
     @JsonProperty("operatingIncome")
-    private String operatingIncome;
+    @StatementValue
+    private BigDecimal operatingIncome;
     @JsonProperty("totalOtherIncomeExpensesNet")
-    private String totalOtherIncomeExpensesNet;
+    @StatementValue
+    private BigDecimal totalOtherIncomeExpensesNet;
     @JsonProperty("incomeBeforeTax")
-    private String incomeBeforeTax;
+    @StatementValue
+    private BigDecimal incomeBeforeTax;
     @JsonProperty("incomeTaxExpense")
-    private String incomeTaxExpense;
+    @StatementValue
+    private BigDecimal incomeTaxExpense;
     @JsonProperty("netIncomeFromContinuingOperations")
-    private String netIncomeFromContinuingOperations;
+    @StatementValue
+    private BigDecimal netIncomeFromContinuingOperations;
     @JsonProperty("netIncomeFromDiscontinuedOperations")
-    private String netIncomeFromDiscontinuedOperations;
+    @StatementValue
+    private BigDecimal netIncomeFromDiscontinuedOperations;
     @JsonProperty("otherAdjustmentsToNetIncome")
-    private String otherAdjustmentsToNetIncome;
+    @StatementValue
+    private BigDecimal otherAdjustmentsToNetIncome;
     @JsonProperty("netIncome")
-    private String netIncome;
+    @StatementValue
+    private BigDecimal netIncome;
     @JsonProperty("netIncomeDeductions")
-    private String netIncomeDeductions;
+    @StatementValue
+    private BigDecimal netIncomeDeductions;
     @JsonProperty("bottomLineNetIncome")
-    private String bottomLineNetIncome;
+    @StatementValue
+    private BigDecimal bottomLineNetIncome;
     @JsonProperty("eps")
-    private String eps;
+    @StatementValue
+    private BigDecimal eps;
     @JsonProperty("epsDiluted")
-    private String epsDiluted;
+    @StatementValue
+    private BigDecimal epsDiluted;
     @JsonProperty("weightedAverageShsOut")
-    private String weightedAverageShsOut;
+    @StatementValue
+    private BigDecimal weightedAverageShsOut;
     @JsonProperty("weightedAverageShsOutDil")
-    private String weightedAverageShsOutDil;
+    @StatementValue
+    private BigDecimal weightedAverageShsOutDil;
 }
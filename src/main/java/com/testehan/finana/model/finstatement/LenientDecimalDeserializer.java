@@ -0,0 +1,28 @@
+package com.testehan.finana.model.finstatement;
+
+import com.testehan.finana.util.SafeParser;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+import java.math.BigDecimal;
+
+/**
+ * Reads numbers and numeric strings as decimals; any other value, e.g. "" or "None", is read as missing.
+ */
+public class LenientDecimalDeserializer extends ValueDeserializer<BigDecimal> {
+
+    @Override
+    public BigDecimal deserialize(JsonParser parser, DeserializationContext context) {
+        JsonToken token = parser.currentToken();
+        if (token.isNumeric()) {
+            return parser.getDecimalValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return SafeParser.tryParseDecimal(parser.getValueAsString());
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
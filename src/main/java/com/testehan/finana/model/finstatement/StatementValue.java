@@ -0,0 +1,22 @@
+package com.testehan.finana.model.finstatement;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import tools.jackson.databind.annotation.JsonDeserialize;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A monetary value of a financial statement report. It is written to JSON as a string, as it was before the values
+ * were typed, and read from FMP leniently, so a placeholder like "None" is missing instead of failing the fetch.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@JacksonAnnotationsInside
+@JsonFormat(shape = JsonFormat.Shape.STRING)
+@JsonDeserialize(using = LenientDecimalDeserializer.class)
+public @interface StatementValue {
+}
@@ -0,0 +1,30 @@
+package com.testehan.finana.model.finstatement;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Document(collection = "ttm_statements")
+public class TtmData {
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    private String symbol;
+
+    // newest first, like the statements
+    private List<TtmReport> reports;
+
+    // hash and date of the latest of the quarterly statements the reports were summed from, and when those
+    // statements were last updated
+    private String sourceHash;
+    private String latestQuarter;
+    private LocalDateTime statementsUpdated;
+
+    private LocalDateTime lastUpdated;
+}
@@ -0,0 +1,56 @@
+package com.testehan.finana.model.finstatement;
+
+import lombok.Data;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+
+/**
+ * Trailing twelve month values ending with the quarter of the date: the sums of four consecutive quarters of the
+ * income statement and cash flow values.
+ */
+@Data
+public class TtmReport {
+    private String date;
+    private String fiscalYear;
+    private String period;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal revenue;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal costOfRevenue;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal grossProfit;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal operatingIncome;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal ebit;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal ebitda;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal netIncome;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal interestExpense;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal incomeTaxExpense;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal eps;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal epsDiluted;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal operatingCashFlow;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal depreciationAndAmortization;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal capitalExpenditure;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal freeCashFlow;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal stockBasedCompensation;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal netDividendsPaid;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal commonStockRepurchased;
+}
@@ -0,0 +1,16 @@
+package com.testehan.finana.model.ingestion;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionFailure {
+    private String ticker;
+    private String error;
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,39 @@
+package com.testehan.finana.model.ingestion;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checkpoint of a bulk ingestion run. Finished tickers are appended as they complete, so a run interrupted by a
+ * restart resumes with only the tickers that are neither completed nor failed.
+ */
+@Data
+@Document(collection = "ingestion_runs")
+public class IngestionRun {
+    @Id
+    private String id;
+    private IngestionUniverse universe;
+    private String location;
+    private List<String> tickers = new ArrayList<>();
+    private List<String> completed = new ArrayList<>();
+    private List<IngestionFailure> failures = new ArrayList<>();
+    private IngestionRunStatus status;
+    private double tickersPerMinute;
+    private LocalDateTime estimatedCompletion;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+
+    public List<String> pendingTickers() {
+        Set<String> done = new HashSet<>(completed);
+        failures.forEach(failure -> done.add(failure.getTicker()));
+        return tickers.stream().filter(ticker -> !done.contains(ticker)).toList();
+    }
+}
@@ -0,0 +1,7 @@
+package com.testehan.finana.model.ingestion;
+
+public enum IngestionRunStatus {
+    RUNNING,
+    COMPLETED,
+    CANCELLED
+}
@@ -0,0 +1,12 @@
+package com.testehan.finana.model.ingestion;
+
+public enum IngestionUniverse {
+    // tickers passed with the request
+    LIST,
+    // text file with one ticker per line, from the classpath or the file system
+    FILE,
+    // every symbol that already has a company overview
+    COMPANY_OVERVIEWS,
+    // every stock any user follows
+    WATCHLIST
+}
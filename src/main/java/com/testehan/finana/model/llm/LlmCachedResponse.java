@@ -0,0 +1,26 @@
+package com.testehan.finana.model.llm;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Document(collection = "llm_response_cache")
+public class LlmCachedResponse {
+    // SHA-256 of model, options and rendered prompt
+    @Id
+    private String fingerprint;
+    private String model;
+    private String operationType;
+    private String symbol;
+    private String response;
+    private LocalDateTime createdAt;
+    @Indexed(expireAfter = "0s")
+    private LocalDateTime expiresAt;
+    @Indexed
+    private LocalDateTime lastAccessedAt;
+    private long hitCount;
+}
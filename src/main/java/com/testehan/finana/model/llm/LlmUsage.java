@@ -2,6 +2,8 @@ package com.testehan.finana.model.llm;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -9,6 +11,10 @@ import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "llm_usage")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_timestamp", def = "{ 'userEmail': 1, 'timestamp': 1 }"),
+        @CompoundIndex(name = "user_symbol_timestamp", def = "{ 'userEmail': 1, 'symbol': 1, 'timestamp': 1 }")
+})
 public class LlmUsage {
     @Id
     private String id;
@@ -23,4 +29,5 @@ public class LlmUsage {
     private BigDecimal totalCostUsd;
     private boolean success;
     private String errorMessage;
+    private boolean cacheHit;
 }
\ No newline at end of file
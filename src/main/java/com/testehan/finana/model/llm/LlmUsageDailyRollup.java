@@ -0,0 +1,39 @@
+package com.testehan.finana.model.llm;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+
+/**
+ * Totals of one user's LLM usage per day, operation type and symbol, kept up to date with $inc as usage records are
+ * written. The day is the ISO date of the usage timestamp in the server time zone. Totals rebuilt from the raw
+ * records are kept apart from the $inc totals under a key marked as rebuilt.
+ */
+@Data
+@Document(collection = "llm_usage_daily")
+@CompoundIndex(name = "user_day", def = "{ '_id.userEmail': 1, '_id.day': 1 }")
+public class LlmUsageDailyRollup {
+    @Id
+    private Key id;
+    private long calls;
+    private long successfulCalls;
+    private long promptTokens;
+    private long completionTokens;
+    private long cachedTokens;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal totalCostUsd;
+
+    @Data
+    public static class Key {
+        private String userEmail;
+        private String day;
+        private String operationType;
+        private String symbol;
+        private Boolean rebuilt;
+    }
+}
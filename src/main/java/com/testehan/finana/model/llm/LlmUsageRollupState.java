@@ -0,0 +1,39 @@
+package com.testehan.finana.model.llm;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Which days the {@link LlmUsageDailyRollup}s cover. Usage timestamped from the cutoff on is rolled up as it is
+ * written; usage before it is rolled up by the one-time backfill. Dirty days lost a rollup update and are only
+ * trusted again once they are rebuilt from the raw records.
+ */
+@Data
+@Document(collection = "llm_usage_rollup_state")
+public class LlmUsageRollupState {
+    public static final String ID = "daily";
+
+    @Id
+    private String id = ID;
+    private LocalDateTime cutoff;
+    private LocalDateTime backfilledAt;
+    private Set<String> dirtyDays = new TreeSet<>();
+
+    public boolean isBackfilled() {
+        return backfilledAt != null;
+    }
+
+    /**
+     * The first day whose rollups are complete: every day once the backfill ran, otherwise the first whole day
+     * after the cutoff.
+     */
+    public LocalDate firstCoveredDay() {
+        return isBackfilled() ? LocalDate.MIN : cutoff.toLocalDate().plusDays(1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.testehan.finana.model.quote;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One daily bar of an index, stored as its own document in a time series collection bucketed by symbol.
+ */
+@Document("index_quote_bars")
+@TimeSeries(timeField = "date", metaField = "symbol", granularity = Granularity.HOURS)
+@Getter
+@Setter
+@NoArgsConstructor
+public class IndexQuoteBar {
+    @Id
+    private String id;
+    private String symbol;
+    private Instant date;
+    private Double price;
+    private Long volume;
+    // the full fetch that wrote the bar, so the bars it replaces can be removed after it is stored
+    private String batch;
+
+    public LocalDate getTradingDay() {
+        return QuoteBars.dayOf(date);
+    }
+
+    public IndexData toIndexData() {
+        IndexData indexData = new IndexData();
+        indexData.setSymbol(symbol);
+        indexData.setDate(getTradingDay().toString());
+        indexData.setPrice(price);
+        indexData.setVolume(volume);
+        return indexData;
+    }
+}
@@ -17,6 +17,7 @@ import java.util.List;
 public class IndexQuotes implements Serializable {
     @Id
     private String symbol;
+    // assembled from index_quote_bars when served; only documents written before the migration still embed them
     private List<IndexData> quotes;
     private LocalDateTime lastUpdated;
 
@@ -0,0 +1,329 @@
+package com.testehan.finana.model.quote;
+
+import com.testehan.finana.util.SafeParser;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, columnar view over a symbol's daily price history.
+ * Dates are stored as epoch days in ascending order next to primitive open, high, low, close, price and volume
+ * columns, so date lookups are binary searches instead of scans over lists of string based quotes.
+ * A value the source bar did not have is stored as NaN and comes back as null.
+ */
+public final class PriceSeries {
+
+    private final String symbol;
+    private final int[] epochDays;
+    private final double[] adjOpen;
+    private final double[] adjHigh;
+    private final double[] adjLow;
+    private final double[] adjClose;
+    private final double[] price;
+    private final double[] volume;
+
+    private PriceSeries(String symbol, int[] epochDays, double[] adjOpen, double[] adjHigh, double[] adjLow,
+                        double[] adjClose, double[] price, double[] volume) {
+        this.symbol = symbol;
+        this.epochDays = epochDays;
+        this.adjOpen = adjOpen;
+        this.adjHigh = adjHigh;
+        this.adjLow = adjLow;
+        this.adjClose = adjClose;
+        this.price = price;
+        this.volume = volume;
+    }
+
+    public static PriceSeries fromStockQuotes(String symbol, List<GlobalQuote> quotes) {
+        if (quotes == null || quotes.isEmpty()) {
+            return empty(symbol);
+        }
+        Builder builder = new Builder(symbol, quotes.size());
+        for (GlobalQuote quote : quotes) {
+            builder.add(quote.getDate(),
+                    SafeParser.tryParseDouble(quote.getAdjOpen()),
+                    SafeParser.tryParseDouble(quote.getAdjHigh()),
+                    SafeParser.tryParseDouble(quote.getAdjLow()),
+                    SafeParser.tryParseDouble(quote.getAdjClose()),
+                    SafeParser.tryParseDouble(quote.getPrice()),
+                    SafeParser.tryParseDouble(quote.getVolume()));
+        }
+        return builder.build();
+    }
+
+    public static PriceSeries fromIndexData(String symbol, List<IndexData> quotes) {
+        if (quotes == null || quotes.isEmpty()) {
+            return empty(symbol);
+        }
+        Builder builder = new Builder(symbol, quotes.size());
+        for (IndexData quote : quotes) {
+            builder.add(quote.getDate(), null, null, null, quote.getPrice(), quote.getPrice(),
+                    quote.getVolume() != null ? quote.getVolume().doubleValue() : null);
+        }
+        return builder.build();
+    }
+
+    public static PriceSeries fromStockBars(String symbol, List<StockQuoteBar> bars) {
+        if (bars == null || bars.isEmpty()) {
+            return empty(symbol);
+        }
+        Builder builder = new Builder(symbol, bars.size());
+        for (StockQuoteBar bar : bars) {
+            builder.add(bar.getTradingDay().toEpochDay(), bar.getAdjOpen(), bar.getAdjHigh(), bar.getAdjLow(),
+                    bar.getAdjClose(), bar.getPrice(), bar.getVolume() != null ? bar.getVolume().doubleValue() : null);
+        }
+        return builder.build();
+    }
+
+    public static PriceSeries fromIndexBars(String symbol, List<IndexQuoteBar> bars) {
+        if (bars == null || bars.isEmpty()) {
+            return empty(symbol);
+        }
+        Builder builder = new Builder(symbol, bars.size());
+        for (IndexQuoteBar bar : bars) {
+            builder.add(bar.getTradingDay().toEpochDay(), null, null, null, bar.getPrice(), bar.getPrice(),
+                    bar.getVolume() != null ? bar.getVolume().doubleValue() : null);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a new series with the given bars added, a bar on a date this series already has replaces it.
+     * Used to keep a cached series current when a refresh only appends the latest days.
+     */
+    public PriceSeries withStockBars(List<StockQuoteBar> bars) {
+        Builder builder = copyInto(bars.size());
+        for (StockQuoteBar bar : bars) {
+            builder.add(bar.getTradingDay().toEpochDay(), bar.getAdjOpen(), bar.getAdjHigh(), bar.getAdjLow(),
+                    bar.getAdjClose(), bar.getPrice(), bar.getVolume() != null ? bar.getVolume().doubleValue() : null);
+        }
+        return builder.build();
+    }
+
+    public PriceSeries withIndexBars(List<IndexQuoteBar> bars) {
+        Builder builder = copyInto(bars.size());
+        for (IndexQuoteBar bar : bars) {
+            builder.add(bar.getTradingDay().toEpochDay(), null, null, null, bar.getPrice(), bar.getPrice(),
+                    bar.getVolume() != null ? bar.getVolume().doubleValue() : null);
+        }
+        return builder.build();
+    }
+
+    private Builder copyInto(int extraCapacity) {
+        Builder builder = new Builder(symbol, size() + extraCapacity);
+        for (int index = 0; index < size(); index++) {
+            builder.copy(epochDays[index], adjOpen[index], adjHigh[index], adjLow[index], adjClose[index], price[index],
+                    volume[index]);
+        }
+        return builder;
+    }
+
+    public static PriceSeries empty(String symbol) {
+        return new PriceSeries(symbol, new int[0], new double[0], new double[0], new double[0], new double[0],
+                new double[0], new double[0]);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    public LocalDate dateAt(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public double adjCloseAt(int index) {
+        return adjClose[index];
+    }
+
+    public double volumeAt(int index) {
+        return volume[index];
+    }
+
+    public int firstIndex() {
+        return isEmpty() ? -1 : 0;
+    }
+
+    public int lastIndex() {
+        return epochDays.length - 1;
+    }
+
+    /**
+     * Returns the index of the latest bar on or before {@code date}, or -1 when there is none.
+     */
+    public int floorIndex(LocalDate date) {
+        int position = Arrays.binarySearch(epochDays, (int) date.toEpochDay());
+        return position >= 0 ? position : -position - 2;
+    }
+
+    /**
+     * Same as {@link #floorIndex(LocalDate)} but only accepts bars less than {@code maxLookbackDays} old,
+     * which covers weekends and market holidays without jumping back to a stale price.
+     */
+    public int floorIndex(LocalDate date, int maxLookbackDays) {
+        int index = floorIndex(date);
+        if (index < 0 || date.toEpochDay() - epochDays[index] >= maxLookbackDays) {
+            return -1;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the bars between {@code from} and {@code to}, both inclusive. The arrays are copied so the
+     * slice stays valid if this series gets replaced by a refresh.
+     */
+    public PriceSeries slice(LocalDate from, LocalDate to) {
+        int start = Arrays.binarySearch(epochDays, (int) from.toEpochDay());
+        start = start >= 0 ? start : -start - 1;
+        int end = floorIndex(to) + 1;
+        if (start >= end) {
+            return empty(symbol);
+        }
+        return new PriceSeries(symbol,
+                Arrays.copyOfRange(epochDays, start, end),
+                Arrays.copyOfRange(adjOpen, start, end),
+                Arrays.copyOfRange(adjHigh, start, end),
+                Arrays.copyOfRange(adjLow, start, end),
+                Arrays.copyOfRange(adjClose, start, end),
+                Arrays.copyOfRange(price, start, end),
+                Arrays.copyOfRange(volume, start, end));
+    }
+
+    public GlobalQuote toGlobalQuote(int index) {
+        GlobalQuote quote = new GlobalQuote();
+        quote.setSymbol(symbol);
+        quote.setDate(dateAt(index).toString());
+        quote.setAdjOpen(format(adjOpen[index]));
+        quote.setAdjHigh(format(adjHigh[index]));
+        quote.setAdjLow(format(adjLow[index]));
+        quote.setAdjClose(format(adjClose[index]));
+        quote.setPrice(format(price[index]));
+        quote.setVolume(Double.isNaN(volume[index]) ? null : String.valueOf((long) volume[index]));
+        return quote;
+    }
+
+    public IndexData toIndexData(int index) {
+        IndexData indexData = new IndexData();
+        indexData.setSymbol(symbol);
+        indexData.setDate(dateAt(index).toString());
+        indexData.setPrice(Double.isNaN(price[index]) ? adjClose[index] : price[index]);
+        indexData.setVolume(Double.isNaN(volume[index]) ? null : (long) volume[index]);
+        return indexData;
+    }
+
+    private static String format(double value) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value).toPlainString();
+    }
+
+    private static final class Builder {
+        private final String symbol;
+        private final long[] packed;
+        private final double[] adjOpen;
+        private final double[] adjHigh;
+        private final double[] adjLow;
+        private final double[] adjClose;
+        private final double[] price;
+        private final double[] volume;
+        private int size;
+
+        private Builder(String symbol, int capacity) {
+            this.symbol = symbol;
+            this.packed = new long[capacity];
+            this.adjOpen = new double[capacity];
+            this.adjHigh = new double[capacity];
+            this.adjLow = new double[capacity];
+            this.adjClose = new double[capacity];
+            this.price = new double[capacity];
+            this.volume = new double[capacity];
+        }
+
+        private void add(String date, Double open, Double high, Double low, Double close, Double last, Double vol) {
+            if (date == null) {
+                return;
+            }
+            try {
+                add(LocalDate.parse(date).toEpochDay(), open, high, low, close, last, vol);
+            } catch (DateTimeParseException e) {
+                // skip malformed bars, they cannot be placed on the time axis
+            }
+        }
+
+        private void add(long epochDay, Double open, Double high, Double low, Double close, Double last, Double vol) {
+            if (close == null) {
+                return;
+            }
+            // sort key in the high bits, original position in the low bits, so one primitive sort orders the columns
+            packed[size] = (epochDay << 32) | size;
+            adjOpen[size] = orNaN(open);
+            adjHigh[size] = orNaN(high);
+            adjLow[size] = orNaN(low);
+            adjClose[size] = close;
+            price[size] = orNaN(last);
+            volume[size] = orNaN(vol);
+            size++;
+        }
+
+        // copies a bar of an existing series, its missing values are already NaN
+        private void copy(long epochDay, double open, double high, double low, double close, double last, double vol) {
+            packed[size] = (epochDay << 32) | size;
+            adjOpen[size] = open;
+            adjHigh[size] = high;
+            adjLow[size] = low;
+            adjClose[size] = close;
+            price[size] = last;
+            volume[size] = vol;
+            size++;
+        }
+
+        private static double orNaN(Double value) {
+            return value != null ? value : Double.NaN;
+        }
+
+        private PriceSeries build() {
+            long[] order = Arrays.copyOf(packed, size);
+            Arrays.sort(order);
+
+            int[] sortedDays = new int[size];
+            double[] sortedOpen = new double[size];
+            double[] sortedHigh = new double[size];
+            double[] sortedLow = new double[size];
+            double[] sortedClose = new double[size];
+            double[] sortedPrice = new double[size];
+            double[] sortedVolume = new double[size];
+            int count = 0;
+            for (long entry : order) {
+                int day = (int) (entry >> 32);
+                int position = (int) entry;
+                if (count > 0 && sortedDays[count - 1] == day) {
+                    count--;    // duplicate date, the later entry wins
+                }
+                sortedDays[count] = day;
+                sortedOpen[count] = adjOpen[position];
+                sortedHigh[count] = adjHigh[position];
+                sortedLow[count] = adjLow[position];
+                sortedClose[count] = adjClose[position];
+                sortedPrice[count] = price[position];
+                sortedVolume[count] = volume[position];
+                count++;
+            }
+            return new PriceSeries(symbol,
+                    Arrays.copyOf(sortedDays, count),
+                    Arrays.copyOf(sortedOpen, count),
+                    Arrays.copyOf(sortedHigh, count),
+                    Arrays.copyOf(sortedLow, count),
+                    Arrays.copyOf(sortedClose, count),
+                    Arrays.copyOf(sortedPrice, count),
+                    Arrays.copyOf(sortedVolume, count));
+        }
+    }
+}
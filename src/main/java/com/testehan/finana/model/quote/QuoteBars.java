@@ -0,0 +1,88 @@
+package com.testehan.finana.model.quote;
+
+import com.testehan.finana.util.SafeParser;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the quote payloads returned by FMP onto the one-bar-per-document layout.
+ * Bars are timestamped at UTC midnight of their trading day; quotes without a parsable date or price are dropped
+ * and when a date repeats the later quote wins.
+ */
+public final class QuoteBars {
+
+    private QuoteBars() {
+    }
+
+    public static Instant timeOf(LocalDate tradingDay) {
+        return tradingDay.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    public static LocalDate dayOf(Instant time) {
+        return LocalDate.ofInstant(time, ZoneOffset.UTC);
+    }
+
+    public static List<StockQuoteBar> stockBarsOf(String symbol, List<GlobalQuote> quotes) {
+        if (quotes == null) {
+            return new ArrayList<>();
+        }
+        Map<LocalDate, StockQuoteBar> bars = new LinkedHashMap<>();
+        for (GlobalQuote quote : quotes) {
+            LocalDate tradingDay = parseDay(quote.getDate());
+            Double adjClose = SafeParser.tryParseDouble(quote.getAdjClose());
+            if (tradingDay == null || adjClose == null) {
+                continue;
+            }
+            StockQuoteBar bar = new StockQuoteBar();
+            bar.setSymbol(symbol);
+            bar.setDate(timeOf(tradingDay));
+            bar.setAdjOpen(SafeParser.tryParseDouble(quote.getAdjOpen()));
+            bar.setAdjHigh(SafeParser.tryParseDouble(quote.getAdjHigh()));
+            bar.setAdjLow(SafeParser.tryParseDouble(quote.getAdjLow()));
+            bar.setAdjClose(adjClose);
+            bar.setPrice(SafeParser.tryParseDouble(quote.getPrice()));
+            Double volume = SafeParser.tryParseDouble(quote.getVolume());
+            bar.setVolume(volume != null ? volume.longValue() : null);
+            bars.put(tradingDay, bar);
+        }
+        return new ArrayList<>(bars.values());
+    }
+
+    public static List<IndexQuoteBar> indexBarsOf(String symbol, List<IndexData> quotes) {
+        if (quotes == null) {
+            return new ArrayList<>();
+        }
+        Map<LocalDate, IndexQuoteBar> bars = new LinkedHashMap<>();
+        for (IndexData quote : quotes) {
+            LocalDate tradingDay = parseDay(quote.getDate());
+            if (tradingDay == null || quote.getPrice() == null) {
+                continue;
+            }
+            IndexQuoteBar bar = new IndexQuoteBar();
+            bar.setSymbol(symbol);
+            bar.setDate(timeOf(tradingDay));
+            bar.setPrice(quote.getPrice());
+            bar.setVolume(quote.getVolume());
+            bars.put(tradingDay, bar);
+        }
+        return new ArrayList<>(bars.values());
+    }
+
+    private static LocalDate parseDay(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.testehan.finana.model.quote;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One daily bar of a stock, stored as its own document in a time series collection bucketed by symbol.
+ */
+@Document("stock_quote_bars")
+@TimeSeries(timeField = "date", metaField = "symbol", granularity = Granularity.HOURS)
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockQuoteBar {
+    @Id
+    private String id;
+    private String symbol;
+    private Instant date;
+    private Double adjOpen;
+    private Double adjHigh;
+    private Double adjLow;
+    private Double adjClose;
+    private Double price;
+    private Long volume;
+    // the full fetch that wrote the bar, so the bars it replaces can be removed after it is stored
+    private String batch;
+
+    public LocalDate getTradingDay() {
+        return QuoteBars.dayOf(date);
+    }
+
+    public GlobalQuote toGlobalQuote() {
+        GlobalQuote quote = new GlobalQuote();
+        quote.setSymbol(symbol);
+        quote.setDate(getTradingDay().toString());
+        quote.setAdjOpen(format(adjOpen));
+        quote.setAdjHigh(format(adjHigh));
+        quote.setAdjLow(format(adjLow));
+        quote.setAdjClose(format(adjClose));
+        quote.setPrice(format(price));
+        quote.setVolume(volume != null ? String.valueOf(volume) : null);
+        return quote;
+    }
+
+    private static String format(Double value) {
+        return value != null ? BigDecimal.valueOf(value).toPlainString() : null;
+    }
+}
@@ -19,6 +19,7 @@ import java.util.List;
 public class StockQuotes {
     @Id
     private String symbol;
+    // legacy embedded bars, only read by the migration to stock_quote_bars; the document now just tracks lastUpdated
     private List<GlobalQuote> quotes;
     private LocalDateTime lastUpdated;
 }
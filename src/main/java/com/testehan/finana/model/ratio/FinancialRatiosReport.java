@@ -1,5 +1,6 @@
 package com.testehan.finana.model.ratio;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -8,6 +9,10 @@ import java.math.BigDecimal;
 public class FinancialRatiosReport {
     private String date;        // fiscal ending date
 
+    // hash of the statements the ratios were calculated from, unchanged statements are not recalculated
+    @JsonIgnore
+    private String inputHash;
+
     // Profitability
     private BigDecimal grossProfitMargin;
     private BigDecimal netProfitMargin;
@@ -3,6 +3,8 @@ package com.testehan.finana.model.user;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -15,6 +17,8 @@ public class User {
     private String email;
     private String name;
     private String picture;
+    // numeric so the balance can be changed with $inc
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal credit = new BigDecimal("5.00");
     private Instant createdAt;
 }
\ No newline at end of file
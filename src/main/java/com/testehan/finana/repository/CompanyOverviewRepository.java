@@ -2,6 +2,7 @@ package com.testehan.finana.repository;
 
 import com.testehan.finana.model.CompanyOverview;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +15,7 @@ public interface CompanyOverviewRepository extends MongoRepository<CompanyOvervi
     void deleteBySymbol(String symbol);
 
     List<CompanyOverview> findBySymbolIn(List<String> symbols);
+
+    @Query(value = "{}", fields = "{ 'symbol': 1 }")
+    List<CompanyOverview> findAllSymbols();
 }
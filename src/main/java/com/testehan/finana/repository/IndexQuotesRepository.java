@@ -1,37 +1,20 @@
 package com.testehan.finana.repository;
 
-import com.testehan.finana.model.quote.IndexData;
 import com.testehan.finana.model.quote.IndexQuotes;
-import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface IndexQuotesRepository extends MongoRepository<IndexQuotes, String> {
 
-    @Aggregation(pipeline = {
-            "{ '$match': { '_id': ?0 } }",
-            "{ '$unwind': '$quotes' }",
-            "{ '$sort': { 'quotes.date': 1 } }",
-            "{ '$limit': 1 }",
-            "{ '$replaceRoot': { 'newRoot': '$quotes' } }"
-    })
-    Optional<IndexData> findFirstQuoteBySymbol(String symbol);
+    // only the refresh time, a document that was not migrated yet still embeds its whole quote history
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'lastUpdated': 1 }")
+    Optional<IndexQuotes> findLastUpdatedBySymbol(String symbol);
 
-    @Aggregation(pipeline = {
-            "{ '$match': { '_id': ?0 } }",
-            "{ '$unwind': '$quotes' }",
-            "{ '$sort': { 'quotes.date': -1 } }",
-            "{ '$limit': 1 }",
-            "{ '$replaceRoot': { 'newRoot': '$quotes' } }"
-    })
-    Optional<IndexData> findLastQuoteBySymbol(String symbol);
-
-    @Aggregation(pipeline = {
-            "{ '$match': { '_id': ?0 } }",
-            "{ '$unwind': '$quotes' }",
-            "{ '$match': { 'quotes.date': ?1 } }",
-            "{ '$replaceRoot': { 'newRoot': '$quotes' } }"
-    })
-    Optional<IndexData> findQuoteBySymbolAndDate(String symbol, String date);
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$set': { 'lastUpdated': ?1 } }")
+    long updateLastUpdated(String symbol, LocalDateTime lastUpdated);
 }
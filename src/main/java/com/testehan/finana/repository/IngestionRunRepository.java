@@ -0,0 +1,39 @@
+package com.testehan.finana.repository;
+
+import com.testehan.finana.model.ingestion.IngestionFailure;
+import com.testehan.finana.model.ingestion.IngestionRun;
+import com.testehan.finana.model.ingestion.IngestionRunStatus;
+import com.testehan.finana.model.ingestion.IngestionUniverse;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IngestionRunRepository extends MongoRepository<IngestionRun, String> {
+    List<IngestionRun> findByStatus(IngestionRunStatus status);
+
+    boolean existsByUniverseAndStatus(IngestionUniverse universe, IngestionRunStatus status);
+
+    Optional<IngestionRun> findFirstByOrderByStartedAtDesc();
+
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$addToSet': { 'completed': ?1 }, '$set': { 'updatedAt': ?2 } }")
+    void markCompleted(String id, String ticker, LocalDateTime updatedAt);
+
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$push': { 'failures': ?1 }, '$set': { 'updatedAt': ?2 } }")
+    void markFailed(String id, IngestionFailure failure, LocalDateTime updatedAt);
+
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$set': { 'tickersPerMinute': ?1, 'estimatedCompletion': ?2, 'updatedAt': ?3 } }")
+    void recordProgress(String id, double tickersPerMinute, LocalDateTime estimatedCompletion, LocalDateTime updatedAt);
+
+    @Query("{ '_id': ?0, 'status': 'RUNNING' }")
+    @Update("{ '$set': { 'status': ?1, 'finishedAt': ?2, 'updatedAt': ?2 } }")
+    void finish(String id, IngestionRunStatus status, LocalDateTime finishedAt);
+}
@@ -0,0 +1,22 @@
+package com.testehan.finana.repository;
+
+import com.testehan.finana.model.llm.LlmCachedResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LlmCachedResponseRepository extends MongoRepository<LlmCachedResponse, String> {
+
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$inc': { 'hitCount': 1 }, '$set': { 'lastAccessedAt': ?1 } }")
+    void recordHit(String fingerprint, LocalDateTime accessedAt);
+
+    @Query(value = "{}", fields = "{ '_id': 1 }")
+    List<LlmCachedResponse> findLeastRecentlyAccessed(Pageable pageable);
+}
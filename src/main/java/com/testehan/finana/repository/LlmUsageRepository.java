@@ -24,7 +24,4 @@ public interface LlmUsageRepository extends MongoRepository<LlmUsage, String> {
     Page<LlmUsage> findByUserEmailAndSymbolAndOperationType(String userEmail, String symbol, String operationType, Pageable pageable);
     Page<LlmUsage> findByUserEmailAndSymbolAndTimestampBetween(String userEmail, String symbol, LocalDateTime from, LocalDateTime to, Pageable pageable);
     Page<LlmUsage> findByUserEmailAndSymbolAndOperationTypeAndTimestampBetween(String userEmail, String symbol, String operationType, LocalDateTime from, LocalDateTime to, Pageable pageable);
-    List<LlmUsage> findByUserEmailAndTimestampBetween(String userEmail, LocalDateTime from, LocalDateTime to);
-    List<LlmUsage> findByUserEmailAndSymbolAndTimestampBetween(String userEmail, String symbol, LocalDateTime from, LocalDateTime to);
-    List<LlmUsage> findByUserEmailAndOperationType(String userEmail, String operationType);
 }
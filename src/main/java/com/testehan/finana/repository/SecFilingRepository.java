@@ -1,12 +1,87 @@
 package com.testehan.finana.repository;
 
 import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
+import com.testehan.finana.model.filing.TenQFilings;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.Optional;
 
+/**
+ * The latest filing lookups project the filings down to the requested fields before sorting them by filedAt,
+ * so only the latest filing's sections leave the database instead of the whole per-symbol document.
+ */
 public interface SecFilingRepository extends MongoRepository<SecFiling, String> {
     Optional<SecFiling> findBySymbol(String symbol);
 
     void deleteBySymbol(String symbol);
+
+    @Query(value = "{ '_id': ?0, 'tenKFilings.0': { '$exists': true } }", exists = true)
+    boolean hasTenKFilings(String symbol);
+
+    @Query(value = "{ '_id': ?0, 'tenQFilings.0': { '$exists': true } }", exists = true)
+    boolean hasTenQFilings(String symbol);
+
+    @Aggregation(pipeline = {
+            "{ '$match': { '_id': ?0 } }",
+            "{ '$unwind': '$tenKFilings' }",
+            "{ '$sort': { 'tenKFilings.filedAt': -1 } }",
+            "{ '$limit': 1 }",
+            "{ '$replaceRoot': { 'newRoot': '$tenKFilings' } }"})
+    Optional<TenKFilings> findLatestTenKFiling(String symbol);
+
+    @Aggregation(pipeline = {
+            "{ '$match': { '_id': ?0 } }",
+            "{ '$unwind': '$tenKFilings' }",
+            "{ '$project': { 'tenKFilings.filedAt': 1, 'tenKFilings.businessDescription': 1 } }",
+            "{ '$sort': { 'tenKFilings.filedAt': -1 } }",
+            "{ '$limit': 1 }",
+            "{ '$replaceRoot': { 'newRoot': '$tenKFilings' } }"})
+    Optional<TenKFilings> findLatestTenKBusinessDescription(String symbol);
+
+    @Aggregation(pipeline = {
+            "{ '$match': { '_id': ?0 } }",
+            "{ '$unwind': '$tenKFilings' }",
+            "{ '$project': { 'tenKFilings.filedAt': 1, 'tenKFilings.riskFactors': 1 } }",
+            "{ '$sort': { 'tenKFilings.filedAt': -1 } }",
+            "{ '$limit': 1 }",
+            "{ '$replaceRoot': { 'newRoot': '$tenKFilings' } }"})
+    Optional<TenKFilings> findLatestTenKRiskFactors(String symbol);
+
+    @Aggregation(pipeline = {
+            "{ '$match': { '_id': ?0 } }",
+            "{ '$unwind': '$tenKFilings' }",
+            "{ '$project': { 'tenKFilings.filedAt': 1, 'tenKFilings.managementDiscussion': 1 } }",
+            "{ '$sort': { 'tenKFilings.filedAt': -1 } }",
+            "{ '$limit': 1 }",
+            "{ '$replaceRoot': { 'newRoot': '$tenKFilings' } }"})
+    Optional<TenKFilings> findLatestTenKManagementDiscussion(String symbol);
+
+    @Aggregation(pipeline = {
+            "{ '$match': { '_id': ?0 } }",
+            "{ '$unwind': '$tenQFilings' }",
+            "{ '$sort': { 'tenQFilings.filedAt': -1 } }",
+            "{ '$limit': 1 }",
+            "{ '$replaceRoot': { 'newRoot': '$tenQFilings' } }"})
+    Optional<TenQFilings> findLatestTenQFiling(String symbol);
+
+    @Aggregation(pipeline = {
+            "{ '$match': { '_id': ?0 } }",
+            "{ '$unwind': '$tenQFilings' }",
+            "{ '$project': { 'tenQFilings.filedAt': 1, 'tenQFilings.riskFactors': 1 } }",
+            "{ '$sort': { 'tenQFilings.filedAt': -1 } }",
+            "{ '$limit': 1 }",
+            "{ '$replaceRoot': { 'newRoot': '$tenQFilings' } }"})
+    Optional<TenQFilings> findLatestTenQRiskFactors(String symbol);
+
+    @Aggregation(pipeline = {
+            "{ '$match': { '_id': ?0 } }",
+            "{ '$unwind': '$tenQFilings' }",
+            "{ '$project': { 'tenQFilings.filedAt': 1, 'tenQFilings.managementDiscussion': 1 } }",
+            "{ '$sort': { 'tenQFilings.filedAt': -1 } }",
+            "{ '$limit': 1 }",
+            "{ '$replaceRoot': { 'newRoot': '$tenQFilings' } }"})
+    Optional<TenQFilings> findLatestTenQManagementDiscussion(String symbol);
 }
@@ -0,0 +1,39 @@
+package com.testehan.finana.repository;
+
+import com.testehan.finana.model.quote.StockQuoteBar;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockQuoteBarRepository extends MongoRepository<StockQuoteBar, String> {
+
+    Optional<StockQuoteBar> findFirstBySymbolOrderByDateAsc(String symbol);
+
+    Optional<StockQuoteBar> findFirstBySymbolOrderByDateDesc(String symbol);
+
+    // the newest bar and the settled one before it
+    List<StockQuoteBar> findTop2BySymbolOrderByDateDesc(String symbol);
+
+    // latest bar on or before the given day, the floor used for weekend and holiday lookups
+    Optional<StockQuoteBar> findFirstBySymbolAndDateLessThanEqualOrderByDateDesc(String symbol, Instant date);
+
+    @Query(value = "{ 'symbol': ?0, 'date': { '$gte': ?1, '$lte': ?2 } }", sort = "{ 'date': 1 }")
+    List<StockQuoteBar> findRangeBySymbol(String symbol, Instant from, Instant to);
+
+    List<StockQuoteBar> findBySymbolOrderByDateAsc(String symbol);
+
+    boolean existsBySymbol(String symbol);
+
+    void deleteBySymbol(String symbol);
+
+    // batch is not the metaField, deleting by it needs MongoDB 7.0 or newer, see MongoServerVersion
+    void deleteBySymbolAndBatch(String symbol, String batch);
+
+    // also removes bars written without a batch, e.g. the appended ones
+    void deleteBySymbolAndBatchNot(String symbol, String batch);
+}
@@ -1,43 +1,25 @@
-
 package com.testehan.finana.repository;
 
-import com.testehan.finana.model.quote.GlobalQuote;
 import com.testehan.finana.model.quote.StockQuotes;
-import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface StockQuotesRepository extends MongoRepository<StockQuotes, String> {
     Optional<StockQuotes> findBySymbol(String symbol);
 
-    void deleteBySymbol(String symbol);
-
-    @Aggregation(pipeline = {
-            "{ '$match': { 'symbol' : ?0 } }",
-            "{ '$unwind': '$quotes' }",
-            "{ '$sort': { 'quotes.date': 1 } }",
-            "{ '$limit': 1 }",
-            "{ '$replaceRoot': { 'newRoot': '$quotes' } }"
-    })
-    Optional<GlobalQuote> findFirstQuoteBySymbol(String symbol);
+    // only the refresh time, a document that was not migrated yet still embeds its whole quote history
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'lastUpdated': 1 }")
+    Optional<StockQuotes> findLastUpdatedBySymbol(String symbol);
 
-    @Aggregation(pipeline = {
-            "{ '$match': { 'symbol' : ?0 } }",
-            "{ '$unwind': '$quotes' }",
-            "{ '$sort': { 'quotes.date': -1 } }",
-            "{ '$limit': 1 }",
-            "{ '$replaceRoot': { 'newRoot': '$quotes' } }"
-    })
-    Optional<GlobalQuote> findLastQuoteBySymbol(String symbol);
+    void deleteBySymbol(String symbol);
 
-    @Aggregation(pipeline = {
-            "{ '$match': { '_id': ?0 } }",
-            "{ '$unwind': '$quotes' }",
-            "{ '$match': { 'quotes.date': ?1 } }",
-            "{ '$replaceRoot': { 'newRoot': '$quotes' } }"
-    })
-    Optional<GlobalQuote> findQuoteBySymbolAndDate(String symbol, String date);
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$set': { 'lastUpdated': ?1 } }")
+    long updateLastUpdated(String symbol, LocalDateTime lastUpdated);
 }
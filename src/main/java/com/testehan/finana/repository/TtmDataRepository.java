@@ -0,0 +1,14 @@
+package com.testehan.finana.repository;
+
+import com.testehan.finana.model.finstatement.TtmData;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TtmDataRepository extends MongoRepository<TtmData, String> {
+    Optional<TtmData> findBySymbol(String symbol);
+
+    void deleteBySymbol(String symbol);
+}
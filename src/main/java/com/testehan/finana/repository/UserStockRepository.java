@@ -3,6 +3,7 @@ package com.testehan.finana.repository;
 import com.testehan.finana.model.user.UserStock;
 import com.testehan.finana.model.user.UserStockStatus;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +14,7 @@ public interface UserStockRepository extends MongoRepository<UserStock, String>
     List<UserStock> findByUserId(String userId);
     Optional<UserStock> findByUserIdAndStockId(String userId, String stockId);
     List<UserStock> findByStatus(UserStockStatus status);
+
+    @Query(value = "{}", fields = "{ 'stockId': 1 }")
+    List<UserStock> findAllStockIds();
 }
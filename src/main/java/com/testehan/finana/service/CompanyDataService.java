@@ -5,6 +5,7 @@ import org.springframework.data.domain.Pageable;
 import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.repository.CompanyOverviewRepository;
 import com.testehan.finana.util.DateUtils;
+import com.testehan.finana.util.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DuplicateKeyException;
@@ -22,6 +23,8 @@ public class CompanyDataService {
     private final CompanyOverviewRepository companyOverviewRepository;
     private final DateUtils dateUtils;
 
+    private final SingleFlight<String, List<CompanyOverview>> companyOverviewRequests = new SingleFlight<>();
+
     public CompanyDataService(FMPService fmpService, CompanyOverviewRepository companyOverviewRepository, DateUtils dateUtils) {
         this.fmpService = fmpService;
         this.companyOverviewRepository = companyOverviewRepository;
@@ -29,6 +32,10 @@ public class CompanyDataService {
     }
 
     public Mono<List<CompanyOverview>> getCompanyOverview(String symbol) {
+        return companyOverviewRequests.execute(symbol.toUpperCase(), () -> loadCompanyOverview(symbol));
+    }
+
+    private Mono<List<CompanyOverview>> loadCompanyOverview(String symbol) {
         return Mono.defer(() -> 
             Mono.fromCallable(() -> companyOverviewRepository.findBySymbol(symbol.toUpperCase()))
         ).flatMap(existingOpt -> {
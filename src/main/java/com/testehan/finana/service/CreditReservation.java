@@ -0,0 +1,9 @@
+package com.testehan.finana.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Credit held by {@link UserCreditService#reserve} for a call that has not been charged yet.
+ */
+public record CreditReservation(String userEmail, BigDecimal amount) {
+}
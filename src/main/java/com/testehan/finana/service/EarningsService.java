@@ -8,6 +8,7 @@ import com.testehan.finana.repository.CompanyEarningsTranscriptsRepository;
 import com.testehan.finana.repository.EarningsEstimatesRepository;
 import com.testehan.finana.repository.EarningsHistoryRepository;
 import com.testehan.finana.util.DateUtils;
+import com.testehan.finana.util.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -31,6 +32,10 @@ public class EarningsService {
     private final EarningsEstimatesRepository earningsEstimatesRepository;
     private final DateUtils dateUtils;
 
+    private final SingleFlight<String, QuarterlyEarningsTranscript> earningsCallTranscriptRequests = new SingleFlight<>();
+    private final SingleFlight<String, EarningsHistory> earningsHistoryRequests = new SingleFlight<>();
+    private final SingleFlight<String, EarningsEstimate> earningsEstimatesRequests = new SingleFlight<>();
+
     public EarningsService(AlphaVantageService alphaVantageService, FMPService fmpService, EarningsHistoryRepository earningsHistoryRepository, CompanyEarningsTranscriptsRepository companyEarningsTranscriptsRepository, EarningsEstimatesRepository earningsEstimatesRepository, DateUtils dateUtils) {
         this.alphaVantageService = alphaVantageService;
         this.fmpService = fmpService;
@@ -41,6 +46,10 @@ public class EarningsService {
     }
 
     public Mono<QuarterlyEarningsTranscript> getEarningsCallTranscript(String symbol, String quarter) {
+        return earningsCallTranscriptRequests.execute(symbol.toUpperCase() + "_" + quarter, () -> loadEarningsCallTranscript(symbol, quarter));
+    }
+
+    private Mono<QuarterlyEarningsTranscript> loadEarningsCallTranscript(String symbol, String quarter) {
         return Mono.defer(() -> {
             Optional<CompanyEarningsTranscripts> earningsCallTranscriptFromDb = companyEarningsTranscriptsRepository.findById(symbol.toUpperCase());
             if (earningsCallTranscriptFromDb.isPresent()) {
@@ -116,6 +125,10 @@ public class EarningsService {
     }
 
     public Mono<EarningsHistory> getEarningsHistory(String symbol) {
+        return earningsHistoryRequests.execute(symbol.toUpperCase(), () -> loadEarningsHistory(symbol));
+    }
+
+    private Mono<EarningsHistory> loadEarningsHistory(String symbol) {
         return Mono.defer(() -> {
             Optional<EarningsHistory> earningsHistoryFromDb = earningsHistoryRepository.findBySymbol(symbol.toUpperCase());
             if (earningsHistoryFromDb.isPresent() && dateUtils.isRecent(earningsHistoryFromDb.get().getLastUpdated(), DateUtils.CACHE_ONE_WEEK)) {
@@ -137,6 +150,10 @@ public class EarningsService {
     }
 
     public Mono<EarningsEstimate> getEarningsEstimates(String symbol) {
+        return earningsEstimatesRequests.execute(symbol.toUpperCase(), () -> loadEarningsEstimates(symbol));
+    }
+
+    private Mono<EarningsEstimate> loadEarningsEstimates(String symbol) {
         return Mono.defer(() -> {
             Optional<EarningsEstimate> earningsEstimateFromDb = earningsEstimatesRepository.findBySymbol(symbol.toUpperCase());
             if (earningsEstimateFromDb.isPresent() && dateUtils.isRecent(earningsEstimateFromDb.get().getLastUpdated(), DateUtils.CACHE_ONE_WEEK)) {
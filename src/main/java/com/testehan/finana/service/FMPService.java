@@ -1,5 +1,6 @@
 package com.testehan.finana.service;
 
+import com.testehan.finana.exception.RateLimitExhaustedException;
 import com.testehan.finana.model.*;
 import com.testehan.finana.model.filing.SecFilingUrlData;
 import com.testehan.finana.model.finstatement.*;
@@ -7,20 +8,28 @@ import com.testehan.finana.model.quote.GlobalQuote;
 import com.testehan.finana.model.quote.IndexData;
 import com.testehan.finana.model.ratio.FmpRatios;
 import com.testehan.finana.model.ratio.FmpRatiosTtm;
+import com.testehan.finana.util.RateLimitingExchangeFilter;
+import com.testehan.finana.util.TokenBucketRateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class FMPService {
@@ -35,14 +44,29 @@ public class FMPService {
     private final WebClient webClient;
 
     @org.springframework.beans.factory.annotation.Autowired
-    public FMPService(WebClient.Builder webClientBuilder) {
-        this(webClientBuilder, "https://financialmodelingprep.com");
+    public FMPService(WebClient.Builder webClientBuilder,
+                      @Qualifier("fmpRateLimiter") TokenBucketRateLimiter rateLimiter,
+                      @Value("${fmp.rate-limit.max-retries:3}") int maxRetries,
+                      @Value("${fmp.rate-limit.base-backoff-ms:1000}") long baseBackoffMs) {
+        this(webClientBuilder, "https://financialmodelingprep.com",
+                new RateLimitingExchangeFilter(rateLimiter, maxRetries, Duration.ofMillis(baseBackoffMs)));
     }
 
     public FMPService(WebClient.Builder webClientBuilder, String baseUrl) {
-        this.webClient = webClientBuilder
-                .baseUrl(baseUrl)
-                .build();
+        this(webClientBuilder, baseUrl, null);
+    }
+
+    public FMPService(WebClient.Builder webClientBuilder, String baseUrl, ExchangeFilterFunction rateLimiting) {
+        WebClient.Builder builder = webClientBuilder.baseUrl(baseUrl);
+        if (rateLimiting != null) {
+            builder = builder.filter(rateLimiting);
+        }
+        this.webClient = builder.build();
+    }
+
+    // an exhausted rate limit is passed on, an empty result would look like the symbol has no data
+    private static boolean isRecoverable(Throwable e) {
+        return !(e instanceof RateLimitExhaustedException);
     }
 
     public Mono<List<GlobalQuote>> getHistoricalDividendAdjustedEodPrice(String symbol) {
@@ -54,9 +78,26 @@ public class FMPService {
                         .build())
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<List<GlobalQuote>>() {})
-                .onErrorResume(e -> {
+                .onErrorResume(FMPService::isRecoverable, e -> {
                     LOGGER.error("Error fetching historical dividend adjusted EOD price for symbol: " + symbol);
-                    return Mono.just(java.util.Collections.<GlobalQuote>emptyList());
+                    return Mono.just(Collections.<GlobalQuote>emptyList());
+                });
+    }
+
+    public Mono<List<GlobalQuote>> getHistoricalDividendAdjustedEodPrice(String symbol, LocalDate from, LocalDate to) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/stable/historical-price-eod/dividend-adjusted")
+                        .queryParam("symbol", symbol)
+                        .queryParam("from", from.format(DateTimeFormatter.ISO_LOCAL_DATE))
+                        .queryParam("to", to.format(DateTimeFormatter.ISO_LOCAL_DATE))
+                        .queryParam("apikey", apiKey)
+                        .build())
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<GlobalQuote>>() {})
+                .onErrorResume(FMPService::isRecoverable, e -> {
+                    LOGGER.error("Error fetching historical dividend adjusted EOD price for symbol: " + symbol + " from " + from);
+                    return Mono.just(Collections.<GlobalQuote>emptyList());
                 });
     }
 
@@ -92,9 +133,26 @@ public class FMPService {
                         .build())
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<List<IndexData>>() {})
-                .onErrorResume(e -> {
+                .onErrorResume(FMPService::isRecoverable, e -> {
                     LOGGER.error("Error fetching index historical data for symbol: " + symbol);
-                    return Mono.just(java.util.Collections.<IndexData>emptyList());
+                    return Mono.just(Collections.<IndexData>emptyList());
+                });
+    }
+
+    public Mono<List<IndexData>> getIndexHistoricalData(String symbol, LocalDate from, LocalDate to) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/stable/historical-price-eod/light")
+                        .queryParam("symbol", symbol)
+                        .queryParam("from", from.format(DateTimeFormatter.ISO_LOCAL_DATE))
+                        .queryParam("to", to.format(DateTimeFormatter.ISO_LOCAL_DATE))
+                        .queryParam("apikey", apiKey)
+                        .build())
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<IndexData>>() {})
+                .onErrorResume(FMPService::isRecoverable, e -> {
+                    LOGGER.error("Error fetching index historical data for symbol: " + symbol + " from " + from);
+                    return Mono.just(Collections.<IndexData>emptyList());
                 });
     }
 
@@ -168,7 +226,7 @@ public class FMPService {
 
                         return fetchSecFilingsPage(symbol, earlierFrom.format(DateTimeFormatter.ISO_LOCAL_DATE), earlierTo.format(DateTimeFormatter.ISO_LOCAL_DATE), 0)
                                 .map(earlierFilings -> {
-                                    List<SecFilingUrlData> combined = new java.util.ArrayList<>(filings);
+                                    List<SecFilingUrlData> combined = new ArrayList<>(filings);
                                     combined.addAll(earlierFilings);
                                     return combined;
                                 });
@@ -191,23 +249,23 @@ public class FMPService {
                 .bodyToMono(new ParameterizedTypeReference<List<SecFilingUrlData>>() {})
                 .flatMap(filings -> {
                     if (filings.isEmpty()) {
-                        return Mono.just(java.util.Collections.<SecFilingUrlData>emptyList());
+                        return Mono.just(Collections.<SecFilingUrlData>emptyList());
                     }
 
                     List<SecFilingUrlData> filteredFilings = filings.stream()
                             .filter(filing -> ALLOWED_FORM_TYPES.contains(filing.getFormType()))
-                            .collect(java.util.stream.Collectors.toList());
+                            .collect(Collectors.toList());
 
                     return fetchSecFilingsPage(symbol, from, to, page + 1)
                             .map(nextPageFilings -> {
-                                List<SecFilingUrlData> allFilings = new java.util.ArrayList<>(filteredFilings);
+                                List<SecFilingUrlData> allFilings = new ArrayList<>(filteredFilings);
                                 allFilings.addAll(nextPageFilings);
                                 return allFilings;
                             });
                 })
-                .onErrorResume(e -> {
+                .onErrorResume(FMPService::isRecoverable, e -> {
                     LOGGER.error("Error fetching SEC filings for symbol: " + symbol + " on page " + page, e);
-                    return Mono.just(java.util.Collections.<SecFilingUrlData>emptyList());
+                    return Mono.just(Collections.<SecFilingUrlData>emptyList());
                 });
     }
 
@@ -258,7 +316,7 @@ public class FMPService {
                     earningsHistory.setSymbol(symbol);
                     List<QuarterlyEarning> quarterlyEarnings = fmpEarnings.stream()
                             .map(this::transformToQuarterlyEarning)
-                            .collect(java.util.stream.Collectors.toList());
+                            .collect(Collectors.toList());
                     earningsHistory.setQuarterlyEarnings(quarterlyEarnings);
                     earningsHistory.setLastUpdated(LocalDateTime.now());
                     return earningsHistory;
@@ -2,7 +2,9 @@ package com.testehan.finana.service;
 
 import com.testehan.finana.model.FinancialDataAvailability;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
+import com.testehan.finana.service.screener.ScreenerService;
 import com.testehan.finana.util.DateUtils;
+import com.testehan.finana.util.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -24,10 +26,13 @@ public class FinancialDataOrchestrator {
     private final SecFilingService secFilingService;
     private final FinancialDataService financialDataService; // Temporarily keep for ratios and update methods
     private final AdjustmentService adjustmentService;
+    private final ScreenerService screenerService;
 
     private final DateUtils dateUtils;
 
-    public FinancialDataOrchestrator(CompanyDataService companyDataService, QuoteService quoteService, FinancialStatementService financialStatementService, EarningsService earningsService, SecFilingService secFilingService, FinancialDataService financialDataService, AdjustmentService adjustmentService, DateUtils dateUtils) {
+    private final SingleFlight<String, Void> financialDataRequests = new SingleFlight<>();
+
+    public FinancialDataOrchestrator(CompanyDataService companyDataService, QuoteService quoteService, FinancialStatementService financialStatementService, EarningsService earningsService, SecFilingService secFilingService, FinancialDataService financialDataService, AdjustmentService adjustmentService, ScreenerService screenerService, DateUtils dateUtils) {
         this.companyDataService = companyDataService;
         this.quoteService = quoteService;
         this.financialStatementService = financialStatementService;
@@ -35,10 +40,15 @@ public class FinancialDataOrchestrator {
         this.secFilingService = secFilingService;
         this.financialDataService = financialDataService; // For remaining methods
         this.adjustmentService = adjustmentService;
+        this.screenerService = screenerService;
         this.dateUtils = dateUtils;
     }
 
     public Mono<Void> ensureFinancialDataIsPresent(String ticker) {
+        return financialDataRequests.execute(ticker.toUpperCase(), () -> loadFinancialData(ticker));
+    }
+
+    private Mono<Void> loadFinancialData(String ticker) {
         // TRACK A: Independent data (Start these immediately)
         Mono<Void> independentTrack = Mono.when(
                 quoteService.getLastStockQuote(ticker),
@@ -105,6 +115,7 @@ public class FinancialDataOrchestrator {
         financialStatementService.deleteRevenueSegmentationBySymbol(upperCaseSymbol);
         secFilingService.deleteSecFilings(upperCaseSymbol);
         adjustmentService.deleteFinancialAdjustmentBySymbol(upperCaseSymbol);
+        screenerService.remove(upperCaseSymbol);
 
         LOGGER.info("Deleted all financial data for ticker: {}", upperCaseSymbol);
     }
@@ -10,8 +10,15 @@ import com.testehan.finana.repository.FinancialRatiosRepository;
 import com.testehan.finana.repository.GeneratedReportRepository;
 import com.testehan.finana.util.DateUtils;
 import com.testehan.finana.util.FinancialRatiosCalculator;
+import com.testehan.finana.util.StatementValueHash;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -20,6 +27,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -31,6 +40,9 @@ public class FinancialDataService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FinancialDataService.class);
 
+    private static final String ANNUAL_REPORTS = "annualReports";
+    private static final String QUARTERLY_REPORTS = "quarterlyReports";
+
     private final FMPService fmpService;
 
     private final CompanyDataService companyDataService;
@@ -41,8 +53,9 @@ public class FinancialDataService {
     private final FinancialRatiosCalculator financialRatiosCalculator;
     private final QuoteService quoteService;
     private final DateUtils dateUtils;
+    private final MongoTemplate mongoTemplate;
 
-    public FinancialDataService(FMPService fmpService, CompanyDataService companyDataService, FinancialStatementService financialStatementService, FinancialRatiosRepository financialRatiosRepository, GeneratedReportRepository generatedReportRepository, FinancialRatiosCalculator financialRatiosCalculator, QuoteService quoteService, DateUtils dateUtils) {
+    public FinancialDataService(FMPService fmpService, CompanyDataService companyDataService, FinancialStatementService financialStatementService, FinancialRatiosRepository financialRatiosRepository, GeneratedReportRepository generatedReportRepository, FinancialRatiosCalculator financialRatiosCalculator, QuoteService quoteService, DateUtils dateUtils, MongoTemplate mongoTemplate) {
         this.fmpService = fmpService;
         this.companyDataService = companyDataService;
         this.financialStatementService = financialStatementService;
@@ -51,6 +64,7 @@ public class FinancialDataService {
         this.financialRatiosCalculator = financialRatiosCalculator;
         this.quoteService = quoteService;
         this.dateUtils = dateUtils;
+        this.mongoTemplate = mongoTemplate;
     }
 
 
@@ -97,27 +111,42 @@ public class FinancialDataService {
 
             CompanyOverview companyOverview = companyOverviews.getFirst();
 
-            FinancialRatiosData financialRatiosData = financialRatiosRepository.findBySymbol(symbol).orElse(new FinancialRatiosData());
+            Optional<FinancialRatiosData> storedRatiosData = financialRatiosRepository.findBySymbol(symbol);
+            FinancialRatiosData financialRatiosData = storedRatiosData.orElseGet(FinancialRatiosData::new);
             financialRatiosData.setSymbol(symbol);
-            financialRatiosData.setAnnualReports(new ArrayList<>());
-            financialRatiosData.setQuarterlyReports(new ArrayList<>());
 
-            // Process Annual Reports
-            processAndAddReports(symbol, companyOverview, incomeStatementData.getAnnualReports(), balanceSheetData.getAnnualReports(), cashFlowData.getAnnualReports(), financialRatiosData.getAnnualReports());
-            // Process Quarterly Reports
-            processAndAddReports(symbol, companyOverview, incomeStatementData.getQuarterlyReports(), balanceSheetData.getQuarterlyReports(), cashFlowData.getQuarterlyReports(), financialRatiosData.getQuarterlyReports());
+            PeriodChanges annual = recalculateChangedPeriods(symbol, companyOverview, incomeStatementData.getAnnualReports(),
+                    balanceSheetData.getAnnualReports(), cashFlowData.getAnnualReports(), financialRatiosData.getAnnualReports());
+            PeriodChanges quarterly = recalculateChangedPeriods(symbol, companyOverview, incomeStatementData.getQuarterlyReports(),
+                    balanceSheetData.getQuarterlyReports(), cashFlowData.getQuarterlyReports(), financialRatiosData.getQuarterlyReports());
+            financialRatiosData.setAnnualReports(annual.reports());
+            financialRatiosData.setQuarterlyReports(quarterly.reports());
 
-            return Mono.just(financialRatiosRepository.save(financialRatiosData));
+            if (storedRatiosData.isEmpty()) {
+                return Mono.just(financialRatiosRepository.save(financialRatiosData));
+            }
+            writePeriodChanges(symbol, ANNUAL_REPORTS, annual);
+            writePeriodChanges(symbol, QUARTERLY_REPORTS, quarterly);
+            return Mono.just(financialRatiosData);
         });
     }
 
-    private void processAndAddReports(String symbol,
-                                       CompanyOverview companyOverview,
-                                       List<IncomeReport> incomeReports,
-                                       List<BalanceSheetReport> balanceSheetReports,
-                                       List<CashFlowReport> cashFlowReports,
-                                       List<FinancialRatiosReport> targetList)
+    /**
+     * Calculates the ratios of the periods that are new or whose statements or price changed since their ratios were
+     * calculated; the ratios of the other periods are kept as stored. A period calculated before its price was stored
+     * is calculated again once the price is there.
+     */
+    private PeriodChanges recalculateChangedPeriods(String symbol,
+                                                    CompanyOverview companyOverview,
+                                                    List<IncomeReport> incomeReports,
+                                                    List<BalanceSheetReport> balanceSheetReports,
+                                                    List<CashFlowReport> cashFlowReports,
+                                                    List<FinancialRatiosReport> storedReports)
     {
+        Map<String, FinancialRatiosReport> storedByDate = new LinkedHashMap<>();
+        if (storedReports != null) {
+            storedReports.forEach(report -> storedByDate.putIfAbsent(report.getDate(), report));
+        }
 
         Map<String, BalanceSheetReport> balanceSheetMap = balanceSheetReports.stream()
                 .collect(Collectors.toMap(
@@ -129,6 +158,9 @@ public class FinancialDataService {
                         r -> r.getFiscalYear() + "-" + r.getPeriod(),
                         Function.identity(), (a, b) -> a));
 
+        List<FinancialRatiosReport> reports = new ArrayList<>();
+        List<FinancialRatiosReport> added = new ArrayList<>();
+        List<FinancialRatiosReport> restated = new ArrayList<>();
         for (IncomeReport incomeReport : incomeReports) {
             String key = incomeReport.getFiscalYear() + "-" + incomeReport.getPeriod();
 
@@ -143,18 +175,103 @@ public class FinancialDataService {
             // Get stock price for the report date
             BigDecimal stockPrice = getStockPriceForDate(symbol, incomeReport.getDate());
 
+            String inputHash = inputHash(incomeReport, balanceSheet, cashFlow, stockPrice != null);
+            FinancialRatiosReport stored = storedByDate.remove(incomeReport.getDate());
+            if (stored != null && inputHash.equals(stored.getInputHash())) {
+                reports.add(stored);
+                continue;
+            }
+
             FinancialRatiosReport ratios = financialRatiosCalculator.calculateRatios(
                     companyOverview, incomeReport, balanceSheet, cashFlow, stockPrice);
-            targetList.add(ratios);
+            ratios.setInputHash(inputHash);
+            if (stored != null) {
+                copyFmpRatios(stored, ratios);
+                restated.add(ratios);
+            } else {
+                added.add(ratios);
+            }
+            reports.add(ratios);
+        }
+        return new PeriodChanges(reports, added, restated, new ArrayList<>(storedByDate.keySet()));
+    }
+
+    // only the statement values and whether the period has a price go in; the adjusted close itself is left out, a
+    // dividend or split changes it for every past bar and would recalculate every historical period
+    static String inputHash(IncomeReport incomeReport, BalanceSheetReport balanceSheet, CashFlowReport cashFlow,
+                            boolean priced) {
+        return new StatementValueHash()
+                .add(incomeReport)
+                .add(balanceSheet)
+                .add(cashFlow)
+                .add("price", priced ? "present" : "none")
+                .sha256();
+    }
+
+    /**
+     * Writes only the periods that changed: restated periods are replaced in place, new periods are added in date
+     * order and periods no longer in the statements are removed.
+     */
+    private void writePeriodChanges(String symbol, String reportsField, PeriodChanges changes) {
+        for (FinancialRatiosReport report : changes.restated()) {
+            replacePeriod(symbol, reportsField, report);
+        }
+        Query ratiosOfSymbol = new Query(Criteria.where("symbol").is(symbol));
+        if (!changes.removedDates().isEmpty()) {
+            mongoTemplate.updateFirst(ratiosOfSymbol,
+                    new Update().pull(reportsField, new Document("date", new Document("$in", changes.removedDates()))),
+                    FinancialRatiosData.class);
+        }
+        if (!changes.added().isEmpty()) {
+            mongoTemplate.updateFirst(ratiosOfSymbol,
+                    new Update().push(reportsField).sort(Sort.by(Sort.Direction.DESC, "date")).each(changes.added().toArray()),
+                    FinancialRatiosData.class);
+        }
+        if (!changes.isEmpty()) {
+            LOGGER.debug("Ratios of {} {}: {} new, {} restated, {} removed periods", symbol, reportsField,
+                    changes.added().size(), changes.restated().size(), changes.removedDates().size());
+        }
+    }
+
+    private void replacePeriod(String symbol, String reportsField, FinancialRatiosReport report) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("symbol").is(symbol).and(reportsField + ".date").is(report.getDate())),
+                new Update().set(reportsField + ".$", report),
+                FinancialRatiosData.class);
+    }
 
+    private static void copyFmpRatios(FinancialRatiosReport from, FinancialRatiosReport to) {
+        to.setPeRatio(from.getPeRatio());
+        to.setPriceToEarningsGrowthRatio(from.getPriceToEarningsGrowthRatio());
+        to.setForwardPriceToEarningsGrowthRatio(from.getForwardPriceToEarningsGrowthRatio());
+        to.setPbRatio(from.getPbRatio());
+        to.setPriceToSalesRatio(from.getPriceToSalesRatio());
+        to.setPfcfRatio(from.getPfcfRatio());
+        to.setPocfratio(from.getPocfratio());
+        to.setPriceToFairValue(from.getPriceToFairValue());
+        to.setEnterpriseValueMultiple(from.getEnterpriseValueMultiple());
+    }
+
+    private static List<BigDecimal> fmpRatios(FinancialRatiosReport report) {
+        return Arrays.asList(report.getPeRatio(), report.getPriceToEarningsGrowthRatio(),
+                report.getForwardPriceToEarningsGrowthRatio(), report.getPbRatio(), report.getPriceToSalesRatio(),
+                report.getPfcfRatio(), report.getPocfratio(), report.getPriceToFairValue(),
+                report.getEnterpriseValueMultiple());
+    }
+
+    private record PeriodChanges(List<FinancialRatiosReport> reports,
+                                 List<FinancialRatiosReport> added,
+                                 List<FinancialRatiosReport> restated,
+                                 List<String> removedDates) {
+        boolean isEmpty() {
+            return added.isEmpty() && restated.isEmpty() && removedDates.isEmpty();
         }
     }
 
     private BigDecimal getStockPriceForDate(String symbol, String fiscalDateEnding) {
         try {
             LocalDate date = LocalDate.parse(fiscalDateEnding, DateTimeFormatter.ISO_DATE);
-            return quoteService.getStockQuoteByDate(symbol, date)
-                    .map(quote -> new BigDecimal(quote.getAdjClose()))
+            return quoteService.getAdjustedCloseByDate(symbol, date)
                     .orElse(null);
         } catch (Exception e) {
             LOGGER.debug("Could not get stock price for {} on date {}: {}", symbol, fiscalDateEnding, e.getMessage());
@@ -207,14 +324,13 @@ public class FinancialDataService {
                 })
                 .doOnSuccess(data -> {
                     if (data != null) {
-                        financialRatiosRepository.save(data);
+                        mongoTemplate.updateFirst(new Query(Criteria.where("symbol").is(ticker)),
+                                new Update().set("ttmReport", data.getTtmReport()).set("lastUpdated", data.getLastUpdated()),
+                                FinancialRatiosData.class);
                     }
                 })
                 .doOnError(e -> {
                     LOGGER.warn("API call failed for TTM financial ratios of {}. Keeping existing data.", ticker);
-                    if (ratiosData != null) {
-                        financialRatiosRepository.save(ratiosData);
-                    }
                 })
                 .subscribe();
     }
@@ -226,6 +342,7 @@ public class FinancialDataService {
             dataToUpdate.setSymbol(ticker);
         }
 
+        List<FinancialRatiosReport> changed = new ArrayList<>();
         fmpService.getFinancialRatios(ticker)
                 .map(reports -> { // reports is List<FmpRatios>
                     List<FinancialRatiosReport> annualReports = dataToUpdate.getAnnualReports();
@@ -244,6 +361,7 @@ public class FinancialDataService {
                         if (report == null) {
                            continue; // because right now i dont want years with only data from FMP when dealing with ratios
                         }
+                        List<BigDecimal> previous = fmpRatios(report);
 
                         if (fmpRatios.getPriceToEarningsRatio() != null) {
                             report.setPeRatio(java.math.BigDecimal.valueOf(fmpRatios.getPriceToEarningsRatio()));
@@ -272,6 +390,9 @@ public class FinancialDataService {
                         if (fmpRatios.getEnterpriseValueMultiple() != null) {
                             report.setEnterpriseValueMultiple(java.math.BigDecimal.valueOf(fmpRatios.getEnterpriseValueMultiple()));
                         }
+                        if (!previous.equals(fmpRatios(report))) {
+                            changed.add(report);
+                        }
                     }
 
                     dataToUpdate.setLastUpdated(LocalDateTime.now());
@@ -279,7 +400,9 @@ public class FinancialDataService {
                 })
                 .doOnSuccess(data -> {
                     if (data != null) {
-                        financialRatiosRepository.save(data);
+                        changed.forEach(report -> replacePeriod(ticker, ANNUAL_REPORTS, report));
+                        mongoTemplate.updateFirst(new Query(Criteria.where("symbol").is(ticker)),
+                                new Update().set("lastUpdated", data.getLastUpdated()), FinancialRatiosData.class);
                     }
                 })
                 .doOnError(e -> {
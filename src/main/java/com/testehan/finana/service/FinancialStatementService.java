@@ -12,6 +12,7 @@ import com.testehan.finana.repository.RevenueGeographicSegmentationRepository;
 import com.testehan.finana.repository.RevenueSegmentationDataRepository;
 import com.testehan.finana.util.DateUtils;
 import com.testehan.finana.util.data.FmpDataCleaner;
+import com.testehan.finana.util.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DuplicateKeyException;
@@ -32,6 +33,12 @@ public class FinancialStatementService {
     private final RevenueGeographicSegmentationRepository revenueGeographicSegmentationRepository;
     private final DateUtils dateUtils;
 
+    private final SingleFlight<String, IncomeStatementData> incomeStatementRequests = new SingleFlight<>();
+    private final SingleFlight<String, BalanceSheetData> balanceSheetRequests = new SingleFlight<>();
+    private final SingleFlight<String, CashFlowData> cashFlowRequests = new SingleFlight<>();
+    private final SingleFlight<String, RevenueSegmentationData> revenueSegmentationRequests = new SingleFlight<>();
+    private final SingleFlight<String, RevenueGeographicSegmentationData> revenueGeographicSegmentationRequests = new SingleFlight<>();
+
     public FinancialStatementService(FMPService fmpService, IncomeStatementRepository incomeStatementRepository, BalanceSheetRepository balanceSheetRepository, CashFlowRepository cashFlowRepository, RevenueSegmentationDataRepository revenueSegmentationDataRepository, RevenueGeographicSegmentationRepository revenueGeographicSegmentationRepository, DateUtils dateUtils) {
         this.fmpService = fmpService;
         this.incomeStatementRepository = incomeStatementRepository;
@@ -43,6 +50,10 @@ public class FinancialStatementService {
     }
 
     public Mono<IncomeStatementData> getIncomeStatements(String symbol) {
+        return incomeStatementRequests.execute(symbol.toUpperCase(), () -> loadIncomeStatements(symbol));
+    }
+
+    private Mono<IncomeStatementData> loadIncomeStatements(String symbol) {
         return Mono.defer(() -> {
             var existing = incomeStatementRepository.findBySymbol(symbol.toUpperCase());
             if (existing.isPresent() && dateUtils.isRecent(existing.get().getLastUpdated(), DateUtils.CACHE_ONE_MONTH)) {
@@ -71,6 +82,10 @@ public class FinancialStatementService {
     }
 
     public Mono<BalanceSheetData> getBalanceSheet(String symbol) {
+        return balanceSheetRequests.execute(symbol.toUpperCase(), () -> loadBalanceSheet(symbol));
+    }
+
+    private Mono<BalanceSheetData> loadBalanceSheet(String symbol) {
         return Mono.defer(() -> {
             var existing = balanceSheetRepository.findBySymbol(symbol.toUpperCase());
             if (existing.isPresent() && dateUtils.isRecent(existing.get().getLastUpdated(), DateUtils.CACHE_ONE_MONTH)) {
@@ -99,6 +114,10 @@ public class FinancialStatementService {
     }
 
     public Mono<CashFlowData> getCashFlow(String symbol) {
+        return cashFlowRequests.execute(symbol.toUpperCase(), () -> loadCashFlow(symbol));
+    }
+
+    private Mono<CashFlowData> loadCashFlow(String symbol) {
         return Mono.defer(() -> {
             var existing = cashFlowRepository.findBySymbol(symbol.toUpperCase());
             if (existing.isPresent() && dateUtils.isRecent(existing.get().getLastUpdated(), DateUtils.CACHE_ONE_MONTH)) {
@@ -127,6 +146,10 @@ public class FinancialStatementService {
     }
 
     public Mono<RevenueSegmentationData> getRevenueSegmentation(String symbol) {
+        return revenueSegmentationRequests.execute(symbol.toUpperCase(), () -> loadRevenueSegmentation(symbol));
+    }
+
+    private Mono<RevenueSegmentationData> loadRevenueSegmentation(String symbol) {
         return Mono.defer(() -> {
             var existing = revenueSegmentationDataRepository.findBySymbol(symbol.toUpperCase());
             if (existing.isPresent() && dateUtils.isRecent(existing.get().getLastUpdated(), DateUtils.CACHE_ONE_MONTH)) {
@@ -153,6 +176,10 @@ public class FinancialStatementService {
     }
 
     public Mono<RevenueGeographicSegmentationData> getRevenueGeographicSegmentation(String symbol) {
+        return revenueGeographicSegmentationRequests.execute(symbol.toUpperCase(), () -> loadRevenueGeographicSegmentation(symbol));
+    }
+
+    private Mono<RevenueGeographicSegmentationData> loadRevenueGeographicSegmentation(String symbol) {
         return Mono.defer(() -> {
             var existing = revenueGeographicSegmentationRepository.findBySymbol(symbol.toUpperCase());
             if (existing.isPresent() && dateUtils.isRecent(existing.get().getLastUpdated(), DateUtils.CACHE_ONE_MONTH)) {
@@ -0,0 +1,275 @@
+package com.testehan.finana.service;
+
+import com.testehan.finana.util.CancellationToken;
+import com.testehan.finana.util.RequestPriority;
+import com.testehan.finana.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Paces all calls to a model: at most the model's concurrency limit are in flight and at most its requests per
+ * minute are started. Callers wait in the lane of their {@link RequestPriority}, so an interactive question is
+ * served before the calls of reports generated in the background.
+ * <p>
+ * When the provider answers 429 / RESOURCE_EXHAUSTED the concurrency limit is halved and the model's rate limiter
+ * is paused for the suggested retry delay, or an exponential backoff; the call is then retried. The limit grows
+ * back by one after as many successful calls in a row as the current limit.
+ */
+@Service
+public class LlmCallScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LlmCallScheduler.class);
+
+    private static final Pattern RATE_LIMITED = Pattern.compile("\\b429\\b|RESOURCE_EXHAUSTED|Too Many Requests");
+    // Gemini puts the suggested wait into the error details, e.g. "retryDelay": "37s"
+    private static final Pattern RETRY_DELAY = Pattern.compile("retryDelay\\W+(\\d+(?:\\.\\d+)?)s");
+
+    public enum Model { GEMINI, OLLAMA }
+
+    private final Map<Model, ModelLane> lanes = new EnumMap<>(Model.class);
+    private final int maxRetries;
+    private final Duration baseBackoff;
+
+    public LlmCallScheduler(MeterRegistry meterRegistry,
+                            @Value("${app.llm.scheduler.gemini.max-concurrency:8}") int geminiConcurrency,
+                            @Value("${app.llm.scheduler.gemini.requests-per-minute:60}") int geminiRequestsPerMinute,
+                            @Value("${app.llm.scheduler.ollama.max-concurrency:1}") int ollamaConcurrency,
+                            @Value("${app.llm.scheduler.ollama.requests-per-minute:600}") int ollamaRequestsPerMinute,
+                            @Value("${app.llm.scheduler.max-retries:3}") int maxRetries,
+                            @Value("${app.llm.scheduler.throttle-backoff-ms:5000}") long throttleBackoffMs) {
+        this.maxRetries = maxRetries;
+        this.baseBackoff = Duration.ofMillis(throttleBackoffMs);
+        lanes.put(Model.GEMINI, new ModelLane(Model.GEMINI, geminiConcurrency, geminiRequestsPerMinute, meterRegistry));
+        lanes.put(Model.OLLAMA, new ModelLane(Model.OLLAMA, ollamaConcurrency, ollamaRequestsPerMinute, meterRegistry));
+    }
+
+    /**
+     * Runs the blocking call once the model has a free slot and a permit, retrying it when the provider throttles.
+     * A call of cancelled work is not started, also not after waiting for its slot.
+     */
+    public <T> T call(Model model, Supplier<T> call) {
+        ModelLane lane = lanes.get(model);
+        RequestPriority priority = RequestPriority.current();
+        CancellationToken cancellation = CancellationToken.current();
+        for (int attempt = 0; ; attempt++) {
+            cancellation.throwIfCancelled();
+            Permit permit = lane.acquire(priority).block();
+            try {
+                lane.rateLimiter.acquire(priority).block();
+                cancellation.throwIfCancelled();
+                T result = call.get();
+                lane.onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                if (!isRateLimited(e)) {
+                    throw e;
+                }
+                Duration pause = throttlePause(e, attempt);
+                lane.onThrottled(pause);
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                LOGGER.warn("{} throttled the call, retrying after {} ms ({} of {})", model, pause.toMillis(),
+                        attempt + 1, maxRetries);
+            } finally {
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * Subscribes to the stream once the model has a free slot and a permit; the slot is held until the stream
+     * terminates or is cancelled. Streams are not retried, part of the answer may already have been forwarded.
+     */
+    public <T> Flux<T> stream(Model model, Supplier<Flux<T>> stream) {
+        ModelLane lane = lanes.get(model);
+        return Flux.deferContextual(context -> {
+            RequestPriority priority = RequestPriority.from(context);
+            return Flux.usingWhen(lane.acquire(priority),
+                    permit -> lane.rateLimiter.acquire(priority)
+                            .thenMany(Flux.defer(stream))
+                            .doOnComplete(lane::onSuccess)
+                            .doOnError(e -> {
+                                if (isRateLimited(e)) {
+                                    lane.onThrottled(throttlePause(e, 0));
+                                }
+                            }),
+                    permit -> Mono.fromRunnable(permit::release));
+        });
+    }
+
+    public int concurrencyLimit(Model model) {
+        return lanes.get(model).limit();
+    }
+
+    static boolean isRateLimited(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            if (e instanceof RestClientResponseException response && response.getStatusCode().value() == 429
+                    || e instanceof WebClientResponseException response2 && response2.getStatusCode().value() == 429) {
+                return true;
+            }
+            if (e.getMessage() != null && RATE_LIMITED.matcher(e.getMessage()).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Duration throttlePause(Throwable error, int attempt) {
+        Duration backoff = baseBackoff.multipliedBy(1L << Math.min(attempt, 6));
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            Matcher delay = e.getMessage() != null ? RETRY_DELAY.matcher(e.getMessage()) : null;
+            if (delay != null && delay.find()) {
+                Duration suggested = Duration.ofMillis((long) (Double.parseDouble(delay.group(1)) * 1000));
+                return suggested.compareTo(backoff) > 0 ? suggested : backoff;
+            }
+        }
+        return backoff;
+    }
+
+    /**
+     * A slot of a model lane, released exactly once.
+     */
+    private static final class Permit {
+        private final ModelLane lane;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(ModelLane lane) {
+            this.lane = lane;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                lane.release();
+            }
+        }
+    }
+
+    private static final class ModelLane {
+        private final Model model;
+        private final int maxConcurrency;
+        private final TokenBucketRateLimiter rateLimiter;
+        private final Map<RequestPriority, Queue<MonoSink<Permit>>> waiting = new EnumMap<>(RequestPriority.class);
+        private final Counter throttled;
+
+        // guarded by this
+        private int limit;
+        private int running;
+        private int successesInRow;
+
+        private ModelLane(Model model, int maxConcurrency, int requestsPerMinute, MeterRegistry meterRegistry) {
+            this.model = model;
+            this.maxConcurrency = Math.max(1, maxConcurrency);
+            this.limit = this.maxConcurrency;
+            String name = "llm-" + model.name().toLowerCase();
+            this.rateLimiter = new TokenBucketRateLimiter(name, this.maxConcurrency, requestsPerMinute / 60d, meterRegistry);
+            for (RequestPriority priority : RequestPriority.values()) {
+                waiting.put(priority, new ArrayDeque<>());
+            }
+            Gauge.builder("llm.scheduler.concurrency.limit", this, ModelLane::limit)
+                    .tag("model", name)
+                    .register(meterRegistry);
+            Gauge.builder("llm.scheduler.in.flight", this, ModelLane::running)
+                    .tag("model", name)
+                    .register(meterRegistry);
+            this.throttled = Counter.builder("llm.scheduler.throttled")
+                    .tag("model", name)
+                    .register(meterRegistry);
+        }
+
+        // a permit granted to a caller that cancelled in the meantime is discarded by Reactor, and released here
+        Mono<Permit> acquire(RequestPriority priority) {
+            return Mono.<Permit>create(sink -> {
+                synchronized (this) {
+                    waiting.get(priority).add(sink);
+                }
+                sink.onCancel(() -> {
+                    synchronized (this) {
+                        waiting.get(priority).remove(sink);
+                    }
+                });
+                drain();
+            }).doOnDiscard(Permit.class, Permit::release);
+        }
+
+        void onSuccess() {
+            boolean grown = false;
+            synchronized (this) {
+                if (limit < maxConcurrency && ++successesInRow >= limit) {
+                    limit++;
+                    successesInRow = 0;
+                    grown = true;
+                }
+            }
+            if (grown) {
+                drain();
+            }
+        }
+
+        void onThrottled(Duration pause) {
+            int newLimit;
+            synchronized (this) {
+                limit = Math.max(1, limit / 2);
+                successesInRow = 0;
+                newLimit = limit;
+            }
+            throttled.increment();
+            rateLimiter.pause(pause);
+            LOGGER.warn("{} is throttling, concurrency limit now {}, pausing for {} ms", model, newLimit, pause.toMillis());
+        }
+
+        private void release() {
+            synchronized (this) {
+                running--;
+            }
+            drain();
+        }
+
+        private void drain() {
+            List<MonoSink<Permit>> granted = new ArrayList<>();
+            synchronized (this) {
+                for (RequestPriority priority : RequestPriority.values()) {
+                    Queue<MonoSink<Permit>> lane = waiting.get(priority);
+                    while (running < limit && !lane.isEmpty()) {
+                        granted.add(lane.poll());
+                        running++;
+                    }
+                }
+            }
+            // complete outside the lock, the caller continues on this thread
+            for (MonoSink<Permit> sink : granted) {
+                sink.success(new Permit(this));
+            }
+        }
+
+        synchronized int limit() {
+            return limit;
+        }
+
+        synchronized int running() {
+            return running;
+        }
+    }
+}
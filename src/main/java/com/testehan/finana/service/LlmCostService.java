@@ -1,7 +1,6 @@
 package com.testehan.finana.service;
 
 import com.testehan.finana.model.llm.LlmUsage;
-import com.testehan.finana.repository.LlmUsageRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.model.ChatResponse;
@@ -29,11 +28,11 @@ public class LlmCostService {
     private static final int LARGE_TOKEN_THRESHOLD = 200_000;
     private static final int MILLION = 1_000_000;
 
-    private final LlmUsageRepository llmUsageRepository;
+    private final LlmUsageWriter llmUsageWriter;
     private final UserCreditService userCreditService;
 
-    public LlmCostService(LlmUsageRepository llmUsageRepository, UserCreditService userCreditService) {
-        this.llmUsageRepository = llmUsageRepository;
+    public LlmCostService(LlmUsageWriter llmUsageWriter, UserCreditService userCreditService) {
+        this.llmUsageWriter = llmUsageWriter;
         this.userCreditService = userCreditService;
     }
 
@@ -41,6 +40,11 @@ public class LlmCostService {
         logUsageInternal(userEmail, response, operationType, symbol, null);
     }
 
+    // settles the credit held before the call against its actual cost
+    public void logUsage(String userEmail, ChatResponse response, String operationType, String symbol, CreditReservation reservation) {
+        logUsageInternal(userEmail, response, operationType, symbol, null, false, reservation);
+    }
+
     public void logUsageWithRefund(String userEmail, ChatResponse response, String operationType, String symbol, BigDecimal previousCost) {
         if (previousCost != null && previousCost.compareTo(BigDecimal.ZERO) > 0) {
             userCreditService.refundCredit(userEmail, previousCost);
@@ -53,6 +57,16 @@ public class LlmCostService {
         logUsageInternal(userEmail, null, operationType, symbol, errorMessage);
     }
 
+    // releases the credit held before the failed call
+    public void logUsageFailure(String userEmail, String operationType, String symbol, String errorMessage, CreditReservation reservation) {
+        logUsageInternal(userEmail, null, operationType, symbol, errorMessage, false, reservation);
+    }
+
+    // answer served from the LLM response cache, nothing is billed
+    public void logCachedUsage(String userEmail, String operationType, String symbol) {
+        logUsageInternal(userEmail, null, operationType, symbol, null, true, null);
+    }
+
     public void logUsageFailure(String userEmail, String operationType, String symbol, String errorMessage, BigDecimal costToRefund) {
         if (costToRefund != null && costToRefund.compareTo(BigDecimal.ZERO) > 0) {
             userCreditService.refundCredit(userEmail, costToRefund);
@@ -62,6 +76,11 @@ public class LlmCostService {
     }
 
     private void logUsageInternal(String userEmail, ChatResponse response, String operationType, String symbol, String errorMessage) {
+        logUsageInternal(userEmail, response, operationType, symbol, errorMessage, false, null);
+    }
+
+    private void logUsageInternal(String userEmail, ChatResponse response, String operationType, String symbol, String errorMessage,
+                                  boolean cacheHit, CreditReservation reservation) {
         try {
             int promptTokens = 0;
             int completionTokens = 0;
@@ -74,11 +93,13 @@ public class LlmCostService {
                 cachedTokens = extractCachedTokens(response);
                 cost = calculateCost(promptTokens, completionTokens, cachedTokens);
 
-                if (userEmail != null && userCreditService.hasEnoughCredit(userEmail, cost)) {
-                    userCreditService.deductCredit(userEmail, cost);
+                if (reservation != null) {
+                    userCreditService.settle(reservation, cost);
                 } else if (userEmail != null) {
-                    LOGGER.warn("User {} has insufficient credit for cost ${}", userEmail, cost);
+                    userCreditService.deductCredit(userEmail, cost);
                 }
+            } else if (reservation != null) {
+                userCreditService.release(reservation);
             }
 
             LlmUsage usage = new LlmUsage();
@@ -92,13 +113,14 @@ public class LlmCostService {
             usage.setTotalCostUsd(cost);
             usage.setSuccess(errorMessage == null);
             usage.setErrorMessage(errorMessage);
+            usage.setCacheHit(cacheHit);
             if (userEmail != null) {
                 usage.setUserEmail(userEmail);
             }
 
-            llmUsageRepository.save(usage);
-            LOGGER.info("LLM usage logged: {} | {} | prompt={} completion={} cached={} cost=${}",
-                    operationType, symbol, promptTokens, completionTokens, cachedTokens, cost);
+            llmUsageWriter.write(usage);
+            LOGGER.info("LLM usage logged: {} | {} | prompt={} completion={} cached={} cost=${}{}",
+                    operationType, symbol, promptTokens, completionTokens, cachedTokens, cost, cacheHit ? " (cache hit)" : "");
         } catch (Exception e) {
             LOGGER.error("Failed to log LLM usage for {} | {}: {}", operationType, symbol, e.getMessage());
         }
@@ -0,0 +1,156 @@
+package com.testehan.finana.service;
+
+import com.testehan.finana.model.llm.LlmCachedResponse;
+import com.testehan.finana.repository.LlmCachedResponseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Persistent exact-match cache of Gemini answers. The key is a SHA-256 of model, options and the rendered prompt,
+ * so a prompt only hits when every input that went into it is unchanged. Only the operation types listed in
+ * app.llm.cache.operations are cached: report analyses whose prompt is built from a symbol's data alone. Chat turns
+ * and answers to user questions are never cached, so one user's conversation is not served to another. Entries
+ * expire through a TTL index and the least recently used ones are evicted once the collection grows past the
+ * configured size.
+ */
+@Service
+public class LlmResponseCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LlmResponseCache.class);
+
+    private final LlmCachedResponseRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final String model;
+    private final boolean enabled;
+    private final Duration defaultTtl;
+    private final Duration searchTtl;
+    private final Map<String, Long> operationTtlHours;
+    private final Set<String> cacheableOperations;
+    private final int maxEntries;
+
+    public LlmResponseCache(LlmCachedResponseRepository repository,
+                            MeterRegistry meterRegistry,
+                            @Value("${spring.ai.google.genai.chat.options.model:gemini}") String model,
+                            @Value("${app.llm.cache.enabled:true}") boolean enabled,
+                            @Value("${app.llm.cache.ttl-hours:168}") long ttlHours,
+                            @Value("${app.llm.cache.search-ttl-hours:24}") long searchTtlHours,
+                            @Value("#{${app.llm.cache.operation-ttl-hours:{:}}}") Map<String, Long> operationTtlHours,
+                            @Value("${app.llm.cache.operations:}") Set<String> cacheableOperations,
+                            @Value("${app.llm.cache.max-entries:5000}") int maxEntries) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.model = model;
+        this.enabled = enabled;
+        this.defaultTtl = Duration.ofHours(ttlHours);
+        this.searchTtl = Duration.ofHours(searchTtlHours);
+        this.operationTtlHours = operationTtlHours;
+        this.cacheableOperations = cacheableOperations;
+        this.maxEntries = maxEntries;
+    }
+
+    public String fingerprint(String options, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(options.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public boolean isCacheable(String operationType) {
+        return enabled && cacheableOperations.contains(operationType);
+    }
+
+    public Optional<String> get(String fingerprint, String operationType) {
+        if (!isCacheable(operationType) || ttl(operationType, false).isZero()) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Optional<String> response = repository.findById(fingerprint)
+                // the TTL monitor only runs once a minute
+                .filter(entry -> entry.getExpiresAt() == null || entry.getExpiresAt().isAfter(now))
+                .map(LlmCachedResponse::getResponse);
+        if (response.isPresent()) {
+            repository.recordHit(fingerprint, now);
+        }
+        count(operationType, response.isPresent() ? "hit" : "miss");
+        return response;
+    }
+
+    public void bypassed(String operationType) {
+        count(operationType, "bypass");
+    }
+
+    public void put(String fingerprint, String operationType, String symbol, String response, boolean searchGrounded) {
+        Duration ttl = ttl(operationType, searchGrounded);
+        if (!isCacheable(operationType) || ttl.isZero() || response == null || response.isBlank()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LlmCachedResponse entry = new LlmCachedResponse();
+        entry.setFingerprint(fingerprint);
+        entry.setModel(model);
+        entry.setOperationType(operationType);
+        entry.setSymbol(symbol);
+        entry.setResponse(response);
+        entry.setCreatedAt(now);
+        entry.setLastAccessedAt(now);
+        entry.setExpiresAt(now.plus(ttl));
+        try {
+            repository.save(entry);
+        } catch (Exception e) {
+            // the answer was already paid for and is returned to the caller either way
+            LOGGER.warn("Could not cache LLM response for {} | {}: {}", operationType, symbol, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.llm.cache.eviction-interval-ms:600000}")
+    public void evictLeastRecentlyUsed() {
+        long overflow = repository.count() - maxEntries;
+        if (overflow <= 0) {
+            return;
+        }
+        var oldest = repository.findLeastRecentlyAccessed(
+                PageRequest.of(0, (int) Math.min(overflow, Integer.MAX_VALUE), Sort.by("lastAccessedAt")));
+        repository.deleteAll(oldest);
+        LOGGER.info("Evicted {} least recently used LLM responses from the cache", oldest.size());
+    }
+
+    Duration ttl(String operationType, boolean searchGrounded) {
+        Long hours = operationTtlHours.get(operationType);
+        if (hours != null) {
+            return Duration.ofHours(hours);
+        }
+        return searchGrounded ? searchTtl : defaultTtl;
+    }
+
+    private void count(String operationType, String result) {
+        Counter.builder("llm.cache.requests")
+                .tag("operation", operationType)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
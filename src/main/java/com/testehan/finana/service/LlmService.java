@@ -1,6 +1,7 @@
 package com.testehan.finana.service;
 
 import com.testehan.finana.exception.InsufficientCreditException;
+import com.testehan.finana.service.LlmCallScheduler.Model;
 import com.testehan.finana.service.mcp.StockDataTools;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,8 +10,10 @@ import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.google.genai.GoogleGenAiChatOptions;
+import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -27,6 +30,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class LlmService {
@@ -36,26 +45,35 @@ public class LlmService {
     @Value("${app.llm.use-ollama:true}")
     private boolean useOllama;
 
+    @Value("${app.credit.llm-reservation-usd:0.05}")
+    private BigDecimal reservationEstimate = new BigDecimal("0.05");
+
     private final ChatModel chatModel;
     private final ChatClient ollamaChatClient;
     private final LlmCostService llmCostService;
+    private final LlmResponseCache llmResponseCache;
     private final UserCreditService userCreditService;
     private final ChatClient chatClientWithTools;
     private final StockDataTools stockDataTools;
+    private final LlmCallScheduler llmCallScheduler;
 
     public LlmService(
             @Qualifier("googleGenAiChatModel") ObjectProvider<ChatModel> chatModelProvider,
             ChatClient.Builder chatClientBuilder,
             LlmCostService llmCostService, 
+            LlmResponseCache llmResponseCache,
             UserCreditService userCreditService,
-            StockDataTools stockDataTools) {
+            StockDataTools stockDataTools,
+            LlmCallScheduler llmCallScheduler) {
         this.chatModel = chatModelProvider.getIfAvailable();
         this.llmCostService = llmCostService;
+        this.llmResponseCache = llmResponseCache;
         this.userCreditService = userCreditService;
         
         // This ChatClient will use the auto-configured Ollama model via spring.ai.model.chat.type=ollama
         this.ollamaChatClient = chatClientBuilder.build();
         this.stockDataTools = stockDataTools;
+        this.llmCallScheduler = llmCallScheduler;
 
         GoogleGenAiChatOptions options = GoogleGenAiChatOptions.builder()
                 .temperature(0.1)
@@ -72,20 +90,67 @@ public class LlmService {
     }
 
     public String callLlm(String query, String operationType, String stockTicker) {
+        return callLlm(query, operationType, stockTicker, false);
+    }
+
+    // refresh skips the cached answer, for when the user explicitly asks to regenerate
+    public String callLlm(String query, String operationType, String stockTicker, boolean refresh) {
         String userEmail = getUserEmailFromContext();
         checkCredit(userEmail);
 
         if (chatModel == null) {
             return callLlmWithOllama(query, operationType, stockTicker);
         }
-        try {
-            ChatResponse response = chatModel.call(new Prompt(new UserMessage(query)));
-            llmCostService.logUsage(userEmail, response, operationType, stockTicker);
-            return response.getResult().getOutput().getText();
-        } catch (Exception e) {
-            llmCostService.logUsageFailure(userEmail, operationType, stockTicker, e.getMessage());
-            throw e;
+        return cached(userEmail, operationType, stockTicker, "default", query, false, refresh, () -> {
+            CreditReservation reservation = userCreditService.reserve(userEmail, reservationEstimate);
+            try {
+                ChatResponse response = llmCallScheduler.call(Model.GEMINI, () -> chatModel.call(new Prompt(new UserMessage(query))));
+                llmCostService.logUsage(userEmail, response, operationType, stockTicker, reservation);
+                return response.getResult().getOutput().getText();
+            } catch (Exception e) {
+                llmCostService.logUsageFailure(userEmail, operationType, stockTicker, e.getMessage(), reservation);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Serves the answer from {@link LlmResponseCache} when the same prompt was answered before. Hits are logged as
+     * zero-cost usage. With refresh the model is always called and its answer replaces the cached one. Operations the
+     * cache does not allow, such as chat and question answers, always call the model.
+     */
+    private String cached(String userEmail, String operationType, String stockTicker, String options, String prompt,
+                          boolean searchGrounded, boolean refresh, Supplier<String> call) {
+        if (!llmResponseCache.isCacheable(operationType)) {
+            return call.get();
+        }
+        String fingerprint = llmResponseCache.fingerprint(options, prompt);
+        if (refresh) {
+            llmResponseCache.bypassed(operationType);
+        } else {
+            Optional<String> cachedResponse = llmResponseCache.get(fingerprint, operationType);
+            if (cachedResponse.isPresent()) {
+                llmCostService.logCachedUsage(userEmail, operationType, stockTicker);
+                return cachedResponse.get();
+            }
+        }
+        String response = call.get();
+        llmResponseCache.put(fingerprint, operationType, stockTicker, response, searchGrounded);
+        return response;
+    }
+
+    private static String describe(Prompt prompt) {
+        return prompt.getInstructions().stream()
+                .map(message -> message.getMessageType() + ":" + message.getText())
+                .collect(Collectors.joining("\n"));
+    }
+
+    // every option that is set, sorted by name, so options that change the answer also change the cache key
+    private static String describe(ChatOptions options) {
+        if (options == null) {
+            return "default";
         }
+        return options.getClass().getSimpleName() + new TreeMap<>(ModelOptionsUtils.objectToMap(options));
     }
 
     private void checkCredit(String userEmail) {
@@ -119,63 +184,62 @@ public class LlmService {
     }
 
     public String callLlm(Prompt query, String operationType, String stockTicker) {
+        return callLlm(query, operationType, stockTicker, false);
+    }
+
+    public String callLlm(Prompt query, String operationType, String stockTicker, boolean refresh) {
         String userEmail = getUserEmailFromContext();
         checkCredit(userEmail);
         if (chatModel == null) {
             return callLlmWithOllama(query, operationType, stockTicker);
         }
-        try {
-            ChatResponse response = chatModel.call(query);
-            llmCostService.logUsage(userEmail, response, operationType, stockTicker);
-            return response.getResult().getOutput().getText();
-        } catch (Exception e) {
-            llmCostService.logUsageFailure(userEmail, operationType, stockTicker, e.getMessage());
-            throw e;
-        }
+        return cached(userEmail, operationType, stockTicker, describe(query.getOptions()), describe(query), false, refresh, () -> {
+            CreditReservation reservation = userCreditService.reserve(userEmail, reservationEstimate);
+            try {
+                ChatResponse response = llmCallScheduler.call(Model.GEMINI, () -> chatModel.call(query));
+                llmCostService.logUsage(userEmail, response, operationType, stockTicker, reservation);
+                return response.getResult().getOutput().getText();
+            } catch (Exception e) {
+                llmCostService.logUsageFailure(userEmail, operationType, stockTicker, e.getMessage(), reservation);
+                throw e;
+            }
+        });
     }
 // TODO When this is called for getting the sentiment analysis.. you should try and see if you can get the urls that the
 //  call uses during the googleSearchRetrieval from the response metadata...and then put those in the sentiment object.
 //  ..instead of getting the URLS in the generated reponse..which is making the total cost higher...right now it is at
 //  about 7 cents per sentiment call...
     public String callLlmWithSearch(String query, String operationType, String stockTicker) {
+        return callLlmWithSearch(query, operationType, stockTicker, false);
+    }
+
+    // refresh skips the cached answer, for when the user explicitly asks to regenerate
+    public String callLlmWithSearch(String query, String operationType, String stockTicker, boolean refresh) {
         String userEmail = getUserEmailFromContext();
         checkCredit(userEmail);
-        try {
-            var options = GoogleGenAiChatOptions.builder()
-                    .googleSearchRetrieval(true)
-                    .temperature(0.2d)
-                    .build();
-            ChatResponse response = chatModel.call(new Prompt(new UserMessage(query), options));
-            llmCostService.logUsage(userEmail, response, operationType, stockTicker);
-            return response.getResult().getOutput().getText();
-        } catch (Exception e) {
-            llmCostService.logUsageFailure(userEmail, operationType, stockTicker, e.getMessage());
-            throw e;
-        }
+        return cached(userEmail, operationType, stockTicker, "search,temperature=0.2", query, true, refresh, () -> {
+            CreditReservation reservation = userCreditService.reserve(userEmail, reservationEstimate);
+            try {
+                var options = GoogleGenAiChatOptions.builder()
+                        .googleSearchRetrieval(true)
+                        .temperature(0.2d)
+                        .build();
+                ChatResponse response = llmCallScheduler.call(Model.GEMINI, () -> chatModel.call(new Prompt(new UserMessage(query), options)));
+                llmCostService.logUsage(userEmail, response, operationType, stockTicker, reservation);
+                return response.getResult().getOutput().getText();
+            } catch (Exception e) {
+                llmCostService.logUsageFailure(userEmail, operationType, stockTicker, e.getMessage(), reservation);
+                throw e;
+            }
+        });
     }
 
 
     public Flux<String> streamLlm(Prompt prompt, String operationType, String stockTicker) {
         String userEmail = getUserEmailFromContext();
         checkCredit(userEmail);
-        return chatModel.stream(prompt)
-                .collectList()
-                .map(responses -> {
-                    ChatResponse lastResponse = responses.get(responses.size() - 1);
-                    llmCostService.logUsage(userEmail, lastResponse, operationType, stockTicker);
-                    return responses;
-                })
-                .flatMapMany(responses -> Flux.fromIterable(responses))
-                .map(chatResponse -> {
-                    if (chatResponse.getResult() != null && chatResponse.getResult().getOutput() != null && chatResponse.getResult().getOutput().getText() != null) {
-                        return chatResponse.getResult().getOutput().getText();
-                    }
-                    return "";
-                })
-                .onErrorResume(e -> {
-                    llmCostService.logUsageFailure(userEmail, operationType, stockTicker, e.getMessage());
-                    return Flux.empty();
-                });
+        return streamWithUsageTracking(llmCallScheduler.stream(Model.GEMINI, () -> chatModel.stream(prompt)),
+                userEmail, operationType, stockTicker);
     }
 
     public Flux<String> streamLlmWithSearch(Prompt prompt, String operationType, String symbol) {
@@ -184,26 +248,80 @@ public class LlmService {
         var options = GoogleGenAiChatOptions.builder()
                 .googleSearchRetrieval(true)
                 .build();
-        return chatModel.stream(new Prompt(prompt.getContents(), options))
-                .collectList()
-                .map(responses -> {
-                    ChatResponse lastResponse = responses.get(responses.size() - 1);
-                    llmCostService.logUsage(userEmail, lastResponse, operationType, symbol);
-                    return responses;
+        return streamWithUsageTracking(llmCallScheduler.stream(Model.GEMINI,
+                () -> chatModel.stream(new Prompt(prompt.getContents(), options))), userEmail, operationType, symbol);
+    }
+
+    /**
+     * Forwards every chunk to the subscriber as soon as the model emits it. Only the most recent response
+     * carrying usage metadata is retained (Gemini reports cumulative usage, the final chunk holds the totals),
+     * so the answer itself is never buffered. Credit is reserved when the stream is subscribed, and usage is
+     * logged exactly once, settling or releasing that reservation: on completion, on cancellation (partial
+     * usage, the tokens were still billed) or on error.
+     */
+    private Flux<String> streamWithUsageTracking(Flux<ChatResponse> responses, String userEmail, String operationType, String symbol) {
+        return Flux.defer(() -> {
+            CreditReservation reservation = userCreditService.reserve(userEmail, reservationEstimate);
+            return trackUsage(responses, reservation, userEmail, operationType, symbol);
+        });
+    }
+
+    private Flux<String> trackUsage(Flux<ChatResponse> responses, CreditReservation reservation, String userEmail,
+                                    String operationType, String symbol) {
+        AtomicReference<ChatResponse> usageResponse = new AtomicReference<>();
+        AtomicBoolean usageLogged = new AtomicBoolean(false);
+        AtomicBoolean emittedAnyChunk = new AtomicBoolean(false);
+
+        return responses
+                .doOnNext(chatResponse -> {
+                    if (hasUsage(chatResponse) || !hasUsage(usageResponse.get())) {
+                        usageResponse.set(chatResponse);
+                    }
+                })
+                .map(this::extractText)
+                .doOnNext(chunk -> emittedAnyChunk.set(true))
+                .doOnComplete(() -> {
+                    if (usageLogged.compareAndSet(false, true)) {
+                        if (usageResponse.get() != null) {
+                            llmCostService.logUsage(userEmail, usageResponse.get(), operationType, symbol, reservation);
+                        } else {
+                            userCreditService.release(reservation);
+                        }
+                    }
                 })
-                .flatMapMany(responses -> Flux.fromIterable(responses))
-                .map(chatResponse -> {
-                    if (chatResponse.getResult() != null && chatResponse.getResult().getOutput() != null && chatResponse.getResult().getOutput().getText() != null) {
-                        return chatResponse.getResult().getOutput().getText();
+                .doOnCancel(() -> {
+                    if (usageLogged.compareAndSet(false, true)) {
+                        logger.info("Stream cancelled by subscriber for operation: {}, symbol: {}", operationType, symbol);
+                        if (usageResponse.get() != null) {
+                            llmCostService.logUsage(userEmail, usageResponse.get(), operationType, symbol, reservation);
+                        } else {
+                            llmCostService.logUsageFailure(userEmail, operationType, symbol, "Stream cancelled before first chunk", reservation);
+                        }
                     }
-                    return "";
                 })
                 .onErrorResume(e -> {
-                    llmCostService.logUsageFailure(userEmail, operationType, symbol, e.getMessage());
-                    return Flux.empty();
+                    if (usageLogged.compareAndSet(false, true)) {
+                        llmCostService.logUsageFailure(userEmail, operationType, symbol, e.getMessage(), reservation);
+                    }
+                    // once part of the answer reached the client, completing normally would pass a truncated
+                    // answer off as a full one, so the error is propagated instead
+                    return emittedAnyChunk.get() ? Flux.error(e) : Flux.empty();
                 });
     }
 
+    private boolean hasUsage(ChatResponse chatResponse) {
+        return chatResponse != null && chatResponse.getMetadata() != null && chatResponse.getMetadata().getUsage() != null
+                && chatResponse.getMetadata().getUsage().getTotalTokens() != null
+                && chatResponse.getMetadata().getUsage().getTotalTokens() > 0;
+    }
+
+    private String extractText(ChatResponse chatResponse) {
+        if (chatResponse.getResult() != null && chatResponse.getResult().getOutput() != null && chatResponse.getResult().getOutput().getText() != null) {
+            return chatResponse.getResult().getOutput().getText();
+        }
+        return "";
+    }
+
     public String callLlmWithTools(String question, String operationType, String stockTicker) {
         String userEmail = getUserEmailFromContext();
         checkCredit(userEmail);
@@ -214,12 +332,13 @@ public class LlmService {
             Then provide a clear answer based on the data.
             """;
 
+        CreditReservation reservation = userCreditService.reserve(userEmail, reservationEstimate);
         try {
             Map<String, Object> toolContext = new HashMap<>();
             Map<String, String> tickerHolder = new HashMap<>();
             toolContext.put("ticker_holder", tickerHolder);
 
-            var chatResponse = chatClientWithTools.prompt()
+            var chatResponse = llmCallScheduler.call(Model.GEMINI, () -> chatClientWithTools.prompt()
                     .system(systemPrompt)
                     .user(question)
                     .tools(stockDataTools)
@@ -230,15 +349,15 @@ public class LlmService {
                             .build())
                     .toolContext(toolContext)
                     .call()
-                    .chatResponse();
+                    .chatResponse());
 
             var extractedTicker = tickerHolder.get("ticker");
             String tickerToLog = extractedTicker != null ? extractedTicker : stockTicker;
 
-            llmCostService.logUsage(userEmail, chatResponse, operationType, tickerToLog);
+            llmCostService.logUsage(userEmail, chatResponse, operationType, tickerToLog, reservation);
             return chatResponse.getResult().getOutput().getText();
         } catch (Exception e) {
-            llmCostService.logUsageFailure(userEmail, operationType, stockTicker, e.getMessage());
+            llmCostService.logUsageFailure(userEmail, operationType, stockTicker, e.getMessage(), reservation);
             throw e;
         }
     }
@@ -252,11 +371,16 @@ public class LlmService {
     }
 
     public String callLlmWithOllama(String query, String operationType, String stockTicker) {
+        return callLlmWithOllama(query, operationType, stockTicker, false);
+    }
+
+    // refresh only matters when delegating to Gemini, Ollama answers are never cached
+    public String callLlmWithOllama(String query, String operationType, String stockTicker, boolean refresh) {
         if (!useOllama) {
-            return callLlm(query, operationType, stockTicker);
+            return callLlm(query, operationType, stockTicker, refresh);
         }
         try {
-            String response = ollamaChatClient.prompt(query).call().content();
+            String response = llmCallScheduler.call(Model.OLLAMA, () -> ollamaChatClient.prompt(query).call().content());
             logger.info("Ollama call completed for operation: {}, symbol: {}", operationType, stockTicker);
             return response;
         } catch (Exception e) {
@@ -266,11 +390,15 @@ public class LlmService {
     }
 
     public String callLlmWithOllama(Prompt query, String operationType, String stockTicker) {
+        return callLlmWithOllama(query, operationType, stockTicker, false);
+    }
+
+    public String callLlmWithOllama(Prompt query, String operationType, String stockTicker, boolean refresh) {
         if (!useOllama) {
-            return callLlm(query, operationType, stockTicker);
+            return callLlm(query, operationType, stockTicker, refresh);
         }
         try {
-            String response = ollamaChatClient.prompt(query).call().content();
+            String response = llmCallScheduler.call(Model.OLLAMA, () -> ollamaChatClient.prompt(query).call().content());
             logger.info("Ollama call completed for operation: {}, symbol: {}", operationType, stockTicker);
             return response;
         } catch (Exception e) {
@@ -287,11 +415,11 @@ public class LlmService {
             return callLlm(new Prompt(allMessages), "chat", "chat");
         }
         try {
-            String response = ollamaChatClient.prompt()
+            String response = llmCallScheduler.call(Model.OLLAMA, () -> ollamaChatClient.prompt()
                     .system(systemPrompt)
                     .messages(messages)
                     .call()
-                    .content();
+                    .content());
             logger.info("Ollama call with system prompt and chat memory completed successfully");
             return response;
         } catch (Exception e) {
@@ -304,9 +432,7 @@ public class LlmService {
         if (!useOllama) {
             return streamLlm(prompt, operationType, stockTicker);
         }
-        return ollamaChatClient.prompt(prompt)
-                .stream()
-                .content()
+        return llmCallScheduler.stream(Model.OLLAMA, () -> ollamaChatClient.prompt(prompt).stream().content())
                 .doOnComplete(() -> logger.info("Ollama stream completed for operation: {}, symbol: {}", operationType, stockTicker))
                 .doOnError(e -> logger.error("Ollama stream failed for operation: {}, symbol: {}, error: {}", operationType, stockTicker, e.getMessage()));
     }
@@ -315,17 +441,18 @@ public class LlmService {
         if (!useOllama) {
             String userEmail = getUserEmailFromContext();
             checkCredit(userEmail);
+            CreditReservation reservation = userCreditService.reserve(userEmail, reservationEstimate);
             try {
-                var chatResponse = chatClientWithTools.prompt()
+                var chatResponse = llmCallScheduler.call(Model.GEMINI, () -> chatClientWithTools.prompt()
                         .system(systemPrompt)
                         .messages(messages)
                         .tools(stockDataTools)
                         .call()
-                        .chatResponse();
-                llmCostService.logUsage(userEmail, chatResponse, "chat_with_tools", "chat");
+                        .chatResponse());
+                llmCostService.logUsage(userEmail, chatResponse, "chat_with_tools", "chat", reservation);
                 return chatResponse.getResult().getOutput().getText();
             } catch (Exception e) {
-                llmCostService.logUsageFailure(userEmail, "chat_with_tools", "chat", e.getMessage());
+                llmCostService.logUsageFailure(userEmail, "chat_with_tools", "chat", e.getMessage(), reservation);
                 throw e;
             }
         }
@@ -334,13 +461,13 @@ public class LlmService {
             Map<String, String> tickerHolder = new HashMap<>();
             toolContext.put("ticker_holder", tickerHolder);
 
-            String response = ollamaChatClient.prompt()
+            String response = llmCallScheduler.call(Model.OLLAMA, () -> ollamaChatClient.prompt()
                     .system(systemPrompt)
                     .messages(messages)
                     .tools(stockDataTools)
                     .toolContext(toolContext)
                     .call()
-                    .content();
+                    .content());
             logger.info("Ollama call with tools and chat memory completed successfully");
             return response;
         } catch (Exception e) {
@@ -0,0 +1,233 @@
+package com.testehan.finana.service;
+
+import com.testehan.finana.model.llm.LlmUsage;
+import com.testehan.finana.model.llm.LlmUsageDailyRollup;
+import com.testehan.finana.model.llm.LlmUsageRollupState;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Maintains {@link LlmUsageDailyRollup} documents. Every batch written by {@link LlmUsageWriter} is folded into one
+ * $inc upsert per user, day, operation type and symbol. When rollups are switched on, a cutoff is stored in
+ * {@link LlmUsageRollupState}: usage from the cutoff on is rolled up as it is written, and the usage before it is
+ * rolled up once from the raw records before the writer starts. Days whose rollup update failed are marked dirty and
+ * rebuilt from the raw records on the next start.
+ */
+@Service
+public class LlmUsageRollupService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LlmUsageRollupService.class);
+
+    // rollups built from the raw records carry this in their _id, so rebuilding them never replaces the $inc totals
+    private static final AggregationOperation MARK_REBUILT =
+            context -> new Document("$addFields", new Document("_id.rebuilt", true));
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    private volatile boolean prepared;
+
+    public LlmUsageRollupService(MongoTemplate mongoTemplate,
+                                 @Value("${app.llm.usage.rollups.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Stores the cutoff on first use, runs the backfill if it has not completed yet and rebuilds the dirty days
+     * before today. Called by {@link LlmUsageWriter} before it replays its journal or writes anything; when Mongo is
+     * not reachable the rollups stay unprepared and the summary reads the raw records.
+     */
+    public synchronized void prepare() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LlmUsageRollupState current = mongoTemplate.findById(LlmUsageRollupState.ID, LlmUsageRollupState.class);
+            if (current == null || current.getCutoff() == null) {
+                current = start();
+            }
+            if (!current.isBackfilled()) {
+                current = backfill(current);
+            }
+            rebuildDirtyDays(current);
+            prepared = true;
+        } catch (Exception e) {
+            LOGGER.error("Could not prepare the LLM usage rollups: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether the rollups hold complete totals for every day of this range.
+     */
+    public boolean covers(LocalDate firstDay, LocalDate lastDay) {
+        if (!enabled) {
+            return false;
+        }
+        LlmUsageRollupState current = mongoTemplate.findById(LlmUsageRollupState.ID, LlmUsageRollupState.class);
+        if (current == null || current.getCutoff() == null || firstDay.isBefore(current.firstCoveredDay())) {
+            return false;
+        }
+        return current.getDirtyDays().stream()
+                .noneMatch(day -> day.compareTo(firstDay.toString()) >= 0 && day.compareTo(lastDay.toString()) <= 0);
+    }
+
+    /**
+     * @throws IllegalStateException if the rollups were not prepared, the caller marks the days dirty instead
+     */
+    public void record(List<LlmUsage> usages) {
+        if (!enabled || usages.isEmpty()) {
+            return;
+        }
+        // the backfill may still have to count these records, so nothing is incremented until it completed
+        if (!prepared) {
+            throw new IllegalStateException("LLM usage rollups are not prepared");
+        }
+        Map<Document, Totals> totalsByKey = new LinkedHashMap<>();
+        for (LlmUsage usage : usages) {
+            totalsByKey.computeIfAbsent(key(usage), key -> new Totals()).add(usage);
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LlmUsageDailyRollup.class);
+        totalsByKey.forEach((key, totals) -> bulk.upsert(
+                new Query(Criteria.where("_id").is(key)),
+                new Update()
+                        .inc("calls", totals.calls)
+                        .inc("successfulCalls", totals.successfulCalls)
+                        .inc("promptTokens", totals.promptTokens)
+                        .inc("completionTokens", totals.completionTokens)
+                        .inc("cachedTokens", totals.cachedTokens)
+                        .inc("totalCostUsd", new Decimal128(totals.cost))));
+        bulk.execute();
+    }
+
+    /**
+     * Stops the summary from trusting the rollups of the days of these records until they are rebuilt.
+     */
+    public void markDirty(Collection<LlmUsage> usages) {
+        if (!enabled || usages.isEmpty()) {
+            return;
+        }
+        Set<String> days = new TreeSet<>();
+        usages.forEach(usage -> days.add(day(usage)));
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(LlmUsageRollupState.ID)),
+                new Update().addToSet("dirtyDays").each(days.toArray()), LlmUsageRollupState.class);
+        LOGGER.warn("Marked the LLM usage rollups of {} as dirty", days);
+    }
+
+    private LlmUsageRollupState start() {
+        // rollups from before the cutoff existed may have lost updates, the backfill builds them again
+        mongoTemplate.remove(new Query(), LlmUsageDailyRollup.class);
+        LlmUsageRollupState started = new LlmUsageRollupState();
+        started.setCutoff(LocalDateTime.now());
+        mongoTemplate.save(started);
+        return started;
+    }
+
+    private LlmUsageRollupState backfill(LlmUsageRollupState current) {
+        LOGGER.info("Building LLM usage daily rollups from the usage records before {}", current.getCutoff());
+        rebuild(Criteria.where("timestamp").lt(current.getCutoff()));
+        current.setBackfilledAt(LocalDateTime.now());
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(LlmUsageRollupState.ID)),
+                new Update().set("backfilledAt", current.getBackfilledAt()), LlmUsageRollupState.class);
+        return current;
+    }
+
+    // only days before today, today's rollups are still being incremented
+    private void rebuildDirtyDays(LlmUsageRollupState current) {
+        LocalDate today = LocalDate.now();
+        for (String day : List.copyOf(current.getDirtyDays())) {
+            LocalDate date = LocalDate.parse(day);
+            if (!date.isBefore(today)) {
+                continue;
+            }
+            LOGGER.info("Rebuilding the LLM usage daily rollups of {}", day);
+            mongoTemplate.remove(new Query(Criteria.where("_id.day").is(day)), LlmUsageDailyRollup.class);
+            rebuild(Criteria.where("timestamp").gte(date.atStartOfDay()).lt(date.plusDays(1).atStartOfDay()));
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(LlmUsageRollupState.ID)),
+                    new Update().pull("dirtyDays", day), LlmUsageRollupState.class);
+        }
+    }
+
+    private void rebuild(Criteria usages) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(usages),
+                Aggregation.project("userEmail", "operationType", "symbol", "success",
+                                "promptTokens", "completionTokens", "cachedTokens", "totalCostUsd")
+                        .and(DateOperators.dateOf("timestamp")
+                                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()))
+                                .toString("%Y-%m-%d")).as("day"),
+                Aggregation.group("userEmail", "day", "operationType", "symbol")
+                        .count().as("calls")
+                        .sum(ConditionalOperators.when(Criteria.where("success").is(true)).then(1).otherwise(0)).as("successfulCalls")
+                        .sum("promptTokens").as("promptTokens")
+                        .sum("completionTokens").as("completionTokens")
+                        .sum("cachedTokens").as("cachedTokens")
+                        // older records hold the cost as a string
+                        .sum(ConvertOperators.valueOf("totalCostUsd").convertToDecimal()).as("totalCostUsd"),
+                MARK_REBUILT,
+                Aggregation.merge()
+                        .intoCollection(mongoTemplate.getCollectionName(LlmUsageDailyRollup.class))
+                        .whenMatched(MergeOperation.WhenDocumentsMatch.replaceDocument())
+                        .build());
+        mongoTemplate.aggregate(aggregation, LlmUsage.class, Document.class);
+    }
+
+    // same field order as the _id produced by the rebuild $group
+    private static Document key(LlmUsage usage) {
+        return new Document("userEmail", usage.getUserEmail())
+                .append("day", day(usage))
+                .append("operationType", usage.getOperationType())
+                .append("symbol", usage.getSymbol());
+    }
+
+    private static String day(LlmUsage usage) {
+        return usage.getTimestamp().toLocalDate().toString();
+    }
+
+    private static final class Totals {
+        private long calls;
+        private long successfulCalls;
+        private long promptTokens;
+        private long completionTokens;
+        private long cachedTokens;
+        private BigDecimal cost = BigDecimal.ZERO;
+
+        void add(LlmUsage usage) {
+            calls++;
+            successfulCalls += usage.isSuccess() ? 1 : 0;
+            promptTokens += usage.getPromptTokens();
+            completionTokens += usage.getCompletionTokens();
+            cachedTokens += usage.getCachedTokens();
+            if (usage.getTotalCostUsd() != null) {
+                cost = cost.add(usage.getTotalCostUsd());
+            }
+        }
+    }
+}
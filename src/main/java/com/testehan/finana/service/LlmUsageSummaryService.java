@@ -0,0 +1,147 @@
+package com.testehan.finana.service;
+
+import com.testehan.finana.model.llm.LlmUsage;
+import com.testehan.finana.model.llm.LlmUsageDailyRollup;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the LLM usage summary of a user inside Mongo, grouped by operation type. Day-aligned ranges the daily
+ * rollups cover are read from them, any other range is aggregated from the raw usage records using the
+ * (userEmail, timestamp) indexes.
+ */
+@Service
+public class LlmUsageSummaryService {
+
+    private final MongoTemplate mongoTemplate;
+    private final LlmUsageRollupService llmUsageRollupService;
+
+    public LlmUsageSummaryService(MongoTemplate mongoTemplate, LlmUsageRollupService llmUsageRollupService) {
+        this.mongoTemplate = mongoTemplate;
+        this.llmUsageRollupService = llmUsageRollupService;
+    }
+
+    /**
+     * @param to exclusive end of the range, null means up to now
+     */
+    public Map<String, Object> summarize(String userEmail, String symbol, String operationType,
+                                         LocalDateTime from, LocalDateTime to) {
+        boolean dayAligned = from.toLocalTime().equals(LocalTime.MIDNIGHT)
+                && (to == null || to.toLocalTime().equals(LocalTime.MIDNIGHT));
+        LocalDate lastDay = to != null ? to.toLocalDate().minusDays(1) : LocalDate.now();
+        List<OperationTotals> totals = dayAligned && llmUsageRollupService.covers(from.toLocalDate(), lastDay)
+                ? fromRollups(userEmail, symbol, operationType, from.toLocalDate(), lastDay)
+                : fromUsage(userEmail, symbol, operationType, from, to != null ? to : LocalDateTime.now());
+        return toSummary(totals);
+    }
+
+    private List<OperationTotals> fromUsage(String userEmail, String symbol, String operationType,
+                                            LocalDateTime from, LocalDateTime to) {
+        Criteria criteria = Criteria.where("userEmail").is(userEmail).and("timestamp").gte(from).lt(to);
+        if (symbol != null) {
+            criteria.and("symbol").is(symbol);
+        }
+        if (operationType != null) {
+            criteria.and("operationType").is(operationType);
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.group("operationType")
+                        .count().as("calls")
+                        .sum(ConditionalOperators.when(Criteria.where("success").is(true)).then(1).otherwise(0)).as("successfulCalls")
+                        .sum("promptTokens").as("promptTokens")
+                        .sum("completionTokens").as("completionTokens")
+                        .sum("cachedTokens").as("cachedTokens")
+                        // records written before costs were stored as decimals hold them as strings
+                        .sum(ConvertOperators.valueOf("totalCostUsd").convertToDecimal()).as("totalCostUsd"));
+        return mongoTemplate.aggregate(aggregation, LlmUsage.class, OperationTotals.class).getMappedResults();
+    }
+
+    private List<OperationTotals> fromRollups(String userEmail, String symbol, String operationType,
+                                              LocalDate firstDay, LocalDate lastDay) {
+        Criteria criteria = Criteria.where("_id.userEmail").is(userEmail)
+                .and("_id.day").gte(firstDay.toString()).lte(lastDay.toString());
+        if (symbol != null) {
+            criteria.and("_id.symbol").is(symbol);
+        }
+        if (operationType != null) {
+            criteria.and("_id.operationType").is(operationType);
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.group("_id.operationType")
+                        .sum("calls").as("calls")
+                        .sum("successfulCalls").as("successfulCalls")
+                        .sum("promptTokens").as("promptTokens")
+                        .sum("completionTokens").as("completionTokens")
+                        .sum("cachedTokens").as("cachedTokens")
+                        .sum("totalCostUsd").as("totalCostUsd"));
+        return mongoTemplate.aggregate(aggregation, LlmUsageDailyRollup.class, OperationTotals.class).getMappedResults();
+    }
+
+    private static Map<String, Object> toSummary(List<OperationTotals> totals) {
+        long totalCalls = 0;
+        long successfulCalls = 0;
+        long totalPromptTokens = 0;
+        long totalCompletionTokens = 0;
+        long totalCachedTokens = 0;
+        BigDecimal totalCost = BigDecimal.ZERO;
+
+        Map<String, Long> callsByOperation = new HashMap<>();
+        Map<String, Long> tokensByOperation = new HashMap<>();
+        Map<String, BigDecimal> costByOperation = new HashMap<>();
+
+        for (OperationTotals operation : totals) {
+            BigDecimal cost = operation.getTotalCostUsd() != null ? operation.getTotalCostUsd() : BigDecimal.ZERO;
+            totalCalls += operation.getCalls();
+            successfulCalls += operation.getSuccessfulCalls();
+            totalPromptTokens += operation.getPromptTokens();
+            totalCompletionTokens += operation.getCompletionTokens();
+            totalCachedTokens += operation.getCachedTokens();
+            totalCost = totalCost.add(cost);
+
+            callsByOperation.put(operation.getOperationType(), operation.getCalls());
+            tokensByOperation.put(operation.getOperationType(), operation.getPromptTokens() + operation.getCompletionTokens());
+            costByOperation.put(operation.getOperationType(), cost);
+        }
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalCalls", totalCalls);
+        summary.put("successfulCalls", successfulCalls);
+        summary.put("failedCalls", totalCalls - successfulCalls);
+        summary.put("totalPromptTokens", totalPromptTokens);
+        summary.put("totalCompletionTokens", totalCompletionTokens);
+        summary.put("totalCachedTokens", totalCachedTokens);
+        summary.put("totalCostUsd", totalCost);
+        summary.put("callsByOperation", callsByOperation);
+        summary.put("tokensByOperation", tokensByOperation);
+        summary.put("costByOperation", costByOperation);
+        return summary;
+    }
+
+    @Data
+    static class OperationTotals {
+        @Id
+        private String operationType;
+        private long calls;
+        private long successfulCalls;
+        private long promptTokens;
+        private long completionTokens;
+        private long cachedTokens;
+        private BigDecimal totalCostUsd;
+    }
+}
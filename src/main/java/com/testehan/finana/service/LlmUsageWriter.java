@@ -0,0 +1,342 @@
+package com.testehan.finana.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testehan.finana.model.llm.LlmUsage;
+import com.testehan.finana.repository.LlmUsageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind for {@link LlmUsage} records. Callers only enqueue; a single writer thread inserts the queued records
+ * with insertMany once a batch is full or the flush interval has passed. Every queued record is first appended to a
+ * write-ahead journal next to the spill journal, which is truncated whenever an insert leaves nothing queued, so the
+ * records of a crashed process are replayed on the next start. Records that cannot reach Mongo (queue full with the
+ * SPILL policy, failed inserts, writes after shutdown) are appended to the spill journal, which is replayed as well.
+ * Every record gets its id before it is journaled, so a record that was already stored is recognised on replay.
+ * <p>
+ * The write-ahead journal stays open, a caller only hands its serialized record to the operating system. The journal
+ * is not fsynced, so it survives a crash of the process but not of the machine: records queued when the machine goes
+ * down are lost.
+ */
+@Service
+public class LlmUsageWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LlmUsageWriter.class);
+
+    public enum OverflowPolicy { DROP, SPILL }
+
+    private final LlmUsageRepository llmUsageRepository;
+    private final LlmUsageRollupService llmUsageRollupService;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<LlmUsage> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long shutdownTimeoutMs;
+    private final OverflowPolicy overflowPolicy;
+    private final Path journal;
+    private final Path writeAheadJournal;
+    private final Counter dropped;
+    private final Counter spilled;
+
+    private final Object intake = new Object();
+    private boolean accepting = true;
+    // opened by the first record, guarded by the intake lock
+    private FileChannel writeAheadChannel;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public LlmUsageWriter(LlmUsageRepository llmUsageRepository,
+                          LlmUsageRollupService llmUsageRollupService,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.llm.usage.queue-capacity:10000}") int queueCapacity,
+                          @Value("${app.llm.usage.batch-size:200}") int batchSize,
+                          @Value("${app.llm.usage.flush-interval-ms:2000}") long flushIntervalMs,
+                          @Value("${app.llm.usage.shutdown-timeout-ms:10000}") long shutdownTimeoutMs,
+                          @Value("${app.llm.usage.overflow-policy:SPILL}") OverflowPolicy overflowPolicy,
+                          @Value("${app.llm.usage.journal-path:llm-usage-journal.jsonl}") String journalPath) {
+        this.llmUsageRepository = llmUsageRepository;
+        this.llmUsageRollupService = llmUsageRollupService;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.overflowPolicy = overflowPolicy;
+        this.journal = Path.of(journalPath);
+        this.writeAheadJournal = Path.of(journalPath + ".wal");
+        meterRegistry.gauge("llm.usage.queue.size", queue, BlockingQueue::size);
+        this.dropped = Counter.builder("llm.usage.dropped").register(meterRegistry);
+        this.spilled = Counter.builder("llm.usage.spilled").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        // the backfill has to see the stored usage before anything new is rolled up
+        llmUsageRollupService.prepare();
+        replayJournal();
+        running = true;
+        writerThread = Thread.ofPlatform().name("llm-usage-writer").daemon().start(this::writeLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // records written from now on go to the journal, nothing is queued behind the final flush
+        synchronized (intake) {
+            accepting = false;
+        }
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(shutdownTimeoutMs);
+        synchronized (intake) {
+            closeWriteAheadJournal();
+            // whatever the writer did not get to in time is still in the write-ahead journal
+            if (queue.isEmpty() && !writerThread.isAlive()) {
+                try {
+                    Files.deleteIfExists(writeAheadJournal);
+                } catch (IOException e) {
+                    LOGGER.warn("Could not delete LLM usage journal {}: {}", writeAheadJournal, e.getMessage());
+                }
+            }
+        }
+        if (!queue.isEmpty()) {
+            LOGGER.warn("{} LLM usage records were not written before shutdown, they are replayed on the next start",
+                    queue.size());
+        }
+    }
+
+    public void write(LlmUsage usage) {
+        if (usage.getId() == null) {
+            usage.setId(new ObjectId().toHexString());
+        }
+        // serialized before taking the lock, only the append itself is done under it
+        ByteBuffer line = journalLine(usage);
+        synchronized (intake) {
+            if (!accepting) {
+                spill(List.of(usage));
+                return;
+            }
+            // only this method offers, so a free slot checked under the lock is still free below
+            if (queue.remainingCapacity() > 0) {
+                if (line != null) {
+                    appendToWriteAheadJournal(line);
+                }
+                queue.offer(usage);
+                return;
+            }
+        }
+        if (overflowPolicy == OverflowPolicy.SPILL) {
+            spill(List.of(usage));
+        } else {
+            dropped.increment();
+            LOGGER.warn("LLM usage queue full, dropped usage record for {} | {}", usage.getOperationType(), usage.getSymbol());
+        }
+    }
+
+    private void writeLoop() {
+        List<LlmUsage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    long waitNanos = deadline - System.nanoTime();
+                    LlmUsage usage = waitNanos > 0 && running ? queue.poll(waitNanos, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (usage == null) {
+                        break;
+                    }
+                    batch.add(usage);
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts the wait, the loop drains the queue before exiting
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    void flush(List<LlmUsage> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            llmUsageRepository.insert(batch);
+            LOGGER.debug("Wrote {} LLM usage records", batch.size());
+        } catch (Exception e) {
+            LOGGER.error("Failed to write {} LLM usage records: {}", batch.size(), e.getMessage());
+            // spilled before the write-ahead journal can be deleted by a later batch
+            spill(batch);
+            return;
+        }
+        truncateWriteAheadJournal();
+        rollUp(batch);
+    }
+
+    // every journaled record is stored or spilled once the queue is empty, new ones wait for the intake lock
+    private void truncateWriteAheadJournal() {
+        synchronized (intake) {
+            if (!queue.isEmpty() || writeAheadChannel == null) {
+                return;
+            }
+            try {
+                writeAheadChannel.truncate(0);
+            } catch (IOException e) {
+                LOGGER.warn("Could not truncate LLM usage journal {}, its records are replayed as duplicates: {}",
+                        writeAheadJournal, e.getMessage());
+            }
+        }
+    }
+
+    // the raw records are stored at this point, the days of a failed rollup are rebuilt from them on the next start
+    private void rollUp(List<LlmUsage> usages) {
+        try {
+            llmUsageRollupService.record(usages);
+        } catch (Exception e) {
+            LOGGER.error("Failed to roll up {} LLM usage records: {}", usages.size(), e.getMessage());
+            markDirty(usages);
+        }
+    }
+
+    private void markDirty(List<LlmUsage> usages) {
+        try {
+            llmUsageRollupService.markDirty(usages);
+        } catch (Exception e) {
+            LOGGER.error("Could not mark the LLM usage rollups as dirty, the summary may under-report: {}", e.getMessage());
+        }
+    }
+
+    private ByteBuffer journalLine(LlmUsage usage) {
+        try {
+            return ByteBuffer.wrap((objectMapper.writeValueAsString(usage) + System.lineSeparator())
+                    .getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.error("Could not journal LLM usage record {}: {}", usage.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    // the caller holds the intake lock
+    private void appendToWriteAheadJournal(ByteBuffer line) {
+        try {
+            if (writeAheadChannel == null) {
+                writeAheadChannel = FileChannel.open(writeAheadJournal, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            while (line.hasRemaining()) {
+                writeAheadChannel.write(line);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Could not append LLM usage record to {}: {}", writeAheadJournal, e.getMessage());
+        }
+    }
+
+    // the caller holds the intake lock
+    private void closeWriteAheadJournal() {
+        if (writeAheadChannel == null) {
+            return;
+        }
+        try {
+            writeAheadChannel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not close LLM usage journal {}: {}", writeAheadJournal, e.getMessage());
+        }
+        writeAheadChannel = null;
+    }
+
+    private synchronized void spill(List<LlmUsage> usages) {
+        if (appendTo(journal, usages)) {
+            spilled.increment(usages.size());
+        } else {
+            dropped.increment(usages.size());
+            LOGGER.error("Could not journal {} LLM usage records, they are lost", usages.size());
+        }
+    }
+
+    private boolean appendTo(Path file, List<LlmUsage> usages) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (LlmUsage usage : usages) {
+                writer.write(objectMapper.writeValueAsString(usage));
+                writer.newLine();
+            }
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Could not append {} LLM usage records to {}: {}", usages.size(), file, e.getMessage());
+            return false;
+        }
+    }
+
+    // runs before the writer starts; the journal is closed first, so records written later go to a new file
+    void replayJournal() {
+        synchronized (intake) {
+            closeWriteAheadJournal();
+            synchronized (this) {
+                replay(journal);
+                replay(writeAheadJournal);
+            }
+        }
+    }
+
+    // a record found in both journals, or already stored before a crash, is skipped as a duplicate key
+    private void replay(Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            List<LlmUsage> usages = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    usages.add(objectMapper.readValue(line, LlmUsage.class));
+                }
+            }
+            if (usages.isEmpty()) {
+                // a write-ahead journal truncated before a crash
+                Files.delete(file);
+                return;
+            }
+            List<LlmUsage> inserted = new ArrayList<>();
+            List<LlmUsage> alreadyStored = new ArrayList<>();
+            for (LlmUsage usage : usages) {
+                try {
+                    llmUsageRepository.insert(usage);
+                    inserted.add(usage);
+                } catch (DuplicateKeyException e) {
+                    // stored by an insert that failed part way or just before a crash, its day is rebuilt
+                    alreadyStored.add(usage);
+                }
+            }
+            Files.delete(file);
+            rollUp(inserted);
+            if (!alreadyStored.isEmpty()) {
+                markDirty(alreadyStored);
+            }
+            LOGGER.info("Replayed {} LLM usage records from {}, {} were already stored", usages.size(), file,
+                    alreadyStored.size());
+        } catch (Exception e) {
+            // the journal is kept and tried again on the next start
+            LOGGER.error("Could not replay LLM usage journal {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -1,169 +1,447 @@
 package com.testehan.finana.service;
 
+import com.testehan.finana.config.MongoServerVersion;
 import com.testehan.finana.model.quote.GlobalQuote;
 import com.testehan.finana.model.quote.IndexData;
+import com.testehan.finana.model.quote.IndexQuoteBar;
 import com.testehan.finana.model.quote.IndexQuotes;
+import com.testehan.finana.model.quote.PriceSeries;
+import com.testehan.finana.model.quote.QuoteBars;
+import com.testehan.finana.model.quote.StockQuoteBar;
 import com.testehan.finana.model.quote.StockQuotes;
+import com.testehan.finana.repository.IndexQuoteBarRepository;
 import com.testehan.finana.repository.IndexQuotesRepository;
+import com.testehan.finana.repository.StockQuoteBarRepository;
 import com.testehan.finana.repository.StockQuotesRepository;
 import com.testehan.finana.util.DateUtils;
+import com.testehan.finana.util.SingleFlight;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
+/**
+ * Daily stock and index prices. Bars live one per document in the stock_quote_bars and index_quote_bars
+ * time series collections; the stock_quotes and index_quotes documents only track when a symbol was last refreshed.
+ */
 @Service
 public class QuoteService {
     private static final Logger LOGGER = LoggerFactory.getLogger(QuoteService.class);
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int MAX_LOOKBACK_DAYS = 7;
+    private static final double RESTATEMENT_TOLERANCE = 1e-6;
 
     private final FMPService fmpService;
     private final StockQuotesRepository stockQuotesRepository;
+    private final StockQuoteBarRepository stockQuoteBarRepository;
     private final IndexQuotesRepository indexQuotesRepository;
+    private final IndexQuoteBarRepository indexQuoteBarRepository;
     private final DateUtils dateUtils;
+    private final MongoServerVersion mongoServerVersion;
 
-    public QuoteService(FMPService fmpService, StockQuotesRepository stockQuotesRepository, IndexQuotesRepository indexQuotesRepository, DateUtils dateUtils) {
+    private final SingleFlight<String, GlobalQuote> lastStockQuoteRequests = new SingleFlight<>();
+    private final SingleFlight<String, IndexQuotes> indexQuotesRequests = new SingleFlight<>();
+
+    // columnar price history of the most recently used symbols, replaced by a full refresh and extended by an incremental one
+    private final Map<String, PriceSeries> stockPriceSeries;
+    private final Map<String, PriceSeries> indexPriceSeries;
+
+    public QuoteService(FMPService fmpService,
+                        StockQuotesRepository stockQuotesRepository,
+                        StockQuoteBarRepository stockQuoteBarRepository,
+                        IndexQuotesRepository indexQuotesRepository,
+                        IndexQuoteBarRepository indexQuoteBarRepository,
+                        DateUtils dateUtils,
+                        MongoServerVersion mongoServerVersion,
+                        @Value("${app.quotes.price-series-cache-size:500}") int priceSeriesCacheSize) {
         this.fmpService = fmpService;
         this.stockQuotesRepository = stockQuotesRepository;
+        this.stockQuoteBarRepository = stockQuoteBarRepository;
         this.indexQuotesRepository = indexQuotesRepository;
+        this.indexQuoteBarRepository = indexQuoteBarRepository;
         this.dateUtils = dateUtils;
+        this.mongoServerVersion = mongoServerVersion;
+        this.stockPriceSeries = lruCache(priceSeriesCacheSize);
+        this.indexPriceSeries = lruCache(priceSeriesCacheSize);
+    }
+
+    // a few hundred KB per symbol with decades of bars, so only the most recently used ones are kept
+    private static Map<String, PriceSeries> lruCache(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<String, PriceSeries>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PriceSeries> eldest) {
+                return size() > maxEntries;
+            }
+        });
     }
 
     public Mono<GlobalQuote> getLastStockQuote(String symbol) {
+        return lastStockQuoteRequests.execute(symbol.toUpperCase(), () -> loadLastStockQuote(symbol));
+    }
+
+    private Mono<GlobalQuote> loadLastStockQuote(String symbol) {
         return Mono.defer(() -> {
-            Optional<StockQuotes> stockQuotesFromDb = stockQuotesRepository.findBySymbol(symbol);
-            if (stockQuotesFromDb.isPresent() && !stockQuotesFromDb.get().getQuotes().isEmpty() && dateUtils.isRecent(stockQuotesFromDb.get().getLastUpdated(), DateUtils.CACHE_TEN_MINUTES)) {
-                return Mono.fromCallable(() -> stockQuotesRepository.findLastQuoteBySymbol(symbol))
-                        .flatMap(opt -> opt.map(Mono::just).orElseGet(Mono::empty))
-                        .switchIfEmpty(Mono.error(() -> new RuntimeException("No stock quote found for " + symbol)));
-            } else {
-                return fmpService.getHistoricalDividendAdjustedEodPrice(symbol)
-                        .flatMap(globalQuotes -> {
-                            if (globalQuotes == null || globalQuotes.isEmpty()) {
-                                LOGGER.warn("API returned empty quotes for {}. Keeping existing cached data.", symbol);
-                                if (stockQuotesFromDb.isPresent() && !stockQuotesFromDb.get().getQuotes().isEmpty()) {
-                                    return Mono.fromCallable(() -> stockQuotesRepository.findLastQuoteBySymbol(symbol))
-                                            .flatMap(opt -> opt.map(Mono::just).orElseGet(Mono::empty));
-                                }
-                                return Mono.error(() -> new RuntimeException("No stock quote found for " + symbol));
-                            }
-                            return Mono.fromCallable(() -> {
-                                StockQuotes stockQuotes;
-                                if (stockQuotesFromDb.isPresent()) {
-                                    stockQuotes = stockQuotesFromDb.get();
-                                    stockQuotes.setQuotes(globalQuotes);
-                                } else {
-                                    stockQuotes = new StockQuotes();
-                                    stockQuotes.setSymbol(symbol.toUpperCase());
-                                    stockQuotes.setQuotes(globalQuotes);
-                                }
-                                stockQuotes.setLastUpdated(LocalDateTime.now());
-                                return stockQuotesRepository.save(stockQuotes);
-                            });
-                        })
-                        .flatMap(saved -> Mono.fromCallable(() -> stockQuotesRepository.findLastQuoteBySymbol(symbol))
-                                .flatMap(opt -> opt.map(Mono::just).orElseGet(Mono::empty))
-                                .switchIfEmpty(Mono.error(() -> new RuntimeException("No stock quote found for " + symbol))))
-                        .onErrorResume(e -> {
-                            if (stockQuotesFromDb.isPresent() && !stockQuotesFromDb.get().getQuotes().isEmpty()) {
-                                LOGGER.warn("Failed to update quotes for {}. Returning latest cached quote from {}.", 
-                                            symbol, stockQuotesFromDb.get().getLastUpdated());
-                                return Mono.fromCallable(() -> stockQuotesRepository.findLastQuoteBySymbol(symbol))
-                                        .flatMap(opt -> opt.map(Mono::just).orElseGet(Mono::empty));
-                            }
-                            LOGGER.error("Failed to get quotes for {} and no cached data available.", symbol);
-                            return Mono.error(e);
-                        });
+            String key = symbol.toUpperCase();
+            Optional<StockQuoteBar> lastStoredBar = stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc(key);
+            LocalDateTime lastUpdated = stockQuotesRepository.findLastUpdatedBySymbol(key).map(StockQuotes::getLastUpdated).orElse(null);
+            if (lastStoredBar.isPresent() && dateUtils.isRecent(lastUpdated, DateUtils.CACHE_TEN_MINUTES)) {
+                return Mono.just(lastStoredBar.get().toGlobalQuote());
             }
+
+            Mono<Void> refresh = lastStoredBar.isPresent()
+                    ? syncStockQuotes(key, lastStoredBar.get())
+                    : replaceStockQuotes(key, false);
+
+            return refresh
+                    .then(Mono.fromCallable(() -> stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc(key)
+                            .map(StockQuoteBar::toGlobalQuote)
+                            .orElse(null)))
+                    .switchIfEmpty(Mono.error(() -> new RuntimeException("No stock quote found for " + symbol)))
+                    .onErrorResume(e -> {
+                        if (lastStoredBar.isPresent()) {
+                            LOGGER.warn("Failed to update quotes for {}. Returning latest cached quote from {}.",
+                                        symbol, lastUpdated);
+                            return Mono.just(lastStoredBar.get().toGlobalQuote());
+                        }
+                        LOGGER.error("Failed to get quotes for {} and no cached data available.", symbol);
+                        return Mono.error(e);
+                    });
         });
     }
 
-    public Mono<IndexQuotes> getIndexQuotes(String symbol) {
-        return Mono.defer(() -> {
-            Optional<IndexQuotes> indexQuotesFromDb = indexQuotesRepository.findById(symbol.toUpperCase());
-            if (indexQuotesFromDb.isPresent() && dateUtils.isRecent(indexQuotesFromDb.get().getLastUpdated(), DateUtils.CACHE_HOUR_AND_A_HALF)) {
-                return Mono.just(indexQuotesFromDb.get());
-            } else {
-                return fmpService.getIndexHistoricalData(symbol)
-                        .flatMap(indexDataList -> {
-                            if (indexDataList == null || indexDataList.isEmpty()) {
-                                LOGGER.warn("API returned empty index quotes for {}. Keeping existing cached data.", symbol);
-                                if (indexQuotesFromDb.isPresent()) {
-                                    return Mono.just(indexQuotesFromDb.get());
-                                }
-                                return Mono.error(() -> new RuntimeException("No index quotes found for " + symbol));
+    /**
+     * Writes the full history as a new batch and only then removes the previous bars, so a failed write keeps the
+     * stored history. Until the previous bars are removed a day can briefly have two bars. Before MongoDB 7.0 bars
+     * can only be deleted by symbol, so the previous bars are removed first and a failed write leaves none; the next
+     * request then fetches the full history again.
+     */
+    private Mono<Void> replaceStockQuotes(String symbol, boolean hasCachedQuotes) {
+        return fmpService.getHistoricalDividendAdjustedEodPrice(symbol)
+                .flatMap(globalQuotes -> {
+                    if (globalQuotes == null || globalQuotes.isEmpty()) {
+                        LOGGER.warn("API returned empty quotes for {}. Keeping existing cached data.", symbol);
+                        return hasCachedQuotes
+                                ? Mono.<Void>empty()
+                                : Mono.<Void>error(() -> new RuntimeException("No stock quote found for " + symbol));
+                    }
+                    return Mono.<Void>fromRunnable(() -> {
+                        List<StockQuoteBar> bars = QuoteBars.stockBarsOf(symbol, globalQuotes);
+                        if (mongoServerVersion.supportsArbitraryTimeSeriesDeletes()) {
+                            String batch = new ObjectId().toHexString();
+                            bars.forEach(bar -> bar.setBatch(batch));
+                            try {
+                                stockQuoteBarRepository.insert(bars);
+                            } catch (RuntimeException e) {
+                                stockQuoteBarRepository.deleteBySymbolAndBatch(symbol, batch);
+                                throw e;
                             }
-                            return Mono.fromCallable(() -> {
-                                IndexQuotes indexQuotes;
-                                if (indexQuotesFromDb.isPresent()) {
-                                    indexQuotes = indexQuotesFromDb.get();
-                                    indexQuotes.setQuotes(indexDataList);
-                                } else {
-                                    indexQuotes = new IndexQuotes(symbol.toUpperCase(), indexDataList);
-                                }
-                                indexQuotes.setLastUpdated(LocalDateTime.now());
-                                return indexQuotesRepository.save(indexQuotes);
-                            });
-                        })
-                        .onErrorResume(e -> {
-                            if (indexQuotesFromDb.isPresent()) {
-                                LOGGER.warn("Failed to update index quotes for {}. Returning cached data from {}.", 
-                                            symbol, indexQuotesFromDb.get().getLastUpdated());
-                                return Mono.just(indexQuotesFromDb.get());
+                            stockQuoteBarRepository.deleteBySymbolAndBatchNot(symbol, batch);
+                        } else {
+                            stockQuoteBarRepository.deleteBySymbol(symbol);
+                            stockQuoteBarRepository.insert(bars);
+                        }
+                        markStockQuotesUpdated(symbol);
+                        stockPriceSeries.put(symbol, PriceSeries.fromStockBars(symbol, bars));
+                    });
+                });
+    }
+
+    /**
+     * Fetches only the bars from the settled bar, the one before the last stored bar, onwards. The settled bar is
+     * requested again on purpose: if its adjusted close changed, a dividend or split adjusted the whole history
+     * retroactively and the bars are rewritten from a full fetch. The last stored bar may have been stored during
+     * market hours with a preliminary close, so a change in it alone is not a restatement: it is overwritten like
+     * an appended bar. Otherwise only the new bars are inserted.
+     */
+    private Mono<Void> syncStockQuotes(String symbol, StockQuoteBar lastStoredBar) {
+        List<StockQuoteBar> recentBars = stockQuoteBarRepository.findTop2BySymbolOrderByDateDesc(symbol);
+        StockQuoteBar settledBar = recentBars.size() > 1 ? recentBars.get(1) : lastStoredBar;
+        LocalDate settledDate = settledBar.getTradingDay();
+        return fmpService.getHistoricalDividendAdjustedEodPrice(symbol, settledDate, LocalDate.now())
+                .flatMap(fetchedQuotes -> {
+                    if (fetchedQuotes == null || fetchedQuotes.isEmpty()) {
+                        LOGGER.warn("API returned empty quotes for {} since {}. Keeping existing cached data.", symbol, settledDate);
+                        return Mono.<Void>empty();
+                    }
+                    List<StockQuoteBar> fetchedBars = QuoteBars.stockBarsOf(symbol, fetchedQuotes);
+                    Optional<StockQuoteBar> overlappingBar = fetchedBars.stream()
+                            .filter(bar -> bar.getDate().equals(settledBar.getDate()))
+                            .findFirst();
+                    if (overlappingBar.isEmpty() || isRestated(settledBar.getAdjClose(), overlappingBar.get().getAdjClose())) {
+                        LOGGER.info("Adjusted prices for {} changed retroactively. Rewriting the full quote history.", symbol);
+                        return replaceStockQuotes(symbol, true);
+                    }
+
+                    // the last stored bar is written again only when its close or volume changed
+                    List<StockQuoteBar> newBars = fetchedBars.stream()
+                            .filter(bar -> bar.getDate().isAfter(lastStoredBar.getDate())
+                                    || (settledBar != lastStoredBar && bar.getDate().equals(lastStoredBar.getDate())
+                                        && isChanged(lastStoredBar.getAdjClose(), lastStoredBar.getVolume(), bar.getAdjClose(), bar.getVolume())))
+                            .toList();
+                    boolean overwritesLastBar = newBars.stream().anyMatch(bar -> bar.getDate().equals(lastStoredBar.getDate()));
+                    if (overwritesLastBar && !mongoServerVersion.supportsArbitraryTimeSeriesDeletes()) {
+                        // a single bar cannot be deleted before MongoDB 7.0
+                        return replaceStockQuotes(symbol, true);
+                    }
+                    return Mono.<Void>fromRunnable(() -> {
+                        if (!newBars.isEmpty()) {
+                            stockQuoteBarRepository.insert(newBars);
+                            // removed once its replacement is stored
+                            if (overwritesLastBar) {
+                                stockQuoteBarRepository.deleteById(lastStoredBar.getId());
                             }
-                            LOGGER.error("Failed to get index quotes for {} and no cached data available.", symbol);
-                            return Mono.error(e);
-                        });
+                            stockPriceSeries.computeIfPresent(symbol, (key, series) -> series.withStockBars(newBars));
+                        }
+                        markStockQuotesUpdated(symbol);
+                        LOGGER.debug("Appended {} new quotes for {}", newBars.size(), symbol);
+                    });
+                });
+    }
+
+    private void markStockQuotesUpdated(String symbol) {
+        LocalDateTime now = LocalDateTime.now();
+        if (stockQuotesRepository.updateLastUpdated(symbol, now) == 0) {
+            StockQuotes stockQuotes = new StockQuotes();
+            stockQuotes.setSymbol(symbol);
+            stockQuotes.setLastUpdated(now);
+            stockQuotesRepository.save(stockQuotes);
+        }
+    }
+
+    public Mono<IndexQuotes> getIndexQuotes(String symbol) {
+        return indexQuotesRequests.execute(symbol.toUpperCase(), () -> loadIndexQuotes(symbol));
+    }
+
+    private Mono<IndexQuotes> loadIndexQuotes(String symbol) {
+        return Mono.defer(() -> {
+            String key = symbol.toUpperCase();
+            Optional<IndexQuoteBar> lastStoredBar = indexQuoteBarRepository.findFirstBySymbolOrderByDateDesc(key);
+            LocalDateTime lastUpdated = indexQuotesRepository.findLastUpdatedBySymbol(key).map(IndexQuotes::getLastUpdated).orElse(null);
+            if (lastStoredBar.isPresent() && dateUtils.isRecent(lastUpdated, DateUtils.CACHE_HOUR_AND_A_HALF)) {
+                return Mono.fromCallable(() -> assembleIndexQuotes(key));
             }
+
+            Mono<Void> refresh = lastStoredBar.isPresent()
+                    ? syncIndexQuotes(key, lastStoredBar.get())
+                    : replaceIndexQuotes(key, false);
+
+            return refresh
+                    .then(Mono.fromCallable(() -> assembleIndexQuotes(key)))
+                    .onErrorResume(e -> {
+                        if (lastStoredBar.isPresent()) {
+                            LOGGER.warn("Failed to update index quotes for {}. Returning cached data from {}.",
+                                        symbol, lastUpdated);
+                            return Mono.fromCallable(() -> assembleIndexQuotes(key));
+                        }
+                        LOGGER.error("Failed to get index quotes for {} and no cached data available.", symbol);
+                        return Mono.error(e);
+                    });
         }).switchIfEmpty(Mono.error(() -> new RuntimeException("No index quotes found for " + symbol)));
     }
 
-    public Optional<GlobalQuote> getStockQuoteByDate(String symbol, LocalDate date) {
-        for (int i = 0; i < 7; i++) {       // because some days are weekends or holidays when the market is closed
-            LocalDate lookupDate = date.minusDays(i);
-            String dateStr = lookupDate.format(formatter);
-            Optional<GlobalQuote> quote = stockQuotesRepository.findQuoteBySymbolAndDate(symbol.toUpperCase(), dateStr);
-            if (quote.isPresent()) {
-                return quote;
-            }
+    private Mono<Void> replaceIndexQuotes(String symbol, boolean hasCachedQuotes) {
+        return fmpService.getIndexHistoricalData(symbol)
+                .flatMap(indexDataList -> {
+                    if (indexDataList == null || indexDataList.isEmpty()) {
+                        LOGGER.warn("API returned empty index quotes for {}. Keeping existing cached data.", symbol);
+                        return hasCachedQuotes
+                                ? Mono.<Void>empty()
+                                : Mono.<Void>error(() -> new RuntimeException("No index quotes found for " + symbol));
+                    }
+                    return Mono.<Void>fromRunnable(() -> {
+                        List<IndexQuoteBar> bars = QuoteBars.indexBarsOf(symbol, indexDataList);
+                        // replaced like the stock bars
+                        if (mongoServerVersion.supportsArbitraryTimeSeriesDeletes()) {
+                            String batch = new ObjectId().toHexString();
+                            bars.forEach(bar -> bar.setBatch(batch));
+                            try {
+                                indexQuoteBarRepository.insert(bars);
+                            } catch (RuntimeException e) {
+                                indexQuoteBarRepository.deleteBySymbolAndBatch(symbol, batch);
+                                throw e;
+                            }
+                            indexQuoteBarRepository.deleteBySymbolAndBatchNot(symbol, batch);
+                        } else {
+                            indexQuoteBarRepository.deleteBySymbol(symbol);
+                            indexQuoteBarRepository.insert(bars);
+                        }
+                        markIndexQuotesUpdated(symbol);
+                        indexPriceSeries.put(symbol, PriceSeries.fromIndexBars(symbol, bars));
+                    });
+                });
+    }
+
+    // compares the settled bar like syncStockQuotes, a change in the last stored bar alone overwrites it
+    private Mono<Void> syncIndexQuotes(String symbol, IndexQuoteBar lastStoredBar) {
+        List<IndexQuoteBar> recentBars = indexQuoteBarRepository.findTop2BySymbolOrderByDateDesc(symbol);
+        IndexQuoteBar settledBar = recentBars.size() > 1 ? recentBars.get(1) : lastStoredBar;
+        LocalDate settledDate = settledBar.getTradingDay();
+        return fmpService.getIndexHistoricalData(symbol, settledDate, LocalDate.now())
+                .flatMap(fetchedQuotes -> {
+                    if (fetchedQuotes == null || fetchedQuotes.isEmpty()) {
+                        LOGGER.warn("API returned empty index quotes for {} since {}. Keeping existing cached data.", symbol, settledDate);
+                        return Mono.<Void>empty();
+                    }
+                    List<IndexQuoteBar> fetchedBars = QuoteBars.indexBarsOf(symbol, fetchedQuotes);
+                    Optional<IndexQuoteBar> overlappingBar = fetchedBars.stream()
+                            .filter(bar -> bar.getDate().equals(settledBar.getDate()))
+                            .findFirst();
+                    if (overlappingBar.isEmpty() || isRestated(settledBar.getPrice(), overlappingBar.get().getPrice())) {
+                        LOGGER.info("Index prices for {} changed retroactively. Rewriting the full quote history.", symbol);
+                        return replaceIndexQuotes(symbol, true);
+                    }
+
+                    List<IndexQuoteBar> newBars = fetchedBars.stream()
+                            .filter(bar -> bar.getDate().isAfter(lastStoredBar.getDate())
+                                    || (settledBar != lastStoredBar && bar.getDate().equals(lastStoredBar.getDate())
+                                        && isChanged(lastStoredBar.getPrice(), lastStoredBar.getVolume(), bar.getPrice(), bar.getVolume())))
+                            .toList();
+                    boolean overwritesLastBar = newBars.stream().anyMatch(bar -> bar.getDate().equals(lastStoredBar.getDate()));
+                    if (overwritesLastBar && !mongoServerVersion.supportsArbitraryTimeSeriesDeletes()) {
+                        return replaceIndexQuotes(symbol, true);
+                    }
+                    return Mono.<Void>fromRunnable(() -> {
+                        if (!newBars.isEmpty()) {
+                            indexQuoteBarRepository.insert(newBars);
+                            if (overwritesLastBar) {
+                                indexQuoteBarRepository.deleteById(lastStoredBar.getId());
+                            }
+                            indexPriceSeries.computeIfPresent(symbol, (key, series) -> series.withIndexBars(newBars));
+                        }
+                        markIndexQuotesUpdated(symbol);
+                    });
+                });
+    }
+
+    private void markIndexQuotesUpdated(String symbol) {
+        LocalDateTime now = LocalDateTime.now();
+        if (indexQuotesRepository.updateLastUpdated(symbol, now) == 0) {
+            IndexQuotes indexQuotes = new IndexQuotes(symbol, null);
+            indexQuotes.setLastUpdated(now);
+            indexQuotesRepository.save(indexQuotes);
         }
-        return Optional.empty();
     }
 
-    public Optional<IndexData> getIndexQuoteByDate(String symbol, LocalDate date) {
-        for (int i = 0; i < 7; i++) {   // because some days are weekends or holidays when the market is not opened
-            LocalDate lookupDate = date.minusDays(i);
-            String dateStr = lookupDate.format(formatter);
-            Optional<IndexData> quote = indexQuotesRepository.findQuoteBySymbolAndDate(symbol.toUpperCase(), dateStr);
-            if (quote.isPresent()) {
-                return quote;
-            }
+    // the API response keeps the previous shape: one document per index with its bars newest first
+    private IndexQuotes assembleIndexQuotes(String symbol) {
+        Optional<PriceSeries> series = getIndexPriceSeries(symbol);
+        if (series.isEmpty() || series.get().isEmpty()) {
+            return null;
+        }
+        List<IndexData> quotes = new ArrayList<>(series.get().size());
+        for (int index = series.get().lastIndex(); index >= 0; index--) {
+            quotes.add(series.get().toIndexData(index));
         }
-        return Optional.empty();
+        IndexQuotes indexQuotes = new IndexQuotes(symbol, quotes);
+        indexQuotes.setLastUpdated(indexQuotesRepository.findLastUpdatedBySymbol(symbol).map(IndexQuotes::getLastUpdated).orElse(null));
+        return indexQuotes;
+    }
+
+    private boolean isRestated(Double storedPrice, Double fetchedPrice) {
+        if (storedPrice == null || fetchedPrice == null) {
+            return true;
+        }
+        return Math.abs(storedPrice - fetchedPrice) > RESTATEMENT_TOLERANCE * Math.max(1d, Math.abs(storedPrice));
+    }
+
+    private boolean isChanged(Double storedPrice, Long storedVolume, Double fetchedPrice, Long fetchedVolume) {
+        return isRestated(storedPrice, fetchedPrice) || !Objects.equals(storedVolume, fetchedVolume);
+    }
+
+    public Optional<PriceSeries> getStockPriceSeries(String symbol) {
+        String key = symbol.toUpperCase();
+        PriceSeries series = stockPriceSeries.get(key);
+        if (series != null) {
+            return Optional.of(series);
+        }
+        List<StockQuoteBar> bars = stockQuoteBarRepository.findBySymbolOrderByDateAsc(key);
+        if (bars.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(cacheIfAbsent(stockPriceSeries, key, PriceSeries.fromStockBars(key, bars)));
+    }
+
+    public Optional<PriceSeries> getIndexPriceSeries(String symbol) {
+        String key = symbol.toUpperCase();
+        PriceSeries series = indexPriceSeries.get(key);
+        if (series != null) {
+            return Optional.of(series);
+        }
+        List<IndexQuoteBar> bars = indexQuoteBarRepository.findBySymbolOrderByDateAsc(key);
+        if (bars.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(cacheIfAbsent(indexPriceSeries, key, PriceSeries.fromIndexBars(key, bars)));
+    }
+
+    // a refresh may have stored a newer series while this one was loaded from the db, that one wins
+    private PriceSeries cacheIfAbsent(Map<String, PriceSeries> cache, String key, PriceSeries loaded) {
+        PriceSeries existing = cache.putIfAbsent(key, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * The lookups below load the symbol's history into the cached series on first use, so the per-period lookups of
+     * the ratio and report calculators are binary searches instead of one query each.
+     */
+    public Optional<GlobalQuote> getStockQuoteByDate(String symbol, LocalDate date) {
+        return getStockPriceSeries(symbol).flatMap(series -> {
+            int index = series.floorIndex(date, MAX_LOOKBACK_DAYS);     // because some days are weekends or holidays when the market is closed
+            return index < 0 ? Optional.empty() : Optional.of(series.toGlobalQuote(index));
+        });
+    }
+
+    public Optional<BigDecimal> getAdjustedCloseByDate(String symbol, LocalDate date) {
+        return getStockPriceSeries(symbol).flatMap(series -> {
+            int index = series.floorIndex(date, MAX_LOOKBACK_DAYS);
+            return index < 0 ? Optional.empty() : Optional.of(BigDecimal.valueOf(series.adjCloseAt(index)));
+        });
+    }
+
+    public Optional<IndexData> getIndexQuoteByDate(String symbol, LocalDate date) {
+        return getIndexPriceSeries(symbol).flatMap(series -> {
+            int index = series.floorIndex(date, MAX_LOOKBACK_DAYS);     // because some days are weekends or holidays when the market is not opened
+            return index < 0 ? Optional.empty() : Optional.of(series.toIndexData(index));
+        });
     }
 
     public Optional<GlobalQuote> getFirstStockQuote(String symbol) {
-        return stockQuotesRepository.findFirstQuoteBySymbol(symbol.toUpperCase());
+        return getStockPriceSeries(symbol)
+                .filter(series -> !series.isEmpty())
+                .map(series -> series.toGlobalQuote(series.firstIndex()));
     }
 
     public Optional<IndexData> getFirstIndexQuote(String symbol) {
-        return indexQuotesRepository.findFirstQuoteBySymbol(symbol.toUpperCase());
+        return getIndexPriceSeries(symbol)
+                .filter(series -> !series.isEmpty())
+                .map(series -> series.toIndexData(series.firstIndex()));
     }
 
     public Optional<IndexData> getLastIndexQuote(String symbol) {
-        return indexQuotesRepository.findLastQuoteBySymbol(symbol.toUpperCase());
+        return getIndexPriceSeries(symbol)
+                .filter(series -> !series.isEmpty())
+                .map(series -> series.toIndexData(series.lastIndex()));
     }
 
     public void deleteBySymbol(String symbol) {
         stockQuotesRepository.deleteBySymbol(symbol);
+        stockQuoteBarRepository.deleteBySymbol(symbol.toUpperCase());
+        stockPriceSeries.remove(symbol.toUpperCase());
     }
 
     public boolean hasStockQuotes(String symbol) {
-        return stockQuotesRepository.findBySymbol(symbol).isPresent();
+        return stockQuoteBarRepository.existsBySymbol(symbol.toUpperCase());
     }
 }
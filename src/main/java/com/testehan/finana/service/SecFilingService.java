@@ -3,31 +3,43 @@ package com.testehan.finana.service;
 import com.testehan.finana.model.filing.*;
 import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.repository.SecFilingUrlsRepository;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
+import com.testehan.finana.service.filing.EdgarFilingFetcher;
+import com.testehan.finana.service.filing.FilingSectionExtractor;
+import com.testehan.finana.service.filing.FilingSections;
+import com.testehan.finana.util.RequestPriority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutorService;
 
 @Service
 public class SecFilingService {
     private static final Logger LOGGER = LoggerFactory.getLogger(SecFilingService.class);
+    private static final Set<String> ANNUAL_FORMS = Set.of("10-K", "20-F");
+    private static final Set<String> QUARTERLY_FORMS = Set.of("10-Q", "6-K");
 
     private final SecFilingUrlsRepository secFilingUrlsRepository;
     private final SecFilingRepository secFilingRepository;
     private final FMPService fmpService;
+    private final EdgarFilingFetcher edgarFilingFetcher;
+    private final Scheduler filingScheduler;
 
-    public SecFilingService(SecFilingUrlsRepository secFilingUrlsRepository, SecFilingRepository secFilingRepository, FMPService fmpService) {
+    public SecFilingService(SecFilingUrlsRepository secFilingUrlsRepository, SecFilingRepository secFilingRepository, FMPService fmpService,
+                            EdgarFilingFetcher edgarFilingFetcher, @Qualifier("secFilingExecutor") ExecutorService secFilingExecutor) {
         this.secFilingUrlsRepository = secFilingUrlsRepository;
         this.secFilingRepository = secFilingRepository;
         this.fmpService = fmpService;
+        this.edgarFilingFetcher = edgarFilingFetcher;
+        this.filingScheduler = Schedulers.fromExecutorService(secFilingExecutor, "sec-filing");
     }
 
     public Mono<Void> fetchAndSaveSecFilings(String symbol) {
@@ -75,250 +87,158 @@ public class SecFilingService {
                 .then();
     }
 
+    /**
+     * Downloads the latest annual and quarterly filing of the symbol when their sections are missing. Both downloads
+     * run in parallel on virtual threads and are throttled by the SEC rate limiter shared with all other symbols.
+     */
     public Mono<Void> getAndSaveSecFilings(String symbol) {
-        return Mono.fromCallable(() -> secFilingUrlsRepository.findById(symbol))
-                .flatMap(secFilingsOptional -> {
-                    if (secFilingsOptional.isEmpty()) {
-                        LOGGER.warn("No SEC filings found for symbol: {}", symbol);
-                        return Mono.just(false);
-                    }
-
-                    SecFilingsUrls secFilings = secFilingsOptional.get();
-                    Optional<SecFiling> existingSecFilingOptional = secFilingRepository.findById(symbol);
-
-                    List<Mono<Void>> processingMonos = new ArrayList<>();
-
-                    Optional<SecFilingUrlData> latest10K = secFilings.getFilings().stream()
-                            .filter(filing -> "10-K".equals(filing.getFormType()) || "20-F".equals(filing.getFormType()))
-                            .max(Comparator.comparing(SecFilingUrlData::getFilingDate));
-
-                    latest10K.ifPresent(filing -> {
-                        if (shouldReprocess10K(existingSecFilingOptional, filing)) {
-                            processingMonos.add(Mono.fromRunnable(() -> 
-                                getAndSaveSecFiling(symbol, filing.getFinalLink(), filing.getFormType(), filing.getFilingDate()))
-                            );
+        return Mono.deferContextual(context -> {
+            RequestPriority priority = RequestPriority.from(context);
+            return Mono.fromCallable(() -> secFilingUrlsRepository.findById(symbol))
+                    .subscribeOn(filingScheduler)
+                    .flatMap(secFilingsOptional -> {
+                        if (secFilingsOptional.isEmpty()) {
+                            LOGGER.warn("No SEC filings found for symbol: {}", symbol);
+                            return Mono.empty();
                         }
-                    });
 
-                    Optional<SecFilingUrlData> latest10Q = secFilings.getFilings().stream()
-                            .filter(filing -> "10-Q".equals(filing.getFormType()) || "6-K".equals(filing.getFormType()))
-                            .max(Comparator.comparing(SecFilingUrlData::getFilingDate));
-
-                    latest10Q.ifPresent(filing -> {
-                        if (shouldReprocess10Q(existingSecFilingOptional, filing)) {
-                            processingMonos.add(Mono.fromRunnable(() -> 
-                                getAndSaveSecFiling(symbol, filing.getFinalLink(), filing.getFormType(), filing.getFilingDate()))
-                            );
+                        SecFilingsUrls secFilings = secFilingsOptional.get();
+                        Optional<SecFiling> existingSecFilingOptional = secFilingRepository.findById(symbol);
+
+                        List<Mono<DownloadedFiling>> downloads = new ArrayList<>();
+                        latestFiling(secFilings, ANNUAL_FORMS)
+                                .filter(filing -> shouldReprocess10K(existingSecFilingOptional, filing))
+                                .ifPresent(filing -> downloads.add(download(symbol, filing,
+                                        existingTenK(existingSecFilingOptional, filing), priority)));
+                        latestFiling(secFilings, QUARTERLY_FORMS)
+                                .filter(filing -> shouldReprocess10Q(existingSecFilingOptional, filing))
+                                .ifPresent(filing -> downloads.add(download(symbol, filing,
+                                        existingTenQ(existingSecFilingOptional, filing), priority)));
+
+                        if (downloads.isEmpty()) {
+                            return Mono.empty();
                         }
+                        // saved together, two parallel read-modify-write cycles on the same document would lose one
+                        return Flux.merge(downloads)
+                                .collectList()
+                                .filter(filings -> !filings.isEmpty())
+                                .flatMap(filings -> Mono.fromRunnable(() -> saveFilings(symbol, filings))
+                                        .subscribeOn(filingScheduler));
                     });
-
-                    if (processingMonos.isEmpty()) {
-                        return Mono.just(true);
-                    }
-                    return Mono.when(processingMonos).then(Mono.just(true));
-                })
-                .then();
+        }).then();
     }
 
-    private void processLatestFiling(SecFilingsUrls secFilings, Optional<SecFiling> existingSecFilingOptional, 
-                                     String symbol, java.util.function.Predicate<SecFilingUrlData> filter,
-                                     java.util.function.BiPredicate<Optional<SecFiling>, SecFilingUrlData> shouldReprocess) {
-        Optional<SecFilingUrlData> latestFiling = secFilings.getFilings().stream()
-                .filter(filter)
+    private static Optional<SecFilingUrlData> latestFiling(SecFilingsUrls secFilings, Set<String> formTypes) {
+        return secFilings.getFilings().stream()
+                .filter(filing -> formTypes.contains(filing.getFormType()))
                 .max(Comparator.comparing(SecFilingUrlData::getFilingDate));
-
-        latestFiling.ifPresent(filing -> {
-            if (shouldReprocess.test(existingSecFilingOptional, filing)) {
-                getAndSaveSecFiling(symbol, filing.getFinalLink(), filing.getFormType(), filing.getFilingDate());
-            }
-        });
     }
 
     private boolean shouldReprocess10K(Optional<SecFiling> existingSecFilingOptional, SecFilingUrlData filing) {
-        if (existingSecFilingOptional.isPresent() && Objects.nonNull(existingSecFilingOptional.get().getTenKFilings())) {
-            Optional<TenKFilings> existing10K = existingSecFilingOptional.get().getTenKFilings().stream()
-                    .filter(tenK -> tenK.getFiledAt().equals(filing.getFilingDate()))
-                    .findFirst();
-            if (existing10K.isPresent()) {
-                TenKFilings tenK = existing10K.get();
-                return tenK.getBusinessDescription() == null || tenK.getRiskFactors() == null || tenK.getManagementDiscussion() == null;
-            }
-        }
-        return true;
+        return existingTenK(existingSecFilingOptional, filing)
+                .map(tenK -> tenK.getBusinessDescription() == null || tenK.getRiskFactors() == null || tenK.getManagementDiscussion() == null)
+                .orElse(true);
     }
 
     private boolean shouldReprocess10Q(Optional<SecFiling> existingSecFilingOptional, SecFilingUrlData filing) {
-        if (existingSecFilingOptional.isPresent() && Objects.nonNull(existingSecFilingOptional.get().getTenQFilings())) {
-            Optional<TenQFilings> existing10Q = existingSecFilingOptional.get().getTenQFilings().stream()
-                    .filter(tenQ -> tenQ.getFiledAt().equals(filing.getFilingDate()))
-                    .findFirst();
-            if (existing10Q.isPresent()) {
-                TenQFilings tenQ = existing10Q.get();
-                return tenQ.getRiskFactors() == null || tenQ.getManagementDiscussion() == null;
-            }
-        }
-        return true;
+        return existingTenQ(existingSecFilingOptional, filing)
+                .map(tenQ -> tenQ.getRiskFactors() == null || tenQ.getManagementDiscussion() == null)
+                .orElse(true);
     }
 
-    private void getAndSaveSecFiling(String symbol, String finalLink, String formType, String filingDate) {
-        try {
-            Document doc = Jsoup.connect(finalLink)
-                    .userAgent("CasaMia.ai admin@casamia.ai")
-                    .maxBodySize(0)
-                    .timeout(30 * 1000)
-                    .get();
-            String fullText = doc.text();
-
-            if (fullText.isEmpty()) {
-                LOGGER.error("Could not fetch filing text for URL: {}", finalLink);
-                return;
-            }
-
-            LOGGER.info("Document fetched for symbol '{}'. Total length: {} characters.", symbol, fullText.length());
-
-            String businessDescription = null;
-            String riskFactors = null;
-            String managementDiscussion = null;
-
-            if ("10-K".equals(formType)) {
-                businessDescription = extractSection(fullText, "Item\\s+1[:.]\\s+Business", "Item\\s+1A[:.]\\s+Risk", 1000);
-                riskFactors = extractSection(fullText, "Item\\s+1A[:.]\\s+Risk", "Item\\s+1B[:.]\\s+Unresolved|Item\\s+2[:.]\\s+Properties", 1000);
-                managementDiscussion = extractSection(fullText, "Item\\s+7[:.]\\s+Management", "Item\\s+7A[:.]\\s+Quantitative", 1000);
-            } else if ("20-F".equals(formType)) {
-                businessDescription = extract20FBusiness(fullText);
-                managementDiscussion = extract20FMDA(fullText);
-                riskFactors = extract20FRiskFactors(fullText);
-            } else if ("10-Q".equals(formType)) {
-                riskFactors = extractSection(fullText, "Item\\s+1A[:.]\\s+Risk", "Item\\s+2[:.]\\s+Unregistered", 150);
-                managementDiscussion = extractSection(fullText, "Item\\s+2[:.]\\s+Management", "Item\\s+3[:.]\\s+Quantitative", 500);
-            }
-
-            saveFiling(symbol, formType, finalLink, filingDate, businessDescription, riskFactors, managementDiscussion);
-            LOGGER.info("Successfully saved SEC filing for symbol: {}", symbol);
-
-        } catch (Exception e) {
-            LOGGER.error("Error processing SEC filing for symbol: " + symbol, e);
-        }
+    private static Optional<TenKFilings> existingTenK(Optional<SecFiling> existingSecFilingOptional, SecFilingUrlData filing) {
+        return existingSecFilingOptional
+                .map(SecFiling::getTenKFilings)
+                .flatMap(tenKs -> tenKs.stream().filter(tenK -> filing.getFilingDate().equals(tenK.getFiledAt())).findFirst());
     }
 
-    private String extract20FBusiness(String fullText) {
-        return extractSection(fullText,
-                "(?i)ITEM[\\s\\u00A0]+4[\\s\\u00A0]*[.:]?[\\s\\u00A0]*INFORMATION[\\s\\u00A0]+ON[\\s\\u00A0]+(?:THE[\\s\\u00A0]+)?COMPANY",
-                "(?i)ITEM[\\s\\u00A0]+(?:4A|5)[\\s\\u00A0]*[.:]",
-                2000);
+    private static Optional<TenQFilings> existingTenQ(Optional<SecFiling> existingSecFilingOptional, SecFilingUrlData filing) {
+        return existingSecFilingOptional
+                .map(SecFiling::getTenQFilings)
+                .flatMap(tenQs -> tenQs.stream().filter(tenQ -> filing.getFilingDate().equals(tenQ.getFiledAt())).findFirst());
     }
 
-    private String extract20FMDA(String fullText) {
-        return extractSection(fullText,
-                "(?i)ITEM[\\s\\u00A0]+5[\\s\\u00A0]*[.:]?[\\s\\u00A0]*OPERATING[\\s\\u00A0]+AND[\\s\\u00A0]+FINANCIAL(?![^\\n]*\\.{3,})(?![^\\n]*[\"\"])",
-                "(?i)ITEM[\\s\\u00A0]+6[\\s\\u00A0]*[.:]",
-                2000);
+    // a failed download is only logged, like any other missing filing it is tried again on the next load
+    private Mono<DownloadedFiling> download(String symbol, SecFilingUrlData filing, Optional<?> previous,
+                                            RequestPriority priority) {
+        String etag = previous.map(SecFilingService::etag).orElse(null);
+        String lastModified = previous.map(SecFilingService::lastModified).orElse(null);
+        return Mono.fromCallable(() -> edgarFilingFetcher.fetch(filing.getFinalLink(), etag, lastModified, priority,
+                                body -> FilingSectionExtractor.extract(body, filing.getFormType())))
+                .subscribeOn(filingScheduler)
+                .flatMap(document -> {
+                    if (document.isEmpty()) {
+                        LOGGER.info("{} of {} filed {} is unchanged, keeping the stored sections",
+                                filing.getFormType(), symbol, filing.getFilingDate());
+                        return Mono.empty();
+                    }
+                    FilingSections sections = document.get().content();
+                    LOGGER.info("Filing {} extracted for symbol '{}'. Business: {}, risk factors: {}, MD&A: {} characters.",
+                            filing.getFormType(), symbol, length(sections.businessDescription()),
+                            length(sections.riskFactors()), length(sections.managementDiscussion()));
+                    return Mono.just(new DownloadedFiling(filing, sections, document.get().etag(), document.get().lastModified()));
+                })
+                .onErrorResume(e -> {
+                    LOGGER.error("Error processing SEC filing {} for symbol: {}", filing.getFinalLink(), symbol, e);
+                    return Mono.empty();
+                });
     }
 
-    private String extract20FRiskFactors(String fullText) {
-        // Try multiple patterns for risk factors
-        String riskFactors = extractSection(fullText,
-                "(?i)(?:ITEM[\\s\\u00A0]+3[\\s\\u00A0]*[.:]?[\\s\\u00A0]*)?D[\\s\\u00A0]*[.:]?[\\s\\u00A0]*RISK[\\s\\u00A0]+FACTORS(?![^\\n]*\\.{3,})",
-                "(?i)(?:ITEM[\\s\\u00A0]+4[\\s\\u00A0]*[.:]|E[\\s\\u00A0]*[.:])",
-                2000);
-
-        if (riskFactors == null || riskFactors.trim().length() < 100) {
-            riskFactors = extractRiskFactorsFromItem3(fullText);
-        }
-
-        if (riskFactors == null || riskFactors.trim().length() < 100) {
-            riskFactors = extractSection(fullText,
-                    "(?i)(?:^|\\n)[\\s]*RISK[\\s\\u00A0]+FACTORS[\\s]*(?:$|\\n)(?![^\\n]*\\.{3,})",
-                    "(?i)ITEM[\\s\\u00A0]+(?:4|5)[\\s\\u00A0]*[.:]",
-                    2000);
-        }
-
-        return riskFactors;
+    private static String etag(Object stored) {
+        return stored instanceof TenKFilings tenK ? tenK.getEtag() : ((TenQFilings) stored).getEtag();
     }
 
-    private String extractRiskFactorsFromItem3(String fullText) {
-        String rawItem3 = extractSection(fullText,
-                "(?i)ITEM[\\s\\u00A0]+3[\\s\\u00A0]*[.:]?[\\s\\u00A0]*KEY[\\s\\u00A0]+INFORMATION(?![^\\n]*\\.{3,})",
-                "(?i)ITEM[\\s\\u00A0]+4[\\s\\u00A0]*[.:]",
-                2000);
-
-        if (rawItem3 != null && rawItem3.length() > 100) {
-            String upperRaw = rawItem3.toUpperCase();
-            int riskIndex = findRiskFactorsIndex(upperRaw);
-            if (riskIndex > 100) {
-                return rawItem3.substring(riskIndex);
-            }
-        }
-        return rawItem3;
+    private static String lastModified(Object stored) {
+        return stored instanceof TenKFilings tenK ? tenK.getLastModified() : ((TenQFilings) stored).getLastModified();
     }
 
-    private int findRiskFactorsIndex(String upperRaw) {
-        int riskIndex = upperRaw.indexOf("D.RISK FACTORS");
-        if (riskIndex == -1) riskIndex = upperRaw.indexOf("D. RISK FACTORS");
-
-        if (riskIndex == -1) {
-            int idx = upperRaw.indexOf("RISK FACTORS", 200);
-            if (idx > 200 && idx > 0) {
-                String before = upperRaw.substring(Math.max(0, idx - 20), idx);
-                if (before.contains("\n") || before.matches(".*[A-Z][\\s.]+$")) {
-                    riskIndex = idx;
-                }
-            }
-        }
-        return riskIndex;
+    private static int length(String section) {
+        return section != null ? section.length() : 0;
     }
 
-    private void saveFiling(String symbol, String formType, String finalLink, String filingDate,
-                           String businessDescription, String riskFactors, String managementDiscussion) {
+    private void saveFilings(String symbol, List<DownloadedFiling> filings) {
         SecFiling secFiling = secFilingRepository.findById(symbol).orElse(new SecFiling());
         secFiling.setSymbol(symbol);
 
-        if ("10-K".equals(formType) || "20-F".equals(formType)) {
-            TenKFilings tenKFilings = new TenKFilings();
-            tenKFilings.setBusinessDescription(businessDescription);
-            tenKFilings.setRiskFactors(riskFactors);
-            tenKFilings.setManagementDiscussion(managementDiscussion);
-            tenKFilings.setFiledAt(filingDate);
-            tenKFilings.setFilingUrl(finalLink);
-            if (secFiling.getTenKFilings() == null) {
-                secFiling.setTenKFilings(new ArrayList<>());
-            }
-            secFiling.getTenKFilings().add(tenKFilings);
-        } else if ("10-Q".equals(formType) || "6-K".equals(formType)) {
-            TenQFilings tenQFilings = new TenQFilings();
-            tenQFilings.setRiskFactors(riskFactors);
-            tenQFilings.setManagementDiscussion(managementDiscussion);
-            tenQFilings.setFiledAt(filingDate);
-            tenQFilings.setFilingUrl(finalLink);
-            if (secFiling.getTenQFilings() == null) {
-                secFiling.setTenQFilings(new ArrayList<>());
+        for (DownloadedFiling downloaded : filings) {
+            SecFilingUrlData filing = downloaded.filing();
+            FilingSections sections = downloaded.sections();
+            if (ANNUAL_FORMS.contains(filing.getFormType())) {
+                TenKFilings tenKFilings = new TenKFilings();
+                tenKFilings.setBusinessDescription(sections.businessDescription());
+                tenKFilings.setRiskFactors(sections.riskFactors());
+                tenKFilings.setManagementDiscussion(sections.managementDiscussion());
+                tenKFilings.setFiledAt(filing.getFilingDate());
+                tenKFilings.setFilingUrl(filing.getFinalLink());
+                tenKFilings.setEtag(downloaded.etag());
+                tenKFilings.setLastModified(downloaded.lastModified());
+                if (secFiling.getTenKFilings() == null) {
+                    secFiling.setTenKFilings(new ArrayList<>());
+                }
+                // a reprocessed filing replaces its earlier, incomplete entry
+                secFiling.getTenKFilings().removeIf(tenK -> filing.getFilingDate().equals(tenK.getFiledAt()));
+                secFiling.getTenKFilings().add(tenKFilings);
+            } else if (QUARTERLY_FORMS.contains(filing.getFormType())) {
+                TenQFilings tenQFilings = new TenQFilings();
+                tenQFilings.setRiskFactors(sections.riskFactors());
+                tenQFilings.setManagementDiscussion(sections.managementDiscussion());
+                tenQFilings.setFiledAt(filing.getFilingDate());
+                tenQFilings.setFilingUrl(filing.getFinalLink());
+                tenQFilings.setEtag(downloaded.etag());
+                tenQFilings.setLastModified(downloaded.lastModified());
+                if (secFiling.getTenQFilings() == null) {
+                    secFiling.setTenQFilings(new ArrayList<>());
+                }
+                secFiling.getTenQFilings().removeIf(tenQ -> filing.getFilingDate().equals(tenQ.getFiledAt()));
+                secFiling.getTenQFilings().add(tenQFilings);
             }
-            secFiling.getTenQFilings().add(tenQFilings);
         }
 
         secFilingRepository.save(secFiling);
+        LOGGER.info("Successfully saved {} SEC filings for symbol: {}", filings.size(), symbol);
     }
 
-    private String extractSection(String fullText, String startRegex, String endRegex, int minimumNrOfCharsExpectedInSection) {
-        Pattern startPattern = Pattern.compile(startRegex, Pattern.CASE_INSENSITIVE);
-        Pattern endPattern = Pattern.compile(endRegex, Pattern.CASE_INSENSITIVE);
-
-        Matcher startMatcher = startPattern.matcher(fullText);
-
-        while (startMatcher.find()) {
-            int startIndex = startMatcher.start();
-            Matcher endMatcher = endPattern.matcher(fullText);
-
-            if (endMatcher.find(startMatcher.end())) {
-                int endIndex = endMatcher.start();
-                String candidate = fullText.substring(startIndex, endIndex);
-
-                if (candidate.length() > minimumNrOfCharsExpectedInSection) {
-                    return candidate.trim();
-                }
-            }
-        }
-        return null;
+    private record DownloadedFiling(SecFilingUrlData filing, FilingSections sections, String etag, String lastModified) {
     }
 
     public void deleteSecFilings(String upperCaseSymbol) {
@@ -327,20 +247,10 @@ public class SecFilingService {
     }
 
     public boolean hasTenKFilings(String symbol) {
-        Optional<SecFiling> secFilingOptional = secFilingRepository.findBySymbol(symbol);
-        if (secFilingOptional.isPresent()) {
-            SecFiling secFiling = secFilingOptional.get();
-            return secFiling.getTenKFilings() != null && !secFiling.getTenKFilings().isEmpty();
-        }
-        return false;
+        return secFilingRepository.hasTenKFilings(symbol);
     }
 
     public boolean hasTenQFilings(String symbol) {
-        Optional<SecFiling> secFilingOptional = secFilingRepository.findBySymbol(symbol);
-        if (secFilingOptional.isPresent()) {
-            SecFiling secFiling = secFilingOptional.get();
-            return secFiling.getTenQFilings() != null && !secFiling.getTenQFilings().isEmpty();
-        }
-        return false;
+        return secFilingRepository.hasTenQFilings(symbol);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,140 @@
+package com.testehan.finana.service;
+
+import com.testehan.finana.model.finstatement.CashFlowData;
+import com.testehan.finana.model.finstatement.IncomeStatementData;
+import com.testehan.finana.model.finstatement.TtmData;
+import com.testehan.finana.model.finstatement.TtmReport;
+import com.testehan.finana.repository.TtmDataRepository;
+import com.testehan.finana.util.StatementValueHash;
+import com.testehan.finana.util.ttm.TtmAggregator;
+import com.testehan.finana.util.ttm.TtmQuarter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The trailing twelve month series of a symbol, summed from its quarterly income statements and cash flows and
+ * stored in {@code ttm_statements}. When the statements only gained quarters, just the twelve months ending with the
+ * new quarters are summed and appended; restated quarters recompute the whole series.
+ */
+@Service
+public class TtmService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TtmService.class);
+
+    private static final String REPORTS = "reports";
+
+    private final FinancialStatementService financialStatementService;
+    private final TtmDataRepository ttmDataRepository;
+    private final MongoTemplate mongoTemplate;
+
+    public TtmService(FinancialStatementService financialStatementService, TtmDataRepository ttmDataRepository, MongoTemplate mongoTemplate) {
+        this.financialStatementService = financialStatementService;
+        this.ttmDataRepository = ttmDataRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Mono<TtmData> getTtm(String symbol) {
+        return Mono.zip(financialStatementService.getIncomeStatements(symbol), financialStatementService.getCashFlow(symbol))
+                .map(tuple -> update(symbol, tuple.getT1(), tuple.getT2()));
+    }
+
+    TtmData update(String symbol, IncomeStatementData incomeStatementData, CashFlowData cashFlowData) {
+        Optional<TtmData> stored = ttmDataRepository.findBySymbol(symbol);
+        LocalDateTime statementsUpdated = latest(incomeStatementData.getLastUpdated(), cashFlowData.getLastUpdated());
+        if (stored.isPresent() && statementsUpdated != null && statementsUpdated.equals(stored.get().getStatementsUpdated())) {
+            return stored.get();
+        }
+
+        List<TtmQuarter> quarters = TtmAggregator.quarters(incomeStatementData.getQuarterlyReports(), cashFlowData.getQuarterlyReports());
+        int firstNew = stored.map(data -> firstQuarterAfter(quarters, data.getLatestQuarter())).orElse(0);
+        if (stored.isPresent() && firstNew > 0 && sourceHash(quarters.subList(0, firstNew)).equals(stored.get().getSourceHash())) {
+            return append(stored.get(), quarters, firstNew, statementsUpdated);
+        }
+
+        TtmData data = stored.orElseGet(TtmData::new);
+        data.setSymbol(symbol);
+        data.setReports(TtmAggregator.series(quarters));
+        data.setSourceHash(sourceHash(quarters));
+        data.setLatestQuarter(latestQuarter(quarters));
+        data.setStatementsUpdated(statementsUpdated);
+        data.setLastUpdated(LocalDateTime.now());
+        LOGGER.debug("Summed {} trailing twelve month periods of {}", data.getReports().size(), symbol);
+        return ttmDataRepository.save(data);
+    }
+
+    /**
+     * Sums the twelve months ending with each new quarter, starting from the three quarters before the first new one.
+     */
+    private TtmData append(TtmData data, List<TtmQuarter> quarters, int firstNew, LocalDateTime statementsUpdated) {
+        TtmAggregator aggregator = new TtmAggregator();
+        quarters.subList(Math.max(0, firstNew - 3), firstNew).forEach(aggregator::add);
+        List<TtmReport> added = new ArrayList<>();
+        for (TtmQuarter quarter : quarters.subList(firstNew, quarters.size())) {
+            aggregator.add(quarter).ifPresent(added::addFirst);
+        }
+
+        data.setSourceHash(sourceHash(quarters));
+        data.setLatestQuarter(latestQuarter(quarters));
+        data.setStatementsUpdated(statementsUpdated);
+        data.setLastUpdated(LocalDateTime.now());
+        Update update = new Update()
+                .set("sourceHash", data.getSourceHash())
+                .set("latestQuarter", data.getLatestQuarter())
+                .set("statementsUpdated", statementsUpdated)
+                .set("lastUpdated", data.getLastUpdated());
+        if (!added.isEmpty()) {
+            update.push(REPORTS).sort(Sort.by(Sort.Direction.DESC, "date")).each(added.toArray());
+            List<TtmReport> reports = new ArrayList<>(added);
+            reports.addAll(data.getReports());
+            data.setReports(reports);
+            LOGGER.debug("Appended {} trailing twelve month periods of {}", added.size(), data.getSymbol());
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("symbol").is(data.getSymbol())), update, TtmData.class);
+        return data;
+    }
+
+    private static int firstQuarterAfter(List<TtmQuarter> quarters, String date) {
+        if (date == null) {
+            return 0;
+        }
+        for (int i = 0; i < quarters.size(); i++) {
+            if (quarters.get(i).date().compareTo(date) > 0) {
+                return i;
+            }
+        }
+        return quarters.size();
+    }
+
+    private static String latestQuarter(List<TtmQuarter> quarters) {
+        return quarters.isEmpty() ? null : quarters.getLast().date();
+    }
+
+    // the statement values of every quarter, so neither a refetch with new metadata nor a different decimal scale
+    // makes an unchanged history look restated
+    static String sourceHash(List<TtmQuarter> quarters) {
+        StatementValueHash hash = new StatementValueHash();
+        for (TtmQuarter quarter : quarters) {
+            hash.add("date", quarter.date()).add(quarter.income()).add(quarter.cashFlow());
+        }
+        return hash.sha256();
+    }
+
+    private static LocalDateTime latest(LocalDateTime first, LocalDateTime second) {
+        if (first == null || second == null) {
+            return first != null ? first : second;
+        }
+        return first.isAfter(second) ? first : second;
+    }
+}
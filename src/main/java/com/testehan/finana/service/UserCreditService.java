@@ -1,84 +1,170 @@
 package com.testehan.finana.service;
 
+import com.testehan.finana.exception.InsufficientCreditException;
 import com.testehan.finana.model.user.User;
-import com.testehan.finana.repository.UserRepository;
+import org.bson.types.Decimal128;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.Optional;
-
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Credit balance of the users. Every change is a single conditional $inc on the user document, so concurrent LLM
+ * calls of one user cannot overwrite each other's deductions. Balance checks are served from a short-lived
+ * in-process cache that is refreshed with the balance returned by every change.
+ */
 @Service
 public class UserCreditService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserCreditService.class);
 
-    private final UserRepository userRepository;
+    private static final BigDecimal MINIMUM_CREDIT = new BigDecimal("0.01");
+
+    private final MongoTemplate mongoTemplate;
+    private final long balanceCacheNanos;
+    private final Map<String, CachedBalance> balances = new ConcurrentHashMap<>();
 
-    public UserCreditService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public UserCreditService(MongoTemplate mongoTemplate,
+                             @Value("${app.credit.balance-cache-ms:5000}") long balanceCacheMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.balanceCacheNanos = TimeUnit.MILLISECONDS.toNanos(balanceCacheMs);
     }
 
     public BigDecimal getCredit(String userEmail) {
-        return userRepository.findByEmail(userEmail)
-                .map(User::getCredit)
-                .orElse(BigDecimal.ZERO);
+        long now = System.nanoTime();
+        CachedBalance cached = balances.get(userEmail);
+        if (cached != null && now - cached.loadedAt() < balanceCacheNanos) {
+            return cached.credit();
+        }
+        Query query = byEmail(userEmail);
+        query.fields().include("credit");
+        User user = mongoTemplate.findOne(query, User.class);
+        BigDecimal credit = user != null && user.getCredit() != null ? user.getCredit() : BigDecimal.ZERO;
+        if (user != null) {
+            balances.put(userEmail, new CachedBalance(credit, now));
+        }
+        return credit;
     }
 
     public boolean hasEnoughCredit(String userEmail, BigDecimal amount) {
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
-        if (userOpt.isEmpty()) {
-            return false;
-        }
-        BigDecimal currentCredit = userOpt.get().getCredit();
-        return currentCredit != null && currentCredit.compareTo(amount) >= 0;
+        return getCredit(userEmail).compareTo(amount) >= 0;
     }
 
     public boolean hasAnyCredit(String userEmail) {
-        return hasEnoughCredit(userEmail, new BigDecimal("0.01"));
+        return hasEnoughCredit(userEmail, MINIMUM_CREDIT);
     }
 
-    public void deductCredit(String userEmail, BigDecimal amount) {
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
-        if (userOpt.isEmpty()) {
+    /**
+     * Deducts the amount if the balance covers it, otherwise the balance drops to zero. Returns false in the
+     * latter case or when the user does not exist.
+     */
+    public boolean deductCredit(String userEmail, BigDecimal amount) {
+        User user = mongoTemplate.findAndModify(
+                byEmail(userEmail).addCriteria(Criteria.where("credit").gte(new Decimal128(amount))),
+                new Update().inc("credit", new Decimal128(amount.negate())),
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+        if (user != null) {
+            cache(userEmail, user);
+            logger.info("Deducted ${} from user {}. New balance: ${}", amount, userEmail, user.getCredit());
+            return true;
+        }
+
+        User drained = mongoTemplate.findAndModify(
+                byEmail(userEmail).addCriteria(Criteria.where("credit").lt(new Decimal128(amount))),
+                new Update().set("credit", new Decimal128(BigDecimal.ZERO)),
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+        if (drained == null) {
             logger.warn("Cannot deduct credit: user not found for email {}", userEmail);
-            return;
+            return false;
         }
+        cache(userEmail, drained);
+        logger.warn("User {} has insufficient credit for ${}, balance set to $0", userEmail, amount);
+        return false;
+    }
 
-        User user = userOpt.get();
-        BigDecimal currentCredit = user.getCredit();
-        if (currentCredit == null) {
-            currentCredit = BigDecimal.ZERO;
+    public void refundCredit(String userEmail, BigDecimal amount) {
+        User user = mongoTemplate.findAndModify(
+                byEmail(userEmail),
+                new Update().inc("credit", new Decimal128(amount)),
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+        if (user == null) {
+            logger.warn("Cannot refund credit: user not found for email {}", userEmail);
+            return;
         }
+        cache(userEmail, user);
+        logger.info("Refunded ${} to user {}. New balance: ${}", amount, userEmail, user.getCredit());
+    }
 
-        BigDecimal newCredit = currentCredit.subtract(amount);
-        if (newCredit.compareTo(BigDecimal.ZERO) < 0) {
-            newCredit = BigDecimal.ZERO;
+    /**
+     * Holds the estimated cost of a call before it is made, so parallel calls cannot together spend more than the
+     * balance. When the balance does not cover the estimate, what is left of it is held instead.
+     *
+     * @throws InsufficientCreditException if there is no balance left to hold
+     */
+    public CreditReservation reserve(String userEmail, BigDecimal estimate) {
+        User user = mongoTemplate.findAndModify(
+                byEmail(userEmail).addCriteria(Criteria.where("credit").gte(new Decimal128(estimate))),
+                new Update().inc("credit", new Decimal128(estimate.negate())),
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+        if (user != null) {
+            cache(userEmail, user);
+            return new CreditReservation(userEmail, estimate);
         }
-        user.setCredit(newCredit);
-        userRepository.save(user);
 
-        logger.info("Deducted ${} from user {}. New balance: ${}", amount, userEmail, newCredit);
+        // the balance before it was drained is what this call holds
+        User drained = mongoTemplate.findAndModify(
+                byEmail(userEmail).addCriteria(Criteria.where("credit").gt(new Decimal128(BigDecimal.ZERO))
+                        .lt(new Decimal128(estimate))),
+                new Update().set("credit", new Decimal128(BigDecimal.ZERO)),
+                FindAndModifyOptions.options().returnNew(false),
+                User.class);
+        balances.put(userEmail, new CachedBalance(BigDecimal.ZERO, System.nanoTime()));
+        if (drained == null) {
+            throw new InsufficientCreditException("Insufficient credit. Current balance: $0");
+        }
+        logger.info("Reserved the remaining ${} of user {} for a call estimated at ${}", drained.getCredit(), userEmail, estimate);
+        return new CreditReservation(userEmail, drained.getCredit());
     }
 
-    public void refundCredit(String userEmail, BigDecimal amount) {
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
-        if (userOpt.isEmpty()) {
-            logger.warn("Cannot refund credit: user not found for email {}", userEmail);
-            return;
+    // charges the actual cost of a reserved call, the difference to the held amount is refunded or deducted
+    public void settle(CreditReservation reservation, BigDecimal actualCost) {
+        BigDecimal difference = actualCost.subtract(reservation.amount());
+        int sign = difference.signum();
+        if (sign > 0) {
+            deductCredit(reservation.userEmail(), difference);
+        } else if (sign < 0) {
+            refundCredit(reservation.userEmail(), difference.negate());
         }
+    }
 
-        User user = userOpt.get();
-        BigDecimal currentCredit = user.getCredit();
-        if (currentCredit == null) {
-            currentCredit = BigDecimal.ZERO;
+    public void release(CreditReservation reservation) {
+        if (reservation.amount().signum() > 0) {
+            refundCredit(reservation.userEmail(), reservation.amount());
         }
+    }
 
-        BigDecimal newCredit = currentCredit.add(amount);
-        user.setCredit(newCredit);
-        userRepository.save(user);
+    private void cache(String userEmail, User user) {
+        balances.put(userEmail, new CachedBalance(user.getCredit(), System.nanoTime()));
+    }
+
+    private static Query byEmail(String userEmail) {
+        return new Query(Criteria.where("email").is(userEmail));
+    }
 
-        logger.info("Refunded ${} to user {}. New balance: ${}", amount, userEmail, newCredit);
+    private record CachedBalance(BigDecimal credit, long loadedAt) {
     }
-}
\ No newline at end of file
+}
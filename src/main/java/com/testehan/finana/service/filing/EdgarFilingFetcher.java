@@ -0,0 +1,191 @@
+package com.testehan.finana.service.filing;
+
+import com.testehan.finana.util.RateLimitingExchangeFilter;
+import com.testehan.finana.util.RequestPriority;
+import com.testehan.finana.util.TokenBucketRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Downloads documents from EDGAR. Every request, including retries, takes a permit from the shared SEC rate limiter
+ * first, so all callers together stay within SEC's fair access limit. Documents are requested gzip encoded and
+ * conditionally when the validators of an earlier download are known. A 429 pauses the limiter for the
+ * {@code Retry-After}; 429, 5xx and I/O errors are retried with exponential backoff.
+ * <p>
+ * Calls block, they are meant to run on virtual threads.
+ */
+@Service
+public class EdgarFilingFetcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EdgarFilingFetcher.class);
+
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(Reader body) throws IOException;
+    }
+
+    /**
+     * The result of reading a downloaded document, with the validators to send when it is fetched again.
+     */
+    public record EdgarDocument<T>(T content, String etag, String lastModified) {
+    }
+
+    private final HttpClient httpClient;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final String userAgent;
+    private final Duration requestTimeout;
+    private final int maxRetries;
+    private final Duration baseBackoff;
+    private final Semaphore downloads;
+
+    @Autowired
+    public EdgarFilingFetcher(@Qualifier("secRateLimiter") TokenBucketRateLimiter rateLimiter,
+                              @Value("${sec.user-agent:CasaMia.ai admin@casamia.ai}") String userAgent,
+                              @Value("${sec.request-timeout-seconds:60}") long requestTimeoutSeconds,
+                              @Value("${sec.max-retries:3}") int maxRetries,
+                              @Value("${sec.base-backoff-ms:1000}") long baseBackoffMs,
+                              @Value("${sec.max-concurrent-downloads:20}") int maxConcurrentDownloads) {
+        this(HttpClient.newBuilder()
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .followRedirects(HttpClient.Redirect.NORMAL)
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .build(),
+                rateLimiter, userAgent, Duration.ofSeconds(requestTimeoutSeconds), maxRetries,
+                Duration.ofMillis(baseBackoffMs), maxConcurrentDownloads);
+    }
+
+    EdgarFilingFetcher(HttpClient httpClient, TokenBucketRateLimiter rateLimiter, String userAgent, Duration requestTimeout,
+                       int maxRetries, Duration baseBackoff, int maxConcurrentDownloads) {
+        this.httpClient = httpClient;
+        this.rateLimiter = rateLimiter;
+        this.userAgent = userAgent;
+        this.requestTimeout = requestTimeout;
+        this.maxRetries = maxRetries;
+        this.baseBackoff = baseBackoff;
+        // bounds the documents being read at once, a slow reader holds its connection and its extracted text
+        this.downloads = new Semaphore(Math.max(1, maxConcurrentDownloads));
+    }
+
+    /**
+     * Downloads the document and hands its body to the reader. Returns empty when EDGAR answers 304 to the
+     * validators of the previous download.
+     */
+    public <T> Optional<EdgarDocument<T>> fetch(String url, String etag, String lastModified, RequestPriority priority,
+                                               BodyReader<T> reader) throws IOException, InterruptedException {
+        HttpRequest request = request(url, etag, lastModified);
+        downloads.acquire();
+        try {
+            for (int attempt = 0; ; attempt++) {
+                rateLimiter.acquire(priority).block();
+                Duration retryIn;
+                try {
+                    HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                    int status = response.statusCode();
+                    if (status == 200) {
+                        return Optional.of(read(response, reader));
+                    }
+                    response.body().close();
+                    if (status == 304) {
+                        LOGGER.debug("{} not modified", url);
+                        return Optional.empty();
+                    }
+                    if (status != 429 && status < 500 || attempt >= maxRetries) {
+                        throw new UnexpectedStatusException("EDGAR returned " + status + " for " + url);
+                    }
+                    retryIn = backoff(attempt);
+                    if (status == 429) {
+                        Duration retryAfter = RateLimitingExchangeFilter.parseRetryAfter(
+                                response.headers().firstValue("Retry-After").orElse(null));
+                        rateLimiter.pause(retryAfter != null ? retryAfter : baseBackoff);
+                        if (retryAfter != null && retryAfter.compareTo(retryIn) > 0) {
+                            retryIn = retryAfter;
+                        }
+                    }
+                    LOGGER.warn("EDGAR returned {} for {}, retrying in {} ms", status, url, retryIn.toMillis());
+                } catch (UnexpectedStatusException e) {
+                    throw e;
+                } catch (IOException e) {
+                    if (attempt >= maxRetries) {
+                        throw e;
+                    }
+                    retryIn = backoff(attempt);
+                    LOGGER.warn("Download of {} failed ({}), retrying in {} ms", url, e.toString(), retryIn.toMillis());
+                }
+                Thread.sleep(retryIn);
+            }
+        } finally {
+            downloads.release();
+        }
+    }
+
+    private HttpRequest request(String url, String etag, String lastModified) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("User-Agent", userAgent)
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            builder.header("If-Modified-Since", lastModified);
+        }
+        return builder.build();
+    }
+
+    private <T> EdgarDocument<T> read(HttpResponse<InputStream> response, BodyReader<T> reader) throws IOException {
+        InputStream body = response.body();
+        if (response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent()) {
+            body = new GZIPInputStream(body, 64 * 1024);
+        }
+        try (Reader text = new InputStreamReader(body, charset(response))) {
+            return new EdgarDocument<>(reader.read(text),
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null));
+        }
+    }
+
+    private static Charset charset(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index >= 0) {
+            try {
+                return Charset.forName(contentType.substring(index + 8).replace("\"", "").trim());
+            } catch (IllegalArgumentException e) {
+                LOGGER.debug("Unknown charset in {}", contentType);
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private Duration backoff(int attempt) {
+        return baseBackoff.multipliedBy(1L << attempt);
+    }
+
+    private static final class UnexpectedStatusException extends IOException {
+        UnexpectedStatusException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.testehan.finana.service.filing;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the business, risk factors and MD&A sections of a 10-K, 10-Q or 20-F in one pass over the HTML.
+ * <p>
+ * The text lines of the filing are fed through a state machine that recognises "Item N. Title" headings at the
+ * start of a line. A section runs from its heading to the next item heading and is kept only when it is longer than
+ * the minimum for the form, which skips the entries of the table of contents. Memory is bounded by the sections
+ * being kept, not by the size of the filing.
+ */
+public final class FilingSectionExtractor {
+
+    private static final Pattern ITEM_HEADING = Pattern.compile(
+            "^(?:PART\\s+[IV]+\\s*[.,:\\-\\u2013\\u2014]?\\s*)?ITEM\\s*(\\d{1,2}[A-D]?)\\b\\s*[.:\\-\\u2013\\u2014]?\\s*(.*)$", Pattern.CASE_INSENSITIVE);
+    // 20-F risk factors are sub-section D of Item 3
+    private static final Pattern RISK_FACTORS_HEADING = Pattern.compile(
+            "^(?:\\d\\s*\\.\\s*)?(?:D\\s*[.:]?\\s*)?RISK\\s+FACTORS\\.?$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NEXT_SUB_SECTION = Pattern.compile("^E\\s*\\.\\s+[A-Z][^.]*$");
+    private static final int MAX_HEADING_CHARS = 200;
+    private static final int MIN_20F_RISK_FACTORS = 2000;
+
+    private enum Section { BUSINESS, RISK_FACTORS, MANAGEMENT_DISCUSSION, KEY_INFORMATION }
+
+    private record SectionRule(Section section, String item, String titlePrefix, int minimumLength) {
+    }
+
+    private static final Map<String, List<SectionRule>> RULES = Map.of(
+            "10-K", List.of(
+                    new SectionRule(Section.BUSINESS, "1", "BUSINESS", 1000),
+                    new SectionRule(Section.RISK_FACTORS, "1A", "RISK", 1000),
+                    new SectionRule(Section.MANAGEMENT_DISCUSSION, "7", "MANAGEMENT", 1000)),
+            "10-Q", List.of(
+                    new SectionRule(Section.RISK_FACTORS, "1A", "RISK", 150),
+                    new SectionRule(Section.MANAGEMENT_DISCUSSION, "2", "MANAGEMENT", 500)),
+            "20-F", List.of(
+                    new SectionRule(Section.KEY_INFORMATION, "3", "KEY INFORMATION", 2000),
+                    new SectionRule(Section.BUSINESS, "4", "INFORMATION ON", 2000),
+                    new SectionRule(Section.MANAGEMENT_DISCUSSION, "5", "OPERATING AND FINANCIAL", 2000)));
+
+    private final List<SectionRule> rules;
+    private final boolean twentyF;
+    private final Map<Section, String> found = new EnumMap<>(Section.class);
+
+    private SectionRule activeRule;
+    private StringBuilder active;
+    private String pendingItem;
+    private String pendingHeading;
+    private StringBuilder riskFactors;
+
+    private FilingSectionExtractor(String formType) {
+        this.rules = RULES.getOrDefault(formType, List.of());
+        this.twentyF = "20-F".equals(formType);
+    }
+
+    public static boolean supports(String formType) {
+        return RULES.containsKey(formType);
+    }
+
+    public static FilingSections extract(Reader html, String formType) throws IOException {
+        FilingSectionExtractor extractor = new FilingSectionExtractor(formType);
+        if (!extractor.rules.isEmpty()) {
+            HtmlTextLines.read(html, extractor::onLine);
+            extractor.finish();
+        }
+        return extractor.sections();
+    }
+
+    private void onLine(String line) {
+        if (pendingItem != null) {
+            // the heading number and its title sat in separate blocks
+            String item = pendingItem;
+            pendingItem = null;
+            if (line.length() <= MAX_HEADING_CHARS && startsWithUpperCase(line)) {
+                startSection(item, line);
+                append(active, pendingHeading);
+            }
+        }
+
+        Matcher heading = line.length() <= MAX_HEADING_CHARS
+                && (line.regionMatches(true, 0, "ITEM", 0, 4) || line.regionMatches(true, 0, "PART", 0, 4))
+                ? ITEM_HEADING.matcher(line) : null;
+        if (heading != null && heading.matches() && (heading.group(2).isEmpty() || startsWithUpperCase(heading.group(2)))) {
+            closeRiskFactors();
+            closeSection();
+            if (heading.group(2).isEmpty()) {
+                pendingItem = heading.group(1).toUpperCase(Locale.ROOT);
+                pendingHeading = line;
+            } else {
+                startSection(heading.group(1).toUpperCase(Locale.ROOT), heading.group(2));
+            }
+        } else if (twentyF) {
+            onTwentyFLine(line);
+        }
+
+        append(active, line);
+        append(riskFactors, line);
+    }
+
+    private void onTwentyFLine(String line) {
+        if (line.length() > MAX_HEADING_CHARS) {
+            return;
+        }
+        if (riskFactors != null && NEXT_SUB_SECTION.matcher(line).matches()) {
+            closeRiskFactors();
+        } else if (!found.containsKey(Section.RISK_FACTORS) && RISK_FACTORS_HEADING.matcher(line).matches()) {
+            closeRiskFactors();
+            riskFactors = new StringBuilder();
+        }
+    }
+
+    private void startSection(String item, String title) {
+        String upperTitle = title.toUpperCase(Locale.ROOT);
+        for (SectionRule rule : rules) {
+            if (rule.item().equals(item) && upperTitle.startsWith(rule.titlePrefix()) && !found.containsKey(rule.section())
+                    && !(rule.section() == Section.KEY_INFORMATION && found.containsKey(Section.RISK_FACTORS))) {
+                activeRule = rule;
+                active = new StringBuilder();
+                return;
+            }
+        }
+    }
+
+    private void closeSection() {
+        if (active != null && active.length() > activeRule.minimumLength()) {
+            found.put(activeRule.section(), active.toString().trim());
+        }
+        activeRule = null;
+        active = null;
+    }
+
+    private void closeRiskFactors() {
+        if (riskFactors != null && riskFactors.length() > MIN_20F_RISK_FACTORS) {
+            found.put(Section.RISK_FACTORS, riskFactors.toString().trim());
+            if (activeRule != null && activeRule.section() == Section.KEY_INFORMATION) {
+                // Item 3 is only the fallback for risk factors, no need to keep collecting it
+                activeRule = null;
+                active = null;
+            }
+        }
+        riskFactors = null;
+    }
+
+    private void finish() {
+        closeRiskFactors();
+        closeSection();
+    }
+
+    private FilingSections sections() {
+        String risk = found.containsKey(Section.RISK_FACTORS)
+                ? found.get(Section.RISK_FACTORS) : found.get(Section.KEY_INFORMATION);
+        return new FilingSections(found.get(Section.BUSINESS), risk, found.get(Section.MANAGEMENT_DISCUSSION));
+    }
+
+    private static void append(StringBuilder section, String line) {
+        if (section != null) {
+            section.append(line).append('\n');
+        }
+    }
+
+    private static boolean startsWithUpperCase(String text) {
+        return !text.isEmpty() && Character.isUpperCase(text.charAt(0));
+    }
+}
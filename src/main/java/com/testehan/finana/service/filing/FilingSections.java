@@ -0,0 +1,7 @@
+package com.testehan.finana.service.filing;
+
+/**
+ * The narrative sections taken from a filing, null where the form has no such section or it was not found.
+ */
+public record FilingSections(String businessDescription, String riskFactors, String managementDiscussion) {
+}
@@ -0,0 +1,192 @@
+package com.testehan.finana.service.filing;
+
+import org.jsoup.parser.Parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Turns an HTML stream into the visible text, one line per block element, without building a document. Only the
+ * current line and the current tag are held in memory. Table cells are joined with a space so that a row such as
+ * "Item 1. | Business | 3" stays on one line. Script, style and comment contents are skipped.
+ */
+final class HtmlTextLines {
+
+    private static final Set<String> BLOCK_TAGS = Set.of(
+            "p", "div", "br", "tr", "li", "ul", "ol", "table", "h1", "h2", "h3", "h4", "h5", "h6",
+            "pre", "hr", "title", "section", "article", "blockquote", "center", "dt", "dd", "body", "html");
+    private static final Set<String> CELL_TAGS = Set.of("td", "th");
+    private static final Set<String> RAW_TEXT_TAGS = Set.of("script", "style");
+
+    // a line this long is never a heading, it is handed on in pieces so one huge block cannot grow the buffer
+    private static final int MAX_LINE_CHARS = 64 * 1024;
+    // attributes of inline XBRL tags can be long, only the tag name is needed
+    private static final int MAX_TAG_CHARS = 64;
+
+    private final Consumer<String> lineConsumer;
+    private final StringBuilder text = new StringBuilder();
+    private final StringBuilder tag = new StringBuilder();
+    private int preDepth;
+
+    private HtmlTextLines(Consumer<String> lineConsumer) {
+        this.lineConsumer = lineConsumer;
+    }
+
+    static void read(Reader reader, Consumer<String> lineConsumer) throws IOException {
+        new HtmlTextLines(lineConsumer).tokenize(reader);
+    }
+
+    private enum State { TEXT, TAG, COMMENT, RAW_TEXT }
+
+    private void tokenize(Reader reader) throws IOException {
+        char[] buffer = new char[8192];
+        State state = State.TEXT;
+        int commentDashes = 0;
+        String rawTextEnd = null;
+        int rawTextMatched = 0;
+        int tagLength = 0;
+        boolean tagQuoted = false;
+        char quote = 0;
+
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                switch (state) {
+                    case TEXT -> {
+                        if (c == '<') {
+                            state = State.TAG;
+                            tag.setLength(0);
+                            tagLength = 0;
+                            tagQuoted = false;
+                        } else if (c == '\n' && preDepth > 0) {
+                            endLine();
+                        } else {
+                            text.append(c);
+                            if (text.length() > MAX_LINE_CHARS && Character.isWhitespace(c)) {
+                                endLine();
+                            }
+                        }
+                    }
+                    case TAG -> {
+                        if (tagLength == 0 && !Character.isLetter(c) && c != '/' && c != '!' && c != '?') {
+                            // a bare '<' in the text, as in "a < b"
+                            state = State.TEXT;
+                            text.append('<');
+                            if (c != '<') {
+                                text.append(c);
+                            } else {
+                                state = State.TAG;
+                            }
+                            continue;
+                        }
+                        if (tagQuoted) {
+                            tagQuoted = c != quote;
+                        } else if (c == '"' || c == '\'') {
+                            tagQuoted = tagLength > 0;
+                            quote = c;
+                        } else if (c == '>') {
+                            state = State.TEXT;
+                            String name = onTag();
+                            if (name != null && RAW_TEXT_TAGS.contains(name)) {
+                                state = State.RAW_TEXT;
+                                rawTextEnd = "</" + name;
+                                rawTextMatched = 0;
+                            }
+                            continue;
+                        }
+                        tagLength++;
+                        if (tag.length() < MAX_TAG_CHARS) {
+                            tag.append(c);
+                        }
+                        if (tagLength == 3 && "!--".contentEquals(tag)) {
+                            state = State.COMMENT;
+                            commentDashes = 0;
+                        }
+                    }
+                    case COMMENT -> {
+                        if (c == '>' && commentDashes >= 2) {
+                            state = State.TEXT;
+                        }
+                        commentDashes = c == '-' ? commentDashes + 1 : 0;
+                    }
+                    case RAW_TEXT -> {
+                        if (rawTextMatched == rawTextEnd.length()) {
+                            if (c == '>') {
+                                state = State.TEXT;
+                            }
+                        } else if (Character.toLowerCase(c) == rawTextEnd.charAt(rawTextMatched)) {
+                            rawTextMatched++;
+                        } else {
+                            rawTextMatched = c == '<' ? 1 : 0;
+                        }
+                    }
+                }
+            }
+        }
+        endLine();
+    }
+
+    /**
+     * Applies the tag that was just closed with '>' and returns its lower-case name, or null for declarations
+     * and processing instructions.
+     */
+    private String onTag() {
+        boolean closing = tag.length() > 0 && tag.charAt(0) == '/';
+        int start = closing ? 1 : 0;
+        int end = start;
+        while (end < tag.length() && isNameChar(tag.charAt(end))) {
+            end++;
+        }
+        if (end == start) {
+            return null;
+        }
+        String name = tag.substring(start, end).toLowerCase(Locale.ROOT);
+        if (BLOCK_TAGS.contains(name)) {
+            endLine();
+            if (name.equals("pre")) {
+                preDepth = Math.max(0, preDepth + (closing ? -1 : 1));
+            }
+        } else if (CELL_TAGS.contains(name)) {
+            text.append(' ');
+        }
+        return closing ? null : name;
+    }
+
+    private void endLine() {
+        if (text.isEmpty()) {
+            return;
+        }
+        String line = normalize(text.indexOf("&") >= 0 ? Parser.unescapeEntities(text.toString(), false) : text);
+        text.setLength(0);
+        if (!line.isEmpty()) {
+            lineConsumer.accept(line);
+        }
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == ':' || c == '-' || c == '_';
+    }
+
+    // collapses every whitespace run, including non-breaking spaces, into one space
+    private static String normalize(CharSequence raw) {
+        StringBuilder line = new StringBuilder(raw.length());
+        boolean space = false;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                space = !line.isEmpty();
+            } else {
+                if (space) {
+                    line.append(' ');
+                    space = false;
+                }
+                line.append(c);
+            }
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.testehan.finana.service.ingestion;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput and ETA of a running ingestion, measured over the tickers processed since this run (or resume) started.
+ */
+class IngestionProgress {
+
+    private final int total;
+    private final long startNanos;
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    IngestionProgress(int total) {
+        this(total, System.nanoTime());
+    }
+
+    IngestionProgress(int total, long startNanos) {
+        this.total = total;
+        this.startNanos = startNanos;
+    }
+
+    int recordSuccess() {
+        return processed.incrementAndGet();
+    }
+
+    int recordFailure() {
+        failed.incrementAndGet();
+        return processed.incrementAndGet();
+    }
+
+    int processed() {
+        return processed.get();
+    }
+
+    int failed() {
+        return failed.get();
+    }
+
+    int total() {
+        return total;
+    }
+
+    double tickersPerMinute(long nowNanos) {
+        long elapsed = nowNanos - startNanos;
+        if (elapsed <= 0 || processed.get() == 0) {
+            return 0;
+        }
+        return processed.get() * (double) Duration.ofMinutes(1).toNanos() / elapsed;
+    }
+
+    // null until the first ticker finished and there is a rate to extrapolate from
+    Duration remaining(long nowNanos) {
+        double perMinute = tickersPerMinute(nowNanos);
+        if (perMinute == 0) {
+            return null;
+        }
+        int left = Math.max(0, total - processed.get());
+        return Duration.ofMillis((long) (left / perMinute * Duration.ofMinutes(1).toMillis()));
+    }
+}
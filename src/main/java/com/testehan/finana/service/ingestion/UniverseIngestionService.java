@@ -0,0 +1,240 @@
+package com.testehan.finana.service.ingestion;
+
+import com.testehan.finana.model.CompanyOverview;
+import com.testehan.finana.model.ingestion.IngestionFailure;
+import com.testehan.finana.model.ingestion.IngestionRun;
+import com.testehan.finana.model.ingestion.IngestionRunStatus;
+import com.testehan.finana.model.ingestion.IngestionUniverse;
+import com.testehan.finana.model.user.UserStock;
+import com.testehan.finana.repository.CompanyOverviewRepository;
+import com.testehan.finana.repository.IngestionRunRepository;
+import com.testehan.finana.repository.UserStockRepository;
+import com.testehan.finana.service.FinancialDataOrchestrator;
+import com.testehan.finana.util.RequestPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs {@link FinancialDataOrchestrator#ensureFinancialDataIsPresent} over a whole universe of tickers with bounded
+ * concurrency. All FMP calls of a run go through the background lane of the FMP rate limiter, so interactive users
+ * are served first. Progress is checkpointed per ticker in ingestion_runs and runs interrupted by a restart resume
+ * once the application is ready.
+ */
+@Service
+public class UniverseIngestionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UniverseIngestionService.class);
+
+    private final FinancialDataOrchestrator financialDataOrchestrator;
+    private final IngestionRunRepository ingestionRunRepository;
+    private final CompanyOverviewRepository companyOverviewRepository;
+    private final UserStockRepository userStockRepository;
+    private final ResourceLoader resourceLoader;
+
+    private final Map<String, Disposable> activeRuns = new ConcurrentHashMap<>();
+
+    @Value("${app.ingestion.concurrency:4}")
+    private int concurrency;
+
+    @Value("${app.ingestion.ticker-timeout-minutes:10}")
+    private long tickerTimeoutMinutes;
+
+    @Value("${app.ingestion.progress-interval:25}")
+    private int progressInterval;
+
+    @Value("${app.ingestion.directory:classpath:universes/}")
+    private String directory;
+
+    public UniverseIngestionService(FinancialDataOrchestrator financialDataOrchestrator,
+                                    IngestionRunRepository ingestionRunRepository,
+                                    CompanyOverviewRepository companyOverviewRepository,
+                                    UserStockRepository userStockRepository,
+                                    ResourceLoader resourceLoader) {
+        this.financialDataOrchestrator = financialDataOrchestrator;
+        this.ingestionRunRepository = ingestionRunRepository;
+        this.companyOverviewRepository = companyOverviewRepository;
+        this.userStockRepository = userStockRepository;
+        this.resourceLoader = resourceLoader;
+    }
+
+    public IngestionRun start(IngestionUniverse universe, List<String> tickers, String location) {
+        IngestionRun run = new IngestionRun();
+        run.setUniverse(universe);
+        run.setLocation(location);
+        run.setTickers(resolveUniverse(universe, tickers, location));
+        run.setStatus(IngestionRunStatus.RUNNING);
+        run.setStartedAt(LocalDateTime.now());
+        run.setUpdatedAt(run.getStartedAt());
+        IngestionRun saved = ingestionRunRepository.save(run);
+
+        LOGGER.info("Starting ingestion run {} over {} tickers from {}", saved.getId(), saved.getTickers().size(), universe);
+        launch(saved);
+        return saved;
+    }
+
+    public Optional<IngestionRun> getRun(String id) {
+        return ingestionRunRepository.findById(id);
+    }
+
+    public Optional<IngestionRun> getLatestRun() {
+        return ingestionRunRepository.findFirstByOrderByStartedAtDesc();
+    }
+
+    public boolean cancel(String id) {
+        Disposable subscription = activeRuns.remove(id);
+        if (subscription == null) {
+            return false;
+        }
+        subscription.dispose();
+        ingestionRunRepository.finish(id, IngestionRunStatus.CANCELLED, LocalDateTime.now());
+        LOGGER.info("Cancelled ingestion run {}", id);
+        return true;
+    }
+
+    @Scheduled(cron = "${app.ingestion.nightly-cron:0 0 4 * * MON-FRI}", zone = "America/New_York")
+    public void refreshWatchlist() {
+        if (ingestionRunRepository.existsByUniverseAndStatus(IngestionUniverse.WATCHLIST, IngestionRunStatus.RUNNING)) {
+            LOGGER.info("Watchlist ingestion still running, skipping the nightly refresh.");
+            return;
+        }
+        start(IngestionUniverse.WATCHLIST, List.of(), null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRuns() {
+        for (IngestionRun run : ingestionRunRepository.findByStatus(IngestionRunStatus.RUNNING)) {
+            if (!activeRuns.containsKey(run.getId())) {
+                LOGGER.info("Resuming ingestion run {} with {} of {} tickers left",
+                        run.getId(), run.pendingTickers().size(), run.getTickers().size());
+                launch(run);
+            }
+        }
+    }
+
+    private void launch(IngestionRun run) {
+        String runId = run.getId();
+        List<String> pending = run.pendingTickers();
+        IngestionProgress progress = new IngestionProgress(pending.size());
+
+        // registered before subscribing so a run that finishes immediately does not leave a stale entry behind
+        Disposable.Swap subscription = Disposables.swap();
+        activeRuns.put(runId, subscription);
+        subscription.update(Flux.fromIterable(pending)
+                .flatMap(ticker -> ingest(runId, ticker, progress), concurrency)
+                .contextWrite(RequestPriority.background())
+                .doFinally(signal -> {
+                    activeRuns.remove(runId);
+                    reportProgress(runId, progress);
+                })
+                .then(Mono.fromRunnable(() -> {
+                    ingestionRunRepository.finish(runId, IngestionRunStatus.COMPLETED, LocalDateTime.now());
+                    LOGGER.info("Ingestion run {} finished: {} tickers processed, {} failed",
+                            runId, progress.processed(), progress.failed());
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .subscribe(null, error -> LOGGER.error("Ingestion run {} aborted", runId, error)));
+    }
+
+    private Mono<Void> ingest(String runId, String ticker, IngestionProgress progress) {
+        return financialDataOrchestrator.ensureFinancialDataIsPresent(ticker)
+                .timeout(Duration.ofMinutes(tickerTimeoutMinutes))
+                .then(Mono.fromRunnable(() -> {
+                    ingestionRunRepository.markCompleted(runId, ticker, LocalDateTime.now());
+                    onTickerDone(runId, progress, progress.recordSuccess());
+                }))
+                .onErrorResume(error -> Mono.fromRunnable(() -> {
+                    LOGGER.warn("Ingestion of {} failed: {}", ticker, error.toString());
+                    ingestionRunRepository.markFailed(runId, new IngestionFailure(ticker, error.toString(), LocalDateTime.now()), LocalDateTime.now());
+                    onTickerDone(runId, progress, progress.recordFailure());
+                }))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private void onTickerDone(String runId, IngestionProgress progress, int processed) {
+        if (processed % progressInterval == 0) {
+            reportProgress(runId, progress);
+        }
+    }
+
+    private void reportProgress(String runId, IngestionProgress progress) {
+        long now = System.nanoTime();
+        double perMinute = progress.tickersPerMinute(now);
+        Duration remaining = progress.remaining(now);
+        LocalDateTime eta = remaining != null ? LocalDateTime.now().plus(remaining) : null;
+        ingestionRunRepository.recordProgress(runId, perMinute, eta, LocalDateTime.now());
+        LOGGER.info("Ingestion run {}: {}/{} tickers, {} failed, {} tickers/min, ETA {}",
+                runId, progress.processed(), progress.total(), progress.failed(), String.format("%.1f", perMinute), eta);
+    }
+
+    List<String> resolveUniverse(IngestionUniverse universe, List<String> tickers, String location) {
+        Collection<String> symbols = switch (universe) {
+            case LIST -> tickers != null ? tickers : List.of();
+            case FILE -> readTickerFile(location);
+            case COMPANY_OVERVIEWS -> companyOverviewRepository.findAllSymbols().stream().map(CompanyOverview::getSymbol).toList();
+            case WATCHLIST -> userStockRepository.findAllStockIds().stream().map(UserStock::getStockId).toList();
+        };
+        return symbols.stream()
+                .filter(symbol -> symbol != null && !symbol.isBlank())
+                .map(symbol -> symbol.trim().toUpperCase())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    // one ticker per line or separated by commas, lines starting with # are comments
+    private List<String> readTickerFile(String location) {
+        if (location == null || location.isBlank()) {
+            throw new IllegalArgumentException("A FILE universe needs a location");
+        }
+        String base = directory.endsWith("/") ? directory : directory + "/";
+        Resource resource = resourceLoader.getResource(base + tickerFileName(location));
+        try {
+            String content = resource.getContentAsString(StandardCharsets.UTF_8);
+            return content.lines()
+                    .filter(line -> !line.trim().startsWith("#"))
+                    .flatMap(line -> Arrays.stream(line.split("[,\\s]+")))
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read ticker universe from " + location, e);
+        }
+    }
+
+    /**
+     * The location as a path inside the ingestion directory. Callers only name files of that directory, so URLs,
+     * absolute paths and paths leaving the directory are rejected.
+     */
+    static String tickerFileName(String location) {
+        if (location.contains(":") || location.contains("\\")) {
+            throw new IllegalArgumentException("Ticker universe " + location + " must be a file name inside the ingestion directory");
+        }
+        Path path = Path.of(location.trim()).normalize();
+        if (path.isAbsolute() || path.startsWith("..") || path.toString().isEmpty()) {
+            throw new IllegalArgumentException("Ticker universe " + location + " must be a file name inside the ingestion directory");
+        }
+        return path.toString();
+    }
+}
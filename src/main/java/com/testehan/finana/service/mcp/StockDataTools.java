@@ -458,16 +458,12 @@ public class StockDataTools {
     @Tool(name = "get_latest_sec_filing_annual", description = "Get the most recent SEC 10-K annual filing")
     public TenKFilings getLatestSecFilingAnnual(String ticker, ToolContext toolContext) {
         setTicker(ticker, toolContext);
-        var data = secFilingRepository.findBySymbol(ticker).orElse(null);
-        if (data == null || data.getTenKFilings() == null || data.getTenKFilings().isEmpty()) return null;
-        return data.getTenKFilings().get(0);
+        return secFilingRepository.findLatestTenKFiling(ticker).orElse(null);
     }
 
     @Tool(name = "get_latest_sec_filing_quarterly", description = "Get the most recent SEC 10-Q quarterly filing")
     public TenQFilings getLatestSecFilingQuarterly(String ticker, ToolContext toolContext) {
         setTicker(ticker, toolContext);
-        var data = secFilingRepository.findBySymbol(ticker).orElse(null);
-        if (data == null || data.getTenQFilings() == null || data.getTenQFilings().isEmpty()) return null;
-        return data.getTenQFilings().get(0);
+        return secFilingRepository.findLatestTenQFiling(ticker).orElse(null);
     }
 }
@@ -0,0 +1,143 @@
+package com.testehan.finana.service.migration;
+
+import com.testehan.finana.model.finstatement.BalanceSheetData;
+import com.testehan.finana.model.finstatement.BalanceSheetReport;
+import com.testehan.finana.model.finstatement.CashFlowData;
+import com.testehan.finana.model.finstatement.CashFlowReport;
+import com.testehan.finana.model.finstatement.IncomeReport;
+import com.testehan.finana.model.finstatement.IncomeStatementData;
+import com.testehan.finana.util.SafeParser;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ReflectionUtils;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Rewrites income statements, balance sheets and cash flows whose values are still stored as strings, so that they
+ * are stored as Decimal128; a statement always had all its values written the same way, so one value tells whether
+ * it was rewritten already. Each report is converted with its own update, so a report refreshed in the meantime only
+ * leaves itself for the next run. Runs in the background after startup.
+ */
+@Service
+public class FinancialStatementNumberMigration implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FinancialStatementNumberMigration.class);
+
+    private static final String[] REPORT_ARRAYS = {"annualReports", "quarterlyReports"};
+    // a report is identified by its period, a report fetched again replaces the one at its position
+    private static final List<String> PERIOD_FIELDS = List.of("date", "fiscalYear", "period");
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.mongo.typed-statements.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    public FinancialStatementNumberMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrateOnStartup) {
+            // legacy strings are still read, so the application does not wait for the rewrite
+            Thread.ofVirtual().name("statement-number-migration").start(() -> {
+                try {
+                    migrate();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Financial statement number migration stopped, it continues on the next start", e);
+                }
+            });
+        }
+    }
+
+    public void migrate() {
+        int incomeStatements = rewrite(IncomeStatementData.class, IncomeReport.class, "revenue");
+        int balanceSheets = rewrite(BalanceSheetData.class, BalanceSheetReport.class, "totalAssets");
+        int cashFlows = rewrite(CashFlowData.class, CashFlowReport.class, "operatingCashFlow");
+        if (incomeStatements > 0 || balanceSheets > 0 || cashFlows > 0) {
+            LOGGER.info("Stored the values of {} income statement, {} balance sheet and {} cash flow reports as decimals",
+                    incomeStatements, balanceSheets, cashFlows);
+        }
+    }
+
+    /**
+     * Sets the converted values of each report with its own update, on the condition that the report at that position
+     * still has the period that was read and that its key value is still a string. The filter stays a few hundred bytes
+     * however many reports a symbol has, and a report refreshed in the meantime holds a decimal key value, so it is left
+     * alone instead of being overwritten.
+     */
+    private int rewrite(Class<?> documentType, Class<?> reportType, String valueField) {
+        List<String> decimalFields = new ArrayList<>();
+        ReflectionUtils.doWithFields(reportType, field -> decimalFields.add(field.getName()),
+                field -> field.getType() == BigDecimal.class);
+        String collection = mongoTemplate.getCollectionName(documentType);
+        Query withStrings = documentsWithStringValues(valueField);
+        withStrings.fields().include(REPORT_ARRAYS);
+        int rewritten = 0;
+        try (Stream<Document> documents = mongoTemplate.stream(withStrings, Document.class, collection)) {
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                for (String reports : REPORT_ARRAYS) {
+                    List<?> elements = document.getList(reports, Object.class, List.of());
+                    for (int i = 0; i < elements.size(); i++) {
+                        if (!(elements.get(i) instanceof Document report) || !(report.get(valueField) instanceof String)) {
+                            continue;
+                        }
+                        String prefix = reports + "." + i;
+                        Query query = new Query(Criteria.where("_id").is(document.get("_id")));
+                        for (String period : PERIOD_FIELDS) {
+                            query.addCriteria(Criteria.where(prefix + "." + period).is(report.get(period)));
+                        }
+                        query.addCriteria(Criteria.where(prefix + "." + valueField).type(BsonType.STRING.getValue()));
+                        if (mongoTemplate.updateFirst(query, convert(report, prefix, decimalFields), collection)
+                                .getModifiedCount() > 0) {
+                            rewritten++;
+                        } else {
+                            LOGGER.debug("{} {} changed while converting {}, it is converted on the next run",
+                                    collection, document.get("_id"), prefix);
+                        }
+                    }
+                }
+            }
+        }
+        return rewritten;
+    }
+
+    // placeholders like "None" that are not numbers are removed, they are read as missing either way
+    private static Update convert(Document report, String prefix, List<String> decimalFields) {
+        Update update = new Update();
+        for (String field : decimalFields) {
+            if (report.get(field) instanceof String text) {
+                BigDecimal value = SafeParser.tryParseDecimal(text);
+                if (value != null) {
+                    update.set(prefix + "." + field, new Decimal128(value.round(MathContext.DECIMAL128)));
+                } else {
+                    update.unset(prefix + "." + field);
+                }
+            }
+        }
+        return update;
+    }
+
+    Query documentsWithStringValues(String valueField) {
+        return new Query(new Criteria().orOperator(
+                Criteria.where("annualReports." + valueField).type(JsonSchemaObject.Type.stringType()),
+                Criteria.where("quarterlyReports." + valueField).type(JsonSchemaObject.Type.stringType())));
+    }
+}
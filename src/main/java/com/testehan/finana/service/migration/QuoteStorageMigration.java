@@ -0,0 +1,211 @@
+package com.testehan.finana.service.migration;
+
+import com.testehan.finana.config.MongoServerVersion;
+import com.testehan.finana.model.quote.IndexQuoteBar;
+import com.testehan.finana.model.quote.IndexQuotes;
+import com.testehan.finana.model.quote.QuoteBars;
+import com.testehan.finana.model.quote.StockQuoteBar;
+import com.testehan.finana.model.quote.StockQuotes;
+import jakarta.annotation.PostConstruct;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Moves the quote arrays embedded in stock_quotes and index_quotes into the one-bar-per-document time series
+ * collections, in two steps that are both off by default. Copying writes a symbol's embedded quotes as its bars and
+ * marks the document once the bars are all stored, so an interrupted run is picked up again on the next start and a
+ * symbol is never copied twice. Removing the embedded arrays is a separate step that only touches copied documents
+ * and checks their bar counts again first.
+ */
+@Service
+public class QuoteStorageMigration implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuoteStorageMigration.class);
+    private static final int INSERT_BATCH_SIZE = 5_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoServerVersion mongoServerVersion;
+
+    private static final String MIGRATED_AT = "quotesMigratedAt";
+
+    @Value("${app.quotes.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${app.quotes.remove-embedded-on-startup:false}")
+    private boolean removeEmbeddedOnStartup;
+
+    public QuoteStorageMigration(MongoTemplate mongoTemplate, MongoServerVersion mongoServerVersion) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoServerVersion = mongoServerVersion;
+    }
+
+    // runs before the web server accepts requests, otherwise the first insert would create regular collections
+    @PostConstruct
+    public void createTimeSeriesCollections() {
+        createTimeSeriesCollection(StockQuoteBar.class);
+        createTimeSeriesCollection(IndexQuoteBar.class);
+    }
+
+    private void createTimeSeriesCollection(Class<?> barType) {
+        if (!mongoTemplate.collectionExists(barType)) {
+            mongoTemplate.createCollection(barType);
+            LOGGER.info("Created time series collection {}", mongoTemplate.getCollectionName(barType));
+        }
+        mongoTemplate.indexOps(barType).createIndex(new Index()
+                .on("symbol", Sort.Direction.ASC)
+                .on("date", Sort.Direction.ASC)
+                .named("symbol_date"));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrateOnStartup) {
+            migrate();
+        }
+        if (removeEmbeddedOnStartup) {
+            removeEmbeddedQuotes();
+        }
+    }
+
+    public void migrate() {
+        int stockSymbols = migrateStockQuotes();
+        int indexSymbols = migrateIndexQuotes();
+        if (stockSymbols > 0 || indexSymbols > 0) {
+            LOGGER.info("Copied quotes of {} stocks and {} indexes to time series collections", stockSymbols, indexSymbols);
+        }
+    }
+
+    private int migrateStockQuotes() {
+        int migrated = 0;
+        try (Stream<StockQuotes> documents = mongoTemplate.stream(notCopiedDocuments(), StockQuotes.class)) {
+            for (StockQuotes stockQuotes : (Iterable<StockQuotes>) documents::iterator) {
+                String symbol = stockQuotes.getSymbol().toUpperCase();
+                List<StockQuoteBar> bars = QuoteBars.stockBarsOf(symbol, stockQuotes.getQuotes());
+                String batch = new ObjectId().toHexString();
+                bars.forEach(bar -> bar.setBatch(batch));
+                replaceBars(symbol, batch, bars, StockQuoteBar.class);
+                if (markCopied(stockQuotes.getSymbol(), symbol, bars.size(), StockQuotes.class, StockQuoteBar.class)) {
+                    LOGGER.debug("Copied {} quotes for {}", bars.size(), symbol);
+                    migrated++;
+                }
+            }
+        }
+        return migrated;
+    }
+
+    private int migrateIndexQuotes() {
+        int migrated = 0;
+        try (Stream<IndexQuotes> documents = mongoTemplate.stream(notCopiedDocuments(), IndexQuotes.class)) {
+            for (IndexQuotes indexQuotes : (Iterable<IndexQuotes>) documents::iterator) {
+                String symbol = indexQuotes.getSymbol().toUpperCase();
+                List<IndexQuoteBar> bars = QuoteBars.indexBarsOf(symbol, indexQuotes.getQuotes());
+                String batch = new ObjectId().toHexString();
+                bars.forEach(bar -> bar.setBatch(batch));
+                replaceBars(symbol, batch, bars, IndexQuoteBar.class);
+                if (markCopied(indexQuotes.getSymbol(), symbol, bars.size(), IndexQuotes.class, IndexQuoteBar.class)) {
+                    LOGGER.debug("Copied {} index quotes for {}", bars.size(), symbol);
+                    migrated++;
+                }
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * Unsets the embedded arrays of the copied documents, as long as the time series collection still holds at
+     * least as many bars of the symbol as the array converts to.
+     */
+    public void removeEmbeddedQuotes() {
+        int stockSymbols = 0;
+        try (Stream<StockQuotes> documents = mongoTemplate.stream(copiedDocuments(), StockQuotes.class)) {
+            for (StockQuotes stockQuotes : (Iterable<StockQuotes>) documents::iterator) {
+                if (unsetEmbeddedQuotes(stockQuotes.getSymbol(),
+                        QuoteBars.stockBarsOf(stockQuotes.getSymbol(), stockQuotes.getQuotes()).size(), StockQuotes.class, StockQuoteBar.class)) {
+                    stockSymbols++;
+                }
+            }
+        }
+        int indexSymbols = 0;
+        try (Stream<IndexQuotes> documents = mongoTemplate.stream(copiedDocuments(), IndexQuotes.class)) {
+            for (IndexQuotes indexQuotes : (Iterable<IndexQuotes>) documents::iterator) {
+                if (unsetEmbeddedQuotes(indexQuotes.getSymbol(),
+                        QuoteBars.indexBarsOf(indexQuotes.getSymbol(), indexQuotes.getQuotes()).size(), IndexQuotes.class, IndexQuoteBar.class)) {
+                    indexSymbols++;
+                }
+            }
+        }
+        if (stockSymbols > 0 || indexSymbols > 0) {
+            LOGGER.info("Removed the embedded quotes of {} stocks and {} indexes", stockSymbols, indexSymbols);
+        }
+    }
+
+    private Query notCopiedDocuments() {
+        return new Query(Criteria.where("quotes.0").exists(true).and(MIGRATED_AT).exists(false));
+    }
+
+    private Query copiedDocuments() {
+        return new Query(Criteria.where("quotes.0").exists(true).and(MIGRATED_AT).exists(true));
+    }
+
+    // the new bars are inserted before the previous ones are removed, so a failed insert keeps the stored bars; before
+    // MongoDB 7.0 bars can only be deleted by symbol, so they are removed first and a failed copy is redone next start
+    private <T> void replaceBars(String symbol, String batch, List<T> bars, Class<T> barType) {
+        if (!mongoServerVersion.supportsArbitraryTimeSeriesDeletes()) {
+            mongoTemplate.remove(new Query(Criteria.where("symbol").is(symbol)), barType);
+            insertBars(bars, barType);
+            return;
+        }
+        try {
+            insertBars(bars, barType);
+        } catch (RuntimeException e) {
+            mongoTemplate.remove(new Query(Criteria.where("symbol").is(symbol).and("batch").is(batch)), barType);
+            throw e;
+        }
+        mongoTemplate.remove(new Query(Criteria.where("symbol").is(symbol).and("batch").ne(batch)), barType);
+    }
+
+    private <T> void insertBars(List<T> bars, Class<T> barType) {
+        for (int from = 0; from < bars.size(); from += INSERT_BATCH_SIZE) {
+            mongoTemplate.insert(bars.subList(from, Math.min(from + INSERT_BATCH_SIZE, bars.size())), barType);
+        }
+    }
+
+    private boolean markCopied(String id, String symbol, int copied, Class<?> documentType, Class<?> barType) {
+        long stored = countBars(symbol, barType);
+        if (stored < copied) {
+            LOGGER.warn("Only {} of {} quotes of {} are stored as bars, copying them again on the next start", stored, copied, symbol);
+            return false;
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)), new Update().set(MIGRATED_AT, LocalDateTime.now()), documentType);
+        return true;
+    }
+
+    private boolean unsetEmbeddedQuotes(String id, int embedded, Class<?> documentType, Class<?> barType) {
+        long stored = countBars(id.toUpperCase(), barType);
+        if (stored < embedded) {
+            LOGGER.warn("Keeping the embedded quotes of {}: only {} of {} are stored as bars", id, stored, embedded);
+            return false;
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)), new Update().unset("quotes"), documentType);
+        return true;
+    }
+
+    private long countBars(String symbol, Class<?> barType) {
+        return mongoTemplate.count(new Query(Criteria.where("symbol").is(symbol)), barType);
+    }
+}
@@ -0,0 +1,190 @@
+package com.testehan.finana.service.migration;
+
+import com.testehan.finana.config.CompressedTextConverter;
+import com.testehan.finana.config.CompressedTranscriptConverter;
+import com.testehan.finana.model.filing.CompanyEarningsTranscripts;
+import com.testehan.finana.model.filing.SecFiling;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Rewrites filings whose long texts are still stored as plain strings, and transcripts whose turns are still stored as
+ * arrays, so that they are stored compressed by {@link CompressedTextConverter} and
+ * {@link CompressedTranscriptConverter}. Compressed values are binaries and no longer match the queries, so an
+ * interrupted run is simply picked up again on the next start. Runs in the background after startup.
+ */
+@Service
+public class TextCompressionMigration implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TextCompressionMigration.class);
+
+    private static final String[] FILING_TEXT_FIELDS = {
+            "tenKFilings.businessDescription", "tenKFilings.riskFactors", "tenKFilings.managementDiscussion",
+            "tenQFilings.riskFactors", "tenQFilings.managementDiscussion"};
+    // a filing downloaded again gets a new lastModified, a quarter fetched again a new lastUpdated
+    private static final List<String> FILING_VERSION_FIELDS = List.of("filingUrl", "lastModified");
+    private static final List<String> TRANSCRIPT_VERSION_FIELDS = List.of("quarter", "lastUpdated");
+
+    private final MongoTemplate mongoTemplate;
+    private final CompressedTextConverter compressedTextConverter;
+    private final CompressedTranscriptConverter compressedTranscriptConverter;
+
+    @Value("${app.mongo.text-compression.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    public TextCompressionMigration(MongoTemplate mongoTemplate, CompressedTextConverter compressedTextConverter,
+                                    CompressedTranscriptConverter compressedTranscriptConverter) {
+        this.mongoTemplate = mongoTemplate;
+        this.compressedTextConverter = compressedTextConverter;
+        this.compressedTranscriptConverter = compressedTranscriptConverter;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrateOnStartup && compressedTextConverter.getMinChars() != Integer.MAX_VALUE) {
+            // documents stay readable while uncompressed, so the application does not wait for the rewrite
+            Thread.ofVirtual().name("text-compression-migration").start(() -> {
+                try {
+                    migrate();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Text compression migration stopped, it continues on the next start", e);
+                }
+            });
+        }
+    }
+
+    public void migrate() {
+        int filings = rewrite(SecFiling.class, FILING_TEXT_FIELDS, FILING_VERSION_FIELDS);
+        int transcripts = rewriteTranscripts();
+        if (filings > 0 || transcripts > 0) {
+            LOGGER.info("Compressed {} SEC filing texts and {} quarterly transcripts", filings, transcripts);
+        }
+    }
+
+    /**
+     * Sets each compressed text with its own update, on the condition that the filing it belongs to still has the
+     * version that was read and that the text is still a string. The filter stays a few hundred bytes however large
+     * the document is, and a filing saved in the meantime is left alone and picked up by the next run, so the
+     * migration never overwrites documents written concurrently.
+     */
+    private int rewrite(Class<?> documentType, String[] textFields, List<String> versionFields) {
+        String collection = mongoTemplate.getCollectionName(documentType);
+        Query uncompressed = uncompressedDocuments(textFields);
+        uncompressed.fields().include(textFields);
+        for (String field : textFields) {
+            String element = field.substring(0, field.lastIndexOf('.'));
+            versionFields.forEach(version -> uncompressed.fields().include(element + "." + version));
+        }
+        int rewritten = 0;
+        try (Stream<Document> documents = mongoTemplate.stream(uncompressed, Document.class, collection)) {
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                List<LongText> texts = new ArrayList<>();
+                for (String field : textFields) {
+                    collectLongTexts(document, field.split("\\."), 0, "", null, texts);
+                }
+                for (LongText text : texts) {
+                    Query query = new Query(Criteria.where("_id").is(document.get("_id")));
+                    for (String version : versionFields) {
+                        query.addCriteria(Criteria.where(text.elementPath() + "." + version).is(text.element().get(version)));
+                    }
+                    query.addCriteria(Criteria.where(text.path()).type(BsonType.STRING.getValue()));
+                    Update update = new Update().set(text.path(), compressedTextConverter.write(text.text(), null));
+                    if (mongoTemplate.updateFirst(query, update, collection).getModifiedCount() > 0) {
+                        rewritten++;
+                    } else {
+                        LOGGER.debug("{} {} changed while compressing {}, it is compressed on the next run",
+                                collection, document.get("_id"), text.path());
+                    }
+                }
+            }
+        }
+        return rewritten;
+    }
+
+    // the same for the turns of each quarter, set as one compressed value while the quarter is unchanged and still an array;
+    // transcripts too short to compress stay arrays and are read again on every run
+    private int rewriteTranscripts() {
+        String collection = mongoTemplate.getCollectionName(CompanyEarningsTranscripts.class);
+        Query uncompressed = new Query(Criteria.where("transcripts.transcript.0").exists(true));
+        uncompressed.fields().include("transcripts.transcript");
+        TRANSCRIPT_VERSION_FIELDS.forEach(version -> uncompressed.fields().include("transcripts." + version));
+        int rewritten = 0;
+        try (Stream<Document> documents = mongoTemplate.stream(uncompressed, Document.class, collection)) {
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                List<Document> quarters = document.getList("transcripts", Document.class, List.of());
+                for (int i = 0; i < quarters.size(); i++) {
+                    Document quarter = quarters.get(i);
+                    if (!(quarter.get("transcript") instanceof List<?> turns)) {
+                        continue;
+                    }
+                    Object compressed = compressedTranscriptConverter.write(compressedTranscriptConverter.read(turns, null), null);
+                    if (!(compressed instanceof Binary)) {
+                        continue;
+                    }
+                    String path = "transcripts." + i;
+                    Query query = new Query(Criteria.where("_id").is(document.get("_id")));
+                    for (String version : TRANSCRIPT_VERSION_FIELDS) {
+                        query.addCriteria(Criteria.where(path + "." + version).is(quarter.get(version)));
+                    }
+                    query.addCriteria(Criteria.where(path + ".transcript").type(BsonType.ARRAY.getValue()));
+                    if (mongoTemplate.updateFirst(query, new Update().set(path + ".transcript", compressed), collection)
+                            .getModifiedCount() > 0) {
+                        rewritten++;
+                    } else {
+                        LOGGER.debug("{} {} changed while compressing {}, it is compressed on the next run",
+                                collection, document.get("_id"), path);
+                    }
+                }
+            }
+        }
+        return rewritten;
+    }
+
+    // the positional paths, e.g. tenKFilings.2.riskFactors, of the texts long enough to be compressed, each with the
+    // filing, the top level array element, whose version guards its update
+    private void collectLongTexts(Object value, String[] path, int depth, String prefix, Document element,
+                                  List<LongText> texts) {
+        if (value instanceof List<?> elements) {
+            for (int i = 0; i < elements.size(); i++) {
+                Document next = element == null && elements.get(i) instanceof Document document ? document : element;
+                collectLongTexts(elements.get(i), path, depth, prefix + "." + i, next, texts);
+            }
+        } else if (depth == path.length) {
+            if (value instanceof String text && text.length() >= compressedTextConverter.getMinChars() && element != null) {
+                String elementPath = prefix.substring(0, prefix.indexOf('.', prefix.indexOf('.') + 1));
+                texts.add(new LongText(elementPath, element, prefix, text));
+            }
+        } else if (value instanceof Document document) {
+            String next = prefix.isEmpty() ? path[depth] : prefix + "." + path[depth];
+            collectLongTexts(document.get(path[depth]), path, depth + 1, next, element, texts);
+        }
+    }
+
+    // a string of at least the threshold length; binaries never match a regex
+    Query uncompressedDocuments(String[] textFields) {
+        Pattern longText = Pattern.compile("^[\\s\\S]{" + compressedTextConverter.getMinChars() + "}");
+        return new Query(new Criteria().orOperator(Arrays.stream(textFields)
+                .map(field -> Criteria.where(field).regex(longText))
+                .toArray(Criteria[]::new)));
+    }
+
+    private record LongText(String elementPath, Document element, String path, String text) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.testehan.finana.service.migration;
+
+import com.mongodb.client.result.UpdateResult;
+import com.testehan.finana.model.user.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Service;
+
+/**
+ * Converts user credit balances stored as strings to Decimal128, which the atomic $inc updates of
+ * {@link com.testehan.finana.service.UserCreditService} need. Already converted users are not matched, so this is
+ * a no-op after the first start.
+ */
+@Service
+public class UserCreditMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserCreditMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserCreditMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // runs before the web server accepts requests, a $inc on a string balance would fail
+    @PostConstruct
+    public void migrate() {
+        UpdateResult result = mongoTemplate.updateMulti(
+                new Query(Criteria.where("credit").type(JsonSchemaObject.Type.stringType())),
+                AggregationUpdate.update().set("credit").toValue(ConvertOperators.valueOf("credit").convertToDecimal()),
+                User.class);
+        if (result.getModifiedCount() > 0) {
+            LOGGER.info("Converted the credit balance of {} users to Decimal128", result.getModifiedCount());
+        }
+    }
+}
@@ -15,6 +15,7 @@ import com.testehan.finana.service.ValuationAlertService;
 import com.testehan.finana.service.valuation.DcfValuationService;
 import com.testehan.finana.service.valuation.GrowthValuationService;
 import com.testehan.finana.service.valuation.ReverseDcfValuationService;
+import com.testehan.finana.util.RequestPriority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -318,7 +319,9 @@ public class PeriodicPriceAlerter {
 
     private BigDecimal getLatestStockPrice(String ticker) {
         try {
-            Optional<GlobalQuote> quoteOpt = quoteService.getLastStockQuote(ticker).blockOptional();
+            Optional<GlobalQuote> quoteOpt = quoteService.getLastStockQuote(ticker)
+                    .contextWrite(RequestPriority.background())
+                    .blockOptional();
             if (quoteOpt.isPresent()) {
                 GlobalQuote quote = quoteOpt.get();
                 if (quote.getPrice() != null && !quote.getPrice().isEmpty()) {
@@ -18,6 +18,7 @@ import org.springframework.core.io.Resource;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -90,7 +91,7 @@ public class LlmQuestionAnswerGenerator {
             String generationDate = "Generation Date: " + LocalDateTime.now() + "\n\n\n";
             StringBuilder completeAnswer = new StringBuilder(generationDate);
             emitter.send(SseEmitter.event().data(generationDate));
-            llmService.streamLlmWithSearch(prompt, questionId, stockId)
+            Disposable subscription = llmService.streamLlmWithSearch(prompt, questionId, stockId)
                     .doOnNext(chunk -> {
                         try {
                             emitter.send(SseEmitter.event().data(chunk));
@@ -132,6 +133,9 @@ public class LlmQuestionAnswerGenerator {
                         emitter.completeWithError(error);
                     })
                     .subscribe();
+            // chunks are forwarded as they arrive, so a client that goes away must stop the upstream LLM stream
+            emitter.onTimeout(subscription::dispose);
+            emitter.onError(error -> subscription.dispose());
 
         } catch (InsufficientCreditException e) {
             logger.warn("Insufficient credit for streaming generation, stockId: {}, questionId: {}: {}", stockId, questionId, e.getMessage());
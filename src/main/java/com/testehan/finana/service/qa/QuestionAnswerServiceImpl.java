@@ -186,7 +186,7 @@ public class QuestionAnswerServiceImpl implements QuestionAnswerService {
             params.put("format", stockSentimentOutputConverter.getFormat());
             Prompt prompt = promptTemplate.create(params);
 
-            String result = llmService.callLlmWithSearch(prompt.getContents(), questionId, ticker);
+            String result = llmService.callLlmWithSearch(prompt.getContents(), questionId, ticker, regenerate);
             StockSentiment stockSentiment = stockSentimentOutputConverter.convert(result);
 
             LocalDateTime now = LocalDateTime.now();
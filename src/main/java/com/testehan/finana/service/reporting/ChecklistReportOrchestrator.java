@@ -15,9 +15,11 @@ import com.testehan.finana.service.UserCreditService;
 import com.testehan.finana.service.reporting.events.CompletionEvent;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
+import com.testehan.finana.util.CancellationToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -32,6 +34,7 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -44,6 +47,12 @@ public class ChecklistReportOrchestrator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ChecklistReportOrchestrator.class);
 
+    /**
+     * What happens to a report being generated when its client disconnects: CONTINUE lets it finish and save the
+     * report without sending events, ABORT cancels the generation and its model calls.
+     */
+    public enum DisconnectPolicy { CONTINUE, ABORT }
+
     private final FinancialDataOrchestrator financialDataOrchestrator;
     private final CompanyDataService companyDataService;
     private final ChecklistReportPersistenceService checklistReportPersistenceService;
@@ -55,6 +64,7 @@ public class ChecklistReportOrchestrator {
     private final Map<ReportType, ReportGenerator> reportGenerators;
     private final MongoTemplate mongoTemplate;
     private final UserCreditService userCreditService;
+    private final DisconnectPolicy disconnectPolicy;
 
     public ChecklistReportOrchestrator(FinancialDataOrchestrator financialDataOrchestrator,
                                        CompanyDataService companyDataService,
@@ -66,7 +76,8 @@ public class ChecklistReportOrchestrator {
                                        ApplicationEventPublisher eventPublisher,
                                        List<ReportGenerator> reportGenerators,
                                        MongoTemplate mongoTemplate,
-                                       UserCreditService userCreditService) {
+                                       UserCreditService userCreditService,
+                                       @Value("${app.reporting.on-client-disconnect:ABORT}") DisconnectPolicy disconnectPolicy) {
         this.financialDataOrchestrator = financialDataOrchestrator;
         this.companyDataService = companyDataService;
         this.checklistReportPersistenceService = checklistReportPersistenceService;
@@ -79,10 +90,19 @@ public class ChecklistReportOrchestrator {
                 .collect(Collectors.toMap(ReportGenerator::getReportType, Function.identity()));
         this.mongoTemplate = mongoTemplate;
         this.userCreditService = userCreditService;
+        this.disconnectPolicy = disconnectPolicy;
     }
 
     public SseEmitter getChecklistReport(String ticker, boolean recreateReport, ReportType reportType, String userEmail) {
-        SseEmitter sseEmitter = new SseEmitter(3600000L); // Timeout set to 1 hour
+        return getChecklistReport(ticker, recreateReport, false, reportType, userEmail);
+    }
+
+    /**
+     * With recreateReport a new report is generated, reusing the cached LLM answers of analyses whose input did not
+     * change. With regenerate as well, every analysis is sent to the LLM again and its answer replaces the cached one.
+     */
+    public SseEmitter getChecklistReport(String ticker, boolean recreateReport, boolean regenerate, ReportType reportType, String userEmail) {
+        ReportSseEmitter sseEmitter = new ReportSseEmitter(3600000L); // Timeout set to 1 hour
 
         ReportGenerator generator = reportGenerators.get(reportType);
         if (generator == null) {
@@ -91,11 +111,11 @@ public class ChecklistReportOrchestrator {
             return sseEmitter;
         }
 
-        getOrGenerateChecklistReport(ticker, recreateReport, reportType, sseEmitter, userEmail);
+        getOrGenerateChecklistReport(ticker, recreateReport, regenerate, reportType, sseEmitter, userEmail);
         return sseEmitter;
     }
 
-    private void getOrGenerateChecklistReport(String ticker, boolean recreateReport, ReportType reportType, SseEmitter sseEmitter, String userEmail) {
+    private void getOrGenerateChecklistReport(String ticker, boolean recreateReport, boolean regenerate, ReportType reportType, ReportSseEmitter sseEmitter, String userEmail) {
         checklistExecutor.execute(() -> {
             try {
                 if (!recreateReport) {
@@ -123,7 +143,7 @@ public class ChecklistReportOrchestrator {
                     sseEmitter.complete();
                 } else {
                     eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Initiating Checklist report generation for " + ticker + "..."));
-                    generateReport(ticker, reportType, sseEmitter, userEmail);
+                    generateReport(ticker, regenerate, reportType, sseEmitter, userEmail);
                 }
             } catch (Exception e) {
                 eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, e));
@@ -131,7 +151,7 @@ public class ChecklistReportOrchestrator {
         });
     }
 
-    private void generateReport(String ticker, ReportType reportType, SseEmitter sseEmitter, String userEmail) {
+    private void generateReport(String ticker, boolean regenerate, ReportType reportType, ReportSseEmitter sseEmitter, String userEmail) {
         if (userEmail == null || !userCreditService.hasAnyCredit(userEmail)) {
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter,
                     new InsufficientCreditException("Insufficient credit. Please add credits to generate reports.")));
@@ -143,14 +163,33 @@ public class ChecklistReportOrchestrator {
         // Capture before entering the reactive chain — doOnSuccess runs on a Reactor scheduler thread with no SecurityContext.
         SecurityContext securityContext = SecurityContextHolder.getContext();
 
-        financialDataOrchestrator.ensureFinancialDataIsPresent(ticker)
+        CancellationToken cancellation = new CancellationToken();
+        sseEmitter.onDisconnect(() -> {
+            if (disconnectPolicy == DisconnectPolicy.ABORT) {
+                LOGGER.info("Client of the {} report for {} disconnected, cancelling its generation", reportType, ticker);
+                cancellation.cancel("Client of the " + reportType + " report for " + ticker + " disconnected");
+            } else {
+                LOGGER.info("Client of the {} report for {} disconnected, generation continues", reportType, ticker);
+            }
+        });
+
+        Disposable dataCheck = financialDataOrchestrator.ensureFinancialDataIsPresent(ticker)
                 .doOnSuccess(v -> {
                     eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Financial data check complete."));
                     ReportGenerator generator = reportGenerators.get(reportType);
                     checklistExecutor.execute(new DelegatingSecurityContextRunnable(() -> {
                         try {
-                            generator.generate(ticker, reportType, sseEmitter);
+                            cancellation.call(() -> {
+                                generator.generate(ticker, reportType, sseEmitter, regenerate);
+                                return null;
+                            });
                         } catch (Exception e) {
+                            if (cancellation.isCancelled()) {
+                                LOGGER.info("Generation of the {} report for {} was cancelled", reportType, ticker);
+                                checklistReportPersistenceService.markReportAsFailed(ticker, reportType,
+                                        "Report generation was cancelled.");
+                                return;
+                            }
                             checklistReportPersistenceService.markReportAsFailed(ticker, reportType, e.getMessage());
                             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, e));
                         }
@@ -161,6 +200,7 @@ public class ChecklistReportOrchestrator {
                     eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, error));
                 })
                 .subscribe();
+        cancellation.onCancel(dataCheck::dispose);
     }
 
     public ChecklistReport saveChecklistReport(String ticker, List<ReportItem> checklistReportItems, ReportType reportType, String userEmail) {
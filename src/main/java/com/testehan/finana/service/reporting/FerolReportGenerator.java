@@ -8,71 +8,39 @@ import com.testehan.finana.service.reporting.events.CompletionEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 @Service
 public class FerolReportGenerator implements ReportGenerator {
     private static final Logger LOGGER = LoggerFactory.getLogger(FerolReportGenerator.class);
 
-    @Value("${app.llm.sequential-delay-ms:0}")
-    private long sequentialDelayMs;
-
     private final List<ReportItemCalculator> ferolCalculators;
     private final ChecklistReportPersistenceService checklistReportPersistenceService;
+    private final ReportContextFactory reportContextFactory;
+    private final ReportCalculatorScheduler reportCalculatorScheduler;
     private final ApplicationEventPublisher eventPublisher;
 
     public FerolReportGenerator(List<ReportItemCalculator> ferolCalculators,
                                 ChecklistReportPersistenceService checklistReportPersistenceService,
+                                ReportContextFactory reportContextFactory,
+                                ReportCalculatorScheduler reportCalculatorScheduler,
                                 ApplicationEventPublisher eventPublisher) {
         this.ferolCalculators = ferolCalculators;
         this.checklistReportPersistenceService = checklistReportPersistenceService;
+        this.reportContextFactory = reportContextFactory;
+        this.reportCalculatorScheduler = reportCalculatorScheduler;
         this.eventPublisher = eventPublisher;
     }
 
     @Override
-    public void generate(String ticker, ReportType reportType, SseEmitter sseEmitter) throws InterruptedException {
-        List<ReportItem> checklistReportItems = new ArrayList<>();
-        Executor contextExecutor = new DelegatingSecurityContextExecutor(ForkJoinPool.commonPool());
-
-        List<ReportItemCalculator> parallelCalculators = ferolCalculators.stream()
-                .filter(ReportItemCalculator::canRunInParallel)
-                .collect(Collectors.toList());
-        List<ReportItemCalculator> sequentialCalculators = ferolCalculators.stream()
-                .filter(c -> !c.canRunInParallel())
-                .collect(Collectors.toList());
-
-        List<CompletableFuture<Collection<ReportItem>>> parallelFutures = parallelCalculators.stream()
-                .map(calculator -> CompletableFuture.supplyAsync(
-                        () -> calculator.calculate(ticker, reportType, sseEmitter),
-                        contextExecutor))
-                .collect(Collectors.toList());
-
-        for (CompletableFuture<Collection<ReportItem>> future : parallelFutures) {
-            checklistReportItems.addAll(future.join());
-        }
-
-        for (ReportItemCalculator calculator : sequentialCalculators) {
-            Collection<ReportItem> result = calculator.calculate(ticker, reportType, sseEmitter);
-            checklistReportItems.addAll(result);
-            try {
-                Thread.sleep(sequentialDelayMs);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
+    public void generate(String ticker, ReportType reportType, SseEmitter sseEmitter, boolean regenerate) throws InterruptedException {
+        List<ReportItem> checklistReportItems = reportCalculatorScheduler.run(
+                ferolCalculators, reportContextFactory.create(ticker, regenerate), reportType, sseEmitter);
 
         eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Building and saving Checklist report..."));
         var reportDate = LocalDateTime.now();
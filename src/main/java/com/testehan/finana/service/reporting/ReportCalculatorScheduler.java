@@ -0,0 +1,257 @@
+package com.testehan.finana.service.reporting;
+
+import com.testehan.finana.model.reporting.ReportItem;
+import com.testehan.finana.model.reporting.ReportType;
+import com.testehan.finana.service.LlmCallScheduler;
+import com.testehan.finana.service.reporting.calc.CalculatorResource;
+import com.testehan.finana.service.reporting.calc.ReportItemCalculator;
+import com.testehan.finana.util.CancellationToken;
+import com.testehan.finana.util.RequestPriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the calculators of a report as a dependency graph: the documents a calculator requires are loaded into the
+ * {@link ReportContext} first, and each calculator starts as soon as its documents are there. Compute calculators
+ * share a bounded number of slots across all reports being generated. LLM calculators all start at once, running at
+ * background priority, and {@link LlmCallScheduler} paces their model calls.
+ * <p>
+ * The calculators of one report run in a scope, like a {@code StructuredTaskScope}: the first calculator failing, or
+ * the generating thread being interrupted, cancels the calculators still waiting and interrupts those running, and
+ * {@link #run} returns only once none of them is running any more.
+ */
+@Service
+public class ReportCalculatorScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReportCalculatorScheduler.class);
+
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final Map<CalculatorResource, ResourceLane> lanes = new EnumMap<>(CalculatorResource.class);
+
+    public ReportCalculatorScheduler(@Qualifier("reportCalculatorExecutor") Executor executor,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.reporting.concurrency.compute:8}") int computeConcurrency) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        lanes.put(CalculatorResource.COMPUTE, new ResourceLane(computeConcurrency));
+        lanes.put(CalculatorResource.LLM_GEMINI, new ResourceLane(Integer.MAX_VALUE));
+        lanes.put(CalculatorResource.LLM_OLLAMA, new ResourceLane(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Returns the items of all calculators in the order of the calculators, whatever order they finished in.
+     */
+    public List<ReportItem> run(List<ReportItemCalculator> calculators, ReportContext context,
+                                ReportType reportType, SseEmitter sseEmitter) {
+        long start = System.nanoTime();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        CancellationToken cancellation = CancellationToken.current();
+
+        ReportScope scope = new ReportScope();
+
+        Map<ReportData, CompletableFuture<Void>> loads = new EnumMap<>(ReportData.class);
+        List<CompletableFuture<Collection<ReportItem>>> results = new ArrayList<>();
+        for (ReportItemCalculator calculator : calculators) {
+            CompletableFuture<?>[] dependencies = calculator.requires().stream()
+                    .map(data -> loads.computeIfAbsent(data, d -> load(d, context, scope, securityContext)))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture<Collection<ReportItem>> result = CompletableFuture.allOf(dependencies)
+                    .thenCompose(ignored -> submit(calculator.resource(), scope, securityContext,
+                            () -> timed(calculator, context, reportType, sseEmitter, cancellation)));
+            result.whenComplete((items, error) -> {
+                if (error != null) {
+                    scope.shutdown(error);
+                }
+            });
+            results.add(result);
+        }
+
+        try {
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get();
+        } catch (InterruptedException e) {
+            scope.shutdown(e);
+            scope.awaitIdle();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Generation of the " + reportType + " report for " + context.getTicker()
+                    + " was cancelled");
+        } catch (ExecutionException | CancellationException e) {
+            // the calculators cancelled by the scope may complete first, report what made it shut down
+            scope.shutdown(e instanceof ExecutionException ? e.getCause() : e);
+            throw new CompletionException(scope.failure());
+        }
+
+        List<ReportItem> items = new ArrayList<>();
+        results.forEach(result -> items.addAll(result.join()));
+        LOGGER.info("Ran {} calculators for {} {} report in {} ms", calculators.size(), context.getTicker(), reportType,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return items;
+    }
+
+    // a failed load is only logged, the calculator then hits the error itself when it reads the document
+    private CompletableFuture<Void> load(ReportData data, ReportContext context, ReportScope scope,
+                                         SecurityContext securityContext) {
+        return submit(CalculatorResource.COMPUTE, scope, securityContext, () -> {
+            data.load(context);
+            return (Void) null;
+        }).exceptionally(e -> {
+            LOGGER.warn("Loading {} for {} failed: {}", data, context.getTicker(), e.getMessage());
+            return null;
+        });
+    }
+
+    // the generation's cancellation token is rebound on the calculator thread for the model calls to check it
+    private Collection<ReportItem> timed(ReportItemCalculator calculator, ReportContext context,
+                                         ReportType reportType, SseEmitter sseEmitter, CancellationToken cancellation) {
+        cancellation.throwIfCancelled();
+        long start = System.nanoTime();
+        try {
+            return cancellation.within(() -> RequestPriority.inBackground(
+                    () -> calculator.calculate(context, reportType, sseEmitter)));
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("report.calculator.duration")
+                    .tag("calculator", calculator.name())
+                    .tag("resource", calculator.resource().name())
+                    .tag("report", reportType.name())
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            LOGGER.debug("Calculator {} for {} took {} ms", calculator.name(), context.getTicker(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(CalculatorResource resource, ReportScope scope,
+                                            SecurityContext securityContext, Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        lanes.get(resource).submit(new DelegatingSecurityContextRunnable(() -> {
+            if (!scope.enter()) {
+                result.cancel(false);
+                return;
+            }
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                scope.exit();
+            }
+        }, securityContext));
+        return result;
+    }
+
+    /**
+     * The threads running the tasks of one report. Once shut down, running tasks are interrupted and tasks that have
+     * not started yet are cancelled instead of being run.
+     */
+    private static final class ReportScope {
+        private final Set<Thread> running = new HashSet<>();
+        private Throwable failure;
+
+        synchronized boolean enter() {
+            if (failure != null) {
+                return false;
+            }
+            running.add(Thread.currentThread());
+            return true;
+        }
+
+        void exit() {
+            synchronized (this) {
+                running.remove(Thread.currentThread());
+                notifyAll();
+            }
+            // an interrupt meant for this task must not reach the next task of a pooled thread
+            Thread.interrupted();
+        }
+
+        synchronized void shutdown(Throwable cause) {
+            if (failure == null) {
+                failure = cause;
+                running.forEach(Thread::interrupt);
+            }
+        }
+
+        synchronized Throwable failure() {
+            return failure;
+        }
+
+        // uninterruptibly, the caller is being cancelled already
+        synchronized void awaitIdle() {
+            boolean interrupted = false;
+            while (!running.isEmpty()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Hands queued tasks to the executor only while fewer than the limit are running, so waiting tasks do not hold
+     * executor threads.
+     */
+    private final class ResourceLane {
+        private final Semaphore permits;
+        private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+        private ResourceLane(int limit) {
+            this.permits = new Semaphore(Math.max(1, limit));
+        }
+
+        void submit(Runnable task) {
+            waiting.add(task);
+            drain();
+        }
+
+        private void drain() {
+            while (!waiting.isEmpty() && permits.tryAcquire()) {
+                Runnable task = waiting.poll();
+                if (task == null) {
+                    permits.release();
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                        drain();
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.testehan.finana.service.reporting;
+
+import com.testehan.finana.model.CompanyOverview;
+import com.testehan.finana.model.EarningsEstimate;
+import com.testehan.finana.model.EarningsHistory;
+import com.testehan.finana.model.filing.TenKFilings;
+import com.testehan.finana.model.finstatement.BalanceSheetData;
+import com.testehan.finana.model.finstatement.CashFlowData;
+import com.testehan.finana.model.finstatement.IncomeStatementData;
+import com.testehan.finana.model.finstatement.RevenueGeographicSegmentationData;
+import com.testehan.finana.model.finstatement.RevenueSegmentationData;
+import com.testehan.finana.model.ratio.FinancialRatiosData;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Stored data of one ticker, shared by all calculators of a single report generation. Each document is loaded at
+ * most once, on first access. Calculators run in parallel, so the report lists of the loaded documents are
+ * read-only; sort a copy instead of the list itself.
+ */
+public final class ReportContext {
+
+    private final String ticker;
+    private final boolean regenerate;
+    private final Supplier<Optional<CompanyOverview>> companyOverview;
+    private final Supplier<Optional<TenKFilings>> latestTenKFiling;
+    private final Supplier<Optional<IncomeStatementData>> incomeStatement;
+    private final Supplier<Optional<BalanceSheetData>> balanceSheet;
+    private final Supplier<Optional<CashFlowData>> cashFlow;
+    private final Supplier<Optional<FinancialRatiosData>> financialRatios;
+    private final Supplier<Optional<EarningsHistory>> earningsHistory;
+    private final Supplier<Optional<EarningsEstimate>> earningsEstimate;
+    private final Supplier<Optional<RevenueSegmentationData>> revenueSegmentation;
+    private final Supplier<Optional<RevenueGeographicSegmentationData>> revenueGeographicSegmentation;
+
+    private ReportContext(Builder builder) {
+        this.ticker = builder.ticker;
+        this.regenerate = builder.regenerate;
+        this.companyOverview = lazy(builder.companyOverview, overview -> {});
+        this.latestTenKFiling = lazy(builder.latestTenKFiling, filing -> {});
+        this.incomeStatement = lazy(builder.incomeStatement, data -> {
+            data.setAnnualReports(readOnly(data.getAnnualReports()));
+            data.setQuarterlyReports(readOnly(data.getQuarterlyReports()));
+        });
+        this.balanceSheet = lazy(builder.balanceSheet, data -> {
+            data.setAnnualReports(readOnly(data.getAnnualReports()));
+            data.setQuarterlyReports(readOnly(data.getQuarterlyReports()));
+        });
+        this.cashFlow = lazy(builder.cashFlow, data -> {
+            data.setAnnualReports(readOnly(data.getAnnualReports()));
+            data.setQuarterlyReports(readOnly(data.getQuarterlyReports()));
+        });
+        this.financialRatios = lazy(builder.financialRatios, data -> {
+            data.setAnnualReports(readOnly(data.getAnnualReports()));
+            data.setQuarterlyReports(readOnly(data.getQuarterlyReports()));
+        });
+        this.earningsHistory = lazy(builder.earningsHistory,
+                history -> history.setQuarterlyEarnings(readOnly(history.getQuarterlyEarnings())));
+        this.earningsEstimate = lazy(builder.earningsEstimate,
+                estimate -> estimate.setEstimates(readOnly(estimate.getEstimates())));
+        this.revenueSegmentation = lazy(builder.revenueSegmentation, data -> {
+            data.setAnnualReports(readOnly(data.getAnnualReports()));
+            data.setQuarterlyReports(readOnly(data.getQuarterlyReports()));
+        });
+        this.revenueGeographicSegmentation = lazy(builder.revenueGeographicSegmentation,
+                data -> data.setReports(readOnly(data.getReports())));
+    }
+
+    public static Builder builder(String ticker) {
+        return new Builder(ticker);
+    }
+
+    public String getTicker() {
+        return ticker;
+    }
+
+    /**
+     * Whether the user asked to regenerate the analyses, in which case the calculators call the LLM again instead of
+     * reusing its cached answers.
+     */
+    public boolean isRegenerate() {
+        return regenerate;
+    }
+
+    public Optional<CompanyOverview> getCompanyOverview() {
+        return companyOverview.get();
+    }
+
+    /**
+     * The latest 10-K with its sections, the older filings are not loaded.
+     */
+    public Optional<TenKFilings> getLatestTenKFiling() {
+        return latestTenKFiling.get();
+    }
+
+    public Optional<IncomeStatementData> getIncomeStatement() {
+        return incomeStatement.get();
+    }
+
+    public Optional<BalanceSheetData> getBalanceSheet() {
+        return balanceSheet.get();
+    }
+
+    public Optional<CashFlowData> getCashFlow() {
+        return cashFlow.get();
+    }
+
+    public Optional<FinancialRatiosData> getFinancialRatios() {
+        return financialRatios.get();
+    }
+
+    public Optional<EarningsHistory> getEarningsHistory() {
+        return earningsHistory.get();
+    }
+
+    public Optional<EarningsEstimate> getEarningsEstimate() {
+        return earningsEstimate.get();
+    }
+
+    public Optional<RevenueSegmentationData> getRevenueSegmentation() {
+        return revenueSegmentation.get();
+    }
+
+    public Optional<RevenueGeographicSegmentationData> getRevenueGeographicSegmentation() {
+        return revenueGeographicSegmentation.get();
+    }
+
+    private <T> Supplier<Optional<T>> lazy(Function<String, Optional<T>> loader, Consumer<T> freeze) {
+        return new Supplier<>() {
+            private Optional<T> value;
+
+            @Override
+            public synchronized Optional<T> get() {
+                if (value == null) {
+                    value = loader.apply(ticker);
+                    value.ifPresent(freeze);
+                }
+                return value;
+            }
+        };
+    }
+
+    private static <T> List<T> readOnly(List<T> list) {
+        return list == null ? null : Collections.unmodifiableList(list);
+    }
+
+    public static final class Builder {
+        private final String ticker;
+        private boolean regenerate;
+        private Function<String, Optional<CompanyOverview>> companyOverview = symbol -> Optional.empty();
+        private Function<String, Optional<TenKFilings>> latestTenKFiling = symbol -> Optional.empty();
+        private Function<String, Optional<IncomeStatementData>> incomeStatement = symbol -> Optional.empty();
+        private Function<String, Optional<BalanceSheetData>> balanceSheet = symbol -> Optional.empty();
+        private Function<String, Optional<CashFlowData>> cashFlow = symbol -> Optional.empty();
+        private Function<String, Optional<FinancialRatiosData>> financialRatios = symbol -> Optional.empty();
+        private Function<String, Optional<EarningsHistory>> earningsHistory = symbol -> Optional.empty();
+        private Function<String, Optional<EarningsEstimate>> earningsEstimate = symbol -> Optional.empty();
+        private Function<String, Optional<RevenueSegmentationData>> revenueSegmentation = symbol -> Optional.empty();
+        private Function<String, Optional<RevenueGeographicSegmentationData>> revenueGeographicSegmentation = symbol -> Optional.empty();
+
+        private Builder(String ticker) {
+            this.ticker = ticker;
+        }
+
+        public Builder regenerate(boolean regenerate) {
+            this.regenerate = regenerate;
+            return this;
+        }
+
+        public Builder companyOverview(Function<String, Optional<CompanyOverview>> loader) {
+            this.companyOverview = loader;
+            return this;
+        }
+
+        public Builder latestTenKFiling(Function<String, Optional<TenKFilings>> loader) {
+            this.latestTenKFiling = loader;
+            return this;
+        }
+
+        public Builder incomeStatement(Function<String, Optional<IncomeStatementData>> loader) {
+            this.incomeStatement = loader;
+            return this;
+        }
+
+        public Builder balanceSheet(Function<String, Optional<BalanceSheetData>> loader) {
+            this.balanceSheet = loader;
+            return this;
+        }
+
+        public Builder cashFlow(Function<String, Optional<CashFlowData>> loader) {
+            this.cashFlow = loader;
+            return this;
+        }
+
+        public Builder financialRatios(Function<String, Optional<FinancialRatiosData>> loader) {
+            this.financialRatios = loader;
+            return this;
+        }
+
+        public Builder earningsHistory(Function<String, Optional<EarningsHistory>> loader) {
+            this.earningsHistory = loader;
+            return this;
+        }
+
+        public Builder earningsEstimate(Function<String, Optional<EarningsEstimate>> loader) {
+            this.earningsEstimate = loader;
+            return this;
+        }
+
+        public Builder revenueSegmentation(Function<String, Optional<RevenueSegmentationData>> loader) {
+            this.revenueSegmentation = loader;
+            return this;
+        }
+
+        public Builder revenueGeographicSegmentation(Function<String, Optional<RevenueGeographicSegmentationData>> loader) {
+            this.revenueGeographicSegmentation = loader;
+            return this;
+        }
+
+        public ReportContext build() {
+            return new ReportContext(this);
+        }
+    }
+}
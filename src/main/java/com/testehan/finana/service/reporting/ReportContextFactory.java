@@ -0,0 +1,66 @@
+package com.testehan.finana.service.reporting;
+
+import com.testehan.finana.repository.BalanceSheetRepository;
+import com.testehan.finana.repository.CashFlowRepository;
+import com.testehan.finana.repository.CompanyOverviewRepository;
+import com.testehan.finana.repository.EarningsEstimatesRepository;
+import com.testehan.finana.repository.EarningsHistoryRepository;
+import com.testehan.finana.repository.FinancialRatiosRepository;
+import com.testehan.finana.repository.IncomeStatementRepository;
+import com.testehan.finana.repository.RevenueGeographicSegmentationRepository;
+import com.testehan.finana.repository.RevenueSegmentationDataRepository;
+import com.testehan.finana.repository.SecFilingRepository;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ReportContextFactory {
+
+    private final CompanyOverviewRepository companyOverviewRepository;
+    private final SecFilingRepository secFilingRepository;
+    private final IncomeStatementRepository incomeStatementRepository;
+    private final BalanceSheetRepository balanceSheetRepository;
+    private final CashFlowRepository cashFlowRepository;
+    private final FinancialRatiosRepository financialRatiosRepository;
+    private final EarningsHistoryRepository earningsHistoryRepository;
+    private final EarningsEstimatesRepository earningsEstimatesRepository;
+    private final RevenueSegmentationDataRepository revenueSegmentationDataRepository;
+    private final RevenueGeographicSegmentationRepository revenueGeographicSegmentationRepository;
+
+    public ReportContextFactory(CompanyOverviewRepository companyOverviewRepository,
+                                SecFilingRepository secFilingRepository,
+                                IncomeStatementRepository incomeStatementRepository,
+                                BalanceSheetRepository balanceSheetRepository,
+                                CashFlowRepository cashFlowRepository,
+                                FinancialRatiosRepository financialRatiosRepository,
+                                EarningsHistoryRepository earningsHistoryRepository,
+                                EarningsEstimatesRepository earningsEstimatesRepository,
+                                RevenueSegmentationDataRepository revenueSegmentationDataRepository,
+                                RevenueGeographicSegmentationRepository revenueGeographicSegmentationRepository) {
+        this.companyOverviewRepository = companyOverviewRepository;
+        this.secFilingRepository = secFilingRepository;
+        this.incomeStatementRepository = incomeStatementRepository;
+        this.balanceSheetRepository = balanceSheetRepository;
+        this.cashFlowRepository = cashFlowRepository;
+        this.financialRatiosRepository = financialRatiosRepository;
+        this.earningsHistoryRepository = earningsHistoryRepository;
+        this.earningsEstimatesRepository = earningsEstimatesRepository;
+        this.revenueSegmentationDataRepository = revenueSegmentationDataRepository;
+        this.revenueGeographicSegmentationRepository = revenueGeographicSegmentationRepository;
+    }
+
+    public ReportContext create(String ticker, boolean regenerate) {
+        return ReportContext.builder(ticker)
+                .regenerate(regenerate)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .balanceSheet(balanceSheetRepository::findBySymbol)
+                .cashFlow(cashFlowRepository::findBySymbol)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .earningsHistory(earningsHistoryRepository::findBySymbol)
+                .earningsEstimate(earningsEstimatesRepository::findBySymbol)
+                .revenueSegmentation(revenueSegmentationDataRepository::findBySymbol)
+                .revenueGeographicSegmentation(revenueGeographicSegmentationRepository::findBySymbol)
+                .build();
+    }
+}
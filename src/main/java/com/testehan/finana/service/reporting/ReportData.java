@@ -0,0 +1,30 @@
+package com.testehan.finana.service.reporting;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The documents of a {@link ReportContext} a calculator can depend on.
+ */
+public enum ReportData {
+    COMPANY_OVERVIEW(ReportContext::getCompanyOverview),
+    LATEST_TEN_K_FILING(ReportContext::getLatestTenKFiling),
+    INCOME_STATEMENT(ReportContext::getIncomeStatement),
+    BALANCE_SHEET(ReportContext::getBalanceSheet),
+    CASH_FLOW(ReportContext::getCashFlow),
+    FINANCIAL_RATIOS(ReportContext::getFinancialRatios),
+    EARNINGS_HISTORY(ReportContext::getEarningsHistory),
+    EARNINGS_ESTIMATE(ReportContext::getEarningsEstimate),
+    REVENUE_SEGMENTATION(ReportContext::getRevenueSegmentation),
+    REVENUE_GEOGRAPHIC_SEGMENTATION(ReportContext::getRevenueGeographicSegmentation);
+
+    private final Function<ReportContext, Optional<?>> loader;
+
+    ReportData(Function<ReportContext, Optional<?>> loader) {
+        this.loader = loader;
+    }
+
+    public void load(ReportContext context) {
+        loader.apply(context);
+    }
+}
@@ -20,9 +20,13 @@ public class ReportEventListener {
     @EventListener
     public void handleMessageEvent(MessageEvent event) {
         SseEmitter emitter = event.getSseEmitter();
+        if (isDisconnected(emitter)) {
+            return;
+        }
         try {
             emitter.send(SseEmitter.event().name("MESSAGE").data(event.getMessage()));
         } catch (IOException e) {
+            // the emitter counts failed sends, a client is only taken as gone after several in a row
             LOGGER.warn("Failed to send SSE message event for ticker {}: {}", event.getTicker(), e.getMessage());
         }
     }
@@ -30,6 +34,10 @@ public class ReportEventListener {
     @EventListener
     public void handleCompletionEvent(CompletionEvent event) {
         SseEmitter emitter = event.getSseEmitter();
+        if (isDisconnected(emitter)) {
+            LOGGER.info("Checklist report for {} finished after its client disconnected.", event.getTicker());
+            return;
+        }
         try {
             emitter.send(SseEmitter.event()
                     .name("COMPLETED")
@@ -45,6 +53,10 @@ public class ReportEventListener {
     @EventListener
     public void handleErrorEvent(ErrorEvent event) {
         SseEmitter emitter = event.getSseEmitter();
+        if (isDisconnected(emitter)) {
+            LOGGER.error("Error during report generation for ticker {}: {}", event.getTicker(), event.getThrowable().getMessage(), event.getThrowable());
+            return;
+        }
         try {
             emitter.send(SseEmitter.event()
                     .name("ERROR")
@@ -55,4 +67,8 @@ public class ReportEventListener {
             emitter.completeWithError(e);
         }
     }
+
+    private static boolean isDisconnected(SseEmitter emitter) {
+        return emitter instanceof ReportSseEmitter reportEmitter && reportEmitter.isDisconnected();
+    }
 }
@@ -5,7 +5,8 @@ import com.testehan.finana.model.reporting.ReportType;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 public interface ReportGenerator {
-    void generate(String ticker, ReportType reportType, SseEmitter sseEmitter) throws InterruptedException;
+    // regenerate makes the calculators call the LLM again instead of reusing its cached answers
+    void generate(String ticker, ReportType reportType, SseEmitter sseEmitter, boolean regenerate) throws InterruptedException;
     ReportType getReportType();
 
     default ReportItem createErrorReportItem(String explanation) {
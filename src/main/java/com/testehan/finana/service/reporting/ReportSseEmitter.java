@@ -0,0 +1,103 @@
+package com.testehan.finana.service.reporting;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Emitter of a report request that notices when its client is gone: on timeout, on a connection error, when the
+ * request ends before the report completed the emitter, or after {@value #MAX_FAILED_SENDS} sends in a row failed.
+ * A single failed send is not taken as a disconnect. Once disconnected, events for it are dropped instead of being
+ * sent.
+ */
+public class ReportSseEmitter extends SseEmitter {
+
+    static final int MAX_FAILED_SENDS = 3;
+
+    // guarded by this
+    private boolean disconnected;
+    private int failedSends;
+    private boolean completed;
+    private Runnable disconnectHandler;
+
+    public ReportSseEmitter(Long timeout) {
+        super(timeout);
+        onTimeout(this::markDisconnected);
+        onError(e -> markDisconnected());
+        onCompletion(() -> {
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+            }
+            markDisconnected();
+        });
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+        try {
+            super.send(builder);
+        } catch (IOException | RuntimeException e) {
+            boolean gone;
+            synchronized (this) {
+                gone = ++failedSends >= MAX_FAILED_SENDS;
+            }
+            if (gone) {
+                markDisconnected();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            failedSends = 0;
+        }
+    }
+
+    @Override
+    public void complete() {
+        synchronized (this) {
+            completed = true;
+        }
+        super.complete();
+    }
+
+    @Override
+    public void completeWithError(Throwable ex) {
+        synchronized (this) {
+            completed = true;
+        }
+        super.completeWithError(ex);
+    }
+
+    public synchronized boolean isDisconnected() {
+        return disconnected;
+    }
+
+    /**
+     * Runs the handler once the client disconnects, or right away when it has already.
+     */
+    public void onDisconnect(Runnable handler) {
+        synchronized (this) {
+            if (!disconnected) {
+                disconnectHandler = handler;
+                return;
+            }
+        }
+        handler.run();
+    }
+
+    public void markDisconnected() {
+        Runnable handler;
+        synchronized (this) {
+            if (disconnected) {
+                return;
+            }
+            disconnected = true;
+            handler = disconnectHandler;
+            disconnectHandler = null;
+        }
+        if (handler != null) {
+            handler.run();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.testehan.finana.service.reporting.calc;
+
+/**
+ * What a calculator spends its time on. The report scheduler limits how many compute calculators run at the same
+ * time across all reports; the model calls of LLM calculators are paced by LlmCallScheduler.
+ */
+public enum CalculatorResource {
+    /** Only reads the report data and computes. */
+    COMPUTE,
+    /** Calls Gemini through LlmService.callLlm or callLlmWithSearch. */
+    LLM_GEMINI,
+    /** Calls LlmService.callLlmWithOllama, which goes to the local Ollama model unless app.llm.use-ollama=false. */
+    LLM_OLLAMA
+}
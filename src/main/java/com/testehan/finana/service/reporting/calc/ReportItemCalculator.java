@@ -2,15 +2,27 @@ package com.testehan.finana.service.reporting.calc;
 
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.reporting.ReportType;
+import com.testehan.finana.service.reporting.ReportContext;
+import com.testehan.finana.service.reporting.ReportData;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Collection;
+import java.util.Set;
 
 @FunctionalInterface
 public interface ReportItemCalculator {
-    Collection<ReportItem> calculate(String ticker, ReportType reportType, SseEmitter sseEmitter);
+    Collection<ReportItem> calculate(ReportContext context, ReportType reportType, SseEmitter sseEmitter);
 
-    default boolean canRunInParallel() {
-        return true;
+    default String name() {
+        return getClass().getSimpleName();
+    }
+
+    default CalculatorResource resource() {
+        return CalculatorResource.COMPUTE;
+    }
+
+    // documents loaded before the calculator starts
+    default Set<ReportData> requires() {
+        return Set.of();
     }
 }
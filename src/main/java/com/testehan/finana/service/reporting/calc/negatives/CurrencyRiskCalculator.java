@@ -2,7 +2,7 @@ package com.testehan.finana.service.reporting.calc.negatives;
 
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.finstatement.RevenueGeographicSegmentationReport;
-import com.testehan.finana.repository.RevenueGeographicSegmentationRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,16 +19,15 @@ import java.util.stream.Collectors;
 public class CurrencyRiskCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(CurrencyRiskCalculator.class);
 
-    private final RevenueGeographicSegmentationRepository revenueGeographicSegmentationRepository;
     private final ApplicationEventPublisher eventPublisher;
 
-    public CurrencyRiskCalculator(RevenueGeographicSegmentationRepository revenueGeographicSegmentationRepository, ApplicationEventPublisher eventPublisher) {
-        this.revenueGeographicSegmentationRepository = revenueGeographicSegmentationRepository;
+    public CurrencyRiskCalculator(ApplicationEventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        var revenueGeographyOptional = revenueGeographicSegmentationRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        var revenueGeographyOptional = context.getRevenueGeographicSegmentation();
 
         if (revenueGeographyOptional.isPresent() && Objects.nonNull(revenueGeographyOptional.get().getReports())
                 &&!revenueGeographyOptional.get().getReports().isEmpty())
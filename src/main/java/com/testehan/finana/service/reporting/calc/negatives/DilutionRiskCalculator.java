@@ -2,7 +2,7 @@ package com.testehan.finana.service.reporting.calc.negatives;
 
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.finstatement.IncomeReport;
-import com.testehan.finana.repository.IncomeStatementRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -14,6 +14,7 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Objects;
 
@@ -24,20 +25,19 @@ public class DilutionRiskCalculator {
     private static final BigDecimal FIVE_PERCENT = new BigDecimal("5.0");
     private static final BigDecimal THREE_PERCENT = new BigDecimal("3.0");
 
-    private final IncomeStatementRepository incomeStatementRepository;
     private final ApplicationEventPublisher eventPublisher;
 
-    public DilutionRiskCalculator(IncomeStatementRepository incomeStatementRepository, ApplicationEventPublisher eventPublisher) {
-        this.incomeStatementRepository = incomeStatementRepository;
+    public DilutionRiskCalculator(ApplicationEventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        var incomeDataOptional = incomeStatementRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        var incomeDataOptional = context.getIncomeStatement();
         if (incomeDataOptional.isPresent() && !Objects.isNull(incomeDataOptional.get().getAnnualReports())
             && ! incomeDataOptional.get().getAnnualReports().isEmpty()){
 
-            var statements = incomeDataOptional.get().getAnnualReports();
+            var statements = new ArrayList<>(incomeDataOptional.get().getAnnualReports());
 
             // Validation: Need at least 2 years to calculate growth
             if (statements == null || statements.size() < 2) {
@@ -49,8 +49,8 @@ public class DilutionRiskCalculator {
 
             // Step 2: Get Start and End values
             // We look at the oldest available and the newest available
-            BigDecimal startShares = new BigDecimal(statements.get(0).getWeightedAverageShsOutDil());
-            BigDecimal endShares = new BigDecimal(statements.get(statements.size() - 1).getWeightedAverageShsOutDil());
+            BigDecimal startShares = statements.get(0).getWeightedAverageShsOutDil();
+            BigDecimal endShares = statements.get(statements.size() - 1).getWeightedAverageShsOutDil();
 
             // Step 3 : The number of growth periods is (DataPoints - 1)
             // e.g., 5 years of data = 4 years of growth transitions
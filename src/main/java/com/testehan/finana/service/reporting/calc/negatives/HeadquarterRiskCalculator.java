@@ -1,7 +1,7 @@
 package com.testehan.finana.service.reporting.calc.negatives;
 
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.CompanyOverviewRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,16 +17,15 @@ import java.util.Objects;
 public class HeadquarterRiskCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(HeadquarterRiskCalculator.class);
 
-    private final CompanyOverviewRepository companyOverviewRepository;
     private final ApplicationEventPublisher eventPublisher;
 
-    public HeadquarterRiskCalculator(CompanyOverviewRepository companyOverviewRepository, ApplicationEventPublisher eventPublisher) {
-        this.companyOverviewRepository = companyOverviewRepository;
+    public HeadquarterRiskCalculator(ApplicationEventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        var companyOverviewOptional = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        var companyOverviewOptional = context.getCompanyOverview();
 
         if (companyOverviewOptional.isPresent() && !Objects.isNull(companyOverviewOptional.get().getCountry()))
         {
@@ -1,11 +1,10 @@
 package com.testehan.finana.service.reporting.calc.negatives;
 
 import com.testehan.finana.model.CompanyOverview;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.llm.responses.FerolNegativesAnalysisLlmResponse;
-import com.testehan.finana.repository.CompanyOverviewRepository;
-import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
@@ -26,24 +25,21 @@ import com.testehan.finana.exception.InsufficientCreditException;
 public class MultipleRisksCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(MultipleRisksCalculator.class);
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final SecFilingRepository secFilingRepository;
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
 // todo maybe i should also add here the latest q&a with analysts and investors from db..
     @Value("classpath:/prompts/negatives_prompt.txt")
     private Resource multipleNegativesPrompt;
 
-    public MultipleRisksCalculator(CompanyOverviewRepository companyOverviewRepository, SecFilingRepository secFilingRepository, LlmService llmService, ApplicationEventPublisher eventPublisher) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.secFilingRepository = secFilingRepository;
+    public MultipleRisksCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
     }
 
-    public FerolNegativesAnalysisLlmResponse calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public FerolNegativesAnalysisLlmResponse calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
 
         PromptTemplate promptTemplate = new PromptTemplate(multipleNegativesPrompt);
         Map<String, Object> promptParameters = new HashMap<>();
@@ -53,19 +49,10 @@ public class MultipleRisksCalculator {
             promptParameters.put("company_name", companyOverview.get().getCompanyName());
         }
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            promptParameters.put("business_description", latestTenKFiling.getBusinessDescription());
-                            promptParameters.put("risk_factors", latestTenKFiling.getRiskFactors());
-                            promptParameters.put("management_discussion", latestTenKFiling.getManagementDiscussion());
-
-                        });
-            } else {
-                LOGGER.warn("No 10k found for ticker: {}", ticker);
-                eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get business description."));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            promptParameters.put("business_description", latestTenKFiling.getBusinessDescription());
+            promptParameters.put("risk_factors", latestTenKFiling.getRiskFactors());
+            promptParameters.put("management_discussion", latestTenKFiling.getManagementDiscussion());
         }, () -> {
             LOGGER.warn("No 10k found for ticker: {}", ticker);
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get business description."));
@@ -83,7 +70,7 @@ public class MultipleRisksCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for moat analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt); // TODO work on seeing how many of these local ollama calls you can make for a checklist..
-            String llmResponse = llmService.callLlmWithOllama(prompt, "multiple_risks_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "multiple_risks_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for moat analysis."));
             return ferolLlmResponseOutputConverter.convert(llmResponse);
 
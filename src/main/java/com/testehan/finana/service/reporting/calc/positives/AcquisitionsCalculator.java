@@ -2,7 +2,7 @@ package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.IncomeStatementRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,16 +20,15 @@ import java.util.stream.Collectors;
 public class AcquisitionsCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(AcquisitionsCalculator.class);
 
-    private final IncomeStatementRepository incomeStatementRepository;
     private final ApplicationEventPublisher eventPublisher;
 
-    public AcquisitionsCalculator(IncomeStatementRepository incomeStatementRepository, ApplicationEventPublisher eventPublisher) {
-        this.incomeStatementRepository = incomeStatementRepository;
+    public AcquisitionsCalculator(ApplicationEventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        var incomeDataOptional = incomeStatementRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        var incomeDataOptional = context.getIncomeStatement();
         if (incomeDataOptional.isPresent()){
             var incomeData = incomeDataOptional.get();
 
@@ -54,12 +53,12 @@ public class AcquisitionsCalculator {
             int currentWeight = 3;
 
             for (IncomeReport report : sortedReports) {
-                BigDecimal salesAndMarketExpense = new BigDecimal(report.getSellingAndMarketingExpenses());
-                BigDecimal grossProfit = new BigDecimal(report.getGrossProfit());
+                BigDecimal salesAndMarketExpense = report.getSellingAndMarketingExpenses();
+                BigDecimal grossProfit = report.getGrossProfit();
 
                 // 2. Fallback: If S&M is null or Zero, use SG&A
                 if (salesAndMarketExpense == null || salesAndMarketExpense.compareTo(BigDecimal.ZERO) == 0) {
-                    salesAndMarketExpense =  new BigDecimal(report.getSellingGeneralAndAdministrativeExpenses());
+                    salesAndMarketExpense =  report.getSellingGeneralAndAdministrativeExpenses();
                     // Optional: You could log that you are using a proxy here
                 }
 
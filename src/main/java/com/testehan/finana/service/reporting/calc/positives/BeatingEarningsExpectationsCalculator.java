@@ -3,8 +3,8 @@ package com.testehan.finana.service.reporting.calc.positives;
 import com.testehan.finana.model.EarningsHistory;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.QuarterlyEarning;
-import com.testehan.finana.repository.EarningsHistoryRepository;
 import com.testehan.finana.service.FinancialDataService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,16 +22,15 @@ public class BeatingEarningsExpectationsCalculator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BeatingEarningsExpectationsCalculator.class);
 
-    private final EarningsHistoryRepository earningsHistoryRepository;
     private final ApplicationEventPublisher eventPublisher;
 
-    public BeatingEarningsExpectationsCalculator(FinancialDataService financialDataService, EarningsHistoryRepository earningsHistoryRepository, ApplicationEventPublisher eventPublisher) {
-        this.earningsHistoryRepository = earningsHistoryRepository;
+    public BeatingEarningsExpectationsCalculator(FinancialDataService financialDataService, ApplicationEventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculateUpsidePerformance(String ticker, SseEmitter sseEmitter) {
-        Optional<EarningsHistory> earningsHistory = earningsHistoryRepository.findBySymbol(ticker);
+    public ReportItem calculateUpsidePerformance(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<EarningsHistory> earningsHistory = context.getEarningsHistory();
 
         if (earningsHistory.isPresent() && Objects.nonNull(earningsHistory.get().getQuarterlyEarnings())
                 && !earningsHistory.get().getQuarterlyEarnings().isEmpty()){
@@ -1,16 +1,13 @@
 package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.*;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
 import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.CompanyOverviewRepository;
-import com.testehan.finana.repository.FinancialRatiosRepository;
-import com.testehan.finana.repository.IncomeStatementRepository;
-import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
@@ -38,25 +35,18 @@ public class CapitalAllocationCalculator {
     @Value("classpath:/prompts/100Bagger/capital_allocation_prompt.txt")
     private Resource capitalAllocationPrompt;
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final IncomeStatementRepository incomeStatementRepository;
-    private final FinancialRatiosRepository financialRatiosRepository;
-    private final SecFilingRepository secFilingRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final LlmService llmService;
 
-    public CapitalAllocationCalculator(CompanyOverviewRepository companyOverviewRepository, IncomeStatementRepository incomeStatementRepository, FinancialRatiosRepository financialRatiosRepository, SecFilingRepository secFilingRepository, ApplicationEventPublisher eventPublisher, LlmService llmService) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.incomeStatementRepository = incomeStatementRepository;
-        this.financialRatiosRepository = financialRatiosRepository;
-        this.secFilingRepository = secFilingRepository;
+    public CapitalAllocationCalculator(ApplicationEventPublisher eventPublisher, LlmService llmService) {
         this.eventPublisher = eventPublisher;
         this.llmService = llmService;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
 
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
         if (companyOverview.isEmpty()){
             String errorMessage = "No Company overview found for ticker " + ticker;
             LOGGER.warn(errorMessage);
@@ -64,24 +54,16 @@ public class CapitalAllocationCalculator {
             return new ReportItem("capitalAllocationSkill", -10, "Something went wrong and score could not be calculated ");
         }
 
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
 
         StringBuilder businessDescription = new StringBuilder();
         StringBuilder riskFactors = new StringBuilder();
         StringBuilder managementDiscussion = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            businessDescription.append(latestTenKFiling.getBusinessDescription());
-                            riskFactors.append(latestTenKFiling.getRiskFactors());
-                            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
-                        });
-            } else {
-                LOGGER.warn("No 10k found for ticker: {}", ticker);
-                eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get business description."));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            businessDescription.append(latestTenKFiling.getBusinessDescription());
+            riskFactors.append(latestTenKFiling.getRiskFactors());
+            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
         }, () -> {
             LOGGER.warn("No 10k found for ticker: {}", ticker);
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get business description."));
@@ -89,7 +71,7 @@ public class CapitalAllocationCalculator {
 
         int shareScore;
         int debtScore;
-        var netDebtToEbitda = calculateNetDebtToEbitda(ticker);
+        var netDebtToEbitda = calculateNetDebtToEbitda(context);
         StringBuilder netDebtToEbitdaExplanation = new StringBuilder();
         if (netDebtToEbitda.doubleValue() <= 0) {
             // Net Cash Position (Antifragile)
@@ -109,7 +91,7 @@ public class CapitalAllocationCalculator {
             debtScore = 0;
         }
 
-        var shareCountCagr = calculateSharesOutstandingCAGR(ticker);
+        var shareCountCagr = calculateSharesOutstandingCAGR(context);
         StringBuilder shareCountCagrExplanation = new StringBuilder();
         // --- 1. The Cannibal Score (Max 4 pts) ---
         // Previous threshold -0.005 (-0.5%) becomes -0.5
@@ -154,7 +136,7 @@ public class CapitalAllocationCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for capital allocation analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithOllama(prompt, "capital_allocation_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "capital_allocation_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response with capital allocation analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = llmResponseOutputConverter.convert(llmResponse);
 
@@ -174,8 +156,8 @@ return new ReportItem("capitalAllocationSkill", -10, "Operation 'calculateCapita
     }
 
 
-    private BigDecimal calculateNetDebtToEbitda(String ticker){
-        Optional<FinancialRatiosData> financialRatios = financialRatiosRepository.findBySymbol(ticker);
+    private BigDecimal calculateNetDebtToEbitda(ReportContext context){
+        Optional<FinancialRatiosData> financialRatios = context.getFinancialRatios();
 
         StringBuilder result = new StringBuilder();
         financialRatios.ifPresentOrElse(financialRatiosData -> {
@@ -195,12 +177,13 @@ return new ReportItem("capitalAllocationSkill", -10, "Operation 'calculateCapita
         return new BigDecimal(result.toString());
     }
 
-    private BigDecimal calculateSharesOutstandingCAGR(String ticker) {
-        var incomeDataOptional = incomeStatementRepository.findBySymbol(ticker);
+    private BigDecimal calculateSharesOutstandingCAGR(ReportContext context) {
+        String ticker = context.getTicker();
+        var incomeDataOptional = context.getIncomeStatement();
         if (incomeDataOptional.isPresent() && !Objects.isNull(incomeDataOptional.get().getAnnualReports())
                 && !incomeDataOptional.get().getAnnualReports().isEmpty()) {
 
-            var statements = incomeDataOptional.get().getAnnualReports();
+            var statements = new ArrayList<>(incomeDataOptional.get().getAnnualReports());
 
             if (statements.size() < 2) {
                 LOGGER.warn("Insufficient data for {}: {} years of data available, but at least 2 are required to calculate CAGR.", ticker, statements.size());
@@ -211,8 +194,8 @@ return new ReportItem("capitalAllocationSkill", -10, "Operation 'calculateCapita
 
             List<IncomeReport> recentStatements = statements.subList(Math.max(0, statements.size() - 5), statements.size());
 
-            BigDecimal startShares = new BigDecimal(recentStatements.get(0).getWeightedAverageShsOutDil());
-            BigDecimal endShares = new BigDecimal(recentStatements.get(recentStatements.size() - 1).getWeightedAverageShsOutDil());
+            BigDecimal startShares = recentStatements.get(0).getWeightedAverageShsOutDil();
+            BigDecimal endShares = recentStatements.get(recentStatements.size() - 1).getWeightedAverageShsOutDil();
 
             double periods = recentStatements.size() - 1.0;
 
@@ -3,8 +3,8 @@ package com.testehan.finana.service.reporting.calc.positives;
 import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
-import com.testehan.finana.repository.CompanyOverviewRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
@@ -31,18 +31,17 @@ public class CultureCalculator {
     @Value("classpath:/prompts/culture_prompt.txt")
     private Resource culturePrompt;
 
-    private final CompanyOverviewRepository companyOverviewRepository;
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
 
-    public CultureCalculator(CompanyOverviewRepository companyOverviewRepository, LlmService llmService, ApplicationEventPublisher eventPublisher) {
-        this.companyOverviewRepository = companyOverviewRepository;
+    public CultureCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
         if (companyOverview.isEmpty()){
             var errorMessage = "No Company overview found for ticker: "+ ticker;
             LOGGER.warn(errorMessage);
@@ -62,7 +61,7 @@ public class CultureCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for company culture analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithSearch(prompt.getContents(), "culture_analysis", ticker);
+            String llmResponse = llmService.callLlmWithSearch(prompt.getContents(), "culture_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response with company culture analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = ferolLlmResponseOutputConverter.convert(llmResponse);
 
@@ -4,13 +4,10 @@ import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
-import com.testehan.finana.repository.CompanyOverviewRepository;
-import com.testehan.finana.repository.FinancialRatiosRepository;
-import com.testehan.finana.repository.IncomeStatementRepository;
-import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
@@ -28,7 +25,6 @@ import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import com.testehan.finana.exception.InsufficientCreditException;
 
@@ -36,48 +32,33 @@ import com.testehan.finana.exception.InsufficientCreditException;
 public class CyclicalityCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(CyclicalityCalculator.class);
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final SecFilingRepository secFilingRepository;
-    private final IncomeStatementRepository incomeStatementRepository;
-    private final FinancialRatiosRepository financialRatiosRepository;
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
 
     @Value("classpath:/prompts/customers_cyclicality.txt")
     private Resource companyCyclicalityPrompt;
 
-    public CyclicalityCalculator(CompanyOverviewRepository companyOverviewRepository, SecFilingRepository secFilingRepository, IncomeStatementRepository incomeStatementRepository, FinancialRatiosRepository financialRatiosRepository, LlmService llmService, ApplicationEventPublisher eventPublisher) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.secFilingRepository = secFilingRepository;
-        this.incomeStatementRepository = incomeStatementRepository;
-        this.financialRatiosRepository = financialRatiosRepository;
+    public CyclicalityCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
         if (companyOverview.isEmpty()){
             String errorMessage = "No Company overview found for ticker " + ticker;
             LOGGER.warn(errorMessage);
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
             return new ReportItem("companyCyclicality", -10, "Something went wrong and score could not be calculated ");
         }
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
         StringBuilder riskFactors = new StringBuilder();
         StringBuilder businessDescription = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            riskFactors.append(latestTenKFiling.getRiskFactors());
-                            businessDescription.append(latestTenKFiling.getBusinessDescription());
-                        });
-            } else {
-                LOGGER.warn("No 10k found for ticker: {}", ticker);
-                eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get risk factors."));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            riskFactors.append(latestTenKFiling.getRiskFactors());
+            businessDescription.append(latestTenKFiling.getBusinessDescription());
         }, () -> {
             LOGGER.warn("No 10k found for ticker: {}", ticker);
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get risk factors."));
@@ -86,7 +67,7 @@ public class CyclicalityCalculator {
         PromptTemplate promptTemplate = new PromptTemplate(companyCyclicalityPrompt);
         Map<String, Object> promptParameters = new HashMap<>();
 
-        Optional<IncomeStatementData> incomeStatementDataOptional = incomeStatementRepository.findBySymbol(ticker);
+        Optional<IncomeStatementData> incomeStatementDataOptional = context.getIncomeStatement();
         if (incomeStatementDataOptional.isEmpty()) {
             String errorMessage = "No income statement data found for ticker " + ticker;
             LOGGER.warn(errorMessage);
@@ -101,7 +82,7 @@ public class CyclicalityCalculator {
             promptParameters.put("company_revenue_trend", companyRevenueTrend.toString());
         }
 
-        Optional<FinancialRatiosData> financialRatiosDataOptional = financialRatiosRepository.findBySymbol(ticker);
+        Optional<FinancialRatiosData> financialRatiosDataOptional = context.getFinancialRatios();
         if (financialRatiosDataOptional.isEmpty()) {
             String errorMessage = "No financial ratios data found for ticker " + ticker;
             LOGGER.warn(errorMessage);
@@ -131,7 +112,7 @@ public class CyclicalityCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for company cyclicality analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithOllama(prompt, "cyclicality_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "cyclicality_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for company cyclicality analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = ferolLlmResponseOutputConverter.convert(llmResponse);
 
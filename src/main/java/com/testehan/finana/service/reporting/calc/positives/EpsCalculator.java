@@ -3,7 +3,7 @@ package com.testehan.finana.service.reporting.calc.positives;
 import com.testehan.finana.model.EarningsHistory;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.QuarterlyEarning;
-import com.testehan.finana.repository.EarningsHistoryRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
 import org.slf4j.Logger;
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -23,20 +24,19 @@ import java.util.stream.Collectors;
 public class EpsCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(EpsCalculator.class);
 
-    private final EarningsHistoryRepository earningsHistoryRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final SafeParser safeParser;
 
-    public EpsCalculator(EarningsHistoryRepository earningsHistoryRepository, ApplicationEventPublisher eventPublisher, SafeParser safeParser) {
-        this.earningsHistoryRepository = earningsHistoryRepository;
+    public EpsCalculator(ApplicationEventPublisher eventPublisher, SafeParser safeParser) {
         this.eventPublisher = eventPublisher;
         this.safeParser = safeParser;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
         eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Calculating Earnings Per Share (EPS)..."));
 
-        Optional<EarningsHistory> earningsHistoryOptional = earningsHistoryRepository.findBySymbol(ticker);
+        Optional<EarningsHistory> earningsHistoryOptional = context.getEarningsHistory();
 
         if (earningsHistoryOptional.isEmpty() || Objects.isNull(earningsHistoryOptional.get().getQuarterlyEarnings())
                 || earningsHistoryOptional.get().getQuarterlyEarnings().size() < 8) {
@@ -45,7 +45,7 @@ public class EpsCalculator {
             return new ReportItem("earningsPerShare", 0, "Insufficient quarterly earnings history data for EPS calculation (need at least 8 quarters).");
         }
 
-        List<QuarterlyEarning> quarterlyEarnings = earningsHistoryOptional.get().getQuarterlyEarnings();
+        List<QuarterlyEarning> quarterlyEarnings = new ArrayList<>(earningsHistoryOptional.get().getQuarterlyEarnings());
         // Sort by reportedDate in descending order to get latest first
         quarterlyEarnings.sort(Comparator.comparing(QuarterlyEarning::getFiscalDateEnding).reversed());
 
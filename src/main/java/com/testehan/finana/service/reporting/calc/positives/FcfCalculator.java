@@ -5,8 +5,7 @@ import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.ratio.FinancialRatiosReport;
 import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
-import com.testehan.finana.repository.FinancialRatiosRepository;
-import com.testehan.finana.repository.IncomeStatementRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
 import org.slf4j.Logger;
@@ -16,6 +15,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -26,23 +26,20 @@ import java.util.stream.Collectors;
 public class FcfCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(FcfCalculator.class);
 
-    private final FinancialRatiosRepository financialRatiosRepository;
-    private final IncomeStatementRepository incomeStatementRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final SafeParser safeParser;
 
-    public FcfCalculator(FinancialRatiosRepository financialRatiosRepository, IncomeStatementRepository incomeStatementRepository, ApplicationEventPublisher eventPublisher, SafeParser safeParser) {
-        this.financialRatiosRepository = financialRatiosRepository;
-        this.incomeStatementRepository = incomeStatementRepository;
+    public FcfCalculator(ApplicationEventPublisher eventPublisher, SafeParser safeParser) {
         this.eventPublisher = eventPublisher;
         this.safeParser = safeParser;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
         eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Calculating Free Cash Flow (FCF)..."));
 
-        Optional<FinancialRatiosData> financialRatiosDataOptional = financialRatiosRepository.findBySymbol(ticker);
-        Optional<IncomeStatementData> incomeStatementDataOptional = incomeStatementRepository.findBySymbol(ticker);
+        Optional<FinancialRatiosData> financialRatiosDataOptional = context.getFinancialRatios();
+        Optional<IncomeStatementData> incomeStatementDataOptional = context.getIncomeStatement();
 
         if (financialRatiosDataOptional.isEmpty() || financialRatiosDataOptional.get().getAnnualReports().isEmpty() ||
             incomeStatementDataOptional.isEmpty() || incomeStatementDataOptional.get().getAnnualReports().isEmpty()) {
@@ -51,8 +48,8 @@ public class FcfCalculator {
             return new ReportItem("freeCashFlow", 0, "Insufficient annual data for Free Cash Flow calculation.");
         }
 
-        List<FinancialRatiosReport> annualFinancialRatiosReports = financialRatiosDataOptional.get().getAnnualReports();
-        List<IncomeReport> annualIncomeReports = incomeStatementDataOptional.get().getAnnualReports();
+        List<FinancialRatiosReport> annualFinancialRatiosReports = new ArrayList<>(financialRatiosDataOptional.get().getAnnualReports());
+        List<IncomeReport> annualIncomeReports = new ArrayList<>(incomeStatementDataOptional.get().getAnnualReports());
 
         // Sort reports by fiscal date ending in descending order
         annualFinancialRatiosReports.sort(Comparator.comparing(FinancialRatiosReport::getDate).reversed());
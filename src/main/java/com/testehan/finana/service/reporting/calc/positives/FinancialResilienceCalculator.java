@@ -6,9 +6,8 @@ import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
-import com.testehan.finana.repository.BalanceSheetRepository;
-import com.testehan.finana.repository.IncomeStatementRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
@@ -36,8 +35,6 @@ import com.testehan.finana.exception.InsufficientCreditException;
 public class FinancialResilienceCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(FinancialResilienceCalculator.class);
 
-    private final IncomeStatementRepository incomeStatementRepository;
-    private final BalanceSheetRepository balanceSheetRepository;
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
     private final SafeParser safeParser;
@@ -45,17 +42,16 @@ public class FinancialResilienceCalculator {
     @Value("classpath:/prompts/financial_resilience_prompt.txt")
     private Resource financialResiliencePrompt;
 
-    public FinancialResilienceCalculator(IncomeStatementRepository incomeStatementRepository, BalanceSheetRepository balanceSheetRepository, LlmService llmService, ApplicationEventPublisher eventPublisher, SafeParser safeParser) {
-        this.incomeStatementRepository = incomeStatementRepository;
-        this.balanceSheetRepository = balanceSheetRepository;
+    public FinancialResilienceCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher, SafeParser safeParser) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
         this.safeParser = safeParser;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<IncomeStatementData> incomeStatementData = incomeStatementRepository.findBySymbol(ticker);
-        Optional<BalanceSheetData> balanceSheetData = balanceSheetRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<IncomeStatementData> incomeStatementData = context.getIncomeStatement();
+        Optional<BalanceSheetData> balanceSheetData = context.getBalanceSheet();
 
         final BigDecimal[] totalCashAndEquivalents = {BigDecimal.ZERO};
         final BigDecimal[] totalDebt = {BigDecimal.ZERO};
@@ -106,7 +102,7 @@ public class FinancialResilienceCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for resilience analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithOllama(prompt, "financial_resilience_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "financial_resilience_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for resilience analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = ferolLlmResponseOutputConverter.convert(llmResponse);
 
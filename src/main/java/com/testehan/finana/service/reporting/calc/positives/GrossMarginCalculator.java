@@ -3,7 +3,7 @@ package com.testehan.finana.service.reporting.calc.positives;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.ratio.FinancialRatiosReport;
-import com.testehan.finana.repository.FinancialRatiosRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,17 +21,16 @@ import java.util.stream.Collectors;
 public class GrossMarginCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(GrossMarginCalculator.class);
 
-    private final FinancialRatiosRepository financialRatiosRepository;
     private final ApplicationEventPublisher eventPublisher;
 
-    public GrossMarginCalculator(FinancialRatiosRepository financialRatiosRepository, ApplicationEventPublisher eventPublisher) {
-        this.financialRatiosRepository = financialRatiosRepository;
+    public GrossMarginCalculator(ApplicationEventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
         eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Calculating Gross Margin..."));
-        Optional<FinancialRatiosData> financialRatiosData = financialRatiosRepository.findBySymbol(ticker);
+        Optional<FinancialRatiosData> financialRatiosData = context.getFinancialRatios();
 
         if (financialRatiosData.isEmpty() || financialRatiosData.get().getQuarterlyReports().isEmpty()) {
             LOGGER.warn("No financial ratios data found for ticker: {}", ticker);
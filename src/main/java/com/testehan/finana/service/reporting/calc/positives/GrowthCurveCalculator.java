@@ -1,13 +1,13 @@
 package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.*;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.*;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
@@ -33,28 +33,17 @@ public class GrowthCurveCalculator {
     @Value("classpath:/prompts/100Bagger/growth_curve_prompt.txt")
     private Resource growthCurvePrompt;
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final SecFilingRepository secFilingRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final LlmService llmService;
-    private final FinancialRatiosRepository financialRatiosRepository;
-    private final CashFlowRepository cashFlowRepository;
-    private final IncomeStatementRepository incomeStatementRepository;
-    private final BalanceSheetRepository balanceSheetRepository;
-
-    public GrowthCurveCalculator(CompanyOverviewRepository companyOverviewRepository, SecFilingRepository secFilingRepository, ApplicationEventPublisher eventPublisher, LlmService llmService, FinancialRatiosRepository financialRatiosRepository, CashFlowRepository cashFlowRepository, IncomeStatementRepository incomeStatementRepository, BalanceSheetRepository balanceSheetRepository) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.secFilingRepository = secFilingRepository;
+
+    public GrowthCurveCalculator(ApplicationEventPublisher eventPublisher, LlmService llmService) {
         this.eventPublisher = eventPublisher;
         this.llmService = llmService;
-        this.financialRatiosRepository = financialRatiosRepository;
-        this.cashFlowRepository = cashFlowRepository;
-        this.incomeStatementRepository = incomeStatementRepository;
-        this.balanceSheetRepository = balanceSheetRepository;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
         if (companyOverview.isEmpty()) {
             var errorMessage = "No Company overview found for ticker: " + ticker;
             LOGGER.warn(errorMessage);
@@ -62,21 +51,12 @@ public class GrowthCurveCalculator {
             return new ReportItem("earlyGrowthCurveInflection", -10, "Something went wrong and score could not be calculated ");
         }
 
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
 
         StringBuilder mda = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            mda.append(latestTenKFiling.getManagementDiscussion());
-                        });
-            } else {
-                var errorMessage = "No 10k found for ticker: " + ticker;
-                LOGGER.warn(errorMessage);
-                eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            mda.append(latestTenKFiling.getManagementDiscussion());
         }, () -> {
             var errorMessage = "No 10k found for ticker: " + ticker;
             LOGGER.warn(errorMessage);
@@ -88,8 +68,8 @@ public class GrowthCurveCalculator {
 
         var llmResponseOutputConverter = new BeanOutputConverter<>(LlmScoreExplanationResponse.class);
 
-        BigDecimal revenueCagr = calculateRevenueCAGR(ticker);
-        BigDecimal recentRevenueGrowth = calculateRecentRevenueGrowth(ticker);
+        BigDecimal revenueCagr = calculateRevenueCAGR(context);
+        BigDecimal recentRevenueGrowth = calculateRecentRevenueGrowth(context);
         BigDecimal accelerationDelta = recentRevenueGrowth.subtract(revenueCagr);
 
         promptParameters.put("company_name", companyOverview.get().getCompanyName());
@@ -103,7 +83,7 @@ public class GrowthCurveCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for growth curve analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithOllama(prompt, "growth_curve_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "growth_curve_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response with growth curve analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = llmResponseOutputConverter.convert(llmResponse);
 
@@ -122,14 +102,15 @@ public class GrowthCurveCalculator {
         }
     }
 
-    private BigDecimal calculateRevenueCAGR(String ticker) {
-        Optional<IncomeStatementData> incomeDataOpt = incomeStatementRepository.findBySymbol(ticker);
+    private BigDecimal calculateRevenueCAGR(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<IncomeStatementData> incomeDataOpt = context.getIncomeStatement();
         if (incomeDataOpt.isEmpty() || incomeDataOpt.get().getAnnualReports().isEmpty()) {
             LOGGER.warn("No income data found for ticker: {}", ticker);
             return BigDecimal.ZERO;
         }
 
-        List<IncomeReport> reports = incomeDataOpt.get().getAnnualReports();
+        List<IncomeReport> reports = new ArrayList<>(incomeDataOpt.get().getAnnualReports());
         reports.sort(Comparator.comparing(IncomeReport::getDate));
 
         List<IncomeReport> recentReports = reports.stream().limit(5).toList();
@@ -140,8 +121,8 @@ public class GrowthCurveCalculator {
         if (recentReports.get(0).getRevenue() == null || recentReports.get(recentReports.size() - 1).getRevenue() == null) {
             return BigDecimal.ZERO;
         }
-        BigDecimal startValue = new BigDecimal(recentReports.get(0).getRevenue());
-        BigDecimal endValue = new BigDecimal(recentReports.get(recentReports.size() - 1).getRevenue());
+        BigDecimal startValue = recentReports.get(0).getRevenue();
+        BigDecimal endValue = recentReports.get(recentReports.size() - 1).getRevenue();
         double years = recentReports.size() - 1;
 
         if (startValue.compareTo(BigDecimal.ZERO) == 0) {
@@ -152,14 +133,15 @@ public class GrowthCurveCalculator {
         return new BigDecimal(cagr * 100).setScale(2, RoundingMode.HALF_UP);
     }
 
-    private BigDecimal calculateRecentRevenueGrowth(String ticker) {
-        Optional<IncomeStatementData> incomeDataOpt = incomeStatementRepository.findBySymbol(ticker);
+    private BigDecimal calculateRecentRevenueGrowth(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<IncomeStatementData> incomeDataOpt = context.getIncomeStatement();
         if (incomeDataOpt.isEmpty() || incomeDataOpt.get().getQuarterlyReports().isEmpty()) {
             LOGGER.warn("No quarterly income data found for ticker: {}", ticker);
             return BigDecimal.ZERO;
         }
 
-        List<IncomeReport> reports = incomeDataOpt.get().getQuarterlyReports();
+        List<IncomeReport> reports = new ArrayList<>(incomeDataOpt.get().getQuarterlyReports());
         reports.sort(Comparator.comparing(IncomeReport::getDate).reversed());
 
         if (reports.size() < 6) { // Need at least 2 quarters and their counterparts from the previous year
@@ -187,8 +169,8 @@ public class GrowthCurveCalculator {
         if (current.getRevenue() == null || previous.getRevenue() == null) {
             return BigDecimal.ZERO;
         }
-        BigDecimal currentRevenue = new BigDecimal(current.getRevenue());
-        BigDecimal previousRevenue = new BigDecimal(previous.getRevenue());
+        BigDecimal currentRevenue = current.getRevenue();
+        BigDecimal previousRevenue = previous.getRevenue();
 
         if (previousRevenue.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.ZERO; // Avoid division by zero
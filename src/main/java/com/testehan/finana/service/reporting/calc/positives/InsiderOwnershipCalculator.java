@@ -4,8 +4,8 @@ import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.reporting.ReportType;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
-import com.testehan.finana.repository.CompanyOverviewRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
@@ -35,18 +35,17 @@ public class InsiderOwnershipCalculator {
     @Value("classpath:/prompts/100Bagger/inside_ownership_prompt.txt")
     private Resource insiderOwnership100BaggerPrompt;
 
-    private final CompanyOverviewRepository companyOverviewRepository;
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
 
-    public InsiderOwnershipCalculator(CompanyOverviewRepository companyOverviewRepository, LlmService llmService, ApplicationEventPublisher eventPublisher) {
-        this.companyOverviewRepository = companyOverviewRepository;
+    public InsiderOwnershipCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter, ReportType reportType) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter, ReportType reportType) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
         if (companyOverview.isEmpty()){
             String errorMessage = "No Company overview found for ticker " + ticker;
             LOGGER.warn(errorMessage);
@@ -66,7 +65,7 @@ public class InsiderOwnershipCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for insider ownership analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithSearch(prompt.getContents(), "insider_ownership_analysis", ticker);
+            String llmResponse = llmService.callLlmWithSearch(prompt.getContents(), "insider_ownership_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response with insider ownership analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = llmResponseOutputConverter.convert(llmResponse);
 
@@ -2,7 +2,7 @@ package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.CompanyOverviewRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -12,11 +12,6 @@ import java.util.Optional;
 @Service
 public class MarketCapCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(MarketCapCalculator.class);
-    private final CompanyOverviewRepository companyOverviewRepository;
-
-    public MarketCapCalculator(CompanyOverviewRepository companyOverviewRepository) {
-        this.companyOverviewRepository = companyOverviewRepository;
-    }
 
     private String formatMarketCap(double marketCap) {
         if (marketCap >= 1_000_000_000) {
@@ -28,8 +23,9 @@ public class MarketCapCalculator {
         }
     }
 
-    public ReportItem calculate(String ticker) {
-        Optional<CompanyOverview> companyOverviewOpt = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverviewOpt = context.getCompanyOverview();
         if (companyOverviewOpt.isEmpty()) {
             LOGGER.warn("No company overview found for ticker: {}", ticker);
             return new ReportItem("marketCapSize", -1, "Could not retrieve company overview.");
@@ -2,11 +2,10 @@ package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
-import com.testehan.finana.repository.CompanyOverviewRepository;
-import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
@@ -31,40 +30,28 @@ public class MissionStatementCalculator {
     @Value("classpath:/prompts/mission_statement_prompt.txt")
     private Resource missionStatementPrompt;
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final SecFilingRepository secFilingRepository;
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
 
-    public MissionStatementCalculator(CompanyOverviewRepository companyOverviewRepository, SecFilingRepository secFilingRepository, LlmService llmService, ApplicationEventPublisher eventPublisher) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.secFilingRepository = secFilingRepository;
+    public MissionStatementCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
         if (companyOverview.isEmpty()){
             var errorMessage = "No Company overview found for ticker: " + ticker;
             LOGGER.warn(errorMessage);
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
             return new ReportItem("missionStatement", -10, "Something went wrong and score could not be calculated ");
         }
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
         StringBuilder businessDescription = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            businessDescription.append(latestTenKFiling.getBusinessDescription());
-                        });
-            } else {
-                var errorMessage = "No 10k found for ticker: " + ticker;
-                LOGGER.warn(errorMessage);
-                eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            businessDescription.append(latestTenKFiling.getBusinessDescription());
         }, () -> {
             var errorMessage = "No 10k found for ticker: " + ticker;
             LOGGER.warn(errorMessage);
@@ -84,7 +71,7 @@ public class MissionStatementCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for mission statement analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithSearch(prompt.getContents(), "mission_statement_analysis", ticker);
+            String llmResponse = llmService.callLlmWithSearch(prompt.getContents(), "mission_statement_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response with mission statement analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = ferolLlmResponseOutputConverter.convert(llmResponse);
 
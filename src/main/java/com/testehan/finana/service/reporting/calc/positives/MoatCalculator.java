@@ -2,12 +2,11 @@ package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
 import com.testehan.finana.model.llm.responses.FerolMoatAnalysisLlmResponse;
-import com.testehan.finana.repository.CompanyOverviewRepository;
-import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
@@ -21,10 +20,8 @@ import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import com.testehan.finana.exception.InsufficientCreditException;
 
@@ -32,8 +29,6 @@ import com.testehan.finana.exception.InsufficientCreditException;
 public class MoatCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(MoatCalculator.class);
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final SecFilingRepository secFilingRepository;
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
 
@@ -43,16 +38,15 @@ public class MoatCalculator {
     @Value("classpath:/prompts/100Bagger/moat_prompt.txt")
     private Resource moat100BaggerPrompt;
 
-    public MoatCalculator(CompanyOverviewRepository companyOverviewRepository, SecFilingRepository secFilingRepository, LlmService llmService, ApplicationEventPublisher eventPublisher) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.secFilingRepository = secFilingRepository;
+    public MoatCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
     }
 
-    public FerolMoatAnalysisLlmResponse calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public FerolMoatAnalysisLlmResponse calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
 
         StringBuilder stringBuilder = new StringBuilder();
 
@@ -61,16 +55,8 @@ public class MoatCalculator {
             stringBuilder.append(overview.getDescription()).append("\n");
         });
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            stringBuilder.append(latestTenKFiling.getBusinessDescription());
-                        });
-            } else {
-                LOGGER.warn("No 10k found for ticker: {}", ticker);
-                eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get business description."));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            stringBuilder.append(latestTenKFiling.getBusinessDescription());
         }, () -> {
             LOGGER.warn("No 10k found for ticker: {}", ticker);
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get business description."));
@@ -89,7 +75,7 @@ public class MoatCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for moat analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlm(prompt, "moat_analysis", ticker);
+            String llmResponse = llmService.callLlm(prompt, "moat_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for moat analysis."));
             return ferolLlmResponseOutputConverter.convert(llmResponse);
 
@@ -105,9 +91,10 @@ public class MoatCalculator {
         }
     }
 
-    public ReportItem calculate100BaggerMoat(String ticker, SseEmitter sseEmitter) {
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate100BaggerMoat(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
 
         StringBuilder stringBuilder = new StringBuilder();
 
@@ -116,16 +103,8 @@ public class MoatCalculator {
             stringBuilder.append(overview.getDescription()).append("\n");
         });
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            stringBuilder.append(latestTenKFiling.getBusinessDescription());
-                        });
-            } else {
-                LOGGER.warn("No 10k found for ticker: {}", ticker);
-                eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get business description."));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            stringBuilder.append(latestTenKFiling.getBusinessDescription());
         }, () -> {
             LOGGER.warn("No 10k found for ticker: {}", ticker);
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get business description."));
@@ -144,7 +123,7 @@ public class MoatCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for moat analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlm(prompt, "moat_analysis", ticker);
+            String llmResponse = llmService.callLlm(prompt, "moat_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for moat analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = llmResponseOutputConverter.convert(llmResponse);
 
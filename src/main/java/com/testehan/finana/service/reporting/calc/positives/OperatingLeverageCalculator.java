@@ -1,16 +1,13 @@
 package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.*;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.CompanyOverviewRepository;
-import com.testehan.finana.repository.EarningsEstimatesRepository;
-import com.testehan.finana.repository.IncomeStatementRepository;
-import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
@@ -36,10 +33,6 @@ import com.testehan.finana.exception.InsufficientCreditException;
 public class OperatingLeverageCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(OperatingLeverageCalculator.class);
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final IncomeStatementRepository incomeStatementRepository;
-    private final EarningsEstimatesRepository earningsEstimatesRepository;
-    private final SecFilingRepository secFilingRepository;
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
 
@@ -48,39 +41,27 @@ public class OperatingLeverageCalculator {
     @Value("classpath:/prompts/operating_leverage_prompt.txt")
     private Resource operatingLeveragePrompt;
 
-    public OperatingLeverageCalculator(CompanyOverviewRepository companyOverviewRepository, IncomeStatementRepository incomeStatementRepository, EarningsEstimatesRepository earningsEstimatesRepository, SecFilingRepository secFilingRepository, LlmService llmService, ApplicationEventPublisher eventPublisher, SafeParser safeParser) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.incomeStatementRepository = incomeStatementRepository;
-        this.earningsEstimatesRepository = earningsEstimatesRepository;
-        this.secFilingRepository = secFilingRepository;
+    public OperatingLeverageCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher, SafeParser safeParser) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
         this.safeParser = safeParser;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
 
-        String opexAsPercentageOfRevenueTrend = calculateOpexAsPercentageOfRevenueTrend3y(ticker)
+        String opexAsPercentageOfRevenueTrend = calculateOpexAsPercentageOfRevenueTrend3y(context)
                 .stream()
                 .map(BigDecimal::toPlainString).collect(Collectors.joining(", "));
-        BigDecimal revenueCAGR3y = calculateRevenueCAGR3y(ticker);
-        double expectedRevenueGrowth = calculateExpectedRevenueGrowth(ticker);
+        BigDecimal revenueCAGR3y = calculateRevenueCAGR3y(context);
+        double expectedRevenueGrowth = calculateExpectedRevenueGrowth(context);
 
         StringBuilder stringBuilder = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            stringBuilder.append(latestTenKFiling.getBusinessDescription());
-                        });
-            } else {
-                var errorMessage = "No 10k found for ticker: " + ticker;
-                LOGGER.warn(errorMessage);
-                eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            stringBuilder.append(latestTenKFiling.getBusinessDescription());
         }, () -> {
             var errorMessage = "No 10k found for ticker: " + ticker;
             LOGGER.warn(errorMessage);
@@ -102,7 +83,7 @@ public class OperatingLeverageCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for operating leverage analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlm(prompt, "operating_leverage_analysis", ticker);
+            String llmResponse = llmService.callLlm(prompt, "operating_leverage_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for operating leverage analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = ferolLlmResponseOutputConverter.convert(llmResponse);
 
@@ -119,15 +100,15 @@ public class OperatingLeverageCalculator {
         }
     }
 
-    private double calculateExpectedRevenueGrowth(String ticker){
-        Optional<IncomeStatementData> incomeStatementDataOpt = incomeStatementRepository.findBySymbol(ticker);
-        List<IncomeReport> incomeReports = incomeStatementDataOpt.get().getAnnualReports();
+    private double calculateExpectedRevenueGrowth(ReportContext context){
+        Optional<IncomeStatementData> incomeStatementDataOpt = context.getIncomeStatement();
+        List<IncomeReport> incomeReports = new ArrayList<>(incomeStatementDataOpt.get().getAnnualReports());
         // Sort reports by fiscal date ending in descending order
         incomeReports.sort(Comparator.comparing(IncomeReport::getDate).reversed());
         IncomeReport lastAnualIncomeReport = incomeReports.getFirst();
-        var lastYearRevenue = Double.parseDouble(lastAnualIncomeReport.getRevenue());
+        var lastYearRevenue = lastAnualIncomeReport.getRevenue().doubleValue();
 
-        var earningEstimates = earningsEstimatesRepository.findBySymbol(ticker);
+        var earningEstimates = context.getEarningsEstimate();
         if (earningEstimates.isEmpty() || earningEstimates.get().getEstimates().isEmpty() || lastYearRevenue == 0){
             return 0.0;
         }
@@ -172,8 +153,9 @@ public class OperatingLeverageCalculator {
         return Math.round(cagr * 100.0) / 100.0;
     }
 
-    private BigDecimal calculateRevenueCAGR3y(String ticker) {
-        Optional<IncomeStatementData> incomeStatementDataOpt = incomeStatementRepository.findBySymbol(ticker);
+    private BigDecimal calculateRevenueCAGR3y(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<IncomeStatementData> incomeStatementDataOpt = context.getIncomeStatement();
 
         if (incomeStatementDataOpt.isEmpty() || incomeStatementDataOpt.get().getAnnualReports() == null || incomeStatementDataOpt.get().getAnnualReports().size() < 4) {
             LOGGER.warn("Not enough annual income reports for {}. Found {}.", ticker, incomeStatementDataOpt.map(d -> d.getAnnualReports().size()).orElse(0));
@@ -200,8 +182,9 @@ public class OperatingLeverageCalculator {
         return BigDecimal.valueOf(cagr * 100).setScale(2, java.math.RoundingMode.HALF_UP);
     }
 
-    private List<BigDecimal> calculateOpexAsPercentageOfRevenueTrend3y(String ticker) {
-        Optional<IncomeStatementData> incomeStatementDataOpt = incomeStatementRepository.findBySymbol(ticker);
+    private List<BigDecimal> calculateOpexAsPercentageOfRevenueTrend3y(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<IncomeStatementData> incomeStatementDataOpt = context.getIncomeStatement();
 
         if (incomeStatementDataOpt.isEmpty() || incomeStatementDataOpt.get().getAnnualReports() == null || incomeStatementDataOpt.get().getAnnualReports().size() < 3) {
             LOGGER.warn("Not enough annual income reports for {}. Found {}.", ticker, incomeStatementDataOpt.map(d -> d.getAnnualReports().size()).orElse(0));
@@ -1,19 +1,16 @@
 package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.*;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
 import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.CompanyOverviewRepository;
-import com.testehan.finana.repository.FinancialRatiosRepository;
-import com.testehan.finana.repository.IncomeStatementRepository;
-import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.EarningsService;
 import com.testehan.finana.service.FinancialDataOrchestrator;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.DateUtils;
@@ -39,10 +36,6 @@ import com.testehan.finana.exception.InsufficientCreditException;
 public class OptionalityCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(OptionalityCalculator.class);
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final IncomeStatementRepository incomeStatementRepository;
-    private final SecFilingRepository secFilingRepository;
-    private final FinancialRatiosRepository financialRatiosRepository;
 
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
@@ -55,11 +48,7 @@ public class OptionalityCalculator {
     @Value("classpath:/prompts/optionality_prompt.txt")
     private Resource optionalityPrompt;
 
-    public OptionalityCalculator(CompanyOverviewRepository companyOverviewRepository, IncomeStatementRepository incomeStatementRepository, SecFilingRepository secFilingRepository, FinancialRatiosRepository financialRatiosRepository, LlmService llmService, ApplicationEventPublisher eventPublisher, SafeParser safeParser, DateUtils dateUtils, FinancialDataOrchestrator financialDataOrchestrator, EarningsService earningsService) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.incomeStatementRepository = incomeStatementRepository;
-        this.secFilingRepository = secFilingRepository;
-        this.financialRatiosRepository = financialRatiosRepository;
+    public OptionalityCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher, SafeParser safeParser, DateUtils dateUtils, FinancialDataOrchestrator financialDataOrchestrator, EarningsService earningsService) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
         this.safeParser = safeParser;
@@ -68,11 +57,12 @@ public class OptionalityCalculator {
         this.earningsService = earningsService;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
-        Optional<IncomeStatementData> incomeStatementData = incomeStatementRepository.findBySymbol(ticker);
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
-        Optional<FinancialRatiosData> financialRatios = financialRatiosRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
+        Optional<IncomeStatementData> incomeStatementData = context.getIncomeStatement();
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
+        Optional<FinancialRatiosData> financialRatios = context.getFinancialRatios();
 
         StringBuilder stringBuilder = new StringBuilder();
 
@@ -81,17 +71,8 @@ public class OptionalityCalculator {
             stringBuilder.append(overview.getDescription()).append("\n");
         });
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull( secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            stringBuilder.append(latestTenKFiling.getManagementDiscussion());
-                        });
-            } else {
-                var errorMessage = "No 10k found for ticker: " + ticker;
-                LOGGER.warn(errorMessage);
-                eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            stringBuilder.append(latestTenKFiling.getManagementDiscussion());
         }, () -> {
             var errorMessage = "No 10k found for ticker: " + ticker;
             LOGGER.warn(errorMessage);
@@ -173,7 +154,7 @@ public class OptionalityCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for optionality analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithOllama(prompt, "optionality_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "optionality_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for optionality analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = ferolLlmResponseOutputConverter.convert(llmResponse);
 
@@ -1,14 +1,14 @@
 package com.testehan.finana.service.reporting.calc.positives;
 
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
 import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.ratio.FinancialRatiosReport;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.*;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
@@ -34,10 +34,6 @@ import com.testehan.finana.exception.InsufficientCreditException;
 public class OrganicGrowthRunawayCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(OrganicGrowthRunawayCalculator.class);
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final SecFilingRepository secFilingRepository;
-    private final IncomeStatementRepository incomeStatementRepository;
-    private final FinancialRatiosRepository financialRatiosRepository;
 
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
@@ -48,35 +44,24 @@ public class OrganicGrowthRunawayCalculator {
     @Value("classpath:/prompts/organic_growth_runaway_prompt.txt")
     private Resource organicGrowthPrompt;
 
-    public OrganicGrowthRunawayCalculator(CompanyOverviewRepository companyOverviewRepository, SecFilingRepository secFilingRepository, IncomeStatementRepository incomeStatementRepository, FinancialRatiosRepository financialRatiosRepository, LlmService llmService, ApplicationEventPublisher eventPublisher, OptionalityCalculator optionalityCalculator, SafeParser safeParser) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.secFilingRepository = secFilingRepository;
-        this.incomeStatementRepository = incomeStatementRepository;
-        this.financialRatiosRepository = financialRatiosRepository;
+    public OrganicGrowthRunawayCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher, OptionalityCalculator optionalityCalculator, SafeParser safeParser) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
         this.optionalityCalculator = optionalityCalculator;
         this.safeParser = safeParser;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
 
-        BigDecimal revenueCAGRPerShare = calculateRevenueCAGRPerShare(ticker);
-        BigDecimal sustainableGrowthRate = calculateSustainableGrowthRate(ticker);
+        BigDecimal revenueCAGRPerShare = calculateRevenueCAGRPerShare(context);
+        BigDecimal sustainableGrowthRate = calculateSustainableGrowthRate(context);
 
         StringBuilder stringBuilder = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            stringBuilder.append(latestTenKFiling.getManagementDiscussion());
-                        });
-            } else {
-                LOGGER.warn("No 10k found for ticker: {}", ticker);
-                eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get management discussion."));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            stringBuilder.append(latestTenKFiling.getManagementDiscussion());
         }, () -> {
             LOGGER.warn("No 10k found for ticker: {}", ticker);
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get management discussion."));
@@ -98,7 +83,7 @@ public class OrganicGrowthRunawayCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for organic growth runaway analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithOllama(prompt, "organic_growth_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "organic_growth_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for organic growth runaway analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = ferolLlmResponseOutputConverter.convert(llmResponse);
 
@@ -115,8 +100,9 @@ public class OrganicGrowthRunawayCalculator {
         }
     }
 
-    private BigDecimal calculateRevenueCAGRPerShare(String ticker) {
-        Optional<IncomeStatementData> incomeStatementDataOpt = incomeStatementRepository.findBySymbol(ticker);
+    private BigDecimal calculateRevenueCAGRPerShare(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<IncomeStatementData> incomeStatementDataOpt = context.getIncomeStatement();
 
         if (incomeStatementDataOpt.isEmpty() || incomeStatementDataOpt.get().getAnnualReports() == null || incomeStatementDataOpt.get().getAnnualReports().size() < 4) {
             LOGGER.warn("Not enough annual income reports for {}. Found {}.", ticker, incomeStatementDataOpt.map(d -> d.getAnnualReports().size()).orElse(0));
@@ -162,8 +148,9 @@ public class OrganicGrowthRunawayCalculator {
         return BigDecimal.valueOf(cagr * 100).setScale(2, java.math.RoundingMode.HALF_UP);
     }
 
-    public BigDecimal calculateSustainableGrowthRate(String ticker) {
-        Optional<FinancialRatiosData> financialRatiosDataOpt = financialRatiosRepository.findBySymbol(ticker);
+    public BigDecimal calculateSustainableGrowthRate(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<FinancialRatiosData> financialRatiosDataOpt = context.getFinancialRatios();
 
         if (financialRatiosDataOpt.isEmpty() || financialRatiosDataOpt.get().getAnnualReports() == null || financialRatiosDataOpt.get().getAnnualReports().size() < 3) {
             LOGGER.warn("Not enough annual financial ratios reports for SGR calculation for ticker: {}. Found {}.", ticker, financialRatiosDataOpt.map(d -> d.getAnnualReports().size()).orElse(0));
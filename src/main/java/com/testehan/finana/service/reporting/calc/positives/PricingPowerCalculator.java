@@ -1,17 +1,14 @@
 package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.*;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
 import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.CompanyOverviewRepository;
-import com.testehan.finana.repository.FinancialRatiosRepository;
-import com.testehan.finana.repository.IncomeStatementRepository;
-import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
@@ -33,10 +30,6 @@ import com.testehan.finana.exception.InsufficientCreditException;
 public class PricingPowerCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(PricingPowerCalculator.class);
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final SecFilingRepository secFilingRepository;
-    private final IncomeStatementRepository incomeStatementRepository;
-    private final FinancialRatiosRepository financialRatiosRepository;
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
     private final OptionalityCalculator optionalityCalculator;
@@ -44,40 +37,28 @@ public class PricingPowerCalculator {
     @Value("classpath:/prompts/pricing_power_prompt.txt")
     private Resource pricingPowerPrompt;
 
-    public PricingPowerCalculator(CompanyOverviewRepository companyOverviewRepository, SecFilingRepository secFilingRepository, IncomeStatementRepository incomeStatementRepository, FinancialRatiosRepository financialRatiosRepository, LlmService llmService, ApplicationEventPublisher eventPublisher, OptionalityCalculator optionalityCalculator) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.secFilingRepository = secFilingRepository;
-        this.incomeStatementRepository = incomeStatementRepository;
-        this.financialRatiosRepository = financialRatiosRepository;
+    public PricingPowerCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher, OptionalityCalculator optionalityCalculator) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
         this.optionalityCalculator = optionalityCalculator;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
         if (companyOverview.isEmpty()){
             var errorMessage = "No Company overview found for ticker: "+ ticker;
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
             LOGGER.error(errorMessage);
             return new ReportItem("pricingPower", 0, "Something went wrong and score could not be calculated ");
         }
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
         StringBuilder businessDescription = new StringBuilder();
         StringBuilder managementDiscussion = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
-                            businessDescription.append(latestTenKFiling.getBusinessDescription());
-                        });
-            } else {
-                var errorMessage = "No 10k found for ticker: " + ticker;
-                eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
-                LOGGER.error(errorMessage);
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
+            businessDescription.append(latestTenKFiling.getBusinessDescription());
         }, () -> {
             var errorMessage = "No 10k found for ticker: " + ticker;
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
@@ -88,8 +69,8 @@ public class PricingPowerCalculator {
         Map<String, Object> promptParameters = new HashMap<>();
 
         StringBuilder financialTable = new StringBuilder();
-        Optional<IncomeStatementData> incomeStatementDataOptional = incomeStatementRepository.findBySymbol(ticker);
-        Optional<FinancialRatiosData> financialRatiosDataOptional = financialRatiosRepository.findBySymbol(ticker);
+        Optional<IncomeStatementData> incomeStatementDataOptional = context.getIncomeStatement();
+        Optional<FinancialRatiosData> financialRatiosDataOptional = context.getFinancialRatios();
         if (incomeStatementDataOptional.isEmpty() || financialRatiosDataOptional.isEmpty()) {
             var errorMessage = "No income statement data found for ticker: " + ticker;
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
@@ -154,7 +135,7 @@ public class PricingPowerCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for pricing power analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithOllama(prompt, "pricing_power_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "pricing_power_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for pricing power analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = ferolLlmResponseOutputConverter.convert(llmResponse);
 
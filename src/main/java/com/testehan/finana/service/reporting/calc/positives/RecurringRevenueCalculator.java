@@ -6,13 +6,10 @@ import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.finstatement.RevenueSegmentationData;
 import com.testehan.finana.model.finstatement.RevenueSegmentationReport;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
-import com.testehan.finana.repository.BalanceSheetRepository;
-import com.testehan.finana.repository.CompanyOverviewRepository;
-import com.testehan.finana.repository.RevenueSegmentationDataRepository;
-import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
@@ -30,7 +27,6 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import com.testehan.finana.exception.InsufficientCreditException;
@@ -39,48 +35,33 @@ import com.testehan.finana.exception.InsufficientCreditException;
 public class RecurringRevenueCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(RecurringRevenueCalculator.class);
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final SecFilingRepository secFilingRepository;
-    private final RevenueSegmentationDataRepository revenueSegmentationDataRepository;
-    private final BalanceSheetRepository balanceSheetRepository;
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
 
     @Value("classpath:/prompts/recurring_revenue_prompt.txt")
     private Resource recurringRevenuePrompt;
 
-    public RecurringRevenueCalculator(CompanyOverviewRepository companyOverviewRepository, SecFilingRepository secFilingRepository, RevenueSegmentationDataRepository revenueSegmentationDataRepository, BalanceSheetRepository balanceSheetRepository, LlmService llmService, ApplicationEventPublisher eventPublisher) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.secFilingRepository = secFilingRepository;
-        this.revenueSegmentationDataRepository = revenueSegmentationDataRepository;
-        this.balanceSheetRepository = balanceSheetRepository;
+    public RecurringRevenueCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
         if (companyOverview.isEmpty()){
             String errorMessage = "No Company overview found for ticker " + ticker;
             LOGGER.warn(errorMessage);
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
             return new ReportItem("recurringRevenue", 0, "Something went wrong and score could not be calculated ");
         }
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
         StringBuilder businessDescription = new StringBuilder();
         StringBuilder managementDiscussion = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
-                            businessDescription.append(latestTenKFiling.getBusinessDescription());
-                        });
-            } else {
-                LOGGER.warn("No 10k found for ticker: {}", ticker);
-                eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException("No 10k available to get data.")));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
+            businessDescription.append(latestTenKFiling.getBusinessDescription());
         }, () -> {
             LOGGER.warn("No 10k found for ticker: {}", ticker);
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException("No 10k available to get data.")));
@@ -89,7 +70,7 @@ public class RecurringRevenueCalculator {
         PromptTemplate promptTemplate = new PromptTemplate(recurringRevenuePrompt);
         Map<String, Object> promptParameters = new HashMap<>();
 
-        Optional<RevenueSegmentationData> revenueSegmentationOptional = revenueSegmentationDataRepository.findBySymbol(ticker);
+        Optional<RevenueSegmentationData> revenueSegmentationOptional = context.getRevenueSegmentation();
         if (revenueSegmentationOptional.isEmpty()) {
             String errorMessage = "No revenue segmentation data found for ticker " + ticker;
             LOGGER.warn(errorMessage);
@@ -113,7 +94,7 @@ public class RecurringRevenueCalculator {
             promptParameters.put("revenue_segmentation", lastFiveYearsReports);
         }
 
-        Optional<BalanceSheetData> balancesheetDataOptional = balanceSheetRepository.findBySymbol(ticker);
+        Optional<BalanceSheetData> balancesheetDataOptional = context.getBalanceSheet();
         if (balancesheetDataOptional.isEmpty()) {
             String errorMessage = "No balance sheet data found for ticker " + ticker;
             LOGGER.warn(errorMessage);
@@ -150,7 +131,7 @@ public class RecurringRevenueCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for recurring revenue analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithOllama(prompt, "recurring_revenue_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "recurring_revenue_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for recurring revenue analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = ferolLlmResponseOutputConverter.convert(llmResponse);
 
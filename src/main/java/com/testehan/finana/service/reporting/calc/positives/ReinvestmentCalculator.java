@@ -1,14 +1,14 @@
 package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.*;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.finstatement.*;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
 import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.ratio.FinancialRatiosReport;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.*;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
@@ -33,12 +33,6 @@ import java.util.stream.Collectors;
 public class ReinvestmentCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(ReinvestmentCalculator.class);
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final IncomeStatementRepository incomeStatementRepository;
-    private final CashFlowRepository cashFlowRepository;
-    private final FinancialRatiosRepository financialRatiosRepository;
-    private final SecFilingRepository secFilingRepository;
-    private final BalanceSheetRepository balanceSheetRepository;
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
     private final SafeParser safeParser;
@@ -46,20 +40,15 @@ public class ReinvestmentCalculator {
     @Value("classpath:/prompts/100Bagger/reinvestments_prompt.txt")
     private Resource reinvestmentsPrompt;
 
-    public ReinvestmentCalculator(CompanyOverviewRepository companyOverviewRepository, IncomeStatementRepository incomeStatementRepository, CashFlowRepository cashFlowRepository, FinancialRatiosRepository financialRatiosRepository, SecFilingRepository secFilingRepository, BalanceSheetRepository balanceSheetRepository, LlmService llmService, ApplicationEventPublisher eventPublisher, SafeParser safeParser) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.incomeStatementRepository = incomeStatementRepository;
-        this.cashFlowRepository = cashFlowRepository;
-        this.financialRatiosRepository = financialRatiosRepository;
-        this.secFilingRepository = secFilingRepository;
-        this.balanceSheetRepository = balanceSheetRepository;
+    public ReinvestmentCalculator(LlmService llmService, ApplicationEventPublisher eventPublisher, SafeParser safeParser) {
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
         this.safeParser = safeParser;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
         if (companyOverview.isEmpty()) {
             var errorMessage = "No Company overview found for ticker: " + ticker;
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
@@ -67,20 +56,11 @@ public class ReinvestmentCalculator {
             return new ReportItem("reinvestmentCapacity", 0, "Something went wrong and score could not be calculated ");
         }
 
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
         StringBuilder managementDiscussion = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
-                        });
-            } else {
-                var errorMessage = "No 10k found for ticker: " + ticker;
-                eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
-                LOGGER.error(errorMessage);
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
         }, () -> {
             var errorMessage = "No 10k found for ticker: " + ticker;
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
@@ -88,7 +68,7 @@ public class ReinvestmentCalculator {
         });
 
         // Get annual ROIC for 5-year median
-        Optional<FinancialRatiosData> financialRatiosData = financialRatiosRepository.findBySymbol(ticker);
+        Optional<FinancialRatiosData> financialRatiosData = context.getFinancialRatios();
 
         if (financialRatiosData.isEmpty() || financialRatiosData.get().getAnnualReports().isEmpty() || financialRatiosData.get().getQuarterlyReports().isEmpty()) {
             var errorMessage = "No financial ratios data found for ticker " + ticker;
@@ -97,10 +77,10 @@ public class ReinvestmentCalculator {
             return new ReportItem("reinvestmentCapacity", 0, "No annual or quarterly financial ratios data available.");
         }
 
-        var reinvestmentRate5y = calculateReinvestmentRate5y(ticker, sseEmitter);
+        var reinvestmentRate5y = calculateReinvestmentRate5y(context, sseEmitter);
         var averageRoic = calculate5yrAverageRoic(financialRatiosData);
         var averageRoe = calculate5yrAverageRoe(financialRatiosData);
-        var investedCapitalChange = classifyInvestedCapitalTrend(calculateInvestedCapitalChange(ticker,sseEmitter));
+        var investedCapitalChange = classifyInvestedCapitalTrend(calculateInvestedCapitalChange(context,sseEmitter));
 
         PromptTemplate promptTemplate = new PromptTemplate(reinvestmentsPrompt);
         Map<String, Object> promptParameters = new HashMap<>();
@@ -121,7 +101,7 @@ public class ReinvestmentCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for reinvestments analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithOllama(prompt, "reinvestment_capacity_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "reinvestment_capacity_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for reinvestments analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = llmResponseOutputConverter.convert(llmResponse);
 
@@ -133,9 +113,10 @@ public class ReinvestmentCalculator {
         }
     }
 
-    public ReportItem calculateSustainedReturnsOnCapital(String ticker, SseEmitter sseEmitter) {
+    public ReportItem calculateSustainedReturnsOnCapital(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
         // Get annual ROIC for 5-year median
-        Optional<FinancialRatiosData> financialRatiosData = financialRatiosRepository.findBySymbol(ticker);
+        Optional<FinancialRatiosData> financialRatiosData = context.getFinancialRatios();
 
         if (financialRatiosData.isEmpty() || financialRatiosData.get().getAnnualReports().isEmpty() || financialRatiosData.get().getQuarterlyReports().isEmpty()) {
             LOGGER.warn("No financial ratios data found for ticker: {}", ticker);
@@ -212,9 +193,10 @@ public class ReinvestmentCalculator {
         }
     }
 
-    private double calculateReinvestmentRate5y(String ticker, SseEmitter sseEmitter) {
-        Optional<IncomeStatementData> incomeStatementDataOpt = incomeStatementRepository.findBySymbol(ticker);
-        Optional<CashFlowData> cashFlowDataOpt = cashFlowRepository.findBySymbol(ticker);
+    private double calculateReinvestmentRate5y(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<IncomeStatementData> incomeStatementDataOpt = context.getIncomeStatement();
+        Optional<CashFlowData> cashFlowDataOpt = context.getCashFlow();
 
         if (incomeStatementDataOpt.isEmpty() || cashFlowDataOpt.isEmpty()) {
             var errorMessage = "Missing financial reports for ticker: " + ticker;
@@ -276,8 +258,9 @@ public class ReinvestmentCalculator {
 
     }
 
-    private double calculateInvestedCapitalChange(String ticker, SseEmitter sseEmitter) {
-        Optional<BalanceSheetData> balanceSheetDataOpt = balanceSheetRepository.findBySymbol(ticker);
+    private double calculateInvestedCapitalChange(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<BalanceSheetData> balanceSheetDataOpt = context.getBalanceSheet();
 
         if (balanceSheetDataOpt.isEmpty()) {
             var errorMessage = "Missing balance sheet reports for ticker: " + ticker;
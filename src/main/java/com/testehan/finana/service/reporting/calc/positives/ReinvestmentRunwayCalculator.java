@@ -1,14 +1,14 @@
 package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.*;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.finstatement.*;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.*;
 import com.testehan.finana.service.EarningsService;
 import com.testehan.finana.service.FinancialDataOrchestrator;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.DateUtils;
@@ -37,39 +37,28 @@ import com.testehan.finana.exception.InsufficientCreditException;
 public class ReinvestmentRunwayCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(ReinvestmentRunwayCalculator.class);
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final IncomeStatementRepository incomeStatementRepository;
-    private final SecFilingRepository secFilingRepository;
-    private final RevenueSegmentationDataRepository revenueSegmentationDataRepository;
-    private final RevenueGeographicSegmentationRepository revenueGeographicSegmentationRepository;
     private final FinancialDataOrchestrator financialDataOrchestrator;
     private final EarningsService earningsService;
     private final LlmService llmService;
     private final ApplicationEventPublisher eventPublisher;
     private final SafeParser safeParser;
     private final DateUtils dateUtils;
-    private final CashFlowRepository cashFlowRepository;
 
     @Value("classpath:/prompts/100Bagger/reinvestment_runway_prompt.txt")
     private Resource reinvestmentRunwayPrompt;
 
-    public ReinvestmentRunwayCalculator(CompanyOverviewRepository companyOverviewRepository, IncomeStatementRepository incomeStatementRepository, SecFilingRepository secFilingRepository, RevenueSegmentationDataRepository revenueSegmentationDataRepository, RevenueGeographicSegmentationRepository revenueGeographicSegmentationRepository, FinancialDataOrchestrator financialDataOrchestrator, EarningsService earningsService, LlmService llmService, ApplicationEventPublisher eventPublisher, SafeParser safeParser, DateUtils dateUtils, CashFlowRepository cashFlowRepository) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.incomeStatementRepository = incomeStatementRepository;
-        this.secFilingRepository = secFilingRepository;
-        this.revenueSegmentationDataRepository = revenueSegmentationDataRepository;
-        this.revenueGeographicSegmentationRepository = revenueGeographicSegmentationRepository;
+    public ReinvestmentRunwayCalculator(FinancialDataOrchestrator financialDataOrchestrator, EarningsService earningsService, LlmService llmService, ApplicationEventPublisher eventPublisher, SafeParser safeParser, DateUtils dateUtils) {
         this.financialDataOrchestrator = financialDataOrchestrator;
         this.earningsService = earningsService;
         this.llmService = llmService;
         this.eventPublisher = eventPublisher;
         this.safeParser = safeParser;
         this.dateUtils = dateUtils;
-        this.cashFlowRepository = cashFlowRepository;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
         if (companyOverview.isEmpty()) {
             var errorMessage = "No Company overview found for ticker: " + ticker;
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
@@ -77,7 +66,7 @@ public class ReinvestmentRunwayCalculator {
             return new ReportItem("reinvestmentRunway", 0, "Something went wrong and score could not be calculated ");
         }
 
-        Optional<IncomeStatementData> incomeStatementDataOptional = incomeStatementRepository.findBySymbol(ticker);
+        Optional<IncomeStatementData> incomeStatementDataOptional = context.getIncomeStatement();
         if (incomeStatementDataOptional.isEmpty()) {
             var errorMessage = "No income statement data found for ticker: " + ticker;
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
@@ -85,22 +74,13 @@ public class ReinvestmentRunwayCalculator {
             return new ReportItem("reinvestmentRunway", 0, "Something went wrong and score could not be calculated ");
         }
 
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
         StringBuilder managementDiscussion = new StringBuilder();
         StringBuilder businessDescription = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
-                            businessDescription.append(latestTenKFiling.getBusinessDescription());
-                        });
-            } else {
-                var errorMessage = "No 10k found for ticker:: " + ticker;
-                eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
-                LOGGER.error(errorMessage);
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
+            businessDescription.append(latestTenKFiling.getBusinessDescription());
         }, () -> {
             var errorMessage = "No 10k found for ticker:: " + ticker;
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
@@ -108,11 +88,11 @@ public class ReinvestmentRunwayCalculator {
         });
 
         var latestEarningsTranscript = getLatestEarningsTranscript(ticker).block();
-        BigDecimal revenueCAGR3y = calculateRevenueCAGR3y(ticker);
+        BigDecimal revenueCAGR3y = calculateRevenueCAGR3y(context);
         BigDecimal[] ttmRevenue = getTtmRevenue(ticker, incomeStatementDataOptional);
-        List<RevenueSegmentationReport> lastFiveYearsRevSegmentation = getRevenueSegmentationLast5Years(ticker, sseEmitter);
-        List<RevenueGeographicSegmentationReport> lastFiveYearsRevenueGeographic = getRevenueGeographicSegmentationLast5years(ticker, sseEmitter);
-        var acquisitionHistoryAsPercentOfRevenue = calculateAcquisitionsToRevenueRatio(ticker);
+        List<RevenueSegmentationReport> lastFiveYearsRevSegmentation = getRevenueSegmentationLast5Years(context, sseEmitter);
+        List<RevenueGeographicSegmentationReport> lastFiveYearsRevenueGeographic = getRevenueGeographicSegmentationLast5years(context, sseEmitter);
+        var acquisitionHistoryAsPercentOfRevenue = calculateAcquisitionsToRevenueRatio(context);
 
         PromptTemplate promptTemplate = new PromptTemplate(reinvestmentRunwayPrompt);
         Map<String, Object> promptParameters = new HashMap<>();
@@ -135,7 +115,7 @@ public class ReinvestmentRunwayCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for reinvestment runway analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithOllama(prompt, "reinvestment_runway_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "reinvestment_runway_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for reinvestment runway analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = llmResponseOutputConverter.convert(llmResponse);
 
@@ -152,9 +132,10 @@ public class ReinvestmentRunwayCalculator {
         }
     }
 
-    private List<RevenueGeographicSegmentationReport> getRevenueGeographicSegmentationLast5years(String ticker, SseEmitter sseEmitter) {
+    private List<RevenueGeographicSegmentationReport> getRevenueGeographicSegmentationLast5years(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
         List<RevenueGeographicSegmentationReport> lastFiveYearsRevenueGeographic = new ArrayList<>();
-        Optional<RevenueGeographicSegmentationData> revenueGeographicSegmentationDataOptional = revenueGeographicSegmentationRepository.findBySymbol(ticker);
+        Optional<RevenueGeographicSegmentationData> revenueGeographicSegmentationDataOptional = context.getRevenueGeographicSegmentation();
         if (revenueGeographicSegmentationDataOptional.isEmpty()) {
             var errorMessage = "No revenue geographic segmentation data found for ticker: " + ticker;
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
@@ -180,9 +161,10 @@ public class ReinvestmentRunwayCalculator {
     }
 
     @NotNull
-    private List<RevenueSegmentationReport> getRevenueSegmentationLast5Years(String ticker, SseEmitter sseEmitter) {
+    private List<RevenueSegmentationReport> getRevenueSegmentationLast5Years(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
         List<RevenueSegmentationReport> lastFiveYearsReports = new ArrayList<>();
-        Optional<RevenueSegmentationData> revenueSegmentationOptional = revenueSegmentationDataRepository.findBySymbol(ticker);
+        Optional<RevenueSegmentationData> revenueSegmentationOptional = context.getRevenueSegmentation();
         if (revenueSegmentationOptional.isEmpty()) {
             var errorMessage = "No revenue segmentation data found for ticker: " + ticker;
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
@@ -235,8 +217,9 @@ public class ReinvestmentRunwayCalculator {
                         .collect(Collectors.joining("\n")));
     }
 
-    private BigDecimal calculateRevenueCAGR3y(String ticker) {
-        Optional<IncomeStatementData> incomeStatementDataOpt = incomeStatementRepository.findBySymbol(ticker);
+    private BigDecimal calculateRevenueCAGR3y(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<IncomeStatementData> incomeStatementDataOpt = context.getIncomeStatement();
 
         if (incomeStatementDataOpt.isEmpty() || incomeStatementDataOpt.get().getAnnualReports() == null || incomeStatementDataOpt.get().getAnnualReports().size() < 4) {
             LOGGER.warn("Not enough annual income reports for {}. Found {}.", ticker, incomeStatementDataOpt.map(d -> d.getAnnualReports().size()).orElse(0));
@@ -263,9 +246,10 @@ public class ReinvestmentRunwayCalculator {
         return BigDecimal.valueOf(cagr * 100).setScale(2, java.math.RoundingMode.HALF_UP);
     }
 
-    public String calculateAcquisitionsToRevenueRatio(String ticker) {
-        Optional<CashFlowData> cashFlowDataOptional = cashFlowRepository.findBySymbol(ticker);
-        Optional<IncomeStatementData> incomeStatementDataOptional = incomeStatementRepository.findBySymbol(ticker);
+    public String calculateAcquisitionsToRevenueRatio(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<CashFlowData> cashFlowDataOptional = context.getCashFlow();
+        Optional<IncomeStatementData> incomeStatementDataOptional = context.getIncomeStatement();
 
         if (cashFlowDataOptional.isEmpty() || incomeStatementDataOptional.isEmpty()) {
             LOGGER.warn("No cash flow or income statement data found for ticker: {}", ticker);
@@ -3,7 +3,7 @@ package com.testehan.finana.service.reporting.calc.positives;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.ratio.FinancialRatiosReport;
-import com.testehan.finana.repository.FinancialRatiosRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,17 +22,16 @@ import java.util.stream.Collectors;
 public class RoicCalculator {
     private static final Logger LOGGER = LoggerFactory.getLogger(RoicCalculator.class);
 
-    private final FinancialRatiosRepository financialRatiosRepository;
     private final ApplicationEventPublisher eventPublisher;
 
-    public RoicCalculator(FinancialRatiosRepository financialRatiosRepository, ApplicationEventPublisher eventPublisher) {
-        this.financialRatiosRepository = financialRatiosRepository;
+    public RoicCalculator(ApplicationEventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
         eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Calculating Return on Invested Capital (ROIC)..."));
-        Optional<FinancialRatiosData> financialRatiosData = financialRatiosRepository.findBySymbol(ticker);
+        Optional<FinancialRatiosData> financialRatiosData = context.getFinancialRatios();
 
         if (financialRatiosData.isEmpty() || financialRatiosData.get().getAnnualReports().isEmpty()) {
             LOGGER.warn("No annual financial ratios data found for ticker: {}", ticker);
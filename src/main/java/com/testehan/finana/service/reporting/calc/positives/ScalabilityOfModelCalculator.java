@@ -2,14 +2,14 @@ package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.exception.InsufficientCreditException;
 import com.testehan.finana.model.CompanyOverview;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.finstatement.*;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
 import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.ratio.FinancialRatiosReport;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.*;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
@@ -34,28 +34,17 @@ public class ScalabilityOfModelCalculator {
     @Value("classpath:/prompts/100Bagger/scalability_of_model_prompt.txt")
     private Resource scalabilityOfModelPrompt;
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final SecFilingRepository secFilingRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final LlmService llmService;
-    private final FinancialRatiosRepository financialRatiosRepository;
-    private final CashFlowRepository cashFlowRepository;
-    private final IncomeStatementRepository incomeStatementRepository;
-    private final BalanceSheetRepository balanceSheetRepository;
-
-    public ScalabilityOfModelCalculator(CompanyOverviewRepository companyOverviewRepository, SecFilingRepository secFilingRepository, ApplicationEventPublisher eventPublisher, LlmService llmService, FinancialRatiosRepository financialRatiosRepository, CashFlowRepository cashFlowRepository, IncomeStatementRepository incomeStatementRepository, BalanceSheetRepository balanceSheetRepository) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.secFilingRepository = secFilingRepository;
+
+    public ScalabilityOfModelCalculator(ApplicationEventPublisher eventPublisher, LlmService llmService) {
         this.eventPublisher = eventPublisher;
         this.llmService = llmService;
-        this.financialRatiosRepository = financialRatiosRepository;
-        this.cashFlowRepository = cashFlowRepository;
-        this.incomeStatementRepository = incomeStatementRepository;
-        this.balanceSheetRepository = balanceSheetRepository;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
         if (companyOverview.isEmpty()) {
             String errorMessage = "No Company overview found for ticker " + ticker;
             LOGGER.warn(errorMessage);
@@ -63,20 +52,12 @@ public class ScalabilityOfModelCalculator {
             return new ReportItem("scalabilityOfModel", -10, "Something went wrong and score could not be calculated ");
         }
 
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
 
         StringBuilder businessDescription = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            businessDescription.append(latestTenKFiling.getBusinessDescription());
-                        });
-            } else {
-                LOGGER.warn("No 10k found for ticker: {}", ticker);
-                eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get business description."));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            businessDescription.append(latestTenKFiling.getBusinessDescription());
         }, () -> {
             LOGGER.warn("No 10k found for ticker: {}", ticker);
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get business description."));
@@ -89,17 +70,17 @@ public class ScalabilityOfModelCalculator {
 
         promptParameters.put("company_name", companyOverview.get().getCompanyName());
         promptParameters.put("business_description", businessDescription);
-        promptParameters.put("avg_gross_profit_margin", calculateAverageGrossProfitMargin(ticker));
-        promptParameters.put("avg_capex_intensity", calculateAverageCapexIntensity(ticker));
-        promptParameters.put("revenue_cagr", calculateRevenueCAGR(ticker));
-        promptParameters.put("total_assets_cagr", calculateTotalAssetsCAGR(ticker));
+        promptParameters.put("avg_gross_profit_margin", calculateAverageGrossProfitMargin(context));
+        promptParameters.put("avg_capex_intensity", calculateAverageCapexIntensity(context));
+        promptParameters.put("revenue_cagr", calculateRevenueCAGR(context));
+        promptParameters.put("total_assets_cagr", calculateTotalAssetsCAGR(context));
         promptParameters.put("format", llmResponseOutputConverter.getFormat());
         Prompt prompt = promptTemplate.create(promptParameters);
 
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for scalability of model analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithOllama(prompt, "scalability_model_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "scalability_model_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response with scalability of model analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = llmResponseOutputConverter.convert(llmResponse);
 
@@ -118,14 +99,15 @@ public class ScalabilityOfModelCalculator {
         }
     }
 
-    private BigDecimal calculateAverageGrossProfitMargin(String ticker) {
-        Optional<FinancialRatiosData> financialRatiosOpt = financialRatiosRepository.findBySymbol(ticker);
+    private BigDecimal calculateAverageGrossProfitMargin(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<FinancialRatiosData> financialRatiosOpt = context.getFinancialRatios();
         if (financialRatiosOpt.isEmpty() || financialRatiosOpt.get().getAnnualReports().isEmpty()) {
             LOGGER.warn("No financial ratios found for ticker: {}", ticker);
             return BigDecimal.ZERO;
         }
 
-        List<FinancialRatiosReport> reports = financialRatiosOpt.get().getAnnualReports();
+        List<FinancialRatiosReport> reports = new ArrayList<>(financialRatiosOpt.get().getAnnualReports());
         reports.sort(Comparator.comparing(FinancialRatiosReport::getDate).reversed());
 
         List<FinancialRatiosReport> recentReports = reports.stream().limit(5).toList();
@@ -142,9 +124,10 @@ public class ScalabilityOfModelCalculator {
         return sum.divide(BigDecimal.valueOf(recentReports.size()), 4, RoundingMode.HALF_UP);
     }
 
-    private BigDecimal calculateAverageCapexIntensity(String ticker) {
-        Optional<CashFlowData> cashFlowDataOpt = cashFlowRepository.findBySymbol(ticker);
-        Optional<IncomeStatementData> incomeDataOpt = incomeStatementRepository.findBySymbol(ticker);
+    private BigDecimal calculateAverageCapexIntensity(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<CashFlowData> cashFlowDataOpt = context.getCashFlow();
+        Optional<IncomeStatementData> incomeDataOpt = context.getIncomeStatement();
 
         if (cashFlowDataOpt.isEmpty() || cashFlowDataOpt.get().getAnnualReports().isEmpty() ||
                 incomeDataOpt.isEmpty() || incomeDataOpt.get().getAnnualReports().isEmpty()) {
@@ -152,11 +135,11 @@ public class ScalabilityOfModelCalculator {
             return BigDecimal.ZERO;
         }
 
-        List<CashFlowReport> cashFlowReports = cashFlowDataOpt.get().getAnnualReports();
+        List<CashFlowReport> cashFlowReports = new ArrayList<>(cashFlowDataOpt.get().getAnnualReports());
         cashFlowReports.sort(Comparator.comparing(CashFlowReport::getDate).reversed());
         List<CashFlowReport> recentCashFlowReports = cashFlowReports.stream().limit(5).toList();
 
-        List<IncomeReport> incomeReports = incomeDataOpt.get().getAnnualReports();
+        List<IncomeReport> incomeReports = new ArrayList<>(incomeDataOpt.get().getAnnualReports());
         incomeReports.sort(Comparator.comparing(IncomeReport::getDate).reversed());
         List<IncomeReport> recentIncomeReports = incomeReports.stream().limit(5).toList();
 
@@ -169,9 +152,9 @@ public class ScalabilityOfModelCalculator {
         for (CashFlowReport cashFlowReport : recentCashFlowReports) {
             for (IncomeReport incomeReport : recentIncomeReports) {
                 if (cashFlowReport.getFiscalYear().equals(incomeReport.getFiscalYear())) {
-                    if (incomeReport.getRevenue() != null && new BigDecimal(incomeReport.getRevenue()).compareTo(BigDecimal.ZERO) != 0 && cashFlowReport.getCapitalExpenditure() != null) {
-                        BigDecimal capex = new BigDecimal(cashFlowReport.getCapitalExpenditure());
-                        BigDecimal revenue = new BigDecimal(incomeReport.getRevenue());
+                    if (incomeReport.getRevenue() != null && incomeReport.getRevenue().compareTo(BigDecimal.ZERO) != 0 && cashFlowReport.getCapitalExpenditure() != null) {
+                        BigDecimal capex = cashFlowReport.getCapitalExpenditure();
+                        BigDecimal revenue = incomeReport.getRevenue();
                         totalCapexIntensity = totalCapexIntensity.add(capex.divide(revenue, 4, RoundingMode.HALF_UP));
                         count++;
                     }
@@ -182,14 +165,15 @@ public class ScalabilityOfModelCalculator {
         return count == 0 ? BigDecimal.ZERO : totalCapexIntensity.divide(BigDecimal.valueOf(count), 4, RoundingMode.HALF_UP);
     }
 
-    private BigDecimal calculateRevenueCAGR(String ticker) {
-        Optional<IncomeStatementData> incomeDataOpt = incomeStatementRepository.findBySymbol(ticker);
+    private BigDecimal calculateRevenueCAGR(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<IncomeStatementData> incomeDataOpt = context.getIncomeStatement();
         if (incomeDataOpt.isEmpty() || incomeDataOpt.get().getAnnualReports().isEmpty()) {
             LOGGER.warn("No income data found for ticker: {}", ticker);
             return BigDecimal.ZERO;
         }
 
-        List<IncomeReport> reports = incomeDataOpt.get().getAnnualReports();
+        List<IncomeReport> reports = new ArrayList<>(incomeDataOpt.get().getAnnualReports());
         reports.sort(Comparator.comparing(IncomeReport::getDate));
 
         List<IncomeReport> recentReports = reports.stream().limit(5).toList();
@@ -200,8 +184,8 @@ public class ScalabilityOfModelCalculator {
         if (recentReports.get(0).getRevenue() == null || recentReports.get(recentReports.size() - 1).getRevenue() == null) {
             return BigDecimal.ZERO;
         }
-        BigDecimal startValue = new BigDecimal(recentReports.get(0).getRevenue());
-        BigDecimal endValue = new BigDecimal(recentReports.get(recentReports.size() - 1).getRevenue());
+        BigDecimal startValue = recentReports.get(0).getRevenue();
+        BigDecimal endValue = recentReports.get(recentReports.size() - 1).getRevenue();
         double years = recentReports.size() - 1;
 
         if (startValue.compareTo(BigDecimal.ZERO) == 0) {
@@ -212,14 +196,15 @@ public class ScalabilityOfModelCalculator {
         return new BigDecimal(cagr * 100).setScale(2, RoundingMode.HALF_UP);
     }
 
-    private BigDecimal calculateTotalAssetsCAGR(String ticker) {
-        Optional<BalanceSheetData> balanceSheetDataOpt = balanceSheetRepository.findBySymbol(ticker);
+    private BigDecimal calculateTotalAssetsCAGR(ReportContext context) {
+        String ticker = context.getTicker();
+        Optional<BalanceSheetData> balanceSheetDataOpt = context.getBalanceSheet();
         if (balanceSheetDataOpt.isEmpty() || balanceSheetDataOpt.get().getAnnualReports().isEmpty()) {
             LOGGER.warn("No balance sheet data found for ticker: {}", ticker);
             return BigDecimal.ZERO;
         }
 
-        List<BalanceSheetReport> reports = balanceSheetDataOpt.get().getAnnualReports();
+        List<BalanceSheetReport> reports = new ArrayList<>(balanceSheetDataOpt.get().getAnnualReports());
         reports.sort(Comparator.comparing(BalanceSheetReport::getDate));
 
         List<BalanceSheetReport> recentReports = reports.stream().limit(5).toList();
@@ -230,8 +215,8 @@ public class ScalabilityOfModelCalculator {
         if (recentReports.get(0).getTotalAssets() == null || recentReports.get(recentReports.size() - 1).getTotalAssets() == null) {
             return BigDecimal.ZERO;
         }
-        BigDecimal startValue = new BigDecimal(recentReports.get(0).getTotalAssets());
-        BigDecimal endValue = new BigDecimal(recentReports.get(recentReports.size() - 1).getTotalAssets());
+        BigDecimal startValue = recentReports.get(0).getTotalAssets();
+        BigDecimal endValue = recentReports.get(recentReports.size() - 1).getTotalAssets();
         double years = recentReports.size() - 1;
 
         if (startValue.compareTo(BigDecimal.ZERO) == 0) {
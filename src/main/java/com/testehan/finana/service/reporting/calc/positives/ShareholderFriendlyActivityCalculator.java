@@ -4,8 +4,7 @@ import com.testehan.finana.model.finstatement.CashFlowData;
 import com.testehan.finana.model.finstatement.CashFlowReport;
 import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.CashFlowRepository;
-import com.testehan.finana.repository.CompanyOverviewRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,19 +24,16 @@ public class ShareholderFriendlyActivityCalculator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ShareholderFriendlyActivityCalculator.class);
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final CashFlowRepository cashFlowRepository;
     private final ApplicationEventPublisher eventPublisher;
 
-    public ShareholderFriendlyActivityCalculator(CompanyOverviewRepository companyOverviewRepository, CashFlowRepository cashFlowRepository, ApplicationEventPublisher eventPublisher) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.cashFlowRepository = cashFlowRepository;
+    public ShareholderFriendlyActivityCalculator(ApplicationEventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CashFlowData> cashflowDataOptional = cashFlowRepository.findBySymbol(ticker);
-        Optional<CompanyOverview> companyOverviewOptional = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CashFlowData> cashflowDataOptional = context.getCashFlow();
+        Optional<CompanyOverview> companyOverviewOptional = context.getCompanyOverview();
 
         if (cashflowDataOptional.isEmpty() || cashflowDataOptional.get().getAnnualReports().isEmpty()) {
             String errorMessage = "Shareholder friendly activity analysis is skipped: No cashflow data found for ticker: " + ticker;
@@ -247,7 +243,7 @@ public class ShareholderFriendlyActivityCalculator {
         return new DividendAnalysisResult(checksPassed ? 1 : 0, sb.toString());
     }
 
-    private BigDecimal getAbsValue(String value) {
+    private BigDecimal getAbsValue(BigDecimal value) {
         return getSafeBigDecimal(value).abs();
     }
 
@@ -303,13 +299,8 @@ public class ShareholderFriendlyActivityCalculator {
         return 0;
     }
 
-    // Helper to avoid NPEs and clean strings
-    private BigDecimal getSafeBigDecimal(String value) {
-        if (value == null || value.equals("None") || value.equals("-")) return BigDecimal.ZERO;
-        try {
-            return new BigDecimal(value);
-        } catch (NumberFormatException e) {
-            return BigDecimal.ZERO;
-        }
+    // Helper to avoid NPEs
+    private BigDecimal getSafeBigDecimal(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
     }
 }
@@ -3,12 +3,10 @@ package com.testehan.finana.service.reporting.calc.positives;
 import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.llm.responses.TAMScoreExplanationResponse;
-import com.testehan.finana.repository.CompanyOverviewRepository;
-import com.testehan.finana.repository.IncomeStatementRepository;
-import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
@@ -35,26 +33,21 @@ public class TamCalculator {
     @Value("classpath:/prompts/100Bagger/tam_prompt.txt")
     private Resource tamPrompt;
 
-    private final CompanyOverviewRepository companyOverviewRepository;
-    private final IncomeStatementRepository incomeStatementRepository;
-    private final SecFilingRepository secFilingRepository;
 
     private final ApplicationEventPublisher eventPublisher;
     private final LlmService llmService;
     private final SafeParser safeParser;
 
-    public TamCalculator(CompanyOverviewRepository companyOverviewRepository, IncomeStatementRepository incomeStatementRepository, SecFilingRepository secFilingRepository, ApplicationEventPublisher eventPublisher, LlmService llmService, SafeParser safeParser) {
-        this.companyOverviewRepository = companyOverviewRepository;
-        this.incomeStatementRepository = incomeStatementRepository;
-        this.secFilingRepository = secFilingRepository;
+    public TamCalculator(ApplicationEventPublisher eventPublisher, LlmService llmService, SafeParser safeParser) {
         this.eventPublisher = eventPublisher;
         this.llmService = llmService;
         this.safeParser = safeParser;
     }
 
-    public TAMScoreExplanationResponse calculate(String ticker, SseEmitter sseEmitter) {
+    public TAMScoreExplanationResponse calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
 
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
         if (companyOverview.isEmpty()){
             String errorMessage = "No Company overview found for ticker " + ticker;
             LOGGER.warn(errorMessage);
@@ -62,28 +55,20 @@ public class TamCalculator {
             return new TAMScoreExplanationResponse(-10, "Something went wrong and score could not be calculated ");
         }
 
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
 
         StringBuilder businessDescription = new StringBuilder();
         StringBuilder managementDiscussion = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            businessDescription.append(latestTenKFiling.getBusinessDescription());
-                            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
-                        });
-            } else {
-                LOGGER.warn("No 10k found for ticker: {}", ticker);
-                eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get business description."));
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            businessDescription.append(latestTenKFiling.getBusinessDescription());
+            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
         }, () -> {
             LOGGER.warn("No 10k found for ticker: {}", ticker);
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "No 10k available to get business description."));
         });
 
-        Optional<IncomeStatementData> incomeStatementDataOptional = incomeStatementRepository.findBySymbol(ticker);
+        Optional<IncomeStatementData> incomeStatementDataOptional = context.getIncomeStatement();
         if (incomeStatementDataOptional.isEmpty()) {
             String errorMessage = "No income statement data found for ticker " + ticker;
             LOGGER.warn(errorMessage);
@@ -108,7 +93,7 @@ public class TamCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for TAM analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlm(prompt, "tam_analysis", ticker);
+            String llmResponse = llmService.callLlm(prompt, "tam_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response with TAM analysis."));
              return llmResponseOutputConverter.convert(llmResponse);
 
@@ -1,14 +1,14 @@
 package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.*;
-import com.testehan.finana.model.filing.SecFiling;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.llm.responses.LlmScoreExplanationResponse;
 import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.ratio.FinancialRatiosReport;
 import com.testehan.finana.model.reporting.ReportItem;
-import com.testehan.finana.repository.*;
 import com.testehan.finana.service.LlmService;
 import com.testehan.finana.service.QuoteService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
@@ -38,59 +38,41 @@ public class ValuationCalculator {
     @Value("classpath:/prompts/100Bagger/valuation_prompt.txt")
     private Resource valuationPrompt;
 
-    private final CompanyOverviewRepository companyOverviewRepository;
     private final QuoteService quoteService;
-    private final EarningsHistoryRepository earningsHistoryRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final SafeParser safeParser;
     private final LlmService llmService;
-    private final FinancialRatiosRepository financialRatiosRepository;
-    private final EarningsEstimatesRepository earningsEstimatesRepository;
-    private final SecFilingRepository secFilingRepository;
 
-    public ValuationCalculator(CompanyOverviewRepository companyOverviewRepository, QuoteService quoteService, EarningsHistoryRepository earningsHistoryRepository, ApplicationEventPublisher eventPublisher, SafeParser safeParser, LlmService llmService, FinancialRatiosRepository financialRatiosRepository, EarningsEstimatesRepository earningsEstimatesRepository, SecFilingRepository secFilingRepository) {
-        this.companyOverviewRepository = companyOverviewRepository;
+    public ValuationCalculator(QuoteService quoteService, ApplicationEventPublisher eventPublisher, SafeParser safeParser, LlmService llmService) {
         this.quoteService = quoteService;
-        this.earningsHistoryRepository = earningsHistoryRepository;
         this.eventPublisher = eventPublisher;
         this.safeParser = safeParser;
         this.llmService = llmService;
-        this.financialRatiosRepository = financialRatiosRepository;
-        this.earningsEstimatesRepository = earningsEstimatesRepository;
-        this.secFilingRepository = secFilingRepository;
     }
 
-    public ReportItem calculate(String ticker, SseEmitter sseEmitter) {
-        Optional<CompanyOverview> companyOverview = companyOverviewRepository.findBySymbol(ticker);
+    public ReportItem calculate(ReportContext context, SseEmitter sseEmitter) {
+        String ticker = context.getTicker();
+        Optional<CompanyOverview> companyOverview = context.getCompanyOverview();
 
-        Optional<SecFiling> secFilingData = secFilingRepository.findBySymbol(ticker);
+        Optional<TenKFilings> latestTenK = context.getLatestTenKFiling();
 
         StringBuilder riskFactors = new StringBuilder();
         StringBuilder managementDiscussion = new StringBuilder();
 
-        secFilingData.ifPresentOrElse(secData -> {
-            if (Objects.nonNull(secData.getTenKFilings()) && !secData.getTenKFilings().isEmpty()) {
-                secData.getTenKFilings().stream().max(Comparator.comparing(tenKFiling -> tenKFiling.getFiledAt()))
-                        .ifPresent(latestTenKFiling -> {
-                            riskFactors.append(latestTenKFiling.getRiskFactors());
-                            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
-                        });
-            } else {
-                var errorMessage = "No 10k found for ticker: " + ticker;
-                eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
-                LOGGER.error(errorMessage);
-            }
+        latestTenK.ifPresentOrElse(latestTenKFiling -> {
+            riskFactors.append(latestTenKFiling.getRiskFactors());
+            managementDiscussion.append(latestTenKFiling.getManagementDiscussion());
         }, () -> {
             var errorMessage = "No 10k found for ticker: " + ticker;
             eventPublisher.publishEvent(new ErrorEvent(this, ticker, sseEmitter, new RuntimeException(errorMessage)));
             LOGGER.error(errorMessage);
         });
 
-        var currentPe = calculateCurrentPE(ticker).block();
-        var peg = calculatePegRatio(ticker).block();
-        var medianPe = calculateMedianPeRatio(ticker);
-        var year1EpsCagr = calculate1YrForwardEpsGrowth(ticker);
-        var year3EpsCagr = calculate3YrForwardEpsGrowth(ticker);
+        var currentPe = calculateCurrentPE(context).block();
+        var peg = calculatePegRatio(context).block();
+        var medianPe = calculateMedianPeRatio(context);
+        var year1EpsCagr = calculate1YrForwardEpsGrowth(context);
+        var year3EpsCagr = calculate3YrForwardEpsGrowth(context);
 
         PromptTemplate promptTemplate = new PromptTemplate(valuationPrompt);
         var ferolLlmResponseOutputConverter = new BeanOutputConverter<>(LlmScoreExplanationResponse.class);
@@ -110,7 +92,7 @@ public class ValuationCalculator {
         try {
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Sending data to LLM for valuation analysis..."));
             LOGGER.info("Calling LLM with prompt for {}: {}", ticker, prompt);
-            String llmResponse = llmService.callLlmWithOllama(prompt, "valuation_analysis", ticker);
+            String llmResponse = llmService.callLlmWithOllama(prompt, "valuation_analysis", ticker, context.isRegenerate());
             eventPublisher.publishEvent(new MessageEvent(this, ticker, sseEmitter, "Received LLM response for valuation analysis."));
             LlmScoreExplanationResponse convertedLlmResponse = ferolLlmResponseOutputConverter.convert(llmResponse);
 
@@ -128,7 +110,8 @@ public class ValuationCalculator {
 
     }
 
-    public Mono<BigDecimal> calculateCurrentPE(String ticker) {
+    public Mono<BigDecimal> calculateCurrentPE(ReportContext context) {
+        String ticker = context.getTicker();
         return quoteService.getLastStockQuote(ticker)
                 .flatMap(lastStockQuote -> {
                     if (lastStockQuote == null) {
@@ -137,13 +120,13 @@ public class ValuationCalculator {
                     }
                     BigDecimal price = new BigDecimal(lastStockQuote.getAdjOpen());
 
-                    Optional<EarningsHistory> earningsHistoryOptional = earningsHistoryRepository.findBySymbol(ticker);
+                    Optional<EarningsHistory> earningsHistoryOptional = context.getEarningsHistory();
                     if (earningsHistoryOptional.isEmpty() || Objects.isNull(earningsHistoryOptional.get().getQuarterlyEarnings())) {
                         LOGGER.warn("No earnings history data for P/E calculation for ticker: {}", ticker);
                         return Mono.empty();
                     }
 
-                    List<QuarterlyEarning> quarterlyEarnings = earningsHistoryOptional.get().getQuarterlyEarnings();
+                    List<QuarterlyEarning> quarterlyEarnings = new ArrayList<>(earningsHistoryOptional.get().getQuarterlyEarnings());
                     quarterlyEarnings.sort(Comparator.comparing(QuarterlyEarning::getFiscalDateEnding).reversed());
 
                     var last4quarters = quarterlyEarnings.stream()
@@ -169,8 +152,8 @@ public class ValuationCalculator {
                 });
     }
 
-    public BigDecimal calculateMedianPeRatio(String ticker) {
-        Optional<FinancialRatiosData> financialRatiosDataOptional = financialRatiosRepository.findBySymbol(ticker);
+    public BigDecimal calculateMedianPeRatio(ReportContext context) {
+        Optional<FinancialRatiosData> financialRatiosDataOptional = context.getFinancialRatios();
         if (financialRatiosDataOptional.isEmpty() || financialRatiosDataOptional.get().getAnnualReports().isEmpty()) {
             return null;
         }
@@ -200,13 +183,13 @@ public class ValuationCalculator {
         return medianPe;
     }
 
-    public BigDecimal calculate1YrForwardEpsGrowth(String ticker) {
-        Optional<EarningsEstimate> earningsEstimateOptional = earningsEstimatesRepository.findBySymbol(ticker);
+    public BigDecimal calculate1YrForwardEpsGrowth(ReportContext context) {
+        Optional<EarningsEstimate> earningsEstimateOptional = context.getEarningsEstimate();
         if (earningsEstimateOptional.isEmpty() || earningsEstimateOptional.get().getEstimates().size() < 2) {
             return null;
         }
 
-        List<Estimate> estimates = earningsEstimateOptional.get().getEstimates();
+        List<Estimate> estimates = new ArrayList<>(earningsEstimateOptional.get().getEstimates());
         estimates.sort(Comparator.comparing(Estimate::getDate));
 
         LocalDate currentDate = LocalDate.now();
@@ -234,13 +217,13 @@ public class ValuationCalculator {
         return (nextEps.subtract(currentEps)).divide(currentEps, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"));
     }
 
-    public BigDecimal calculate3YrForwardEpsGrowth(String ticker) {
-        Optional<EarningsEstimate> earningsEstimateOptional = earningsEstimatesRepository.findBySymbol(ticker);
+    public BigDecimal calculate3YrForwardEpsGrowth(ReportContext context) {
+        Optional<EarningsEstimate> earningsEstimateOptional = context.getEarningsEstimate();
         if (earningsEstimateOptional.isEmpty() || earningsEstimateOptional.get().getEstimates().size() < 4) {
             return null;
         }
 
-        List<Estimate> estimates = earningsEstimateOptional.get().getEstimates();
+        List<Estimate> estimates = new ArrayList<>(earningsEstimateOptional.get().getEstimates());
         estimates.sort(Comparator.comparing(Estimate::getDate));
 
         LocalDate currentDate = LocalDate.now();
@@ -270,10 +253,11 @@ public class ValuationCalculator {
         return new BigDecimal(cagr).multiply(new BigDecimal("100"));
     }
 
-    public Mono<BigDecimal> calculatePegRatio(String ticker) {
-        return calculateCurrentPE(ticker)
+    public Mono<BigDecimal> calculatePegRatio(ReportContext context) {
+        String ticker = context.getTicker();
+        return calculateCurrentPE(context)
                 .flatMap(currentPe -> {
-                    BigDecimal oneYearForwardEpsGrowth = calculate1YrForwardEpsGrowth(ticker);
+                    BigDecimal oneYearForwardEpsGrowth = calculate1YrForwardEpsGrowth(context);
 
                     if (oneYearForwardEpsGrowth == null) {
                         LOGGER.warn("1-Year Forward EPS Growth is null for PEG ratio calculation for ticker: {}", ticker);
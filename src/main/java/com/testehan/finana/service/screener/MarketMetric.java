@@ -0,0 +1,15 @@
+package com.testehan.finana.service.screener;
+
+/**
+ * Screener metrics that are not one of the stored {@link com.testehan.finana.util.ratio.Ratio}s, taken from the
+ * company overview and the latest quote. The valuation multiples are missing when their denominator is not positive.
+ */
+public enum MarketMetric {
+    MARKET_CAP,
+    PRICE,
+    BETA,
+    PE_RATIO,
+    PRICE_TO_BOOK,
+    PRICE_TO_SALES,
+    FREE_CASH_FLOW_YIELD
+}
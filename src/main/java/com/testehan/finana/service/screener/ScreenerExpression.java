@@ -0,0 +1,347 @@
+package com.testehan.finana.service.screener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A parsed screener filter such as {@code roic > 15% and net_debt_to_ebitda < 1 and sector = 'Technology'}.
+ * A comparison takes a metric and a number, two metrics, or a text field and a quoted text, compared ignoring case
+ * with = or != only; a number ending in % is a fraction. Comparisons combine with and, or, not and parentheses.
+ * A missing metric matches no comparison. Filters are evaluated one column at a time into a bit set of the matching
+ * rows. Filters are limited in length and nesting, so that parsing and evaluating them stays shallow.
+ */
+public final class ScreenerExpression {
+
+    private static final ScreenerExpression ALL = new ScreenerExpression(universe -> {
+        BitSet rows = new BitSet(universe.size());
+        rows.set(0, universe.size());
+        return rows;
+    });
+
+    static final int MAX_FILTER_CHARS = 2000;
+    static final int MAX_NESTING = 32;
+
+    private final Condition condition;
+
+    private ScreenerExpression(Condition condition) {
+        this.condition = condition;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the filter is not valid, with a message for the caller
+     */
+    public static ScreenerExpression parse(String filter) {
+        if (filter == null || filter.isBlank()) {
+            return ALL;
+        }
+        if (filter.length() > MAX_FILTER_CHARS) {
+            throw new IllegalArgumentException("Filter is longer than " + MAX_FILTER_CHARS + " characters");
+        }
+        Parser parser = new Parser(tokenize(filter));
+        Condition condition = parser.or();
+        parser.expect(TokenType.END, "end of filter");
+        return new ScreenerExpression(condition);
+    }
+
+    public BitSet matches(ScreenerUniverse universe) {
+        return condition.evaluate(universe);
+    }
+
+    enum Comparison {
+        LT("<"), LE("<="), GT(">"), GE(">="), EQ("="), NE("!=");
+
+        private final String symbol;
+
+        Comparison(String symbol) {
+            this.symbol = symbol;
+        }
+
+        static Comparison of(String symbol) {
+            if ("==".equals(symbol)) {
+                return EQ;
+            }
+            for (Comparison comparison : values()) {
+                if (comparison.symbol.equals(symbol)) {
+                    return comparison;
+                }
+            }
+            return null;
+        }
+
+        // false whenever a value is NaN, including for !=
+        boolean test(double left, double right) {
+            return switch (this) {
+                case LT -> left < right;
+                case LE -> left <= right;
+                case GT -> left > right;
+                case GE -> left >= right;
+                case EQ -> left == right;
+                case NE -> left != right && !Double.isNaN(left) && !Double.isNaN(right);
+            };
+        }
+
+        Comparison flipped() {
+            return switch (this) {
+                case LT -> GT;
+                case LE -> GE;
+                case GT -> LT;
+                case GE -> LE;
+                case EQ, NE -> this;
+            };
+        }
+    }
+
+    private interface Condition {
+        BitSet evaluate(ScreenerUniverse universe);
+    }
+
+    private record MetricToNumber(int metric, Comparison comparison, double value) implements Condition {
+        @Override
+        public BitSet evaluate(ScreenerUniverse universe) {
+            double[] column = universe.metricColumn(metric);
+            long[] words = new long[(universe.size() + 63) >>> 6];
+            for (int row = 0; row < universe.size(); row++) {
+                if (comparison.test(column[row], value)) {
+                    words[row >>> 6] |= 1L << row;
+                }
+            }
+            return BitSet.valueOf(words);
+        }
+    }
+
+    private record MetricToMetric(int left, Comparison comparison, int right) implements Condition {
+        @Override
+        public BitSet evaluate(ScreenerUniverse universe) {
+            double[] leftColumn = universe.metricColumn(left);
+            double[] rightColumn = universe.metricColumn(right);
+            long[] words = new long[(universe.size() + 63) >>> 6];
+            for (int row = 0; row < universe.size(); row++) {
+                if (comparison.test(leftColumn[row], rightColumn[row])) {
+                    words[row >>> 6] |= 1L << row;
+                }
+            }
+            return BitSet.valueOf(words);
+        }
+    }
+
+    private record TextEquals(int field, String value, boolean negated) implements Condition {
+        @Override
+        public BitSet evaluate(ScreenerUniverse universe) {
+            String[] column = universe.textColumn(field);
+            BitSet rows = new BitSet(universe.size());
+            for (int row = 0; row < universe.size(); row++) {
+                if (column[row] != null && column[row].equalsIgnoreCase(value) != negated) {
+                    rows.set(row);
+                }
+            }
+            return rows;
+        }
+    }
+
+    private record And(Condition left, Condition right) implements Condition {
+        @Override
+        public BitSet evaluate(ScreenerUniverse universe) {
+            BitSet rows = left.evaluate(universe);
+            rows.and(right.evaluate(universe));
+            return rows;
+        }
+    }
+
+    private record Or(Condition left, Condition right) implements Condition {
+        @Override
+        public BitSet evaluate(ScreenerUniverse universe) {
+            BitSet rows = left.evaluate(universe);
+            rows.or(right.evaluate(universe));
+            return rows;
+        }
+    }
+
+    private record Not(Condition condition) implements Condition {
+        @Override
+        public BitSet evaluate(ScreenerUniverse universe) {
+            BitSet rows = condition.evaluate(universe);
+            rows.flip(0, universe.size());
+            return rows;
+        }
+    }
+
+    private enum TokenType {IDENTIFIER, NUMBER, TEXT, OPERATOR, OPEN, CLOSE, END}
+
+    private record Token(TokenType type, String text, int position) {
+        boolean isKeyword(String keyword) {
+            return type == TokenType.IDENTIFIER && text.equalsIgnoreCase(keyword);
+        }
+    }
+
+    private static List<Token> tokenize(String filter) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < filter.length()) {
+            char c = filter.charAt(i);
+            int start = i;
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(new Token(c == '(' ? TokenType.OPEN : TokenType.CLOSE, String.valueOf(c), start));
+                i++;
+            } else if (c == '\'' || c == '"') {
+                int end = filter.indexOf(c, i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated text at position " + start);
+                }
+                tokens.add(new Token(TokenType.TEXT, filter.substring(i + 1, end), start));
+                i = end + 1;
+            } else if (Character.isDigit(c) || c == '.' || (c == '-' && i + 1 < filter.length()
+                    && (Character.isDigit(filter.charAt(i + 1)) || filter.charAt(i + 1) == '.'))) {
+                i++;
+                while (i < filter.length() && (Character.isDigit(filter.charAt(i)) || filter.charAt(i) == '.'
+                        || filter.charAt(i) == 'e' || filter.charAt(i) == 'E')) {
+                    i++;
+                }
+                if (i < filter.length() && filter.charAt(i) == '%') {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.NUMBER, filter.substring(start, i), start));
+            } else if (Character.isLetter(c) || c == '_') {
+                while (i < filter.length() && (Character.isLetterOrDigit(filter.charAt(i)) || filter.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.IDENTIFIER, filter.substring(start, i), start));
+            } else if ("<>=!".indexOf(c) >= 0) {
+                i++;
+                if (i < filter.length() && filter.charAt(i) == '=') {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.OPERATOR, filter.substring(start, i), start));
+            } else {
+                throw new IllegalArgumentException("Unexpected '" + c + "' at position " + start);
+            }
+        }
+        tokens.add(new Token(TokenType.END, "", filter.length()));
+        return tokens;
+    }
+
+    private static final class Parser {
+
+        private final List<Token> tokens;
+        private int next;
+        private int nesting;
+
+        private Parser(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        Condition or() {
+            Condition condition = and();
+            while (peek().isKeyword("or")) {
+                next++;
+                condition = new Or(condition, and());
+            }
+            return condition;
+        }
+
+        private Condition and() {
+            Condition condition = not();
+            while (peek().isKeyword("and")) {
+                next++;
+                condition = new And(condition, not());
+            }
+            return condition;
+        }
+
+        private Condition not() {
+            if (peek().isKeyword("not")) {
+                enter();
+                Condition condition = new Not(not());
+                nesting--;
+                return condition;
+            }
+            if (peek().type() == TokenType.OPEN) {
+                enter();
+                Condition condition = or();
+                expect(TokenType.CLOSE, "')'");
+                nesting--;
+                return condition;
+            }
+            return comparison();
+        }
+
+        private void enter() {
+            if (++nesting > MAX_NESTING) {
+                throw new IllegalArgumentException("Filter nests more than " + MAX_NESTING
+                        + " levels of not or parentheses at position " + peek().position());
+            }
+            next++;
+        }
+
+        private Condition comparison() {
+            Token left = expect(TokenType.IDENTIFIER, TokenType.NUMBER, "a metric or a number");
+            Token operator = expect(TokenType.OPERATOR, "a comparison after '" + left.text() + "'");
+            Comparison comparison = Comparison.of(operator.text());
+            if (comparison == null) {
+                throw new IllegalArgumentException("Unknown comparison '" + operator.text() + "' at position " + operator.position());
+            }
+            Token right = peek();
+            next++;
+
+            if (left.type() == TokenType.IDENTIFIER && ScreenerUniverse.textFieldIndex(left.text()) >= 0) {
+                if (right.type() != TokenType.TEXT) {
+                    throw new IllegalArgumentException("Expected a quoted text after '" + left.text() + " " + operator.text() + "'");
+                }
+                if (comparison != Comparison.EQ && comparison != Comparison.NE) {
+                    throw new IllegalArgumentException(left.text() + " can only be compared with = or !=");
+                }
+                return new TextEquals(ScreenerUniverse.textFieldIndex(left.text()), right.text(), comparison == Comparison.NE);
+            }
+            if (left.type() == TokenType.NUMBER) {
+                if (right.type() != TokenType.IDENTIFIER) {
+                    throw new IllegalArgumentException("Expected a metric at position " + right.position());
+                }
+                return new MetricToNumber(metric(right), comparison.flipped(), number(left));
+            }
+            return switch (right.type()) {
+                case NUMBER -> new MetricToNumber(metric(left), comparison, number(right));
+                case IDENTIFIER -> new MetricToMetric(metric(left), comparison, metric(right));
+                default -> throw new IllegalArgumentException("Expected a metric or a number at position " + right.position());
+            };
+        }
+
+        Token expect(TokenType type, String expected) {
+            return expect(type, type, expected);
+        }
+
+        private Token expect(TokenType type, TokenType alternative, String expected) {
+            Token token = peek();
+            if (token.type() != type && token.type() != alternative) {
+                throw new IllegalArgumentException("Expected " + expected + " at position " + token.position()
+                        + (token.type() == TokenType.END ? "" : ", found '" + token.text() + "'"));
+            }
+            next++;
+            return token;
+        }
+
+        private Token peek() {
+            return tokens.get(next);
+        }
+
+        private static int metric(Token token) {
+            int metric = ScreenerUniverse.metricIndex(token.text());
+            if (metric < 0) {
+                throw new IllegalArgumentException("Unknown metric '" + token.text() + "'");
+            }
+            return metric;
+        }
+
+        private static double number(Token token) {
+            String text = token.text();
+            boolean percent = text.endsWith("%");
+            try {
+                double value = Double.parseDouble(percent ? text.substring(0, text.length() - 1) : text);
+                return percent ? value / 100 : value;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number '" + text + "' at position " + token.position());
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.testehan.finana.service.screener;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A filter with the order of its matches: by rank score when rank metrics are given, then by the sort keys, then by
+ * market cap, largest first. The rank score of a row is one minus its average percentile over the rank metrics, where
+ * a missing metric counts as the worst percentile.
+ */
+public record ScreenerQuery(ScreenerExpression filter, List<ScreenerSortKey> sort, List<ScreenerSortKey> rank) {
+
+    private static final ScreenerSortKey LARGEST_FIRST =
+            new ScreenerSortKey(ScreenerUniverse.metricIndex(MarketMetric.MARKET_CAP), true);
+
+    /**
+     * @throws IllegalArgumentException if the filter, sort or rank is not valid
+     */
+    public static ScreenerQuery parse(String filter, String sort, String rank) {
+        return new ScreenerQuery(ScreenerExpression.parse(filter), ScreenerSortKey.parseList(sort), ScreenerSortKey.parseList(rank));
+    }
+
+    public Page<ScreenerResult> run(ScreenerUniverse universe, Pageable pageable) {
+        BitSet matches = filter.matches(universe);
+        int[] rows = matches.stream().toArray();
+        double[] rankScores = rank.isEmpty() ? null : rankScores(universe, rows);
+
+        Comparator<Integer> order = (left, right) -> 0;
+        if (rankScores != null) {
+            order = Comparator.comparingDouble(position -> -rankScores[position]);
+        }
+        for (ScreenerSortKey key : sort) {
+            order = order.thenComparing((left, right) -> key.compare(universe, rows[left], rows[right]));
+        }
+        order = order.thenComparing((left, right) -> LARGEST_FIRST.compare(universe, rows[left], rows[right]))
+                .thenComparing(position -> universe.symbol(rows[position]));
+
+        Integer[] positions = new Integer[rows.length];
+        Arrays.setAll(positions, position -> position);
+        Arrays.sort(positions, order);
+
+        int from = (int) Math.min(pageable.getOffset(), rows.length);
+        int to = Math.min(from + pageable.getPageSize(), rows.length);
+        List<ScreenerResult> content = Arrays.stream(positions, from, to)
+                .map(position -> ScreenerResult.of(universe, rows[position], rankScores != null ? rankScores[position] : null))
+                .toList();
+        return new PageImpl<>(content, pageable, rows.length);
+    }
+
+    private double[] rankScores(ScreenerUniverse universe, int[] rows) {
+        double[] percentileSums = new double[rows.length];
+        Integer[] positions = new Integer[rows.length];
+        for (ScreenerSortKey key : rank) {
+            Arrays.setAll(positions, position -> position);
+            Arrays.sort(positions, (left, right) -> key.compare(universe, rows[left], rows[right]));
+            int tieStart = 0;
+            for (int i = 0; i < positions.length; i++) {
+                int row = rows[positions[i]];
+                if (Double.isNaN(universe.metric(key.metric(), row))) {
+                    percentileSums[positions[i]] += 1;
+                    continue;
+                }
+                if (i > 0 && key.compare(universe, rows[positions[i - 1]], row) != 0) {
+                    tieStart = i;
+                }
+                percentileSums[positions[i]] += rows.length > 1 ? (double) tieStart / (rows.length - 1) : 0;
+            }
+        }
+        double[] scores = new double[rows.length];
+        for (int position = 0; position < rows.length; position++) {
+            scores[position] = 1 - percentileSums[position] / rank.size();
+        }
+        return scores;
+    }
+}
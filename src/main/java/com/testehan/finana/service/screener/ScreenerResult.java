@@ -0,0 +1,30 @@
+package com.testehan.finana.service.screener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One screened symbol with its metrics by name; missing metrics are left out. The rank score is only set when the
+ * screen ranks, from 0 for the worst to 1 for the best symbol on all rank metrics.
+ */
+public record ScreenerResult(String symbol,
+                             String companyName,
+                             String sector,
+                             String industry,
+                             Double rankScore,
+                             Map<String, Double> metrics) {
+
+    static ScreenerResult of(ScreenerUniverse universe, int row, Double rankScore) {
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        for (int metric = 0; metric < ScreenerUniverse.METRICS.size(); metric++) {
+            double value = universe.metric(metric, row);
+            if (Double.isFinite(value)) {
+                metrics.put(ScreenerUniverse.METRICS.get(metric), value);
+            }
+        }
+        return new ScreenerResult(universe.symbol(row), universe.companyName(row),
+                universe.text(ScreenerUniverse.textFieldIndex("sector"), row),
+                universe.text(ScreenerUniverse.textFieldIndex("industry"), row),
+                rankScore, metrics);
+    }
+}
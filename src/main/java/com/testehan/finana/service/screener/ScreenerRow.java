@@ -0,0 +1,75 @@
+package com.testehan.finana.service.screener;
+
+import com.testehan.finana.model.CompanyOverview;
+import com.testehan.finana.model.ratio.FinancialRatiosReport;
+import com.testehan.finana.util.SafeParser;
+import com.testehan.finana.util.ratio.Ratio;
+import com.testehan.finana.util.ratio.RatioColumns;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The screener values of one symbol, its texts in the order of {@link ScreenerUniverse#TEXT_FIELDS} and its metrics in
+ * the order of {@link ScreenerUniverse#METRICS}, NaN when missing.
+ */
+public record ScreenerRow(String symbol, String companyName, String[] texts, double[] metrics) {
+
+    /**
+     * The row of the latest annual ratios, the company overview and the latest price; the overview price is used when
+     * there is no quote. Any of them may be null.
+     */
+    public static ScreenerRow of(String symbol, CompanyOverview overview, FinancialRatiosReport ratios, Double latestPrice) {
+        return of(symbol, overview, ratio -> {
+            BigDecimal value = ratios != null ? ratio.get(ratios) : null;
+            return value != null ? value.doubleValue() : Double.NaN;
+        }, latestPrice);
+    }
+
+    /**
+     * The row of ratios given as doubles, NaN when missing, e.g. a row of {@link RatioColumns}.
+     */
+    public static ScreenerRow of(String symbol, CompanyOverview overview, ToDoubleFunction<Ratio> ratios, Double latestPrice) {
+        double[] metrics = new double[ScreenerUniverse.METRICS.size()];
+        Arrays.fill(metrics, Double.NaN);
+        for (Ratio ratio : Ratio.values()) {
+            metrics[ScreenerUniverse.metricIndex(ratio)] = ratios.applyAsDouble(ratio);
+        }
+
+        Double price = price(overview, latestPrice);
+        double priceValue = price != null ? price : Double.NaN;
+        metrics[ScreenerUniverse.metricIndex(MarketMetric.PRICE)] = priceValue;
+        if (overview != null) {
+            metrics[ScreenerUniverse.metricIndex(MarketMetric.MARKET_CAP)] = valueOf(overview.getMarketCap());
+            metrics[ScreenerUniverse.metricIndex(MarketMetric.BETA)] = valueOf(overview.getBeta());
+        }
+        metrics[ScreenerUniverse.metricIndex(MarketMetric.PE_RATIO)] = multiple(priceValue, metrics, Ratio.EPS_DILUTED);
+        metrics[ScreenerUniverse.metricIndex(MarketMetric.PRICE_TO_BOOK)] = multiple(priceValue, metrics, Ratio.BOOK_VALUE_PER_SHARE);
+        metrics[ScreenerUniverse.metricIndex(MarketMetric.PRICE_TO_SALES)] = multiple(priceValue, metrics, Ratio.SALES_PER_SHARE);
+        double freeCashFlowPerShare = metrics[ScreenerUniverse.metricIndex(Ratio.FREE_CASH_FLOW_PER_SHARE)];
+        metrics[ScreenerUniverse.metricIndex(MarketMetric.FREE_CASH_FLOW_YIELD)] = priceValue > 0 ? freeCashFlowPerShare / priceValue : Double.NaN;
+
+        String[] texts = overview == null
+                ? new String[ScreenerUniverse.TEXT_FIELDS.size()]
+                : new String[]{overview.getSector(), overview.getIndustry(), overview.getExchange(), overview.getCountry()};
+        return new ScreenerRow(symbol, overview != null ? overview.getCompanyName() : null, texts, metrics);
+    }
+
+    /**
+     * The latest price, or the overview price when there is no quote.
+     */
+    static Double price(CompanyOverview overview, Double latestPrice) {
+        return latestPrice != null ? latestPrice : overview != null ? SafeParser.tryParseDouble(overview.getPrice()) : null;
+    }
+
+    private static double multiple(double price, double[] metrics, Ratio perShare) {
+        double denominator = metrics[ScreenerUniverse.metricIndex(perShare)];
+        return denominator > 0 ? price / denominator : Double.NaN;
+    }
+
+    private static double valueOf(String value) {
+        Double parsed = SafeParser.tryParseDouble(value);
+        return parsed != null ? parsed : Double.NaN;
+    }
+}
@@ -0,0 +1,232 @@
+package com.testehan.finana.service.screener;
+
+import com.testehan.finana.model.CompanyOverview;
+import com.testehan.finana.model.finstatement.BalanceSheetData;
+import com.testehan.finana.model.finstatement.BalanceSheetReport;
+import com.testehan.finana.model.finstatement.CashFlowData;
+import com.testehan.finana.model.finstatement.CashFlowReport;
+import com.testehan.finana.model.finstatement.IncomeReport;
+import com.testehan.finana.model.finstatement.IncomeStatementData;
+import com.testehan.finana.model.quote.StockQuoteBar;
+import com.testehan.finana.model.quote.StockQuotes;
+import com.testehan.finana.model.ratio.FinancialRatiosData;
+import com.testehan.finana.model.ratio.FinancialRatiosReport;
+import com.testehan.finana.util.ColumnarRatiosCalculator;
+import com.testehan.finana.util.data.FinancialDataColumns;
+import com.testehan.finana.util.ratio.RatioColumns;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Screens all symbols in memory. The universe is loaded from {@code company_overviews}, the latest annual statements,
+ * {@code financial_ratios} and the latest stock quote bars on the first refresh; later refreshes only reload the
+ * symbols whose overview, statements, ratios or quotes were updated since the previous one.
+ * <p>
+ * The ratios of each batch are computed from the latest annual statements at the latest price by the
+ * {@link ColumnarRatiosCalculator}, so price based ratios such as the dividend yield are as current as the valuation
+ * multiples. The stored ratios are used for symbols whose latest annual statements are incomplete.
+ */
+@Service
+public class ScreenerService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScreenerService.class);
+
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final String LAST_UPDATED = "lastUpdated";
+    // a symbol without a bar this recent is screened at its overview price
+    private static final Duration LATEST_PRICE_WINDOW = Duration.ofDays(31);
+
+    private final MongoTemplate mongoTemplate;
+    private final ColumnarRatiosCalculator columnarRatiosCalculator;
+
+    private volatile ScreenerUniverse universe = ScreenerUniverse.empty();
+    private LocalDateTime lastRefresh;
+
+    public ScreenerService(MongoTemplate mongoTemplate, ColumnarRatiosCalculator columnarRatiosCalculator) {
+        this.mongoTemplate = mongoTemplate;
+        this.columnarRatiosCalculator = columnarRatiosCalculator;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the filter, sort or rank is not valid
+     */
+    public Page<ScreenerResult> screen(String filter, String sort, String rank, int page, int size) {
+        return ScreenerQuery.parse(filter, sort, rank).run(universe, PageRequest.of(page, size));
+    }
+
+    @Scheduled(fixedDelayString = "${app.screener.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        // taken before reading, so updates made while the rows load are picked up by the next refresh
+        LocalDateTime startedAt = LocalDateTime.now();
+        Set<String> symbols = updatedSymbols(lastRefresh);
+        reload(symbols);
+        if (lastRefresh == null) {
+            LOGGER.info("Screener loaded {} symbols", universe.size());
+        } else if (!symbols.isEmpty()) {
+            LOGGER.debug("Screener refreshed {} symbols", symbols.size());
+        }
+        lastRefresh = startedAt;
+    }
+
+    /**
+     * Removes the row of a symbol whose data was deleted. The refreshes only reload symbols that still have data, so
+     * the row would otherwise stay in the results.
+     */
+    public synchronized void remove(String symbol) {
+        universe = universe.withoutRows(Set.of(symbol));
+    }
+
+    private void reload(Set<String> symbols) {
+        List<String> pending = new ArrayList<>(symbols);
+        for (int start = 0; start < pending.size(); start += LOAD_BATCH_SIZE) {
+            List<String> batch = pending.subList(start, Math.min(start + LOAD_BATCH_SIZE, pending.size()));
+            universe = universe.withRows(loadRows(batch));
+        }
+    }
+
+    private Set<String> updatedSymbols(LocalDateTime since) {
+        Set<String> symbols = new TreeSet<>();
+        mongoTemplate.find(updatedSince(since, "symbol"), CompanyOverview.class)
+                .forEach(overview -> symbols.add(overview.getSymbol()));
+        mongoTemplate.find(updatedSince(since, "symbol"), FinancialRatiosData.class)
+                .forEach(ratios -> symbols.add(ratios.getSymbol()));
+        mongoTemplate.find(updatedSince(since, "symbol"), IncomeStatementData.class)
+                .forEach(income -> symbols.add(income.getSymbol()));
+        mongoTemplate.find(updatedSince(since, "symbol"), BalanceSheetData.class)
+                .forEach(balance -> symbols.add(balance.getSymbol()));
+        mongoTemplate.find(updatedSince(since, "symbol"), CashFlowData.class)
+                .forEach(cashFlow -> symbols.add(cashFlow.getSymbol()));
+        mongoTemplate.find(updatedSince(since, "_id"), StockQuotes.class)
+                .forEach(quotes -> symbols.add(quotes.getSymbol()));
+        symbols.remove(null);
+        return symbols;
+    }
+
+    private static Query updatedSince(LocalDateTime since, String symbolField) {
+        Query query = since == null ? new Query() : new Query(Criteria.where(LAST_UPDATED).gt(since));
+        query.fields().include(symbolField);
+        return query;
+    }
+
+    private List<ScreenerRow> loadRows(List<String> symbols) {
+        Query overviewQuery = new Query(Criteria.where("symbol").in(symbols));
+        overviewQuery.fields().include("symbol", "companyName", "sector", "industry", "exchange", "country",
+                "price", "marketCap", "beta");
+        Map<String, CompanyOverview> overviews = bySymbol(mongoTemplate.find(overviewQuery, CompanyOverview.class),
+                CompanyOverview::getSymbol);
+
+        // the annual reports are stored newest first
+        Query ratiosQuery = new Query(Criteria.where("symbol").in(symbols));
+        ratiosQuery.fields().include("symbol").slice("annualReports", 1);
+        Map<String, FinancialRatiosData> ratios = bySymbol(mongoTemplate.find(ratiosQuery, FinancialRatiosData.class),
+                FinancialRatiosData::getSymbol);
+
+        Map<String, Double> latestPrices = latestPrices(symbols);
+
+        // one row per symbol whose latest annual statements are all there and of the same period
+        Map<String, IncomeReport> incomes = latestAnnual(symbols, IncomeStatementData.class,
+                IncomeStatementData::getSymbol, IncomeStatementData::getAnnualReports);
+        Map<String, BalanceSheetReport> balances = latestAnnual(symbols, BalanceSheetData.class,
+                BalanceSheetData::getSymbol, BalanceSheetData::getAnnualReports);
+        Map<String, CashFlowReport> cashFlows = latestAnnual(symbols, CashFlowData.class,
+                CashFlowData::getSymbol, CashFlowData::getAnnualReports);
+        FinancialDataColumns statements = new FinancialDataColumns(symbols.size());
+        Map<String, Integer> statementRows = new HashMap<>();
+        for (String symbol : symbols) {
+            CompanyOverview overview = overviews.get(symbol);
+            IncomeReport income = incomes.get(symbol);
+            BalanceSheetReport balance = balances.get(symbol);
+            CashFlowReport cashFlow = cashFlows.get(symbol);
+            if (overview != null && income != null && balance != null && cashFlow != null
+                    && Objects.equals(income.getDate(), balance.getDate())
+                    && Objects.equals(income.getDate(), cashFlow.getDate())) {
+                Double price = ScreenerRow.price(overview, latestPrices.get(symbol));
+                statementRows.put(symbol, statements.add(overview, income, balance, cashFlow,
+                        price != null ? BigDecimal.valueOf(price) : null));
+            }
+        }
+        RatioColumns computedRatios = columnarRatiosCalculator.calculate(statements);
+
+        List<ScreenerRow> rows = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            Integer statementRow = statementRows.get(symbol);
+            if (statementRow != null) {
+                rows.add(ScreenerRow.of(symbol, overviews.get(symbol), ratio -> computedRatios.get(ratio, statementRow),
+                        latestPrices.get(symbol)));
+                continue;
+            }
+            FinancialRatiosData ratiosData = ratios.get(symbol);
+            FinancialRatiosReport latestAnnual = ratiosData != null && ratiosData.getAnnualReports() != null
+                    && !ratiosData.getAnnualReports().isEmpty() ? ratiosData.getAnnualReports().getFirst() : null;
+            rows.add(ScreenerRow.of(symbol, overviews.get(symbol), latestAnnual, latestPrices.get(symbol)));
+        }
+        return rows;
+    }
+
+    // the annual reports are stored newest first
+    private <D, R> Map<String, R> latestAnnual(List<String> symbols, Class<D> type, Function<D, String> symbol,
+                                               Function<D, List<R>> annualReports) {
+        Query query = new Query(Criteria.where("symbol").in(symbols));
+        query.fields().include("symbol").slice("annualReports", 1);
+        Map<String, R> latest = new HashMap<>();
+        for (D document : mongoTemplate.find(query, type)) {
+            List<R> reports = annualReports.apply(document);
+            if (reports != null && !reports.isEmpty()) {
+                latest.putIfAbsent(symbol.apply(document), reports.getFirst());
+            }
+        }
+        return latest;
+    }
+
+    // the price of the latest bar of each symbol, or its adjusted close when the bar has no price; only recent bars
+    // are read, and both sort keys descending walk the {symbol: 1, date: 1} index backwards instead of sorting in memory
+    private Map<String, Double> latestPrices(List<String> symbols) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("symbol").in(symbols)
+                        .and("date").gte(Instant.now().minus(LATEST_PRICE_WINDOW))),
+                Aggregation.sort(Sort.by(Sort.Order.desc("symbol"), Sort.Order.desc("date"))),
+                Aggregation.group("symbol")
+                        .first("price").as("price")
+                        .first("adjClose").as("adjClose"));
+        Map<String, Double> prices = new HashMap<>();
+        for (Document latest : mongoTemplate.aggregate(aggregation, StockQuoteBar.class, Document.class)) {
+            Number price = latest.get("price", Number.class);
+            if (price == null) {
+                price = latest.get("adjClose", Number.class);
+            }
+            if (price != null) {
+                prices.put(latest.getString("_id"), price.doubleValue());
+            }
+        }
+        return prices;
+    }
+
+    private static <T> Map<String, T> bySymbol(List<T> documents, Function<T, String> symbol) {
+        Map<String, T> bySymbol = new HashMap<>();
+        documents.forEach(document -> bySymbol.putIfAbsent(symbol.apply(document), document));
+        return bySymbol;
+    }
+}
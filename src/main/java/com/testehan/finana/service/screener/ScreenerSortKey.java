@@ -0,0 +1,46 @@
+package com.testehan.finana.service.screener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A metric to order screened rows by, written as {@code roic desc}; ascending unless desc is given. Rows missing the
+ * metric come last in both directions.
+ */
+public record ScreenerSortKey(int metric, boolean descending) {
+
+    /**
+     * Parses a comma separated list such as {@code roic desc, net_debt_to_ebitda}; empty if the text is blank.
+     *
+     * @throws IllegalArgumentException if a metric or direction is not known
+     */
+    public static List<ScreenerSortKey> parseList(String text) {
+        List<ScreenerSortKey> keys = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return keys;
+        }
+        for (String part : text.split(",")) {
+            String[] words = part.trim().split("\\s+");
+            int metric = ScreenerUniverse.metricIndex(words[0]);
+            if (metric < 0) {
+                throw new IllegalArgumentException("Unknown metric '" + words[0] + "'");
+            }
+            String direction = words.length > 1 ? words[1].toLowerCase(Locale.ROOT) : "asc";
+            if (words.length > 2 || !(direction.equals("asc") || direction.equals("desc"))) {
+                throw new IllegalArgumentException("Expected '<metric> [asc|desc]', found '" + part.trim() + "'");
+            }
+            keys.add(new ScreenerSortKey(metric, direction.equals("desc")));
+        }
+        return keys;
+    }
+
+    int compare(ScreenerUniverse universe, int leftRow, int rightRow) {
+        double left = universe.metric(metric, leftRow);
+        double right = universe.metric(metric, rightRow);
+        if (Double.isNaN(left) || Double.isNaN(right)) {
+            return Boolean.compare(Double.isNaN(left), Double.isNaN(right));
+        }
+        return descending ? Double.compare(right, left) : Double.compare(left, right);
+    }
+}
@@ -0,0 +1,184 @@
+package com.testehan.finana.service.screener;
+
+import com.testehan.finana.util.ratio.Ratio;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * An immutable snapshot of all screened symbols, one primitive array per metric and one row per symbol. Updates
+ * create a new snapshot, so a screen always sees the values of a single refresh.
+ */
+public final class ScreenerUniverse {
+
+    /** The metric names used in filters: the {@link Ratio}s followed by the {@link MarketMetric}s, in lower case. */
+    public static final List<String> METRICS = Stream.concat(
+                    Arrays.stream(Ratio.values()).map(Enum::name),
+                    Arrays.stream(MarketMetric.values()).map(Enum::name))
+            .map(name -> name.toLowerCase(Locale.ROOT))
+            .toList();
+    public static final List<String> TEXT_FIELDS = List.of("sector", "industry", "exchange", "country");
+
+    private static final ScreenerUniverse EMPTY = new ScreenerUniverse(0, Map.of(), new String[0], new String[0],
+            emptyTexts(), new double[METRICS.size()][0]);
+
+    private final int size;
+    private final Map<String, Integer> rowBySymbol;
+    private final String[] symbols;
+    private final String[] companyNames;
+    private final String[][] texts;
+    private final double[][] metrics;
+
+    private ScreenerUniverse(int size, Map<String, Integer> rowBySymbol, String[] symbols, String[] companyNames,
+                             String[][] texts, double[][] metrics) {
+        this.size = size;
+        this.rowBySymbol = rowBySymbol;
+        this.symbols = symbols;
+        this.companyNames = companyNames;
+        this.texts = texts;
+        this.metrics = metrics;
+    }
+
+    public static ScreenerUniverse empty() {
+        return EMPTY;
+    }
+
+    static int metricIndex(Ratio ratio) {
+        return ratio.ordinal();
+    }
+
+    static int metricIndex(MarketMetric metric) {
+        return Ratio.values().length + metric.ordinal();
+    }
+
+    /**
+     * The index of the metric in {@link #METRICS}, or -1 if there is no such metric.
+     */
+    static int metricIndex(String name) {
+        return METRICS.indexOf(name.toLowerCase(Locale.ROOT));
+    }
+
+    static int textFieldIndex(String name) {
+        return TEXT_FIELDS.indexOf(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * A snapshot with the rows of these symbols replaced, or appended for symbols that were not screened yet.
+     */
+    public ScreenerUniverse withRows(Collection<ScreenerRow> rows) {
+        Map<String, Integer> updatedRowBySymbol = new HashMap<>(rowBySymbol);
+        int updatedSize = size;
+        for (ScreenerRow row : rows) {
+            if (!updatedRowBySymbol.containsKey(row.symbol())) {
+                updatedRowBySymbol.put(row.symbol(), updatedSize++);
+            }
+        }
+
+        String[] updatedSymbols = Arrays.copyOf(symbols, updatedSize);
+        String[] updatedCompanyNames = Arrays.copyOf(companyNames, updatedSize);
+        String[][] updatedTexts = new String[texts.length][];
+        for (int field = 0; field < texts.length; field++) {
+            updatedTexts[field] = Arrays.copyOf(texts[field], updatedSize);
+        }
+        double[][] updatedMetrics = new double[metrics.length][];
+        for (int metric = 0; metric < metrics.length; metric++) {
+            updatedMetrics[metric] = Arrays.copyOf(metrics[metric], updatedSize);
+        }
+
+        for (ScreenerRow row : rows) {
+            int index = updatedRowBySymbol.get(row.symbol());
+            updatedSymbols[index] = row.symbol();
+            updatedCompanyNames[index] = row.companyName();
+            for (int field = 0; field < updatedTexts.length; field++) {
+                updatedTexts[field][index] = row.texts()[field];
+            }
+            for (int metric = 0; metric < updatedMetrics.length; metric++) {
+                updatedMetrics[metric][index] = row.metrics()[metric];
+            }
+        }
+        return new ScreenerUniverse(updatedSize, updatedRowBySymbol, updatedSymbols, updatedCompanyNames,
+                updatedTexts, updatedMetrics);
+    }
+
+    /**
+     * A snapshot without the rows of these symbols; the remaining rows keep their order.
+     */
+    public ScreenerUniverse withoutRows(Collection<String> removedSymbols) {
+        boolean[] removed = new boolean[size];
+        int updatedSize = size;
+        for (String symbol : removedSymbols) {
+            Integer index = rowBySymbol.get(symbol);
+            if (index != null && !removed[index]) {
+                removed[index] = true;
+                updatedSize--;
+            }
+        }
+        if (updatedSize == size) {
+            return this;
+        }
+
+        Map<String, Integer> updatedRowBySymbol = new HashMap<>();
+        String[] updatedSymbols = new String[updatedSize];
+        String[] updatedCompanyNames = new String[updatedSize];
+        String[][] updatedTexts = new String[texts.length][updatedSize];
+        double[][] updatedMetrics = new double[metrics.length][updatedSize];
+        int next = 0;
+        for (int row = 0; row < size; row++) {
+            if (removed[row]) {
+                continue;
+            }
+            updatedRowBySymbol.put(symbols[row], next);
+            updatedSymbols[next] = symbols[row];
+            updatedCompanyNames[next] = companyNames[row];
+            for (int field = 0; field < texts.length; field++) {
+                updatedTexts[field][next] = texts[field][row];
+            }
+            for (int metric = 0; metric < metrics.length; metric++) {
+                updatedMetrics[metric][next] = metrics[metric][row];
+            }
+            next++;
+        }
+        return new ScreenerUniverse(updatedSize, updatedRowBySymbol, updatedSymbols, updatedCompanyNames,
+                updatedTexts, updatedMetrics);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String symbol(int row) {
+        return symbols[row];
+    }
+
+    public String companyName(int row) {
+        return companyNames[row];
+    }
+
+    public String text(int field, int row) {
+        return texts[field][row];
+    }
+
+    public double metric(int metric, int row) {
+        return metrics[metric][row];
+    }
+
+    // the backing array, only read by the filters
+    double[] metricColumn(int metric) {
+        return metrics[metric];
+    }
+
+    String[] textColumn(int field) {
+        return texts[field];
+    }
+
+    private static String[][] emptyTexts() {
+        String[][] texts = new String[TEXT_FIELDS.size()][];
+        Arrays.fill(texts, new String[0]);
+        return texts;
+    }
+}
@@ -4,7 +4,7 @@ import com.testehan.finana.repository.BalanceSheetRepository;
 import com.testehan.finana.repository.CashFlowRepository;
 import com.testehan.finana.repository.CompanyOverviewRepository;
 import com.testehan.finana.repository.IncomeStatementRepository;
-import com.testehan.finana.repository.StockQuotesRepository;
+import com.testehan.finana.repository.StockQuoteBarRepository;
 import com.testehan.finana.repository.ValuationsRepository;
 import com.testehan.finana.service.FMPService;
 import com.testehan.finana.util.SafeParser;
@@ -12,7 +12,7 @@ import com.testehan.finana.util.SafeParser;
 public abstract class BaseValuationService {
 
     protected final CompanyOverviewRepository companyOverviewRepository;
-    protected final StockQuotesRepository stockQuotesRepository;
+    protected final StockQuoteBarRepository stockQuoteBarRepository;
     protected final IncomeStatementRepository incomeStatementRepository;
     protected final BalanceSheetRepository balanceSheetRepository;
     protected final CashFlowRepository cashFlowRepository;
@@ -21,7 +21,7 @@ public abstract class BaseValuationService {
     protected final SafeParser safeParser;
 
     protected BaseValuationService(CompanyOverviewRepository companyOverviewRepository,
-                                   StockQuotesRepository stockQuotesRepository,
+                                   StockQuoteBarRepository stockQuoteBarRepository,
                                    IncomeStatementRepository incomeStatementRepository,
                                    BalanceSheetRepository balanceSheetRepository,
                                    CashFlowRepository cashFlowRepository,
@@ -29,7 +29,7 @@ public abstract class BaseValuationService {
                                    FMPService fmpService,
                                    SafeParser safeParser) {
         this.companyOverviewRepository = companyOverviewRepository;
-        this.stockQuotesRepository = stockQuotesRepository;
+        this.stockQuoteBarRepository = stockQuoteBarRepository;
         this.incomeStatementRepository = incomeStatementRepository;
         this.balanceSheetRepository = balanceSheetRepository;
         this.cashFlowRepository = cashFlowRepository;
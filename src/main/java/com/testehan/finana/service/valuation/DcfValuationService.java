@@ -3,6 +3,7 @@ package com.testehan.finana.service.valuation;
 import com.testehan.finana.model.*;
 import com.testehan.finana.model.finstatement.*;
 import com.testehan.finana.model.quote.GlobalQuote;
+import com.testehan.finana.model.quote.StockQuoteBar;
 import com.testehan.finana.model.valuation.Valuations;
 import com.testehan.finana.model.valuation.dcf.DcfCalculationData;
 import com.testehan.finana.model.valuation.dcf.DcfOutput;
@@ -12,6 +13,9 @@ import com.testehan.finana.repository.*;
 import com.testehan.finana.service.FMPService;
 import com.testehan.finana.service.valuation.dcf.DCFValuationCalculator;
 import com.testehan.finana.util.SafeParser;
+import com.testehan.finana.util.ttm.TtmAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -27,10 +31,12 @@ import java.util.stream.Collectors;
 @Service
 public class DcfValuationService extends BaseValuationService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(DcfValuationService.class);
+
     private final DCFValuationCalculator dcfValuationCalculator;
 
     public DcfValuationService(CompanyOverviewRepository companyOverviewRepository,
-                               StockQuotesRepository stockQuotesRepository,
+                               StockQuoteBarRepository stockQuoteBarRepository,
                                IncomeStatementRepository incomeStatementRepository,
                                BalanceSheetRepository balanceSheetRepository,
                                CashFlowRepository cashFlowRepository,
@@ -38,7 +44,7 @@ public class DcfValuationService extends BaseValuationService {
                                FMPService fmpService,
                                SafeParser safeParser,
                                DCFValuationCalculator dcfValuationCalculator) {
-        super(companyOverviewRepository, stockQuotesRepository, incomeStatementRepository,
+        super(companyOverviewRepository, stockQuoteBarRepository, incomeStatementRepository,
                 balanceSheetRepository, cashFlowRepository, valuationsRepository, fmpService, safeParser);
         this.dcfValuationCalculator = dcfValuationCalculator;
     }
@@ -113,8 +119,8 @@ public class DcfValuationService extends BaseValuationService {
 
     private DcfCalculationData.CompanyMeta getCompanyMeta(String ticker) {
         Optional<CompanyOverview> companyOverviewOptional = companyOverviewRepository.findBySymbol(ticker);
-        Optional<GlobalQuote> globalQuoteOptional = stockQuotesRepository.findBySymbol(ticker)
-                .flatMap(quotes -> quotes.getQuotes().stream().findFirst());
+        Optional<GlobalQuote> globalQuoteOptional = stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc(ticker.toUpperCase())
+                .map(StockQuoteBar::toGlobalQuote);
 
         List<IncomeReport> quarterlyReports = incomeStatementRepository.findBySymbol(ticker)
                 .map(IncomeStatementData::getQuarterlyReports)
@@ -152,47 +158,29 @@ public class DcfValuationService extends BaseValuationService {
                 .map(IncomeStatementData::getQuarterlyReports)
                 .orElse(List.of());
 
-        // Sort by date descending and take the last 4 for TTM
-        List<IncomeReport> ttmReports = quarterlyReports.stream()
-                .sorted(Comparator.comparing(IncomeReport::getDate).reversed())
-                .limit(4)
-                .collect(Collectors.toList());
-
-        if (ttmReports.size() < 4) {
-            // Handle insufficient data, return default or throw exception
-            return DcfCalculationData.IncomeData.builder()
-                    .revenue(BigDecimal.ZERO)
-                    .ebit(BigDecimal.ZERO)
-                    .interestExpense(BigDecimal.ZERO)
-                    .incomeTaxExpense(BigDecimal.ZERO)
-                    .build();
-        }
-
-        BigDecimal revenue = ttmReports.stream()
-                .map(IncomeReport::getRevenue)
-                .map(safeParser::parse)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal ebit = ttmReports.stream()
-                .map(IncomeReport::getEbit)
-                .map(safeParser::parse)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal interestExpense = ttmReports.stream()
-                .map(IncomeReport::getInterestExpense)
-                .map(safeParser::parse)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal incomeTaxExpense = ttmReports.stream()
-                .map(IncomeReport::getIncomeTaxExpense)
-                .map(safeParser::parse)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Without four quarters there is no TTM, the values default to zero
+        Optional<TtmReport> ttm = ttm(ticker, quarterlyReports, List.of());
 
         return DcfCalculationData.IncomeData.builder()
-                .revenue(revenue)
-                .ebit(ebit)
-                .interestExpense(interestExpense)
-                .incomeTaxExpense(incomeTaxExpense)
+                .revenue(ttm.map(TtmReport::getRevenue).orElse(BigDecimal.ZERO))
+                .ebit(ttm.map(TtmReport::getEbit).orElse(BigDecimal.ZERO))
+                .interestExpense(ttm.map(TtmReport::getInterestExpense).orElse(BigDecimal.ZERO))
+                .incomeTaxExpense(ttm.map(TtmReport::getIncomeTaxExpense).orElse(BigDecimal.ZERO))
                 .build();
     }
 
+    // a missing quarter would leave the DCF without income or cash flow, so the latest four quarters are summed instead
+    private static Optional<TtmReport> ttm(String ticker, List<IncomeReport> incomeReports, List<CashFlowReport> cashFlowReports) {
+        Optional<TtmReport> ttm = TtmAggregator.latest(incomeReports, cashFlowReports);
+        if (ttm.isPresent()) {
+            return ttm;
+        }
+        ttm = TtmAggregator.latestFourQuarters(incomeReports, cashFlowReports);
+        ttm.ifPresent(report -> LOGGER.warn("The latest four quarters of {} up to {} are not consecutive, summing them as TTM",
+                ticker, report.getDate()));
+        return ttm;
+    }
+
     private DcfCalculationData.BalanceSheetData getMrqBalanceSheetData(String ticker) {
         List<BalanceSheetReport> quarterlyReports = balanceSheetRepository.findBySymbol(ticker)
                 .map(BalanceSheetData::getQuarterlyReports)
@@ -233,42 +221,13 @@ public class DcfValuationService extends BaseValuationService {
                 .map(CashFlowData::getQuarterlyReports)
                 .orElse(List.of());
 
-        List<CashFlowReport> ttmReports = quarterlyReports.stream()
-                .sorted(Comparator.comparing(CashFlowReport::getDate).reversed())
-                .limit(4)
-                .collect(Collectors.toList());
-
-        if (ttmReports.size() < 4) {
-            return DcfCalculationData.CashFlowData.builder()
-                    .operatingCashFlow(BigDecimal.ZERO)
-                    .depreciationAndAmortization(BigDecimal.ZERO)
-                    .capitalExpenditure(BigDecimal.ZERO)
-                    .stockBasedCompensation(BigDecimal.ZERO)
-                    .build();
-        }
-
-        BigDecimal operatingCashFlow = ttmReports.stream()
-                .map(CashFlowReport::getOperatingCashFlow)
-                .map(safeParser::parse)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal depreciationAndAmortization = ttmReports.stream()
-                .map(CashFlowReport::getDepreciationAndAmortization)
-                .map(safeParser::parse)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal capitalExpenditure = ttmReports.stream()
-                .map(CashFlowReport::getCapitalExpenditure)
-                .map(safeParser::parse)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal stockBasedCompensation = ttmReports.stream()
-                .map(CashFlowReport::getStockBasedCompensation)
-                .map(safeParser::parse)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Optional<TtmReport> ttm = ttm(ticker, List.of(), quarterlyReports);
 
         return DcfCalculationData.CashFlowData.builder()
-                .operatingCashFlow(operatingCashFlow)
-                .depreciationAndAmortization(depreciationAndAmortization)
-                .capitalExpenditure(capitalExpenditure)
-                .stockBasedCompensation(stockBasedCompensation)
+                .operatingCashFlow(ttm.map(TtmReport::getOperatingCashFlow).orElse(BigDecimal.ZERO))
+                .depreciationAndAmortization(ttm.map(TtmReport::getDepreciationAndAmortization).orElse(BigDecimal.ZERO))
+                .capitalExpenditure(ttm.map(TtmReport::getCapitalExpenditure).orElse(BigDecimal.ZERO))
+                .stockBasedCompensation(ttm.map(TtmReport::getStockBasedCompensation).orElse(BigDecimal.ZERO))
                 .build();
     }
 
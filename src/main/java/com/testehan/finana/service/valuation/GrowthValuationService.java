@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.finstatement.*;
 import com.testehan.finana.model.quote.GlobalQuote;
+import com.testehan.finana.model.quote.StockQuoteBar;
 import com.testehan.finana.model.valuation.Valuations;
 import com.testehan.finana.model.valuation.growth.*;
 import com.testehan.finana.repository.*;
@@ -38,7 +39,7 @@ public class GrowthValuationService extends BaseValuationService {
     private Resource growthRecommendationPrompt;
 
     public GrowthValuationService(CompanyOverviewRepository companyOverviewRepository,
-                                  StockQuotesRepository stockQuotesRepository,
+                                  StockQuoteBarRepository stockQuoteBarRepository,
                                   IncomeStatementRepository incomeStatementRepository,
                                   BalanceSheetRepository balanceSheetRepository,
                                   CashFlowRepository cashFlowRepository,
@@ -48,7 +49,7 @@ public class GrowthValuationService extends BaseValuationService {
                                   GrowthValuationCalculator growthValuationCalculator,
                                   LlmService llmService,
                                   ObjectMapper objectMapper) {
-        super(companyOverviewRepository, stockQuotesRepository, incomeStatementRepository,
+        super(companyOverviewRepository, stockQuoteBarRepository, incomeStatementRepository,
                 balanceSheetRepository, cashFlowRepository, valuationsRepository, fmpService, safeParser);
         this.growthValuationCalculator = growthValuationCalculator;
         this.llmService = llmService;
@@ -116,8 +117,8 @@ public class GrowthValuationService extends BaseValuationService {
         });
 
         // Fetch Market Data
-        Optional<GlobalQuote> globalQuoteOptional = stockQuotesRepository.findBySymbol(ticker)
-                .flatMap(quotes -> quotes.getQuotes().stream().findFirst());
+        Optional<GlobalQuote> globalQuoteOptional = stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc(ticker.toUpperCase())
+                .map(StockQuoteBar::toGlobalQuote);
         globalQuoteOptional.ifPresent(quote -> {
             growthValuationData.setCurrentSharePrice(safeParser.parse(quote.getAdjClose()));
         });
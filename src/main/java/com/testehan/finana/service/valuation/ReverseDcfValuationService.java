@@ -21,7 +21,7 @@ public class ReverseDcfValuationService extends BaseValuationService {
     private final ReverseDCFValuationCalculator reverseDCFValuationCalculator;
 
     public ReverseDcfValuationService(CompanyOverviewRepository companyOverviewRepository,
-                                      StockQuotesRepository stockQuotesRepository,
+                                      StockQuoteBarRepository stockQuoteBarRepository,
                                       IncomeStatementRepository incomeStatementRepository,
                                       BalanceSheetRepository balanceSheetRepository,
                                       CashFlowRepository cashFlowRepository,
@@ -29,7 +29,7 @@ public class ReverseDcfValuationService extends BaseValuationService {
                                       FMPService fmpService,
                                       SafeParser safeParser,
                                       ReverseDCFValuationCalculator reverseDCFValuationCalculator) {
-        super(companyOverviewRepository, stockQuotesRepository, incomeStatementRepository,
+        super(companyOverviewRepository, stockQuoteBarRepository, incomeStatementRepository,
                 balanceSheetRepository, cashFlowRepository, valuationsRepository, fmpService, safeParser);
         this.reverseDCFValuationCalculator = reverseDCFValuationCalculator;
     }
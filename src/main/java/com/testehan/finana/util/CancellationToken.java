@@ -0,0 +1,100 @@
+package com.testehan.finana.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+/**
+ * Lets work that is no longer wanted, like a report whose client went away, be stopped. Cancelling interrupts the
+ * threads running the work through {@link #call(ScopedValue.CallableOp)} and runs the registered callbacks. Code
+ * further down checks {@link #current()} at its own boundaries, e.g. before the next model call.
+ */
+public final class CancellationToken {
+
+    private static final ScopedValue<CancellationToken> CURRENT = ScopedValue.newInstance();
+    private static final CancellationToken NONE = new CancellationToken();
+
+    // guarded by this
+    private final List<Runnable> callbacks = new ArrayList<>();
+    private final Set<Thread> threads = new HashSet<>();
+    private String reason;
+
+    /**
+     * The token of the work running on this thread, or one that is never cancelled.
+     */
+    public static CancellationToken current() {
+        return CURRENT.orElse(NONE);
+    }
+
+    public void cancel(String reason) {
+        List<Runnable> cancelled;
+        synchronized (this) {
+            if (this == NONE || this.reason != null) {
+                return;
+            }
+            this.reason = reason;
+            threads.forEach(Thread::interrupt);
+            cancelled = List.copyOf(callbacks);
+            callbacks.clear();
+        }
+        cancelled.forEach(Runnable::run);
+    }
+
+    public synchronized boolean isCancelled() {
+        return reason != null;
+    }
+
+    public void throwIfCancelled() {
+        String cancelledBecause;
+        synchronized (this) {
+            cancelledBecause = reason;
+        }
+        if (cancelledBecause != null) {
+            throw new CancellationException(cancelledBecause);
+        }
+    }
+
+    /**
+     * Runs the callback on cancellation, or right away when the token is cancelled already.
+     */
+    public void onCancel(Runnable callback) {
+        synchronized (this) {
+            if (reason == null) {
+                callbacks.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    /**
+     * Runs the task with {@link #current()} returning this token; cancelling interrupts this thread until it returns.
+     */
+    public <T, X extends Throwable> T call(ScopedValue.CallableOp<T, X> task) throws X {
+        synchronized (this) {
+            if (reason != null) {
+                throw new CancellationException(reason);
+            }
+            threads.add(Thread.currentThread());
+        }
+        try {
+            return ScopedValue.where(CURRENT, this).call(task);
+        } finally {
+            synchronized (this) {
+                threads.remove(Thread.currentThread());
+            }
+            // a pooled thread must not carry the interrupt into its next task
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Runs the task with {@link #current()} returning this token, for work that is interrupted by other means.
+     */
+    public <T> T within(Supplier<T> task) {
+        return ScopedValue.where(CURRENT, this).call(task::get);
+    }
+}
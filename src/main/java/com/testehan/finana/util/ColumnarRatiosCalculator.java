@@ -0,0 +1,222 @@
+package com.testehan.finana.util;
+
+import com.testehan.finana.util.data.FinancialDataColumns;
+import com.testehan.finana.util.ratio.RatioColumns;
+import org.springframework.stereotype.Component;
+
+import static com.testehan.finana.util.ratio.Ratio.*;
+
+/**
+ * Computes the ratios of {@link FinancialRatiosCalculator} on primitive doubles, one column at a time, for screening
+ * and bulk recalculation over many periods and companies. It applies the same rules as the {@link
+ * com.testehan.finana.util.ratio.RatioCalculator}s; results agree with theirs within the rounding to four decimal
+ * places that the BigDecimal calculators apply to each division.
+ */
+@Component
+public class ColumnarRatiosCalculator {
+
+    private static final double TAX_RATE_CAP = 0.35;
+    private static final double DEFAULT_TAX_RATE = 0.21;
+    private static final double INFINITE_ROIC_CAP = 9.9999;
+    private static final double DAYS_IN_YEAR = 365;
+
+    public RatioColumns calculate(FinancialDataColumns data) {
+        int n = data.size();
+        RatioColumns ratios = new RatioColumns(data);
+
+        double[] totalDebt = new double[n];
+        double[] netDebt = new double[n];
+        double[] currentLiabilities = new double[n];
+        double[] quickAssets = new double[n];
+        double[] tangibleEquity = new double[n];
+        double[] shares = new double[n];
+        double[] dividendsPaid = new double[n];
+        for (int i = 0; i < n; i++) {
+            totalDebt[i] = data.shortTermDebt[i] + data.longTermDebt[i];
+            netDebt[i] = totalDebt[i] - data.cash[i];
+            currentLiabilities[i] = data.shortTermDebt[i] + data.currentAccountsPayable[i]
+                    + data.otherCurrentLiabilities[i] + data.deferredRevenue[i];
+            quickAssets[i] = data.totalCurrentAssets[i] - data.inventory[i];
+            tangibleEquity[i] = data.totalShareholderEquity[i] - data.goodwill[i] - data.intangibleAssets[i];
+            shares[i] = data.sharesOutstandingBasic[i] > 0 ? data.sharesOutstandingBasic[i]
+                    : data.sharesOutstanding[i] > 0 ? data.sharesOutstanding[i] : Double.NaN;
+            dividendsPaid[i] = data.dividendPayoutCommonStock[i] != 0 ? Math.abs(data.dividendPayoutCommonStock[i])
+                    : Math.abs(data.dividendPayout[i]);
+        }
+
+        profitability(data, ratios, n, totalDebt);
+        divideByPositive(ratios.column(CURRENT_RATIO), data.totalCurrentAssets, currentLiabilities, n);
+        divideByPositive(ratios.column(QUICK_RATIO), quickAssets, currentLiabilities, n);
+        divideByPositive(ratios.column(CASH_RATIO), data.cash, currentLiabilities, n);
+        leverage(data, ratios, n, totalDebt, netDebt);
+        efficiency(data, ratios, n, totalDebt);
+        cashFlow(data, ratios, n, totalDebt, currentLiabilities);
+        perShare(data, ratios, n, shares, tangibleEquity);
+        dividends(data, ratios, n, shares, dividendsPaid);
+        other(data, ratios, n, currentLiabilities);
+        return ratios;
+    }
+
+    private void profitability(FinancialDataColumns data, RatioColumns ratios, int n, double[] totalDebt) {
+        divideByPositive(ratios.column(GROSS_PROFIT_MARGIN), data.grossProfit, data.totalRevenue, n);
+        divideByPositive(ratios.column(NET_PROFIT_MARGIN), data.netIncome, data.totalRevenue, n);
+        divideByPositive(ratios.column(OPERATING_PROFIT_MARGIN), data.operatingIncome, data.totalRevenue, n);
+        divideByPositive(ratios.column(EBITDA_MARGIN), data.ebitda, data.totalRevenue, n);
+        divideByPositive(ratios.column(RETURN_ON_ASSETS), data.netIncome, data.totalAssets, n);
+        divideByPositive(ratios.column(RETURN_ON_EQUITY), data.netIncome, data.totalShareholderEquity, n);
+
+        double[] adjustedEbitdaMargin = ratios.column(ADJUSTED_EBITDA_MARGIN);
+        double[] roic = ratios.column(ROIC);
+        for (int i = 0; i < n; i++) {
+            if (data.totalRevenue[i] > 0) {
+                adjustedEbitdaMargin[i] = (data.ebitda[i] + data.stockBasedCompensation[i]) / data.totalRevenue[i];
+            }
+
+            double taxRate = DEFAULT_TAX_RATE;
+            if (data.incomeBeforeTax[i] > 0) {
+                double effective = data.incomeTaxExpense[i] / data.incomeBeforeTax[i];
+                taxRate = effective < 0 || effective > TAX_RATE_CAP ? DEFAULT_TAX_RATE : effective;
+            }
+            double nopat = data.operatingIncome[i] * (1 - taxRate);
+            double investedCapital = data.totalShareholderEquity[i] + totalDebt[i] + data.capitalLeaseObligations[i]
+                    + data.minorityInterest[i] - data.cash[i] - data.shortTermInvestments[i];
+            roic[i] = investedCapital > 0 ? nopat / investedCapital : nopat > 0 ? INFINITE_ROIC_CAP : 0;
+        }
+    }
+
+    private void leverage(FinancialDataColumns data, RatioColumns ratios, int n, double[] totalDebt, double[] netDebt) {
+        divideByPositive(ratios.column(DEBT_TO_ASSETS), data.totalLiabilities, data.totalAssets, n);
+        divideByPositive(ratios.column(DEBT_TO_EQUITY), totalDebt, data.totalShareholderEquity, n);
+        divideByPositive(ratios.column(NET_DEBT_TO_EBITDA), netDebt, data.ebitda, n);
+
+        double[] interestCoverage = ratios.column(INTEREST_COVERAGE);
+        double[] debtServiceCoverage = ratios.column(DEBT_SERVICE_COVERAGE);
+        for (int i = 0; i < n; i++) {
+            double interest = Math.abs(data.interestExpense[i]);
+            if (interest > 0) {
+                interestCoverage[i] = data.ebit[i] / interest;
+            }
+            double debtService = interest + data.shortTermDebt[i];
+            if (debtService > 0) {
+                debtServiceCoverage[i] = data.ebitda[i] / debtService;
+            }
+        }
+    }
+
+    private void efficiency(FinancialDataColumns data, RatioColumns ratios, int n, double[] totalDebt) {
+        divideByPositive(ratios.column(ASSET_TURNOVER), data.totalRevenue, data.totalAssets, n);
+        divideByPositive(ratios.column(INVENTORY_TURNOVER), data.costOfRevenue, data.inventory, n);
+        divideByPositive(ratios.column(RECEIVABLES_TURNOVER), data.totalRevenue, data.netReceivables, n);
+        divideByPositive(ratios.column(PAYABLES_TURNOVER), data.costOfRevenue, data.currentAccountsPayable, n);
+
+        double[] dso = ratios.column(DAYS_SALES_OUTSTANDING);
+        double[] dio = ratios.column(DAYS_INVENTORY_OUTSTANDING);
+        double[] dpo = ratios.column(DAYS_PAYABLES_OUTSTANDING);
+        double[] cashConversionCycle = ratios.column(CASH_CONVERSION_CYCLE);
+        double[] salesToCapital = ratios.column(SALES_TO_CAPITAL);
+        for (int i = 0; i < n; i++) {
+            if (data.totalRevenue[i] > 0) {
+                dso[i] = data.netReceivables[i] * DAYS_IN_YEAR / data.totalRevenue[i];
+            }
+            if (data.costOfRevenue[i] > 0) {
+                dio[i] = data.inventory[i] * DAYS_IN_YEAR / data.costOfRevenue[i];
+                dpo[i] = data.currentAccountsPayable[i] * DAYS_IN_YEAR / data.costOfRevenue[i];
+            }
+            // NaN when DSO or DPO is missing, a missing DIO counts as zero
+            cashConversionCycle[i] = (Double.isNaN(dio[i]) ? 0 : dio[i]) + dso[i] - dpo[i];
+
+            double investedCapital = totalDebt[i] + data.totalShareholderEquity[i] - data.cash[i]
+                    - data.shortTermInvestments[i];
+            if (investedCapital > 0) {
+                salesToCapital[i] = data.totalRevenue[i] / investedCapital;
+            }
+        }
+    }
+
+    private void cashFlow(FinancialDataColumns data, RatioColumns ratios, int n, double[] totalDebt,
+                          double[] currentLiabilities) {
+        double[] freeCashFlow = ratios.column(FREE_CASH_FLOW);
+        for (int i = 0; i < n; i++) {
+            freeCashFlow[i] = data.operatingCashflow[i] - Math.abs(data.capitalExpenditures[i]);
+        }
+        divideByPositive(ratios.column(FREE_CASH_FLOW_MARGIN), freeCashFlow, data.totalRevenue, n);
+        divideByPositive(ratios.column(OPERATING_CASH_FLOW_RATIO), data.operatingCashflow, currentLiabilities, n);
+        divideByPositive(ratios.column(CASH_FLOW_TO_DEBT), data.operatingCashflow, totalDebt, n);
+    }
+
+    // shares is NaN when neither share count is positive, which makes the per share values NaN too
+    private void perShare(FinancialDataColumns data, RatioColumns ratios, int n, double[] shares,
+                          double[] tangibleEquity) {
+        System.arraycopy(data.eps, 0, ratios.column(EPS_BASIC), 0, n);
+        System.arraycopy(data.epsDiluted, 0, ratios.column(EPS_DILUTED), 0, n);
+        double[] freeCashFlow = ratios.column(FREE_CASH_FLOW);
+        double[] bookValue = ratios.column(BOOK_VALUE_PER_SHARE);
+        double[] tangibleBookValue = ratios.column(TANGIBLE_BOOK_VALUE_PER_SHARE);
+        double[] sales = ratios.column(SALES_PER_SHARE);
+        double[] freeCashFlowPerShare = ratios.column(FREE_CASH_FLOW_PER_SHARE);
+        double[] operatingCashFlow = ratios.column(OPERATING_CASH_FLOW_PER_SHARE);
+        double[] cash = ratios.column(CASH_PER_SHARE);
+        for (int i = 0; i < n; i++) {
+            bookValue[i] = data.totalShareholderEquity[i] / shares[i];
+            tangibleBookValue[i] = tangibleEquity[i] / shares[i];
+            sales[i] = data.totalRevenue[i] / shares[i];
+            freeCashFlowPerShare[i] = freeCashFlow[i] / shares[i];
+            operatingCashFlow[i] = data.operatingCashflow[i] / shares[i];
+            cash[i] = data.cash[i] / shares[i];
+        }
+    }
+
+    private void dividends(FinancialDataColumns data, RatioColumns ratios, int n, double[] shares,
+                           double[] dividendsPaid) {
+        double[] dividendPerShare = ratios.column(DIVIDEND_PER_SHARE);
+        double[] dividendYield = ratios.column(DIVIDEND_YIELD);
+        double[] payoutRatio = ratios.column(DIVIDEND_PAYOUT_RATIO);
+        double[] buybackYield = ratios.column(BUYBACK_YIELD);
+        for (int i = 0; i < n; i++) {
+            if (dividendsPaid[i] > 0) {
+                dividendPerShare[i] = dividendsPaid[i] / shares[i];
+                if (data.stockPrice[i] > 0 && dividendPerShare[i] > 0) {
+                    dividendYield[i] = dividendPerShare[i] / data.stockPrice[i];
+                }
+                if (data.netIncome[i] > 0) {
+                    payoutRatio[i] = dividendsPaid[i] / data.netIncome[i];
+                }
+            }
+
+            double buyback = Math.abs(data.commonStockRepurchased[i]);
+            if (buyback > 0 && shares[i] > 0) {
+                if (data.stockPrice[i] > 0) {
+                    buybackYield[i] = buyback / shares[i] / data.stockPrice[i];
+                } else if (data.marketCap[i] > 0) {
+                    buybackYield[i] = buyback / data.marketCap[i];
+                }
+            }
+        }
+    }
+
+    private void other(FinancialDataColumns data, RatioColumns ratios, int n, double[] currentLiabilities) {
+        double[] workingCapital = ratios.column(WORKING_CAPITAL);
+        double[] altmanZScore = ratios.column(ALTMAN_Z_SCORE);
+        for (int i = 0; i < n; i++) {
+            workingCapital[i] = data.totalCurrentAssets[i] - currentLiabilities[i];
+            double totalAssets = data.totalAssets[i];
+            if (totalAssets > 0) {
+                double equityValue = data.marketCap[i] > 0 ? data.marketCap[i] : data.totalShareholderEquity[i];
+                double x4 = data.totalLiabilities[i] > 0 ? equityValue / data.totalLiabilities[i] : 0;
+                altmanZScore[i] = 1.2 * workingCapital[i] / totalAssets
+                        + 1.4 * data.retainedEarnings[i] / totalAssets
+                        + 3.3 * data.ebit[i] / totalAssets
+                        + 0.6 * x4
+                        + data.totalRevenue[i] / totalAssets;
+            }
+        }
+    }
+
+    private static void divideByPositive(double[] out, double[] numerator, double[] denominator, int n) {
+        for (int i = 0; i < n; i++) {
+            if (denominator[i] > 0) {
+                out[i] = numerator[i] / denominator[i];
+            }
+        }
+    }
+}
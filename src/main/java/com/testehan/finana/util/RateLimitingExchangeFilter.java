@@ -0,0 +1,89 @@
+package com.testehan.finana.util;
+
+import com.testehan.finana.exception.RateLimitExhaustedException;
+import com.testehan.finana.exception.RateLimitedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Takes a permit from a {@link TokenBucketRateLimiter} before every exchange, in the lane named by the caller's
+ * {@link RequestPriority}. A 429 response pauses the limiter for the server's {@code Retry-After} and the request is
+ * retried with exponential backoff, never sooner than the server asked for. Once the retries are used up the request
+ * fails with a {@link RateLimitExhaustedException}.
+ */
+public class RateLimitingExchangeFilter implements ExchangeFilterFunction {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitingExchangeFilter.class);
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final int maxRetries;
+    private final Duration baseBackoff;
+
+    public RateLimitingExchangeFilter(TokenBucketRateLimiter rateLimiter, int maxRetries, Duration baseBackoff) {
+        this.rateLimiter = rateLimiter;
+        this.maxRetries = maxRetries;
+        this.baseBackoff = baseBackoff;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> rateLimiter.acquire(RequestPriority.from(context)))
+                .then(Mono.defer(() -> next.exchange(request)))
+                .flatMap(response -> {
+                    if (response.statusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value()) {
+                        return Mono.just(response);
+                    }
+                    Duration retryAfter = parseRetryAfter(response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+                    rateLimiter.pause(retryAfter != null ? retryAfter : baseBackoff);
+                    return response.releaseBody()
+                            .then(Mono.error(new RateLimitedException(
+                                    rateLimiter.getName() + " rate limited " + request.url().getPath(), retryAfter)));
+                })
+                .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                    if (!(signal.failure() instanceof RateLimitedException rateLimited)) {
+                        return Mono.error(signal.failure());
+                    }
+                    if (signal.totalRetries() >= maxRetries) {
+                        LOGGER.warn("Giving up on {} after {} rate limited attempts", request.url().getPath(), signal.totalRetries() + 1);
+                        return Mono.error(new RateLimitExhaustedException(rateLimited.getMessage() + " after "
+                                + (signal.totalRetries() + 1) + " attempts", rateLimited.getRetryAfter()));
+                    }
+                    Duration backoff = baseBackoff.multipliedBy(1L << signal.totalRetries());
+                    Duration delay = rateLimited.getRetryAfter() != null && rateLimited.getRetryAfter().compareTo(backoff) > 0
+                            ? rateLimited.getRetryAfter()
+                            : backoff;
+                    LOGGER.warn("{} returned 429 for {}, retrying in {} ms", rateLimiter.getName(), request.url().getPath(), delay.toMillis());
+                    return Mono.delay(delay);
+                })));
+    }
+
+    // Retry-After is either a number of seconds or an HTTP date
+    public static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Duration untilDate = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return untilDate.isNegative() ? Duration.ZERO : untilDate;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.testehan.finana.util;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.Supplier;
+
+/**
+ * Lane a rate limited outbound request waits in. Interactive requests are always served before background ones;
+ * background callers opt in by writing {@link #background()} into the Reactor context of their pipeline, or, in
+ * blocking code, by running the work through {@link #inBackground(Supplier)}.
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final String CONTEXT_KEY = RequestPriority.class.getName();
+    private static final ScopedValue<RequestPriority> CURRENT = ScopedValue.newInstance();
+
+    public static Context background() {
+        return Context.of(CONTEXT_KEY, BACKGROUND);
+    }
+
+    public static RequestPriority from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, current());
+    }
+
+    /**
+     * Runs the task with {@link #current()} returning BACKGROUND on this thread until it returns.
+     */
+    public static <T> T inBackground(Supplier<T> task) {
+        return ScopedValue.where(CURRENT, BACKGROUND).call(task::get);
+    }
+
+    public static RequestPriority current() {
+        return CURRENT.orElse(INTERACTIVE);
+    }
+}
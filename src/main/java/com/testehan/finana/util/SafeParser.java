@@ -17,6 +17,13 @@ public class SafeParser {
         }
     }
 
+    /**
+     * Statement values are parsed once at ingest; like {@link #parse(String)} a missing value counts as zero.
+     */
+    public BigDecimal parse(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
     public static Double tryParseDouble(String s) {
         try {
             return Double.parseDouble(s);
@@ -24,4 +31,22 @@ public class SafeParser {
             return null;
         }
     }
+
+    public static Double tryParseDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : null;
+    }
+
+    /**
+     * The decimal in the text, or null for blanks and placeholders like "None" that are not numbers.
+     */
+    public static BigDecimal tryParseDecimal(String s) {
+        if (s == null || s.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(s.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,34 @@
+package com.testehan.finana.util;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent requests for the same key into a single execution.
+ * Callers that subscribe while a pipeline for a key is running share its result instead of
+ * starting their own; once it terminates the key is released and the next call runs fresh.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> work) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> {
+            // only this execution is released, never a newer one registered for the same key
+            AtomicReference<Mono<V>> self = new AtomicReference<>();
+            Mono<V> shared = Mono.defer(work)
+                    .doFinally(signal -> inFlight.remove(k, self.get()))
+                    .cache();
+            self.set(shared);
+            return shared;
+        }));
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
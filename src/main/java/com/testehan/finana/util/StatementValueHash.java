@@ -0,0 +1,69 @@
+package com.testehan.finana.util;
+
+import com.testehan.finana.model.finstatement.StatementValue;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SHA-256 over the {@link StatementValue} fields of financial statement reports, used to tell whether derived data
+ * has to be recalculated. Only the values go in, so metadata like the filing link or accepted date does not change
+ * the hash, and each value is written without trailing zeros, as a value read back from Decimal128 can carry a
+ * different scale than the one parsed from FMP.
+ */
+public final class StatementValueHash {
+
+    private static final Map<Class<?>, List<Field>> STATEMENT_VALUE_FIELDS = new ConcurrentHashMap<>();
+
+    private final StringBuilder input = new StringBuilder();
+
+    // appends name=value; for every statement value that is set, a missing report adds nothing but the separator
+    public StatementValueHash add(Object report) {
+        if (report != null) {
+            for (Field field : STATEMENT_VALUE_FIELDS.computeIfAbsent(report.getClass(), StatementValueHash::statementValueFields)) {
+                Object value = ReflectionUtils.getField(field, report);
+                if (value instanceof BigDecimal decimal) {
+                    input.append(field.getName()).append('=').append(plain(decimal)).append(';');
+                }
+            }
+        }
+        input.append('|');
+        return this;
+    }
+
+    public StatementValueHash add(String name, String value) {
+        input.append(name).append('=').append(value).append(';');
+        return this;
+    }
+
+    public String sha256() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(input.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String plain(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+
+    private static List<Field> statementValueFields(Class<?> reportType) {
+        List<Field> fields = new ArrayList<>();
+        ReflectionUtils.doWithFields(reportType, field -> {
+            ReflectionUtils.makeAccessible(field);
+            fields.add(field);
+        }, field -> field.isAnnotationPresent(StatementValue.class));
+        return List.copyOf(fields);
+    }
+}
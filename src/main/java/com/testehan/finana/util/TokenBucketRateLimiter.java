@@ -0,0 +1,174 @@
+package com.testehan.finana.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking token bucket with one waiting lane per {@link RequestPriority}.
+ * The bucket starts full, so up to {@code capacity} requests go out as a burst, then permits are handed out at the
+ * refill rate. Waiters are served interactive lane first, FIFO within a lane. {@link #pause(Duration)} stops all
+ * grants until the given time has passed, which is how a server side {@code Retry-After} is honoured.
+ */
+public class TokenBucketRateLimiter {
+
+    private final String name;
+    private final int capacity;
+    private final double tokensPerNano;
+    private final Scheduler scheduler;
+
+    private final Map<RequestPriority, Queue<Waiter>> lanes = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Timer> waitTimers = new EnumMap<>(RequestPriority.class);
+    private final Counter pauses;
+
+    // guarded by this
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private boolean drainScheduled;
+
+    public TokenBucketRateLimiter(String name, int capacity, double permitsPerSecond, MeterRegistry meterRegistry) {
+        this(name, capacity, permitsPerSecond, meterRegistry, Schedulers.parallel());
+    }
+
+    TokenBucketRateLimiter(String name, int capacity, double permitsPerSecond, MeterRegistry meterRegistry, Scheduler scheduler) {
+        if (capacity < 1 || permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limiter " + name + " needs a capacity >= 1 and a positive rate");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.scheduler = scheduler;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+
+        for (RequestPriority priority : RequestPriority.values()) {
+            Queue<Waiter> lane = new ArrayDeque<>();
+            lanes.put(priority, lane);
+            String tag = priority.name().toLowerCase();
+            Gauge.builder("ratelimiter.queue.depth", this, limiter -> limiter.queueDepth(priority))
+                    .tag("limiter", name)
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            waitTimers.put(priority, Timer.builder("ratelimiter.wait")
+                    .tag("limiter", name)
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+        }
+        this.pauses = Counter.builder("ratelimiter.pauses")
+                .tag("limiter", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Completes once a permit is granted. Cancelling the returned Mono gives up the place in the queue.
+     */
+    public Mono<Void> acquire(RequestPriority priority) {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink, priority, System.nanoTime());
+            synchronized (this) {
+                lanes.get(priority).add(waiter);
+            }
+            sink.onCancel(() -> {
+                synchronized (this) {
+                    lanes.get(priority).remove(waiter);
+                }
+            });
+            drain();
+        });
+    }
+
+    public void pause(Duration duration) {
+        synchronized (this) {
+            long until = System.nanoTime() + duration.toNanos();
+            if (until - pausedUntilNanos > 0) {
+                pausedUntilNanos = until;
+            }
+            tokens = 0;
+        }
+        pauses.increment();
+        drain();
+    }
+
+    public synchronized int queueDepth(RequestPriority priority) {
+        return lanes.get(priority).size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            if (now - pausedUntilNanos >= 0) {
+                for (RequestPriority priority : RequestPriority.values()) {
+                    Queue<Waiter> lane = lanes.get(priority);
+                    while (tokens >= 1 && !lane.isEmpty()) {
+                        granted.add(lane.poll());
+                        tokens -= 1;
+                    }
+                }
+            }
+            if (!drainScheduled && hasWaiters()) {
+                long delay = now - pausedUntilNanos < 0
+                        ? pausedUntilNanos - now
+                        : (long) Math.ceil((1 - tokens) / tokensPerNano);
+                drainScheduled = true;
+                scheduler.schedule(this::scheduledDrain, Math.max(delay, 1), TimeUnit.NANOSECONDS);
+            }
+        }
+        // complete outside the lock, subscribers continue their pipelines on this thread
+        long now = System.nanoTime();
+        for (Waiter waiter : granted) {
+            waitTimers.get(waiter.priority).record(now - waiter.enqueuedNanos, TimeUnit.NANOSECONDS);
+            waiter.sink.success();
+        }
+    }
+
+    private void scheduledDrain() {
+        synchronized (this) {
+            drainScheduled = false;
+        }
+        drain();
+    }
+
+    // no tokens accrue while paused, otherwise a full burst would go out the moment a Retry-After expires
+    private void refill(long now) {
+        long from = lastRefillNanos - pausedUntilNanos < 0 ? pausedUntilNanos : lastRefillNanos;
+        long elapsed = now - from;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+        }
+        lastRefillNanos = now;
+    }
+
+    private boolean hasWaiters() {
+        for (Queue<Waiter> lane : lanes.values()) {
+            if (!lane.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Waiter(MonoSink<Void> sink, RequestPriority priority, long enqueuedNanos) {
+    }
+}
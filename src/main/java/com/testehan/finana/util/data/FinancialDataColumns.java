@@ -0,0 +1,187 @@
+package com.testehan.finana.util.data;
+
+import com.testehan.finana.model.CompanyOverview;
+import com.testehan.finana.model.finstatement.BalanceSheetReport;
+import com.testehan.finana.model.finstatement.CashFlowReport;
+import com.testehan.finana.model.finstatement.IncomeReport;
+import com.testehan.finana.util.SafeParser;
+
+import java.math.BigDecimal;
+
+/**
+ * The inputs of the ratio calculations for many report periods, one primitive array per value and one row per
+ * period, possibly of different companies. Values are read like {@link ParsedFinancialData} reads them: a missing
+ * statement value is zero, a missing stock price is NaN.
+ */
+public class FinancialDataColumns {
+
+    private static final SafeParser SAFE_PARSER = new SafeParser();
+
+    private final String[] dates;
+    private int size;
+
+    public final double[] marketCap;
+    public final double[] stockPrice;
+
+    // Income Statement
+    public final double[] totalRevenue;
+    public final double[] grossProfit;
+    public final double[] costOfRevenue;
+    public final double[] operatingIncome;
+    public final double[] netIncome;
+    public final double[] ebit;
+    public final double[] ebitda;
+    public final double[] incomeTaxExpense;
+    public final double[] incomeBeforeTax;
+    public final double[] interestExpense;
+    public final double[] eps;
+    public final double[] epsDiluted;
+
+    // Balance Sheet
+    public final double[] totalAssets;
+    public final double[] totalCurrentAssets;
+    public final double[] cash;
+    public final double[] shortTermInvestments;
+    public final double[] netReceivables;
+    public final double[] inventory;
+    public final double[] minorityInterest;
+    public final double[] goodwill;
+    public final double[] intangibleAssets;
+    public final double[] totalLiabilities;
+    public final double[] currentAccountsPayable;
+    public final double[] deferredRevenue;
+    public final double[] shortTermDebt;
+    public final double[] otherCurrentLiabilities;
+    public final double[] longTermDebt;
+    public final double[] capitalLeaseObligations;
+    public final double[] totalShareholderEquity;
+    public final double[] retainedEarnings;
+
+    // Cash Flow Statement
+    public final double[] operatingCashflow;
+    public final double[] capitalExpenditures;
+    public final double[] dividendPayout;
+    public final double[] dividendPayoutCommonStock;
+    public final double[] stockBasedCompensation;
+    public final double[] commonStockRepurchased;
+
+    // Shares
+    public final double[] sharesOutstanding;
+    public final double[] sharesOutstandingBasic;
+
+    public FinancialDataColumns(int capacity) {
+        dates = new String[capacity];
+        marketCap = new double[capacity];
+        stockPrice = new double[capacity];
+        totalRevenue = new double[capacity];
+        grossProfit = new double[capacity];
+        costOfRevenue = new double[capacity];
+        operatingIncome = new double[capacity];
+        netIncome = new double[capacity];
+        ebit = new double[capacity];
+        ebitda = new double[capacity];
+        incomeTaxExpense = new double[capacity];
+        incomeBeforeTax = new double[capacity];
+        interestExpense = new double[capacity];
+        eps = new double[capacity];
+        epsDiluted = new double[capacity];
+        totalAssets = new double[capacity];
+        totalCurrentAssets = new double[capacity];
+        cash = new double[capacity];
+        shortTermInvestments = new double[capacity];
+        netReceivables = new double[capacity];
+        inventory = new double[capacity];
+        minorityInterest = new double[capacity];
+        goodwill = new double[capacity];
+        intangibleAssets = new double[capacity];
+        totalLiabilities = new double[capacity];
+        currentAccountsPayable = new double[capacity];
+        deferredRevenue = new double[capacity];
+        shortTermDebt = new double[capacity];
+        otherCurrentLiabilities = new double[capacity];
+        longTermDebt = new double[capacity];
+        capitalLeaseObligations = new double[capacity];
+        totalShareholderEquity = new double[capacity];
+        retainedEarnings = new double[capacity];
+        operatingCashflow = new double[capacity];
+        capitalExpenditures = new double[capacity];
+        dividendPayout = new double[capacity];
+        dividendPayoutCommonStock = new double[capacity];
+        stockBasedCompensation = new double[capacity];
+        commonStockRepurchased = new double[capacity];
+        sharesOutstanding = new double[capacity];
+        sharesOutstandingBasic = new double[capacity];
+    }
+
+    /**
+     * Appends the period of the statements and returns its row.
+     */
+    public int add(CompanyOverview companyOverview,
+                   IncomeReport income,
+                   BalanceSheetReport balance,
+                   CashFlowReport cashFlow,
+                   BigDecimal price) {
+        if (size == dates.length) {
+            throw new IllegalStateException("All " + dates.length + " rows are in use");
+        }
+        int row = size++;
+        dates[row] = income.getDate();
+        marketCap[row] = SAFE_PARSER.parse(companyOverview.getMarketCap()).doubleValue();
+        stockPrice[row] = price != null ? price.doubleValue() : Double.NaN;
+
+        totalRevenue[row] = value(income.getRevenue());
+        grossProfit[row] = value(income.getGrossProfit());
+        costOfRevenue[row] = value(income.getCostOfRevenue());
+        operatingIncome[row] = value(income.getOperatingIncome());
+        netIncome[row] = value(income.getNetIncome());
+        ebit[row] = value(income.getEbit());
+        ebitda[row] = value(income.getEbitda());
+        incomeTaxExpense[row] = value(income.getIncomeTaxExpense());
+        incomeBeforeTax[row] = value(income.getIncomeBeforeTax());
+        interestExpense[row] = value(income.getInterestExpense());
+        eps[row] = value(income.getEps());
+        epsDiluted[row] = value(income.getEpsDiluted());
+
+        totalAssets[row] = value(balance.getTotalAssets());
+        totalCurrentAssets[row] = value(balance.getTotalCurrentAssets());
+        cash[row] = value(balance.getCashAndCashEquivalents());
+        shortTermInvestments[row] = value(balance.getShortTermInvestments());
+        netReceivables[row] = value(balance.getNetReceivables());
+        inventory[row] = value(balance.getInventory());
+        minorityInterest[row] = value(balance.getMinorityInterest());
+        goodwill[row] = value(balance.getGoodwill());
+        intangibleAssets[row] = value(balance.getIntangibleAssets());
+        totalLiabilities[row] = value(balance.getTotalLiabilities());
+        currentAccountsPayable[row] = value(balance.getAccountPayables());
+        deferredRevenue[row] = value(balance.getDeferredRevenue());
+        shortTermDebt[row] = value(balance.getShortTermDebt());
+        otherCurrentLiabilities[row] = value(balance.getOtherCurrentLiabilities());
+        longTermDebt[row] = value(balance.getLongTermDebt());
+        capitalLeaseObligations[row] = value(balance.getCapitalLeaseObligations());
+        totalShareholderEquity[row] = value(balance.getTotalStockholdersEquity());
+        retainedEarnings[row] = value(balance.getRetainedEarnings());
+
+        operatingCashflow[row] = value(cashFlow.getOperatingCashFlow());
+        capitalExpenditures[row] = value(cashFlow.getCapitalExpenditure());
+        dividendPayout[row] = value(cashFlow.getNetDividendsPaid());
+        dividendPayoutCommonStock[row] = value(cashFlow.getCommonDividendsPaid());
+        stockBasedCompensation[row] = value(cashFlow.getStockBasedCompensation());
+        commonStockRepurchased[row] = value(cashFlow.getCommonStockRepurchased());
+
+        sharesOutstanding[row] = value(income.getWeightedAverageShsOutDil());
+        sharesOutstandingBasic[row] = value(income.getWeightedAverageShsOut());
+        return row;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String date(int row) {
+        return dates[row];
+    }
+
+    private static double value(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0d;
+    }
+}
@@ -0,0 +1,88 @@
+package com.testehan.finana.util.ratio;
+
+import com.testehan.finana.model.ratio.FinancialRatiosReport;
+
+import java.math.BigDecimal;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The ratios the {@link RatioCalculator}s compute, with the property of {@link FinancialRatiosReport} each one is
+ * stored in.
+ */
+public enum Ratio {
+    // Profitability
+    GROSS_PROFIT_MARGIN(FinancialRatiosReport::getGrossProfitMargin, FinancialRatiosReport::setGrossProfitMargin),
+    NET_PROFIT_MARGIN(FinancialRatiosReport::getNetProfitMargin, FinancialRatiosReport::setNetProfitMargin),
+    OPERATING_PROFIT_MARGIN(FinancialRatiosReport::getOperatingProfitMargin, FinancialRatiosReport::setOperatingProfitMargin),
+    EBITDA_MARGIN(FinancialRatiosReport::getEbitdaMargin, FinancialRatiosReport::setEbitdaMargin),
+    ADJUSTED_EBITDA_MARGIN(FinancialRatiosReport::getAdjustedEbitdaMargin, FinancialRatiosReport::setAdjustedEbitdaMargin),
+    RETURN_ON_ASSETS(FinancialRatiosReport::getReturnOnAssets, FinancialRatiosReport::setReturnOnAssets),
+    RETURN_ON_EQUITY(FinancialRatiosReport::getReturnOnEquity, FinancialRatiosReport::setReturnOnEquity),
+    ROIC(FinancialRatiosReport::getRoic, FinancialRatiosReport::setRoic),
+
+    // Liquidity
+    CURRENT_RATIO(FinancialRatiosReport::getCurrentRatio, FinancialRatiosReport::setCurrentRatio),
+    QUICK_RATIO(FinancialRatiosReport::getQuickRatio, FinancialRatiosReport::setQuickRatio),
+    CASH_RATIO(FinancialRatiosReport::getCashRatio, FinancialRatiosReport::setCashRatio),
+
+    // Leverage
+    DEBT_TO_ASSETS(FinancialRatiosReport::getDebtToAssetsRatio, FinancialRatiosReport::setDebtToAssetsRatio),
+    DEBT_TO_EQUITY(FinancialRatiosReport::getDebtToEquityRatio, FinancialRatiosReport::setDebtToEquityRatio),
+    INTEREST_COVERAGE(FinancialRatiosReport::getInterestCoverageRatio, FinancialRatiosReport::setInterestCoverageRatio),
+    NET_DEBT_TO_EBITDA(FinancialRatiosReport::getNetDebtToEbitda, FinancialRatiosReport::setNetDebtToEbitda),
+    DEBT_SERVICE_COVERAGE(FinancialRatiosReport::getDebtServiceCoverageRatio, FinancialRatiosReport::setDebtServiceCoverageRatio),
+
+    // Efficiency
+    ASSET_TURNOVER(FinancialRatiosReport::getAssetTurnover, FinancialRatiosReport::setAssetTurnover),
+    INVENTORY_TURNOVER(FinancialRatiosReport::getInventoryTurnover, FinancialRatiosReport::setInventoryTurnover),
+    RECEIVABLES_TURNOVER(FinancialRatiosReport::getReceivablesTurnover, FinancialRatiosReport::setReceivablesTurnover),
+    PAYABLES_TURNOVER(FinancialRatiosReport::getPayablesTurnover, FinancialRatiosReport::setPayablesTurnover),
+    DAYS_SALES_OUTSTANDING(FinancialRatiosReport::getDaysSalesOutstanding, FinancialRatiosReport::setDaysSalesOutstanding),
+    DAYS_INVENTORY_OUTSTANDING(FinancialRatiosReport::getDaysInventoryOutstanding, FinancialRatiosReport::setDaysInventoryOutstanding),
+    DAYS_PAYABLES_OUTSTANDING(FinancialRatiosReport::getDaysPayablesOutstanding, FinancialRatiosReport::setDaysPayablesOutstanding),
+    CASH_CONVERSION_CYCLE(FinancialRatiosReport::getCashConversionCycle, FinancialRatiosReport::setCashConversionCycle),
+    SALES_TO_CAPITAL(FinancialRatiosReport::getSalesToCapitalRatio, FinancialRatiosReport::setSalesToCapitalRatio),
+
+    // Cash flow
+    FREE_CASH_FLOW(FinancialRatiosReport::getFreeCashFlow, FinancialRatiosReport::setFreeCashFlow),
+    FREE_CASH_FLOW_MARGIN(FinancialRatiosReport::getFreeCashflowMargin, FinancialRatiosReport::setFreeCashflowMargin),
+    OPERATING_CASH_FLOW_RATIO(FinancialRatiosReport::getOperatingCashFlowRatio, FinancialRatiosReport::setOperatingCashFlowRatio),
+    CASH_FLOW_TO_DEBT(FinancialRatiosReport::getCashFlowToDebtRatio, FinancialRatiosReport::setCashFlowToDebtRatio),
+
+    // Per share
+    EPS_BASIC(FinancialRatiosReport::getEarningsPerShareBasic, FinancialRatiosReport::setEarningsPerShareBasic),
+    EPS_DILUTED(FinancialRatiosReport::getEarningsPerShareDiluted, FinancialRatiosReport::setEarningsPerShareDiluted),
+    BOOK_VALUE_PER_SHARE(FinancialRatiosReport::getBookValuePerShare, FinancialRatiosReport::setBookValuePerShare),
+    TANGIBLE_BOOK_VALUE_PER_SHARE(FinancialRatiosReport::getTangibleBookValuePerShare, FinancialRatiosReport::setTangibleBookValuePerShare),
+    SALES_PER_SHARE(FinancialRatiosReport::getSalesPerShare, FinancialRatiosReport::setSalesPerShare),
+    FREE_CASH_FLOW_PER_SHARE(FinancialRatiosReport::getFreeCashFlowPerShare, FinancialRatiosReport::setFreeCashFlowPerShare),
+    OPERATING_CASH_FLOW_PER_SHARE(FinancialRatiosReport::getOperatingCashFlowPerShare, FinancialRatiosReport::setOperatingCashFlowPerShare),
+    CASH_PER_SHARE(FinancialRatiosReport::getCashPerShare, FinancialRatiosReport::setCashPerShare),
+
+    // Dividends
+    DIVIDEND_PER_SHARE(FinancialRatiosReport::getDividendPerShare, FinancialRatiosReport::setDividendPerShare),
+    DIVIDEND_YIELD(FinancialRatiosReport::getDividendYield, FinancialRatiosReport::setDividendYield),
+    DIVIDEND_PAYOUT_RATIO(FinancialRatiosReport::getDividendPayoutRatio, FinancialRatiosReport::setDividendPayoutRatio),
+    BUYBACK_YIELD(FinancialRatiosReport::getBuybackYield, FinancialRatiosReport::setBuybackYield),
+
+    // Other
+    WORKING_CAPITAL(FinancialRatiosReport::getWorkingCapital, FinancialRatiosReport::setWorkingCapital),
+    ALTMAN_Z_SCORE(FinancialRatiosReport::getAltmanZScore, FinancialRatiosReport::setAltmanZScore);
+
+    private final Function<FinancialRatiosReport, BigDecimal> getter;
+    private final BiConsumer<FinancialRatiosReport, BigDecimal> setter;
+
+    Ratio(Function<FinancialRatiosReport, BigDecimal> getter, BiConsumer<FinancialRatiosReport, BigDecimal> setter) {
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    public BigDecimal get(FinancialRatiosReport report) {
+        return getter.apply(report);
+    }
+
+    public void set(FinancialRatiosReport report, BigDecimal value) {
+        setter.accept(report, value);
+    }
+}
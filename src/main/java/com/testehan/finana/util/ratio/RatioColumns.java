@@ -0,0 +1,55 @@
+package com.testehan.finana.util.ratio;
+
+import com.testehan.finana.model.ratio.FinancialRatiosReport;
+import com.testehan.finana.util.data.FinancialDataColumns;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Ratios of many report periods, one primitive array per {@link Ratio} and one row per period of the
+ * {@link FinancialDataColumns} they were computed from. A ratio that cannot be computed is NaN.
+ */
+public class RatioColumns {
+
+    private final FinancialDataColumns data;
+    private final Map<Ratio, double[]> columns = new EnumMap<>(Ratio.class);
+
+    public RatioColumns(FinancialDataColumns data) {
+        this.data = data;
+        for (Ratio ratio : Ratio.values()) {
+            double[] column = new double[data.size()];
+            Arrays.fill(column, Double.NaN);
+            columns.put(ratio, column);
+        }
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public double[] column(Ratio ratio) {
+        return columns.get(ratio);
+    }
+
+    public double get(Ratio ratio, int row) {
+        return columns.get(ratio)[row];
+    }
+
+    /**
+     * The ratios of the row as the report {@link com.testehan.finana.util.FinancialRatiosCalculator} creates, rounded
+     * to its four decimal places.
+     */
+    public FinancialRatiosReport toReport(int row) {
+        FinancialRatiosReport report = new FinancialRatiosReport();
+        report.setDate(data.date(row));
+        columns.forEach((ratio, column) -> {
+            double value = column[row];
+            ratio.set(report, Double.isFinite(value) ? BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP) : null);
+        });
+        return report;
+    }
+}
@@ -0,0 +1,153 @@
+package com.testehan.finana.util.ttm;
+
+import com.testehan.finana.model.finstatement.CashFlowReport;
+import com.testehan.finana.model.finstatement.IncomeReport;
+import com.testehan.finana.model.finstatement.TtmReport;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Trailing twelve month sums over consecutive quarters, kept as running sums of the last four quarters: adding a
+ * quarter adds its values and subtracts those of the quarter leaving the window, so a quarter costs the same however
+ * long the series is. The sums are exact, as the values are decimals. A missing quarter starts a new window.
+ */
+public class TtmAggregator {
+
+    private static final int QUARTERS = 4;
+    private static final TtmField[] FIELDS = TtmField.values();
+
+    // ring buffer of the values of the last four quarters, one row per quarter
+    private final BigDecimal[][] window = new BigDecimal[QUARTERS][FIELDS.length];
+    private final BigDecimal[] sums = new BigDecimal[FIELDS.length];
+    private int count;
+    private int next;
+    private TtmQuarter last;
+
+    public TtmAggregator() {
+        reset();
+    }
+
+    /**
+     * Adds the quarter that follows the ones added so far and returns the twelve months ending with it, or empty while
+     * fewer than four consecutive quarters were added.
+     */
+    public Optional<TtmReport> add(TtmQuarter quarter) {
+        if (last != null && !quarter.follows(last)) {
+            reset();
+        }
+        BigDecimal[] leaving = window[next];
+        for (int field = 0; field < FIELDS.length; field++) {
+            BigDecimal value = FIELDS[field].valueOf(quarter);
+            sums[field] = sums[field].add(value);
+            if (count == QUARTERS) {
+                sums[field] = sums[field].subtract(leaving[field]);
+            }
+            leaving[field] = value;
+        }
+        next = (next + 1) % QUARTERS;
+        count = Math.min(count + 1, QUARTERS);
+        last = quarter;
+        return count == QUARTERS ? Optional.of(report(quarter)) : Optional.empty();
+    }
+
+    private void reset() {
+        for (int field = 0; field < FIELDS.length; field++) {
+            sums[field] = BigDecimal.ZERO;
+        }
+        count = 0;
+        next = 0;
+        last = null;
+    }
+
+    private TtmReport report(TtmQuarter quarter) {
+        TtmReport report = new TtmReport();
+        report.setDate(quarter.date());
+        report.setFiscalYear(quarter.fiscalYear());
+        report.setPeriod(quarter.period());
+        for (int field = 0; field < FIELDS.length; field++) {
+            FIELDS[field].set(report, sums[field]);
+        }
+        return report;
+    }
+
+    /**
+     * The quarters of the statements, oldest first, with the income statement and cash flow of the same fiscal quarter
+     * together. Statements without a date are left out.
+     */
+    public static List<TtmQuarter> quarters(List<IncomeReport> incomeReports, List<CashFlowReport> cashFlowReports) {
+        Map<String, IncomeReport> incomeByKey = new LinkedHashMap<>();
+        if (incomeReports != null) {
+            incomeReports.stream()
+                    .filter(report -> report.getDate() != null)
+                    .forEach(report -> incomeByKey.putIfAbsent(TtmQuarter.key(report.getDate(), report.getFiscalYear(), report.getPeriod()), report));
+        }
+        Map<String, CashFlowReport> cashFlowByKey = new LinkedHashMap<>();
+        if (cashFlowReports != null) {
+            cashFlowReports.stream()
+                    .filter(report -> report.getDate() != null)
+                    .forEach(report -> cashFlowByKey.putIfAbsent(TtmQuarter.key(report.getDate(), report.getFiscalYear(), report.getPeriod()), report));
+        }
+
+        List<TtmQuarter> quarters = new ArrayList<>();
+        incomeByKey.forEach((key, income) -> quarters.add(TtmQuarter.of(income, cashFlowByKey.get(key))));
+        cashFlowByKey.forEach((key, cashFlow) -> {
+            if (!incomeByKey.containsKey(key)) {
+                quarters.add(TtmQuarter.of(null, cashFlow));
+            }
+        });
+        quarters.sort(Comparator.comparing(TtmQuarter::date));
+        return quarters;
+    }
+
+    /**
+     * The twelve months ending with each quarter that has three consecutive quarters before it, newest first, in one
+     * pass over the quarters.
+     */
+    public static List<TtmReport> series(List<TtmQuarter> quarters) {
+        TtmAggregator aggregator = new TtmAggregator();
+        List<TtmReport> reports = new ArrayList<>();
+        for (TtmQuarter quarter : quarters) {
+            aggregator.add(quarter).ifPresent(reports::add);
+        }
+        Collections.reverse(reports);
+        return reports;
+    }
+
+    /**
+     * The twelve months ending with the latest quarter, or empty if the latest four quarters are not consecutive.
+     */
+    public static Optional<TtmReport> latest(List<IncomeReport> incomeReports, List<CashFlowReport> cashFlowReports) {
+        List<TtmQuarter> quarters = quarters(incomeReports, cashFlowReports);
+        TtmAggregator aggregator = new TtmAggregator();
+        Optional<TtmReport> latest = Optional.empty();
+        for (TtmQuarter quarter : quarters.subList(Math.max(0, quarters.size() - QUARTERS), quarters.size())) {
+            latest = aggregator.add(quarter);
+        }
+        return latest;
+    }
+
+    /**
+     * The sum of the latest four quarters even when quarters between them are missing, or empty with fewer than four
+     * quarters. For callers that rather have an approximate year than none when a filing is missing.
+     */
+    public static Optional<TtmReport> latestFourQuarters(List<IncomeReport> incomeReports, List<CashFlowReport> cashFlowReports) {
+        List<TtmQuarter> quarters = quarters(incomeReports, cashFlowReports);
+        if (quarters.size() < QUARTERS) {
+            return Optional.empty();
+        }
+        TtmAggregator aggregator = new TtmAggregator();
+        for (TtmQuarter quarter : quarters.subList(quarters.size() - QUARTERS, quarters.size())) {
+            for (int field = 0; field < FIELDS.length; field++) {
+                aggregator.sums[field] = aggregator.sums[field].add(FIELDS[field].valueOf(quarter));
+            }
+        }
+        return Optional.of(aggregator.report(quarters.getLast()));
+    }
+}
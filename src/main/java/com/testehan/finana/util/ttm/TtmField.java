@@ -0,0 +1,66 @@
+package com.testehan.finana.util.ttm;
+
+import com.testehan.finana.model.finstatement.CashFlowReport;
+import com.testehan.finana.model.finstatement.IncomeReport;
+import com.testehan.finana.model.finstatement.TtmReport;
+
+import java.math.BigDecimal;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The quarterly values {@link TtmAggregator} sums, with the statement each one is read from and the property of
+ * {@link TtmReport} its sum is stored in.
+ */
+public enum TtmField {
+    // Income Statement
+    REVENUE(income(IncomeReport::getRevenue), TtmReport::setRevenue),
+    COST_OF_REVENUE(income(IncomeReport::getCostOfRevenue), TtmReport::setCostOfRevenue),
+    GROSS_PROFIT(income(IncomeReport::getGrossProfit), TtmReport::setGrossProfit),
+    OPERATING_INCOME(income(IncomeReport::getOperatingIncome), TtmReport::setOperatingIncome),
+    EBIT(income(IncomeReport::getEbit), TtmReport::setEbit),
+    EBITDA(income(IncomeReport::getEbitda), TtmReport::setEbitda),
+    NET_INCOME(income(IncomeReport::getNetIncome), TtmReport::setNetIncome),
+    INTEREST_EXPENSE(income(IncomeReport::getInterestExpense), TtmReport::setInterestExpense),
+    INCOME_TAX_EXPENSE(income(IncomeReport::getIncomeTaxExpense), TtmReport::setIncomeTaxExpense),
+    EPS(income(IncomeReport::getEps), TtmReport::setEps),
+    EPS_DILUTED(income(IncomeReport::getEpsDiluted), TtmReport::setEpsDiluted),
+
+    // Cash Flow Statement
+    OPERATING_CASH_FLOW(cashFlow(CashFlowReport::getOperatingCashFlow), TtmReport::setOperatingCashFlow),
+    DEPRECIATION_AND_AMORTIZATION(cashFlow(CashFlowReport::getDepreciationAndAmortization), TtmReport::setDepreciationAndAmortization),
+    CAPITAL_EXPENDITURE(cashFlow(CashFlowReport::getCapitalExpenditure), TtmReport::setCapitalExpenditure),
+    FREE_CASH_FLOW(cashFlow(CashFlowReport::getFreeCashFlow), TtmReport::setFreeCashFlow),
+    STOCK_BASED_COMPENSATION(cashFlow(CashFlowReport::getStockBasedCompensation), TtmReport::setStockBasedCompensation),
+    NET_DIVIDENDS_PAID(cashFlow(CashFlowReport::getNetDividendsPaid), TtmReport::setNetDividendsPaid),
+    COMMON_STOCK_REPURCHASED(cashFlow(CashFlowReport::getCommonStockRepurchased), TtmReport::setCommonStockRepurchased);
+
+    private final Function<TtmQuarter, BigDecimal> getter;
+    private final BiConsumer<TtmReport, BigDecimal> setter;
+
+    TtmField(Function<TtmQuarter, BigDecimal> getter, BiConsumer<TtmReport, BigDecimal> setter) {
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * The value of the quarter; like {@link com.testehan.finana.util.SafeParser} reads it, a missing value or
+     * statement is zero.
+     */
+    public BigDecimal valueOf(TtmQuarter quarter) {
+        BigDecimal value = getter.apply(quarter);
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    public void set(TtmReport report, BigDecimal value) {
+        setter.accept(report, value);
+    }
+
+    private static Function<TtmQuarter, BigDecimal> income(Function<IncomeReport, BigDecimal> getter) {
+        return quarter -> quarter.income() != null ? getter.apply(quarter.income()) : null;
+    }
+
+    private static Function<TtmQuarter, BigDecimal> cashFlow(Function<CashFlowReport, BigDecimal> getter) {
+        return quarter -> quarter.cashFlow() != null ? getter.apply(quarter.cashFlow()) : null;
+    }
+}
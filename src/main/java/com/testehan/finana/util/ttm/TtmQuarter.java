@@ -0,0 +1,59 @@
+package com.testehan.finana.util.ttm;
+
+import com.testehan.finana.model.finstatement.CashFlowReport;
+import com.testehan.finana.model.finstatement.IncomeReport;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The income statement and cash flow of one fiscal quarter; either may be missing.
+ */
+public record TtmQuarter(String date, String fiscalYear, String period, IncomeReport income, CashFlowReport cashFlow) {
+
+    // fiscal quarters end 13 weeks apart; statements without a fiscal period are matched on their dates
+    private static final long MIN_DAYS_BETWEEN_QUARTERS = 75;
+    private static final long MAX_DAYS_BETWEEN_QUARTERS = 105;
+
+    public static TtmQuarter of(IncomeReport income, CashFlowReport cashFlow) {
+        return income != null
+                ? new TtmQuarter(income.getDate(), income.getFiscalYear(), income.getPeriod(), income, cashFlow)
+                : new TtmQuarter(cashFlow.getDate(), cashFlow.getFiscalYear(), cashFlow.getPeriod(), null, cashFlow);
+    }
+
+    /**
+     * The key that matches the income statement and cash flow of the quarter.
+     */
+    public static String key(String date, String fiscalYear, String period) {
+        return fiscalIndex(fiscalYear, period) >= 0 ? fiscalYear + "-" + period : date;
+    }
+
+    /**
+     * Whether this quarter comes right after the previous one, without a missing quarter in between.
+     */
+    public boolean follows(TtmQuarter previous) {
+        int index = fiscalIndex(fiscalYear, period);
+        int previousIndex = fiscalIndex(previous.fiscalYear, previous.period);
+        if (index >= 0 && previousIndex >= 0) {
+            return index == previousIndex + 1;
+        }
+        try {
+            long days = ChronoUnit.DAYS.between(LocalDate.parse(previous.date), LocalDate.parse(date));
+            return days >= MIN_DAYS_BETWEEN_QUARTERS && days <= MAX_DAYS_BETWEEN_QUARTERS;
+        } catch (DateTimeParseException | NullPointerException e) {
+            return false;
+        }
+    }
+
+    private static int fiscalIndex(String fiscalYear, String period) {
+        if (fiscalYear == null || period == null || !period.matches("Q[1-4]")) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(fiscalYear) * 4 + period.charAt(1) - '1';
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.testehan.finana.config;
+
+import com.testehan.finana.model.filing.Transcript;
+import com.testehan.finana.service.filing.FilingSectionExtractor;
+import com.testehan.finana.service.filing.FilingSections;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Compression ratio and write/read throughput on the sections extracted from the sample filings, per deflate level, and
+ * the stored size of a transcript compressed per turn or whole. Run with -Dbenchmark=true.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CompressedTextConverterBenchmarkTest {
+
+    private static final int ITERATIONS = 200;
+
+    @Test
+    void writeAndRead_FilingSections() throws IOException {
+        List<String> texts = filingSections();
+        long utf8Bytes = texts.stream().mapToLong(text -> text.getBytes(StandardCharsets.UTF_8).length).sum();
+
+        for (int level : new int[]{1, 6, 9}) {
+            CompressedTextConverter converter = new CompressedTextConverter(1024, level);
+            List<Object> stored = new ArrayList<>();
+            long compressedBytes = 0;
+            long writeStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                stored.clear();
+                compressedBytes = 0;
+                for (String text : texts) {
+                    Object value = converter.write(text, null);
+                    stored.add(value);
+                    compressedBytes += value instanceof Binary binary ? binary.getData().length
+                            : ((String) value).getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+            double writeSeconds = (System.nanoTime() - writeStart) / 1e9;
+
+            long readStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                for (int t = 0; t < texts.size(); t++) {
+                    assertEquals(texts.get(t).length(), converter.read(stored.get(t), null).length());
+                }
+            }
+            double readSeconds = (System.nanoTime() - readStart) / 1e9;
+
+            double megabytes = utf8Bytes * ITERATIONS / 1e6;
+            System.out.printf("level %d: %d -> %d bytes (%.1fx), write %.0f MB/s, read %.0f MB/s%n", level, utf8Bytes,
+                    compressedBytes, (double) utf8Bytes / compressedBytes, megabytes / writeSeconds, megabytes / readSeconds);
+        }
+    }
+
+    /**
+     * Stored size of a transcript with every turn compressed on its own, as before, against the whole transcript
+     * compressed at once. The turns are the sentences of the filing sections, a few hundred characters each, which is
+     * what a call's speaker turns mostly are.
+     */
+    @Test
+    void write_TranscriptPerTurnAgainstWhole() throws IOException {
+        List<Transcript> transcript = new ArrayList<>();
+        for (String text : filingSections()) {
+            StringBuilder content = new StringBuilder();
+            for (String sentence : text.split("(?<=\\.) ")) {
+                content.append(sentence).append(' ');
+                if (content.length() > 300) {
+                    transcript.add(turn(transcript.size(), content.toString().trim()));
+                    content.setLength(0);
+                }
+            }
+        }
+        CompressedTextConverter perTurn = new CompressedTextConverter(1024, 6);
+        long plainBytes = 0;
+        long perTurnBytes = 0;
+        for (Transcript turn : transcript) {
+            plainBytes += turn.getContent().getBytes(StandardCharsets.UTF_8).length;
+            Object value = perTurn.write(turn.getContent(), null);
+            perTurnBytes += value instanceof Binary binary ? binary.getData().length
+                    : ((String) value).getBytes(StandardCharsets.UTF_8).length;
+        }
+        Binary whole = (Binary) new CompressedTranscriptConverter(perTurn).write(transcript, null);
+
+        System.out.printf("%d turns, content %d bytes: per turn %d bytes (%.1fx), whole transcript %d bytes (%.1fx)%n",
+                transcript.size(), plainBytes, perTurnBytes, (double) plainBytes / perTurnBytes,
+                whole.getData().length, (double) plainBytes / whole.getData().length);
+    }
+
+    private List<String> filingSections() throws IOException {
+        List<String> texts = new ArrayList<>();
+        for (String[] sample : new String[][]{{"sample-10k", "10-K"}, {"sample-10q", "10-Q"}, {"sample-20f", "20-F"}}) {
+            try (InputStream stream = getClass().getResourceAsStream("/filings/" + sample[0] + ".htm")) {
+                assertNotNull(stream);
+                FilingSections sections = FilingSectionExtractor.extract(
+                        new InputStreamReader(stream, StandardCharsets.UTF_8), sample[1]);
+                Stream.of(sections.businessDescription(), sections.riskFactors(), sections.managementDiscussion())
+                        .filter(text -> text != null)
+                        .forEach(texts::add);
+            }
+        }
+        return texts;
+    }
+
+    private static Transcript turn(int index, String content) {
+        Transcript turn = new Transcript();
+        turn.setSpeaker(index % 2 == 0 ? "Jane Doe" : "John Smith");
+        turn.setTitle(index % 2 == 0 ? "Chief Executive Officer" : "Analyst");
+        turn.setContent(content);
+        return turn;
+    }
+}
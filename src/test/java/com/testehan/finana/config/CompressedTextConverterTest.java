@@ -0,0 +1,107 @@
+package com.testehan.finana.config;
+
+import com.testehan.finana.service.filing.FilingSectionExtractor;
+import com.testehan.finana.service.filing.FilingSections;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter(100, 6);
+
+    @Test
+    void write_ShortTextStaysString() {
+        assertEquals("Short risk factor.", converter.write("Short risk factor.", null));
+    }
+
+    @Test
+    void write_LongTextIsCompressedAndReadBack() {
+        String text = "Our business depends on key suppliers — a disruption could harm results. ".repeat(200);
+
+        Object stored = converter.write(text, null);
+
+        Binary binary = assertInstanceOf(Binary.class, stored);
+        assertEquals(CompressedTextConverter.DEFLATE_UTF8_SUBTYPE, binary.getType());
+        assertTrue(binary.getData().length < text.length() / 10);
+        assertEquals(text, converter.read(stored, null));
+    }
+
+    @Test
+    void read_PlainStringWrittenBeforeCompressionIsReturnedAsIs() {
+        String legacy = "x".repeat(5_000);
+
+        assertEquals(legacy, converter.read(legacy, null));
+    }
+
+    @Test
+    void read_DisabledConverterStillDecompresses() {
+        String text = "Management's discussion and analysis. ".repeat(100);
+        Object stored = converter.write(text, null);
+        CompressedTextConverter disabled = new CompressedTextConverter(Integer.MAX_VALUE, 6);
+
+        assertEquals(text, disabled.write(text, null));
+        assertEquals(text, disabled.read(stored, null));
+    }
+
+    @Test
+    void read_RejectsForeignBinarySubtype() {
+        assertThrows(IllegalArgumentException.class, () -> converter.read(new Binary(new byte[]{1, 2, 3}), null));
+    }
+
+    @Test
+    void read_RejectsTruncatedData() {
+        Binary stored = (Binary) converter.write("Item 1A. Risk Factors. ".repeat(100), null);
+        byte[] truncated = Arrays.copyOf(stored.getData(), stored.getData().length / 2);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> converter.read(new Binary(CompressedTextConverter.DEFLATE_UTF8_SUBTYPE, truncated), null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 6, 9})
+    void writeAndRead_FilingSectionsAtEveryLevel(int level) throws IOException {
+        CompressedTextConverter filingConverter = new CompressedTextConverter(1024, level);
+
+        for (String text : filingSections()) {
+            Object stored = filingConverter.write(text, null);
+
+            if (text.length() < 1024) {
+                assertEquals(text, stored);
+            } else {
+                Binary binary = assertInstanceOf(Binary.class, stored);
+                assertTrue(binary.getData().length < text.getBytes(StandardCharsets.UTF_8).length);
+            }
+            assertEquals(text, filingConverter.read(stored, null));
+        }
+    }
+
+    private List<String> filingSections() throws IOException {
+        List<String> texts = new ArrayList<>();
+        for (String[] sample : new String[][]{{"sample-10k", "10-K"}, {"sample-10q", "10-Q"}, {"sample-20f", "20-F"}}) {
+            try (InputStream stream = getClass().getResourceAsStream("/filings/" + sample[0] + ".htm")) {
+                assertNotNull(stream);
+                FilingSections sections = FilingSectionExtractor.extract(
+                        new InputStreamReader(stream, StandardCharsets.UTF_8), sample[1]);
+                Stream.of(sections.businessDescription(), sections.riskFactors(), sections.managementDiscussion())
+                        .filter(Objects::nonNull)
+                        .forEach(texts::add);
+            }
+        }
+        assertEquals(8, texts.size());
+        return texts;
+    }
+}
@@ -0,0 +1,68 @@
+package com.testehan.finana.config;
+
+import com.testehan.finana.model.filing.Transcript;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedTranscriptConverterTest {
+
+    private final CompressedTextConverter compressedText = new CompressedTextConverter(1024, 6);
+    private final CompressedTranscriptConverter converter = new CompressedTranscriptConverter(compressedText);
+
+    @Test
+    void write_ShortTranscriptStaysAnArrayOfTurns() {
+        Object stored = converter.write(List.of(turn("Operator", null, "Good morning.")), null);
+
+        assertEquals(List.of(new Document("speaker", "Operator").append("content", "Good morning.")), stored);
+    }
+
+    @Test
+    void write_ManyShortTurnsAreCompressedTogetherAndReadBack() {
+        List<Transcript> transcript = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            transcript.add(turn(i % 2 == 0 ? "Jane Doe" : "Analyst", "Chief Financial Officer",
+                    "Revenue grew " + i + "% in the quarter, driven by services."));
+        }
+
+        Object stored = converter.write(transcript, null);
+
+        Binary binary = assertInstanceOf(Binary.class, stored);
+        assertEquals(CompressedTranscriptConverter.DEFLATE_BSON_SUBTYPE, binary.getType());
+        assertTrue(transcript.getFirst().getContent().length() < 1024);
+        assertEquals(transcript, converter.read(stored, null));
+    }
+
+    @Test
+    void read_TurnsWrittenBeforeAreReadAsTheyAre() {
+        String longContent = "We expect margins to expand. ".repeat(100);
+        List<Document> legacy = List.of(
+                new Document("speaker", "CEO").append("content", "Thank you.").append("sentiment", "positive"),
+                new Document("speaker", "CFO").append("content", compressedText.write(longContent, null)));
+
+        List<Transcript> transcript = converter.read(legacy, null);
+
+        assertEquals(2, transcript.size());
+        assertEquals("Thank you.", transcript.get(0).getContent());
+        assertEquals("positive", transcript.get(0).getSentiment());
+        assertEquals(turn("CFO", null, longContent), transcript.get(1));
+    }
+
+    @Test
+    void read_RejectsForeignBinarySubtype() {
+        assertThrows(IllegalArgumentException.class, () -> converter.read(new Binary(new byte[]{1, 2, 3}), null));
+    }
+
+    private static Transcript turn(String speaker, String title, String content) {
+        Transcript transcript = new Transcript();
+        transcript.setSpeaker(speaker);
+        transcript.setTitle(title);
+        transcript.setContent(content);
+        return transcript;
+    }
+}
@@ -0,0 +1,130 @@
+package com.testehan.finana.config;
+
+import com.testehan.finana.model.reporting.ReportItem;
+import com.testehan.finana.model.reporting.ReportType;
+import com.testehan.finana.service.reporting.ReportCalculatorScheduler;
+import com.testehan.finana.service.reporting.ReportContext;
+import com.testehan.finana.service.reporting.ReportData;
+import com.testehan.finana.service.reporting.calc.CalculatorResource;
+import com.testehan.finana.service.reporting.calc.ReportItemCalculator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent report capacity of the platform thread pools and of virtual threads. Each report runs like a generator:
+ * on the checklist executor, it hands calculators that block like an LLM or Mongo call to the scheduler and waits for
+ * them. Run with -Dbenchmark=true.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExecutorConfigLoadTest {
+
+    private static final int REPORTS = 200;
+    private static final int BLOCKING_CALCULATORS = 6;
+    private static final long BLOCKING_MILLIS = 200;
+
+    @Test
+    void concurrentReports_PlatformPoolsVersusVirtualThreads() throws Exception {
+        Result platform = generateReports(false);
+        Result virtual = generateReports(true);
+
+        System.out.printf("%-8s %8s %12s %14s%n", "threads", "ms", "reports/s", "max at once");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("%-8s %8d %12.1f %14d%n", result.mode(), result.millis(),
+                    REPORTS * 1000d / result.millis(), result.maxConcurrent());
+        }
+
+        assertEquals(REPORTS, virtual.maxConcurrent());
+        assertTrue(virtual.millis() < platform.millis());
+    }
+
+    private Result generateReports(boolean virtualThreads) throws Exception {
+        ExecutorConfig config = new ExecutorConfig(virtualThreads);
+        ExecutorService checklistExecutor = config.checklistExecutor();
+        ExecutorService calculatorExecutor = config.reportCalculatorExecutor(8, 8, 1);
+        ReportCalculatorScheduler scheduler = new ReportCalculatorScheduler(calculatorExecutor, new SimpleMeterRegistry(), 8);
+        List<ReportItemCalculator> calculators = calculators();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        try {
+            long start = System.nanoTime();
+            List<Future<List<ReportItem>>> reports = new ArrayList<>();
+            for (int i = 0; i < REPORTS; i++) {
+                String ticker = "T" + i;
+                reports.add(checklistExecutor.submit(() -> {
+                    maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    try {
+                        return scheduler.run(calculators, ReportContext.builder(ticker).build(), ReportType.FEROL, null);
+                    } finally {
+                        concurrent.decrementAndGet();
+                    }
+                }));
+            }
+            for (Future<List<ReportItem>> report : reports) {
+                assertEquals(BLOCKING_CALCULATORS + 1, report.get(5, TimeUnit.MINUTES).size());
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new Result(virtualThreads ? "virtual" : "platform", millis, maxConcurrent.get());
+        } finally {
+            checklistExecutor.shutdownNow();
+            calculatorExecutor.shutdownNow();
+        }
+    }
+
+    private static List<ReportItemCalculator> calculators() {
+        List<ReportItemCalculator> calculators = new ArrayList<>();
+        for (int i = 0; i < BLOCKING_CALCULATORS; i++) {
+            calculators.add(calculator("llm" + i, CalculatorResource.LLM_GEMINI, () -> {
+                try {
+                    Thread.sleep(BLOCKING_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        calculators.add(calculator("compute", CalculatorResource.COMPUTE, () -> {
+        }));
+        return calculators;
+    }
+
+    private static ReportItemCalculator calculator(String name, CalculatorResource resource, Runnable work) {
+        return new ReportItemCalculator() {
+            @Override
+            public Collection<ReportItem> calculate(ReportContext context, ReportType reportType, SseEmitter sseEmitter) {
+                work.run();
+                return List.of(new ReportItem(name, 1, ""));
+            }
+
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public CalculatorResource resource() {
+                return resource;
+            }
+
+            @Override
+            public Set<ReportData> requires() {
+                return Set.of();
+            }
+        };
+    }
+
+    private record Result(String mode, long millis, int maxConcurrent) {
+    }
+}
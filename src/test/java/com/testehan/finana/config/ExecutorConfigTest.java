@@ -0,0 +1,145 @@
+package com.testehan.finana.config;
+
+import com.testehan.finana.model.reporting.ReportItem;
+import com.testehan.finana.model.reporting.ReportType;
+import com.testehan.finana.service.reporting.ReportCalculatorScheduler;
+import com.testehan.finana.service.reporting.ReportContext;
+import com.testehan.finana.service.reporting.ReportData;
+import com.testehan.finana.service.reporting.calc.CalculatorResource;
+import com.testehan.finana.service.reporting.calc.ReportItemCalculator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Generates many reports at once the way the report service does: each report runs on the checklist executor and
+ * hands calculators that block like an LLM or Mongo call to the scheduler.
+ */
+class ExecutorConfigTest {
+
+    private static final int REPORTS = 100;
+    private static final int BLOCKING_CALCULATORS = 6;
+    private static final long BLOCKING_MILLIS = 20;
+
+    @Test
+    void virtualThreads_GenerateEveryReportAtOnce() throws Exception {
+        ExecutorConfig config = new ExecutorConfig(true);
+
+        // every report waits until all of them run, so a fast report cannot finish before the last one is submitted
+        CountDownLatch allRunning = new CountDownLatch(REPORTS);
+
+        Result result = generateReports(config.checklistExecutor(), config.reportCalculatorExecutor(8, 8, 1), allRunning);
+
+        assertEquals(0, allRunning.getCount());
+        assertEquals(REPORTS, result.maxConcurrentReports());
+    }
+
+    @Test
+    void platformPools_StayWithinTheirSizes() throws Exception {
+        ExecutorConfig config = new ExecutorConfig(false);
+        ThreadPoolExecutor calculatorExecutor = (ThreadPoolExecutor) config.reportCalculatorExecutor(8, 8, 1);
+
+        Result result = generateReports(config.checklistExecutor(), calculatorExecutor, null);
+
+        assertTrue(result.maxConcurrentReports() <= Runtime.getRuntime().availableProcessors() * 2);
+        assertEquals(8 + 8 + 1, calculatorExecutor.getMaximumPoolSize());
+        assertTrue(calculatorExecutor.getLargestPoolSize() <= 8 + 8 + 1);
+        assertTrue(result.maxConcurrentCalculators() <= 8 + 8 + 1);
+    }
+
+    private Result generateReports(ExecutorService checklistExecutor, ExecutorService calculatorExecutor,
+                                   CountDownLatch allRunning) throws Exception {
+        ReportCalculatorScheduler scheduler = new ReportCalculatorScheduler(calculatorExecutor, new SimpleMeterRegistry(), 8);
+        AtomicInteger concurrentCalculators = new AtomicInteger();
+        AtomicInteger maxConcurrentCalculators = new AtomicInteger();
+        List<ReportItemCalculator> calculators = calculators(concurrentCalculators, maxConcurrentCalculators);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        try {
+            List<Future<List<ReportItem>>> reports = new ArrayList<>();
+            for (int i = 0; i < REPORTS; i++) {
+                String ticker = "T" + i;
+                reports.add(checklistExecutor.submit(() -> {
+                    maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    try {
+                        if (allRunning != null) {
+                            allRunning.countDown();
+                            allRunning.await(30, TimeUnit.SECONDS);
+                        }
+                        return scheduler.run(calculators, ReportContext.builder(ticker).build(), ReportType.FEROL, null);
+                    } finally {
+                        concurrent.decrementAndGet();
+                    }
+                }));
+            }
+            for (Future<List<ReportItem>> report : reports) {
+                assertEquals(BLOCKING_CALCULATORS + 1, report.get(1, TimeUnit.MINUTES).size());
+            }
+            return new Result(maxConcurrent.get(), maxConcurrentCalculators.get());
+        } finally {
+            checklistExecutor.shutdownNow();
+            calculatorExecutor.shutdownNow();
+        }
+    }
+
+    private static List<ReportItemCalculator> calculators(AtomicInteger concurrent, AtomicInteger maxConcurrent) {
+        List<ReportItemCalculator> calculators = new ArrayList<>();
+        for (int i = 0; i < BLOCKING_CALCULATORS; i++) {
+            calculators.add(calculator("llm" + i, CalculatorResource.LLM_GEMINI, () -> {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(BLOCKING_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    concurrent.decrementAndGet();
+                }
+            }));
+        }
+        calculators.add(calculator("compute", CalculatorResource.COMPUTE, () -> {
+        }));
+        return calculators;
+    }
+
+    private static ReportItemCalculator calculator(String name, CalculatorResource resource, Runnable work) {
+        return new ReportItemCalculator() {
+            @Override
+            public Collection<ReportItem> calculate(ReportContext context, ReportType reportType, SseEmitter sseEmitter) {
+                work.run();
+                return List.of(new ReportItem(name, 1, ""));
+            }
+
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public CalculatorResource resource() {
+                return resource;
+            }
+
+            @Override
+            public Set<ReportData> requires() {
+                return Set.of();
+            }
+        };
+    }
+
+    private record Result(int maxConcurrentReports, int maxConcurrentCalculators) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.testehan.finana.config;
+
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementDecimalConverterTest {
+
+    private final StatementDecimalConverter converter = new StatementDecimalConverter();
+
+    @Test
+    void read_ReadsDecimalsAndLegacyNumbers() {
+        assertEquals(new BigDecimal("391035000000"), converter.read(new Decimal128(new BigDecimal("391035000000")), null));
+        assertEquals(new BigDecimal("391035000000"), converter.read("391035000000", null));
+        assertEquals(new BigDecimal("-6.08"), converter.read(" -6.08 ", null));
+    }
+
+    @Test
+    void read_PlaceholdersAreMissing() {
+        assertNull(converter.read("", null));
+        assertNull(converter.read("None", null));
+        assertNull(converter.read("N/A", null));
+    }
+
+    @Test
+    void write_StoresDecimal128() {
+        assertEquals(new Decimal128(new BigDecimal("-6.08")), converter.write(new BigDecimal("-6.08"), null));
+    }
+}
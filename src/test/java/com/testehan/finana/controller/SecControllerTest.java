@@ -0,0 +1,60 @@
+package com.testehan.finana.controller;
+
+import com.testehan.finana.model.filing.TenKFilings;
+import com.testehan.finana.model.filing.TenQFilings;
+import com.testehan.finana.repository.SecFilingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecControllerTest {
+
+    @Mock
+    private SecFilingRepository secFilingRepository;
+
+    private SecController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new SecController(secFilingRepository);
+    }
+
+    @Test
+    void getRiskFactorsFrom10K_ReadsOnlyTheLatestSection() {
+        TenKFilings latest = new TenKFilings();
+        latest.setFiledAt("2025-10-31");
+        latest.setRiskFactors("Supply chain risks.");
+        when(secFilingRepository.findLatestTenKRiskFactors("AAPL")).thenReturn(Optional.of(latest));
+
+        StepVerifier.create(controller.getRiskFactorsFrom10K("AAPL"))
+                .expectNext("Supply chain risks.")
+                .verifyComplete();
+        verify(secFilingRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void getManagementDiscussionFrom10Q_EmptyWithoutFilings() {
+        when(secFilingRepository.findLatestTenQManagementDiscussion("AAPL")).thenReturn(Optional.empty());
+
+        StepVerifier.create(controller.getManagementDiscussionFrom10Q("AAPL"))
+                .verifyComplete();
+    }
+
+    @Test
+    void getRiskFactorsFrom10Q_EmptyWhenSectionMissing() {
+        TenQFilings latest = new TenQFilings();
+        latest.setFiledAt("2025-08-01");
+        when(secFilingRepository.findLatestTenQRiskFactors("AAPL")).thenReturn(Optional.of(latest));
+
+        StepVerifier.create(controller.getRiskFactorsFrom10Q("AAPL"))
+                .verifyComplete();
+    }
+}
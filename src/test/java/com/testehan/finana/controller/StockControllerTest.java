@@ -40,6 +40,8 @@ public class StockControllerTest {
     private FinancialDataService financialDataService;
     @MockitoBean
     private AdjustmentService adjustmentService;
+    @MockitoBean
+    private TtmService ttmService;
 
     @Test
     public void testGetFinancialAdjustments() throws Exception {
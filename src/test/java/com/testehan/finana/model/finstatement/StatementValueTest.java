@@ -0,0 +1,35 @@
+package com.testehan.finana.model.finstatement;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementValueTest {
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+
+    @Test
+    void readsFmpValuesLeniently() {
+        IncomeReport report = mapper.readValue("""
+                {"date": "2024-09-28", "revenue": 391035000000, "eps": "6.08", "ebitda": "None", "ebit": ""}
+                """, IncomeReport.class);
+
+        assertEquals(new BigDecimal("391035000000"), report.getRevenue());
+        assertEquals(new BigDecimal("6.08"), report.getEps());
+        assertNull(report.getEbitda());
+        assertNull(report.getEbit());
+    }
+
+    @Test
+    void writesValuesAsStrings() {
+        CashFlowReport report = new CashFlowReport();
+        report.setOperatingCashFlow(new BigDecimal("118254000000"));
+
+        String json = mapper.writeValueAsString(report);
+
+        assertTrue(json.contains("\"operatingCashFlow\":\"118254000000\""), json);
+    }
+}
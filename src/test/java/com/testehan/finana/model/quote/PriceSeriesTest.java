@@ -0,0 +1,124 @@
+package com.testehan.finana.model.quote;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSeriesTest {
+
+    private GlobalQuote quote(String date, String adjClose, String volume) {
+        GlobalQuote quote = new GlobalQuote();
+        quote.setDate(date);
+        quote.setAdjClose(adjClose);
+        quote.setVolume(volume);
+        return quote;
+    }
+
+    private PriceSeries series() {
+        // FMP returns the history newest first
+        return PriceSeries.fromStockQuotes("AAPL", List.of(
+                quote("2024-06-17", "103.0", "300"),
+                quote("2024-06-14", "102.0", "200"),
+                quote("2024-06-13", "101.0", "100"),
+                quote("2024-06-12", "100.0", "50")
+        ));
+    }
+
+    @Test
+    void fromStockQuotes_sortsAscendingByDate() {
+        PriceSeries series = series();
+
+        assertEquals(4, series.size());
+        assertEquals(LocalDate.of(2024, 6, 12), series.dateAt(series.firstIndex()));
+        assertEquals(LocalDate.of(2024, 6, 17), series.dateAt(series.lastIndex()));
+        assertEquals(103.0, series.adjCloseAt(series.lastIndex()));
+        assertEquals(300.0, series.volumeAt(series.lastIndex()));
+    }
+
+    @Test
+    void fromStockQuotes_skipsUnparsableBarsAndDeduplicatesDates() {
+        PriceSeries series = PriceSeries.fromStockQuotes("AAPL", List.of(
+                quote("2024-06-14", "102.0", "200"),
+                quote("2024-06-14", "102.5", "210"),
+                quote("not-a-date", "1.0", "1"),
+                quote("2024-06-13", null, "1")
+        ));
+
+        assertEquals(1, series.size());
+        assertEquals(102.5, series.adjCloseAt(0));
+    }
+
+    @Test
+    void floorIndex_returnsLatestBarOnOrBeforeDate() {
+        PriceSeries series = series();
+
+        assertEquals(LocalDate.of(2024, 6, 14), series.dateAt(series.floorIndex(LocalDate.of(2024, 6, 16))));
+        assertEquals(LocalDate.of(2024, 6, 17), series.dateAt(series.floorIndex(LocalDate.of(2024, 6, 17))));
+        assertEquals(-1, series.floorIndex(LocalDate.of(2024, 6, 11)));
+    }
+
+    @Test
+    void floorIndex_withLookback_rejectsStaleBars() {
+        PriceSeries series = series();
+
+        assertEquals(LocalDate.of(2024, 6, 17), series.dateAt(series.floorIndex(LocalDate.of(2024, 6, 23), 7)));
+        assertEquals(-1, series.floorIndex(LocalDate.of(2024, 6, 24), 7));
+    }
+
+    @Test
+    void slice_isInclusiveOnBothEnds() {
+        PriceSeries slice = series().slice(LocalDate.of(2024, 6, 13), LocalDate.of(2024, 6, 16));
+
+        assertEquals(2, slice.size());
+        assertEquals(LocalDate.of(2024, 6, 13), slice.dateAt(0));
+        assertEquals(LocalDate.of(2024, 6, 14), slice.dateAt(1));
+        assertTrue(series().slice(LocalDate.of(2024, 6, 15), LocalDate.of(2024, 6, 16)).isEmpty());
+    }
+
+    @Test
+    void toGlobalQuote_rendersBarBackToStrings() {
+        GlobalQuote quote = series().toGlobalQuote(0);
+
+        assertEquals("AAPL", quote.getSymbol());
+        assertEquals("2024-06-12", quote.getDate());
+        assertEquals("100.0", quote.getAdjClose());
+        assertEquals("50", quote.getVolume());
+    }
+
+    @Test
+    void toGlobalQuote_keepsOpenHighLowAndPrice() {
+        GlobalQuote stored = quote("2024-06-12", "100.0", "50");
+        stored.setAdjOpen("98.5");
+        stored.setAdjHigh("101.25");
+        stored.setAdjLow("97.0");
+        stored.setPrice("100.4");
+
+        GlobalQuote quote = PriceSeries.fromStockQuotes("AAPL", List.of(stored)).toGlobalQuote(0);
+
+        assertEquals("98.5", quote.getAdjOpen());
+        assertEquals("101.25", quote.getAdjHigh());
+        assertEquals("97.0", quote.getAdjLow());
+        assertEquals("100.4", quote.getPrice());
+        assertNull(series().toGlobalQuote(0).getAdjOpen());
+    }
+
+    @Test
+    void withStockBars_appendsAndReplacesByDate() {
+        PriceSeries series = series();
+        List<StockQuoteBar> bars = QuoteBars.stockBarsOf("AAPL", List.of(
+                quote("2024-06-18", "104.0", "400"),
+                quote("2024-06-17", "103.5", "310")));
+
+        PriceSeries extended = series.withStockBars(bars);
+
+        assertEquals(5, extended.size());
+        assertEquals(103.5, extended.adjCloseAt(extended.floorIndex(LocalDate.of(2024, 6, 17))));
+        assertEquals(104.0, extended.adjCloseAt(extended.lastIndex()));
+        assertEquals(100.0, extended.adjCloseAt(extended.firstIndex()));
+        assertNull(extended.toGlobalQuote(0).getAdjOpen());
+        assertEquals(4, series.size());
+    }
+}
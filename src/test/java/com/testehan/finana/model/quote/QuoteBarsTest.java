@@ -0,0 +1,69 @@
+package com.testehan.finana.model.quote;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteBarsTest {
+
+    private GlobalQuote quote(String date, String adjClose) {
+        GlobalQuote quote = new GlobalQuote();
+        quote.setDate(date);
+        quote.setAdjClose(adjClose);
+        quote.setVolume("1200");
+        return quote;
+    }
+
+    @Test
+    void stockBarsOf_TimestampsBarsAtUtcMidnight() {
+        List<StockQuoteBar> bars = QuoteBars.stockBarsOf("AAPL", List.of(quote("2024-06-14", "99.5")));
+
+        assertEquals(1, bars.size());
+        assertEquals(Instant.parse("2024-06-14T00:00:00Z"), bars.get(0).getDate());
+        assertEquals(LocalDate.of(2024, 6, 14), bars.get(0).getTradingDay());
+        assertEquals("AAPL", bars.get(0).getSymbol());
+        assertEquals(1200L, bars.get(0).getVolume());
+    }
+
+    @Test
+    void stockBarsOf_DropsMalformedQuotesAndKeepsLaterDuplicate() {
+        List<StockQuoteBar> bars = QuoteBars.stockBarsOf("AAPL", List.of(
+                quote("2024-06-14", "99.5"),
+                quote("not-a-date", "98.0"),
+                quote("2024-06-13", null),
+                quote("2024-06-14", "99.75")
+        ));
+
+        assertEquals(1, bars.size());
+        assertEquals(99.75, bars.get(0).getAdjClose());
+    }
+
+    @Test
+    void toGlobalQuote_RoundTripsTheStoredValues() {
+        GlobalQuote quote = QuoteBars.stockBarsOf("AAPL", List.of(quote("2024-06-14", "99.5"))).get(0).toGlobalQuote();
+
+        assertEquals("2024-06-14", quote.getDate());
+        assertEquals("99.5", quote.getAdjClose());
+        assertEquals("1200", quote.getVolume());
+        assertNull(quote.getAdjOpen());
+    }
+
+    @Test
+    void indexBarsOf_ConvertsBackToIndexData() {
+        IndexData indexData = new IndexData();
+        indexData.setDate("2024-06-14");
+        indexData.setPrice(5431.6);
+        indexData.setVolume(3_000_000L);
+
+        IndexData roundTrip = QuoteBars.indexBarsOf("^GSPC", List.of(indexData)).get(0).toIndexData();
+
+        assertEquals("^GSPC", roundTrip.getSymbol());
+        assertEquals("2024-06-14", roundTrip.getDate());
+        assertEquals(5431.6, roundTrip.getPrice());
+        assertEquals(3_000_000L, roundTrip.getVolume());
+    }
+}
@@ -198,16 +198,16 @@ public class AdjustmentServiceImplTest {
         for (int i = 0; i < 9; i++) {
             IncomeReport r = new IncomeReport();
             r.setDate((2024 - i) + "-12-31");
-            r.setResearchAndDevelopmentExpenses("1000000000");
-            r.setOperatingIncome("5000000000");
-            r.setRevenue("20000000000");
-            r.setIncomeTaxExpense("1000000000");
-            r.setIncomeBeforeTax("4000000000");
-            r.setNetIncome("3000000000");
-            r.setEpsDiluted("2.00");
-            r.setWeightedAverageShsOutDil("1500000000");
-            r.setOtherExpenses("0");
-            r.setSellingAndMarketingExpenses("2000000000");
+            r.setResearchAndDevelopmentExpenses(new BigDecimal("1000000000"));
+            r.setOperatingIncome(new BigDecimal("5000000000"));
+            r.setRevenue(new BigDecimal("20000000000"));
+            r.setIncomeTaxExpense(new BigDecimal("1000000000"));
+            r.setIncomeBeforeTax(new BigDecimal("4000000000"));
+            r.setNetIncome(new BigDecimal("3000000000"));
+            r.setEpsDiluted(new BigDecimal("2.00"));
+            r.setWeightedAverageShsOutDil(new BigDecimal("1500000000"));
+            r.setOtherExpenses(new BigDecimal("0"));
+            r.setSellingAndMarketingExpenses(new BigDecimal("2000000000"));
             reports.add(r);
         }
         return reports;
@@ -218,10 +218,10 @@ public class AdjustmentServiceImplTest {
         for (int i = 0; i < 9; i++) {
             BalanceSheetReport r = new BalanceSheetReport();
             r.setDate((2024 - i) + "-12-31");
-            r.setTotalDebt("10000000000");
-            r.setTotalEquity("20000000000");
-            r.setCashAndCashEquivalents("5000000000");
-            r.setTotalStockholdersEquity("20000000000");
+            r.setTotalDebt(new BigDecimal("10000000000"));
+            r.setTotalEquity(new BigDecimal("20000000000"));
+            r.setCashAndCashEquivalents(new BigDecimal("5000000000"));
+            r.setTotalStockholdersEquity(new BigDecimal("20000000000"));
             reports.add(r);
         }
         return reports;
@@ -232,10 +232,10 @@ public class AdjustmentServiceImplTest {
         for (int i = 0; i < 9; i++) {
             CashFlowReport r = new CashFlowReport();
             r.setDate((2024 - i) + "-12-31");
-            r.setStockBasedCompensation("500000000");
-            r.setOperatingCashFlow("4000000000");
-            r.setCapitalExpenditure("1000000000");
-            r.setFreeCashFlow("3000000000");
+            r.setStockBasedCompensation(new BigDecimal("500000000"));
+            r.setOperatingCashFlow(new BigDecimal("4000000000"));
+            r.setCapitalExpenditure(new BigDecimal("1000000000"));
+            r.setFreeCashFlow(new BigDecimal("3000000000"));
             reports.add(r);
         }
         return reports;
@@ -0,0 +1,124 @@
+package com.testehan.finana.service;
+
+import com.testehan.finana.exception.RateLimitExhaustedException;
+import com.testehan.finana.model.ratio.FmpRatios;
+import com.testehan.finana.util.RateLimitingExchangeFilter;
+import com.testehan.finana.util.RequestPriority;
+import com.testehan.finana.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FMPServiceRateLimitTest {
+
+    private static final String RATIOS = "[{\"symbol\":\"AAPL\",\"priceToEarningsRatio\":15.5}]";
+
+    private MockWebServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private FMPService fmpService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter("fmp", 2, 20, meterRegistry);
+        fmpService = new FMPService(WebClient.builder(),
+                server.url("/").toString(),
+                new RateLimitingExchangeFilter(rateLimiter, 2, Duration.ofMillis(50)));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse ok() {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(RATIOS);
+    }
+
+    @Test
+    void retriesAfterTooManyRequestsHonouringRetryAfter() {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "1"));
+        server.enqueue(ok());
+
+        long start = System.nanoTime();
+        StepVerifier.create(fmpService.getFinancialRatios("AAPL"))
+                .assertNext(ratios -> assertEquals(15.5, ratios.get(0).getPriceToEarningsRatio()))
+                .verifyComplete();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(2, server.getRequestCount());
+        assertTrue(elapsedMillis >= 900, "retried after " + elapsedMillis + " ms");
+        assertEquals(1.0, meterRegistry.get("ratelimiter.pauses").counter().count());
+    }
+
+    @Test
+    void givesUpAfterMaxRetries() {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(429));
+        }
+
+        StepVerifier.create(fmpService.getFinancialRatios("AAPL"))
+                .expectError(RateLimitExhaustedException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void exhaustedRateLimitIsNotTurnedIntoAnEmptyList() {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(429));
+        }
+
+        StepVerifier.create(fmpService.getIndexHistoricalData("^GSPC"))
+                .expectError(RateLimitExhaustedException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void otherErrorsStillFallBackToAnEmptyList() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        StepVerifier.create(fmpService.getIndexHistoricalData("^GSPC"))
+                .assertNext(data -> assertTrue(data.isEmpty()))
+                .verifyComplete();
+    }
+
+    @Test
+    void otherErrorsAreNotRetried() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        StepVerifier.create(fmpService.getFinancialRatios("AAPL"))
+                .expectError(WebClientResponseException.InternalServerError.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void backgroundRequestsAreRecordedInTheirOwnLane() {
+        server.enqueue(ok());
+
+        List<FmpRatios> ratios = fmpService.getFinancialRatios("AAPL")
+                .contextWrite(RequestPriority.background())
+                .block(Duration.ofSeconds(5));
+
+        assertNotNull(ratios);
+        assertEquals(1, meterRegistry.get("ratelimiter.wait").tag("priority", "background").timer().count());
+        assertEquals(0, meterRegistry.get("ratelimiter.wait").tag("priority", "interactive").timer().count());
+    }
+}
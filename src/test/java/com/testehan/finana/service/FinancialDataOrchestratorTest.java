@@ -3,12 +3,15 @@ package com.testehan.finana.service;
 import com.testehan.finana.model.FinancialDataAvailability;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
 import com.testehan.finana.model.finstatement.IncomeReport;
+import com.testehan.finana.model.quote.GlobalQuote;
+import com.testehan.finana.service.screener.ScreenerService;
 import com.testehan.finana.util.DateUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
 import java.time.format.DateTimeFormatter;
@@ -29,6 +32,7 @@ class FinancialDataOrchestratorTest {
     @Mock private SecFilingService secFilingService;
     @Mock private FinancialDataService financialDataService;
     @Mock private AdjustmentService adjustmentService;
+    @Mock private ScreenerService screenerService;
     @Mock private DateUtils dateUtils;
 
     private AutoCloseable closeable;
@@ -39,7 +43,7 @@ class FinancialDataOrchestratorTest {
         orchestrator = new FinancialDataOrchestrator(
                 companyDataService, quoteService, financialStatementService,
                 earningsService, secFilingService, financialDataService,
-                adjustmentService, dateUtils
+                adjustmentService, screenerService, dateUtils
         );
     }
 
@@ -86,6 +90,41 @@ class FinancialDataOrchestratorTest {
         verify(financialDataService).getFinancialRatios(ticker);
     }
 
+    @Test
+    void ensureFinancialDataIsPresent_concurrentCallsShareOnePipeline() {
+        String ticker = "AAPL";
+        Sinks.One<GlobalQuote> pendingQuote = Sinks.one();
+
+        when(quoteService.getLastStockQuote(ticker)).thenReturn(pendingQuote.asMono());
+        when(quoteService.getIndexQuotes(anyString())).thenReturn(Mono.empty());
+        when(earningsService.getEarningsEstimates(ticker)).thenReturn(Mono.empty());
+        when(earningsService.getEarningsHistory(ticker)).thenReturn(Mono.empty());
+        when(companyDataService.getCompanyOverview(ticker)).thenReturn(Mono.empty());
+        when(secFilingService.fetchAndSaveSecFilings(ticker)).thenReturn(Mono.empty());
+        when(secFilingService.getAndSaveSecFilings(ticker)).thenReturn(Mono.empty());
+
+        IncomeStatementData incomeData = new IncomeStatementData();
+        incomeData.setQuarterlyReports(List.of());
+        when(financialStatementService.getIncomeStatements(ticker)).thenReturn(Mono.just(incomeData));
+        when(financialStatementService.getBalanceSheet(ticker)).thenReturn(Mono.empty());
+        when(financialStatementService.getCashFlow(ticker)).thenReturn(Mono.empty());
+        when(financialStatementService.getRevenueSegmentation(ticker)).thenReturn(Mono.empty());
+        when(financialStatementService.getRevenueGeographicSegmentation(ticker)).thenReturn(Mono.empty());
+        when(financialDataService.getFinancialRatios(ticker)).thenReturn(Mono.empty());
+        when(adjustmentService.getFinancialAdjustments(ticker)).thenReturn(Mono.empty());
+
+        Mono<Void> first = orchestrator.ensureFinancialDataIsPresent(ticker);
+        Mono<Void> second = orchestrator.ensureFinancialDataIsPresent("aapl");
+
+        StepVerifier.create(Mono.when(first, second))
+                .then(() -> pendingQuote.tryEmitEmpty())
+                .verifyComplete();
+
+        verify(quoteService, times(1)).getLastStockQuote(ticker);
+        verify(financialStatementService, times(1)).getIncomeStatements(ticker);
+        verify(financialDataService, times(1)).getFinancialRatios(ticker);
+    }
+
     @Test
     void checkFinancialDataAvailability_returnsCorrectAvailability() {
         String ticker = "AAPL";
@@ -122,5 +161,6 @@ class FinancialDataOrchestratorTest {
         verify(financialStatementService).deleteRevenueSegmentationBySymbol(ticker);
         verify(secFilingService).deleteSecFilings(ticker);
         verify(adjustmentService).deleteFinancialAdjustmentBySymbol(ticker);
+        verify(screenerService).remove(ticker);
     }
 }
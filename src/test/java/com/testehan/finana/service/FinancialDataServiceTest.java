@@ -11,11 +11,18 @@ import com.testehan.finana.util.FinancialRatiosCalculator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -50,6 +57,9 @@ class FinancialDataServiceTest {
     @Mock
     private DateUtils dateUtils;
 
+    @Mock
+    private MongoTemplate mongoTemplate;
+
     private FinancialDataService financialDataService;
 
     @BeforeEach
@@ -57,7 +67,7 @@ class FinancialDataServiceTest {
         financialDataService = new FinancialDataService(
                 fmpService, companyDataService, financialStatementService,
                 financialRatiosRepository, generatedReportRepository,
-                financialRatiosCalculator, quoteService, dateUtils
+                financialRatiosCalculator, quoteService, dateUtils, mongoTemplate
         );
     }
 
@@ -116,4 +126,161 @@ class FinancialDataServiceTest {
 
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getFinancialRatios_NewQuarter_CalculatesAndAddsOnlyThatPeriod() {
+        String symbol = "AAPL";
+        Period older = period("2024-06-29", "Q3", "85777000000");
+        Period newer = period("2024-09-28", "Q4", "94930000000");
+        FinancialRatiosData stored = storedRatios(symbol, older);
+        mockStatements(symbol, stored, List.of(newer, older));
+        FinancialRatiosReport calculated = new FinancialRatiosReport();
+        calculated.setDate("2024-09-28");
+        when(financialRatiosCalculator.calculateRatios(any(), eq(newer.income()), any(), any(), any())).thenReturn(calculated);
+
+        FinancialRatiosData result = financialDataService.getFinancialRatios(symbol).block().orElseThrow();
+
+        verify(financialRatiosCalculator, times(1)).calculateRatios(any(), any(), any(), any(), any());
+        assertEquals(List.of("2024-09-28", "2024-06-29"), result.getQuarterlyReports().stream().map(FinancialRatiosReport::getDate).toList());
+        assertNotNull(calculated.getInputHash());
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(FinancialRatiosData.class));
+        assertTrue(update.getValue().getUpdateObject().containsKey("$push"));
+        verify(financialRatiosRepository, never()).save(any());
+    }
+
+    @Test
+    void getFinancialRatios_RestatedPeriod_IsReplacedKeepingFmpRatios() {
+        String symbol = "AAPL";
+        Period original = period("2024-06-29", "Q3", "85777000000");
+        FinancialRatiosData stored = storedRatios(symbol, original);
+        stored.getQuarterlyReports().getFirst().setPeRatio(new BigDecimal("31.5"));
+        Period restated = period("2024-06-29", "Q3", "85800000000");
+        mockStatements(symbol, stored, List.of(restated));
+        FinancialRatiosReport calculated = new FinancialRatiosReport();
+        calculated.setDate("2024-06-29");
+        when(financialRatiosCalculator.calculateRatios(any(), eq(restated.income()), any(), any(), any())).thenReturn(calculated);
+
+        financialDataService.getFinancialRatios(symbol).block();
+
+        assertEquals(new BigDecimal("31.5"), calculated.getPeRatio());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(FinancialRatiosData.class));
+        assertEquals("2024-06-29", query.getValue().getQueryObject().get("quarterlyReports.date"));
+        assertTrue(update.getValue().getUpdateObject().get("$set", org.bson.Document.class).containsKey("quarterlyReports.$"));
+    }
+
+    @Test
+    void getFinancialRatios_UnchangedStatements_WritesNoPeriods() {
+        String symbol = "AAPL";
+        Period period = period("2024-06-29", "Q3", "85777000000");
+        FinancialRatiosData stored = storedRatios(symbol, period);
+        mockStatements(symbol, stored, List.of(period));
+
+        financialDataService.getFinancialRatios(symbol).block();
+
+        verifyNoInteractions(financialRatiosCalculator, mongoTemplate);
+        verify(financialRatiosRepository, never()).save(any());
+    }
+
+    @Test
+    void getFinancialRatios_PeriodCalculatedWithoutPrice_IsRecalculatedOncePriced() {
+        String symbol = "AAPL";
+        Period period = period("2024-06-29", "Q3", "85777000000");
+        FinancialRatiosData stored = storedRatios(symbol, period, false);
+        mockStatements(symbol, stored, List.of(period));
+        when(quoteService.getAdjustedCloseByDate(symbol, LocalDate.of(2024, 6, 29))).thenReturn(Optional.of(new BigDecimal("210.62")));
+        FinancialRatiosReport calculated = new FinancialRatiosReport();
+        calculated.setDate("2024-06-29");
+        when(financialRatiosCalculator.calculateRatios(any(), eq(period.income()), any(), any(), eq(new BigDecimal("210.62"))))
+                .thenReturn(calculated);
+
+        financialDataService.getFinancialRatios(symbol).block();
+
+        assertEquals(FinancialDataService.inputHash(period.income(), period.balanceSheet(), period.cashFlow(), true),
+                calculated.getInputHash());
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(FinancialRatiosData.class));
+    }
+
+    @Test
+    void getFinancialRatios_AdjustedCloseChanged_KeepsTheStoredPeriod() {
+        String symbol = "AAPL";
+        Period period = period("2024-06-29", "Q3", "85777000000");
+        FinancialRatiosData stored = storedRatios(symbol, period, true);
+        mockStatements(symbol, stored, List.of(period));
+        // a dividend paid since the period was calculated lowered its adjusted close
+        when(quoteService.getAdjustedCloseByDate(symbol, LocalDate.of(2024, 6, 29))).thenReturn(Optional.of(new BigDecimal("209.87")));
+
+        financialDataService.getFinancialRatios(symbol).block();
+
+        verifyNoInteractions(financialRatiosCalculator, mongoTemplate);
+    }
+
+    @Test
+    void inputHash_IgnoresMetadataAndDecimalScale() {
+        Period period = period("2024-06-29", "Q3", "85777000000");
+        String hash = FinancialDataService.inputHash(period.income(), period.balanceSheet(), period.cashFlow(), true);
+
+        period.income().setAcceptedDate("2024-08-02 18:04:44");
+        period.income().setCik("0000320193");
+        period.income().setRevenue(new BigDecimal("85777000000.00"));
+
+        assertEquals(hash, FinancialDataService.inputHash(period.income(), period.balanceSheet(), period.cashFlow(), true));
+        assertNotEquals(hash, FinancialDataService.inputHash(period.income(), period.balanceSheet(), period.cashFlow(), false));
+    }
+
+    private record Period(IncomeReport income, BalanceSheetReport balanceSheet, CashFlowReport cashFlow) {
+    }
+
+    private static Period period(String date, String quarter, String revenue) {
+        IncomeReport income = new IncomeReport();
+        income.setDate(date);
+        income.setFiscalYear("2024");
+        income.setPeriod(quarter);
+        income.setRevenue(new BigDecimal(revenue));
+        BalanceSheetReport balanceSheet = new BalanceSheetReport();
+        balanceSheet.setFiscalYear("2024");
+        balanceSheet.setPeriod(quarter);
+        CashFlowReport cashFlow = new CashFlowReport();
+        cashFlow.setFiscalYear("2024");
+        cashFlow.setPeriod(quarter);
+        return new Period(income, balanceSheet, cashFlow);
+    }
+
+    private static FinancialRatiosData storedRatios(String symbol, Period period) {
+        return storedRatios(symbol, period, false);
+    }
+
+    private static FinancialRatiosData storedRatios(String symbol, Period period, boolean priced) {
+        FinancialRatiosReport report = new FinancialRatiosReport();
+        report.setDate(period.income().getDate());
+        report.setInputHash(FinancialDataService.inputHash(period.income(), period.balanceSheet(), period.cashFlow(), priced));
+        FinancialRatiosData stored = new FinancialRatiosData();
+        stored.setSymbol(symbol);
+        stored.setAnnualReports(new ArrayList<>());
+        stored.setQuarterlyReports(new ArrayList<>(List.of(report)));
+        stored.setLastUpdated(LocalDateTime.now().minusMonths(2));
+        return stored;
+    }
+
+    private void mockStatements(String symbol, FinancialRatiosData stored, List<Period> quarters) {
+        when(financialRatiosRepository.findBySymbol(symbol)).thenReturn(Optional.of(stored));
+        when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
+        when(companyDataService.getCompanyOverview(symbol)).thenReturn(Mono.just(List.of(new CompanyOverview())));
+        IncomeStatementData income = new IncomeStatementData();
+        income.setAnnualReports(List.of());
+        income.setQuarterlyReports(quarters.stream().map(Period::income).toList());
+        BalanceSheetData balanceSheet = new BalanceSheetData();
+        balanceSheet.setAnnualReports(List.of());
+        balanceSheet.setQuarterlyReports(quarters.stream().map(Period::balanceSheet).toList());
+        CashFlowData cashFlow = new CashFlowData();
+        cashFlow.setAnnualReports(List.of());
+        cashFlow.setQuarterlyReports(quarters.stream().map(Period::cashFlow).toList());
+        when(financialStatementService.getIncomeStatements(symbol)).thenReturn(Mono.just(income));
+        when(financialStatementService.getBalanceSheet(symbol)).thenReturn(Mono.just(balanceSheet));
+        when(financialStatementService.getCashFlow(symbol)).thenReturn(Mono.just(cashFlow));
+        when(fmpService.getFinancialRatios(symbol)).thenReturn(Mono.empty());
+        when(fmpService.getFinancialRatiosTtm(symbol)).thenReturn(Mono.empty());
+    }
+}
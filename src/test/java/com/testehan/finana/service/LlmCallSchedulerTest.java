@@ -0,0 +1,184 @@
+package com.testehan.finana.service;
+
+import com.testehan.finana.service.LlmCallScheduler.Model;
+import com.testehan.finana.util.CancellationToken;
+import com.testehan.finana.util.RequestPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LlmCallSchedulerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static LlmCallScheduler scheduler(int geminiConcurrency, int maxRetries) {
+        return new LlmCallScheduler(new SimpleMeterRegistry(), geminiConcurrency, 60_000, 1, 60_000, maxRetries, 1);
+    }
+
+    @Test
+    void call_NeverRunsMoreThanTheConcurrencyLimit() {
+        LlmCallScheduler scheduler = scheduler(2, 0);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> scheduler.call(Model.GEMINI, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(20);
+                running.decrementAndGet();
+                return "ok";
+            }), executor));
+        }
+        calls.forEach(CompletableFuture::join);
+
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    void call_DoesNotStartTheCallOfCancelledWork() {
+        LlmCallScheduler scheduler = scheduler(2, 0);
+        CancellationToken cancellation = new CancellationToken();
+        cancellation.cancel("client disconnected");
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(CancellationException.class, () -> cancellation.within(
+                () -> scheduler.call(Model.GEMINI, calls::incrementAndGet)));
+
+        assertEquals(0, calls.get());
+        assertEquals(2, scheduler.concurrencyLimit(Model.GEMINI));
+    }
+
+    @Test
+    void call_ServesInteractiveCallersBeforeBackgroundOnes() throws Exception {
+        LlmCallScheduler scheduler = scheduler(1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<String> holder = CompletableFuture.supplyAsync(() -> scheduler.call(Model.GEMINI, () -> {
+            await(release);
+            return "holder";
+        }), executor);
+        sleep(50);
+        CompletableFuture<String> background = CompletableFuture.supplyAsync(() -> RequestPriority.inBackground(
+                () -> scheduler.call(Model.GEMINI, () -> {
+                    order.add("background");
+                    return "background";
+                })), executor);
+        sleep(50);
+        CompletableFuture<String> interactive = CompletableFuture.supplyAsync(() -> scheduler.call(Model.GEMINI, () -> {
+            order.add("interactive");
+            return "interactive";
+        }), executor);
+        sleep(50);
+        release.countDown();
+
+        CompletableFuture.allOf(holder, background, interactive).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("interactive", "background"), order);
+    }
+
+    @Test
+    void call_RetriesWhenThrottledAndHalvesTheLimit() {
+        LlmCallScheduler scheduler = scheduler(8, 2);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = scheduler.call(Model.GEMINI, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new RuntimeException("429 Too Many Requests: RESOURCE_EXHAUSTED, \"retryDelay\": \"0.01s\"");
+            }
+            return "answer";
+        });
+
+        assertEquals("answer", result);
+        assertEquals(2, attempts.get());
+        assertEquals(4, scheduler.concurrencyLimit(Model.GEMINI));
+    }
+
+    @Test
+    void call_GivesUpAfterMaxRetries() {
+        LlmCallScheduler scheduler = scheduler(8, 1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(RuntimeException.class, () -> scheduler.call(Model.GEMINI, () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("quota", new RuntimeException("RESOURCE_EXHAUSTED"));
+        }));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void call_OtherErrorsAreNotRetried() {
+        LlmCallScheduler scheduler = scheduler(8, 3);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> scheduler.call(Model.GEMINI, () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("prompt has 4290 tokens too many");
+        }));
+        assertEquals(1, attempts.get());
+        assertEquals(8, scheduler.concurrencyLimit(Model.GEMINI));
+    }
+
+    @Test
+    void call_LimitGrowsBackAfterSuccessfulCalls() {
+        LlmCallScheduler scheduler = scheduler(2, 0);
+        assertThrows(RuntimeException.class, () -> scheduler.call(Model.GEMINI, () -> {
+            throw new RuntimeException("HTTP 429");
+        }));
+        assertEquals(1, scheduler.concurrencyLimit(Model.GEMINI));
+
+        scheduler.call(Model.GEMINI, () -> "ok");
+
+        assertEquals(2, scheduler.concurrencyLimit(Model.GEMINI));
+    }
+
+    @Test
+    void stream_ReleasesTheSlotWhenCancelled() {
+        LlmCallScheduler scheduler = scheduler(8, 0);
+        List<String> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = scheduler.stream(Model.OLLAMA, () -> Flux.<String>never().startWith("chunk"))
+                .subscribe(received::add);
+        assertEquals(List.of("chunk"), received);
+
+        subscription.dispose();
+
+        assertEquals("next", CompletableFuture.supplyAsync(() -> scheduler.call(Model.OLLAMA, () -> "next"), executor)
+                .orTimeout(5, TimeUnit.SECONDS).join());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
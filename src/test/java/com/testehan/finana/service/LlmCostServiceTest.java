@@ -1,7 +1,6 @@
 package com.testehan.finana.service;
 
 import com.testehan.finana.model.llm.LlmUsage;
-import com.testehan.finana.repository.LlmUsageRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,7 +25,7 @@ import static org.mockito.Mockito.*;
 class LlmCostServiceTest {
 
     @Mock
-    private LlmUsageRepository llmUsageRepository;
+    private LlmUsageWriter llmUsageWriter;
 
     @Mock
     private UserCreditService userCreditService;
@@ -39,7 +38,7 @@ class LlmCostServiceTest {
 
     @BeforeEach
     void setUp() {
-        llmCostService = new LlmCostService(llmUsageRepository, userCreditService);
+        llmCostService = new LlmCostService(llmUsageWriter, userCreditService);
     }
 
     private ChatResponse buildResponse(int promptTokens, int completionTokens, int cachedTokens) {
@@ -63,7 +62,7 @@ class LlmCostServiceTest {
         llmCostService.logUsage(USER_EMAIL, chatResponse, "sentiment_analysis", "AAPL");
 
         ArgumentCaptor<LlmUsage> captor = ArgumentCaptor.forClass(LlmUsage.class);
-        verify(llmUsageRepository).save(captor.capture());
+        verify(llmUsageWriter).write(captor.capture());
         LlmUsage saved = captor.getValue();
 
         assertEquals("gemini-2.5-pro", saved.getModel());
@@ -77,13 +76,60 @@ class LlmCostServiceTest {
         assertTrue(saved.getTotalCostUsd().compareTo(BigDecimal.ZERO) > 0);
     }
 
+    @Test
+    void logCachedUsage_SavesZeroCostHitWithoutDeductingCredit() {
+        llmCostService.logCachedUsage(USER_EMAIL, "moat_analysis", "AAPL");
+
+        ArgumentCaptor<LlmUsage> captor = ArgumentCaptor.forClass(LlmUsage.class);
+        verify(llmUsageWriter).write(captor.capture());
+        LlmUsage saved = captor.getValue();
+
+        assertTrue(saved.isCacheHit());
+        assertTrue(saved.isSuccess());
+        assertEquals(0, saved.getPromptTokens());
+        assertEquals(0, BigDecimal.ZERO.compareTo(saved.getTotalCostUsd()));
+        verifyNoInteractions(userCreditService);
+    }
+
+    @Test
+    void logUsage_WithReservation_SettlesActualCost() {
+        buildResponse(1000, 500, 0);
+        CreditReservation reservation = new CreditReservation(USER_EMAIL, new BigDecimal("0.05"));
+
+        llmCostService.logUsage(USER_EMAIL, chatResponse, "moat_analysis", "AAPL", reservation);
+
+        verify(userCreditService).settle(reservation, llmCostService.calculateCost(1000, 500, 0));
+        verify(userCreditService, never()).deductCredit(anyString(), any());
+    }
+
+    @Test
+    void logUsage_WithoutReservation_DeductsCost() {
+        buildResponse(1000, 500, 0);
+
+        llmCostService.logUsage(USER_EMAIL, chatResponse, "moat_analysis", "AAPL");
+
+        verify(userCreditService).deductCredit(USER_EMAIL, llmCostService.calculateCost(1000, 500, 0));
+    }
+
+    @Test
+    void logUsageFailure_WithReservation_ReleasesHeldCredit() {
+        CreditReservation reservation = new CreditReservation(USER_EMAIL, new BigDecimal("0.05"));
+
+        llmCostService.logUsageFailure(USER_EMAIL, "moat_analysis", "AAPL", "timeout", reservation);
+
+        verify(userCreditService).release(reservation);
+        ArgumentCaptor<LlmUsage> captor = ArgumentCaptor.forClass(LlmUsage.class);
+        verify(llmUsageWriter).write(captor.capture());
+        assertFalse(captor.getValue().isSuccess());
+    }
+
     @Test
     void logUsage_WithCachedTokens() {
         buildResponse(50000, 1000, 40000);
         llmCostService.logUsage(USER_EMAIL, chatResponse, "sentiment_analysis", "MSFT");
 
         ArgumentCaptor<LlmUsage> captor = ArgumentCaptor.forClass(LlmUsage.class);
-        verify(llmUsageRepository).save(captor.capture());
+        verify(llmUsageWriter).write(captor.capture());
         LlmUsage saved = captor.getValue();
 
         assertEquals(50000, saved.getPromptTokens());
@@ -98,7 +144,7 @@ class LlmCostServiceTest {
         llmCostService.logUsage(USER_EMAIL, chatResponse, "deep_research", "GOOGL");
 
         ArgumentCaptor<LlmUsage> captor = ArgumentCaptor.forClass(LlmUsage.class);
-        verify(llmUsageRepository).save(captor.capture());
+        verify(llmUsageWriter).write(captor.capture());
         LlmUsage saved = captor.getValue();
 
         assertTrue(saved.getTotalCostUsd().compareTo(BigDecimal.ZERO) > 0);
@@ -110,7 +156,7 @@ class LlmCostServiceTest {
         llmCostService.logUsage(USER_EMAIL, chatResponse, "deep_research", "GOOGL");
 
         ArgumentCaptor<LlmUsage> captor = ArgumentCaptor.forClass(LlmUsage.class);
-        verify(llmUsageRepository).save(captor.capture());
+        verify(llmUsageWriter).write(captor.capture());
         LlmUsage saved = captor.getValue();
 
         assertTrue(saved.getTotalCostUsd().compareTo(BigDecimal.ZERO) > 0);
@@ -121,7 +167,7 @@ class LlmCostServiceTest {
         llmCostService.logUsage(USER_EMAIL, (ChatResponse) null, "sentiment_analysis", "AAPL");
 
         ArgumentCaptor<LlmUsage> captor = ArgumentCaptor.forClass(LlmUsage.class);
-        verify(llmUsageRepository).save(captor.capture());
+        verify(llmUsageWriter).write(captor.capture());
         LlmUsage saved = captor.getValue();
 
         assertEquals(0, saved.getPromptTokens());
@@ -137,7 +183,7 @@ class LlmCostServiceTest {
         llmCostService.logUsage(USER_EMAIL, chatResponse, "sentiment_analysis", "AAPL");
 
         ArgumentCaptor<LlmUsage> captor = ArgumentCaptor.forClass(LlmUsage.class);
-        verify(llmUsageRepository).save(captor.capture());
+        verify(llmUsageWriter).write(captor.capture());
         LlmUsage saved = captor.getValue();
 
         assertEquals(0, saved.getPromptTokens());
@@ -158,7 +204,7 @@ class LlmCostServiceTest {
         llmCostService.logUsage(USER_EMAIL, chatResponse, "sentiment_analysis", "AAPL");
 
         ArgumentCaptor<LlmUsage> captor = ArgumentCaptor.forClass(LlmUsage.class);
-        verify(llmUsageRepository).save(captor.capture());
+        verify(llmUsageWriter).write(captor.capture());
         LlmUsage saved = captor.getValue();
 
         assertEquals(0, saved.getCachedTokens());
@@ -169,7 +215,7 @@ class LlmCostServiceTest {
         llmCostService.logUsageFailure(USER_EMAIL, "sentiment_analysis", "AAPL", "Connection timeout");
 
         ArgumentCaptor<LlmUsage> captor = ArgumentCaptor.forClass(LlmUsage.class);
-        verify(llmUsageRepository).save(captor.capture());
+        verify(llmUsageWriter).write(captor.capture());
         LlmUsage saved = captor.getValue();
 
         assertEquals("gemini-2.5-pro", saved.getModel());
@@ -184,16 +230,16 @@ class LlmCostServiceTest {
     }
 
     @Test
-    void logUsage_RepositoryThrowsException_DoesNotRethrow() {
+    void logUsage_WriterThrowsException_DoesNotRethrow() {
         buildResponse(1000, 500, 0);
-        doThrow(new RuntimeException("DB connection failed")).when(llmUsageRepository).save(any());
+        doThrow(new RuntimeException("Journal not writable")).when(llmUsageWriter).write(any());
 
         assertDoesNotThrow(() -> llmCostService.logUsage(USER_EMAIL, chatResponse, "sentiment_analysis", "AAPL"));
     }
 
     @Test
-    void logUsage_FailureRepositoryThrows_DoesNotRethrow() {
-        doThrow(new RuntimeException("DB connection failed")).when(llmUsageRepository).save(any());
+    void logUsage_FailureWriterThrows_DoesNotRethrow() {
+        doThrow(new RuntimeException("Journal not writable")).when(llmUsageWriter).write(any());
 
         assertDoesNotThrow(() -> llmCostService.logUsageFailure(USER_EMAIL, "sentiment_analysis", "AAPL", "timeout"));
     }
@@ -204,7 +250,7 @@ class LlmCostServiceTest {
         llmCostService.logUsage(USER_EMAIL, chatResponse, "sentiment_analysis", "AAPL");
 
         ArgumentCaptor<LlmUsage> captor = ArgumentCaptor.forClass(LlmUsage.class);
-        verify(llmUsageRepository).save(captor.capture());
+        verify(llmUsageWriter).write(captor.capture());
         LlmUsage saved = captor.getValue();
 
         BigDecimal cost = saved.getTotalCostUsd();
@@ -0,0 +1,132 @@
+package com.testehan.finana.service;
+
+import com.testehan.finana.model.llm.LlmCachedResponse;
+import com.testehan.finana.repository.LlmCachedResponseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LlmResponseCacheTest {
+
+    @Mock
+    private LlmCachedResponseRepository repository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LlmResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LlmResponseCache(repository, meterRegistry, "gemini-2.5-pro", true, 168, 24,
+                Map.of("sentiment", 0L, "culture_analysis", 720L),
+                Set.of("moat_analysis", "culture_analysis", "insider_ownership_analysis", "sentiment"), 2);
+    }
+
+    @Test
+    void fingerprint_DependsOnModelOptionsAndPrompt() {
+        LlmResponseCache otherModel = new LlmResponseCache(repository, meterRegistry, "gemini-2.5-flash", true, 168, 24, Map.of(), Set.of(), 2);
+
+        String fingerprint = cache.fingerprint("default", "prompt");
+
+        assertEquals(fingerprint, cache.fingerprint("default", "prompt"));
+        assertNotEquals(fingerprint, cache.fingerprint("search", "prompt"));
+        assertNotEquals(fingerprint, cache.fingerprint("default", "prompt "));
+        assertNotEquals(fingerprint, otherModel.fingerprint("default", "prompt"));
+    }
+
+    @Test
+    void get_Hit_RecordsAccessAndCountsHit() {
+        when(repository.findById("fp")).thenReturn(Optional.of(entry("answer", LocalDateTime.now().plusHours(1))));
+
+        assertEquals(Optional.of("answer"), cache.get("fp", "moat_analysis"));
+        verify(repository).recordHit(eq("fp"), any(LocalDateTime.class));
+        assertEquals(1, meterRegistry.get("llm.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void get_ExpiredEntry_IsAMiss() {
+        when(repository.findById("fp")).thenReturn(Optional.of(entry("answer", LocalDateTime.now().minusMinutes(1))));
+
+        assertTrue(cache.get("fp", "moat_analysis").isEmpty());
+        verify(repository, never()).recordHit(any(), any());
+        assertEquals(1, meterRegistry.get("llm.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void get_OperationWithZeroTtl_IsNeverCached() {
+        assertTrue(cache.get("fp", "sentiment").isEmpty());
+        cache.put("fp", "sentiment", "AAPL", "answer", true);
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getAndPut_OperationNotAllowed_IsNeverCached() {
+        assertFalse(cache.isCacheable("chat"));
+        assertTrue(cache.get("fp", "chat").isEmpty());
+        cache.put("fp", "chat", "chat", "answer", false);
+        cache.put("fp", "growth_question_1", "AAPL", "answer", true);
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void put_UsesOperationOverrideBeforeSearchTtl() {
+        cache.put("fp", "culture_analysis", "AAPL", "answer", true);
+        cache.put("fp2", "insider_ownership_analysis", "AAPL", "answer", true);
+
+        ArgumentCaptor<LlmCachedResponse> captor = ArgumentCaptor.forClass(LlmCachedResponse.class);
+        verify(repository, times(2)).save(captor.capture());
+        List<LlmCachedResponse> saved = captor.getAllValues();
+        assertEquals(Duration.ofHours(720), Duration.between(saved.get(0).getCreatedAt(), saved.get(0).getExpiresAt()));
+        assertEquals(Duration.ofHours(24), Duration.between(saved.get(1).getCreatedAt(), saved.get(1).getExpiresAt()));
+    }
+
+    @Test
+    void evictLeastRecentlyUsed_DeletesOverflow() {
+        List<LlmCachedResponse> oldest = List.of(entry("a", null));
+        when(repository.count()).thenReturn(3L);
+        when(repository.findLeastRecentlyAccessed(any(Pageable.class))).thenReturn(oldest);
+
+        cache.evictLeastRecentlyUsed();
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(repository).findLeastRecentlyAccessed(captor.capture());
+        assertEquals(1, captor.getValue().getPageSize());
+        verify(repository).deleteAll(oldest);
+    }
+
+    @Test
+    void evictLeastRecentlyUsed_UnderLimit_DoesNothing() {
+        when(repository.count()).thenReturn(2L);
+
+        cache.evictLeastRecentlyUsed();
+
+        verify(repository, never()).deleteAll(any());
+    }
+
+    private LlmCachedResponse entry(String response, LocalDateTime expiresAt) {
+        LlmCachedResponse entry = new LlmCachedResponse();
+        entry.setFingerprint("fp");
+        entry.setResponse(response);
+        entry.setExpiresAt(expiresAt);
+        return entry;
+    }
+}
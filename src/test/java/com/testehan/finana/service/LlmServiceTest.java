@@ -1,11 +1,14 @@
 package com.testehan.finana.service;
 
+import com.testehan.finana.exception.InsufficientCreditException;
 import com.testehan.finana.service.mcp.StockDataTools;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.chat.client.ChatClient;
@@ -15,12 +18,18 @@ import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.google.genai.GoogleGenAiChatOptions;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -45,6 +54,9 @@ class LlmServiceTest {
     @Mock
     private LlmCostService llmCostService;
 
+    @Mock
+    private LlmResponseCache llmResponseCache;
+
     @Mock
     private UserCreditService userCreditService;
 
@@ -57,6 +69,7 @@ class LlmServiceTest {
     private LlmService llmService;
 
     private static final String TEST_USER = "test@example.com";
+    private static final CreditReservation RESERVATION = new CreditReservation(TEST_USER, new BigDecimal("0.05"));
 
     @AfterAll
     static void tearDownAll() {
@@ -73,8 +86,10 @@ class LlmServiceTest {
         lenient().when(chatClientBuilder.defaultOptions(any())).thenReturn(chatClientBuilder);
         lenient().when(chatModelProvider.getIfAvailable()).thenReturn(chatModel);
         lenient().when(userCreditService.hasAnyCredit(anyString())).thenReturn(true);
+        lenient().when(userCreditService.reserve(eq(TEST_USER), any())).thenReturn(RESERVATION);
 
-        llmService = new LlmService(chatModelProvider, chatClientBuilder, llmCostService, userCreditService, stockDataTools);
+        llmService = new LlmService(chatModelProvider, chatClientBuilder, llmCostService, llmResponseCache, userCreditService, stockDataTools,
+                new LlmCallScheduler(new SimpleMeterRegistry(), 8, 6000, 1, 6000, 0, 1));
     }
 
     @AfterEach
@@ -98,7 +113,8 @@ class LlmServiceTest {
         String result = llmService.callLlm("Hello", "test_op", "AAPL");
 
         assertEquals("Test response", result);
-        verify(llmCostService).logUsage(eq(TEST_USER), eq(response), eq("test_op"), eq("AAPL"));
+        verify(userCreditService).reserve(eq(TEST_USER), any(BigDecimal.class));
+        verify(llmCostService).logUsage(TEST_USER, response, "test_op", "AAPL", RESERVATION);
     }
 
     @Test
@@ -106,7 +122,7 @@ class LlmServiceTest {
         when(chatModel.call(any(Prompt.class))).thenThrow(new RuntimeException("API error"));
 
         assertThrows(RuntimeException.class, () -> llmService.callLlm("Hello", "test_op", "AAPL"));
-        verify(llmCostService).logUsageFailure(TEST_USER, "test_op", "AAPL", "API error");
+        verify(llmCostService).logUsageFailure(TEST_USER, "test_op", "AAPL", "API error", RESERVATION);
     }
 
     @Test
@@ -130,6 +146,90 @@ class LlmServiceTest {
         assertEquals("Search result", result);
     }
 
+    @Test
+    void callLlm_CacheHit_SkipsModelAndLogsZeroCostUsage() {
+        when(llmResponseCache.isCacheable("test_op")).thenReturn(true);
+        when(llmResponseCache.fingerprint("default", "Hello")).thenReturn("fp");
+        when(llmResponseCache.get("fp", "test_op")).thenReturn(Optional.of("Cached response"));
+
+        String result = llmService.callLlm("Hello", "test_op", "AAPL");
+
+        assertEquals("Cached response", result);
+        verify(chatModel, never()).call(any(Prompt.class));
+        verify(userCreditService, never()).reserve(anyString(), any());
+        verify(llmCostService).logCachedUsage(TEST_USER, "test_op", "AAPL");
+    }
+
+    @Test
+    void callLlm_CacheMiss_StoresResponse() {
+        when(llmResponseCache.isCacheable("test_op")).thenReturn(true);
+        ChatResponse response = buildResponse("Test response");
+        when(chatModel.call(any(Prompt.class))).thenReturn(response);
+        when(llmResponseCache.fingerprint("default", "Hello")).thenReturn("fp");
+
+        llmService.callLlm("Hello", "test_op", "AAPL");
+
+        verify(llmResponseCache).put("fp", "test_op", "AAPL", "Test response", false);
+    }
+
+    @Test
+    void callLlm_OptionsDifferingOnlyInMaxTokensOrTopP_UseDifferentCacheKeys() {
+        when(llmResponseCache.isCacheable("test_op")).thenReturn(true);
+        when(chatModel.call(any(Prompt.class))).thenReturn(buildResponse("Test response"));
+        when(llmResponseCache.fingerprint(anyString(), anyString())).thenReturn("fp");
+
+        llmService.callLlm(new Prompt("Hello", GoogleGenAiChatOptions.builder().temperature(0.2).maxOutputTokens(100).build()), "test_op", "AAPL");
+        llmService.callLlm(new Prompt("Hello", GoogleGenAiChatOptions.builder().temperature(0.2).maxOutputTokens(200).build()), "test_op", "AAPL");
+        llmService.callLlm(new Prompt("Hello", GoogleGenAiChatOptions.builder().temperature(0.2).maxOutputTokens(200).topP(0.5).build()), "test_op", "AAPL");
+
+        ArgumentCaptor<String> options = ArgumentCaptor.forClass(String.class);
+        verify(llmResponseCache, times(3)).fingerprint(options.capture(), anyString());
+        assertEquals(3, Set.copyOf(options.getAllValues()).size());
+    }
+
+    @Test
+    void callLlmWithSearch_Refresh_BypassesCachedResponse() {
+        when(llmResponseCache.isCacheable("search_op")).thenReturn(true);
+        ChatResponse response = buildResponse("Fresh result");
+        when(chatModel.call(any(Prompt.class))).thenReturn(response);
+        when(llmResponseCache.fingerprint(anyString(), eq("Find info"))).thenReturn("fp");
+
+        String result = llmService.callLlmWithSearch("Find info", "search_op", "AAPL", true);
+
+        assertEquals("Fresh result", result);
+        verify(llmResponseCache, never()).get(anyString(), anyString());
+        verify(llmResponseCache).put("fp", "search_op", "AAPL", "Fresh result", true);
+    }
+
+    @Test
+    void callLlm_Refresh_CallsModelAndReplacesCachedResponse() {
+        when(llmResponseCache.isCacheable("moat_analysis")).thenReturn(true);
+        ChatResponse response = buildResponse("Regenerated moat");
+        when(chatModel.call(any(Prompt.class))).thenReturn(response);
+        when(llmResponseCache.fingerprint(anyString(), anyString())).thenReturn("fp");
+
+        String result = llmService.callLlm(new Prompt(new UserMessage("Moat of AAPL")), "moat_analysis", "AAPL", true);
+
+        assertEquals("Regenerated moat", result);
+        verify(chatModel).call(any(Prompt.class));
+        verify(llmResponseCache).bypassed("moat_analysis");
+        verify(llmResponseCache, never()).get(anyString(), anyString());
+        verify(llmResponseCache).put("fp", "moat_analysis", "AAPL", "Regenerated moat", false);
+        verify(llmCostService).logUsage(TEST_USER, response, "moat_analysis", "AAPL", RESERVATION);
+    }
+
+    @Test
+    void callLlmWithOllama_ChatTurn_IsNeverCached() {
+        when(chatModel.call(any(Prompt.class))).thenReturn(buildResponse("Hi there"));
+
+        String result = llmService.callLlmWithOllama("You are an analyst", List.of(new UserMessage("Hello")));
+
+        assertEquals("Hi there", result);
+        verify(llmResponseCache).isCacheable("chat");
+        verify(llmResponseCache, never()).get(anyString(), anyString());
+        verify(llmResponseCache, never()).put(any(), any(), any(), any(), anyBoolean());
+    }
+
     @Test
     void streamLlm_Success_ReturnsFlux() {
         ChatResponse resp1 = buildResponse("Part1");
@@ -145,7 +245,7 @@ class LlmServiceTest {
                 .block();
 
         assertNotNull(results);
-        verify(llmCostService).logUsage(eq(TEST_USER), eq(lastResponse), eq("stream_op"), eq("AAPL"));
+        verify(llmCostService).logUsage(eq(TEST_USER), eq(lastResponse), eq("stream_op"), eq("AAPL"), eq(RESERVATION));
     }
 
     @Test
@@ -159,7 +259,95 @@ class LlmServiceTest {
                 .collectList()
                 .block();
 
-        verify(llmCostService).logUsageFailure(TEST_USER, "stream_op", "AAPL", "Stream error");
+        verify(llmCostService).logUsageFailure(TEST_USER, "stream_op", "AAPL", "Stream error", RESERVATION);
+    }
+
+    @Test
+    void streamLlm_EmitsChunksBeforeUpstreamCompletes() {
+        Sinks.Many<ChatResponse> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        when(chatModel.stream(any(Prompt.class))).thenReturn(upstream.asFlux());
+
+        Prompt prompt = new Prompt(new UserMessage("Hello"));
+        ChatResponse lastResponse = buildResponse("Part2");
+
+        StepVerifier.create(llmService.streamLlm(prompt, "stream_op", "AAPL"))
+                .then(() -> upstream.tryEmitNext(buildResponse("Part1")))
+                .expectNext("Part1")
+                .then(() -> verifyNoInteractions(llmCostService))
+                .then(() -> {
+                    upstream.tryEmitNext(lastResponse);
+                    upstream.tryEmitComplete();
+                })
+                .expectNext("Part2")
+                .verifyComplete();
+
+        verify(llmCostService).logUsage(eq(TEST_USER), eq(lastResponse), eq("stream_op"), eq("AAPL"), eq(RESERVATION));
+    }
+
+    @Test
+    void streamLlm_Cancelled_LogsPartialUsageOnce() {
+        ChatResponse firstChunk = buildResponse("Part1");
+        when(chatModel.stream(any(Prompt.class)))
+                .thenReturn(Flux.concat(Flux.just(firstChunk), Flux.never()));
+
+        Prompt prompt = new Prompt(new UserMessage("Hello"));
+
+        StepVerifier.create(llmService.streamLlm(prompt, "stream_op", "AAPL"))
+                .expectNext("Part1")
+                .thenCancel()
+                .verify();
+
+        verify(llmCostService, times(1)).logUsage(eq(TEST_USER), eq(firstChunk), eq("stream_op"), eq("AAPL"), eq(RESERVATION));
+        verify(llmCostService, never()).logUsageFailure(anyString(), anyString(), anyString(), anyString(), any(CreditReservation.class));
+    }
+
+    @Test
+    void streamLlm_ErrorAfterChunks_PropagatesError() {
+        when(chatModel.stream(any(Prompt.class)))
+                .thenReturn(Flux.concat(Flux.just(buildResponse("Part1")), Flux.error(new RuntimeException("Stream error"))));
+
+        Prompt prompt = new Prompt(new UserMessage("Hello"));
+
+        StepVerifier.create(llmService.streamLlm(prompt, "stream_op", "AAPL"))
+                .expectNext("Part1")
+                .verifyErrorMessage("Stream error");
+
+        verify(llmCostService).logUsageFailure(TEST_USER, "stream_op", "AAPL", "Stream error", RESERVATION);
+        verify(llmCostService, never()).logUsage(anyString(), any(), anyString(), anyString(), any(CreditReservation.class));
+    }
+
+    @Test
+    void streamLlm_ReservesCreditOnlyWhenSubscribed() {
+        when(chatModel.stream(any(Prompt.class))).thenReturn(Flux.just(buildResponse("Part1")));
+
+        Flux<String> stream = llmService.streamLlm(new Prompt(new UserMessage("Hello")), "stream_op", "AAPL");
+        verify(userCreditService, never()).reserve(anyString(), any());
+
+        stream.collectList().block();
+
+        verify(userCreditService).reserve(eq(TEST_USER), any(BigDecimal.class));
+    }
+
+    @Test
+    void streamLlm_NoCreditLeftToReserve_FailsWithoutCallingTheModel() {
+        when(userCreditService.reserve(eq(TEST_USER), any())).thenThrow(new InsufficientCreditException("Insufficient credit. Current balance: $0"));
+
+        StepVerifier.create(llmService.streamLlm(new Prompt(new UserMessage("Hello")), "stream_op", "AAPL"))
+                .verifyError(InsufficientCreditException.class);
+
+        verify(chatModel, never()).stream(any(Prompt.class));
+        verifyNoInteractions(llmCostService);
+    }
+
+    @Test
+    void streamLlm_CancelledBeforeFirstChunk_ReleasesTheReservation() {
+        when(chatModel.stream(any(Prompt.class))).thenReturn(Flux.never());
+
+        StepVerifier.create(llmService.streamLlm(new Prompt(new UserMessage("Hello")), "stream_op", "AAPL"))
+                .thenCancel()
+                .verify();
+
+        verify(llmCostService).logUsageFailure(TEST_USER, "stream_op", "AAPL", "Stream cancelled before first chunk", RESERVATION);
     }
 
     @Test
@@ -173,7 +361,19 @@ class LlmServiceTest {
                 .collectList()
                 .block();
 
-        verify(llmCostService).logUsage(eq(TEST_USER), any(ChatResponse.class), eq("search_stream"), eq("AAPL"));
+        verify(llmCostService).logUsage(eq(TEST_USER), any(ChatResponse.class), eq("search_stream"), eq("AAPL"), eq(RESERVATION));
+    }
+
+    @Test
+    void callLlmWithTools_Exception_ReleasesTheReservationItMadeBeforeTheCall() {
+        when(chatClient.prompt()).thenThrow(new RuntimeException("Tool call error"));
+
+        assertThrows(RuntimeException.class, () -> llmService.callLlmWithTools("How is AAPL doing?", "tools_op", "AAPL"));
+
+        var order = inOrder(userCreditService, chatClient, llmCostService);
+        order.verify(userCreditService).reserve(eq(TEST_USER), any(BigDecimal.class));
+        order.verify(chatClient).prompt();
+        order.verify(llmCostService).logUsageFailure(TEST_USER, "tools_op", "AAPL", "Tool call error", RESERVATION);
     }
 
     @Test
@@ -0,0 +1,144 @@
+package com.testehan.finana.service;
+
+import com.testehan.finana.model.llm.LlmUsage;
+import com.testehan.finana.model.llm.LlmUsageDailyRollup;
+import com.testehan.finana.model.llm.LlmUsageRollupState;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LlmUsageRollupServiceTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2026, 3, 10, 12, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private LlmUsageRollupService service() {
+        return new LlmUsageRollupService(mongoTemplate, true);
+    }
+
+    private static LlmUsageRollupState state(LocalDateTime backfilledAt, String... dirtyDays) {
+        LlmUsageRollupState state = new LlmUsageRollupState();
+        state.setCutoff(CUTOFF);
+        state.setBackfilledAt(backfilledAt);
+        state.setDirtyDays(new TreeSet<>(Set.of(dirtyDays)));
+        return state;
+    }
+
+    private static LlmUsage usage(LocalDateTime timestamp) {
+        LlmUsage usage = new LlmUsage();
+        usage.setUserEmail("user@example.com");
+        usage.setTimestamp(timestamp);
+        usage.setOperationType("moat_analysis");
+        usage.setSymbol("AAPL");
+        usage.setTotalCostUsd(new BigDecimal("0.01"));
+        usage.setSuccess(true);
+        return usage;
+    }
+
+    @Test
+    void prepare_FirstStart_StoresCutoffAndBackfillsTheUsageBeforeIt() {
+        when(mongoTemplate.findById(LlmUsageRollupState.ID, LlmUsageRollupState.class)).thenReturn(null);
+        when(mongoTemplate.getCollectionName(LlmUsageDailyRollup.class)).thenReturn("llm_usage_daily");
+
+        service().prepare();
+
+        ArgumentCaptor<LlmUsageRollupState> stored = ArgumentCaptor.forClass(LlmUsageRollupState.class);
+        verify(mongoTemplate).remove(any(Query.class), eq(LlmUsageDailyRollup.class));
+        verify(mongoTemplate).save(stored.capture());
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(LlmUsage.class), eq(Document.class));
+        String pipeline = aggregation.getValue().toString();
+        assertTrue(pipeline.contains("_id.rebuilt"));
+        assertTrue(pipeline.contains("$merge"));
+        verify(mongoTemplate).updateFirst(any(Query.class), argThat((Update update) ->
+                update.getUpdateObject().get("$set", Document.class).containsKey("backfilledAt")), eq(LlmUsageRollupState.class));
+        assertNotNull(stored.getValue().getCutoff());
+    }
+
+    @Test
+    void prepare_Backfilled_OnlyRebuildsDirtyDaysBeforeToday() {
+        String today = LocalDate.now().toString();
+        when(mongoTemplate.findById(LlmUsageRollupState.ID, LlmUsageRollupState.class))
+                .thenReturn(state(CUTOFF, "2026-03-11", today));
+        when(mongoTemplate.getCollectionName(LlmUsageDailyRollup.class)).thenReturn("llm_usage_daily");
+
+        service().prepare();
+
+        verify(mongoTemplate, never()).save(any(LlmUsageRollupState.class));
+        verify(mongoTemplate).remove(argThat((Query query) -> "2026-03-11".equals(query.getQueryObject().get("_id.day"))),
+                eq(LlmUsageDailyRollup.class));
+        verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq(LlmUsage.class), eq(Document.class));
+    }
+
+    @Test
+    void record_BackfillFailed_RefusesToIncrement() {
+        when(mongoTemplate.findById(LlmUsageRollupState.ID, LlmUsageRollupState.class)).thenReturn(state(null));
+        when(mongoTemplate.getCollectionName(LlmUsageDailyRollup.class)).thenReturn("llm_usage_daily");
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(LlmUsage.class), eq(Document.class)))
+                .thenThrow(new RuntimeException("Mongo down"));
+        LlmUsageRollupService service = service();
+        service.prepare();
+
+        assertThrows(IllegalStateException.class, () -> service.record(List.of(usage(CUTOFF.plusHours(1)))));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(LlmUsageDailyRollup.class));
+    }
+
+    @Test
+    void record_Backfilled_IncrementsOneRollupPerKey() {
+        when(mongoTemplate.findById(LlmUsageRollupState.ID, LlmUsageRollupState.class)).thenReturn(state(CUTOFF));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LlmUsageDailyRollup.class)).thenReturn(bulkOperations);
+        LlmUsageRollupService service = service();
+        service.prepare();
+
+        service.record(List.of(usage(CUTOFF.minusDays(1)), usage(CUTOFF.plusHours(1)), usage(CUTOFF.plusHours(2))));
+
+        verify(bulkOperations, times(2)).upsert(any(Query.class), any(Update.class));
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    void covers_OnlyBackfilledDaysWithoutDirtyOnes() {
+        when(mongoTemplate.findById(LlmUsageRollupState.ID, LlmUsageRollupState.class))
+                .thenReturn(state(null), state(CUTOFF, "2026-03-20"), state(CUTOFF, "2026-03-20"));
+        LlmUsageRollupService service = service();
+
+        assertFalse(service.covers(LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 12)));
+        assertFalse(service.covers(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31)));
+        assertTrue(service.covers(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 19)));
+    }
+
+    @Test
+    void markDirty_AddsTheDaysOfTheUsage() {
+        service().markDirty(List.of(usage(CUTOFF), usage(CUTOFF.plusDays(1))));
+
+        verify(mongoTemplate).upsert(any(Query.class), argThat((Update update) ->
+                update.getUpdateObject().get("$addToSet", Document.class).toString().contains("2026-03-11")),
+                eq(LlmUsageRollupState.class));
+    }
+}
@@ -0,0 +1,119 @@
+package com.testehan.finana.service;
+
+import com.testehan.finana.model.llm.LlmUsage;
+import com.testehan.finana.model.llm.LlmUsageDailyRollup;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LlmUsageSummaryServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LlmUsageRollupService llmUsageRollupService;
+
+    private LlmUsageSummaryService service() {
+        return new LlmUsageSummaryService(mongoTemplate, llmUsageRollupService);
+    }
+
+    private static LlmUsageSummaryService.OperationTotals totals(String operation, long calls, long successful,
+                                                                 long prompt, long completion, String cost) {
+        LlmUsageSummaryService.OperationTotals totals = new LlmUsageSummaryService.OperationTotals();
+        totals.setOperationType(operation);
+        totals.setCalls(calls);
+        totals.setSuccessfulCalls(successful);
+        totals.setPromptTokens(prompt);
+        totals.setCompletionTokens(completion);
+        totals.setTotalCostUsd(new BigDecimal(cost));
+        return totals;
+    }
+
+    private static AggregationResults<LlmUsageSummaryService.OperationTotals> results(
+            LlmUsageSummaryService.OperationTotals... totals) {
+        return new AggregationResults<>(List.of(totals), new Document());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void summarize_CombinesTotalsPerOperation() {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(LlmUsage.class), eq(LlmUsageSummaryService.OperationTotals.class)))
+                .thenReturn(results(
+                        totals("moat_analysis", 3, 2, 100, 50, "0.30"),
+                        totals("ferol_report", 1, 1, 10, 5, "0.05")));
+
+        Map<String, Object> summary = service().summarize("user@example.com", null, null,
+                LocalDateTime.of(2026, 1, 1, 9, 30), null);
+
+        assertEquals(4L, summary.get("totalCalls"));
+        assertEquals(3L, summary.get("successfulCalls"));
+        assertEquals(1L, summary.get("failedCalls"));
+        assertEquals(110L, summary.get("totalPromptTokens"));
+        assertEquals(new BigDecimal("0.35"), summary.get("totalCostUsd"));
+        assertEquals(150L, ((Map<String, Long>) summary.get("tokensByOperation")).get("moat_analysis"));
+        assertEquals(new BigDecimal("0.05"), ((Map<String, BigDecimal>) summary.get("costByOperation")).get("ferol_report"));
+    }
+
+    @Test
+    void summarize_WholeDaysCoveredByRollups_ReadsRollups() {
+        when(llmUsageRollupService.covers(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31))).thenReturn(true);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(LlmUsageDailyRollup.class), eq(LlmUsageSummaryService.OperationTotals.class)))
+                .thenReturn(results(totals("moat_analysis", 2, 2, 10, 10, "0.02")));
+
+        Map<String, Object> summary = service().summarize("user@example.com", "AAPL", null,
+                LocalDateTime.of(2026, 1, 1, 0, 0), LocalDateTime.of(2026, 2, 1, 0, 0));
+
+        assertEquals(2L, summary.get("totalCalls"));
+        ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(captor.capture(), eq(LlmUsageDailyRollup.class), eq(LlmUsageSummaryService.OperationTotals.class));
+        String pipeline = captor.getValue().toString();
+        assertTrue(pipeline.contains("2026-01-31"));
+        assertTrue(pipeline.contains("AAPL"));
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), eq(LlmUsage.class), any());
+    }
+
+    @Test
+    void summarize_PartialDay_AggregatesRawUsage() {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(LlmUsage.class), eq(LlmUsageSummaryService.OperationTotals.class)))
+                .thenReturn(results());
+
+        Map<String, Object> summary = service().summarize("user@example.com", null, "moat_analysis",
+                LocalDateTime.of(2026, 1, 1, 0, 0), LocalDateTime.of(2026, 1, 1, 12, 0));
+
+        assertEquals(0L, summary.get("totalCalls"));
+        assertEquals(BigDecimal.ZERO, summary.get("totalCostUsd"));
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), eq(LlmUsageDailyRollup.class), any());
+    }
+
+    @Test
+    void summarize_WholeDaysNotCoveredByRollups_AggregatesRawUsage() {
+        when(llmUsageRollupService.covers(LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 31))).thenReturn(false);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(LlmUsage.class), eq(LlmUsageSummaryService.OperationTotals.class)))
+                .thenReturn(results(totals("moat_analysis", 5, 5, 50, 50, "0.05")));
+
+        Map<String, Object> summary = service().summarize("user@example.com", null, null,
+                LocalDateTime.of(2025, 12, 1, 0, 0), LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        assertEquals(5L, summary.get("totalCalls"));
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), eq(LlmUsageDailyRollup.class), any());
+    }
+}
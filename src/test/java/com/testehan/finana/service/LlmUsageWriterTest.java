@@ -0,0 +1,231 @@
+package com.testehan.finana.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.testehan.finana.model.llm.LlmUsage;
+import com.testehan.finana.repository.LlmUsageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LlmUsageWriterTest {
+
+    @Mock
+    private LlmUsageRepository llmUsageRepository;
+
+    @Mock
+    private LlmUsageRollupService llmUsageRollupService;
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LlmUsageWriter writer(int capacity, LlmUsageWriter.OverflowPolicy policy) {
+        return new LlmUsageWriter(llmUsageRepository, llmUsageRollupService, objectMapper, meterRegistry, capacity, 10, 50, 1000, policy,
+                tempDir.resolve("journal.jsonl").toString());
+    }
+
+    private LlmUsage usage(String symbol) {
+        LlmUsage usage = new LlmUsage();
+        usage.setTimestamp(LocalDateTime.of(2026, 1, 2, 3, 4));
+        usage.setOperationType("moat_analysis");
+        usage.setSymbol(symbol);
+        usage.setTotalCostUsd(new BigDecimal("0.012"));
+        usage.setSuccess(true);
+        return usage;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void stop_FlushesQueuedRecordsInOneInsert() throws Exception {
+        LlmUsageWriter writer = writer(100, LlmUsageWriter.OverflowPolicy.SPILL);
+        writer.start();
+        writer.write(usage("AAPL"));
+        writer.write(usage("MSFT"));
+
+        writer.stop();
+
+        ArgumentCaptor<List<LlmUsage>> captor = ArgumentCaptor.forClass(List.class);
+        verify(llmUsageRepository, atLeastOnce()).insert(captor.capture());
+        assertEquals(2, captor.getAllValues().stream().mapToInt(List::size).sum());
+        assertFalse(Files.exists(tempDir.resolve("journal.jsonl")));
+        assertFalse(Files.exists(tempDir.resolve("journal.jsonl.wal")));
+    }
+
+    @Test
+    void write_JournalsRecordBeforeQueueing_SoACrashDoesNotLoseIt() throws Exception {
+        LlmUsageWriter crashed = writer(100, LlmUsageWriter.OverflowPolicy.SPILL);
+        crashed.write(usage("AAPL"));
+
+        assertEquals(1, Files.readAllLines(tempDir.resolve("journal.jsonl.wal")).size());
+
+        writer(100, LlmUsageWriter.OverflowPolicy.SPILL).replayJournal();
+
+        verify(llmUsageRepository).insert(argThat((LlmUsage usage) -> "AAPL".equals(usage.getSymbol())));
+        assertFalse(Files.exists(tempDir.resolve("journal.jsonl.wal")));
+    }
+
+    @Test
+    void flush_NothingQueued_TruncatesTheWriteAheadJournalAndKeepsAppendingToIt() throws Exception {
+        Path writeAheadJournal = tempDir.resolve("journal.jsonl.wal");
+        List<List<String>> journaledAtInsert = new CopyOnWriteArrayList<>();
+        when(llmUsageRepository.insert(anyList())).thenAnswer(invocation -> {
+            journaledAtInsert.add(Files.readAllLines(writeAheadJournal));
+            return invocation.getArgument(0);
+        });
+        LlmUsageWriter writer = writer(100, LlmUsageWriter.OverflowPolicy.SPILL);
+        writer.start();
+        writer.write(usage("AAPL"));
+        // rolled up after the journal is truncated
+        verify(llmUsageRollupService, timeout(1000)).record(anyList());
+
+        writer.write(usage("MSFT"));
+        writer.stop();
+
+        assertEquals(2, journaledAtInsert.size());
+        assertTrue(journaledAtInsert.get(0).getFirst().contains("AAPL"));
+        assertEquals(1, journaledAtInsert.get(1).size());
+        assertTrue(journaledAtInsert.get(1).getFirst().contains("MSFT"));
+        assertFalse(Files.exists(writeAheadJournal));
+    }
+
+    @Test
+    void write_QueueFullWithSpill_JournalsRecordAndReplaysIt() {
+        LlmUsageWriter writer = writer(1, LlmUsageWriter.OverflowPolicy.SPILL);
+        writer.write(usage("AAPL"));
+        writer.write(usage("MSFT"));
+
+        assertTrue(Files.exists(tempDir.resolve("journal.jsonl")));
+        assertEquals(1, meterRegistry.get("llm.usage.spilled").counter().count());
+
+        writer.replayJournal();
+
+        verify(llmUsageRepository).insert(argThat((LlmUsage usage) -> "MSFT".equals(usage.getSymbol())
+                && usage.getId() != null && new BigDecimal("0.012").equals(usage.getTotalCostUsd())));
+        // AAPL was queued, it is replayed from the write-ahead journal
+        verify(llmUsageRollupService, times(2)).record(argThat(usages -> usages.size() == 1));
+        assertFalse(Files.exists(tempDir.resolve("journal.jsonl")));
+    }
+
+    @Test
+    void replayJournal_RecordAlreadyStored_SkipsItAndMarksItsDayDirty() throws Exception {
+        when(llmUsageRepository.insert(anyList())).thenThrow(new RuntimeException("Mongo down"));
+        LlmUsageWriter writer = writer(100, LlmUsageWriter.OverflowPolicy.SPILL);
+        LlmUsage stored = usage("AAPL");
+        stored.setId("65f0c0ffee0000000000beef");
+        LlmUsage lost = usage("MSFT");
+        lost.setId("65f0c0ffee0000000000cafe");
+        writer.flush(List.of(stored, lost));
+        // MSFT does not match, lenient keeps strict stubbing from rejecting its insert
+        lenient().when(llmUsageRepository.insert(argThat((LlmUsage usage) -> "AAPL".equals(usage.getSymbol()))))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        writer.replayJournal();
+
+        verify(llmUsageRollupService).record(argThat(usages -> usages.size() == 1
+                && "65f0c0ffee0000000000cafe".equals(usages.get(0).getId())));
+        verify(llmUsageRollupService).markDirty(argThat(usages -> usages.size() == 1
+                && "65f0c0ffee0000000000beef".equals(usages.iterator().next().getId())));
+        assertFalse(Files.exists(tempDir.resolve("journal.jsonl")));
+    }
+
+    @Test
+    void write_AfterStop_GoesToTheJournal() throws Exception {
+        LlmUsageWriter writer = writer(100, LlmUsageWriter.OverflowPolicy.SPILL);
+        writer.start();
+        writer.stop();
+
+        writer.write(usage("AAPL"));
+
+        assertEquals(1, Files.readAllLines(tempDir.resolve("journal.jsonl")).size());
+        verify(llmUsageRepository, never()).insert(anyList());
+    }
+
+    @Test
+    void write_AssignsIdBeforeQueueing() {
+        LlmUsageWriter writer = writer(100, LlmUsageWriter.OverflowPolicy.SPILL);
+        LlmUsage usage = usage("AAPL");
+
+        writer.write(usage);
+
+        assertNotNull(usage.getId());
+    }
+
+    @Test
+    void write_QueueFullWithDrop_CountsDroppedRecord() {
+        LlmUsageWriter writer = writer(1, LlmUsageWriter.OverflowPolicy.DROP);
+        writer.write(usage("AAPL"));
+        writer.write(usage("MSFT"));
+
+        assertEquals(1, meterRegistry.get("llm.usage.dropped").counter().count());
+        assertFalse(Files.exists(tempDir.resolve("journal.jsonl")));
+    }
+
+    @Test
+    void flush_InsertFails_SpillsBatchToJournal() throws Exception {
+        when(llmUsageRepository.insert(anyList())).thenThrow(new RuntimeException("Mongo down"));
+        LlmUsageWriter writer = writer(100, LlmUsageWriter.OverflowPolicy.SPILL);
+
+        writer.flush(List.of(usage("AAPL"), usage("MSFT")));
+
+        assertEquals(2, Files.readAllLines(tempDir.resolve("journal.jsonl")).size());
+        verifyNoInteractions(llmUsageRollupService);
+    }
+
+    @Test
+    void flush_Inserted_RollsUpBatch() {
+        LlmUsageWriter writer = writer(100, LlmUsageWriter.OverflowPolicy.SPILL);
+        List<LlmUsage> batch = List.of(usage("AAPL"), usage("MSFT"));
+
+        writer.flush(batch);
+
+        verify(llmUsageRepository).insert(batch);
+        verify(llmUsageRollupService).record(batch);
+    }
+
+    @Test
+    void flush_RollupFails_MarksDaysDirty() {
+        List<LlmUsage> batch = List.of(usage("AAPL"));
+        doThrow(new IllegalStateException("LLM usage rollups are not prepared")).when(llmUsageRollupService).record(batch);
+        LlmUsageWriter writer = writer(100, LlmUsageWriter.OverflowPolicy.SPILL);
+
+        writer.flush(batch);
+
+        verify(llmUsageRollupService).markDirty(batch);
+        assertFalse(Files.exists(tempDir.resolve("journal.jsonl")));
+    }
+
+    @Test
+    void start_PreparesRollupsBeforeReplayingTheJournal() throws Exception {
+        LlmUsageWriter writer = writer(1, LlmUsageWriter.OverflowPolicy.SPILL);
+        writer.write(usage("AAPL"));
+        writer.write(usage("MSFT"));
+
+        writer.start();
+        writer.stop();
+
+        var order = inOrder(llmUsageRollupService, llmUsageRepository);
+        order.verify(llmUsageRollupService).prepare();
+        order.verify(llmUsageRepository).insert(any(LlmUsage.class));
+    }
+}
@@ -1,21 +1,33 @@
 package com.testehan.finana.service;
 
+import com.testehan.finana.config.MongoServerVersion;
 import com.testehan.finana.model.quote.GlobalQuote;
 import com.testehan.finana.model.quote.IndexData;
+import com.testehan.finana.model.quote.IndexQuoteBar;
 import com.testehan.finana.model.quote.IndexQuotes;
+import com.testehan.finana.model.quote.QuoteBars;
+import com.testehan.finana.model.quote.StockQuoteBar;
 import com.testehan.finana.model.quote.StockQuotes;
+import com.testehan.finana.repository.IndexQuoteBarRepository;
 import com.testehan.finana.repository.IndexQuotesRepository;
+import com.testehan.finana.repository.StockQuoteBarRepository;
 import com.testehan.finana.repository.StockQuotesRepository;
 import com.testehan.finana.util.DateUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,136 +44,285 @@ class QuoteServiceTest {
     @Mock
     private StockQuotesRepository stockQuotesRepository;
 
+    @Mock
+    private StockQuoteBarRepository stockQuoteBarRepository;
+
     @Mock
     private IndexQuotesRepository indexQuotesRepository;
 
+    @Mock
+    private IndexQuoteBarRepository indexQuoteBarRepository;
+
     @Mock
     private DateUtils dateUtils;
 
+    @Mock
+    private MongoServerVersion mongoServerVersion;
+
     private QuoteService quoteService;
 
     @BeforeEach
     void setUp() {
-        quoteService = new QuoteService(fmpService, stockQuotesRepository, indexQuotesRepository, dateUtils);
+        lenient().when(mongoServerVersion.supportsArbitraryTimeSeriesDeletes()).thenReturn(true);
+        quoteService = new QuoteService(fmpService, stockQuotesRepository, stockQuoteBarRepository,
+                indexQuotesRepository, indexQuoteBarRepository, dateUtils, mongoServerVersion, 500);
     }
 
-    @Test
-    void getLastStockQuote_CacheHit_ReturnsCachedQuote() {
-        String symbol = "AAPL";
+    private GlobalQuote quote(String date, String adjClose) {
         GlobalQuote quote = new GlobalQuote();
-        quote.setSymbol(symbol);
-        quote.setPrice("150.00");
+        quote.setSymbol("AAPL");
+        quote.setDate(date);
+        quote.setAdjClose(adjClose);
+        quote.setVolume("1000");
+        return quote;
+    }
+
+    private StockQuoteBar bar(String date, double adjClose) {
+        return QuoteBars.stockBarsOf("AAPL", List.of(quote(date, String.valueOf(adjClose)))).get(0);
+    }
+
+    private IndexQuoteBar indexBar(String date, double price) {
+        IndexData indexData = new IndexData();
+        indexData.setDate(date);
+        indexData.setPrice(price);
+        return QuoteBars.indexBarsOf("^GSPC", List.of(indexData)).get(0);
+    }
+
+    private void mockStoredBars(StockQuoteBar... bars) {
+        List<StockQuoteBar> ascending = new ArrayList<>(Arrays.asList(bars));
+        ascending.sort(Comparator.comparing(StockQuoteBar::getDate));
+        when(stockQuoteBarRepository.findBySymbolOrderByDateAsc("AAPL")).thenReturn(ascending);
+    }
 
+    private void mockLastUpdated(LocalDateTime lastUpdated) {
         StockQuotes stockQuotes = new StockQuotes();
-        stockQuotes.setSymbol(symbol);
-        stockQuotes.setQuotes(List.of(quote));
-        stockQuotes.setLastUpdated(LocalDateTime.now());
+        stockQuotes.setSymbol("AAPL");
+        stockQuotes.setLastUpdated(lastUpdated);
+        when(stockQuotesRepository.findLastUpdatedBySymbol("AAPL")).thenReturn(Optional.of(stockQuotes));
+    }
 
-        when(stockQuotesRepository.findBySymbol(symbol)).thenReturn(Optional.of(stockQuotes));
+    @Test
+    void getLastStockQuote_CacheHit_ReturnsCachedQuote() {
+        mockLastUpdated(LocalDateTime.now());
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc("AAPL")).thenReturn(Optional.of(bar("2024-06-14", 150.0)));
         when(dateUtils.isRecent(any(), anyInt())).thenReturn(true);
-        when(stockQuotesRepository.findLastQuoteBySymbol(symbol)).thenReturn(Optional.of(quote));
 
-        GlobalQuote result = quoteService.getLastStockQuote(symbol).block();
+        GlobalQuote result = quoteService.getLastStockQuote("AAPL").block();
 
         assertNotNull(result);
-        assertEquals("150.00", result.getPrice());
+        assertEquals("150.0", result.getAdjClose());
+        assertEquals("2024-06-14", result.getDate());
         verify(fmpService, never()).getHistoricalDividendAdjustedEodPrice(anyString());
     }
 
     @Test
     void getLastStockQuote_CacheMiss_FetchesFromApi() {
-        String symbol = "AAPL";
-        GlobalQuote quote = new GlobalQuote();
-        quote.setSymbol(symbol);
-        quote.setPrice("155.00");
-
-        when(stockQuotesRepository.findBySymbol(symbol)).thenReturn(Optional.empty());
-        lenient().when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
-        when(fmpService.getHistoricalDividendAdjustedEodPrice(symbol)).thenReturn(Mono.just(List.of(quote)));
-        when(stockQuotesRepository.save(any(StockQuotes.class))).thenAnswer(i -> i.getArguments()[0]);
-        when(stockQuotesRepository.findLastQuoteBySymbol(symbol)).thenReturn(Optional.of(quote));
+        StockQuoteBar fetched = bar("2024-06-14", 155.0);
+        when(stockQuotesRepository.findLastUpdatedBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc("AAPL"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(fetched));
+        when(fmpService.getHistoricalDividendAdjustedEodPrice("AAPL")).thenReturn(Mono.just(List.of(quote("2024-06-14", "155.0"))));
+        when(stockQuotesRepository.updateLastUpdated(eq("AAPL"), any())).thenReturn(0L);
 
-        GlobalQuote result = quoteService.getLastStockQuote(symbol).block();
+        GlobalQuote result = quoteService.getLastStockQuote("AAPL").block();
 
         assertNotNull(result);
-        assertEquals("155.00", result.getPrice());
+        assertEquals("155.0", result.getAdjClose());
+        InOrder writes = inOrder(stockQuoteBarRepository);
+        writes.verify(stockQuoteBarRepository).insert(anyList());
+        writes.verify(stockQuoteBarRepository).deleteBySymbolAndBatchNot(eq("AAPL"), anyString());
+        verify(stockQuotesRepository).save(any(StockQuotes.class));
     }
 
     @Test
-    void getLastStockQuote_ApiEmpty_ReturnsCachedIfAvailable() {
-        String symbol = "AAPL";
-        GlobalQuote oldQuote = new GlobalQuote();
-        oldQuote.setSymbol(symbol);
-        oldQuote.setPrice("145.00");
+    void getLastStockQuote_RewriteFails_KeepsTheStoredHistory() {
+        mockLastUpdated(LocalDateTime.now().minusDays(3));
+        List<GlobalQuote> adjustedHistory = List.of(quote("2024-06-17", "101.5"), quote("2024-06-14", "98.2"));
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc("AAPL")).thenReturn(Optional.of(bar("2024-06-14", 99.0)));
+        when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
+        when(fmpService.getHistoricalDividendAdjustedEodPrice(eq("AAPL"), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Mono.just(adjustedHistory));
+        when(fmpService.getHistoricalDividendAdjustedEodPrice("AAPL")).thenReturn(Mono.just(adjustedHistory));
+        when(stockQuoteBarRepository.insert(anyList())).thenThrow(new RuntimeException("write failed"));
 
-        StockQuotes stockQuotes = new StockQuotes();
-        stockQuotes.setSymbol(symbol);
-        stockQuotes.setQuotes(List.of(oldQuote));
-        stockQuotes.setLastUpdated(LocalDateTime.now().minusHours(1));
+        GlobalQuote result = quoteService.getLastStockQuote("AAPL").block();
 
-        when(stockQuotesRepository.findBySymbol(symbol)).thenReturn(Optional.of(stockQuotes));
+        assertEquals("99.0", result.getAdjClose());
+        verify(stockQuoteBarRepository).deleteBySymbolAndBatch(eq("AAPL"), anyString());
+        verify(stockQuoteBarRepository, never()).deleteBySymbolAndBatchNot(anyString(), anyString());
+        verify(stockQuoteBarRepository, never()).deleteBySymbol(anyString());
+    }
+
+    @Test
+    void getLastStockQuote_ServerOlderThanSeven_RemovesTheSymbolsBarsBeforeWritingTheHistory() {
+        when(mongoServerVersion.supportsArbitraryTimeSeriesDeletes()).thenReturn(false);
+        mockLastUpdated(LocalDateTime.now().minusDays(3));
+        List<GlobalQuote> adjustedHistory = List.of(quote("2024-06-17", "101.5"), quote("2024-06-14", "98.2"));
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc("AAPL"))
+                .thenReturn(Optional.of(bar("2024-06-14", 99.0)))
+                .thenReturn(Optional.of(bar("2024-06-17", 101.5)));
         when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
-        when(fmpService.getHistoricalDividendAdjustedEodPrice(symbol)).thenReturn(Mono.just(List.of()));
-        when(stockQuotesRepository.findLastQuoteBySymbol(symbol)).thenReturn(Optional.of(oldQuote));
+        when(fmpService.getHistoricalDividendAdjustedEodPrice(eq("AAPL"), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Mono.just(adjustedHistory));
+        when(fmpService.getHistoricalDividendAdjustedEodPrice("AAPL")).thenReturn(Mono.just(adjustedHistory));
+        when(stockQuotesRepository.updateLastUpdated(eq("AAPL"), any())).thenReturn(1L);
 
-        GlobalQuote result = quoteService.getLastStockQuote(symbol).block();
+        quoteService.getLastStockQuote("AAPL").block();
 
-        assertNotNull(result);
-        assertEquals("145.00", result.getPrice());
+        InOrder writes = inOrder(stockQuoteBarRepository);
+        writes.verify(stockQuoteBarRepository).deleteBySymbol("AAPL");
+        writes.verify(stockQuoteBarRepository).insert(anyList());
+        verify(stockQuoteBarRepository, never()).deleteBySymbolAndBatchNot(anyString(), anyString());
     }
 
     @Test
-    void getLastStockQuote_ApiFails_ReturnsCachedIfAvailable() {
-        String symbol = "AAPL";
-        GlobalQuote oldQuote = new GlobalQuote();
-        oldQuote.setSymbol(symbol);
-        oldQuote.setPrice("145.00");
+    void getLastStockQuote_ApiEmpty_ReturnsCachedIfAvailable() {
+        mockLastUpdated(LocalDateTime.now().minusHours(1));
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc("AAPL")).thenReturn(Optional.of(bar("2024-06-14", 145.0)));
+        when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
+        when(fmpService.getHistoricalDividendAdjustedEodPrice(eq("AAPL"), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Mono.just(List.of()));
 
-        StockQuotes stockQuotes = new StockQuotes();
-        stockQuotes.setSymbol(symbol);
-        stockQuotes.setQuotes(List.of(oldQuote));
-        stockQuotes.setLastUpdated(LocalDateTime.now().minusHours(1));
+        GlobalQuote result = quoteService.getLastStockQuote("AAPL").block();
+
+        assertNotNull(result);
+        assertEquals("145.0", result.getAdjClose());
+        verify(stockQuoteBarRepository, never()).insert(anyList());
+    }
 
-        when(stockQuotesRepository.findBySymbol(symbol)).thenReturn(Optional.of(stockQuotes));
+    @Test
+    void getLastStockQuote_ApiFails_ReturnsCachedIfAvailable() {
+        mockLastUpdated(LocalDateTime.now().minusHours(1));
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc("AAPL")).thenReturn(Optional.of(bar("2024-06-14", 145.0)));
         when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
-        when(fmpService.getHistoricalDividendAdjustedEodPrice(symbol))
+        when(fmpService.getHistoricalDividendAdjustedEodPrice(eq("AAPL"), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(Mono.error(new RuntimeException("API down")));
-        when(stockQuotesRepository.findLastQuoteBySymbol(symbol)).thenReturn(Optional.of(oldQuote));
 
-        GlobalQuote result = quoteService.getLastStockQuote(symbol).block();
+        GlobalQuote result = quoteService.getLastStockQuote("AAPL").block();
 
         assertNotNull(result);
-        assertEquals("145.00", result.getPrice());
+        assertEquals("145.0", result.getAdjClose());
     }
 
     @Test
     void getLastStockQuote_ApiFailsNoCache_ThrowsException() {
-        String symbol = "AAPL";
-
-        when(stockQuotesRepository.findBySymbol(symbol)).thenReturn(Optional.empty());
-        lenient().when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
-        when(fmpService.getHistoricalDividendAdjustedEodPrice(symbol))
+        when(stockQuotesRepository.findLastUpdatedBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc("AAPL")).thenReturn(Optional.empty());
+        when(fmpService.getHistoricalDividendAdjustedEodPrice("AAPL"))
                 .thenReturn(Mono.error(new RuntimeException("API down")));
 
-        assertThrows(RuntimeException.class, () -> quoteService.getLastStockQuote(symbol).block());
+        assertThrows(RuntimeException.class, () -> quoteService.getLastStockQuote("AAPL").block());
     }
 
+    @SuppressWarnings("unchecked")
     @Test
-    void getIndexQuotes_CacheHit_ReturnsCached() {
-        String symbol = "^GSPC";
-        IndexData data = new IndexData();
-        data.setSymbol(symbol);
+    void getLastStockQuote_StaleCache_InsertsOnlyNewBars() {
+        StockQuoteBar lastStored = bar("2024-06-14", 99.0);
+        mockLastUpdated(LocalDateTime.now().minusDays(3));
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc("AAPL"))
+                .thenReturn(Optional.of(lastStored))
+                .thenReturn(Optional.of(bar("2024-06-17", 101.5)));
+        when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
+        when(fmpService.getHistoricalDividendAdjustedEodPrice(eq("AAPL"), eq(LocalDate.of(2024, 6, 14)), any(LocalDate.class)))
+                .thenReturn(Mono.just(List.of(quote("2024-06-17", "101.5"), quote("2024-06-14", "99.0"))));
+        when(stockQuotesRepository.updateLastUpdated(eq("AAPL"), any())).thenReturn(1L);
+
+        GlobalQuote result = quoteService.getLastStockQuote("AAPL").block();
+
+        assertEquals("2024-06-17", result.getDate());
+        ArgumentCaptor<List<StockQuoteBar>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(stockQuoteBarRepository).insert(inserted.capture());
+        assertEquals(1, inserted.getValue().size());
+        assertEquals(LocalDate.of(2024, 6, 17), inserted.getValue().get(0).getTradingDay());
+        verify(stockQuoteBarRepository, never()).deleteBySymbolAndBatchNot(anyString(), anyString());
+        verify(fmpService, never()).getHistoricalDividendAdjustedEodPrice("AAPL");
+    }
 
-        IndexQuotes indexQuotes = new IndexQuotes(symbol, List.of(data));
-        indexQuotes.setLastUpdated(LocalDateTime.now());
+    @Test
+    void getLastStockQuote_OverlappingBarRestated_RewritesFullHistory() {
+        mockLastUpdated(LocalDateTime.now().minusDays(3));
+        List<GlobalQuote> adjustedHistory = List.of(quote("2024-06-17", "101.5"), quote("2024-06-14", "98.2"));
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc("AAPL"))
+                .thenReturn(Optional.of(bar("2024-06-14", 99.0)))
+                .thenReturn(Optional.of(bar("2024-06-17", 101.5)));
+        when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
+        when(fmpService.getHistoricalDividendAdjustedEodPrice(eq("AAPL"), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Mono.just(adjustedHistory));
+        when(fmpService.getHistoricalDividendAdjustedEodPrice("AAPL")).thenReturn(Mono.just(adjustedHistory));
+        when(stockQuotesRepository.updateLastUpdated(eq("AAPL"), any())).thenReturn(1L);
+
+        quoteService.getLastStockQuote("AAPL").block();
 
-        when(indexQuotesRepository.findById(symbol)).thenReturn(Optional.of(indexQuotes));
+        verify(stockQuoteBarRepository).insert(argThat((List<StockQuoteBar> bars) -> bars.size() == 2
+                && bars.stream().allMatch(bar -> bar.getBatch() != null)));
+        verify(stockQuoteBarRepository).deleteBySymbolAndBatchNot(eq("AAPL"), anyString());
+        assertEquals(new BigDecimal("98.2"), quoteService.getAdjustedCloseByDate("AAPL", LocalDate.of(2024, 6, 14)).orElseThrow());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getLastStockQuote_PreliminaryLastBarChanged_OverwritesItWithoutRewritingHistory() {
+        StockQuoteBar preliminary = bar("2024-06-14", 99.0);
+        preliminary.setId("preliminary");
+        mockLastUpdated(LocalDateTime.now().minusDays(3));
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc("AAPL"))
+                .thenReturn(Optional.of(preliminary))
+                .thenReturn(Optional.of(bar("2024-06-17", 101.5)));
+        when(stockQuoteBarRepository.findTop2BySymbolOrderByDateDesc("AAPL")).thenReturn(List.of(preliminary, bar("2024-06-13", 98.0)));
+        when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
+        when(fmpService.getHistoricalDividendAdjustedEodPrice(eq("AAPL"), eq(LocalDate.of(2024, 6, 13)), any(LocalDate.class)))
+                .thenReturn(Mono.just(List.of(quote("2024-06-17", "101.5"), quote("2024-06-14", "99.4"), quote("2024-06-13", "98.0"))));
+        when(stockQuotesRepository.updateLastUpdated(eq("AAPL"), any())).thenReturn(1L);
+
+        quoteService.getLastStockQuote("AAPL").block();
+
+        ArgumentCaptor<List<StockQuoteBar>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(stockQuoteBarRepository).insert(inserted.capture());
+        assertEquals(List.of(LocalDate.of(2024, 6, 17), LocalDate.of(2024, 6, 14)),
+                inserted.getValue().stream().map(StockQuoteBar::getTradingDay).toList());
+        verify(stockQuoteBarRepository).deleteById("preliminary");
+        verify(fmpService, never()).getHistoricalDividendAdjustedEodPrice("AAPL");
+    }
+
+    @Test
+    void getLastStockQuote_SettledBarRestated_RewritesFullHistory() {
+        List<GlobalQuote> adjustedHistory = List.of(quote("2024-06-14", "99.0"), quote("2024-06-13", "97.1"));
+        mockLastUpdated(LocalDateTime.now().minusDays(3));
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc("AAPL")).thenReturn(Optional.of(bar("2024-06-14", 99.0)));
+        when(stockQuoteBarRepository.findTop2BySymbolOrderByDateDesc("AAPL"))
+                .thenReturn(List.of(bar("2024-06-14", 99.0), bar("2024-06-13", 98.0)));
+        when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
+        when(fmpService.getHistoricalDividendAdjustedEodPrice(eq("AAPL"), eq(LocalDate.of(2024, 6, 13)), any(LocalDate.class)))
+                .thenReturn(Mono.just(adjustedHistory));
+        when(fmpService.getHistoricalDividendAdjustedEodPrice("AAPL")).thenReturn(Mono.just(adjustedHistory));
+        when(stockQuotesRepository.updateLastUpdated(eq("AAPL"), any())).thenReturn(1L);
+
+        quoteService.getLastStockQuote("AAPL").block();
+
+        verify(stockQuoteBarRepository).deleteBySymbolAndBatchNot(eq("AAPL"), anyString());
+        verify(stockQuoteBarRepository, never()).deleteById(anyString());
+    }
+
+    @Test
+    void getIndexQuotes_CacheHit_ReturnsCached() {
+        String symbol = "^GSPC";
+        IndexQuotes header = new IndexQuotes(symbol, null);
+        header.setLastUpdated(LocalDateTime.now());
+        when(indexQuotesRepository.findLastUpdatedBySymbol(symbol)).thenReturn(Optional.of(header));
+        when(indexQuoteBarRepository.findFirstBySymbolOrderByDateDesc(symbol)).thenReturn(Optional.of(indexBar("2024-06-14", 5431.6)));
+        when(indexQuoteBarRepository.findBySymbolOrderByDateAsc(symbol))
+                .thenReturn(List.of(indexBar("2024-06-13", 5400.0), indexBar("2024-06-14", 5431.6)));
         when(dateUtils.isRecent(any(), anyInt())).thenReturn(true);
 
+        quoteService.getIndexQuotes(symbol).block();
         IndexQuotes result = quoteService.getIndexQuotes(symbol).block();
 
         assertNotNull(result);
+        assertEquals("2024-06-14", result.getQuotes().get(0).getDate());
+        assertEquals(2, result.getQuotes().size());
         verify(fmpService, never()).getIndexHistoricalData(anyString());
+        verify(indexQuoteBarRepository, times(1)).findBySymbolOrderByDateAsc(symbol);
     }
 
     @Test
@@ -169,49 +330,38 @@ class QuoteServiceTest {
         String symbol = "^GSPC";
         IndexData data = new IndexData();
         data.setSymbol(symbol);
+        data.setDate("2024-06-14");
+        data.setPrice(5431.6);
 
-        when(indexQuotesRepository.findById(symbol)).thenReturn(Optional.empty());
-        lenient().when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
+        when(indexQuotesRepository.findLastUpdatedBySymbol(symbol)).thenReturn(Optional.empty());
+        when(indexQuoteBarRepository.findFirstBySymbolOrderByDateDesc(symbol)).thenReturn(Optional.empty());
         when(fmpService.getIndexHistoricalData(symbol)).thenReturn(Mono.just(List.of(data)));
-        when(indexQuotesRepository.save(any(IndexQuotes.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(indexQuotesRepository.updateLastUpdated(eq(symbol), any())).thenReturn(0L);
 
         IndexQuotes result = quoteService.getIndexQuotes(symbol).block();
 
         assertNotNull(result);
+        assertEquals(5431.6, result.getQuotes().get(0).getPrice());
+        verify(indexQuoteBarRepository).insert(anyList());
+        verify(indexQuotesRepository).save(any(IndexQuotes.class));
     }
 
     @Test
     void getStockQuoteByDate_FindsQuoteOnExactDate() {
-        String symbol = "AAPL";
-        LocalDate date = LocalDate.of(2024, 6, 15);
+        mockStoredBars(bar("2024-06-15", 100.25));
 
-        GlobalQuote quote = new GlobalQuote();
-        quote.setSymbol(symbol);
-        quote.setDate("2024-06-15");
-
-        when(stockQuotesRepository.findQuoteBySymbolAndDate(symbol, "2024-06-15"))
-                .thenReturn(Optional.of(quote));
-
-        Optional<GlobalQuote> result = quoteService.getStockQuoteByDate(symbol, date);
+        Optional<GlobalQuote> result = quoteService.getStockQuoteByDate("AAPL", LocalDate.of(2024, 6, 15));
 
         assertTrue(result.isPresent());
+        assertEquals("2024-06-15", result.get().getDate());
+        assertEquals("100.25", result.get().getAdjClose());
     }
 
     @Test
     void getStockQuoteByDate_FallsBackToPreviousDays() {
-        String symbol = "AAPL";
-        LocalDate date = LocalDate.of(2024, 6, 15);
+        mockStoredBars(bar("2024-06-14", 99.0));
 
-        GlobalQuote quote = new GlobalQuote();
-        quote.setSymbol(symbol);
-        quote.setDate("2024-06-14");
-
-        when(stockQuotesRepository.findQuoteBySymbolAndDate(symbol, "2024-06-15"))
-                .thenReturn(Optional.empty());
-        when(stockQuotesRepository.findQuoteBySymbolAndDate(symbol, "2024-06-14"))
-                .thenReturn(Optional.of(quote));
-
-        Optional<GlobalQuote> result = quoteService.getStockQuoteByDate(symbol, date);
+        Optional<GlobalQuote> result = quoteService.getStockQuoteByDate("AAPL", LocalDate.of(2024, 6, 16));
 
         assertTrue(result.isPresent());
         assertEquals("2024-06-14", result.get().getDate());
@@ -219,53 +369,121 @@ class QuoteServiceTest {
 
     @Test
     void getStockQuoteByDate_NotFoundIn7Days_ReturnsEmpty() {
-        String symbol = "AAPL";
-        LocalDate date = LocalDate.of(2024, 6, 15);
+        mockStoredBars(bar("2024-06-01", 99.0));
 
-        when(stockQuotesRepository.findQuoteBySymbolAndDate(anyString(), anyString()))
-                .thenReturn(Optional.empty());
-
-        Optional<GlobalQuote> result = quoteService.getStockQuoteByDate(symbol, date);
+        Optional<GlobalQuote> result = quoteService.getStockQuoteByDate("AAPL", LocalDate.of(2024, 6, 15));
 
         assertTrue(result.isEmpty());
+        assertTrue(quoteService.getAdjustedCloseByDate("AAPL", LocalDate.of(2024, 6, 15)).isEmpty());
     }
 
     @Test
-    void getIndexQuoteByDate_FallsBackToPreviousDays() {
-        String symbol = "^GSPC";
-        LocalDate date = LocalDate.of(2024, 6, 15);
+    void getStockQuoteByDate_LoadsTheSeriesOnce() {
+        mockStoredBars(bar("2024-06-14", 99.0), bar("2024-03-28", 90.0));
 
-        IndexData indexData = new IndexData();
-        indexData.setDate("2024-06-14");
+        quoteService.getStockQuoteByDate("AAPL", LocalDate.of(2024, 6, 15));
+        quoteService.getStockQuoteByDate("aapl", LocalDate.of(2024, 3, 31));
+        Optional<BigDecimal> close = quoteService.getAdjustedCloseByDate("AAPL", LocalDate.of(2024, 3, 31));
+        Optional<GlobalQuote> first = quoteService.getFirstStockQuote("AAPL");
+
+        assertEquals(new BigDecimal("90.0"), close.orElseThrow());
+        assertEquals("2024-03-28", first.orElseThrow().getDate());
+        verify(stockQuoteBarRepository, times(1)).findBySymbolOrderByDateAsc("AAPL");
+    }
 
-        when(indexQuotesRepository.findQuoteBySymbolAndDate(symbol, "2024-06-15"))
-                .thenReturn(Optional.empty());
-        when(indexQuotesRepository.findQuoteBySymbolAndDate(symbol, "2024-06-14"))
-                .thenReturn(Optional.of(indexData));
+    @Test
+    void getLastStockQuote_NewBars_ExtendCachedSeries() {
+        mockStoredBars(bar("2024-06-13", 98.0), bar("2024-06-14", 99.0));
+        quoteService.getStockQuoteByDate("AAPL", LocalDate.of(2024, 6, 14));
+        mockLastUpdated(LocalDateTime.now().minusDays(3));
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc("AAPL"))
+                .thenReturn(Optional.of(bar("2024-06-14", 99.0)))
+                .thenReturn(Optional.of(bar("2024-06-17", 101.5)));
+        when(dateUtils.isRecent(any(), anyInt())).thenReturn(false);
+        when(fmpService.getHistoricalDividendAdjustedEodPrice(eq("AAPL"), eq(LocalDate.of(2024, 6, 14)), any(LocalDate.class)))
+                .thenReturn(Mono.just(List.of(quote("2024-06-17", "101.5"), quote("2024-06-14", "99.0"))));
+        when(stockQuotesRepository.updateLastUpdated(eq("AAPL"), any())).thenReturn(1L);
+
+        quoteService.getLastStockQuote("AAPL").block();
+
+        assertEquals(new BigDecimal("101.5"), quoteService.getAdjustedCloseByDate("AAPL", LocalDate.of(2024, 6, 17)).orElseThrow());
+        assertEquals(new BigDecimal("98.0"), quoteService.getAdjustedCloseByDate("AAPL", LocalDate.of(2024, 6, 13)).orElseThrow());
+        verify(stockQuoteBarRepository, times(1)).findBySymbolOrderByDateAsc("AAPL");
+    }
+
+    @Test
+    void getStockPriceSeries_EvictsLeastRecentlyUsedSymbol() {
+        quoteService = new QuoteService(fmpService, stockQuotesRepository, stockQuoteBarRepository,
+                indexQuotesRepository, indexQuoteBarRepository, dateUtils, mongoServerVersion, 1);
+        mockStoredBars(bar("2024-06-14", 99.0));
+        when(stockQuoteBarRepository.findBySymbolOrderByDateAsc("MSFT"))
+                .thenReturn(List.of(QuoteBars.stockBarsOf("MSFT", List.of(quote("2024-06-14", "420.0"))).get(0)));
+
+        quoteService.getStockPriceSeries("AAPL");
+        quoteService.getStockPriceSeries("AAPL");
+        quoteService.getStockPriceSeries("MSFT");
+        quoteService.getStockPriceSeries("AAPL");
+
+        verify(stockQuoteBarRepository, times(2)).findBySymbolOrderByDateAsc("AAPL");
+        verify(stockQuoteBarRepository, times(1)).findBySymbolOrderByDateAsc("MSFT");
+    }
+
+    @Test
+    void getFirstStockQuote_ReturnsEarliestBar() {
+        mockStoredBars(bar("2024-06-14", 99.0), bar("2010-01-04", 7.5));
 
-        Optional<IndexData> result = quoteService.getIndexQuoteByDate(symbol, date);
+        Optional<GlobalQuote> result = quoteService.getFirstStockQuote("AAPL");
 
         assertTrue(result.isPresent());
+        assertEquals("2010-01-04", result.get().getDate());
+        assertEquals("7.5", result.get().getAdjClose());
     }
 
     @Test
-    void hasStockQuotes_Exists_ReturnsTrue() {
-        String symbol = "AAPL";
-        when(stockQuotesRepository.findBySymbol(symbol)).thenReturn(Optional.of(new StockQuotes()));
+    void getIndexQuoteByDate_FallsBackToPreviousDays() {
+        String symbol = "^GSPC";
+        when(indexQuoteBarRepository.findBySymbolOrderByDateAsc(symbol)).thenReturn(List.of(indexBar("2024-06-14", 5431.6)));
 
-        boolean result = quoteService.hasStockQuotes(symbol);
+        Optional<IndexData> result = quoteService.getIndexQuoteByDate(symbol, LocalDate.of(2024, 6, 15));
 
-        assertTrue(result);
+        assertTrue(result.isPresent());
+        assertEquals("2024-06-14", result.get().getDate());
+        assertEquals(5431.6, result.get().getPrice());
     }
 
     @Test
-    void hasStockQuotes_NotExists_ReturnsFalse() {
-        String symbol = "AAPL";
-        when(stockQuotesRepository.findBySymbol(symbol)).thenReturn(Optional.empty());
+    void getIndexQuotes_Refresh_ReplacesCachedSeries() {
+        String symbol = "^GSPC";
+        when(indexQuoteBarRepository.findBySymbolOrderByDateAsc(symbol)).thenReturn(List.of(indexBar("2024-06-14", 5000.0)));
+        quoteService.getIndexPriceSeries(symbol);
+        assertEquals(5000.0, quoteService.getIndexQuoteByDate(symbol, LocalDate.of(2024, 6, 14)).orElseThrow().getPrice());
+
+        IndexData fresh = new IndexData();
+        fresh.setDate("2024-06-14");
+        fresh.setPrice(5431.6);
+        when(indexQuotesRepository.findLastUpdatedBySymbol(symbol)).thenReturn(Optional.empty());
+        when(indexQuoteBarRepository.findFirstBySymbolOrderByDateDesc(symbol)).thenReturn(Optional.of(indexBar("2024-06-14", 5000.0)));
+        when(fmpService.getIndexHistoricalData(eq(symbol), any(LocalDate.class), any(LocalDate.class))).thenReturn(Mono.just(List.of(fresh)));
+        when(fmpService.getIndexHistoricalData(symbol)).thenReturn(Mono.just(List.of(fresh)));
+        when(indexQuotesRepository.updateLastUpdated(eq(symbol), any())).thenReturn(1L);
+        quoteService.getIndexQuotes(symbol).block();
+
+        assertEquals(5431.6, quoteService.getIndexQuoteByDate(symbol, LocalDate.of(2024, 6, 14)).orElseThrow().getPrice());
+        verify(indexQuoteBarRepository, times(1)).findBySymbolOrderByDateAsc(symbol);
+    }
 
-        boolean result = quoteService.hasStockQuotes(symbol);
+    @Test
+    void hasStockQuotes_Exists_ReturnsTrue() {
+        when(stockQuoteBarRepository.existsBySymbol("AAPL")).thenReturn(true);
+
+        assertTrue(quoteService.hasStockQuotes("aapl"));
+    }
+
+    @Test
+    void hasStockQuotes_NotExists_ReturnsFalse() {
+        when(stockQuoteBarRepository.existsBySymbol("AAPL")).thenReturn(false);
 
-        assertFalse(result);
+        assertFalse(quoteService.hasStockQuotes("AAPL"));
     }
 
     @Test
@@ -273,5 +491,6 @@ class QuoteServiceTest {
         String symbol = "AAPL";
         quoteService.deleteBySymbol(symbol);
         verify(stockQuotesRepository).deleteBySymbol(symbol);
+        verify(stockQuoteBarRepository).deleteBySymbol(symbol);
     }
-}
\ No newline at end of file
+}
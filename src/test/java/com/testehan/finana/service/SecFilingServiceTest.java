@@ -1,11 +1,18 @@
 package com.testehan.finana.service;
 
+import com.testehan.finana.model.filing.SecFiling;
 import com.testehan.finana.model.filing.SecFilingUrlData;
 import com.testehan.finana.model.filing.SecFilingsUrls;
+import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.repository.SecFilingUrlsRepository;
+import com.testehan.finana.service.filing.EdgarFilingFetcher;
+import com.testehan.finana.service.filing.FilingSections;
+import com.testehan.finana.util.RequestPriority;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import reactor.core.publisher.Mono;
@@ -15,8 +22,13 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class SecFilingServiceTest {
@@ -26,11 +38,31 @@ class SecFilingServiceTest {
     @Mock private SecFilingUrlsRepository secFilingUrlsRepository;
     @Mock private SecFilingRepository secFilingRepository;
     @Mock private FMPService fmpService;
+    @Mock private EdgarFilingFetcher edgarFilingFetcher;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        secFilingService = new SecFilingService(secFilingUrlsRepository, secFilingRepository, fmpService);
+        secFilingService = new SecFilingService(secFilingUrlsRepository, secFilingRepository, fmpService, edgarFilingFetcher, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static SecFilingUrlData filing(String formType, String filingDate, String url) {
+        SecFilingUrlData filing = new SecFilingUrlData();
+        filing.setFormType(formType);
+        filing.setFilingDate(filingDate);
+        filing.setFinalLink(url);
+        return filing;
+    }
+
+    private static String longText(String word) {
+        return (word + " ").repeat(300);
     }
 
     @Test
@@ -63,4 +95,53 @@ class SecFilingServiceTest {
         verify(fmpService).getSecFilings(symbol);
         verify(secFilingUrlsRepository).save(any());
     }
+
+    @Test
+    void getAndSaveSecFilings_downloadsAnnualAndQuarterlyFilingAndSavesThemTogether() throws Exception {
+        String symbol = "AAPL";
+        SecFilingsUrls urls = new SecFilingsUrls(symbol, new ArrayList<>(List.of(
+                filing("10-K", "2025-10-31", "https://www.sec.gov/10k-2025.htm"),
+                filing("10-K", "2024-11-01", "https://www.sec.gov/10k-2024.htm"),
+                filing("10-Q", "2026-05-02", "https://www.sec.gov/10q.htm"))));
+        when(secFilingUrlsRepository.findById(symbol)).thenReturn(Optional.of(urls));
+        when(secFilingRepository.findById(symbol)).thenReturn(Optional.empty());
+        doReturn(Optional.of(new EdgarFilingFetcher.EdgarDocument<>(
+                new FilingSections(longText("business"), longText("risk"), longText("mda")), "\"k\"", null)))
+                .when(edgarFilingFetcher).fetch(eq("https://www.sec.gov/10k-2025.htm"), isNull(), isNull(), eq(RequestPriority.BACKGROUND), any());
+        doReturn(Optional.of(new EdgarFilingFetcher.EdgarDocument<>(
+                new FilingSections(null, longText("risk"), longText("mda")), "\"q\"", null)))
+                .when(edgarFilingFetcher).fetch(eq("https://www.sec.gov/10q.htm"), isNull(), isNull(), eq(RequestPriority.BACKGROUND), any());
+
+        StepVerifier.create(secFilingService.getAndSaveSecFilings(symbol).contextWrite(RequestPriority.background()))
+                .verifyComplete();
+
+        ArgumentCaptor<SecFiling> saved = ArgumentCaptor.forClass(SecFiling.class);
+        verify(secFilingRepository).save(saved.capture());
+        assertEquals("2025-10-31", saved.getValue().getTenKFilings().get(0).getFiledAt());
+        assertEquals("\"k\"", saved.getValue().getTenKFilings().get(0).getEtag());
+        assertEquals("2026-05-02", saved.getValue().getTenQFilings().get(0).getFiledAt());
+        verify(edgarFilingFetcher, never()).fetch(eq("https://www.sec.gov/10k-2024.htm"), any(), any(), any(), any());
+    }
+
+    @Test
+    void getAndSaveSecFilings_unchangedFiling_sendsValidatorsAndKeepsStoredSections() throws Exception {
+        String symbol = "AAPL";
+        SecFilingsUrls urls = new SecFilingsUrls(symbol, new ArrayList<>(List.of(
+                filing("10-K", "2025-10-31", "https://www.sec.gov/10k-2025.htm"))));
+        TenKFilings stored = new TenKFilings();
+        stored.setFiledAt("2025-10-31");
+        stored.setEtag("\"k\"");
+        stored.setLastModified("Fri, 31 Oct 2025 20:01:02 GMT");
+        SecFiling secFiling = new SecFiling();
+        secFiling.setTenKFilings(new ArrayList<>(List.of(stored)));
+        when(secFilingUrlsRepository.findById(symbol)).thenReturn(Optional.of(urls));
+        when(secFilingRepository.findById(symbol)).thenReturn(Optional.of(secFiling));
+        doReturn(Optional.empty()).when(edgarFilingFetcher).fetch(any(), any(), any(), any(), any());
+
+        StepVerifier.create(secFilingService.getAndSaveSecFilings(symbol)).verifyComplete();
+
+        verify(edgarFilingFetcher).fetch(eq("https://www.sec.gov/10k-2025.htm"), eq("\"k\""),
+                eq("Fri, 31 Oct 2025 20:01:02 GMT"), eq(RequestPriority.INTERACTIVE), any());
+        verify(secFilingRepository, never()).save(any());
+    }
 }
@@ -0,0 +1,170 @@
+package com.testehan.finana.service;
+
+import com.testehan.finana.model.finstatement.CashFlowData;
+import com.testehan.finana.model.finstatement.CashFlowReport;
+import com.testehan.finana.model.finstatement.IncomeReport;
+import com.testehan.finana.model.finstatement.IncomeStatementData;
+import com.testehan.finana.model.finstatement.TtmData;
+import com.testehan.finana.model.finstatement.TtmReport;
+import com.testehan.finana.repository.TtmDataRepository;
+import com.testehan.finana.util.ttm.TtmAggregator;
+import com.testehan.finana.util.ttm.TtmQuarter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TtmServiceTest {
+
+    private static final LocalDateTime FIRST_FETCH = LocalDateTime.of(2024, 8, 1, 10, 0);
+    private static final LocalDateTime SECOND_FETCH = LocalDateTime.of(2024, 11, 1, 10, 0);
+
+    @Mock
+    private FinancialStatementService financialStatementService;
+    @Mock
+    private TtmDataRepository ttmDataRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private TtmService ttmService;
+
+    @BeforeEach
+    void setUp() {
+        ttmService = new TtmService(financialStatementService, ttmDataRepository, mongoTemplate);
+    }
+
+    @Test
+    void update_SavesTheWholeSeriesTheFirstTime() {
+        when(ttmDataRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(ttmDataRepository.save(any(TtmData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TtmData data = ttmService.update("AAPL", incomeStatements(5, FIRST_FETCH), cashFlows(5, FIRST_FETCH));
+
+        assertEquals("AAPL", data.getSymbol());
+        assertEquals(2, data.getReports().size());
+        assertEquals(new BigDecimal("14"), data.getReports().getFirst().getRevenue());
+        assertEquals("2024-03-31", data.getLatestQuarter());
+        assertEquals(FIRST_FETCH, data.getStatementsUpdated());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void update_AppendsOnlyTheTwelveMonthsEndingWithNewQuarters() {
+        when(ttmDataRepository.findBySymbol("AAPL")).thenReturn(Optional.of(stored(5)));
+
+        TtmData data = ttmService.update("AAPL", incomeStatements(6, SECOND_FETCH), cashFlows(6, SECOND_FETCH));
+
+        assertEquals(List.of("2024-06-30", "2024-03-31", "2023-12-31"), data.getReports().stream().map(TtmReport::getDate).toList());
+        assertEquals(new BigDecimal("18"), data.getReports().getFirst().getRevenue());
+        assertEquals(new BigDecimal("180"), data.getReports().getFirst().getOperatingCashFlow());
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(TtmData.class));
+        assertTrue(update.getValue().getUpdateObject().containsKey("$push"));
+        verify(ttmDataRepository, never()).save(any());
+    }
+
+    @Test
+    void update_RecomputesTheSeriesWhenAQuarterWasRestated() {
+        when(ttmDataRepository.findBySymbol("AAPL")).thenReturn(Optional.of(stored(5)));
+        when(ttmDataRepository.save(any(TtmData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        IncomeStatementData restated = incomeStatements(6, SECOND_FETCH);
+        restated.getQuarterlyReports().get(4).setRevenue(new BigDecimal("102"));
+
+        TtmData data = ttmService.update("AAPL", restated, cashFlows(6, SECOND_FETCH));
+
+        assertEquals(3, data.getReports().size());
+        assertEquals(new BigDecimal("110"), data.getReports().getLast().getRevenue());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void update_AppendsWhenStoredQuartersOnlyChangedMetadataOrDecimalScale() {
+        when(ttmDataRepository.findBySymbol("AAPL")).thenReturn(Optional.of(stored(5)));
+        IncomeStatementData refetched = incomeStatements(6, SECOND_FETCH);
+        refetched.getQuarterlyReports().get(4).setRevenue(new BigDecimal("2.00"));
+        refetched.getQuarterlyReports().get(4).setAcceptedDate("2023-08-04 18:03:12");
+
+        ttmService.update("AAPL", refetched, cashFlows(6, SECOND_FETCH));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(TtmData.class));
+        assertTrue(update.getValue().getUpdateObject().containsKey("$push"));
+        verify(ttmDataRepository, never()).save(any());
+    }
+
+    @Test
+    void update_ReturnsTheStoredSeriesWhileTheStatementsAreUnchanged() {
+        TtmData stored = stored(5);
+        when(ttmDataRepository.findBySymbol("AAPL")).thenReturn(Optional.of(stored));
+
+        assertSame(stored, ttmService.update("AAPL", incomeStatements(5, FIRST_FETCH), cashFlows(5, FIRST_FETCH)));
+        verify(ttmDataRepository, never()).save(any());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static TtmData stored(int quarters) {
+        List<TtmQuarter> summed = TtmAggregator.quarters(incomeStatements(quarters, FIRST_FETCH).getQuarterlyReports(),
+                cashFlows(quarters, FIRST_FETCH).getQuarterlyReports());
+        TtmData data = new TtmData();
+        data.setSymbol("AAPL");
+        data.setReports(TtmAggregator.series(summed));
+        data.setSourceHash(TtmService.sourceHash(summed));
+        data.setLatestQuarter(summed.getLast().date());
+        data.setStatementsUpdated(FIRST_FETCH);
+        return data;
+    }
+
+    // quarter i, counting from FY2023 Q1, has revenue i + 1 and operating cash flow (i + 1) * 10
+    private static IncomeStatementData incomeStatements(int quarters, LocalDateTime lastUpdated) {
+        List<IncomeReport> reports = new ArrayList<>();
+        for (int i = quarters - 1; i >= 0; i--) {
+            IncomeReport report = new IncomeReport();
+            report.setDate(quarterEnd(i));
+            report.setFiscalYear(String.valueOf(2023 + i / 4));
+            report.setPeriod("Q" + (i % 4 + 1));
+            report.setRevenue(BigDecimal.valueOf(i + 1));
+            reports.add(report);
+        }
+        IncomeStatementData data = new IncomeStatementData();
+        data.setQuarterlyReports(reports);
+        data.setLastUpdated(lastUpdated);
+        return data;
+    }
+
+    private static CashFlowData cashFlows(int quarters, LocalDateTime lastUpdated) {
+        List<CashFlowReport> reports = new ArrayList<>();
+        for (int i = quarters - 1; i >= 0; i--) {
+            CashFlowReport report = new CashFlowReport();
+            report.setDate(quarterEnd(i));
+            report.setFiscalYear(String.valueOf(2023 + i / 4));
+            report.setPeriod("Q" + (i % 4 + 1));
+            report.setOperatingCashFlow(BigDecimal.valueOf((i + 1) * 10L));
+            reports.add(report);
+        }
+        CashFlowData data = new CashFlowData();
+        data.setQuarterlyReports(reports);
+        data.setLastUpdated(lastUpdated);
+        return data;
+    }
+
+    private static String quarterEnd(int quarter) {
+        return (2023 + quarter / 4) + List.of("-03-31", "-06-30", "-09-30", "-12-31").get(quarter % 4);
+    }
+}
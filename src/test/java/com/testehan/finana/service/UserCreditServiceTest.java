@@ -0,0 +1,130 @@
+package com.testehan.finana.service;
+
+import com.testehan.finana.exception.InsufficientCreditException;
+import com.testehan.finana.model.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCreditServiceTest {
+
+    private static final String USER_EMAIL = "test@example.com";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private UserCreditService userCreditService;
+
+    @BeforeEach
+    void setUp() {
+        userCreditService = new UserCreditService(mongoTemplate, 60_000);
+    }
+
+    private User user(String credit) {
+        User user = new User();
+        user.setEmail(USER_EMAIL);
+        user.setCredit(new BigDecimal(credit));
+        return user;
+    }
+
+    private static Query guarded() {
+        return argThat(query -> query.getQueryObject().containsKey("credit"));
+    }
+
+    @Test
+    void getCredit_ServesRepeatedChecksFromCache() {
+        when(mongoTemplate.findOne(any(Query.class), eq(User.class))).thenReturn(user("2.50"));
+
+        assertTrue(userCreditService.hasAnyCredit(USER_EMAIL));
+        assertEquals(new BigDecimal("2.50"), userCreditService.getCredit(USER_EMAIL));
+
+        verify(mongoTemplate, times(1)).findOne(any(Query.class), eq(User.class));
+    }
+
+    @Test
+    void getCredit_UnknownUser_IsZero() {
+        assertEquals(BigDecimal.ZERO, userCreditService.getCredit(USER_EMAIL));
+        assertFalse(userCreditService.hasAnyCredit(USER_EMAIL));
+    }
+
+    @Test
+    void deductCredit_GuardedIncrement_UpdatesCachedBalance() {
+        when(mongoTemplate.findAndModify(guarded(), any(Update.class), any(FindAndModifyOptions.class), eq(User.class)))
+                .thenReturn(user("4.90"));
+
+        assertTrue(userCreditService.deductCredit(USER_EMAIL, new BigDecimal("0.10")));
+
+        assertEquals(new BigDecimal("4.90"), userCreditService.getCredit(USER_EMAIL));
+        verify(mongoTemplate, never()).findOne(any(Query.class), eq(User.class));
+        verify(mongoTemplate, never()).save(any());
+    }
+
+    @Test
+    void deductCredit_InsufficientBalance_DrainsToZero() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(User.class)))
+                .thenReturn(null, user("0"));
+
+        assertFalse(userCreditService.deductCredit(USER_EMAIL, new BigDecimal("1.00")));
+
+        verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(User.class));
+        assertEquals(0, BigDecimal.ZERO.compareTo(userCreditService.getCredit(USER_EMAIL)));
+    }
+
+    @Test
+    void reserve_BalanceBelowEstimate_HoldsTheRemainingBalance() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(User.class)))
+                .thenReturn(null, user("0.03"));
+
+        CreditReservation reservation = userCreditService.reserve(USER_EMAIL, new BigDecimal("0.05"));
+
+        assertEquals(new BigDecimal("0.03"), reservation.amount());
+        verify(mongoTemplate).findAndModify(
+                argThat(query -> query.getQueryObject().toJson().contains("$lt")),
+                argThat(update -> update.getUpdateObject().containsKey("$set")),
+                any(FindAndModifyOptions.class), eq(User.class));
+        assertEquals(0, BigDecimal.ZERO.compareTo(userCreditService.getCredit(USER_EMAIL)));
+    }
+
+    @Test
+    void reserve_NoBalanceLeft_Rejects() {
+        assertThrows(InsufficientCreditException.class, () -> userCreditService.reserve(USER_EMAIL, new BigDecimal("0.05")));
+
+        verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(User.class));
+    }
+
+    @Test
+    void settle_CostBelowReservation_RefundsDifference() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(User.class)))
+                .thenReturn(user("4.98"));
+        CreditReservation reservation = new CreditReservation(USER_EMAIL, new BigDecimal("0.05"));
+
+        userCreditService.settle(reservation, new BigDecimal("0.03"));
+
+        verify(mongoTemplate).findAndModify(
+                argThat(query -> !query.getQueryObject().containsKey("credit")),
+                argThat(update -> update.getUpdateObject().toJson().contains("0.02")),
+                any(FindAndModifyOptions.class), eq(User.class));
+    }
+
+    @Test
+    void settle_CostEqualToReservation_DoesNothing() {
+        userCreditService.settle(new CreditReservation(USER_EMAIL, new BigDecimal("0.05")), new BigDecimal("0.05"));
+
+        verifyNoInteractions(mongoTemplate);
+    }
+}
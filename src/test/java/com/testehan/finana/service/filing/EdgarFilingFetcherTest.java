@@ -0,0 +1,128 @@
+package com.testehan.finana.service.filing;
+
+import com.testehan.finana.util.RequestPriority;
+import com.testehan.finana.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EdgarFilingFetcherTest {
+
+    private static final String URL = "https://www.sec.gov/Archives/edgar/data/320193/filing.htm";
+
+    @Mock
+    private HttpClient httpClient;
+
+    private EdgarFilingFetcher fetcher;
+
+    @BeforeEach
+    void setUp() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter("sec", 10, 1000, new SimpleMeterRegistry());
+        fetcher = new EdgarFilingFetcher(httpClient, rateLimiter, "Test admin@example.com", Duration.ofSeconds(5),
+                2, Duration.ofMillis(1), 4);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<InputStream> response(int status, byte[] body, Map<String, List<String>> headers) {
+        HttpResponse<InputStream> response = mock(HttpResponse.class);
+        lenient().when(response.statusCode()).thenReturn(status);
+        lenient().when(response.body()).thenReturn(new ByteArrayInputStream(body));
+        lenient().when(response.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+        return response;
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String readAll(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[256];
+        for (int read; (read = reader.read(buffer)) != -1; ) {
+            text.append(buffer, 0, read);
+        }
+        return text.toString();
+    }
+
+    @Test
+    void fetch_RetriesServerErrorAndDecodesGzipBody() throws Exception {
+        HttpResponse<InputStream> unavailable = response(503, new byte[0], Map.of());
+        HttpResponse<InputStream> ok = response(200, gzip("<p>Item 1. Business</p>"), Map.of(
+                "Content-Encoding", List.of("gzip"),
+                "ETag", List.of("\"abc\""),
+                "Last-Modified", List.of("Fri, 31 Oct 2025 20:01:02 GMT")));
+        doReturn(unavailable, ok).when(httpClient).send(any(), any());
+
+        Optional<EdgarFilingFetcher.EdgarDocument<String>> document =
+                fetcher.fetch(URL, null, null, RequestPriority.INTERACTIVE, EdgarFilingFetcherTest::readAll);
+
+        assertTrue(document.isPresent());
+        assertEquals("<p>Item 1. Business</p>", document.get().content());
+        assertEquals("\"abc\"", document.get().etag());
+        assertEquals("Fri, 31 Oct 2025 20:01:02 GMT", document.get().lastModified());
+        verify(httpClient, times(2)).send(any(), any());
+    }
+
+    @Test
+    void fetch_SendsValidatorsAndReturnsEmptyWhenNotModified() throws Exception {
+        doReturn(response(304, new byte[0], Map.of())).when(httpClient).send(any(), any());
+
+        Optional<EdgarFilingFetcher.EdgarDocument<String>> document = fetcher.fetch(URL, "\"abc\"",
+                "Fri, 31 Oct 2025 20:01:02 GMT", RequestPriority.BACKGROUND, EdgarFilingFetcherTest::readAll);
+
+        assertTrue(document.isEmpty());
+        ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).send(request.capture(), any());
+        assertEquals(Optional.of("\"abc\""), request.getValue().headers().firstValue("If-None-Match"));
+        assertEquals(Optional.of("Fri, 31 Oct 2025 20:01:02 GMT"), request.getValue().headers().firstValue("If-Modified-Since"));
+        assertEquals(Optional.of("gzip"), request.getValue().headers().firstValue("Accept-Encoding"));
+        assertEquals(Optional.of("Test admin@example.com"), request.getValue().headers().firstValue("User-Agent"));
+    }
+
+    @Test
+    void fetch_ClientErrorIsNotRetried() throws Exception {
+        doReturn(response(404, new byte[0], Map.of())).when(httpClient).send(any(), any());
+
+        assertThrows(IOException.class,
+                () -> fetcher.fetch(URL, null, null, RequestPriority.INTERACTIVE, EdgarFilingFetcherTest::readAll));
+        verify(httpClient).send(any(), any());
+    }
+
+    @Test
+    void fetch_GivesUpAfterMaxRetries() throws Exception {
+        doThrow(new IOException("connection reset")).when(httpClient).send(any(), any());
+
+        assertThrows(IOException.class,
+                () -> fetcher.fetch(URL, null, null, RequestPriority.INTERACTIVE, EdgarFilingFetcherTest::readAll));
+        verify(httpClient, times(3)).send(any(), any());
+    }
+}
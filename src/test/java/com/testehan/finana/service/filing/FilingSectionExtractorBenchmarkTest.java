@@ -0,0 +1,48 @@
+package com.testehan.finana.service.filing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Throughput of the extractor on a 20-F padded to a few hundred MB. The padding is generated while it is read, so
+ * heap use stays at what the extractor itself holds. Run with -Dbenchmark=true.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FilingSectionExtractorBenchmarkTest {
+
+    private static final String PARAGRAPH = "<div style=\"margin-top:6pt\"><span style=\"font-family:Times New Roman;"
+            + "font-size:10pt\">Our customers in Asia accounted for 61% of net revenue, and sales through distributors"
+            + " were 24% of the total.</span></div>\n";
+
+    @Test
+    void extract_LargeTwentyF() throws IOException {
+        String fixture;
+        try (InputStream stream = getClass().getResourceAsStream("/filings/sample-20f.htm")) {
+            assertNotNull(stream);
+            fixture = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        FilingSections expected = FilingSectionExtractor.extract(new StringReader(fixture), "20-F");
+        // the padding goes into Item 6, which no section collects
+        int split = fixture.indexOf("</body>");
+        long paragraphs = Long.getLong("benchmark.paragraphs", 2_000_000);
+        long chars = fixture.length() + paragraphs * PARAGRAPH.length();
+
+        for (int run = 1; run <= 3; run++) {
+            long start = System.nanoTime();
+            FilingSections sections = FilingSectionExtractor.extract(
+                    new PaddedReader(fixture.substring(0, split), PARAGRAPH, paragraphs, fixture.substring(split)), "20-F");
+            double seconds = (System.nanoTime() - start) / 1e9;
+            assertEquals(expected, sections);
+            System.out.printf("run %d: %.1f MB in %.2f s, %.1f MB/s, business section %d chars%n", run,
+                    chars / 1e6, seconds, chars / 1e6 / seconds, sections.businessDescription().length());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.testehan.finana.service.filing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilingSectionExtractorTest {
+
+    private static final String PADDING = "<div style=\"margin-top:6pt\"><span style=\"font-family:Times New Roman;"
+            + "font-size:10pt\">Our customers in Asia accounted for 61% of net revenue, and sales through distributors"
+            + " were 24% of the total.</span></div>\n";
+
+    /**
+     * Every fixture in src/test/resources/filings comes with a properties file naming its form type, how each
+     * extracted section has to start and end, and the text it has to contain or leave out ("|" separated). The
+     * sample-* fixtures are synthetic documents in the markup EDGAR filings are published in: inline XBRL headers,
+     * linked tables of contents, page footers and headings split across blocks. A trimmed EDGAR document dropped into
+     * the directory with its properties file is picked up without changing this test.
+     */
+    @ParameterizedTest
+    @MethodSource("fixtures")
+    void extract_MatchesExpectedSections(String fixture) throws IOException {
+        Properties expected = new Properties();
+        try (Reader reader = resource(fixture + ".properties")) {
+            expected.load(reader);
+        }
+
+        FilingSections sections;
+        try (Reader html = resource(fixture + ".htm")) {
+            sections = FilingSectionExtractor.extract(html, expected.getProperty("formType"));
+        }
+
+        Map<String, String> actual = new LinkedHashMap<>();
+        actual.put("businessDescription", sections.businessDescription());
+        actual.put("riskFactors", sections.riskFactors());
+        actual.put("managementDiscussion", sections.managementDiscussion());
+        actual.forEach((section, text) -> {
+            if (Boolean.parseBoolean(expected.getProperty(section + ".absent"))) {
+                assertNull(text, fixture + " " + section);
+                return;
+            }
+            assertNotNull(text, fixture + " " + section);
+            assertTrue(text.startsWith(expected.getProperty(section + ".startsWith")), fixture + " " + section + " start");
+            assertTrue(text.endsWith(expected.getProperty(section + ".endsWith")), fixture + " " + section + " end");
+            for (String part : values(expected, section + ".contains")) {
+                assertTrue(text.contains(part), fixture + " " + section + " lacks " + part);
+            }
+            for (String part : values(expected, section + ".excludes")) {
+                assertFalse(text.contains(part), fixture + " " + section + " contains " + part);
+            }
+            assertFalse(text.contains("Workiva"), fixture + " " + section + " contains a comment");
+            assertFalse(text.contains("Field: Page"), fixture + " " + section + " contains a comment");
+            assertFalse(text.contains("0001234567"), fixture + " " + section + " contains the XBRL header");
+        });
+    }
+
+    @Test
+    void extract_PaddedTwentyF_ReturnsTheSameSections() throws IOException {
+        String fixture;
+        try (InputStream stream = getClass().getResourceAsStream("/filings/sample-20f.htm")) {
+            assertNotNull(stream);
+            fixture = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        FilingSections expected = FilingSectionExtractor.extract(new StringReader(fixture), "20-F");
+
+        // tens of MB of Item 6, which no section collects, generated while it is read
+        int split = fixture.indexOf("</body>");
+        FilingSections padded = FilingSectionExtractor.extract(
+                new PaddedReader(fixture.substring(0, split), PADDING, 200_000, fixture.substring(split)), "20-F");
+
+        assertEquals(expected, padded);
+    }
+
+    @Test
+    void extract_UnsupportedForm_ReturnsNoSections() throws IOException {
+        FilingSections sections = FilingSectionExtractor.extract(new StringReader("<div>Item 1. Business</div>"), "6-K");
+
+        assertNull(sections.businessDescription());
+        assertNull(sections.riskFactors());
+        assertNull(sections.managementDiscussion());
+    }
+
+    @Test
+    void extract_CrossReferenceInsideParagraph_DoesNotEndSection() throws IOException {
+        String body = "<p>Item 7. Management's Discussion and Analysis</p>"
+                + "<p>" + "Revenue grew. ".repeat(100) + "</p>"
+                + "<p>Item 7 of this report also discusses liquidity.</p>"
+                + "<p>" + "Margins improved. ".repeat(10) + "</p>"
+                + "<p>Item 7A. Quantitative and Qualitative Disclosures</p>";
+
+        FilingSections sections = FilingSectionExtractor.extract(new StringReader(body), "10-K");
+
+        assertTrue(sections.managementDiscussion().endsWith("Margins improved."));
+    }
+
+    @Test
+    void read_SplitsBlocksJoinsCellsAndDecodesEntities() throws IOException {
+        List<String> lines = new ArrayList<>();
+        HtmlTextLines.read(new StringReader(
+                "<div>Item&#160;1A.<span>&nbsp;Risk</span>  Factors</div><table><tr><td>a &lt; b</td><td>3</td></tr></table>"
+                        + "<pre>first\nsecond</pre>x < y<br/>AT&amp;T"), lines::add);
+
+        assertEquals(List.of("Item 1A. Risk Factors", "a < b 3", "first", "second", "x < y", "AT&T"), lines);
+    }
+
+    static Stream<String> fixtures() throws IOException, URISyntaxException {
+        URL directory = FilingSectionExtractorTest.class.getResource("/filings");
+        assertNotNull(directory);
+        try (Stream<Path> files = Files.list(Path.of(directory.toURI()))) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(".properties"))
+                    .map(name -> name.substring(0, name.length() - ".properties".length()))
+                    .sorted()
+                    .toList()
+                    .stream();
+        }
+    }
+
+    private static List<String> values(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        return value == null ? List.of() : List.of(value.split("\\|"));
+    }
+
+    private Reader resource(String name) {
+        InputStream stream = getClass().getResourceAsStream("/filings/" + name);
+        assertNotNull(stream, name);
+        return new InputStreamReader(stream, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,41 @@
+package com.testehan.finana.service.filing;
+
+import java.io.Reader;
+
+/**
+ * Reads {@code head}, then {@code padding} repeated {@code repeats} times, then {@code tail}. The padding is generated
+ * while it is read, so a filing of hundreds of MB never has to be held in memory by the test.
+ */
+final class PaddedReader extends Reader {
+    private final String padding;
+    private final String tail;
+    private long paddingLeft;
+    private String current;
+    private int position;
+
+    PaddedReader(String head, String padding, long repeats, String tail) {
+        this.padding = padding;
+        this.tail = tail;
+        this.paddingLeft = repeats;
+        this.current = head;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+        while (position == current.length()) {
+            if (current == tail) {
+                return -1;
+            }
+            current = paddingLeft-- > 0 ? padding : tail;
+            position = 0;
+        }
+        int count = Math.min(length, current.length() - position);
+        current.getChars(position, position + count, buffer, offset);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,35 @@
+package com.testehan.finana.service.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IngestionProgressTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toNanos();
+
+    @Test
+    void noRateOrEtaBeforeTheFirstTicker() {
+        IngestionProgress progress = new IngestionProgress(10, 0);
+
+        assertEquals(0, progress.tickersPerMinute(MINUTE));
+        assertNull(progress.remaining(MINUTE));
+    }
+
+    @Test
+    void extrapolatesRemainingTimeFromThroughput() {
+        IngestionProgress progress = new IngestionProgress(10, 0);
+        progress.recordSuccess();
+        progress.recordSuccess();
+        progress.recordSuccess();
+        progress.recordFailure();
+
+        assertEquals(4, progress.processed());
+        assertEquals(1, progress.failed());
+        assertEquals(2.0, progress.tickersPerMinute(2 * MINUTE), 1e-9);
+        assertEquals(Duration.ofMinutes(3), progress.remaining(2 * MINUTE));
+    }
+}
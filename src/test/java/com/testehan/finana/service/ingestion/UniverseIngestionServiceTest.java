@@ -0,0 +1,155 @@
+package com.testehan.finana.service.ingestion;
+
+import com.testehan.finana.model.CompanyOverview;
+import com.testehan.finana.model.ingestion.IngestionFailure;
+import com.testehan.finana.model.ingestion.IngestionRun;
+import com.testehan.finana.model.ingestion.IngestionRunStatus;
+import com.testehan.finana.model.ingestion.IngestionUniverse;
+import com.testehan.finana.repository.CompanyOverviewRepository;
+import com.testehan.finana.repository.IngestionRunRepository;
+import com.testehan.finana.repository.UserStockRepository;
+import com.testehan.finana.service.FinancialDataOrchestrator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UniverseIngestionServiceTest {
+
+    @Mock
+    private FinancialDataOrchestrator financialDataOrchestrator;
+    @Mock
+    private IngestionRunRepository ingestionRunRepository;
+    @Mock
+    private CompanyOverviewRepository companyOverviewRepository;
+    @Mock
+    private UserStockRepository userStockRepository;
+
+    private UniverseIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UniverseIngestionService(financialDataOrchestrator, ingestionRunRepository,
+                companyOverviewRepository, userStockRepository, new DefaultResourceLoader());
+        ReflectionTestUtils.setField(service, "concurrency", 2);
+        ReflectionTestUtils.setField(service, "tickerTimeoutMinutes", 1L);
+        ReflectionTestUtils.setField(service, "progressInterval", 1);
+        ReflectionTestUtils.setField(service, "directory", "classpath:universes/");
+        lenient().when(ingestionRunRepository.save(any(IngestionRun.class))).thenAnswer(invocation -> {
+            IngestionRun run = invocation.getArgument(0);
+            run.setId("run-1");
+            return run;
+        });
+    }
+
+    @Test
+    void ingestsEveryTickerAndCompletesTheRun() {
+        when(financialDataOrchestrator.ensureFinancialDataIsPresent(anyString())).thenReturn(Mono.empty());
+
+        IngestionRun run = service.start(IngestionUniverse.LIST, List.of("msft", "AAPL", " aapl "), null);
+
+        assertEquals(List.of("AAPL", "MSFT"), run.getTickers());
+        verify(ingestionRunRepository, timeout(2000)).finish(eq("run-1"), eq(IngestionRunStatus.COMPLETED), any());
+        verify(ingestionRunRepository).markCompleted(eq("run-1"), eq("AAPL"), any());
+        verify(ingestionRunRepository).markCompleted(eq("run-1"), eq("MSFT"), any());
+    }
+
+    @Test
+    void recordsFailuresWithoutStoppingTheRun() {
+        when(financialDataOrchestrator.ensureFinancialDataIsPresent("AAPL")).thenReturn(Mono.error(new RuntimeException("boom")));
+        when(financialDataOrchestrator.ensureFinancialDataIsPresent("MSFT")).thenReturn(Mono.empty());
+
+        service.start(IngestionUniverse.LIST, List.of("AAPL", "MSFT"), null);
+
+        verify(ingestionRunRepository, timeout(2000)).finish(eq("run-1"), eq(IngestionRunStatus.COMPLETED), any());
+        ArgumentCaptor<IngestionFailure> failure = ArgumentCaptor.forClass(IngestionFailure.class);
+        verify(ingestionRunRepository).markFailed(eq("run-1"), failure.capture(), any());
+        assertEquals("AAPL", failure.getValue().getTicker());
+        verify(ingestionRunRepository).markCompleted(eq("run-1"), eq("MSFT"), any());
+    }
+
+    @Test
+    void resumesInterruptedRunsWithPendingTickersOnly() {
+        IngestionRun interrupted = new IngestionRun();
+        interrupted.setId("run-2");
+        interrupted.setTickers(List.of("AAPL", "GOOG", "MSFT"));
+        interrupted.setCompleted(List.of("AAPL"));
+        interrupted.setFailures(List.of(new IngestionFailure("GOOG", "timeout", LocalDateTime.now())));
+        interrupted.setStatus(IngestionRunStatus.RUNNING);
+        when(ingestionRunRepository.findByStatus(IngestionRunStatus.RUNNING)).thenReturn(List.of(interrupted));
+        when(financialDataOrchestrator.ensureFinancialDataIsPresent("MSFT")).thenReturn(Mono.empty());
+
+        service.resumeInterruptedRuns();
+
+        verify(ingestionRunRepository, timeout(2000)).finish(eq("run-2"), eq(IngestionRunStatus.COMPLETED), any());
+        verify(financialDataOrchestrator, never()).ensureFinancialDataIsPresent("AAPL");
+        verify(financialDataOrchestrator, never()).ensureFinancialDataIsPresent("GOOG");
+    }
+
+    @Test
+    void cancelStopsARunningIngestion() {
+        when(financialDataOrchestrator.ensureFinancialDataIsPresent(anyString())).thenReturn(Mono.never());
+
+        service.start(IngestionUniverse.LIST, List.of("AAPL"), null);
+
+        assertTrue(service.cancel("run-1"));
+        assertFalse(service.cancel("run-1"));
+        verify(ingestionRunRepository).finish(eq("run-1"), eq(IngestionRunStatus.CANCELLED), any());
+        verify(ingestionRunRepository, never()).markCompleted(anyString(), anyString(), any());
+    }
+
+    @Test
+    void skipsNightlyRefreshWhileWatchlistRunIsActive() {
+        when(ingestionRunRepository.existsByUniverseAndStatus(IngestionUniverse.WATCHLIST, IngestionRunStatus.RUNNING)).thenReturn(true);
+
+        service.refreshWatchlist();
+
+        verify(ingestionRunRepository, never()).save(any());
+    }
+
+    @Test
+    void resolvesTickersFromFilesAndCompanyOverviews() {
+        List<String> fromFile = service.resolveUniverse(IngestionUniverse.FILE, null, "us-tech.txt");
+        assertTrue(fromFile.contains("AAPL"));
+        assertTrue(fromFile.stream().noneMatch(ticker -> ticker.startsWith("#")));
+
+        CompanyOverview overview = new CompanyOverview();
+        overview.setSymbol("nvda");
+        when(companyOverviewRepository.findAllSymbols()).thenReturn(List.of(overview));
+        assertEquals(List.of("NVDA"), service.resolveUniverse(IngestionUniverse.COMPANY_OVERVIEWS, null, null));
+
+        assertThrows(IllegalArgumentException.class, () -> service.resolveUniverse(IngestionUniverse.FILE, null, null));
+    }
+
+    @Test
+    void rejectsTickerFilesOutsideTheIngestionDirectory() {
+        for (String location : List.of("/etc/passwd", "../application.properties", "lists/../../application.properties",
+                "file:/etc/passwd", "classpath:application.properties", "http://169.254.169.254/latest/meta-data",
+                "..\\application.properties")) {
+            assertThrows(IllegalArgumentException.class, () -> service.resolveUniverse(IngestionUniverse.FILE, null, location), location);
+        }
+        assertEquals("lists/us-tech.txt", UniverseIngestionService.tickerFileName("lists/./us-tech.txt"));
+    }
+}
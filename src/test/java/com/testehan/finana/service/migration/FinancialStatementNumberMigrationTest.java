@@ -0,0 +1,116 @@
+package com.testehan.finana.service.migration;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FinancialStatementNumberMigrationTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private FinancialStatementNumberMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        migration = new FinancialStatementNumberMigration(mongoTemplate);
+    }
+
+    @Test
+    void migrate_ConvertsEachReportGuardedByItsPeriodAndKeyValue() {
+        Document income = new Document("_id", "AAPL")
+                .append("annualReports", List.of(new Document("date", "2024-09-28").append("fiscalYear", "2024")
+                        .append("period", "FY").append("revenue", "391035000000")
+                        .append("ebitda", "None").append("eps", "6.08")))
+                .append("quarterlyReports", List.of(new Document("date", "2024-09-28").append("revenue", new Decimal128(100))));
+        when(mongoTemplate.getCollectionName(any(Class.class))).thenAnswer(invocation -> ((Class<?>) invocation.getArgument(0)).getSimpleName());
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("IncomeStatementData"))).thenReturn(Stream.of(income));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("BalanceSheetData"))).thenReturn(Stream.empty());
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("CashFlowData"))).thenReturn(Stream.empty());
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), anyString())).thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        migration.migrate();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq("IncomeStatementData"));
+        Document conditions = query.getValue().getQueryObject();
+        assertEquals("AAPL", conditions.get("_id"));
+        assertEquals("2024-09-28", conditions.get("annualReports.0.date"));
+        assertEquals("2024", conditions.get("annualReports.0.fiscalYear"));
+        assertEquals("FY", conditions.get("annualReports.0.period"));
+        assertTrue(conditions.get("annualReports.0.revenue", Document.class).containsKey("$type"));
+        assertFalse(conditions.containsKey("annualReports.0.ebitda"));
+        assertFalse(conditions.containsKey("annualReports.0.eps"));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(new Decimal128(new BigDecimal("391035000000")), set.get("annualReports.0.revenue"));
+        assertEquals(new Decimal128(new BigDecimal("6.08")), set.get("annualReports.0.eps"));
+        assertFalse(set.containsKey("annualReports.0.date"));
+        assertFalse(set.containsKey("quarterlyReports.0.revenue"));
+        assertTrue(((Document) update.getValue().getUpdateObject().get("$unset")).containsKey("annualReports.0.ebitda"));
+        verify(mongoTemplate, never()).save(any());
+    }
+
+    @Test
+    void migrate_UpdatesEveryStringReportOnItsOwn() {
+        Document income = new Document("_id", "AAPL")
+                .append("annualReports", List.of(
+                        new Document("date", "2024-09-28").append("revenue", "391035000000"),
+                        new Document("date", "2023-09-30").append("revenue", "383285000000")))
+                .append("quarterlyReports", List.of(new Document("date", "2024-09-28").append("revenue", "94930000000")));
+        when(mongoTemplate.getCollectionName(any(Class.class))).thenAnswer(invocation -> ((Class<?>) invocation.getArgument(0)).getSimpleName());
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("IncomeStatementData"))).thenReturn(Stream.of(income));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("BalanceSheetData"))).thenReturn(Stream.empty());
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("CashFlowData"))).thenReturn(Stream.empty());
+        // the second annual report was refreshed in the meantime
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), anyString()))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null), UpdateResult.acknowledged(0, 0L, null),
+                        UpdateResult.acknowledged(1, 1L, null));
+
+        migration.migrate();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).updateFirst(query.capture(), any(Update.class), eq("IncomeStatementData"));
+        assertTrue(query.getAllValues().get(0).getQueryObject().containsKey("annualReports.0.revenue"));
+        assertEquals("2023-09-30", query.getAllValues().get(1).getQueryObject().get("annualReports.1.date"));
+        assertFalse(query.getAllValues().get(1).getQueryObject().containsKey("annualReports.0.date"));
+        assertTrue(query.getAllValues().get(2).getQueryObject().containsKey("quarterlyReports.0.revenue"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void migrate_QueriesAnnualAndQuarterlyStringValues() {
+        when(mongoTemplate.getCollectionName(any(Class.class))).thenAnswer(invocation -> ((Class<?>) invocation.getArgument(0)).getSimpleName());
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), anyString())).thenReturn(Stream.empty());
+
+        migration.migrate();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Document.class), eq("CashFlowData"));
+        List<Document> conditions = (List<Document>) query.getValue().getQueryObject().get("$or");
+        assertEquals(2, conditions.size());
+        assertTrue(conditions.get(0).containsKey("annualReports.operatingCashFlow"));
+        assertTrue(conditions.get(1).get("quarterlyReports.operatingCashFlow", Document.class).containsKey("$type"));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), anyString());
+    }
+}
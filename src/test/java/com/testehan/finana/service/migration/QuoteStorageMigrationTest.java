@@ -0,0 +1,158 @@
+package com.testehan.finana.service.migration;
+
+import com.testehan.finana.config.MongoServerVersion;
+import com.testehan.finana.model.quote.GlobalQuote;
+import com.testehan.finana.model.quote.IndexQuotes;
+import com.testehan.finana.model.quote.StockQuoteBar;
+import com.testehan.finana.model.quote.StockQuotes;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuoteStorageMigrationTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoServerVersion mongoServerVersion;
+
+    private QuoteStorageMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mongoServerVersion.supportsArbitraryTimeSeriesDeletes()).thenReturn(true);
+        migration = new QuoteStorageMigration(mongoTemplate, mongoServerVersion);
+    }
+
+    private GlobalQuote quote(String date, String adjClose) {
+        GlobalQuote quote = new GlobalQuote();
+        quote.setDate(date);
+        quote.setAdjClose(adjClose);
+        return quote;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void migrate_InsertsBarsBeforeRemovingOldOnesAndMarksTheCopy() {
+        StockQuotes legacy = new StockQuotes();
+        legacy.setSymbol("aapl");
+        legacy.setQuotes(List.of(quote("2024-06-17", "101.5"), quote("2024-06-14", "99.0")));
+        when(mongoTemplate.stream(any(Query.class), eq(StockQuotes.class))).thenReturn(Stream.of(legacy));
+        when(mongoTemplate.stream(any(Query.class), eq(IndexQuotes.class))).thenReturn(Stream.empty());
+        when(mongoTemplate.count(any(Query.class), eq(StockQuoteBar.class))).thenReturn(2L);
+
+        migration.migrate();
+
+        InOrder writes = inOrder(mongoTemplate);
+        ArgumentCaptor<Collection<StockQuoteBar>> inserted = ArgumentCaptor.forClass(Collection.class);
+        writes.verify(mongoTemplate).insert(inserted.capture(), eq(StockQuoteBar.class));
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        writes.verify(mongoTemplate).remove(removed.capture(), eq(StockQuoteBar.class));
+        assertEquals(2, inserted.getValue().size());
+        assertTrue(inserted.getValue().stream().allMatch(bar -> "AAPL".equals(bar.getSymbol())));
+        String batch = inserted.getValue().iterator().next().getBatch();
+        assertEquals(new Document("$ne", batch), removed.getValue().getQueryObject().get("batch"));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(StockQuotes.class));
+        assertTrue(((Document) update.getValue().getUpdateObject().get("$set")).containsKey("quotesMigratedAt"));
+        assertFalse(update.getValue().getUpdateObject().containsKey("$unset"));
+    }
+
+    @Test
+    void migrate_FailedInsert_KeepsStoredBars() {
+        StockQuotes legacy = new StockQuotes();
+        legacy.setSymbol("AAPL");
+        legacy.setQuotes(List.of(quote("2024-06-17", "101.5")));
+        when(mongoTemplate.stream(any(Query.class), eq(StockQuotes.class))).thenReturn(Stream.of(legacy));
+        when(mongoTemplate.insert(anyCollection(), eq(StockQuoteBar.class))).thenThrow(new RuntimeException("write failed"));
+
+        assertThrows(RuntimeException.class, () -> migration.migrate());
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(StockQuoteBar.class));
+        assertInstanceOf(String.class, removed.getValue().getQueryObject().get("batch"));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), any(Class.class));
+    }
+
+    @Test
+    void removeEmbeddedQuotes_UnsetsOnlyVerifiedCopies() {
+        StockQuotes copied = new StockQuotes();
+        copied.setSymbol("AAPL");
+        copied.setQuotes(List.of(quote("2024-06-17", "101.5"), quote("2024-06-14", "99.0")));
+        StockQuotes incomplete = new StockQuotes();
+        incomplete.setSymbol("MSFT");
+        incomplete.setQuotes(List.of(quote("2024-06-17", "420.0"), quote("2024-06-14", "415.0")));
+        when(mongoTemplate.stream(any(Query.class), eq(StockQuotes.class))).thenReturn(Stream.of(copied, incomplete));
+        when(mongoTemplate.stream(any(Query.class), eq(IndexQuotes.class))).thenReturn(Stream.empty());
+        when(mongoTemplate.count(any(Query.class), eq(StockQuoteBar.class))).thenReturn(2L, 1L);
+
+        migration.removeEmbeddedQuotes();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(StockQuotes.class));
+        assertEquals("AAPL", query.getValue().getQueryObject().get("_id"));
+        assertTrue(update.getValue().getUpdateObject().containsKey("$unset"));
+    }
+
+    @Test
+    void migrate_NothingLeftToMigrate_WritesNothing() {
+        when(mongoTemplate.stream(any(Query.class), eq(StockQuotes.class))).thenReturn(Stream.empty());
+        when(mongoTemplate.stream(any(Query.class), eq(IndexQuotes.class))).thenReturn(Stream.empty());
+
+        migration.migrate();
+
+        verify(mongoTemplate, never()).insert(anyCollection(), any(Class.class));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), any(Class.class));
+    }
+
+    @Test
+    void createTimeSeriesCollections_DoesNotNeedTheServerVersion() {
+        when(mongoTemplate.collectionExists(any(Class.class))).thenReturn(true);
+        when(mongoTemplate.indexOps(any(Class.class))).thenReturn(mock(IndexOperations.class));
+
+        migration.createTimeSeriesCollections();
+
+        verifyNoInteractions(mongoServerVersion);
+        verify(mongoTemplate, never()).executeCommand(any(Document.class));
+    }
+
+    @Test
+    void migrate_ServerOlderThanSeven_RemovesTheSymbolsBarsBeforeInserting() {
+        when(mongoServerVersion.supportsArbitraryTimeSeriesDeletes()).thenReturn(false);
+        StockQuotes legacy = new StockQuotes();
+        legacy.setSymbol("AAPL");
+        legacy.setQuotes(List.of(quote("2024-06-17", "101.5")));
+        when(mongoTemplate.stream(any(Query.class), eq(StockQuotes.class))).thenReturn(Stream.of(legacy));
+        when(mongoTemplate.stream(any(Query.class), eq(IndexQuotes.class))).thenReturn(Stream.empty());
+        when(mongoTemplate.count(any(Query.class), eq(StockQuoteBar.class))).thenReturn(1L);
+
+        migration.migrate();
+
+        InOrder writes = inOrder(mongoTemplate);
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        writes.verify(mongoTemplate).remove(removed.capture(), eq(StockQuoteBar.class));
+        writes.verify(mongoTemplate).insert(anyCollection(), eq(StockQuoteBar.class));
+        assertEquals(new Document("symbol", "AAPL"), removed.getValue().getQueryObject());
+    }
+}
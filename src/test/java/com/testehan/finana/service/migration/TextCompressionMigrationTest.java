@@ -0,0 +1,105 @@
+package com.testehan.finana.service.migration;
+
+import com.testehan.finana.config.CompressedTextConverter;
+import com.testehan.finana.config.CompressedTranscriptConverter;
+import com.testehan.finana.model.filing.CompanyEarningsTranscripts;
+import com.testehan.finana.model.filing.SecFiling;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TextCompressionMigrationTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private TextCompressionMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        CompressedTextConverter compressedText = new CompressedTextConverter(1024, 6);
+        migration = new TextCompressionMigration(mongoTemplate, compressedText, new CompressedTranscriptConverter(compressedText));
+    }
+
+    @Test
+    void migrate_SetsEachCompressedTextOnlyWhileItsFilingIsUnchanged() {
+        String longText = "risk ".repeat(300);
+        Document filing = new Document("_id", "AAPL").append("tenKFilings", List.of(
+                new Document("riskFactors", "short"),
+                new Document("filingUrl", "https://sec.gov/aapl-10k.htm").append("lastModified", "Fri, 01 Nov 2024")
+                        .append("riskFactors", longText).append("businessDescription", longText)));
+        Document transcripts = new Document("_id", "MSFT").append("transcripts", List.of(
+                new Document("quarter", "2024Q2").append("transcript", List.of(new Document("content", "hi"))),
+                new Document("quarter", "2024Q3").append("transcript",
+                        List.of(new Document("speaker", "CEO").append("content", "hi"), new Document("content", longText)))));
+        when(mongoTemplate.getCollectionName(SecFiling.class)).thenReturn("sec_filings");
+        when(mongoTemplate.getCollectionName(CompanyEarningsTranscripts.class)).thenReturn("company_earnings_transcripts");
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("sec_filings"))).thenReturn(Stream.of(filing));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("company_earnings_transcripts"))).thenReturn(Stream.of(transcripts));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), anyString())).thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        migration.migrate();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateFirst(query.capture(), update.capture(), eq("sec_filings"));
+        Document filingQuery = query.getAllValues().get(0).getQueryObject();
+        assertEquals(new Document("_id", "AAPL")
+                .append("tenKFilings.1.filingUrl", "https://sec.gov/aapl-10k.htm")
+                .append("tenKFilings.1.lastModified", "Fri, 01 Nov 2024")
+                .append("tenKFilings.1.businessDescription", new Document("$type", 2)), filingQuery);
+        Document set = (Document) update.getAllValues().get(0).getUpdateObject().get("$set");
+        assertEquals(1, set.size());
+        assertInstanceOf(Binary.class, set.get("tenKFilings.1.businessDescription"));
+        Document secondSet = (Document) update.getAllValues().get(1).getUpdateObject().get("$set");
+        assertEquals(List.of("tenKFilings.1.riskFactors"), List.copyOf(secondSet.keySet()));
+
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq("company_earnings_transcripts"));
+        Document transcriptQuery = query.getValue().getQueryObject();
+        assertEquals("2024Q3", transcriptQuery.get("transcripts.1.quarter"));
+        assertTrue(transcriptQuery.containsKey("transcripts.1.lastUpdated"));
+        assertEquals(new Document("$type", 4), transcriptQuery.get("transcripts.1.transcript"));
+        Document transcriptSet = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(List.of("transcripts.1.transcript"), List.copyOf(transcriptSet.keySet()));
+        assertInstanceOf(Binary.class, transcriptSet.get("transcripts.1.transcript"));
+        verify(mongoTemplate, never()).save(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void migrate_QueriesOnlyTextsAboveTheThreshold() {
+        when(mongoTemplate.getCollectionName(any(Class.class))).thenReturn("sec_filings", "company_earnings_transcripts");
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), anyString())).thenReturn(Stream.empty());
+
+        migration.migrate();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Document.class), eq("sec_filings"));
+        List<Document> conditions = (List<Document>) query.getValue().getQueryObject().get("$or");
+        assertEquals(5, conditions.size());
+        Pattern longText = (Pattern) conditions.get(1).get("tenKFilings.riskFactors");
+        assertTrue(longText.matcher("a\n".repeat(512)).find());
+        assertFalse(longText.matcher("a".repeat(1023)).find());
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), anyString());
+    }
+}
@@ -0,0 +1,35 @@
+package com.testehan.finana.service.migration;
+
+import com.mongodb.client.result.UpdateResult;
+import com.testehan.finana.model.user.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCreditMigrationTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void migrate_ConvertsStringBalancesOnly() {
+        when(mongoTemplate.updateMulti(any(Query.class), any(AggregationUpdate.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+        new UserCreditMigration(mongoTemplate).migrate();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(query.capture(), any(AggregationUpdate.class), eq(User.class));
+        assertTrue(query.getValue().getQueryObject().toJson().contains("$type"));
+    }
+}
@@ -8,6 +8,7 @@ import com.testehan.finana.repository.UserStockRepository;
 import com.testehan.finana.service.CompanyDataService;
 import com.testehan.finana.service.FinancialDataOrchestrator;
 import com.testehan.finana.service.UserCreditService;
+import com.testehan.finana.service.reporting.events.ErrorEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -21,6 +22,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -61,7 +63,8 @@ class ChecklistReportOrchestratorTest {
         orchestrator = new ChecklistReportOrchestrator(
                 financialDataOrchestrator, companyDataService, checklistReportPersistenceService,
                 generatedReportRepository, userReportOverrideRepository, userStockRepository, checklistExecutor,
-                eventPublisher, List.of(ferolReportGenerator), mongoTemplate, userCreditService
+                eventPublisher, List.of(ferolReportGenerator), mongoTemplate, userCreditService,
+                ChecklistReportOrchestrator.DisconnectPolicy.ABORT
         );
     }
 
@@ -98,6 +101,58 @@ class ChecklistReportOrchestratorTest {
         orchestrator.getChecklistReport(ticker, true, ReportType.FEROL, "test@test.com");
 
         verify(financialDataOrchestrator).ensureFinancialDataIsPresent(ticker);
-        verify(ferolReportGenerator).generate(eq(ticker), eq(ReportType.FEROL), any(SseEmitter.class));
+        verify(ferolReportGenerator).generate(eq(ticker), eq(ReportType.FEROL), any(SseEmitter.class), eq(false));
+    }
+
+    @Test
+    void getChecklistReport_regenerate_passesItToTheGenerator() throws InterruptedException {
+        String ticker = "AAPL";
+        when(financialDataOrchestrator.ensureFinancialDataIsPresent(ticker)).thenReturn(reactor.core.publisher.Mono.empty());
+
+        orchestrator.getChecklistReport(ticker, true, true, ReportType.FEROL, "test@test.com");
+
+        verify(ferolReportGenerator).generate(eq(ticker), eq(ReportType.FEROL), any(SseEmitter.class), eq(true));
+    }
+
+    @Test
+    void getChecklistReport_clientDisconnects_abortsGeneration() throws InterruptedException {
+        String ticker = "AAPL";
+        when(financialDataOrchestrator.ensureFinancialDataIsPresent(ticker)).thenReturn(reactor.core.publisher.Mono.empty());
+        doAnswer(invocation -> {
+            ((ReportSseEmitter) invocation.getArgument(2)).markDisconnected();
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            return null;
+        }).when(ferolReportGenerator).generate(eq(ticker), eq(ReportType.FEROL), any(SseEmitter.class), eq(false));
+
+        orchestrator.getChecklistReport(ticker, true, ReportType.FEROL, "test@test.com");
+
+        verify(checklistReportPersistenceService).markReportAsFailed(ticker, ReportType.FEROL, "Report generation was cancelled.");
+        verify(eventPublisher, never()).publishEvent(any(ErrorEvent.class));
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void getChecklistReport_clientDisconnectsWithContinue_generationContinues() throws InterruptedException {
+        orchestrator = new ChecklistReportOrchestrator(
+                financialDataOrchestrator, companyDataService, checklistReportPersistenceService,
+                generatedReportRepository, userReportOverrideRepository, userStockRepository, checklistExecutor,
+                eventPublisher, List.of(ferolReportGenerator), mongoTemplate, userCreditService,
+                ChecklistReportOrchestrator.DisconnectPolicy.CONTINUE
+        );
+        String ticker = "AAPL";
+        when(financialDataOrchestrator.ensureFinancialDataIsPresent(ticker)).thenReturn(reactor.core.publisher.Mono.empty());
+        doAnswer(invocation -> {
+            ((ReportSseEmitter) invocation.getArgument(2)).markDisconnected();
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            return null;
+        }).when(ferolReportGenerator).generate(eq(ticker), eq(ReportType.FEROL), any(SseEmitter.class), eq(false));
+
+        orchestrator.getChecklistReport(ticker, true, ReportType.FEROL, "test@test.com");
+
+        verify(checklistReportPersistenceService, never()).markReportAsFailed(any(), any(), any());
     }
 }
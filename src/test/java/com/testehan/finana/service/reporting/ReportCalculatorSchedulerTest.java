@@ -0,0 +1,235 @@
+package com.testehan.finana.service.reporting;
+
+import com.testehan.finana.model.finstatement.IncomeStatementData;
+import com.testehan.finana.model.reporting.ReportItem;
+import com.testehan.finana.model.reporting.ReportType;
+import com.testehan.finana.service.reporting.calc.CalculatorResource;
+import com.testehan.finana.service.reporting.calc.ReportItemCalculator;
+import com.testehan.finana.util.RequestPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportCalculatorSchedulerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExecutorService executor;
+    private ReportCalculatorScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduler = new ReportCalculatorScheduler(executor, meterRegistry, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void returnsItemsInCalculatorOrder() {
+        List<ReportItemCalculator> calculators = List.of(
+                calculator("slow", CalculatorResource.COMPUTE, Set.of(), () -> {
+                    sleep(50);
+                    return "slow";
+                }),
+                calculator("fast", CalculatorResource.COMPUTE, Set.of(), () -> "fast"),
+                calculator("llm", CalculatorResource.LLM_GEMINI, Set.of(), () -> "llm"));
+
+        List<ReportItem> items = scheduler.run(calculators, ReportContext.builder("AAPL").build(), ReportType.FEROL, null);
+
+        assertThat(items).extracting(ReportItem::getName).containsExactly("slow", "fast", "llm");
+    }
+
+    @Test
+    void startsAllLlmCalculatorsAtOnceAtBackgroundPriority() {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        Supplier<String> llmCall = () -> {
+            allStarted.countDown();
+            try {
+                // only returns true when the three calculators run at the same time
+                return allStarted.await(5, TimeUnit.SECONDS) + "," + RequestPriority.current();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "interrupted";
+            }
+        };
+        List<ReportItemCalculator> calculators = List.of(
+                calculator("first", CalculatorResource.LLM_OLLAMA, Set.of(), llmCall),
+                calculator("second", CalculatorResource.LLM_OLLAMA, Set.of(), llmCall),
+                calculator("third", CalculatorResource.LLM_GEMINI, Set.of(), llmCall));
+
+        List<ReportItem> items = scheduler.run(calculators, ReportContext.builder("AAPL").build(), ReportType.FEROL, null);
+
+        assertThat(items).extracting(ReportItem::getName).containsOnly("true,BACKGROUND");
+    }
+
+    @Test
+    void loadsRequiredDocumentsOnceBeforeTheCalculators() {
+        AtomicInteger loads = new AtomicInteger();
+        ReportContext context = ReportContext.builder("AAPL")
+                .incomeStatement(symbol -> {
+                    loads.incrementAndGet();
+                    return Optional.of(new IncomeStatementData());
+                })
+                .build();
+        Supplier<String> readsLoadCount = () -> String.valueOf(loads.get());
+        List<ReportItemCalculator> calculators = List.of(
+                calculator("first", CalculatorResource.COMPUTE, Set.of(ReportData.INCOME_STATEMENT), readsLoadCount),
+                calculator("second", CalculatorResource.LLM_GEMINI, Set.of(ReportData.INCOME_STATEMENT), readsLoadCount));
+
+        List<ReportItem> items = scheduler.run(calculators, context, ReportType.FEROL, null);
+
+        assertThat(items).extracting(ReportItem::getName).containsExactly("1", "1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void recordsTheDurationOfEachCalculator() {
+        scheduler.run(List.of(calculator("grossMargin", CalculatorResource.COMPUTE, Set.of(), () -> "grossMargin")),
+                ReportContext.builder("AAPL").build(), ReportType.FEROL, null);
+
+        assertThat(meterRegistry.get("report.calculator.duration")
+                .tag("calculator", "grossMargin")
+                .tag("resource", "COMPUTE")
+                .tag("report", "FEROL")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void propagatesCalculatorFailures() {
+        List<ReportItemCalculator> calculators = List.of(
+                calculator("broken", CalculatorResource.COMPUTE, Set.of(), () -> {
+                    throw new IllegalStateException("no data");
+                }));
+
+        assertThatThrownBy(() -> scheduler.run(calculators, ReportContext.builder("AAPL").build(), ReportType.FEROL, null))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void failureInterruptsRunningAndCancelsWaitingCalculators() {
+        scheduler = new ReportCalculatorScheduler(executor, meterRegistry, 1);
+        CountDownLatch llmStarted = new CountDownLatch(1);
+        AtomicInteger interrupted = new AtomicInteger();
+        AtomicInteger queuedRuns = new AtomicInteger();
+        List<ReportItemCalculator> calculators = List.of(
+                calculator("llm", CalculatorResource.LLM_GEMINI, Set.of(), () -> {
+                    llmStarted.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.incrementAndGet();
+                    }
+                    return "llm";
+                }),
+                calculator("broken", CalculatorResource.COMPUTE, Set.of(), () -> {
+                    try {
+                        llmStarted.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException("no data");
+                }),
+                calculator("queued", CalculatorResource.COMPUTE, Set.of(), () -> {
+                    queuedRuns.incrementAndGet();
+                    return "queued";
+                }));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> scheduler.run(calculators, ReportContext.builder("AAPL").build(), ReportType.FEROL, null))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+
+        assertThat(interrupted).hasValue(1);
+        assertThat(queuedRuns).hasValue(0);
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(5);
+    }
+
+    @Test
+    void interruptingTheGeneratingThreadCancelsItsCalculators() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch calculatorInterrupted = new CountDownLatch(1);
+        List<ReportItemCalculator> calculators = List.of(
+                calculator("llm", CalculatorResource.LLM_OLLAMA, Set.of(), () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        calculatorInterrupted.countDown();
+                    }
+                    return "llm";
+                }));
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        AtomicBoolean stillInterrupted = new AtomicBoolean();
+        Thread generation = Thread.ofVirtual().start(() -> {
+            try {
+                scheduler.run(calculators, ReportContext.builder("AAPL").build(), ReportType.FEROL, null);
+            } catch (Throwable e) {
+                thrown.set(e);
+                stillInterrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        generation.interrupt();
+        generation.join(5_000);
+
+        assertThat(calculatorInterrupted.await(0, TimeUnit.SECONDS)).isTrue();
+        assertThat(thrown.get()).isInstanceOf(CancellationException.class);
+        assertThat(stillInterrupted).isTrue();
+    }
+
+    private static ReportItemCalculator calculator(String name, CalculatorResource resource, Set<ReportData> requires,
+                                                   Supplier<String> itemName) {
+        return new ReportItemCalculator() {
+            @Override
+            public Collection<ReportItem> calculate(ReportContext context, ReportType reportType, SseEmitter sseEmitter) {
+                return List.of(new ReportItem(itemName.get(), 1, ""));
+            }
+
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public CalculatorResource resource() {
+                return resource;
+            }
+
+            @Override
+            public Set<ReportData> requires() {
+                return requires;
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.testehan.finana.service.reporting;
+
+import com.testehan.finana.model.finstatement.IncomeReport;
+import com.testehan.finana.model.finstatement.IncomeStatementData;
+import com.testehan.finana.repository.IncomeStatementRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReportContextTest {
+
+    @Mock
+    private IncomeStatementRepository incomeStatementRepository;
+
+    @Test
+    void loadsEachDocumentOnceForAllCalculators() {
+        when(incomeStatementRepository.findBySymbol("AAPL")).thenReturn(Optional.of(incomeStatement()));
+        ReportContext context = ReportContext.builder("AAPL")
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .build();
+
+        List<CompletableFuture<Optional<IncomeStatementData>>> reads = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(context::getIncomeStatement))
+                .toList();
+        reads.forEach(CompletableFuture::join);
+
+        verify(incomeStatementRepository, times(1)).findBySymbol("AAPL");
+        assertThat(reads).allSatisfy(read -> assertThat(read.join()).containsSame(context.getIncomeStatement().get()));
+    }
+
+    @Test
+    void reportListsOfLoadedDocumentsAreReadOnly() {
+        when(incomeStatementRepository.findBySymbol("AAPL")).thenReturn(Optional.of(incomeStatement()));
+        ReportContext context = ReportContext.builder("AAPL")
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .build();
+
+        List<IncomeReport> annualReports = context.getIncomeStatement().get().getAnnualReports();
+
+        assertThatThrownBy(() -> annualReports.sort(Comparator.comparing(IncomeReport::getDate)))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(annualReports).hasSize(2);
+    }
+
+    @Test
+    void documentsWithoutLoaderAreEmpty() {
+        ReportContext context = ReportContext.builder("AAPL").build();
+
+        assertThat(context.getTicker()).isEqualTo("AAPL");
+        assertThat(context.getLatestTenKFiling()).isEmpty();
+        assertThat(context.getCompanyOverview()).isEmpty();
+    }
+
+    private IncomeStatementData incomeStatement() {
+        IncomeReport older = new IncomeReport();
+        older.setDate("2023-12-31");
+        IncomeReport newer = new IncomeReport();
+        newer.setDate("2024-12-31");
+        IncomeStatementData data = new IncomeStatementData();
+        data.setAnnualReports(new ArrayList<>(List.of(newer, older)));
+        return data;
+    }
+}
@@ -0,0 +1,38 @@
+package com.testehan.finana.service.reporting;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportSseEmitterTest {
+
+    @Test
+    void send_FailsRepeatedly_MarksTheClientDisconnectedOnce() {
+        ReportSseEmitter emitter = new ReportSseEmitter(0L);
+        AtomicInteger disconnects = new AtomicInteger();
+        emitter.onDisconnect(disconnects::incrementAndGet);
+        // a completed emitter rejects every send
+        emitter.complete();
+
+        for (int attempt = 1; attempt < ReportSseEmitter.MAX_FAILED_SENDS; attempt++) {
+            assertThrows(RuntimeException.class, () -> emitter.send(SseEmitter.event().data("progress")));
+            assertFalse(emitter.isDisconnected());
+        }
+        assertThrows(RuntimeException.class, () -> emitter.send(SseEmitter.event().data("progress")));
+
+        assertTrue(emitter.isDisconnected());
+        assertEquals(1, disconnects.get());
+    }
+
+    @Test
+    void complete_ByTheReport_IsNotADisconnect() {
+        ReportSseEmitter emitter = new ReportSseEmitter(0L);
+
+        emitter.complete();
+
+        assertFalse(emitter.isDisconnected());
+    }
+}
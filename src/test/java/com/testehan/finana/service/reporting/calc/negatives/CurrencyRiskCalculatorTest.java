@@ -4,6 +4,7 @@ import com.testehan.finana.model.finstatement.RevenueGeographicSegmentationData;
 import com.testehan.finana.model.finstatement.RevenueGeographicSegmentationReport;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.RevenueGeographicSegmentationRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -35,7 +36,7 @@ class CurrencyRiskCalculatorTest {
 
     @BeforeEach
     void setUp() {
-        calculator = new CurrencyRiskCalculator(revenueRepository, eventPublisher);
+        calculator = new CurrencyRiskCalculator(eventPublisher);
     }
 
     @Test
@@ -43,7 +44,7 @@ class CurrencyRiskCalculatorTest {
     void shouldReturnMinusTenWhenNoData() {
         when(revenueRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getName()).isEqualTo("currencyRisk");
         assertThat(result.getScore()).isEqualTo(-10);
@@ -64,7 +65,7 @@ class CurrencyRiskCalculatorTest {
 
         when(revenueRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-2);
         assertThat(result.getExplanation()).contains("The company gets revenue from these areas");
@@ -84,7 +85,7 @@ class CurrencyRiskCalculatorTest {
 
         when(revenueRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-2);
     }
@@ -103,7 +104,7 @@ class CurrencyRiskCalculatorTest {
 
         when(revenueRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-1);
     }
@@ -122,8 +123,14 @@ class CurrencyRiskCalculatorTest {
 
         when(revenueRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .revenueGeographicSegmentation(revenueRepository::findBySymbol)
+                .build();
+    }
 }
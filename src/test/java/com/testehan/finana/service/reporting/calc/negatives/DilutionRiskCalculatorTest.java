@@ -4,6 +4,7 @@ import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.IncomeStatementRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +15,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -38,7 +40,7 @@ class DilutionRiskCalculatorTest {
 
     @BeforeEach
     void setUp() {
-        calculator = new DilutionRiskCalculator(incomeRepository, eventPublisher);
+        calculator = new DilutionRiskCalculator(eventPublisher);
     }
 
     @Test
@@ -46,7 +48,7 @@ class DilutionRiskCalculatorTest {
     void shouldReturnMinusTenWhenNoData() {
         when(incomeRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getName()).isEqualTo("extremeDilution");
         assertThat(result.getScore()).isEqualTo(-10);
@@ -64,7 +66,7 @@ class DilutionRiskCalculatorTest {
 
         when(incomeRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("2,00%");
@@ -81,7 +83,7 @@ class DilutionRiskCalculatorTest {
 
         when(incomeRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-2);
         assertThat(result.getExplanation()).contains("4,00%");
@@ -98,14 +100,20 @@ class DilutionRiskCalculatorTest {
 
         when(incomeRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-4);
         assertThat(result.getExplanation()).contains("10,00%");
         }    private IncomeReport createReport(String date, String shares) {
         IncomeReport report = new IncomeReport();
         report.setDate(date);
-        report.setWeightedAverageShsOutDil(shares);
+        report.setWeightedAverageShsOutDil(new BigDecimal(shares));
         return report;
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .incomeStatement(incomeRepository::findBySymbol)
+                .build();
+    }
 }
@@ -3,6 +3,7 @@ package com.testehan.finana.service.reporting.calc.negatives;
 import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.CompanyOverviewRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -35,7 +36,7 @@ class HeadquarterRiskCalculatorTest {
 
     @BeforeEach
     void setUp() {
-        calculator = new HeadquarterRiskCalculator(repository, eventPublisher);
+        calculator = new HeadquarterRiskCalculator(eventPublisher);
     }
 
     @Test
@@ -43,7 +44,7 @@ class HeadquarterRiskCalculatorTest {
     void shouldReturnMinusTenWhenNoData() {
         when(repository.findBySymbol("AAPL")).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getName()).isEqualTo("headquarters");
         assertThat(result.getScore()).isEqualTo(-10);
@@ -57,7 +58,7 @@ class HeadquarterRiskCalculatorTest {
         overview.setCountry("USA");
         when(repository.findBySymbol("AAPL")).thenReturn(Optional.of(overview));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("USA");
@@ -70,9 +71,15 @@ class HeadquarterRiskCalculatorTest {
         overview.setCountry("China");
         when(repository.findBySymbol("BABA")).thenReturn(Optional.of(overview));
 
-        ReportItem result = calculator.calculate("BABA", sseEmitter);
+        ReportItem result = calculator.calculate(context("BABA"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-3);
         assertThat(result.getExplanation()).contains("China");
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(repository::findBySymbol)
+                .build();
+    }
 }
@@ -1,12 +1,12 @@
 package com.testehan.finana.service.reporting.calc.negatives;
 
 import com.testehan.finana.model.CompanyOverview;
-import com.testehan.finana.model.filing.SecFiling;
 import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.llm.responses.FerolNegativesAnalysisLlmResponse;
 import com.testehan.finana.repository.CompanyOverviewRepository;
 import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,11 +19,11 @@ import org.springframework.core.io.ByteArrayResource;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
@@ -46,17 +46,17 @@ class MultipleRisksCalculatorTest {
 
     @BeforeEach
     void setUp() {
-        calculator = new MultipleRisksCalculator(companyOverviewRepository, secFilingRepository, llmService, eventPublisher);
+        calculator = new MultipleRisksCalculator(llmService, eventPublisher);
         ReflectionTestUtils.setField(calculator, "multipleNegativesPrompt", new ByteArrayResource("test prompt {format} {company_name} {business_description} {risk_factors} {management_discussion}".getBytes()));
     }
 
     @Test
     @DisplayName("Should return failure response when data is missing")
     void shouldReturnFailureWhenDataMissing() {
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
 
-        FerolNegativesAnalysisLlmResponse result = calculator.calculate("AAPL", sseEmitter);
+        FerolNegativesAnalysisLlmResponse result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getAccountingIrregularitiesScore()).isEqualTo(-10);
     }
@@ -68,22 +68,27 @@ class MultipleRisksCalculatorTest {
         overview.setCompanyName("Apple Inc.");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(overview));
 
-        SecFiling filing = new SecFiling();
         TenKFilings tenK = new TenKFilings();
         tenK.setBusinessDescription("Description");
         tenK.setRiskFactors("Risks");
         tenK.setManagementDiscussion("Discussion");
         tenK.setFiledAt("2023-01-01");
-        filing.setTenKFilings(List.of(tenK));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.of(filing));
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.of(tenK));
 
         String mockLlmResponse = "{\"accountingIrregularitiesScore\": -1, \"accountingIrregularitiesExplanation\": \"Explanation\"}";
-        when(llmService.callLlmWithOllama(any(Prompt.class), eq("multiple_risks_analysis"), eq("AAPL")))
+        when(llmService.callLlmWithOllama(any(Prompt.class), eq("multiple_risks_analysis"), eq("AAPL"), anyBoolean()))
                 .thenReturn(mockLlmResponse);
 
-        FerolNegativesAnalysisLlmResponse result = calculator.calculate("AAPL", sseEmitter);
+        FerolNegativesAnalysisLlmResponse result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getAccountingIrregularitiesScore()).isEqualTo(-1);
         assertThat(result.getAccountingIrregularitiesExplanation()).isEqualTo("Explanation");
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .build();
+    }
 }
@@ -4,6 +4,7 @@ import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.IncomeStatementRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +15,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,7 +39,7 @@ class AcquisitionsCalculatorTest {
 
     @BeforeEach
     void setUp() {
-        calculator = new AcquisitionsCalculator(incomeStatementRepository, eventPublisher);
+        calculator = new AcquisitionsCalculator(eventPublisher);
     }
 
     @Test
@@ -48,18 +50,18 @@ class AcquisitionsCalculatorTest {
         
         IncomeReport r1 = new IncomeReport();
         r1.setDate("2023-06-30");
-        r1.setSellingAndMarketingExpenses("100");
-        r1.setGrossProfit("1000"); // 10%
+        r1.setSellingAndMarketingExpenses(new BigDecimal("100"));
+        r1.setGrossProfit(new BigDecimal("1000")); // 10%
         
         IncomeReport r2 = new IncomeReport();
         r2.setDate("2022-06-30");
-        r2.setSellingAndMarketingExpenses("200");
-        r2.setGrossProfit("1000"); // 20%
+        r2.setSellingAndMarketingExpenses(new BigDecimal("200"));
+        r2.setGrossProfit(new BigDecimal("1000")); // 20%
         
         IncomeReport r3 = new IncomeReport();
         r3.setDate("2021-06-30");
-        r3.setSellingAndMarketingExpenses("300");
-        r3.setGrossProfit("1000"); // 30%
+        r3.setSellingAndMarketingExpenses(new BigDecimal("300"));
+        r3.setGrossProfit(new BigDecimal("1000")); // 30%
         
         incomeData.setAnnualReports(List.of(r1, r2, r3));
         when(incomeStatementRepository.findBySymbol(ticker)).thenReturn(Optional.of(incomeData));
@@ -69,7 +71,7 @@ class AcquisitionsCalculatorTest {
         // (30 + 40 + 30) / 6 = 100 / 6 = 16.67
         // Score for 16.67 is 4 (val < 20)
 
-        ReportItem result = calculator.calculate(ticker, sseEmitter);
+        ReportItem result = calculator.calculate(context(ticker), sseEmitter);
 
         assertThat(result).isNotNull();
         assertThat(result.getType()).isEqualTo("customerAcquisition");
@@ -85,14 +87,14 @@ class AcquisitionsCalculatorTest {
         
         IncomeReport r1 = new IncomeReport();
         r1.setDate("2023-06-30");
-        r1.setSellingAndMarketingExpenses("0");
-        r1.setSellingGeneralAndAdministrativeExpenses("150");
-        r1.setGrossProfit("1000"); // 15%
+        r1.setSellingAndMarketingExpenses(new BigDecimal("0"));
+        r1.setSellingGeneralAndAdministrativeExpenses(new BigDecimal("150"));
+        r1.setGrossProfit(new BigDecimal("1000")); // 15%
         
         incomeData.setAnnualReports(List.of(r1));
         when(incomeStatementRepository.findBySymbol(ticker)).thenReturn(Optional.of(incomeData));
 
-        ReportItem result = calculator.calculate(ticker, sseEmitter);
+        ReportItem result = calculator.calculate(context(ticker), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(4); // 15% < 20%
         assertThat(result.getExplanation()).contains("15.00%");
@@ -104,9 +106,15 @@ class AcquisitionsCalculatorTest {
         String ticker = "UNKNOWN";
         when(incomeStatementRepository.findBySymbol(ticker)).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate(ticker, sseEmitter);
+        ReportItem result = calculator.calculate(context(ticker), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
         verify(eventPublisher).publishEvent(any(ErrorEvent.class));
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .build();
+    }
 }
@@ -5,6 +5,7 @@ import com.testehan.finana.model.QuarterlyEarning;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.EarningsHistoryRepository;
 import com.testehan.finana.service.FinancialDataService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -39,7 +40,7 @@ class BeatingEarningsExpectationsCalculatorTest {
 
     @BeforeEach
     void setUp() {
-        calculator = new BeatingEarningsExpectationsCalculator(null, earningsHistoryRepository, eventPublisher);
+        calculator = new BeatingEarningsExpectationsCalculator(null, eventPublisher);
     }
 
     private void mockEventPublisher() {
@@ -65,7 +66,7 @@ class BeatingEarningsExpectationsCalculatorTest {
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        ReportItem result = calculator.calculateUpsidePerformance("AAPL", sseEmitter);
+        ReportItem result = calculator.calculateUpsidePerformance(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
     }
@@ -78,7 +79,7 @@ class BeatingEarningsExpectationsCalculatorTest {
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.of(history));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculateUpsidePerformance("AAPL", sseEmitter);
+        ReportItem result = calculator.calculateUpsidePerformance(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
     }
@@ -91,7 +92,7 @@ class BeatingEarningsExpectationsCalculatorTest {
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.of(history));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculateUpsidePerformance("AAPL", sseEmitter);
+        ReportItem result = calculator.calculateUpsidePerformance(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
     }
@@ -106,7 +107,7 @@ class BeatingEarningsExpectationsCalculatorTest {
         history.setQuarterlyEarnings(earnings);
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.of(history));
 
-        ReportItem result = calculator.calculateUpsidePerformance("AAPL", sseEmitter);
+        ReportItem result = calculator.calculateUpsidePerformance(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(4); // 4 quarters * 1 point each
         assertThat(result.getExplanation()).contains("Big Beats --> 4");
@@ -122,7 +123,7 @@ class BeatingEarningsExpectationsCalculatorTest {
         history.setQuarterlyEarnings(earnings);
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.of(history));
 
-        ReportItem result = calculator.calculateUpsidePerformance("AAPL", sseEmitter);
+        ReportItem result = calculator.calculateUpsidePerformance(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(2); // 4 quarters * 0.5 points each
         assertThat(result.getExplanation()).contains("medium beats --> 4");
@@ -138,7 +139,7 @@ class BeatingEarningsExpectationsCalculatorTest {
         history.setQuarterlyEarnings(earnings);
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.of(history));
 
-        ReportItem result = calculator.calculateUpsidePerformance("AAPL", sseEmitter);
+        ReportItem result = calculator.calculateUpsidePerformance(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0); // Minimum is 0, -4 would be capped
         assertThat(result.getExplanation()).contains("misses --> 4");
@@ -155,7 +156,7 @@ class BeatingEarningsExpectationsCalculatorTest {
         history.setQuarterlyEarnings(earnings);
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.of(history));
 
-        ReportItem result = calculator.calculateUpsidePerformance("AAPL", sseEmitter);
+        ReportItem result = calculator.calculateUpsidePerformance(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
     }
@@ -171,8 +172,14 @@ class BeatingEarningsExpectationsCalculatorTest {
         history.setQuarterlyEarnings(earnings);
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.of(history));
 
-        ReportItem result = calculator.calculateUpsidePerformance("AAPL", sseEmitter);
+        ReportItem result = calculator.calculateUpsidePerformance(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(1);
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .earningsHistory(earningsHistoryRepository::findBySymbol)
+                .build();
+    }
 }
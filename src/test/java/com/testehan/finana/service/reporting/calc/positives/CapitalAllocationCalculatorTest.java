@@ -12,6 +12,7 @@ import com.testehan.finana.repository.FinancialRatiosRepository;
 import com.testehan.finana.repository.IncomeStatementRepository;
 import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.junit.jupiter.api.BeforeEach;
@@ -64,10 +65,6 @@ class CapitalAllocationCalculatorTest {
     @BeforeEach
     void setUp() {
         calculator = new CapitalAllocationCalculator(
-                companyOverviewRepository,
-                incomeStatementRepository,
-                financialRatiosRepository,
-                secFilingRepository,
                 eventPublisher,
                 llmService
         );
@@ -92,7 +89,7 @@ class CapitalAllocationCalculatorTest {
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
     }
@@ -104,30 +101,30 @@ class CapitalAllocationCalculatorTest {
         companyOverview.setSymbol("AAPL");
         companyOverview.setCompanyName("Apple Inc.");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         
         IncomeStatementData incomeStatementData = new IncomeStatementData();
         List<IncomeReport> annualReports = new ArrayList<>();
         IncomeReport report = new IncomeReport();
         report.setDate("2024-01-01");
-        report.setWeightedAverageShsOutDil("1000000");
-        report.setRevenue("100000");
+        report.setWeightedAverageShsOutDil(new BigDecimal("1000000"));
+        report.setRevenue(new BigDecimal("100000"));
         annualReports.add(report);
         
         IncomeReport report2 = new IncomeReport();
         report2.setDate("2020-01-01");
-        report2.setWeightedAverageShsOutDil("900000");
-        report2.setRevenue("80000");
+        report2.setWeightedAverageShsOutDil(new BigDecimal("900000"));
+        report2.setRevenue(new BigDecimal("80000"));
         annualReports.add(report2);
         
         incomeStatementData.setAnnualReports(annualReports);
         when(incomeStatementRepository.findBySymbol("AAPL")).thenReturn(Optional.of(incomeStatementData));
         
         mockEventPublisher();
-        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString())).thenReturn("{\"score\":5,\"explanation\":\"Test\"}");
+        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenReturn("{\"score\":5,\"explanation\":\"Test\"}");
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isNotEqualTo(-10);
     }
@@ -139,14 +136,14 @@ class CapitalAllocationCalculatorTest {
         companyOverview.setSymbol("AAPL");
         companyOverview.setCompanyName("Apple Inc.");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         when(incomeStatementRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString())).thenThrow(new RuntimeException("LLM error"));
+        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenThrow(new RuntimeException("LLM error"));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
     }
@@ -169,12 +166,12 @@ class CapitalAllocationCalculatorTest {
         companyOverview.setSymbol("AAPL");
         companyOverview.setCompanyName("Apple Inc.");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         when(incomeStatementRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
-        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString())).thenReturn("{\"score\":5,\"explanation\":\"Test\"}");
+        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenReturn("{\"score\":5,\"explanation\":\"Test\"}");
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getExplanation()).contains("Pretty safe");
     }
@@ -197,13 +194,22 @@ class CapitalAllocationCalculatorTest {
         companyOverview.setSymbol("AAPL");
         companyOverview.setCompanyName("Apple Inc.");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         when(incomeStatementRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
-        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString())).thenReturn("{\"score\":5,\"explanation\":\"Test\"}");
+        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenReturn("{\"score\":5,\"explanation\":\"Test\"}");
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getExplanation()).contains("Net cash position");
     }
-}
\ No newline at end of file
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.CompanyOverviewRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.junit.jupiter.api.BeforeEach;
@@ -45,7 +46,6 @@ class CultureCalculatorTest {
     @BeforeEach
     void setUp() throws IOException {
         calculator = new CultureCalculator(
-                companyOverviewRepository,
                 llmService,
                 eventPublisher
         );
@@ -64,9 +64,9 @@ class CultureCalculatorTest {
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.of(overview));
 
         String llmResponse = "{\"score\": 5, \"explanation\": \"Excellent engineering culture.\"}";
-        when(llmService.callLlmWithSearch(anyString(), eq("culture_analysis"), eq(ticker))).thenReturn(llmResponse);
+        when(llmService.callLlmWithSearch(anyString(), eq("culture_analysis"), eq(ticker), anyBoolean())).thenReturn(llmResponse);
 
-        ReportItem result = calculator.calculate(ticker, sseEmitter);
+        ReportItem result = calculator.calculate(context(ticker), sseEmitter);
 
         assertThat(result).isNotNull();
         assertThat(result.getType()).isEqualTo("cultureRatings");
@@ -81,7 +81,7 @@ class CultureCalculatorTest {
         String ticker = "UNKNOWN";
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate(ticker, sseEmitter);
+        ReportItem result = calculator.calculate(context(ticker), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
         verify(eventPublisher).publishEvent(any(ErrorEvent.class));
@@ -95,12 +95,18 @@ class CultureCalculatorTest {
         overview.setCompanyName("Alphabet Inc.");
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.of(overview));
 
-        when(llmService.callLlmWithSearch(anyString(), anyString(), anyString())).thenThrow(new RuntimeException("LLM error"));
+        when(llmService.callLlmWithSearch(anyString(), anyString(), anyString(), anyBoolean())).thenThrow(new RuntimeException("LLM error"));
 
-        ReportItem result = calculator.calculate(ticker, sseEmitter);
+        ReportItem result = calculator.calculate(context(ticker), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
         assertThat(result.getExplanation()).contains("failed");
         verify(eventPublisher).publishEvent(any(ErrorEvent.class));
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .build();
+    }
 }
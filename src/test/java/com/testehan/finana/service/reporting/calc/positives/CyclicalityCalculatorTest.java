@@ -12,6 +12,7 @@ import com.testehan.finana.repository.FinancialRatiosRepository;
 import com.testehan.finana.repository.IncomeStatementRepository;
 import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.junit.jupiter.api.BeforeEach;
@@ -64,10 +65,6 @@ class CyclicalityCalculatorTest {
     @BeforeEach
     void setUp() {
         calculator = new CyclicalityCalculator(
-                companyOverviewRepository,
-                secFilingRepository,
-                incomeStatementRepository,
-                financialRatiosRepository,
                 llmService,
                 eventPublisher
         );
@@ -92,7 +89,7 @@ class CyclicalityCalculatorTest {
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
     }
@@ -105,13 +102,13 @@ class CyclicalityCalculatorTest {
         companyOverview.setCompanyName("Apple Inc.");
         companyOverview.setIndustry("Technology");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         
         IncomeStatementData incomeStatementData = new IncomeStatementData();
         List<IncomeReport> annualReports = new ArrayList<>();
         IncomeReport report = new IncomeReport();
         report.setDate("2024-01-01");
-        report.setRevenue("100000");
+        report.setRevenue(new BigDecimal("100000"));
         annualReports.add(report);
         incomeStatementData.setAnnualReports(annualReports);
         when(incomeStatementRepository.findBySymbol("AAPL")).thenReturn(Optional.of(incomeStatementData));
@@ -126,9 +123,9 @@ class CyclicalityCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(financialRatiosData));
         
         mockEventPublisher();
-        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString())).thenReturn("{\"score\":8,\"explanation\":\"Test\"}");
+        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenReturn("{\"score\":8,\"explanation\":\"Test\"}");
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isNotEqualTo(-10);
     }
@@ -141,15 +138,24 @@ class CyclicalityCalculatorTest {
         companyOverview.setCompanyName("Apple Inc.");
         companyOverview.setIndustry("Technology");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         when(incomeStatementRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString())).thenThrow(new RuntimeException("LLM error"));
+        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenThrow(new RuntimeException("LLM error"));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
     }
-}
\ No newline at end of file
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .build();
+    }
+}
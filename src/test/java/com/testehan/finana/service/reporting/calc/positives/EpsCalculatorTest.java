@@ -4,6 +4,7 @@ import com.testehan.finana.model.EarningsHistory;
 import com.testehan.finana.model.QuarterlyEarning;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.EarningsHistoryRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
 import org.junit.jupiter.api.BeforeEach;
@@ -46,7 +47,7 @@ class EpsCalculatorTest {
 
     @BeforeEach
     void setUp() {
-        calculator = new EpsCalculator(earningsHistoryRepository, eventPublisher, safeParser);
+        calculator = new EpsCalculator(eventPublisher, safeParser);
     }
 
     private void mockEventPublisher() {
@@ -70,7 +71,7 @@ class EpsCalculatorTest {
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("Insufficient");
@@ -84,7 +85,7 @@ class EpsCalculatorTest {
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.of(history));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("Insufficient");
@@ -99,7 +100,7 @@ class EpsCalculatorTest {
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.of(history));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("Insufficient");
@@ -118,7 +119,7 @@ class EpsCalculatorTest {
         
         when(safeParser.parse(any())).thenReturn(new BigDecimal("-1.0"));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("Negative");
@@ -143,7 +144,7 @@ class EpsCalculatorTest {
             return new BigDecimal(value);
         });
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Previous TTM = 0, Current TTM > 0, so score = 1
         assertThat(result.getScore()).isGreaterThanOrEqualTo(1);
@@ -166,7 +167,7 @@ class EpsCalculatorTest {
             return new BigDecimal(value);
         });
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Current TTM = 13.0, Previous TTM = 10.0 = 30% growth > 15%, should get score 3
         assertThat(result.getScore()).isGreaterThanOrEqualTo(2);
@@ -190,9 +191,15 @@ class EpsCalculatorTest {
             return new BigDecimal(value);
         });
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(2);
         assertThat(result.getExplanation()).contains("stable performance");
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .earningsHistory(earningsHistoryRepository::findBySymbol)
+                .build();
+    }
 }
@@ -8,6 +8,7 @@ import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.FinancialRatiosRepository;
 import com.testehan.finana.repository.IncomeStatementRepository;
 import com.testehan.finana.util.SafeParser;
+import com.testehan.finana.service.reporting.ReportContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -49,7 +50,7 @@ class FcfCalculatorTest {
     @BeforeEach
     void setUp() {
         safeParser = new SafeParser();
-        calculator = new FcfCalculator(financialRatiosRepository, incomeStatementRepository, eventPublisher, safeParser);
+        calculator = new FcfCalculator(eventPublisher, safeParser);
     }
 
     private FinancialRatiosReport createFinancialRatiosReport(String date, String fcf) {
@@ -62,8 +63,8 @@ class FcfCalculatorTest {
     private IncomeReport createIncomeReport(String date, String operatingIncome, String depreciation) {
         IncomeReport report = new IncomeReport();
         report.setDate(date);
-        report.setOperatingIncome(operatingIncome);
-        report.setDepreciationAndAmortization(depreciation);
+        report.setOperatingIncome(new BigDecimal(operatingIncome));
+        report.setDepreciationAndAmortization(new BigDecimal(depreciation));
         return report;
     }
 
@@ -82,7 +83,7 @@ class FcfCalculatorTest {
         )));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("Insufficient annual data");
@@ -97,7 +98,7 @@ class FcfCalculatorTest {
         when(incomeStatementRepository.findBySymbol("AAPL")).thenReturn(java.util.Optional.empty());
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("Insufficient annual data");
@@ -114,7 +115,7 @@ class FcfCalculatorTest {
         )));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("Less than two years");
@@ -139,7 +140,7 @@ class FcfCalculatorTest {
         )));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("Cash Burner");
@@ -164,7 +165,7 @@ class FcfCalculatorTest {
         )));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(1);
         assertThat(result.getExplanation()).contains("Survivor");
@@ -187,7 +188,7 @@ class FcfCalculatorTest {
         )));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(1);
         assertThat(result.getExplanation()).contains("Survivor");
@@ -210,7 +211,7 @@ class FcfCalculatorTest {
         )));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(1);
         assertThat(result.getExplanation()).contains("Survivor");
@@ -241,7 +242,7 @@ class FcfCalculatorTest {
         )));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(2);
         assertThat(result.getExplanation()).contains("Compounder");
@@ -272,7 +273,7 @@ class FcfCalculatorTest {
         )));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(3);
         assertThat(result.getExplanation()).contains("Cash Cow");
@@ -302,7 +303,7 @@ class FcfCalculatorTest {
         )));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Current: FCF=200000, OpInc=100000, D&A=50000 -> EBITDA=150000, SBC=50000, AdjFCF=150000
         // Previous: FCF=100000, OpInc=80000, D&A=40000 -> EBITDA=120000, SBC=40000, AdjFCF=60000
@@ -335,7 +336,7 @@ class FcfCalculatorTest {
         )));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Current: EBITDA = 80000 + 5000 = 85000, SBC = 5000, AdjFCF = 55000 - 5000 = 50000
         // Previous: EBITDA = 60000 + 4000 = 64000, SBC = 4000, AdjFCF = 40000 - 4000 = 36000
@@ -358,4 +359,11 @@ class FcfCalculatorTest {
         data.setAnnualReports(new ArrayList<>(reports));
         return data;
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .build();
+    }
 }
@@ -4,6 +4,7 @@ import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.BalanceSheetRepository;
 import com.testehan.finana.repository.IncomeStatementRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
@@ -52,8 +53,6 @@ class FinancialResilienceCalculatorTest {
     @BeforeEach
     void setUp() {
         calculator = new FinancialResilienceCalculator(
-                incomeStatementRepository,
-                balanceSheetRepository,
                 llmService,
                 eventPublisher,
                 safeParser
@@ -79,9 +78,9 @@ class FinancialResilienceCalculatorTest {
         when(incomeStatementRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         when(balanceSheetRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
-        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString())).thenReturn("{\"score\":7,\"explanation\":\"Test\"}");
+        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenReturn("{\"score\":7,\"explanation\":\"Test\"}");
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isNotEqualTo(-10);
     }
@@ -92,10 +91,17 @@ class FinancialResilienceCalculatorTest {
         when(incomeStatementRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         when(balanceSheetRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
-        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString())).thenThrow(new RuntimeException("LLM error"));
+        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenThrow(new RuntimeException("LLM error"));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
     }
-}
\ No newline at end of file
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .balanceSheet(balanceSheetRepository::findBySymbol)
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.ratio.FinancialRatiosReport;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.FinancialRatiosRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -40,7 +41,7 @@ class GrossMarginCalculatorTest {
 
     @BeforeEach
     void setUp() {
-        calculator = new GrossMarginCalculator(financialRatiosRepository, eventPublisher);
+        calculator = new GrossMarginCalculator(eventPublisher);
     }
 
     private FinancialRatiosReport createGrossMarginReport(String date, BigDecimal grossMargin) {
@@ -62,7 +63,7 @@ class GrossMarginCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("No quarterly financial ratios data available");
@@ -76,7 +77,7 @@ class GrossMarginCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("No quarterly financial ratios data available");
@@ -92,7 +93,7 @@ class GrossMarginCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("No gross profit margin data available");
@@ -113,7 +114,7 @@ class GrossMarginCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Average = 40% -> Score 1
         assertThat(result.getScore()).isEqualTo(1);
@@ -135,7 +136,7 @@ class GrossMarginCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Average = 60% -> Score 2
         assertThat(result.getScore()).isEqualTo(2);
@@ -157,7 +158,7 @@ class GrossMarginCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Average = 85% -> Score 3
         assertThat(result.getScore()).isEqualTo(3);
@@ -180,7 +181,7 @@ class GrossMarginCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Average = 55% -> Score 2 (50-80%)
         assertThat(result.getScore()).isEqualTo(2);
@@ -198,7 +199,7 @@ class GrossMarginCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Average = 72.5% -> Score 2 (50-80%)
         assertThat(result.getScore()).isEqualTo(2);
@@ -218,7 +219,7 @@ class GrossMarginCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Average = (70 + 90) / 2 = 80% -> Score 2 (50-80%, inclusive of 80%)
         assertThat(result.getScore()).isEqualTo(2);
@@ -237,7 +238,7 @@ class GrossMarginCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Exactly 50% is <= 80%, so Score 2
         assertThat(result.getScore()).isEqualTo(2);
@@ -256,9 +257,15 @@ class GrossMarginCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Exactly 80% is <= 80%, so Score 2
         assertThat(result.getScore()).isEqualTo(2);
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .build();
+    }
 }
@@ -7,6 +7,7 @@ import com.testehan.finana.model.finstatement.IncomeStatementData;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.*;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.junit.jupiter.api.BeforeEach;
@@ -61,14 +62,8 @@ class GrowthCurveCalculatorTest {
     @BeforeEach
     void setUp() {
         calculator = new GrowthCurveCalculator(
-                companyOverviewRepository,
-                secFilingRepository,
                 eventPublisher,
-                llmService,
-                financialRatiosRepository,
-                cashFlowRepository,
-                incomeStatementRepository,
-                balanceSheetRepository
+                llmService
         );
         
         try {
@@ -92,8 +87,19 @@ class GrowthCurveCalculatorTest {
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .cashFlow(cashFlowRepository::findBySymbol)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .balanceSheet(balanceSheetRepository::findBySymbol)
+                .build();
+    }
 }
@@ -5,6 +5,7 @@ import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.model.reporting.ReportType;
 import com.testehan.finana.repository.CompanyOverviewRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -31,7 +32,7 @@ class InsiderOwnershipCalculatorTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        calculator = new InsiderOwnershipCalculator(companyOverviewRepository, llmService, eventPublisher);
+        calculator = new InsiderOwnershipCalculator(llmService, eventPublisher);
         ReflectionTestUtils.setField(calculator, "insiderOwnershipPrompt", promptResource);
     }
 
@@ -40,8 +41,14 @@ class InsiderOwnershipCalculatorTest {
         String ticker = "AAPL";
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate(ticker, new SseEmitter(), ReportType.FEROL);
+        ReportItem result = calculator.calculate(context(ticker), new SseEmitter(), ReportType.FEROL);
 
         assertEquals(-10, result.getScore());
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .build();
+    }
 }
@@ -3,6 +3,7 @@ package com.testehan.finana.service.reporting.calc.positives;
 import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.CompanyOverviewRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -26,7 +27,7 @@ class MarketCapCalculatorTest {
 
     @BeforeEach
     void setUp() {
-        calculator = new MarketCapCalculator(companyOverviewRepository);
+        calculator = new MarketCapCalculator();
     }
 
     private CompanyOverview createCompanyOverview(String marketCap) {
@@ -40,7 +41,7 @@ class MarketCapCalculatorTest {
     void shouldReturnMinusOneWhenCompanyNotFound() {
         when(companyOverviewRepository.findBySymbol("INVALID")).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate("INVALID");
+        ReportItem result = calculator.calculate(context("INVALID"));
 
         assertThat(result.getScore()).isEqualTo(-1);
         assertThat(result.getExplanation()).contains("Could not retrieve");
@@ -52,7 +53,7 @@ class MarketCapCalculatorTest {
         CompanyOverview overview = createCompanyOverview("1000000000"); // $1B
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(overview));
 
-        ReportItem result = calculator.calculate("AAPL");
+        ReportItem result = calculator.calculate(context("AAPL"));
 
         assertThat(result.getScore()).isEqualTo(5);
         assertThat(result.getExplanation()).contains("less than $2B");
@@ -64,7 +65,7 @@ class MarketCapCalculatorTest {
         CompanyOverview overview = createCompanyOverview("1999999999"); // just under $2B
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(overview));
 
-        ReportItem result = calculator.calculate("AAPL");
+        ReportItem result = calculator.calculate(context("AAPL"));
 
         assertThat(result.getScore()).isEqualTo(5);
     }
@@ -75,7 +76,7 @@ class MarketCapCalculatorTest {
         CompanyOverview overview = createCompanyOverview("3000000000"); // $3B
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(overview));
 
-        ReportItem result = calculator.calculate("AAPL");
+        ReportItem result = calculator.calculate(context("AAPL"));
 
         assertThat(result.getScore()).isEqualTo(3);
         assertThat(result.getExplanation()).contains("less than $5B");
@@ -87,7 +88,7 @@ class MarketCapCalculatorTest {
         CompanyOverview overview = createCompanyOverview("4000000000"); // $4B - between $2B and $5B
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(overview));
 
-        ReportItem result = calculator.calculate("AAPL");
+        ReportItem result = calculator.calculate(context("AAPL"));
 
         assertThat(result.getScore()).isEqualTo(3);
     }
@@ -98,7 +99,7 @@ class MarketCapCalculatorTest {
         CompanyOverview overview = createCompanyOverview("10000000000"); // $10B
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(overview));
 
-        ReportItem result = calculator.calculate("AAPL");
+        ReportItem result = calculator.calculate(context("AAPL"));
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("greater than $5B");
@@ -110,7 +111,7 @@ class MarketCapCalculatorTest {
         CompanyOverview overview = createCompanyOverview("1500000000"); // $1.5B
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(overview));
 
-        ReportItem result = calculator.calculate("AAPL");
+        ReportItem result = calculator.calculate(context("AAPL"));
 
         assertThat(result.getExplanation()).contains("B");
     }
@@ -121,8 +122,14 @@ class MarketCapCalculatorTest {
         CompanyOverview overview = createCompanyOverview("500000000"); // $500M
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(overview));
 
-        ReportItem result = calculator.calculate("AAPL");
+        ReportItem result = calculator.calculate(context("AAPL"));
 
         assertThat(result.getExplanation()).contains("M");
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .build();
+    }
 }
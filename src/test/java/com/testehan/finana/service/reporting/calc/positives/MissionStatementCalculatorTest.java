@@ -1,12 +1,12 @@
 package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.CompanyOverview;
-import com.testehan.finana.model.filing.SecFiling;
 import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.CompanyOverviewRepository;
 import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,7 +22,6 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -51,8 +50,6 @@ class MissionStatementCalculatorTest {
     @BeforeEach
     void setUp() throws IOException {
         calculator = new MissionStatementCalculator(
-                companyOverviewRepository,
-                secFilingRepository,
                 llmService,
                 eventPublisher
         );
@@ -70,17 +67,15 @@ class MissionStatementCalculatorTest {
         overview.setDescription("Accelerating the world's transition to sustainable energy.");
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.of(overview));
 
-        SecFiling secFiling = new SecFiling();
         TenKFilings tenK = new TenKFilings();
         tenK.setBusinessDescription("Electric vehicles and solar panels.");
         tenK.setFiledAt("2023-01-30");
-        secFiling.setTenKFilings(List.of(tenK));
-        when(secFilingRepository.findBySymbol(ticker)).thenReturn(Optional.of(secFiling));
+        when(secFilingRepository.findLatestTenKFiling(ticker)).thenReturn(Optional.of(tenK));
 
         String llmResponse = "{\"score\": 5, \"explanation\": \"Strong, clear mission statement.\"}";
-        when(llmService.callLlmWithSearch(anyString(), eq("mission_statement_analysis"), eq(ticker))).thenReturn(llmResponse);
+        when(llmService.callLlmWithSearch(anyString(), eq("mission_statement_analysis"), eq(ticker), anyBoolean())).thenReturn(llmResponse);
 
-        ReportItem result = calculator.calculate(ticker, sseEmitter);
+        ReportItem result = calculator.calculate(context(ticker), sseEmitter);
 
         assertThat(result).isNotNull();
         assertThat(result.getType()).isEqualTo("missionStatement");
@@ -95,7 +90,7 @@ class MissionStatementCalculatorTest {
         String ticker = "UNKNOWN";
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate(ticker, sseEmitter);
+        ReportItem result = calculator.calculate(context(ticker), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
         verify(eventPublisher).publishEvent(any(ErrorEvent.class));
@@ -108,12 +103,19 @@ class MissionStatementCalculatorTest {
         CompanyOverview overview = new CompanyOverview();
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.of(overview));
 
-        when(llmService.callLlmWithSearch(anyString(), anyString(), anyString())).thenThrow(new RuntimeException("LLM error"));
+        when(llmService.callLlmWithSearch(anyString(), anyString(), anyString(), anyBoolean())).thenThrow(new RuntimeException("LLM error"));
 
-        ReportItem result = calculator.calculate(ticker, sseEmitter);
+        ReportItem result = calculator.calculate(context(ticker), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
         assertThat(result.getExplanation()).contains("failed");
         verify(eventPublisher, atLeastOnce()).publishEvent(any(ErrorEvent.class));
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .build();
+    }
 }
@@ -7,6 +7,7 @@ import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.CompanyOverviewRepository;
 import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.junit.jupiter.api.BeforeEach;
@@ -54,8 +55,6 @@ class MoatCalculatorTest {
     @BeforeEach
     void setUp() {
         calculator = new MoatCalculator(
-                companyOverviewRepository,
-                secFilingRepository,
                 llmService,
                 eventPublisher
         );
@@ -84,10 +83,10 @@ class MoatCalculatorTest {
         companyOverview.setCompanyName("Apple Inc.");
         companyOverview.setDescription("Technology company");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        when(llmService.callLlm(any(Prompt.class), anyString(), anyString())).thenReturn("""
+        when(llmService.callLlm(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenReturn("""
                 {
                   "networkEffectScore": 8,
                   "networkEffectExplanation": "Test",
@@ -104,7 +103,7 @@ class MoatCalculatorTest {
                 }
                 """);
 
-        FerolMoatAnalysisLlmResponse result = calculator.calculate("AAPL", sseEmitter);
+        FerolMoatAnalysisLlmResponse result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getNetworkEffectScore()).isNotEqualTo(-10);
     }
@@ -117,12 +116,12 @@ class MoatCalculatorTest {
         companyOverview.setCompanyName("Apple Inc.");
         companyOverview.setDescription("Technology company");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        when(llmService.callLlm(any(Prompt.class), anyString(), anyString())).thenThrow(new RuntimeException("LLM error"));
+        when(llmService.callLlm(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenThrow(new RuntimeException("LLM error"));
 
-        FerolMoatAnalysisLlmResponse result = calculator.calculate("AAPL", sseEmitter);
+        FerolMoatAnalysisLlmResponse result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getNetworkEffectScore()).isEqualTo(-10);
     }
@@ -135,12 +134,12 @@ class MoatCalculatorTest {
         companyOverview.setCompanyName("Apple Inc.");
         companyOverview.setDescription("Technology company");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        when(llmService.callLlm(any(Prompt.class), anyString(), anyString())).thenReturn("{\"score\":8,\"explanation\":\"Test moat\"}");
+        when(llmService.callLlm(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenReturn("{\"score\":8,\"explanation\":\"Test moat\"}");
 
-        ReportItem result = calculator.calculate100BaggerMoat("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate100BaggerMoat(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(8);
         assertThat(result.getExplanation()).contains("Test moat");
@@ -154,13 +153,20 @@ class MoatCalculatorTest {
         companyOverview.setCompanyName("Apple Inc.");
         companyOverview.setDescription("Technology company");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        when(llmService.callLlm(any(Prompt.class), anyString(), anyString())).thenThrow(new RuntimeException("LLM error"));
+        when(llmService.callLlm(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenThrow(new RuntimeException("LLM error"));
 
-        ReportItem result = calculator.calculate100BaggerMoat("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate100BaggerMoat(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
     }
-}
\ No newline at end of file
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .build();
+    }
+}
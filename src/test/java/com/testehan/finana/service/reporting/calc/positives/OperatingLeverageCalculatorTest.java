@@ -10,6 +10,7 @@ import com.testehan.finana.repository.EarningsEstimatesRepository;
 import com.testehan.finana.repository.IncomeStatementRepository;
 import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
@@ -32,6 +33,7 @@ import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -63,10 +65,6 @@ class OperatingLeverageCalculatorTest {
     @BeforeEach
     void setUp() {
         calculator = new OperatingLeverageCalculator(
-                companyOverviewRepository,
-                incomeStatementRepository,
-                earningsEstimatesRepository,
-                secFilingRepository,
                 llmService,
                 eventPublisher,
                 safeParser
@@ -96,7 +94,7 @@ class OperatingLeverageCalculatorTest {
         List<IncomeReport> reports = new ArrayList<>();
         IncomeReport report = new IncomeReport();
         report.setDate("2024-01-01");
-        report.setRevenue("100000.0");
+        report.setRevenue(new BigDecimal("100000.0"));
         reports.add(report);
         
         incomeData.setAnnualReports(reports);
@@ -107,13 +105,22 @@ class OperatingLeverageCalculatorTest {
 
         CompanyOverview companyOverview = new CompanyOverview();
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         
         String llmResponse = "{\"score\": 1, \"explanation\": \"Test\"}";
-        when(llmService.callLlm(any(String.class), anyString(), anyString())).thenReturn(llmResponse);
+        when(llmService.callLlm(any(String.class), anyString(), anyString(), anyBoolean())).thenReturn(llmResponse);
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result).isNotNull();
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .earningsEstimate(earningsEstimatesRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .build();
+    }
 }
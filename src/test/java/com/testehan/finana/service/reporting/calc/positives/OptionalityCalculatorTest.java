@@ -11,6 +11,7 @@ import com.testehan.finana.service.FinancialDataOrchestrator;
 import com.testehan.finana.service.LlmService;
 import com.testehan.finana.util.DateUtils;
 import com.testehan.finana.util.SafeParser;
+import com.testehan.finana.service.reporting.ReportContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -45,9 +46,12 @@ class OptionalityCalculatorTest {
     void setUp() throws java.io.IOException {
         MockitoAnnotations.openMocks(this);
         calculator = new OptionalityCalculator(
-                companyOverviewRepository, incomeStatementRepository, secFilingRepository,
-                financialRatiosRepository, llmService, eventPublisher, safeParser,
-                dateUtils, financialDataOrchestrator, earningsService
+                llmService,
+                eventPublisher,
+                safeParser,
+                dateUtils,
+                financialDataOrchestrator,
+                earningsService
         );
 
         String testPrompt = "Test prompt with {business_description} and {latest_earnings_transcript}";
@@ -61,10 +65,19 @@ class OptionalityCalculatorTest {
     void calculate_returnsError_when10kMissing() {
         String ticker = "AAPL";
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.of(new CompanyOverview()));
-        when(secFilingRepository.findBySymbol(ticker)).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling(ticker)).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate(ticker, new SseEmitter());
+        ReportItem result = calculator.calculate(context(ticker), new SseEmitter());
 
         assertEquals(-10, result.getScore());
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .build();
+    }
 }
@@ -7,6 +7,7 @@ import com.testehan.finana.repository.IncomeStatementRepository;
 import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
 import com.testehan.finana.util.SafeParser;
+import com.testehan.finana.service.reporting.ReportContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -37,9 +38,10 @@ class OrganicGrowthRunawayCalculatorTest {
     void setUp() throws java.io.IOException {
         MockitoAnnotations.openMocks(this);
         calculator = new OrganicGrowthRunawayCalculator(
-                companyOverviewRepository, secFilingRepository, incomeStatementRepository,
-                financialRatiosRepository, llmService, eventPublisher,
-                optionalityCalculator, safeParser
+                llmService,
+                eventPublisher,
+                optionalityCalculator,
+                safeParser
         );
 
         String testPrompt = "Test prompt with {management_discussion} and {latest_earnings_transcript}";
@@ -53,7 +55,16 @@ class OrganicGrowthRunawayCalculatorTest {
     void calculate_returnsError_whenLlmFails() {
         String ticker = "AAPL";
         // Logic to reach catch block or return error score
-        ReportItem result = calculator.calculate(ticker, new SseEmitter());
+        ReportItem result = calculator.calculate(context(ticker), new SseEmitter());
         assertEquals(-10, result.getScore());
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .build();
+    }
 }
@@ -1,7 +1,6 @@
 package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.CompanyOverview;
-import com.testehan.finana.model.filing.SecFiling;
 import com.testehan.finana.model.filing.TenKFilings;
 import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
@@ -13,6 +12,7 @@ import com.testehan.finana.repository.FinancialRatiosRepository;
 import com.testehan.finana.repository.IncomeStatementRepository;
 import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.junit.jupiter.api.BeforeEach;
@@ -66,10 +66,6 @@ class PricingPowerCalculatorTest {
     @BeforeEach
     void setUp() throws IOException {
         calculator = new PricingPowerCalculator(
-                companyOverviewRepository,
-                secFilingRepository,
-                incomeStatementRepository,
-                financialRatiosRepository,
                 llmService,
                 eventPublisher,
                 optionalityCalculator
@@ -88,18 +84,16 @@ class PricingPowerCalculatorTest {
         overview.setCompanyName("Apple Inc.");
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.of(overview));
 
-        SecFiling secFiling = new SecFiling();
         TenKFilings tenK = new TenKFilings();
         tenK.setBusinessDescription("Tech company");
         tenK.setManagementDiscussion("Growing fast");
         tenK.setFiledAt("2023-10-27");
-        secFiling.setTenKFilings(List.of(tenK));
-        when(secFilingRepository.findBySymbol(ticker)).thenReturn(Optional.of(secFiling));
+        when(secFilingRepository.findLatestTenKFiling(ticker)).thenReturn(Optional.of(tenK));
 
         IncomeStatementData incomeData = new IncomeStatementData();
         IncomeReport incomeReport = new IncomeReport();
         incomeReport.setDate("2023-09-30");
-        incomeReport.setRevenue("383285000000");
+        incomeReport.setRevenue(new BigDecimal("383285000000"));
         incomeData.setAnnualReports(List.of(incomeReport));
         when(incomeStatementRepository.findBySymbol(ticker)).thenReturn(Optional.of(incomeData));
 
@@ -113,9 +107,9 @@ class PricingPowerCalculatorTest {
         when(optionalityCalculator.getLatestEarningsTranscript(ticker)).thenReturn("Latest transcript content");
 
         String llmResponse = "{\"score\": 4, \"explanation\": \"High pricing power due to brand strength.\"}";
-        when(llmService.callLlmWithOllama(any(Prompt.class), eq("pricing_power_analysis"), eq(ticker))).thenReturn(llmResponse);
+        when(llmService.callLlmWithOllama(any(Prompt.class), eq("pricing_power_analysis"), eq(ticker), anyBoolean())).thenReturn(llmResponse);
 
-        ReportItem result = calculator.calculate(ticker, sseEmitter);
+        ReportItem result = calculator.calculate(context(ticker), sseEmitter);
 
         assertThat(result).isNotNull();
         assertThat(result.getType()).isEqualTo("pricingPower");
@@ -130,7 +124,7 @@ class PricingPowerCalculatorTest {
         String ticker = "UNKNOWN";
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate(ticker, sseEmitter);
+        ReportItem result = calculator.calculate(context(ticker), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         verify(eventPublisher).publishEvent(any(ErrorEvent.class));
@@ -143,12 +137,12 @@ class PricingPowerCalculatorTest {
         CompanyOverview overview = new CompanyOverview();
         overview.setCompanyName("Apple Inc.");
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.of(overview));
-        when(secFilingRepository.findBySymbol(ticker)).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling(ticker)).thenReturn(Optional.empty());
         IncomeStatementData incomeData = new IncomeStatementData();
         IncomeReport incomeReport = new IncomeReport();
         incomeReport.setDate("2023-09-30");
-        incomeReport.setRevenue("1");
-        incomeReport.setSellingGeneralAndAdministrativeExpenses("1");
+        incomeReport.setRevenue(new BigDecimal("1"));
+        incomeReport.setSellingGeneralAndAdministrativeExpenses(new BigDecimal("1"));
         incomeData.setAnnualReports(List.of(incomeReport));
         when(incomeStatementRepository.findBySymbol(ticker)).thenReturn(Optional.of(incomeData));
 
@@ -161,12 +155,21 @@ class PricingPowerCalculatorTest {
         when(financialRatiosRepository.findBySymbol(ticker)).thenReturn(Optional.of(ratiosData));
         when(optionalityCalculator.getLatestEarningsTranscript(ticker)).thenReturn("Transcript");
 
-        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString())).thenThrow(new RuntimeException("LLM down"));
+        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenThrow(new RuntimeException("LLM down"));
 
-        ReportItem result = calculator.calculate(ticker, sseEmitter);
+        ReportItem result = calculator.calculate(context(ticker), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
         assertThat(result.getExplanation()).contains("failed");
         verify(eventPublisher, atLeastOnce()).publishEvent(any(ErrorEvent.class));
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .build();
+    }
 }
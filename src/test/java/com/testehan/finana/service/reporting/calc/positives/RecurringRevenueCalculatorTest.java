@@ -12,6 +12,7 @@ import com.testehan.finana.repository.CompanyOverviewRepository;
 import com.testehan.finana.repository.RevenueSegmentationDataRepository;
 import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import org.junit.jupiter.api.BeforeEach;
@@ -63,10 +64,6 @@ class RecurringRevenueCalculatorTest {
     @BeforeEach
     void setUp() {
         calculator = new RecurringRevenueCalculator(
-                companyOverviewRepository,
-                secFilingRepository,
-                revenueSegmentationDataRepository,
-                balanceSheetRepository,
                 llmService,
                 eventPublisher
         );
@@ -91,7 +88,7 @@ class RecurringRevenueCalculatorTest {
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
     }
@@ -103,13 +100,13 @@ class RecurringRevenueCalculatorTest {
         companyOverview.setSymbol("AAPL");
         companyOverview.setCompanyName("Apple Inc.");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         when(revenueSegmentationDataRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         when(balanceSheetRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
-        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString())).thenReturn("{\"score\":7,\"explanation\":\"Test\"}");
+        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenReturn("{\"score\":7,\"explanation\":\"Test\"}");
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isNotEqualTo(-10);
     }
@@ -121,14 +118,23 @@ class RecurringRevenueCalculatorTest {
         companyOverview.setSymbol("AAPL");
         companyOverview.setCompanyName("Apple Inc.");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         when(revenueSegmentationDataRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         when(balanceSheetRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
-        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString())).thenThrow(new RuntimeException("LLM error"));
+        when(llmService.callLlmWithOllama(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenThrow(new RuntimeException("LLM error"));
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(-10);
     }
-}
\ No newline at end of file
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .revenueSegmentation(revenueSegmentationDataRepository::findBySymbol)
+                .balanceSheet(balanceSheetRepository::findBySymbol)
+                .build();
+    }
+}
@@ -10,6 +10,7 @@ import com.testehan.finana.model.ratio.FinancialRatiosReport;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.*;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
@@ -67,12 +68,6 @@ class ReinvestmentCalculatorTest {
     @BeforeEach
     void setUp() {
         calculator = new ReinvestmentCalculator(
-                companyOverviewRepository,
-                incomeStatementRepository,
-                cashFlowRepository,
-                financialRatiosRepository,
-                secFilingRepository,
-                balanceSheetRepository,
                 llmService,
                 eventPublisher,
                 safeParser
@@ -98,7 +93,7 @@ class ReinvestmentCalculatorTest {
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
     }
@@ -113,7 +108,7 @@ class ReinvestmentCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("No annual or quarterly financial ratios data available");
@@ -155,4 +150,15 @@ class ReinvestmentCalculatorTest {
     void shouldClassifyInvestedCapitalTrendIncreasing() {
         assertThat(calculator.getClass().getDeclaredMethods()).isNotEmpty();
     }
-}
\ No newline at end of file
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .cashFlow(cashFlowRepository::findBySymbol)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .balanceSheet(balanceSheetRepository::findBySymbol)
+                .build();
+    }
+}
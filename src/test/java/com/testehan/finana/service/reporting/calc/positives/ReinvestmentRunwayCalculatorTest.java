@@ -9,6 +9,7 @@ import com.testehan.finana.service.FinancialDataOrchestrator;
 import com.testehan.finana.service.LlmService;
 import com.testehan.finana.util.DateUtils;
 import com.testehan.finana.util.SafeParser;
+import com.testehan.finana.service.reporting.ReportContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -47,10 +48,12 @@ class ReinvestmentRunwayCalculatorTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         calculator = new ReinvestmentRunwayCalculator(
-                companyOverviewRepository, incomeStatementRepository, secFilingRepository,
-                revenueSegmentationDataRepository, revenueGeographicSegmentationRepository,
-                financialDataOrchestrator, earningsService, llmService, eventPublisher,
-                safeParser, dateUtils, cashFlowRepository
+                financialDataOrchestrator,
+                earningsService,
+                llmService,
+                eventPublisher,
+                safeParser,
+                dateUtils
         );
         ReflectionTestUtils.setField(calculator, "reinvestmentRunwayPrompt", promptResource);
     }
@@ -60,8 +63,19 @@ class ReinvestmentRunwayCalculatorTest {
         String ticker = "AAPL";
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate(ticker, new SseEmitter());
+        ReportItem result = calculator.calculate(context(ticker), new SseEmitter());
 
         assertEquals(0, result.getScore());
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .revenueSegmentation(revenueSegmentationDataRepository::findBySymbol)
+                .revenueGeographicSegmentation(revenueGeographicSegmentationRepository::findBySymbol)
+                .cashFlow(cashFlowRepository::findBySymbol)
+                .build();
+    }
 }
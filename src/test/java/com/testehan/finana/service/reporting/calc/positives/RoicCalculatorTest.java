@@ -4,6 +4,7 @@ import com.testehan.finana.model.ratio.FinancialRatiosData;
 import com.testehan.finana.model.ratio.FinancialRatiosReport;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.FinancialRatiosRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -41,7 +42,7 @@ class RoicCalculatorTest {
 
     @BeforeEach
     void setUp() {
-        calculator = new RoicCalculator(financialRatiosRepository, eventPublisher);
+        calculator = new RoicCalculator(eventPublisher);
     }
 
     private FinancialRatiosReport createRoicReport(String date, BigDecimal roic) {
@@ -63,7 +64,7 @@ class RoicCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("No annual financial ratios data available");
@@ -77,7 +78,7 @@ class RoicCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("No annual financial ratios data available");
@@ -93,7 +94,7 @@ class RoicCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("No annual ROIC data available");
@@ -111,7 +112,7 @@ class RoicCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(0);
         assertThat(result.getExplanation()).contains("destroying value");
@@ -129,7 +130,7 @@ class RoicCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(1);
         assertThat(result.getExplanation()).contains("breaking even");
@@ -147,7 +148,7 @@ class RoicCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(2);
         assertThat(result.getExplanation()).contains("solid compounder");
@@ -165,7 +166,7 @@ class RoicCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getScore()).isEqualTo(3);
         assertThat(result.getExplanation()).contains("strong competitive advantage");
@@ -190,7 +191,7 @@ class RoicCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Base score would be 2 (12-20%), plus 1 for rising rule = 3
         assertThat(result.getScore()).isEqualTo(3);
@@ -214,7 +215,7 @@ class RoicCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Base score is 2, no rising rule applied
         assertThat(result.getScore()).isEqualTo(2);
@@ -238,7 +239,7 @@ class RoicCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Max score is 3
         assertThat(result.getScore()).isEqualTo(3);
@@ -256,7 +257,7 @@ class RoicCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Single year - latest and median are the same
         assertThat(result.getScore()).isEqualTo(2);
@@ -276,11 +277,17 @@ class RoicCalculatorTest {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
         mockEventPublisher();
 
-        ReportItem result = calculator.calculate("AAPL", sseEmitter);
+        ReportItem result = calculator.calculate(context("AAPL"), sseEmitter);
 
         // Latest = 13% (12-20% -> score 2)
         // Median of 4 values = (10+12)/2/100 = 11% = 0.11
         // 13% > 11% + 1% = 12% -> rising rule applies -> score 3
         assertThat(result.getScore()).isEqualTo(3);
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .build();
+    }
 }
@@ -4,6 +4,7 @@ import com.testehan.finana.model.CompanyOverview;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.*;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -36,9 +37,8 @@ class ScalabilityOfModelCalculatorTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         calculator = new ScalabilityOfModelCalculator(
-                companyOverviewRepository, secFilingRepository, eventPublisher,
-                llmService, financialRatiosRepository, cashFlowRepository,
-                incomeStatementRepository, balanceSheetRepository
+                eventPublisher,
+                llmService
         );
         ReflectionTestUtils.setField(calculator, "scalabilityOfModelPrompt", promptResource);
     }
@@ -48,8 +48,19 @@ class ScalabilityOfModelCalculatorTest {
         String ticker = "AAPL";
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate(ticker, new SseEmitter());
+        ReportItem result = calculator.calculate(context(ticker), new SseEmitter());
 
         assertEquals(-10, result.getScore());
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .cashFlow(cashFlowRepository::findBySymbol)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .balanceSheet(balanceSheetRepository::findBySymbol)
+                .build();
+    }
 }
@@ -4,6 +4,7 @@ import com.testehan.finana.model.finstatement.CashFlowData;
 import com.testehan.finana.model.reporting.ReportItem;
 import com.testehan.finana.repository.CashFlowRepository;
 import com.testehan.finana.repository.CompanyOverviewRepository;
+import com.testehan.finana.service.reporting.ReportContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -28,7 +29,7 @@ class ShareholderFriendlyActivityCalculatorTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         calculator = new ShareholderFriendlyActivityCalculator(
-                companyOverviewRepository, cashFlowRepository, eventPublisher
+                eventPublisher
         );
     }
 
@@ -37,8 +38,15 @@ class ShareholderFriendlyActivityCalculatorTest {
         String ticker = "AAPL";
         when(cashFlowRepository.findBySymbol(ticker)).thenReturn(Optional.empty());
 
-        ReportItem result = calculator.calculate(ticker, new SseEmitter());
+        ReportItem result = calculator.calculate(context(ticker), new SseEmitter());
 
         assertEquals(0, result.getScore());
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .cashFlow(cashFlowRepository::findBySymbol)
+                .build();
+    }
 }
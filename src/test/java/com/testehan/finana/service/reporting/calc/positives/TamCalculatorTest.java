@@ -1,7 +1,6 @@
 package com.testehan.finana.service.reporting.calc.positives;
 
 import com.testehan.finana.model.CompanyOverview;
-import com.testehan.finana.model.filing.SecFiling;
 import com.testehan.finana.model.finstatement.IncomeReport;
 import com.testehan.finana.model.finstatement.IncomeStatementData;
 import com.testehan.finana.model.llm.responses.TAMScoreExplanationResponse;
@@ -9,6 +8,7 @@ import com.testehan.finana.repository.CompanyOverviewRepository;
 import com.testehan.finana.repository.IncomeStatementRepository;
 import com.testehan.finana.repository.SecFilingRepository;
 import com.testehan.finana.service.LlmService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
@@ -62,9 +62,6 @@ class TamCalculatorTest {
     @BeforeEach
     void setUp() {
         calculator = new TamCalculator(
-                companyOverviewRepository,
-                incomeStatementRepository,
-                secFilingRepository,
                 eventPublisher,
                 llmService,
                 safeParser
@@ -90,7 +87,7 @@ class TamCalculatorTest {
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        TAMScoreExplanationResponse result = calculator.calculate("AAPL", sseEmitter);
+        TAMScoreExplanationResponse result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getTotalAddressableMarketScore()).isEqualTo(-10);
     }
@@ -102,11 +99,11 @@ class TamCalculatorTest {
         companyOverview.setSymbol("AAPL");
         companyOverview.setCompanyName("Apple Inc.");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
         when(incomeStatementRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
         mockEventPublisher();
 
-        TAMScoreExplanationResponse result = calculator.calculate("AAPL", sseEmitter);
+        TAMScoreExplanationResponse result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getTotalAddressableMarketScore()).isEqualTo(-10);
     }
@@ -119,31 +116,29 @@ class TamCalculatorTest {
         companyOverview.setCompanyName("Apple Inc.");
         when(companyOverviewRepository.findBySymbol("AAPL")).thenReturn(Optional.of(companyOverview));
 
-        SecFiling secFiling = new SecFiling();
-        secFiling.setSymbol("AAPL");
-        when(secFilingRepository.findBySymbol("AAPL")).thenReturn(Optional.of(secFiling));
+        when(secFilingRepository.findLatestTenKFiling("AAPL")).thenReturn(Optional.empty());
 
         IncomeStatementData incomeStatementData = new IncomeStatementData();
         List<IncomeReport> quarterlyReports = new ArrayList<>();
 
         IncomeReport q1 = new IncomeReport();
         q1.setDate("2024-12-31");
-        q1.setRevenue("100000");
+        q1.setRevenue(new BigDecimal("100000"));
         quarterlyReports.add(q1);
 
         IncomeReport q2 = new IncomeReport();
         q2.setDate("2024-09-30");
-        q2.setRevenue("90000");
+        q2.setRevenue(new BigDecimal("90000"));
         quarterlyReports.add(q2);
 
         IncomeReport q3 = new IncomeReport();
         q3.setDate("2024-06-30");
-        q3.setRevenue("85000");
+        q3.setRevenue(new BigDecimal("85000"));
         quarterlyReports.add(q3);
 
         IncomeReport q4 = new IncomeReport();
         q4.setDate("2024-03-31");
-        q4.setRevenue("80000");
+        q4.setRevenue(new BigDecimal("80000"));
         quarterlyReports.add(q4);
 
         incomeStatementData.setQuarterlyReports(quarterlyReports);
@@ -151,10 +146,18 @@ class TamCalculatorTest {
         when(safeParser.parse(any())).thenReturn(new BigDecimal("1"));
 
         mockEventPublisher();
-        when(llmService.callLlm(any(Prompt.class), anyString(), anyString())).thenReturn("{\"totalAddressableMarketScore\":8,\"totalAddressableMarketExplanation\":\"Test\",\"tamPenetrationRunwayScore\":8,\"tamPenetrationRunwayExplanation\":\"Test\"}");
+        when(llmService.callLlm(any(Prompt.class), anyString(), anyString(), anyBoolean())).thenReturn("{\"totalAddressableMarketScore\":8,\"totalAddressableMarketExplanation\":\"Test\",\"tamPenetrationRunwayScore\":8,\"tamPenetrationRunwayExplanation\":\"Test\"}");
 
-        TAMScoreExplanationResponse result = calculator.calculate("AAPL", sseEmitter);
+        TAMScoreExplanationResponse result = calculator.calculate(context("AAPL"), sseEmitter);
 
         assertThat(result.getTotalAddressableMarketScore()).isNotEqualTo(-10);
     }
-}
\ No newline at end of file
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .incomeStatement(incomeStatementRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .build();
+    }
+}
@@ -9,6 +9,7 @@ import com.testehan.finana.model.ratio.FinancialRatiosReport;
 import com.testehan.finana.repository.*;
 import com.testehan.finana.service.LlmService;
 import com.testehan.finana.service.QuoteService;
+import com.testehan.finana.service.reporting.ReportContext;
 import com.testehan.finana.service.reporting.events.ErrorEvent;
 import com.testehan.finana.service.reporting.events.MessageEvent;
 import com.testehan.finana.util.SafeParser;
@@ -63,15 +64,10 @@ class ValuationCalculatorTest {
     @BeforeEach
     void setUp() {
         calculator = new ValuationCalculator(
-                companyOverviewRepository,
                 quoteService,
-                earningsHistoryRepository,
                 eventPublisher,
                 safeParser,
-                llmService,
-                financialRatiosRepository,
-                earningsEstimatesRepository,
-                secFilingRepository
+                llmService
         );
     }
 
@@ -82,7 +78,7 @@ class ValuationCalculatorTest {
     void shouldReturnEmptyMonoWhenNoStockQuote() {
         when(quoteService.getLastStockQuote("AAPL")).thenReturn(Mono.empty());
 
-        Mono<BigDecimal> result = calculator.calculateCurrentPE("AAPL");
+        Mono<BigDecimal> result = calculator.calculateCurrentPE(context("AAPL"));
 
         assertThat(result.block()).isNull();
     }
@@ -95,7 +91,7 @@ class ValuationCalculatorTest {
         when(quoteService.getLastStockQuote("AAPL")).thenReturn(Mono.just(quote));
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
 
-        Mono<BigDecimal> result = calculator.calculateCurrentPE("AAPL");
+        Mono<BigDecimal> result = calculator.calculateCurrentPE(context("AAPL"));
 
         assertThat(result.block()).isNull();
     }
@@ -137,7 +133,7 @@ class ValuationCalculatorTest {
         when(safeParser.parse("2.00")).thenReturn(new BigDecimal("2.00"));
         when(safeParser.parse("1.75")).thenReturn(new BigDecimal("1.75"));
 
-        Mono<BigDecimal> result = calculator.calculateCurrentPE("AAPL");
+        Mono<BigDecimal> result = calculator.calculateCurrentPE(context("AAPL"));
 
         BigDecimal peRatio = result.block();
         assertThat(peRatio).isNotNull();
@@ -168,7 +164,7 @@ class ValuationCalculatorTest {
         earningsHistory.setQuarterlyEarnings(quarterlyEarnings);
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.of(earningsHistory));
 
-        Mono<BigDecimal> result = calculator.calculateCurrentPE("AAPL");
+        Mono<BigDecimal> result = calculator.calculateCurrentPE(context("AAPL"));
 
         assertThat(result.block()).isNull();
     }
@@ -207,7 +203,7 @@ class ValuationCalculatorTest {
         when(earningsHistoryRepository.findBySymbol("AAPL")).thenReturn(Optional.of(earningsHistory));
         when(safeParser.parse(anyString())).thenReturn(BigDecimal.ZERO);
 
-        Mono<BigDecimal> result = calculator.calculateCurrentPE("AAPL");
+        Mono<BigDecimal> result = calculator.calculateCurrentPE(context("AAPL"));
 
         assertThat(result.block()).isNull();
     }
@@ -219,7 +215,7 @@ class ValuationCalculatorTest {
     void shouldReturnNullWhenNoFinancialRatiosData() {
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
 
-        BigDecimal result = calculator.calculateMedianPeRatio("AAPL");
+        BigDecimal result = calculator.calculateMedianPeRatio(context("AAPL"));
 
         assertThat(result).isNull();
     }
@@ -231,7 +227,7 @@ class ValuationCalculatorTest {
         data.setAnnualReports(new ArrayList<>());
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
 
-        BigDecimal result = calculator.calculateMedianPeRatio("AAPL");
+        BigDecimal result = calculator.calculateMedianPeRatio(context("AAPL"));
 
         assertThat(result).isNull();
     }
@@ -255,7 +251,7 @@ class ValuationCalculatorTest {
         data.setAnnualReports(reports);
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
 
-        BigDecimal result = calculator.calculateMedianPeRatio("AAPL");
+        BigDecimal result = calculator.calculateMedianPeRatio(context("AAPL"));
 
         assertThat(result).isNull();
     }
@@ -284,7 +280,7 @@ class ValuationCalculatorTest {
         data.setAnnualReports(reports);
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
 
-        BigDecimal result = calculator.calculateMedianPeRatio("AAPL");
+        BigDecimal result = calculator.calculateMedianPeRatio(context("AAPL"));
 
         assertThat(result).isEqualByComparingTo(new BigDecimal("25.00"));
     }
@@ -318,7 +314,7 @@ class ValuationCalculatorTest {
         data.setAnnualReports(reports);
         when(financialRatiosRepository.findBySymbol("AAPL")).thenReturn(Optional.of(data));
 
-        BigDecimal result = calculator.calculateMedianPeRatio("AAPL");
+        BigDecimal result = calculator.calculateMedianPeRatio(context("AAPL"));
 
         assertThat(result).isEqualByComparingTo(new BigDecimal("22.50"));
     }
@@ -330,7 +326,7 @@ class ValuationCalculatorTest {
     void shouldReturnNullWhenNoEarningsEstimates() {
         when(earningsEstimatesRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
 
-        BigDecimal result = calculator.calculate1YrForwardEpsGrowth("AAPL");
+        BigDecimal result = calculator.calculate1YrForwardEpsGrowth(context("AAPL"));
 
         assertThat(result).isNull();
     }
@@ -343,7 +339,7 @@ class ValuationCalculatorTest {
         estimate.setEstimates(estimates);
         when(earningsEstimatesRepository.findBySymbol("AAPL")).thenReturn(Optional.of(estimate));
 
-        BigDecimal result = calculator.calculate1YrForwardEpsGrowth("AAPL");
+        BigDecimal result = calculator.calculate1YrForwardEpsGrowth(context("AAPL"));
 
         assertThat(result).isNull();
     }
@@ -362,7 +358,7 @@ class ValuationCalculatorTest {
         estimate.setEstimates(estimates);
         when(earningsEstimatesRepository.findBySymbol("AAPL")).thenReturn(Optional.of(estimate));
 
-        BigDecimal result = calculator.calculate1YrForwardEpsGrowth("AAPL");
+        BigDecimal result = calculator.calculate1YrForwardEpsGrowth(context("AAPL"));
 
         assertThat(result).isNull();
     }
@@ -390,7 +386,7 @@ class ValuationCalculatorTest {
         when(safeParser.parse("4.00")).thenReturn(new BigDecimal("4.00"));
         when(safeParser.parse("5.00")).thenReturn(new BigDecimal("5.00"));
 
-        BigDecimal result = calculator.calculate1YrForwardEpsGrowth("AAPL");
+        BigDecimal result = calculator.calculate1YrForwardEpsGrowth(context("AAPL"));
 
         assertThat(result).isNotNull();
         assertThat(result).isEqualByComparingTo(new BigDecimal("25.0000"));
@@ -419,7 +415,7 @@ class ValuationCalculatorTest {
         when(safeParser.parse("0.00")).thenReturn(BigDecimal.ZERO);
         when(safeParser.parse("5.00")).thenReturn(new BigDecimal("5.00"));
 
-        BigDecimal result = calculator.calculate1YrForwardEpsGrowth("AAPL");
+        BigDecimal result = calculator.calculate1YrForwardEpsGrowth(context("AAPL"));
 
         assertThat(result).isNull();
     }
@@ -445,7 +441,7 @@ class ValuationCalculatorTest {
         estimate.setEstimates(estimates);
         when(earningsEstimatesRepository.findBySymbol("AAPL")).thenReturn(Optional.of(estimate));
 
-        BigDecimal result = calculator.calculate3YrForwardEpsGrowth("AAPL");
+        BigDecimal result = calculator.calculate3YrForwardEpsGrowth(context("AAPL"));
 
         assertThat(result).isNull();
     }
@@ -484,7 +480,7 @@ class ValuationCalculatorTest {
         when(safeParser.parse("4.00")).thenReturn(new BigDecimal("4.00"));
         when(safeParser.parse("6.40")).thenReturn(new BigDecimal("6.40"));
 
-        BigDecimal result = calculator.calculate3YrForwardEpsGrowth("AAPL");
+        BigDecimal result = calculator.calculate3YrForwardEpsGrowth(context("AAPL"));
 
         assertThat(result).isNotNull();
     }
@@ -522,7 +518,7 @@ class ValuationCalculatorTest {
         when(earningsEstimatesRepository.findBySymbol("AAPL")).thenReturn(Optional.of(estimate));
         when(safeParser.parse("0.00")).thenReturn(BigDecimal.ZERO);
 
-        BigDecimal result = calculator.calculate3YrForwardEpsGrowth("AAPL");
+        BigDecimal result = calculator.calculate3YrForwardEpsGrowth(context("AAPL"));
 
         assertThat(result).isNull();
     }
@@ -534,7 +530,7 @@ class ValuationCalculatorTest {
     void shouldReturnEmptyMonoWhenPECalculationFails() {
         when(quoteService.getLastStockQuote("AAPL")).thenReturn(Mono.empty());
 
-        Mono<BigDecimal> result = calculator.calculatePegRatio("AAPL");
+        Mono<BigDecimal> result = calculator.calculatePegRatio(context("AAPL"));
 
         assertThat(result.block()).isNull();
     }
@@ -578,7 +574,7 @@ class ValuationCalculatorTest {
         
         when(earningsEstimatesRepository.findBySymbol("AAPL")).thenReturn(Optional.empty());
 
-        Mono<BigDecimal> result = calculator.calculatePegRatio("AAPL");
+        Mono<BigDecimal> result = calculator.calculatePegRatio(context("AAPL"));
 
         assertThat(result.block()).isNull();
     }
@@ -638,7 +634,7 @@ class ValuationCalculatorTest {
         when(earningsEstimatesRepository.findBySymbol("AAPL")).thenReturn(Optional.of(estimate));
         when(safeParser.parse("4.00")).thenReturn(new BigDecimal("4.00"));
 
-        Mono<BigDecimal> result = calculator.calculatePegRatio("AAPL");
+        Mono<BigDecimal> result = calculator.calculatePegRatio(context("AAPL"));
 
         assertThat(result.block()).isNull();
     }
@@ -696,11 +692,21 @@ class ValuationCalculatorTest {
         when(safeParser.parse("40.00")).thenReturn(new BigDecimal("40.00"));
         when(safeParser.parse("50.00")).thenReturn(new BigDecimal("50.00"));
 
-        Mono<BigDecimal> result = calculator.calculatePegRatio("AAPL");
+        Mono<BigDecimal> result = calculator.calculatePegRatio(context("AAPL"));
 
         BigDecimal pegRatio = result.block();
         assertThat(pegRatio).isNotNull();
         // PEG = P/E / Growth = 10 / 25 = 0.4
         assertThat(pegRatio).isEqualByComparingTo(new BigDecimal("0.40"));
     }
+
+    private ReportContext context(String ticker) {
+        return ReportContext.builder(ticker)
+                .companyOverview(companyOverviewRepository::findBySymbol)
+                .earningsHistory(earningsHistoryRepository::findBySymbol)
+                .financialRatios(financialRatiosRepository::findBySymbol)
+                .earningsEstimate(earningsEstimatesRepository::findBySymbol)
+                .latestTenKFiling(secFilingRepository::findLatestTenKFiling)
+                .build();
+    }
 }
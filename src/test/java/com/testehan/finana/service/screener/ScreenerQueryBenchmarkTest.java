@@ -0,0 +1,72 @@
+package com.testehan.finana.service.screener;
+
+import com.testehan.finana.service.screener.ScreenerQueryTest.ScreenerRows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Milliseconds per screen over a synthetic universe of 10,000 symbols with every metric set, for a filter only, a
+ * sorted filter and a ranked screen of the whole universe. Run with -Dbenchmark=true.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ScreenerQueryBenchmarkTest {
+
+    private static final int SYMBOLS = 10_000;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int ROUNDS = 200;
+    private static final String[] SECTORS = {"Technology", "Energy", "Healthcare", "Financial Services", "Industrials"};
+
+    private long sink;
+
+    @Test
+    void screen_TenThousandSymbols() {
+        ScreenerUniverse universe = ScreenerUniverse.empty().withRows(rows(new Random(11)));
+        Map<String, ScreenerQuery> queries = Map.of(
+                "filter", ScreenerQuery.parse("roic > 15% and net_debt_to_ebitda < 1", null, null),
+                "filter and sort", ScreenerQuery.parse("(roic > 0.1 or return_on_equity > 0.2) and sector = 'Technology'",
+                        "free_cash_flow_yield desc", null),
+                "rank everything", ScreenerQuery.parse(null, null, "roic desc, pe_ratio, net_debt_to_ebitda, gross_profit_margin desc"));
+
+        System.out.printf("%-18s %10s %10s%n", "screen", "mean ms", "max ms");
+        queries.forEach((name, query) -> {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                sink += query.run(universe, PageRequest.of(0, 50)).getTotalElements();
+            }
+            long total = 0;
+            long max = 0;
+            for (int i = 0; i < ROUNDS; i++) {
+                long start = System.nanoTime();
+                sink += query.run(universe, PageRequest.of(0, 50)).getTotalElements();
+                long elapsed = System.nanoTime() - start;
+                total += elapsed;
+                max = Math.max(max, elapsed);
+            }
+            double meanMillis = total / 1e6 / ROUNDS;
+            System.out.printf("%-18s %10.2f %10.2f%n", name, meanMillis, max / 1e6);
+            assertTrue(meanMillis < 100, name + " took " + meanMillis + " ms");
+        });
+        System.out.println(sink);
+    }
+
+    private static List<ScreenerRow> rows(Random random) {
+        List<ScreenerRow> rows = new ArrayList<>(SYMBOLS);
+        for (int i = 0; i < SYMBOLS; i++) {
+            Map<String, Double> values = new HashMap<>();
+            for (String metric : ScreenerUniverse.METRICS) {
+                values.put(metric, random.nextGaussian() * 0.2 + 0.1);
+            }
+            values.put("market_cap", random.nextDouble(1e8, 3e12));
+            rows.add(ScreenerRows.row("T" + i, SECTORS[random.nextInt(SECTORS.length)], values));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,153 @@
+package com.testehan.finana.service.screener;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScreenerQueryTest {
+
+    private final ScreenerUniverse universe = ScreenerUniverse.empty().withRows(List.of(
+            ScreenerRows.row("AAA", "Technology", Map.of("roic", 0.20, "net_debt_to_ebitda", 0.5, "return_on_equity", 0.10, "market_cap", 3e9)),
+            ScreenerRows.row("BBB", "Technology", Map.of("roic", 0.20, "net_debt_to_ebitda", 2.0, "return_on_equity", 0.30, "market_cap", 1e9)),
+            ScreenerRows.row("CCC", "Energy", Map.of("roic", 0.10, "net_debt_to_ebitda", 0.5, "return_on_equity", 0.05, "market_cap", 2e9)),
+            ScreenerRows.row("DDD", null, Map.of("net_debt_to_ebitda", 0.1, "market_cap", 4e9))));
+
+    @Test
+    void filter_CombinesComparisonsWithPercentages() {
+        assertEquals(List.of("AAA"), symbols("roic > 15% and net_debt_to_ebitda < 1", null, null));
+    }
+
+    @Test
+    void filter_SupportsOrNotParenthesesAndTextFields() {
+        assertEquals(List.of("AAA", "BBB"), symbols("sector = 'technology' and not (roic < 0.15)", null, null));
+        assertEquals(List.of("DDD", "CCC"), symbols("sector != \"Technology\" or net_debt_to_ebitda <= 0.1", null, null));
+    }
+
+    @Test
+    void filter_MissingMetricMatchesNoComparison() {
+        assertEquals(List.of("CCC"), symbols("roic != 0.2", null, null));
+    }
+
+    @Test
+    void filter_ComparesNumbersOnTheLeftAndOtherMetrics() {
+        assertEquals(List.of("AAA", "BBB"), symbols("0.15 < roic", null, null));
+        assertEquals(List.of("AAA", "CCC"), symbols("roic > return_on_equity", null, null));
+    }
+
+    @Test
+    void parse_RejectsUnknownMetricsAndInvalidSyntax() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class, () -> ScreenerQuery.parse("roce > 1", null, null));
+        assertEquals("Unknown metric 'roce'", unknown.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> ScreenerQuery.parse("roic > 1 and", null, null));
+        assertThrows(IllegalArgumentException.class, () -> ScreenerQuery.parse("(roic > 1", null, null));
+        assertThrows(IllegalArgumentException.class, () -> ScreenerQuery.parse("sector > 'Energy'", null, null));
+        assertThrows(IllegalArgumentException.class, () -> ScreenerQuery.parse(null, "roic up", null));
+    }
+
+    @Test
+    void parse_RejectsFiltersNestedTooDeeplyOrTooLong() {
+        String allowed = "(".repeat(ScreenerExpression.MAX_NESTING) + "roic > 1" + ")".repeat(ScreenerExpression.MAX_NESTING);
+        assertDoesNotThrow(() -> ScreenerQuery.parse(allowed, null, null));
+
+        IllegalArgumentException nested = assertThrows(IllegalArgumentException.class,
+                () -> ScreenerQuery.parse("not ".repeat(400) + "roic > 1", null, null));
+        assertTrue(nested.getMessage().startsWith("Filter nests more than"));
+        assertThrows(IllegalArgumentException.class, () -> ScreenerQuery.parse("(".repeat(1000) + "roic > 1", null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScreenerQuery.parse("roic > 1 and ".repeat(200) + "roic > 1", null, null));
+    }
+
+    @Test
+    void run_SortsMissingValuesLastAndPages() {
+        assertEquals(List.of("CCC", "AAA", "BBB", "DDD"), symbols(null, "roic, market_cap desc", null));
+        assertEquals(List.of("BBB", "AAA", "CCC", "DDD"), symbols(null, "roic desc, return_on_equity desc", null));
+
+        Page<ScreenerResult> secondPage = ScreenerQuery.parse(null, "roic", null).run(universe, PageRequest.of(1, 3));
+        assertEquals(4, secondPage.getTotalElements());
+        assertEquals("DDD", secondPage.getContent().getFirst().symbol());
+        assertFalse(secondPage.getContent().getFirst().metrics().containsKey("roic"));
+    }
+
+    @Test
+    void run_RanksByAveragePercentile() {
+        Page<ScreenerResult> ranked = ScreenerQuery.parse("roic > 0", null, "roic desc, net_debt_to_ebitda")
+                .run(universe, PageRequest.of(0, 10));
+
+        assertEquals(List.of("AAA", "CCC", "BBB"), ranked.getContent().stream().map(ScreenerResult::symbol).toList());
+        assertEquals(1.0, ranked.getContent().get(0).rankScore());
+        assertEquals(0.5, ranked.getContent().get(1).rankScore());
+        assertEquals(0.5, ranked.getContent().get(2).rankScore());
+    }
+
+    @Test
+    void run_OrdersByMarketCapWithoutSortOrRank() {
+        assertEquals(List.of("DDD", "AAA", "CCC", "BBB"), symbols("", null, null));
+    }
+
+    @Test
+    void run_LargeUniverseMatchesRowByRowEvaluation() {
+        Random random = new Random(11);
+        String[] sectors = {"Technology", "Energy", "Healthcare", "Financial Services", "Industrials"};
+        Map<String, Map<String, Double>> valuesBySymbol = new HashMap<>();
+        Map<String, String> sectorBySymbol = new HashMap<>();
+        List<ScreenerRow> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Map<String, Double> values = new HashMap<>();
+            for (String metric : ScreenerUniverse.METRICS) {
+                values.put(metric, random.nextGaussian() * 0.2 + 0.1);
+            }
+            values.put("market_cap", random.nextDouble(1e8, 3e12));
+            String symbol = "T" + i;
+            String sector = sectors[random.nextInt(sectors.length)];
+            valuesBySymbol.put(symbol, values);
+            sectorBySymbol.put(symbol, sector);
+            rows.add(ScreenerRows.row(symbol, sector, values));
+        }
+        ScreenerUniverse large = ScreenerUniverse.empty().withRows(rows);
+
+        Page<ScreenerResult> page = ScreenerQuery.parse(
+                        "(roic > 0.1 or return_on_equity > 0.2) and sector = 'technology' and net_debt_to_ebitda < 0.3",
+                        "free_cash_flow_yield desc", null)
+                .run(large, PageRequest.of(1, 50));
+
+        List<String> expected = valuesBySymbol.entrySet().stream()
+                .filter(entry -> (entry.getValue().get("roic") > 0.1 || entry.getValue().get("return_on_equity") > 0.2)
+                        && sectorBySymbol.get(entry.getKey()).equals("Technology")
+                        && entry.getValue().get("net_debt_to_ebitda") < 0.3)
+                .sorted(Comparator.comparing((Map.Entry<String, Map<String, Double>> entry) ->
+                        entry.getValue().get("free_cash_flow_yield")).reversed())
+                .map(Map.Entry::getKey)
+                .toList();
+        assertTrue(expected.size() > 100);
+        assertEquals(expected.size(), page.getTotalElements());
+        assertEquals(expected.subList(50, 100), page.getContent().stream().map(ScreenerResult::symbol).toList());
+    }
+
+    private List<String> symbols(String filter, String sort, String rank) {
+        return ScreenerQuery.parse(filter, sort, rank).run(universe, PageRequest.of(0, 10)).getContent().stream()
+                .map(ScreenerResult::symbol)
+                .toList();
+    }
+
+    static final class ScreenerRows {
+
+        static ScreenerRow row(String symbol, String sector, Map<String, Double> values) {
+            double[] metrics = new double[ScreenerUniverse.METRICS.size()];
+            Arrays.fill(metrics, Double.NaN);
+            values.forEach((metric, value) -> metrics[ScreenerUniverse.metricIndex(metric)] = value);
+            String[] texts = new String[ScreenerUniverse.TEXT_FIELDS.size()];
+            texts[ScreenerUniverse.textFieldIndex("sector")] = sector;
+            return new ScreenerRow(symbol, symbol + " Inc.", texts, metrics);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.testehan.finana.service.screener;
+
+import com.testehan.finana.model.CompanyOverview;
+import com.testehan.finana.model.finstatement.BalanceSheetData;
+import com.testehan.finana.model.finstatement.BalanceSheetReport;
+import com.testehan.finana.model.finstatement.CashFlowData;
+import com.testehan.finana.model.finstatement.CashFlowReport;
+import com.testehan.finana.model.finstatement.IncomeReport;
+import com.testehan.finana.model.finstatement.IncomeStatementData;
+import com.testehan.finana.model.quote.StockQuoteBar;
+import com.testehan.finana.model.ratio.FinancialRatiosData;
+import com.testehan.finana.model.ratio.FinancialRatiosReport;
+import com.testehan.finana.util.ColumnarRatiosCalculator;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScreenerServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ScreenerService screenerService;
+
+    @BeforeEach
+    void setUp() {
+        screenerService = new ScreenerService(mongoTemplate, new ColumnarRatiosCalculator());
+    }
+
+    @Test
+    void refresh_LoadsTheUniverseFromOverviewsRatiosAndQuotes() {
+        when(mongoTemplate.find(any(Query.class), eq(CompanyOverview.class))).thenReturn(List.of(overview("AAPL")));
+        when(mongoTemplate.find(any(Query.class), eq(FinancialRatiosData.class))).thenReturn(List.of(ratios("AAPL", "0.25")));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(StockQuoteBar.class), eq(Document.class)))
+                .thenReturn(latestBars(new Document("_id", "AAPL").append("price", 200.0).append("adjClose", 199.5)));
+
+        screenerService.refresh();
+
+        Page<ScreenerResult> page = screenerService.screen("roic > 20% and sector = 'Technology'", null, null, 0, 10);
+        assertEquals(1, page.getTotalElements());
+        ScreenerResult result = page.getContent().getFirst();
+        assertEquals("Apple Inc.", result.companyName());
+        assertEquals(200.0, result.metrics().get("price"));
+        assertEquals(3e12, result.metrics().get("market_cap"));
+        assertEquals(25.0, result.metrics().get("pe_ratio"));
+    }
+
+    @Test
+    void refresh_ComputesTheRatiosFromTheLatestAnnualStatementsAtTheLatestPrice() {
+        when(mongoTemplate.find(any(Query.class), eq(CompanyOverview.class))).thenReturn(List.of(overview("AAPL")));
+        when(mongoTemplate.find(any(Query.class), eq(FinancialRatiosData.class))).thenReturn(List.of(ratios("AAPL", "0.25")));
+        IncomeReport income = new IncomeReport();
+        income.setDate("2024-09-28");
+        income.setRevenue(new BigDecimal("1000"));
+        income.setGrossProfit(new BigDecimal("400"));
+        income.setWeightedAverageShsOut(new BigDecimal("100"));
+        IncomeStatementData incomeData = new IncomeStatementData();
+        incomeData.setSymbol("AAPL");
+        incomeData.setAnnualReports(List.of(income));
+        BalanceSheetReport balance = new BalanceSheetReport();
+        balance.setDate("2024-09-28");
+        BalanceSheetData balanceData = new BalanceSheetData();
+        balanceData.setSymbol("AAPL");
+        balanceData.setAnnualReports(List.of(balance));
+        CashFlowReport cashFlow = new CashFlowReport();
+        cashFlow.setDate("2024-09-28");
+        cashFlow.setCommonDividendsPaid(new BigDecimal("-200"));
+        CashFlowData cashFlowData = new CashFlowData();
+        cashFlowData.setSymbol("AAPL");
+        cashFlowData.setAnnualReports(List.of(cashFlow));
+        when(mongoTemplate.find(any(Query.class), eq(IncomeStatementData.class))).thenReturn(List.of(incomeData));
+        when(mongoTemplate.find(any(Query.class), eq(BalanceSheetData.class))).thenReturn(List.of(balanceData));
+        when(mongoTemplate.find(any(Query.class), eq(CashFlowData.class))).thenReturn(List.of(cashFlowData));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(StockQuoteBar.class), eq(Document.class)))
+                .thenReturn(latestBars(new Document("_id", "AAPL").append("price", 200.0)));
+
+        screenerService.refresh();
+
+        Map<String, Double> metrics = screenerService.screen(null, null, null, 0, 10).getContent().getFirst().metrics();
+        assertEquals(0.4, metrics.get("gross_profit_margin"), 1e-9);
+        // 2 of dividends per share at the latest price of 200
+        assertEquals(0.01, metrics.get("dividend_yield"), 1e-9);
+        assertFalse(metrics.containsKey("roic"));
+    }
+
+    @Test
+    void refresh_LoadsTheLatestPricesOfABatchInOneAggregation() {
+        when(mongoTemplate.find(any(Query.class), eq(CompanyOverview.class)))
+                .thenReturn(List.of(overview("AAPL"), overview("MSFT")));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(StockQuoteBar.class), eq(Document.class)))
+                .thenReturn(latestBars(new Document("_id", "AAPL").append("price", 200.0),
+                        new Document("_id", "MSFT").append("adjClose", 410.0)));
+
+        screenerService.refresh();
+
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(StockQuoteBar.class), eq(Document.class));
+        List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(List.of("$match", "$sort", "$group"), pipeline.stream().map(stage -> stage.keySet().iterator().next()).toList());
+        assertTrue(pipeline.get(0).get("$match", Document.class).get("date", Document.class).containsKey("$gte"));
+        assertEquals(new Document("symbol", -1).append("date", -1), pipeline.get(1).get("$sort"));
+        assertEquals(List.of(200.0, 410.0), screenerService.screen(null, "price", null, 0, 10).getContent().stream()
+                .map(result -> result.metrics().get("price"))
+                .toList());
+    }
+
+    @Test
+    void refresh_OnlyQueriesSymbolsUpdatedSinceThePreviousRefresh() {
+        screenerService.refresh();
+        screenerService.refresh();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(queries.capture(), eq(CompanyOverview.class));
+        assertFalse(queries.getAllValues().get(0).getQueryObject().containsKey("lastUpdated"));
+        assertTrue(queries.getAllValues().get(1).getQueryObject().containsKey("lastUpdated"));
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), eq(StockQuoteBar.class), eq(Document.class));
+    }
+
+    @Test
+    void refresh_ReplacesTheRowOfAnUpdatedSymbol() {
+        when(mongoTemplate.find(any(Query.class), eq(CompanyOverview.class))).thenReturn(List.of(overview("AAPL")));
+        when(mongoTemplate.find(any(Query.class), eq(FinancialRatiosData.class)))
+                .thenReturn(List.of(ratios("AAPL", "0.25")))
+                .thenReturn(List.of(ratios("AAPL", "0.25")))
+                .thenReturn(List.of(ratios("AAPL", "0.05")));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(StockQuoteBar.class), eq(Document.class)))
+                .thenReturn(latestBars());
+        screenerService.refresh();
+
+        screenerService.refresh();
+
+        assertEquals(0, screenerService.screen("roic > 0.2", null, null, 0, 10).getTotalElements());
+        Page<ScreenerResult> all = screenerService.screen(null, null, null, 0, 10);
+        assertEquals(1, all.getTotalElements());
+        assertEquals(0.05, all.getContent().getFirst().metrics().get("roic"));
+        assertEquals(180.0, all.getContent().getFirst().metrics().get("price"));
+    }
+
+    @Test
+    void remove_DropsTheRowOfADeletedSymbol() {
+        when(mongoTemplate.find(any(Query.class), eq(CompanyOverview.class)))
+                .thenReturn(List.of(overview("AAPL"), overview("MSFT")))
+                .thenReturn(List.of(overview("AAPL"), overview("MSFT")))
+                .thenReturn(List.of());
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(StockQuoteBar.class), eq(Document.class)))
+                .thenReturn(latestBars());
+        screenerService.refresh();
+
+        screenerService.remove("AAPL");
+        screenerService.refresh();
+
+        Page<ScreenerResult> all = screenerService.screen(null, null, null, 0, 10);
+        assertEquals(1, all.getTotalElements());
+        assertEquals("MSFT", all.getContent().getFirst().symbol());
+    }
+
+    private static CompanyOverview overview(String symbol) {
+        CompanyOverview overview = new CompanyOverview();
+        overview.setSymbol(symbol);
+        overview.setCompanyName("Apple Inc.");
+        overview.setSector("Technology");
+        overview.setMarketCap("3000000000000");
+        overview.setPrice("180");
+        return overview;
+    }
+
+    private static FinancialRatiosData ratios(String symbol, String roic) {
+        FinancialRatiosReport report = new FinancialRatiosReport();
+        report.setDate("2024-09-28");
+        report.setRoic(new BigDecimal(roic));
+        report.setEarningsPerShareDiluted(new BigDecimal("8"));
+        FinancialRatiosData data = new FinancialRatiosData();
+        data.setSymbol(symbol);
+        data.setAnnualReports(List.of(report));
+        return data;
+    }
+
+    private static AggregationResults<Document> latestBars(Document... bars) {
+        return new AggregationResults<>(List.of(bars), new Document());
+    }
+}
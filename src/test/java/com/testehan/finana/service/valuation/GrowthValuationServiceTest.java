@@ -30,7 +30,7 @@ class GrowthValuationServiceTest {
     private GrowthValuationService growthValuationService;
 
     @Mock private CompanyOverviewRepository companyOverviewRepository;
-    @Mock private StockQuotesRepository stockQuotesRepository;
+    @Mock private StockQuoteBarRepository stockQuoteBarRepository;
     @Mock private IncomeStatementRepository incomeStatementRepository;
     @Mock private BalanceSheetRepository balanceSheetRepository;
     @Mock private CashFlowRepository cashFlowRepository;
@@ -46,7 +46,7 @@ class GrowthValuationServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         growthValuationService = new GrowthValuationService(
-                companyOverviewRepository, stockQuotesRepository, incomeStatementRepository,
+                companyOverviewRepository, stockQuoteBarRepository, incomeStatementRepository,
                 balanceSheetRepository, cashFlowRepository, valuationsRepository,
                 fmpService, safeParser, growthValuationCalculator, llmService, objectMapper
         );
@@ -57,7 +57,7 @@ class GrowthValuationServiceTest {
     void getGrowthCompanyValuationData_returnsData() {
         String ticker = "AAPL";
         when(companyOverviewRepository.findBySymbol(ticker)).thenReturn(Optional.of(new CompanyOverview()));
-        when(stockQuotesRepository.findBySymbol(ticker)).thenReturn(Optional.empty());
+        when(stockQuoteBarRepository.findFirstBySymbolOrderByDateDesc(ticker)).thenReturn(Optional.empty());
         when(incomeStatementRepository.findBySymbol(ticker)).thenReturn(Optional.of(new IncomeStatementData()));
         when(balanceSheetRepository.findBySymbol(ticker)).thenReturn(Optional.of(new BalanceSheetData()));
         when(cashFlowRepository.findBySymbol(ticker)).thenReturn(Optional.of(new CashFlowData()));
@@ -26,7 +26,7 @@ class ReverseDcfValuationServiceTest {
     private ReverseDcfValuationService service;
 
     @Mock private CompanyOverviewRepository companyOverviewRepository;
-    @Mock private StockQuotesRepository stockQuotesRepository;
+    @Mock private StockQuoteBarRepository stockQuoteBarRepository;
     @Mock private IncomeStatementRepository incomeStatementRepository;
     @Mock private BalanceSheetRepository balanceSheetRepository;
     @Mock private CashFlowRepository cashFlowRepository;
@@ -39,7 +39,7 @@ class ReverseDcfValuationServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         service = new ReverseDcfValuationService(
-                companyOverviewRepository, stockQuotesRepository, incomeStatementRepository,
+                companyOverviewRepository, stockQuoteBarRepository, incomeStatementRepository,
                 balanceSheetRepository, cashFlowRepository, valuationsRepository,
                 fmpService, safeParser, reverseDCFValuationCalculator
         );
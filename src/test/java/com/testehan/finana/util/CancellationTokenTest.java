@@ -0,0 +1,76 @@
+package com.testehan.finana.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CancellationTokenTest {
+
+    @Test
+    void cancel_InterruptsTheThreadRunningTheTaskAndRunsCallbacksOnce() throws Exception {
+        CancellationToken token = new CancellationToken();
+        AtomicInteger callbacks = new AtomicInteger();
+        token.onCancel(callbacks::incrementAndGet);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AtomicBoolean interruptClearedAfterwards = new AtomicBoolean();
+        Thread worker = Thread.ofVirtual().start(() -> {
+            token.call(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            });
+            interruptClearedAfterwards.set(!Thread.currentThread().isInterrupted());
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        token.cancel("client disconnected");
+        token.cancel("again");
+        worker.join(5_000);
+
+        assertTrue(interrupted.get());
+        assertTrue(interruptClearedAfterwards.get());
+        assertEquals(1, callbacks.get());
+        CancellationException thrown = assertThrows(CancellationException.class, token::throwIfCancelled);
+        assertEquals("client disconnected", thrown.getMessage());
+    }
+
+    @Test
+    void onCancel_RunsRightAwayWhenAlreadyCancelled() {
+        CancellationToken token = new CancellationToken();
+        token.cancel("gone");
+        AtomicBoolean ran = new AtomicBoolean();
+
+        token.onCancel(() -> ran.set(true));
+
+        assertTrue(ran.get());
+        assertThrows(CancellationException.class, () -> token.call(() -> "never"));
+    }
+
+    @Test
+    void current_IsTheBoundTokenAndOtherwiseNeverCancelled() {
+        CancellationToken token = new CancellationToken();
+        AtomicReference<CancellationToken> seen = new AtomicReference<>();
+
+        token.within(() -> {
+            seen.set(CancellationToken.current());
+            return null;
+        });
+
+        assertSame(token, seen.get());
+        CancellationToken.current().cancel("ignored");
+        assertFalse(CancellationToken.current().isCancelled());
+    }
+}
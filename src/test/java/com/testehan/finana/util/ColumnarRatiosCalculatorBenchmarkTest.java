@@ -0,0 +1,76 @@
+package com.testehan.finana.util;
+
+import com.testehan.finana.model.ratio.FinancialRatiosReport;
+import com.testehan.finana.util.ColumnarRatiosCalculatorTest.Period;
+import com.testehan.finana.util.ColumnarRatiosCalculatorTest.StatementSamples;
+import com.testehan.finana.util.data.FinancialDataColumns;
+import com.testehan.finana.util.ratio.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cost per report period of the BigDecimal ratio calculators and of the columnar double calculator, with and
+ * without loading the statements into columns. Run with -Dbenchmark=true.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ColumnarRatiosCalculatorBenchmarkTest {
+
+    private static final int PERIODS = 20_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private final FinancialRatiosCalculator bigDecimalCalculator = new FinancialRatiosCalculator(
+            new ProfitabilityRatioCalculator(), new LiquidityRatioCalculator(), new LeverageRatioCalculator(),
+            new EfficiencyRatioCalculator(), new CashFlowMetricCalculator(), new PerShareMetricCalculator(),
+            new DividendMetricCalculator(), new OtherMetricCalculator());
+    private final ColumnarRatiosCalculator columnarCalculator = new ColumnarRatiosCalculator();
+
+    // keeps the results reachable so the JIT cannot drop the work
+    private double sink;
+
+    @Test
+    void calculateRatios_BigDecimalVersusColumnar() {
+        List<Period> periods = StatementSamples.periods(new Random(7), PERIODS);
+        FinancialDataColumns loaded = load(periods);
+
+        double bigDecimal = nanosPerPeriod(() -> {
+            for (Period period : periods) {
+                FinancialRatiosReport report = bigDecimalCalculator.calculateRatios(
+                        period.overview(), period.income(), period.balance(), period.cashFlow(), period.price());
+                sink += report.getRoic().doubleValue();
+            }
+        });
+        double columnarWithLoad = nanosPerPeriod(() -> sink += columnarCalculator.calculate(load(periods)).get(Ratio.ROIC, 0));
+        double columnar = nanosPerPeriod(() -> sink += columnarCalculator.calculate(loaded).get(Ratio.ROIC, 0));
+
+        System.out.printf("%-26s %12s%n", "engine", "ns/period");
+        System.out.printf("%-26s %12.0f%n", "BigDecimal calculators", bigDecimal);
+        System.out.printf("%-26s %12.0f%n", "columnar, with loading", columnarWithLoad);
+        System.out.printf("%-26s %12.0f%n", "columnar, loaded columns", columnar);
+        System.out.println(sink);
+
+        assertTrue(columnar < bigDecimal);
+    }
+
+    private static FinancialDataColumns load(List<Period> periods) {
+        FinancialDataColumns columns = new FinancialDataColumns(periods.size());
+        periods.forEach(period -> columns.add(period.overview(), period.income(), period.balance(), period.cashFlow(), period.price()));
+        return columns;
+    }
+
+    private static double nanosPerPeriod(Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            round.run();
+        }
+        return (System.nanoTime() - start) / (double) ROUNDS / PERIODS;
+    }
+}
@@ -0,0 +1,165 @@
+package com.testehan.finana.util;
+
+import com.testehan.finana.model.CompanyOverview;
+import com.testehan.finana.model.finstatement.BalanceSheetReport;
+import com.testehan.finana.model.finstatement.CashFlowReport;
+import com.testehan.finana.model.finstatement.IncomeReport;
+import com.testehan.finana.model.ratio.FinancialRatiosReport;
+import com.testehan.finana.util.data.FinancialDataColumns;
+import com.testehan.finana.util.ratio.*;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarRatiosCalculatorTest {
+
+    private final FinancialRatiosCalculator bigDecimalCalculator = new FinancialRatiosCalculator(
+            new ProfitabilityRatioCalculator(), new LiquidityRatioCalculator(), new LeverageRatioCalculator(),
+            new EfficiencyRatioCalculator(), new CashFlowMetricCalculator(), new PerShareMetricCalculator(),
+            new DividendMetricCalculator(), new OtherMetricCalculator());
+    private final ColumnarRatiosCalculator columnarCalculator = new ColumnarRatiosCalculator();
+
+    @Test
+    void calculate_MatchesTheBigDecimalCalculatorsWithinTolerance() {
+        List<Period> periods = StatementSamples.periods(new Random(42), 2_000);
+        FinancialDataColumns columns = new FinancialDataColumns(periods.size());
+        periods.forEach(period -> columns.add(period.overview(), period.income(), period.balance(), period.cashFlow(), period.price()));
+
+        RatioColumns ratios = columnarCalculator.calculate(columns);
+
+        for (int row = 0; row < periods.size(); row++) {
+            Period period = periods.get(row);
+            FinancialRatiosReport expected = bigDecimalCalculator.calculateRatios(
+                    period.overview(), period.income(), period.balance(), period.cashFlow(), period.price());
+            for (Ratio ratio : Ratio.values()) {
+                BigDecimal expectedValue = ratio.get(expected);
+                double actual = ratios.get(ratio, row);
+                if (expectedValue == null) {
+                    assertTrue(Double.isNaN(actual), ratio + " of row " + row + " should be missing, was " + actual);
+                } else {
+                    double tolerance = 1e-3 + 1e-4 * Math.abs(expectedValue.doubleValue());
+                    assertEquals(expectedValue.doubleValue(), actual, tolerance, ratio + " of row " + row);
+                }
+            }
+        }
+    }
+
+    @Test
+    void toReport_RoundsToFourDecimalsAndLeavesMissingRatiosNull() {
+        IncomeReport income = new IncomeReport();
+        income.setDate("2024-12-31");
+        income.setRevenue(new BigDecimal("3000"));
+        income.setGrossProfit(new BigDecimal("1000"));
+        FinancialDataColumns columns = new FinancialDataColumns(1);
+        columns.add(new CompanyOverview(), income, new BalanceSheetReport(), new CashFlowReport(), null);
+
+        FinancialRatiosReport report = columnarCalculator.calculate(columns).toReport(0);
+
+        assertEquals("2024-12-31", report.getDate());
+        assertEquals(new BigDecimal("0.3333"), report.getGrossProfitMargin());
+        assertNull(report.getCurrentRatio());
+        assertNull(report.getDividendYield());
+    }
+
+    record Period(CompanyOverview overview, IncomeReport income, BalanceSheetReport balance, CashFlowReport cashFlow,
+                  BigDecimal price) {
+    }
+
+    /**
+     * Statements with whole-dollar values, so that sums are exact in doubles too, including missing, zero and
+     * negative values.
+     */
+    static final class StatementSamples {
+
+        private static final long[] TAX_RATE_PERCENT = {-10, 10, 21, 30, 50};
+
+        static List<Period> periods(Random random, int count) {
+            List<Period> periods = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                periods.add(period(random, i));
+            }
+            return periods;
+        }
+
+        private static Period period(Random random, int index) {
+            CompanyOverview overview = new CompanyOverview();
+            overview.setMarketCap(random.nextInt(5) == 0 ? null : String.valueOf(random.nextLong(1_000_000_000L, 3_000_000_000_000L)));
+
+            IncomeReport income = new IncomeReport();
+            income.setDate(String.format("%d-12-31", 1990 + index % 35));
+            income.setRevenue(amount(random));
+            income.setGrossProfit(amount(random));
+            income.setCostOfRevenue(amount(random));
+            income.setOperatingIncome(signedAmount(random));
+            income.setNetIncome(signedAmount(random));
+            income.setEbit(signedAmount(random));
+            income.setEbitda(signedAmount(random));
+            long incomeBeforeTax = random.nextLong(-10_000_000L, 100_000_000L) * 100;
+            income.setIncomeBeforeTax(BigDecimal.valueOf(incomeBeforeTax));
+            income.setIncomeTaxExpense(BigDecimal.valueOf(incomeBeforeTax / 100 * TAX_RATE_PERCENT[random.nextInt(TAX_RATE_PERCENT.length)]));
+            income.setInterestExpense(signedAmount(random));
+            income.setEps(BigDecimal.valueOf(random.nextInt(-500, 2_000), 2));
+            income.setEpsDiluted(BigDecimal.valueOf(random.nextInt(-500, 2_000), 2));
+            income.setWeightedAverageShsOut(shares(random));
+            income.setWeightedAverageShsOutDil(shares(random));
+
+            BalanceSheetReport balance = new BalanceSheetReport();
+            balance.setTotalAssets(amount(random));
+            balance.setTotalCurrentAssets(amount(random));
+            balance.setCashAndCashEquivalents(amount(random));
+            balance.setShortTermInvestments(amount(random));
+            balance.setNetReceivables(amount(random));
+            balance.setInventory(amount(random));
+            balance.setMinorityInterest(amount(random));
+            balance.setGoodwill(amount(random));
+            balance.setIntangibleAssets(amount(random));
+            balance.setTotalLiabilities(amount(random));
+            balance.setAccountPayables(amount(random));
+            balance.setDeferredRevenue(amount(random));
+            balance.setShortTermDebt(amount(random));
+            balance.setOtherCurrentLiabilities(amount(random));
+            balance.setLongTermDebt(amount(random));
+            balance.setCapitalLeaseObligations(amount(random));
+            balance.setTotalStockholdersEquity(signedAmount(random));
+            balance.setRetainedEarnings(signedAmount(random));
+
+            CashFlowReport cashFlow = new CashFlowReport();
+            cashFlow.setOperatingCashFlow(signedAmount(random));
+            cashFlow.setCapitalExpenditure(negated(amount(random)));
+            cashFlow.setNetDividendsPaid(negated(amount(random)));
+            cashFlow.setCommonDividendsPaid(negated(amount(random)));
+            cashFlow.setStockBasedCompensation(amount(random));
+            cashFlow.setCommonStockRepurchased(negated(amount(random)));
+
+            BigDecimal price = random.nextInt(5) == 0 ? null : BigDecimal.valueOf(random.nextInt(100, 100_000), 2);
+            return new Period(overview, income, balance, cashFlow, price);
+        }
+
+        // missing or zero one time in eight each, otherwise between one million and one hundred billion
+        private static BigDecimal amount(Random random) {
+            return switch (random.nextInt(8)) {
+                case 0 -> null;
+                case 1 -> BigDecimal.ZERO;
+                default -> BigDecimal.valueOf(random.nextLong(1_000_000L, 100_000_000_000L));
+            };
+        }
+
+        private static BigDecimal signedAmount(Random random) {
+            BigDecimal amount = amount(random);
+            return random.nextInt(4) == 0 ? negated(amount) : amount;
+        }
+
+        private static BigDecimal shares(Random random) {
+            return random.nextInt(6) == 0 ? null : BigDecimal.valueOf(random.nextLong(10_000_000L, 10_000_000_000L));
+        }
+
+        private static BigDecimal negated(BigDecimal amount) {
+            return amount != null ? amount.negate() : null;
+        }
+    }
+}
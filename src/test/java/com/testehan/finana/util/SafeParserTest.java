@@ -11,16 +11,32 @@ class SafeParserTest {
     @Test
     void parse_returnsBigDecimal() {
         assertEquals(new BigDecimal("100.5"), safeParser.parse("100.5"));
-        assertEquals(BigDecimal.ZERO, safeParser.parse(null));
+        assertEquals(BigDecimal.ZERO, safeParser.parse((String) null));
         assertEquals(BigDecimal.ZERO, safeParser.parse(""));
         assertEquals(BigDecimal.ZERO, safeParser.parse("None"));
         assertEquals(BigDecimal.ZERO, safeParser.parse("abc"));
     }
 
+    @Test
+    void parse_typedValueIsKeptAndMissingIsZero() {
+        assertEquals(new BigDecimal("100.5"), safeParser.parse(new BigDecimal("100.5")));
+        assertEquals(BigDecimal.ZERO, safeParser.parse((BigDecimal) null));
+    }
+
     @Test
     void tryParseDouble_returnsDoubleOrNull() {
         assertEquals(10.5, SafeParser.tryParseDouble("10.5"));
-        assertNull(SafeParser.tryParseDouble(null));
+        assertNull(SafeParser.tryParseDouble((String) null));
         assertNull(SafeParser.tryParseDouble("abc"));
+        assertEquals(10.5, SafeParser.tryParseDouble(new BigDecimal("10.5")));
+        assertNull(SafeParser.tryParseDouble((BigDecimal) null));
+    }
+
+    @Test
+    void tryParseDecimal_returnsDecimalOrNull() {
+        assertEquals(new BigDecimal("-6.08"), SafeParser.tryParseDecimal(" -6.08 "));
+        assertNull(SafeParser.tryParseDecimal(null));
+        assertNull(SafeParser.tryParseDecimal(""));
+        assertNull(SafeParser.tryParseDecimal("None"));
     }
 }
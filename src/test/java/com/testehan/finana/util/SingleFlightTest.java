@@ -0,0 +1,83 @@
+package com.testehan.finana.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_concurrentCallersShareOneExecution() {
+        AtomicInteger executions = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        Mono<String> first = singleFlight.execute("AAPL", () -> {
+            executions.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<String> second = singleFlight.execute("AAPL", () -> {
+            executions.incrementAndGet();
+            return Mono.just("other");
+        });
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> {
+                    assertEquals(1, singleFlight.inFlightCount());
+                    upstream.tryEmitValue("result");
+                })
+                .assertNext(tuple -> {
+                    assertEquals("result", tuple.getT1());
+                    assertEquals("result", tuple.getT2());
+                })
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void execute_releasesKeyAfterCompletion() {
+        AtomicInteger executions = new AtomicInteger();
+
+        StepVerifier.create(singleFlight.execute("AAPL", () -> Mono.fromCallable(() -> "call" + executions.incrementAndGet())))
+                .expectNext("call1")
+                .verifyComplete();
+        StepVerifier.create(singleFlight.execute("AAPL", () -> Mono.fromCallable(() -> "call" + executions.incrementAndGet())))
+                .expectNext("call2")
+                .verifyComplete();
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_releasesKeyAfterError() {
+        StepVerifier.create(singleFlight.execute("AAPL", () -> Mono.error(new RuntimeException("boom"))))
+                .verifyErrorMessage("boom");
+
+        StepVerifier.create(singleFlight.execute("AAPL", () -> Mono.just("recovered")))
+                .expectNext("recovered")
+                .verifyComplete();
+    }
+
+    @Test
+    void execute_differentKeysRunIndependently() {
+        Sinks.One<String> pending = Sinks.one();
+        Mono<String> apple = singleFlight.execute("AAPL", pending::asMono);
+
+        StepVerifier.create(singleFlight.execute("MSFT", () -> Mono.just("msft")))
+                .expectNext("msft")
+                .verifyComplete();
+
+        StepVerifier.create(apple)
+                .then(() -> pending.tryEmitValue("aapl"))
+                .expectNext("aapl")
+                .verifyComplete();
+    }
+}
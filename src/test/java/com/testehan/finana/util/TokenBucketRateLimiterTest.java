@@ -0,0 +1,81 @@
+package com.testehan.finana.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void acquire_BurstUpToCapacityIsGrantedImmediately() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 3, 1, meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(limiter.acquire(RequestPriority.INTERACTIVE).then(Mono.just(i)).block(Duration.ofMillis(100)));
+        }
+        assertEquals(3, meterRegistry.get("ratelimiter.wait").tag("priority", "interactive").timer().count());
+    }
+
+    @Test
+    void acquire_WaitsForRefillOnceTheBucketIsEmpty() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 1, 10, meterRegistry);
+        limiter.acquire(RequestPriority.INTERACTIVE).block();
+
+        long start = System.nanoTime();
+        limiter.acquire(RequestPriority.INTERACTIVE).block(Duration.ofSeconds(2));
+        long waitedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(waitedMillis >= 60, "waited only " + waitedMillis + " ms");
+    }
+
+    @Test
+    void acquire_InteractiveLaneIsServedBeforeBackground() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 1, 20, meterRegistry);
+        limiter.acquire(RequestPriority.INTERACTIVE).block();
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        limiter.acquire(RequestPriority.BACKGROUND).subscribe(null, null, () -> order.add("background"));
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe(null, null, () -> order.add("interactive"));
+        assertEquals(1, limiter.queueDepth(RequestPriority.BACKGROUND));
+        assertEquals(1, limiter.queueDepth(RequestPriority.INTERACTIVE));
+        assertEquals(1.0, meterRegistry.get("ratelimiter.queue.depth").tag("priority", "background").gauge().value());
+
+        Thread.sleep(300);
+
+        assertEquals(List.of("interactive", "background"), order);
+    }
+
+    @Test
+    void acquire_CancelledWaiterLeavesTheQueue() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 1, 1, meterRegistry);
+        limiter.acquire(RequestPriority.INTERACTIVE).block();
+
+        Disposable waiting = limiter.acquire(RequestPriority.BACKGROUND).subscribe();
+        assertEquals(1, limiter.queueDepth(RequestPriority.BACKGROUND));
+        waiting.dispose();
+
+        assertEquals(0, limiter.queueDepth(RequestPriority.BACKGROUND));
+    }
+
+    @Test
+    void pause_HoldsGrantsUntilItExpires() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 5, 100, meterRegistry);
+        limiter.pause(Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        limiter.acquire(RequestPriority.INTERACTIVE).block(Duration.ofSeconds(2));
+        long waitedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(waitedMillis >= 180, "waited only " + waitedMillis + " ms");
+        assertEquals(1.0, meterRegistry.get("ratelimiter.pauses").counter().count());
+    }
+}
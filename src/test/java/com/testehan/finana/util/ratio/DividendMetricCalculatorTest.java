@@ -43,13 +43,13 @@ class DividendMetricCalculatorTest {
 
         overview.setMarketCap(marketCap != null ? marketCap.toPlainString() : null);
 
-        income.setWeightedAverageShsOut(sharesOutstandingBasic != null ? sharesOutstandingBasic.toPlainString() : null);
-        income.setWeightedAverageShsOutDil(sharesOutstanding != null ? sharesOutstanding.toPlainString() : null);
-        income.setNetIncome(netIncome != null ? netIncome.toPlainString() : null);
+        income.setWeightedAverageShsOut(sharesOutstandingBasic);
+        income.setWeightedAverageShsOutDil(sharesOutstanding);
+        income.setNetIncome(netIncome);
 
-        cashFlow.setCommonDividendsPaid(dividendPayoutCommonStock != null ? dividendPayoutCommonStock.toPlainString() : null);
-        cashFlow.setNetDividendsPaid(dividendPayout != null ? dividendPayout.toPlainString() : null);
-        cashFlow.setCommonStockRepurchased(commonStockRepurchased != null ? commonStockRepurchased.toPlainString() : null);
+        cashFlow.setCommonDividendsPaid(dividendPayoutCommonStock);
+        cashFlow.setNetDividendsPaid(dividendPayout);
+        cashFlow.setCommonStockRepurchased(commonStockRepurchased);
 
         return ParsedFinancialData.parse(overview, income, balance, cashFlow, stockPrice);
     }
@@ -44,19 +44,19 @@ class EfficiencyRatioCalculatorTest {
         CashFlowReport cashFlow = new CashFlowReport();
 
         // Set income statement values
-        income.setRevenue(totalRevenue != null ? totalRevenue.toPlainString() : null);
-        income.setCostOfRevenue(costOfRevenue != null ? costOfRevenue.toPlainString() : null);
+        income.setRevenue(totalRevenue);
+        income.setCostOfRevenue(costOfRevenue);
 
         // Set balance sheet values
-        balance.setTotalAssets(totalAssets != null ? totalAssets.toPlainString() : null);
-        balance.setInventory(inventory != null ? inventory.toPlainString() : null);
-        balance.setNetReceivables(netReceivables != null ? netReceivables.toPlainString() : null);
-        balance.setAccountPayables(accountsPayable != null ? accountsPayable.toPlainString() : null);
-        balance.setShortTermDebt(totalDebt != null ? totalDebt.toPlainString() : null);
-        balance.setLongTermDebt("0");
-        balance.setTotalStockholdersEquity(shareholderEquity != null ? shareholderEquity.toPlainString() : null);
-        balance.setCashAndCashEquivalents(cash != null ? cash.toPlainString() : null);
-        balance.setShortTermInvestments(shortTermInvestments != null ? shortTermInvestments.toPlainString() : null);
+        balance.setTotalAssets(totalAssets);
+        balance.setInventory(inventory);
+        balance.setNetReceivables(netReceivables);
+        balance.setAccountPayables(accountsPayable);
+        balance.setShortTermDebt(totalDebt);
+        balance.setLongTermDebt(new BigDecimal("0"));
+        balance.setTotalStockholdersEquity(shareholderEquity);
+        balance.setCashAndCashEquivalents(cash);
+        balance.setShortTermInvestments(shortTermInvestments);
 
         return ParsedFinancialData.parse(overview, income, balance, cashFlow);
     }
@@ -43,17 +43,17 @@ class LeverageRatioCalculatorTest {
         CashFlowReport cashFlow = new CashFlowReport();
 
         // Set balance sheet values
-        balance.setTotalAssets(totalAssets != null ? totalAssets.toPlainString() : null);
-        balance.setTotalLiabilities(totalLiabilities != null ? totalLiabilities.toPlainString() : null);
-        balance.setTotalStockholdersEquity(totalShareholderEquity != null ? totalShareholderEquity.toPlainString() : null);
-        balance.setShortTermDebt(shortTermDebt != null ? shortTermDebt.toPlainString() : null);
-        balance.setLongTermDebt(longTermDebt != null ? longTermDebt.toPlainString() : null);
-        balance.setCashAndCashEquivalents(cash != null ? cash.toPlainString() : null);
+        balance.setTotalAssets(totalAssets);
+        balance.setTotalLiabilities(totalLiabilities);
+        balance.setTotalStockholdersEquity(totalShareholderEquity);
+        balance.setShortTermDebt(shortTermDebt);
+        balance.setLongTermDebt(longTermDebt);
+        balance.setCashAndCashEquivalents(cash);
 
         // Set income statement values
-        income.setEbit(ebit != null ? ebit.toPlainString() : null);
-        income.setEbitda(ebitda != null ? ebitda.toPlainString() : null);
-        income.setInterestExpense(interestExpense != null ? interestExpense.toPlainString() : null);
+        income.setEbit(ebit);
+        income.setEbitda(ebitda);
+        income.setInterestExpense(interestExpense);
 
         return ParsedFinancialData.parse(overview, income, balance, cashFlow);
     }
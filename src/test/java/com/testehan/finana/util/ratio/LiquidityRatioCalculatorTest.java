@@ -41,13 +41,13 @@ class LiquidityRatioCalculatorTest {
         CashFlowReport cashFlow = new CashFlowReport();
 
         // Set balance sheet values
-        balance.setTotalCurrentAssets(totalCurrentAssets != null ? totalCurrentAssets.toPlainString() : null);
-        balance.setInventory(inventory != null ? inventory.toPlainString() : null);
-        balance.setCashAndCashEquivalents(cash != null ? cash.toPlainString() : null);
-        balance.setShortTermDebt(shortTermDebt != null ? shortTermDebt.toPlainString() : null);
-        balance.setAccountPayables(accountsPayable != null ? accountsPayable.toPlainString() : null);
-        balance.setOtherCurrentLiabilities(otherCurrentLiabilities != null ? otherCurrentLiabilities.toPlainString() : null);
-        balance.setDeferredRevenue(deferredRevenue != null ? deferredRevenue.toPlainString() : null);
+        balance.setTotalCurrentAssets(totalCurrentAssets);
+        balance.setInventory(inventory);
+        balance.setCashAndCashEquivalents(cash);
+        balance.setShortTermDebt(shortTermDebt);
+        balance.setAccountPayables(accountsPayable);
+        balance.setOtherCurrentLiabilities(otherCurrentLiabilities);
+        balance.setDeferredRevenue(deferredRevenue);
 
         return ParsedFinancialData.parse(overview, income, balance, cashFlow);
     }
@@ -46,19 +46,19 @@ class OtherMetricCalculatorTest {
         CashFlowReport cashFlow = new CashFlowReport();
 
         // Set balance sheet values
-        balance.setTotalCurrentAssets(totalCurrentAssets != null ? totalCurrentAssets.toPlainString() : null);
-        balance.setShortTermDebt(shortTermDebt != null ? shortTermDebt.toPlainString() : null);
-        balance.setAccountPayables(accountsPayable != null ? accountsPayable.toPlainString() : null);
-        balance.setOtherCurrentLiabilities(otherCurrentLiabilities != null ? otherCurrentLiabilities.toPlainString() : null);
-        balance.setDeferredRevenue(deferredRevenue != null ? deferredRevenue.toPlainString() : null);
-        balance.setTotalAssets(totalAssets != null ? totalAssets.toPlainString() : null);
-        balance.setTotalLiabilities(totalLiabilities != null ? totalLiabilities.toPlainString() : null);
-        balance.setTotalStockholdersEquity(totalShareholderEquity != null ? totalShareholderEquity.toPlainString() : null);
-        balance.setRetainedEarnings(retainedEarnings != null ? retainedEarnings.toPlainString() : null);
+        balance.setTotalCurrentAssets(totalCurrentAssets);
+        balance.setShortTermDebt(shortTermDebt);
+        balance.setAccountPayables(accountsPayable);
+        balance.setOtherCurrentLiabilities(otherCurrentLiabilities);
+        balance.setDeferredRevenue(deferredRevenue);
+        balance.setTotalAssets(totalAssets);
+        balance.setTotalLiabilities(totalLiabilities);
+        balance.setTotalStockholdersEquity(totalShareholderEquity);
+        balance.setRetainedEarnings(retainedEarnings);
 
         // Set income statement values
-        income.setEbit(ebit != null ? ebit.toPlainString() : null);
-        income.setRevenue(totalRevenue != null ? totalRevenue.toPlainString() : null);
+        income.setEbit(ebit);
+        income.setRevenue(totalRevenue);
 
         // Set company overview
         overview.setMarketCap(marketCap != null ? marketCap.toPlainString() : null);
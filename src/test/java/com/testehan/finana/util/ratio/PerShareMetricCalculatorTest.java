@@ -47,23 +47,23 @@ class PerShareMetricCalculatorTest {
         CashFlowReport cashFlow = new CashFlowReport();
 
         // Set income statement values
-        income.setEps(eps != null ? eps.toPlainString() : null);
-        income.setEpsDiluted(epsDiluted != null ? epsDiluted.toPlainString() : null);
-        income.setRevenue(totalRevenue != null ? totalRevenue.toPlainString() : null);
-        income.setWeightedAverageShsOut(sharesOutstandingBasic != null ? sharesOutstandingBasic.toPlainString() : null);
-        income.setWeightedAverageShsOutDil(sharesOutstanding != null ? sharesOutstanding.toPlainString() : null);
+        income.setEps(eps);
+        income.setEpsDiluted(epsDiluted);
+        income.setRevenue(totalRevenue);
+        income.setWeightedAverageShsOut(sharesOutstandingBasic);
+        income.setWeightedAverageShsOutDil(sharesOutstanding);
 
         // Set balance sheet values
-        balance.setTotalStockholdersEquity(totalShareholderEquity != null ? totalShareholderEquity.toPlainString() : null);
-        balance.setShortTermDebt(shortTermDebt != null ? shortTermDebt.toPlainString() : null);
-        balance.setLongTermDebt(longTermDebt != null ? longTermDebt.toPlainString() : null);
-        balance.setGoodwill(goodwill != null ? goodwill.toPlainString() : null);
-        balance.setIntangibleAssets(intangibleAssets != null ? intangibleAssets.toPlainString() : null);
-        balance.setCashAndCashEquivalents(cash != null ? cash.toPlainString() : null);
+        balance.setTotalStockholdersEquity(totalShareholderEquity);
+        balance.setShortTermDebt(shortTermDebt);
+        balance.setLongTermDebt(longTermDebt);
+        balance.setGoodwill(goodwill);
+        balance.setIntangibleAssets(intangibleAssets);
+        balance.setCashAndCashEquivalents(cash);
 
         // Set cash flow values
-        cashFlow.setOperatingCashFlow(operatingCashflow != null ? operatingCashflow.toPlainString() : null);
-        cashFlow.setCapitalExpenditure(capitalExpenditures != null ? capitalExpenditures.toPlainString() : null);
+        cashFlow.setOperatingCashFlow(operatingCashflow);
+        cashFlow.setCapitalExpenditure(capitalExpenditures);
 
         return ParsedFinancialData.parse(overview, income, balance, cashFlow);
     }
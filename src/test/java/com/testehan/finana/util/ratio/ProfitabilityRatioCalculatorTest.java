@@ -51,27 +51,27 @@ class ProfitabilityRatioCalculatorTest {
         CashFlowReport cashFlow = new CashFlowReport();
 
         // Set income statement values
-        income.setRevenue(totalRevenue != null ? totalRevenue.toPlainString() : null);
-        income.setGrossProfit(grossProfit != null ? grossProfit.toPlainString() : null);
-        income.setNetIncome(netIncome != null ? netIncome.toPlainString() : null);
-        income.setOperatingIncome(operatingIncome != null ? operatingIncome.toPlainString() : null);
-        income.setEbit(ebit != null ? ebit.toPlainString() : null);
-        income.setEbitda(ebitda != null ? ebitda.toPlainString() : null);
-        income.setIncomeBeforeTax(incomeBeforeTax != null ? incomeBeforeTax.toPlainString() : null);
-        income.setIncomeTaxExpense(incomeTaxExpense != null ? incomeTaxExpense.toPlainString() : null);
+        income.setRevenue(totalRevenue);
+        income.setGrossProfit(grossProfit);
+        income.setNetIncome(netIncome);
+        income.setOperatingIncome(operatingIncome);
+        income.setEbit(ebit);
+        income.setEbitda(ebitda);
+        income.setIncomeBeforeTax(incomeBeforeTax);
+        income.setIncomeTaxExpense(incomeTaxExpense);
 
         // Set balance sheet values
-        balance.setTotalAssets(totalAssets != null ? totalAssets.toPlainString() : null);
-        balance.setTotalStockholdersEquity(totalShareholderEquity != null ? totalShareholderEquity.toPlainString() : null);
-        balance.setShortTermDebt(shortTermDebt != null ? shortTermDebt.toPlainString() : null);
-        balance.setLongTermDebt(longTermDebt != null ? longTermDebt.toPlainString() : null);
-        balance.setCapitalLeaseObligations(capitalLeaseObligations != null ? capitalLeaseObligations.toPlainString() : null);
-        balance.setMinorityInterest(minorityInterest != null ? minorityInterest.toPlainString() : null);
-        balance.setCashAndCashEquivalents(cash != null ? cash.toPlainString() : null);
-        balance.setShortTermInvestments(shortTermInvestments != null ? shortTermInvestments.toPlainString() : null);
+        balance.setTotalAssets(totalAssets);
+        balance.setTotalStockholdersEquity(totalShareholderEquity);
+        balance.setShortTermDebt(shortTermDebt);
+        balance.setLongTermDebt(longTermDebt);
+        balance.setCapitalLeaseObligations(capitalLeaseObligations);
+        balance.setMinorityInterest(minorityInterest);
+        balance.setCashAndCashEquivalents(cash);
+        balance.setShortTermInvestments(shortTermInvestments);
 
         // Set cash flow values
-        cashFlow.setStockBasedCompensation(stockBasedCompensation != null ? stockBasedCompensation.toPlainString() : null);
+        cashFlow.setStockBasedCompensation(stockBasedCompensation);
 
         return ParsedFinancialData.parse(overview, income, balance, cashFlow);
     }
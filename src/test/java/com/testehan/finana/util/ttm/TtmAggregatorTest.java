@@ -0,0 +1,146 @@
+package com.testehan.finana.util.ttm;
+
+import com.testehan.finana.model.finstatement.CashFlowReport;
+import com.testehan.finana.model.finstatement.IncomeReport;
+import com.testehan.finana.model.finstatement.TtmReport;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtmAggregatorTest {
+
+    @Test
+    void series_SumsEveryFourConsecutiveQuartersNewestFirst() {
+        List<IncomeReport> income = new ArrayList<>();
+        List<CashFlowReport> cashFlows = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            income.add(income(2023 + i / 4, i % 4 + 1, String.valueOf(i + 1)));
+            cashFlows.add(cashFlow(2023 + i / 4, i % 4 + 1, String.valueOf((i + 1) * 10)));
+        }
+
+        List<TtmReport> series = TtmAggregator.series(TtmAggregator.quarters(income, cashFlows));
+
+        assertEquals(List.of("2024-06-30", "2024-03-31", "2023-12-31"), series.stream().map(TtmReport::getDate).toList());
+        assertEquals(List.of(new BigDecimal("18"), new BigDecimal("14"), new BigDecimal("10")),
+                series.stream().map(TtmReport::getRevenue).toList());
+        assertEquals(List.of(new BigDecimal("180"), new BigDecimal("140"), new BigDecimal("100")),
+                series.stream().map(TtmReport::getOperatingCashFlow).toList());
+        assertEquals("Q2", series.getFirst().getPeriod());
+    }
+
+    @Test
+    void series_StartsANewWindowAfterAMissingQuarter() {
+        List<IncomeReport> income = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            if (i != 3) {
+                income.add(income(2022 + i / 4, i % 4 + 1, "1"));
+            }
+        }
+
+        List<TtmReport> series = TtmAggregator.series(TtmAggregator.quarters(income, List.of()));
+
+        assertEquals(1, series.size());
+        assertEquals("2023-12-31", series.getFirst().getDate());
+        assertEquals(new BigDecimal("4"), series.getFirst().getRevenue());
+    }
+
+    @Test
+    void quarters_MatchesStatementsByFiscalPeriodAndKeepsQuartersWithOneStatement() {
+        IncomeReport q1 = income(2024, 1, "100");
+        CashFlowReport q1CashFlow = cashFlow(2024, 1, "40");
+        CashFlowReport q2CashFlow = cashFlow(2024, 2, "50");
+
+        List<TtmQuarter> quarters = TtmAggregator.quarters(List.of(q1), List.of(q2CashFlow, q1CashFlow));
+
+        assertEquals(2, quarters.size());
+        assertSame(q1, quarters.get(0).income());
+        assertSame(q1CashFlow, quarters.get(0).cashFlow());
+        assertNull(quarters.get(1).income());
+        assertEquals(BigDecimal.ZERO, TtmField.REVENUE.valueOf(quarters.get(1)));
+    }
+
+    @Test
+    void latest_UsesDatesWithoutFiscalPeriodsAndNeedsFourQuarters() {
+        List<IncomeReport> income = new ArrayList<>();
+        for (String date : List.of("2024-12-31", "2024-09-30", "2024-06-30", "2024-03-31")) {
+            IncomeReport report = new IncomeReport();
+            report.setDate(date);
+            report.setRevenue(new BigDecimal("25"));
+            income.add(report);
+        }
+
+        assertEquals(new BigDecimal("100"), TtmAggregator.latest(income, List.of()).orElseThrow().getRevenue());
+        assertTrue(TtmAggregator.latest(income.subList(0, 3), List.of()).isEmpty());
+    }
+
+    @Test
+    void latestFourQuarters_SumsAcrossAMissingQuarter() {
+        List<IncomeReport> income = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            if (i != 3) {
+                income.add(income(2023 + i / 4, i % 4 + 1, String.valueOf(i + 1)));
+            }
+        }
+
+        assertTrue(TtmAggregator.latest(income, List.of()).isEmpty());
+        TtmReport report = TtmAggregator.latestFourQuarters(income, List.of()).orElseThrow();
+        assertEquals(new BigDecimal("16"), report.getRevenue());
+        assertEquals("2024-06-30", report.getDate());
+        assertTrue(TtmAggregator.latestFourQuarters(income.subList(0, 3), List.of()).isEmpty());
+    }
+
+    @Test
+    void add_KeepsExactRunningSumsOverALongSeries() {
+        Random random = new Random(3);
+        List<IncomeReport> income = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            income.add(income(1900 + i / 4, i % 4 + 1, BigDecimal.valueOf(random.nextLong(-1_000_000_000L, 1_000_000_000L), 2).toPlainString()));
+        }
+
+        TtmAggregator aggregator = new TtmAggregator();
+        for (int i = 0; i < income.size(); i++) {
+            TtmReport report = aggregator.add(TtmQuarter.of(income.get(i), null)).orElse(null);
+            if (i < 3) {
+                assertNull(report);
+                continue;
+            }
+            BigDecimal expected = BigDecimal.ZERO;
+            for (int quarter = i - 3; quarter <= i; quarter++) {
+                expected = expected.add(income.get(quarter).getRevenue());
+            }
+            assertEquals(0, expected.compareTo(report.getRevenue()), "twelve months ending with quarter " + i);
+        }
+    }
+
+    static IncomeReport income(int fiscalYear, int quarter, String revenue) {
+        IncomeReport report = new IncomeReport();
+        report.setDate(quarterEnd(fiscalYear, quarter));
+        report.setFiscalYear(String.valueOf(fiscalYear));
+        report.setPeriod("Q" + quarter);
+        report.setRevenue(new BigDecimal(revenue));
+        return report;
+    }
+
+    static CashFlowReport cashFlow(int fiscalYear, int quarter, String operatingCashFlow) {
+        CashFlowReport report = new CashFlowReport();
+        report.setDate(quarterEnd(fiscalYear, quarter));
+        report.setFiscalYear(String.valueOf(fiscalYear));
+        report.setPeriod("Q" + quarter);
+        report.setOperatingCashFlow(new BigDecimal(operatingCashFlow));
+        return report;
+    }
+
+    private static String quarterEnd(int fiscalYear, int quarter) {
+        return fiscalYear + switch (quarter) {
+            case 1 -> "-03-31";
+            case 2 -> "-06-30";
+            case 3 -> "-09-30";
+            default -> "-12-31";
+        };
+    }
+}